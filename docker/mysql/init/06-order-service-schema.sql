@@ -73,19 +73,41 @@ CREATE TABLE order_saga_state (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     order_id BIGINT NOT NULL,
     saga_id VARCHAR(100) NOT NULL,
+    tenant_id VARCHAR(50) NOT NULL,
     current_step VARCHAR(100) NOT NULL,
     saga_data JSON,
-    status ENUM('STARTED', 'COMPLETED', 'COMPENSATING', 'FAILED') NOT NULL DEFAULT 'STARTED',
+    status ENUM('STARTED', 'IN_PROGRESS', 'COMPLETED', 'COMPENSATING', 'COMPENSATED', 'FAILED') NOT NULL DEFAULT 'STARTED',
+    retry_count INT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    timeout_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(100),
+    locked_until TIMESTAMP(3) NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     completed_at TIMESTAMP NULL,
     FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE,
     UNIQUE KEY unique_saga_id (saga_id),
-    INDEX idx_order_id (order_id),
+    UNIQUE KEY unique_order_id (order_id),
+    INDEX idx_status_due (status, next_attempt_at),
+    INDEX idx_status_timeout (status, timeout_at),
     INDEX idx_status (status),
     INDEX idx_current_step (current_step)
 );
 
+-- Transactional outbox: order events written with the order change and relayed to Kafka in id order
+CREATE TABLE order_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    tenant_id VARCHAR(50) NOT NULL,
+    topic VARCHAR(100) NOT NULL,
+    event_key VARCHAR(100) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload JSON NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    claimed_by VARCHAR(100) NULL,
+    claimed_until TIMESTAMP(3) NULL
+);
+
 -- Idempotency tokens for duplicate prevention
 CREATE TABLE idempotency_tokens (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
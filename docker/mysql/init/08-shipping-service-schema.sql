@@ -100,3 +100,10 @@ CREATE TABLE shipping_rates (
     INDEX idx_expires_at (expires_at)
 );
 
+
+-- Scheduler leases: the instance named in owner runs the job until expires_at, by the database clock
+CREATE TABLE scheduler_leases (
+    name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    expires_at DATETIME(3) NOT NULL
+);
@@ -2,8 +2,10 @@ package com.ecommerce.productservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "com.ecommerce")
+@EnableScheduling
 public class ProductServiceApplication {
 
     public static void main(String[] args) {
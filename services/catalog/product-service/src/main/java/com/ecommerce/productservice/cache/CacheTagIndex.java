@@ -0,0 +1,34 @@
+package com.ecommerce.productservice.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index from cache tags to the cache entries carrying them
+ */
+public interface CacheTagIndex {
+
+    /**
+     * Record that the entry under the key of the named cache carries the given tags
+     */
+    void tag(String cacheName, String key, Collection<String> tags);
+
+    /**
+     * Current invalidation epoch, to read before loading an entry and pass to
+     * {@link #invalidatedSince} once it is stored
+     */
+    long epoch();
+
+    /**
+     * Whether any of the given tags was invalidated after the epoch was read
+     */
+    boolean invalidatedSince(Collection<String> tags, long epoch);
+
+    /**
+     * Mark the given tags invalidated in a new epoch, then remove them from the index
+     *
+     * @return Keys of the entries that carried any of the tags, by cache name
+     */
+    Map<String, Set<String>> removeTagged(Collection<String> tags);
+}
@@ -0,0 +1,161 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.dto.ProductSummaryResponse;
+import com.ecommerce.productservice.dto.SearchFilters;
+import com.ecommerce.productservice.entity.Product;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Tags of product cache entries and of catalog changes, all scoped to one tenant.
+ *
+ * An entry carries a product tag for every product it contains, plus a tag for the slice of the
+ * catalog its query ranges over: a category, a brand, or one of the tenant-wide listings. A change
+ * evicts the tags of the product, of its old and new category and brand, and of the tenant-wide
+ * listings whose membership it can alter. Listings sorted by update time are not reordered by
+ * changes to products they don't contain until their TTL expires.
+ */
+public final class ProductCacheTags {
+
+    /**
+     * Tenant-wide listings, by the product fields that decide their membership
+     */
+    public enum Listing {
+        /** Text searches, matched on name, description and facets */
+        TEXT,
+        /** Price range searches */
+        PRICE,
+        /** Unfiltered or status-filtered listings: all, recent, popular, featured */
+        CATALOG,
+        /** The tenant's category and brand lists */
+        FACETS
+    }
+
+    private ProductCacheTags() {
+    }
+
+    public static String product(String tenantId, String productId) {
+        return tenantId + ":product:" + productId;
+    }
+
+    public static String category(String tenantId, String category) {
+        return tenantId + ":category:" + category;
+    }
+
+    public static String brand(String tenantId, String brand) {
+        return tenantId + ":brand:" + brand;
+    }
+
+    public static String listing(String tenantId, Listing listing) {
+        return tenantId + ":listing:" + listing.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Product tags of every product in a cached listing
+     */
+    public static Set<String> contents(String tenantId, Collection<ProductSummaryResponse> products) {
+        Set<String> tags = new HashSet<>();
+        for (ProductSummaryResponse product : products) {
+            tags.add(product(tenantId, product.getId()));
+        }
+        return tags;
+    }
+
+    /**
+     * Tags of a search page: its contents and the slice of the catalog its filters select
+     */
+    public static Set<String> search(String tenantId, SearchFilters filters,
+                                     Collection<ProductSummaryResponse> products) {
+        Set<String> tags = contents(tenantId, products);
+        if (StringUtils.hasText(filters.getSearchText())) {
+            tags.add(listing(tenantId, Listing.TEXT));
+        } else if (filters.getMinPrice() != null || filters.getMaxPrice() != null) {
+            tags.add(listing(tenantId, Listing.PRICE));
+        } else if (StringUtils.hasText(filters.getCategory())) {
+            tags.add(category(tenantId, filters.getCategory()));
+        } else if (StringUtils.hasText(filters.getBrand())) {
+            tags.add(brand(tenantId, filters.getBrand()));
+        } else {
+            tags.add(listing(tenantId, Listing.CATALOG));
+        }
+        return tags;
+    }
+
+    /**
+     * Tags to evict when a product is created or deleted: it joins or leaves every listing
+     */
+    public static Set<String> createdOrDeleted(Product product) {
+        String tenantId = product.getTenantId();
+        Set<String> tags = new HashSet<>();
+        tags.add(product(tenantId, product.getId()));
+        addFacets(tags, tenantId, product.getCategory(), product.getBrand());
+        for (Listing listing : Listing.values()) {
+            tags.add(listing(tenantId, listing));
+        }
+        return tags;
+    }
+
+    /**
+     * Tags to evict when a product changes from the given previous values
+     *
+     * @param previousValues Field values before the update, keyed by field name
+     * @param product The product after the update
+     */
+    public static Set<String> updated(Map<String, Object> previousValues, Product product) {
+        String tenantId = product.getTenantId();
+        Set<String> tags = new HashSet<>();
+        tags.add(product(tenantId, product.getId()));
+        addFacets(tags, tenantId, product.getCategory(), product.getBrand());
+        addFacets(tags, tenantId, (String) previousValues.get("category"), (String) previousValues.get("brand"));
+
+        boolean facetsChanged = changed(previousValues, "category", product.getCategory())
+            || changed(previousValues, "brand", product.getBrand());
+        String status = product.getStatus() != null ? product.getStatus().name() : null;
+        boolean statusChanged = changed(previousValues, "status", status);
+
+        if (facetsChanged) {
+            tags.add(listing(tenantId, Listing.FACETS));
+        }
+        if (facetsChanged || statusChanged
+                || changed(previousValues, "name", product.getName())
+                || changed(previousValues, "description", product.getDescription())
+                || changed(previousValues, "subcategory", product.getSubcategory())) {
+            tags.add(listing(tenantId, Listing.TEXT));
+        }
+        if (statusChanged) {
+            tags.add(listing(tenantId, Listing.CATALOG));
+        }
+        BigDecimal price = product.getPrice() != null ? product.getPrice().getAmount() : null;
+        if (statusChanged || priceChanged((BigDecimal) previousValues.get("price"), price)) {
+            tags.add(listing(tenantId, Listing.PRICE));
+        }
+        return tags;
+    }
+
+    private static void addFacets(Set<String> tags, String tenantId, String category, String brand) {
+        if (StringUtils.hasText(category)) {
+            tags.add(category(tenantId, category));
+        }
+        if (StringUtils.hasText(brand)) {
+            tags.add(brand(tenantId, brand));
+        }
+    }
+
+    private static boolean changed(Map<String, Object> previousValues, String field, Object value) {
+        return !Objects.equals(previousValues.get(field), value);
+    }
+
+    private static boolean priceChanged(BigDecimal previous, BigDecimal current) {
+        if (previous == null || current == null) {
+            return previous != current;
+        }
+        return previous.compareTo(current) != 0;
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.cache.TaggedProductCache.TaggedValue;
+import com.ecommerce.shared.metrics.collectors.CacheMetricsCollector;
+import com.ecommerce.shared.utils.cache.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived, size-bounded in-process tier in front of the Redis product caches.
+ *
+ * Holds the tagged entries of the configured caches for a few seconds, so hot reads skip the Redis
+ * round trip and JSON deserialization. Entries are dropped by tag when this instance changes a
+ * product and when the product events of other instances arrive. Every invalidation bumps a
+ * generation counter; a read that started before an invalidation does not store its result, so a
+ * slow Redis or repository read cannot put stale data back. Entries live in a
+ * {@link BoundedTtlCache}, and those it expires or evicts are dropped from the tag index too.
+ * Cached values are shared between callers and must not be mutated.
+ */
+@Component
+public class ProductLocalCache {
+
+    private static final String KEY_SEPARATOR = "::";
+
+    private final BoundedTtlCache<String, TaggedValue> entries;
+    private final Map<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<String> cacheNames;
+    private final int maxSize;
+
+    @Autowired
+    public ProductLocalCache(@Value("${app.cache.local.caches:products}") Set<String> cacheNames,
+                             @Value("${app.cache.local.ttl-ms:10000}") long ttlMillis,
+                             @Value("${app.cache.local.max-size:10000}") int maxSize,
+                             CacheMetricsCollector cacheMetrics) {
+        this(cacheNames, ttlMillis, maxSize, cacheMetrics, System::nanoTime);
+    }
+
+    ProductLocalCache(Set<String> cacheNames, long ttlMillis, int maxSize,
+                      CacheMetricsCollector cacheMetrics, LongSupplier nanoClock) {
+        this.cacheNames = Set.copyOf(cacheNames);
+        this.maxSize = maxSize;
+        this.entries = new BoundedTtlCache<>(maxSize, ttlMillis * 1_000_000L, nanoClock, this::untag);
+        cacheMetrics.registerTierSize("product-caches", "l1", entries, BoundedTtlCache::size);
+    }
+
+    /**
+     * Whether entries of the given cache are held locally
+     */
+    public boolean holds(String cacheName) {
+        return maxSize > 0 && cacheNames.contains(cacheName);
+    }
+
+    /**
+     * Current generation; pass it back to {@link #put} after reading the entry from Redis or the
+     * repository
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Look up a fresh local entry
+     *
+     * @return the entry, or null if it is missing or expired
+     */
+    public TaggedValue get(String cacheName, String key) {
+        return entries.get(cacheName + KEY_SEPARATOR + key);
+    }
+
+    /**
+     * Hold an entry locally, unless anything was invalidated since {@code loadGeneration} was read
+     */
+    public void put(String cacheName, String key, TaggedValue value, long loadGeneration) {
+        if (generation.get() != loadGeneration) {
+            return;
+        }
+        String entryKey = cacheName + KEY_SEPARATOR + key;
+        for (String tag : value.getTags()) {
+            keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(entryKey);
+        }
+        entries.put(entryKey, value);
+        // An invalidation that ran between the check above and the put may have missed the entry
+        if (generation.get() != loadGeneration && entries.remove(entryKey, value)) {
+            untag(entryKey, value);
+        }
+    }
+
+    /**
+     * Drop every entry carrying any of the given tags
+     *
+     * @return Number of entries dropped
+     */
+    public int invalidate(Collection<String> tags) {
+        generation.incrementAndGet();
+        int dropped = 0;
+        for (String tag : tags) {
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys == null) {
+                continue;
+            }
+            for (String entryKey : keys) {
+                TaggedValue removed = entries.remove(entryKey);
+                if (removed != null) {
+                    untag(entryKey, removed);
+                    dropped++;
+                }
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Drop every entry
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        keysByTag.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Tags that still index at least one entry */
+    int indexedTags() {
+        return keysByTag.size();
+    }
+
+    private void untag(String entryKey, TaggedValue value) {
+        for (String tag : value.getTags()) {
+            keysByTag.computeIfPresent(tag, (t, keys) -> {
+                keys.remove(entryKey);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ecommerce.productservice.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache tag index kept in Redis, next to the cache entries, so that every node evicts the entries
+ * cached by every other node. Each tag is a set of "cacheName::key" members that expires a while
+ * after the longest cache TTL, so tags of entries that simply expired don't pile up.
+ *
+ * Invalidations are numbered by a shared epoch counter, and each invalidated tag keeps the epoch
+ * it was last invalidated in for as long as a tag set lives, so an entry stored by a load that
+ * raced an invalidation can tell its data is already stale.
+ */
+@Component
+public class RedisCacheTagIndex implements CacheTagIndex {
+
+    private static final String TAG_KEY_PREFIX = "product-cache-tags:";
+    private static final String EPOCH_KEY = "product-cache-epoch";
+    private static final String VERSION_KEY_PREFIX = "product-cache-tag-version:";
+    private static final String MEMBER_SEPARATOR = "::";
+
+    // KEYS[1] is the epoch counter, the others the versions of the invalidated tags
+    static final RedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>(
+        "local epoch = redis.call('INCR', KEYS[1]) " +
+        "for i = 2, #KEYS do redis.call('SET', KEYS[i], epoch, 'EX', ARGV[1]) end " +
+        "return epoch",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long tagTtlSeconds;
+
+    public RedisCacheTagIndex(StringRedisTemplate redisTemplate,
+                              @Value("${app.cache.tag-ttl:PT3H}") Duration tagTtl) {
+        this.redisTemplate = redisTemplate;
+        this.tagTtlSeconds = tagTtl.toSeconds();
+    }
+
+    @Override
+    public void tag(String cacheName, String key, Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+
+        byte[] member = bytes(cacheName + MEMBER_SEPARATOR + key);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String tag : tags) {
+                byte[] tagKey = bytes(TAG_KEY_PREFIX + tag);
+                connection.setCommands().sAdd(tagKey, member);
+                connection.keyCommands().expire(tagKey, tagTtlSeconds);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public long epoch() {
+        String epoch = redisTemplate.opsForValue().get(EPOCH_KEY);
+        return epoch != null ? Long.parseLong(epoch) : 0;
+    }
+
+    @Override
+    public boolean invalidatedSince(Collection<String> tags, long epoch) {
+        if (tags.isEmpty()) {
+            return false;
+        }
+
+        List<String> versions = redisTemplate.opsForValue().multiGet(
+            tags.stream().map(tag -> VERSION_KEY_PREFIX + tag).toList());
+        if (versions == null) {
+            return false;
+        }
+        for (String version : versions) {
+            if (version != null && Long.parseLong(version) > epoch) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Set<String>> removeTagged(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return Map.of();
+        }
+
+        // Mark the tags before reading their members: a load tagging its entry after the read
+        // below sees the mark when it checks its tags
+        List<String> scriptKeys = new ArrayList<>(tags.size() + 1);
+        scriptKeys.add(EPOCH_KEY);
+        List<String> tagKeys = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            scriptKeys.add(VERSION_KEY_PREFIX + tag);
+            tagKeys.add(TAG_KEY_PREFIX + tag);
+        }
+        redisTemplate.execute(INVALIDATE_SCRIPT, scriptKeys, String.valueOf(tagTtlSeconds));
+
+        List<Object> memberSets = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String tagKey : tagKeys) {
+                connection.setCommands().sMembers(bytes(tagKey));
+            }
+            return null;
+        });
+
+        // Remove only the members just read, so an entry tagged in the meantime stays indexed
+        Map<String, Set<String>> keysByCache = new HashMap<>();
+        Map<String, Set<String>> membersByTagKey = new HashMap<>();
+        for (int i = 0; i < tagKeys.size(); i++) {
+            Set<String> members = (Set<String>) memberSets.get(i);
+            if (members == null || members.isEmpty()) {
+                continue;
+            }
+            membersByTagKey.put(tagKeys.get(i), members);
+            for (String member : members) {
+                int separator = member.indexOf(MEMBER_SEPARATOR);
+                if (separator > 0) {
+                    keysByCache.computeIfAbsent(member.substring(0, separator), name -> new HashSet<>())
+                        .add(member.substring(separator + MEMBER_SEPARATOR.length()));
+                }
+            }
+        }
+        if (!membersByTagKey.isEmpty()) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                membersByTagKey.forEach((tagKey, members) -> connection.setCommands().sRem(bytes(tagKey),
+                    members.stream().map(RedisCacheTagIndex::bytes).toArray(byte[][]::new)));
+                return null;
+            });
+        }
+        return keysByCache;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,307 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.shared.metrics.collectors.CacheMetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Product caches whose entries are tagged with the products and catalog slices they depend on.
+ *
+ * Entries are stored in the caches of the {@link CacheManager} together with their tags, and the
+ * {@link CacheTagIndex} maps each tag back to its entries, so a catalog change evicts only the
+ * entries carrying its tags. An entry depends on everything read while loading it: tags of tagged
+ * entries read by its loader are added to its own. Concurrent misses on the same key share one
+ * load, and cache failures fall back to the loader rather than failing the read. Once stored, a
+ * loaded entry is checked against the tags invalidated on any instance since its load started, and
+ * evicted again if one of its own was, so a load racing an invalidation never leaves stale data.
+ *
+ * Entries of the caches held by the {@link ProductLocalCache} are also kept in process for a few
+ * seconds, in front of the shared caches; invalidating a tag drops it from both tiers.
+ */
+@Component
+public class TaggedProductCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaggedProductCache.class);
+    private static final String KEY_SEPARATOR = "::";
+    private static final long UNKNOWN_EPOCH = -1;
+
+    private final CacheManager cacheManager;
+    private final CacheTagIndex tagIndex;
+    private final ProductLocalCache localCache;
+    private final CacheMetricsCollector cacheMetrics;
+    private final ConcurrentHashMap<String, CompletableFuture<TaggedValue>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<Set<String>>> loadingTags = new ThreadLocal<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TaggedProductCache(CacheManager cacheManager, CacheTagIndex tagIndex,
+                              ProductLocalCache localCache, CacheMetricsCollector cacheMetrics) {
+        this.cacheManager = cacheManager;
+        this.tagIndex = tagIndex;
+        this.localCache = localCache;
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    /**
+     * Get the cached value for a key, loading and caching it on a miss
+     *
+     * @param cacheName Name of the cache
+     * @param key Key of the entry within the cache
+     * @param loader Loads the value on a miss; a null value is returned but not cached
+     * @param tagger Tags of a loaded value, e.g. the products it contains
+     * @return The cached or loaded value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, String key, Supplier<T> loader,
+                     Function<? super T, ? extends Collection<String>> tagger) {
+        boolean local = localCache.holds(cacheName);
+        long localGeneration = localCache.generation();
+        if (local) {
+            long start = System.nanoTime();
+            TaggedValue held = localCache.get(cacheName, key);
+            cacheMetrics.recordTierLookup(cacheName, "l1", held != null, System.nanoTime() - start);
+            if (held != null) {
+                cacheMetrics.recordCacheHit(cacheName, "get");
+                dependOn(held.getTags());
+                return (T) held.getValue();
+            }
+        }
+
+        Cache cache = cacheManager.getCache(cacheName);
+        long start = System.nanoTime();
+        TaggedValue cached = lookup(cache, cacheName, key);
+        cacheMetrics.recordTierLookup(cacheName, "l2", cached != null, System.nanoTime() - start);
+        if (cached != null) {
+            if (local) {
+                localCache.put(cacheName, key, cached, localGeneration);
+            }
+            cacheMetrics.recordCacheHit(cacheName, "get");
+            dependOn(cached.getTags());
+            return (T) cached.getValue();
+        }
+
+        String flightKey = cacheName + KEY_SEPARATOR + key;
+        CompletableFuture<TaggedValue> flight = new CompletableFuture<>();
+        CompletableFuture<TaggedValue> leader = inFlight.putIfAbsent(flightKey, flight);
+        if (leader != null) {
+            cacheMetrics.recordCoalescedLoad(cacheName);
+            TaggedValue shared = await(leader);
+            dependOn(shared.getTags());
+            return (T) shared.getValue();
+        }
+
+        cacheMetrics.recordCacheMiss(cacheName, "get");
+        try {
+            TaggedValue loaded = load(cache, cacheName, key, loader, tagger, local, localGeneration);
+            flight.complete(loaded);
+            dependOn(loaded.getTags());
+            return (T) loaded.getValue();
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * Add tags to the entry being loaded on this thread, for dependencies its value doesn't show,
+     * e.g. the category a similar-products query ranged over. Does nothing outside a load.
+     */
+    public void dependOn(Collection<String> tags) {
+        Deque<Set<String>> loads = loadingTags.get();
+        if (loads != null && !loads.isEmpty()) {
+            loads.peek().addAll(tags);
+        }
+    }
+
+    /**
+     * Evict every entry carrying any of the given tags, from the shared caches and then from this
+     * instance's local tier
+     *
+     * @return Number of shared cache entries evicted
+     */
+    public int invalidate(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return 0;
+        }
+
+        // Loads that started before this point may have read the old data and are not cached
+        invalidations.incrementAndGet();
+        int evicted = 0;
+        try {
+            for (Map.Entry<String, Set<String>> tagged : tagIndex.removeTagged(tags).entrySet()) {
+                Cache cache = cacheManager.getCache(tagged.getKey());
+                if (cache == null) {
+                    continue;
+                }
+                for (String key : tagged.getValue()) {
+                    cache.evict(key);
+                    cacheMetrics.recordCacheEviction(tagged.getKey(), "tag");
+                    evicted++;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to invalidate product cache tags {}", tags, e);
+        }
+        // After the shared caches, so a local miss in between cannot copy back an old shared entry
+        localCache.invalidate(tags);
+        return evicted;
+    }
+
+    private <T> TaggedValue load(Cache cache, String cacheName, String key, Supplier<T> loader,
+                                 Function<? super T, ? extends Collection<String>> tagger,
+                                 boolean local, long localGeneration) {
+        long invalidationsBefore = invalidations.get();
+        long epochBefore = readEpoch();
+        Set<String> tags = new HashSet<>();
+        Deque<Set<String>> loads = loadingTags.get();
+        if (loads == null) {
+            loads = new ArrayDeque<>();
+            loadingTags.set(loads);
+        }
+
+        long start = System.nanoTime();
+        T value;
+        loads.push(tags);
+        try {
+            value = loader.get();
+        } finally {
+            loads.pop();
+            if (loads.isEmpty()) {
+                loadingTags.remove();
+            }
+        }
+        cacheMetrics.recordCacheOperationTime(cacheName, "load", (System.nanoTime() - start) / 1_000_000);
+
+        if (value == null) {
+            return new TaggedValue(null, tags);
+        }
+        tags.addAll(tagger.apply(value));
+        TaggedValue loaded = new TaggedValue(value, tags);
+        boolean superseded = invalidations.get() != invalidationsBefore;
+        if (cache != null && !superseded && epochBefore != UNKNOWN_EPOCH) {
+            superseded = !store(cache, cacheName, key, loaded, epochBefore);
+        }
+        if (local && !superseded) {
+            localCache.put(cacheName, key, loaded, localGeneration);
+        }
+        return loaded;
+    }
+
+    private TaggedValue lookup(Cache cache, String cacheName, String key) {
+        if (cache == null) {
+            return null;
+        }
+        try {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            return wrapper != null && wrapper.get() instanceof TaggedValue tagged ? tagged : null;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read {} from cache {}", key, cacheName, e);
+            return null;
+        }
+    }
+
+    private long readEpoch() {
+        try {
+            return tagIndex.epoch();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read the product cache invalidation epoch", e);
+            return UNKNOWN_EPOCH;
+        }
+    }
+
+    /**
+     * @return False if the entry was evicted again because one of its tags was invalidated while
+     *         it loaded
+     */
+    private boolean store(Cache cache, String cacheName, String key, TaggedValue value, long epochBefore) {
+        try {
+            // Index first, so an entry is never cached without its tags
+            tagIndex.tag(cacheName, key, value.getTags());
+            cache.put(key, value);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write {} to cache {}", key, cacheName, e);
+            return true;
+        }
+
+        // An invalidation on another instance that read the index before the entry was tagged has
+        // missed it, but it marked its tags first, so the entry finds out here
+        try {
+            if (!tagIndex.invalidatedSince(value.getTags(), epochBefore)) {
+                return true;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to check the tags of {} in cache {}", key, cacheName, e);
+        }
+        try {
+            cache.evict(key);
+            cacheMetrics.recordCacheEviction(cacheName, "tag");
+        } catch (RuntimeException e) {
+            logger.warn("Failed to evict {} from cache {}", key, cacheName, e);
+        }
+        return false;
+    }
+
+    private static TaggedValue await(CompletableFuture<TaggedValue> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A cached value together with its tags
+     */
+    public static class TaggedValue {
+
+        private Object value;
+        private Set<String> tags;
+
+        public TaggedValue() {
+        }
+
+        public TaggedValue(Object value, Set<String> tags) {
+            this.value = value;
+            this.tags = tags;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public void setValue(Object value) {
+            this.value = value;
+        }
+
+        public Set<String> getTags() {
+            return tags != null ? tags : Set.of();
+        }
+
+        public void setTags(Set<String> tags) {
+            this.tags = tags;
+        }
+    }
+}
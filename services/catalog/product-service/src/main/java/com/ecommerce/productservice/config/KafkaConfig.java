@@ -1,10 +1,14 @@
 package com.ecommerce.productservice.config;
 
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
@@ -12,6 +16,7 @@ import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Kafka configuration for Product Service
@@ -22,6 +27,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -50,4 +58,49 @@ public class KafkaConfig {
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
-}
\ No newline at end of file
+
+    /**
+     * Product events consumer for the local product cache. Every instance must see every event to
+     * drop its own copies, so each one joins its own consumer group and starts from the latest
+     * offset: events published before it started concern entries it cannot hold.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> productCacheKafkaListenerContainerFactory() {
+        return instanceListenerContainerFactory("product-cache");
+    }
+
+    /**
+     * Product events consumer for the in-memory search index, in its own per-instance group for the
+     * same reason. Tenants are indexed from the repository after the consumer starts, so earlier
+     * events are not needed either.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> productIndexKafkaListenerContainerFactory() {
+        return instanceListenerContainerFactory("product-index");
+    }
+
+    /**
+     * Order events consumer for the co-purchase graphs, in its own per-instance group as well: each
+     * instance builds whole graphs of its own, and orders placed before it started are already in
+     * the snapshot the other instances keep saving.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> orderCoPurchaseKafkaListenerContainerFactory() {
+        return instanceListenerContainerFactory("order-co-purchase");
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, String> instanceListenerContainerFactory(String purpose) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId + "-" + purpose + "-" + UUID.randomUUID());
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps));
+        return factory;
+    }
+}
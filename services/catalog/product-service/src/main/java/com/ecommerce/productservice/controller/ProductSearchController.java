@@ -42,6 +42,19 @@ public class ProductSearchController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/faceted-search")
+    public ResponseEntity<FacetedSearchResponse> facetedSearch(
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @RequestBody SearchFilters filters,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        
+        FacetedSearchResponse response = productSearchService.searchProductsWithFacets(
+            tenantId, filters, page, size);
+        
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/filter")
     public ResponseEntity<PagedResponse<ProductSummaryResponse>> filterProducts(
             @RequestHeader("X-Tenant-ID") String tenantId,
@@ -0,0 +1,31 @@
+package com.ecommerce.productservice.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of search results with the number of matching products per facet value, e.g.
+ * {@code facets.brand.Apple = 42}. Facets are category, subcategory, brand, status and price.
+ */
+public class FacetedSearchResponse extends PagedResponse<ProductSummaryResponse> {
+
+    private Map<String, Map<String, Long>> facets;
+
+    // Constructors
+    public FacetedSearchResponse() {}
+
+    public FacetedSearchResponse(List<ProductSummaryResponse> content, int page, int size, long totalElements,
+                                 int totalPages, Map<String, Map<String, Long>> facets) {
+        super(content, page, size, totalElements, totalPages);
+        this.facets = facets;
+    }
+
+    // Getters and Setters
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Long>> facets) {
+        this.facets = facets;
+    }
+}
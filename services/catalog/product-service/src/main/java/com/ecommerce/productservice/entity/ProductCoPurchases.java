@@ -0,0 +1,109 @@
+package com.ecommerce.productservice.entity;
+
+import com.ecommerce.shared.models.TenantAware;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of the products most often bought together with one product, with their decayed
+ * co-purchase weights as of the time it was saved
+ */
+@Document(collection = "product_co_purchases")
+public class ProductCoPurchases implements TenantAware {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private String tenantId;
+
+    private String productId;
+
+    // Co-purchased products, strongest first, and their weights at savedAt
+    private List<String> productIds;
+
+    private List<Double> weights;
+
+    private Instant savedAt;
+
+    // Saves are merged with the saved snapshot, so a concurrent save must not go unnoticed
+    @Version
+    private Long version;
+
+    // Constructors
+    public ProductCoPurchases() {}
+
+    public ProductCoPurchases(String tenantId, String productId, List<String> productIds, List<Double> weights,
+                              Instant savedAt) {
+        this.id = tenantId + ":" + productId;
+        this.tenantId = tenantId;
+        this.productId = productId;
+        this.productIds = productIds;
+        this.weights = weights;
+        this.savedAt = savedAt;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    @Override
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    @Override
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public List<String> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(List<String> productIds) {
+        this.productIds = productIds;
+    }
+
+    public List<Double> getWeights() {
+        return weights;
+    }
+
+    public void setWeights(List<Double> weights) {
+        this.weights = weights;
+    }
+
+    public Instant getSavedAt() {
+        return savedAt;
+    }
+
+    public void setSavedAt(Instant savedAt) {
+        this.savedAt = savedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.productservice.kafka;
+
+import com.ecommerce.productservice.recommendation.CoPurchaseRecommendations;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds every order placed into the co-purchase graphs of this instance
+ */
+@Component
+public class OrderCoPurchaseEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCoPurchaseEventConsumer.class);
+
+    private final CoPurchaseRecommendations coPurchases;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OrderCoPurchaseEventConsumer(CoPurchaseRecommendations coPurchases, ObjectMapper objectMapper) {
+        this.coPurchases = coPurchases;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Handle order events. Created and confirmed events both carry the order's items; the graph
+     * counts whichever arrives first. Other order events are ignored.
+     */
+    @KafkaListener(topics = "${app.kafka.topics.order-events:order-events}",
+                   containerFactory = "orderCoPurchaseKafkaListenerContainerFactory")
+    public void handleOrderEvent(@Payload String payload) {
+        try {
+            JsonNode event = objectMapper.readTree(payload);
+            String eventType = event.path("eventType").asText();
+            if (!"ORDER_CREATED".equals(eventType) && !"ORDER_CONFIRMED".equals(eventType)) {
+                return;
+            }
+
+            String tenantId = event.path("tenantId").asText(null);
+            String orderId = event.path("orderId").asText(null);
+            if (tenantId == null || orderId == null) {
+                logger.warn("Ignoring {} event without tenant or order ID", eventType);
+                return;
+            }
+
+            List<String> productIds = new ArrayList<>();
+            for (JsonNode item : event.path("items")) {
+                String productId = item.path("productId").asText(null);
+                if (productId != null) {
+                    productIds.add(productId);
+                }
+            }
+            coPurchases.recordOrder(tenantId, orderId, productIds);
+            logger.debug("Recorded co-purchases of order {} for tenant {}", orderId, tenantId);
+
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring unreadable order event: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.productservice.kafka;
+
+import com.ecommerce.productservice.cache.ProductCacheTags;
+import com.ecommerce.productservice.cache.ProductLocalCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Drops entries from the local product cache when any product-service instance creates, updates
+ * or deletes a product. The shared caches were already invalidated by the instance that made the
+ * change; this only clears the copies this instance holds in process.
+ */
+@Component
+public class ProductCacheEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCacheEventConsumer.class);
+
+    private final ProductLocalCache localCache;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ProductCacheEventConsumer(ProductLocalCache localCache, ObjectMapper objectMapper) {
+        this.localCache = localCache;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Drop the local cache entries a product event may have made stale. Created events count too,
+     * as a new product changes the tenant's cached listings.
+     */
+    @KafkaListener(topics = "${app.kafka.topics.product-events:product-events}",
+                   containerFactory = "productCacheKafkaListenerContainerFactory")
+    public void handleProductEvent(@Payload String payload) {
+        try {
+            JsonNode event = objectMapper.readTree(payload);
+            String eventType = event.path("eventType").asText();
+            if (!"ProductCreated".equals(eventType) && !"ProductUpdated".equals(eventType)
+                    && !"ProductDeleted".equals(eventType)) {
+                return;
+            }
+
+            String tenantId = event.path("tenantId").asText(null);
+            String productId = event.path("productId").asText(null);
+            if (tenantId == null || productId == null) {
+                logger.warn("Ignoring {} event without tenant or product ID", eventType);
+                return;
+            }
+
+            int dropped = localCache.invalidate(tags(tenantId, productId, event));
+            logger.debug("Dropped {} local cache entries for product {} of tenant {} after {}",
+                dropped, productId, tenantId, eventType);
+
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring unreadable product event: {}", e.getMessage());
+        }
+    }
+
+    // The product, its old and new facets, and every tenant-wide listing. Broader than the tags the
+    // changing instance evicted, but local entries only live for seconds.
+    private static Set<String> tags(String tenantId, String productId, JsonNode event) {
+        Set<String> tags = new HashSet<>();
+        tags.add(ProductCacheTags.product(tenantId, productId));
+        addFacets(tags, tenantId, event);
+        addFacets(tags, tenantId, event.path("previousValues"));
+        for (ProductCacheTags.Listing listing : ProductCacheTags.Listing.values()) {
+            tags.add(ProductCacheTags.listing(tenantId, listing));
+        }
+        return tags;
+    }
+
+    private static void addFacets(Set<String> tags, String tenantId, JsonNode fields) {
+        String category = fields.path("category").asText(null);
+        if (category != null && !category.isBlank()) {
+            tags.add(ProductCacheTags.category(tenantId, category));
+        }
+        String brand = fields.path("brand").asText(null);
+        if (brand != null && !brand.isBlank()) {
+            tags.add(ProductCacheTags.brand(tenantId, brand));
+        }
+    }
+}
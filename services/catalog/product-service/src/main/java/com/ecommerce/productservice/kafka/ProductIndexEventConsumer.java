@@ -0,0 +1,105 @@
+package com.ecommerce.productservice.kafka;
+
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.search.CatalogSearchIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keeps the in-memory catalog search index of this instance current with the product events of
+ * every product-service instance
+ */
+@Component
+public class ProductIndexEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexEventConsumer.class);
+
+    private final CatalogSearchIndex searchIndex;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ProductIndexEventConsumer(CatalogSearchIndex searchIndex, ObjectMapper objectMapper) {
+        this.searchIndex = searchIndex;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Apply a product event to the search index: created and updated events upsert the product from
+     * the fields the event carries, deleted events remove it. Any other event type is skipped.
+     */
+    @KafkaListener(topics = "${app.kafka.topics.product-events:product-events}",
+                   containerFactory = "productIndexKafkaListenerContainerFactory")
+    public void handleProductEvent(@Payload String payload) {
+        try {
+            JsonNode event = objectMapper.readTree(payload);
+            String eventType = event.path("eventType").asText();
+            boolean deleted = "ProductDeleted".equals(eventType);
+            if (!deleted && !"ProductCreated".equals(eventType) && !"ProductUpdated".equals(eventType)) {
+                return;
+            }
+
+            String tenantId = event.path("tenantId").asText(null);
+            String productId = event.path("productId").asText(null);
+            if (tenantId == null || productId == null) {
+                logger.warn("Ignoring {} event without tenant or product ID", eventType);
+                return;
+            }
+
+            if (deleted) {
+                searchIndex.remove(tenantId, productId);
+            } else {
+                searchIndex.upsert(toProduct(event, tenantId, productId));
+            }
+            logger.debug("Indexed {} of product {} for tenant {}", eventType, productId, tenantId);
+
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring unreadable product event: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring product event with invalid fields: {}", e.getMessage());
+        }
+    }
+
+    private static Product toProduct(JsonNode event, String tenantId, String productId) {
+        JsonNode price = event.path("price");
+        Product product = new Product(tenantId, text(event, "name"), text(event, "description"),
+            text(event, "category"), text(event, "brand"), text(event, "sku"),
+            price.isNumber() ? new Product.Price(price.decimalValue(), text(event, "currency")) : null);
+        product.setId(productId);
+        product.setSubcategory(text(event, "subcategory"));
+        String status = text(event, "status");
+        if (status != null) {
+            product.setStatus(Product.ProductStatus.valueOf(status));
+        }
+        LocalDateTime occurredAt = occurredAt(event);
+        product.setCreatedAt(occurredAt);
+        product.setUpdatedAt(occurredAt);
+        return product;
+    }
+
+    private static String text(JsonNode event, String field) {
+        JsonNode value = event.path(field);
+        return value.isNull() || value.isMissingNode() ? null : value.asText();
+    }
+
+    private static LocalDateTime occurredAt(JsonNode event) {
+        String occurredAt = text(event, "occurredAt");
+        if (occurredAt != null) {
+            try {
+                return LocalDateTime.parse(occurredAt);
+            } catch (DateTimeParseException e) {
+                logger.debug("Unreadable occurredAt {}, using the current time", occurredAt);
+            }
+        }
+        return LocalDateTime.now();
+    }
+}
@@ -0,0 +1,340 @@
+package com.ecommerce.productservice.recommendation;
+
+import com.ecommerce.productservice.entity.ProductCoPurchases;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Co-purchase graph of one tenant: for every product, the products most often bought in the same
+ * order, weighted so that a purchase counts half after every half-life.
+ *
+ * Product IDs are numbered in an open-addressing table, and each product keeps its co-purchased
+ * products as parallel int and float arrays of at most the neighbor capacity, so a pair costs 8
+ * bytes per direction. Once a product's list is full, a newly paired product takes the place of
+ * the weakest one and adds to its weight (the space-saving algorithm): products bought with it
+ * more often than the weakest of its list cannot be missed. Rather than decaying every weight as
+ * time passes, purchases are added with a boost that doubles every half-life, and weights are
+ * scaled back down, dropping those that decayed to nothing, when the boost grows too large.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+final class CoPurchaseGraph {
+
+    private static final int INITIAL_PRODUCTS = 16;
+    private static final int INITIAL_NEIGHBORS = 4;
+
+    /** Half-lives the boost may grow by before weights are scaled back, well within float range */
+    private static final int MAX_BOOST_EXPONENT = 30;
+
+    /** Weight under which a co-purchase is dropped when weights are scaled back */
+    private static final float MIN_WEIGHT = 0.01f;
+
+    private final int neighborCapacity;
+    private final double halfLifeMs;
+    private long boostedFrom;
+
+    private String[] ids = new String[INITIAL_PRODUCTS];
+    private int[][] neighbors = new int[INITIAL_PRODUCTS][];
+    private float[][] weights = new float[INITIAL_PRODUCTS][];
+    private int[] neighborCounts = new int[INITIAL_PRODUCTS];
+    private int size;
+    // Product number + 1 per slot, 0 for free slots
+    private int[] slots = new int[2 * INITIAL_PRODUCTS];
+    private long pairs;
+    private final BitSet changed = new BitSet();
+
+    CoPurchaseGraph(int neighborCapacity, long halfLifeMs, long now) {
+        this.neighborCapacity = neighborCapacity;
+        this.halfLifeMs = halfLifeMs;
+        this.boostedFrom = now;
+    }
+
+    /**
+     * Pair every product of an order with every other one
+     */
+    void recordOrder(Collection<String> productIds, long now) {
+        Set<String> distinct = new LinkedHashSet<>(productIds);
+        if (distinct.size() < 2) {
+            return;
+        }
+        int[] products = new int[distinct.size()];
+        int i = 0;
+        for (String productId : distinct) {
+            products[i++] = intern(productId);
+        }
+        float purchase = boost(now);
+        for (int from : products) {
+            for (int to : products) {
+                if (from != to) {
+                    add(from, to, purchase);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add a product's saved co-purchases, decayed from when they were saved. The product only
+     * counts as changed if orders changed it since.
+     */
+    void restore(ProductCoPurchases saved, long now) {
+        List<String> productIds = saved.getProductIds();
+        List<Double> savedWeights = saved.getWeights();
+        if (productIds == null || savedWeights == null || saved.getSavedAt() == null) {
+            return;
+        }
+        boost(now);
+        double savedBoost = Math.pow(2, (saved.getSavedAt().toEpochMilli() - boostedFrom) / halfLifeMs);
+        int from = intern(saved.getProductId());
+        boolean changedBefore = changed.get(from);
+        for (int i = 0; i < Math.min(productIds.size(), savedWeights.size()); i++) {
+            float weight = (float) (savedWeights.get(i) * savedBoost);
+            if (weight > 0 && !productIds.get(i).equals(saved.getProductId())) {
+                add(from, intern(productIds.get(i)), weight);
+            }
+        }
+        changed.set(from, changedBefore);
+    }
+
+    /**
+     * The products most often bought together with the given ones, strongest first, excluding them
+     */
+    List<String> top(Collection<String> productIds, int limit) {
+        int[] from = productIds.stream().mapToInt(this::find).filter(p -> p >= 0).distinct().toArray();
+        int total = 0;
+        for (int product : from) {
+            total += neighborCounts[product];
+        }
+        if (total == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        // Add up the weights of products bought with several of them
+        int[] candidates = new int[total];
+        float[] scores = new float[total];
+        int count = 0;
+        Map<Integer, Integer> positions = from.length > 1 ? new HashMap<>() : null;
+        for (int product : from) {
+            int[] productNeighbors = neighbors[product];
+            float[] productWeights = weights[product];
+            for (int i = 0; i < neighborCounts[product]; i++) {
+                int neighbor = productNeighbors[i];
+                if (positions != null) {
+                    if (contains(from, neighbor)) {
+                        continue;
+                    }
+                    Integer position = positions.putIfAbsent(neighbor, count);
+                    if (position != null) {
+                        scores[position] += productWeights[i];
+                        continue;
+                    }
+                }
+                candidates[count] = neighbor;
+                scores[count] = productWeights[i];
+                count++;
+            }
+        }
+
+        // Lists are short, so selecting the best repeatedly beats sorting them
+        List<String> result = new ArrayList<>(Math.min(limit, count));
+        while (result.size() < limit) {
+            int best = -1;
+            for (int i = 0; i < count; i++) {
+                if (candidates[i] >= 0
+                        && (best < 0 || stronger(candidates[i], scores[i], candidates[best], scores[best]))) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            result.add(ids[candidates[best]]);
+            candidates[best] = -1;
+        }
+        return result;
+    }
+
+    /**
+     * Snapshots of the products whose co-purchases changed since the last call, with their weights
+     * decayed to now
+     */
+    List<ProductCoPurchases> takeChanged(String tenantId, long now) {
+        double unboost = 1 / (double) boost(now);
+        Instant savedAt = Instant.ofEpochMilli(now);
+        List<ProductCoPurchases> snapshots = new ArrayList<>(changed.cardinality());
+        for (int product = changed.nextSetBit(0); product >= 0; product = changed.nextSetBit(product + 1)) {
+            Integer[] order = new Integer[neighborCounts[product]];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            float[] productWeights = weights[product];
+            Arrays.sort(order, (a, b) -> Float.compare(productWeights[b], productWeights[a]));
+            List<String> productIds = new ArrayList<>(order.length);
+            List<Double> savedWeights = new ArrayList<>(order.length);
+            for (int i : order) {
+                productIds.add(ids[neighbors[product][i]]);
+                savedWeights.add(productWeights[i] * unboost);
+            }
+            snapshots.add(new ProductCoPurchases(tenantId, ids[product], productIds, savedWeights, savedAt));
+        }
+        changed.clear();
+        return snapshots;
+    }
+
+    /**
+     * Snapshot these products again on the next call, e.g. after saving them failed
+     */
+    void markChanged(Collection<String> productIds) {
+        for (String productId : productIds) {
+            int product = find(productId);
+            if (product >= 0) {
+                changed.set(product);
+            }
+        }
+    }
+
+    int products() {
+        return size;
+    }
+
+    /** Co-purchases held, counting each pair once per direction */
+    long pairs() {
+        return pairs;
+    }
+
+    private void add(int from, int to, float weight) {
+        changed.set(from);
+        int[] productNeighbors = neighbors[from];
+        float[] productWeights = weights[from];
+        int count = neighborCounts[from];
+        int weakest = -1;
+        for (int i = 0; i < count; i++) {
+            if (productNeighbors[i] == to) {
+                productWeights[i] += weight;
+                return;
+            }
+            if (weakest < 0 || productWeights[i] < productWeights[weakest]) {
+                weakest = i;
+            }
+        }
+        if (count == neighborCapacity) {
+            productNeighbors[weakest] = to;
+            productWeights[weakest] += weight;
+            return;
+        }
+        if (productNeighbors == null || count == productNeighbors.length) {
+            int length = Math.min(neighborCapacity, Math.max(INITIAL_NEIGHBORS, 2 * count));
+            productNeighbors = neighbors[from] = productNeighbors == null
+                ? new int[length] : Arrays.copyOf(productNeighbors, length);
+            productWeights = weights[from] = productWeights == null
+                ? new float[length] : Arrays.copyOf(productWeights, length);
+        }
+        productNeighbors[count] = to;
+        productWeights[count] = weight;
+        neighborCounts[from] = count + 1;
+        pairs++;
+    }
+
+    // Weight of a purchase made now, scaling weights back first if it grew too large
+    private float boost(long now) {
+        double exponent = (now - boostedFrom) / halfLifeMs;
+        if (exponent > MAX_BOOST_EXPONENT) {
+            scaleBack((float) Math.pow(2, -exponent));
+            boostedFrom = now;
+            exponent = 0;
+        }
+        return (float) Math.pow(2, exponent);
+    }
+
+    private void scaleBack(float factor) {
+        for (int product = 0; product < size; product++) {
+            int[] productNeighbors = neighbors[product];
+            float[] productWeights = weights[product];
+            int kept = 0;
+            for (int i = 0; i < neighborCounts[product]; i++) {
+                float weight = productWeights[i] * factor;
+                if (weight >= MIN_WEIGHT) {
+                    productNeighbors[kept] = productNeighbors[i];
+                    productWeights[kept] = weight;
+                    kept++;
+                }
+            }
+            if (kept < neighborCounts[product]) {
+                pairs -= neighborCounts[product] - kept;
+                neighborCounts[product] = kept;
+                changed.set(product);
+            }
+        }
+    }
+
+    private boolean stronger(int a, float scoreA, int b, float scoreB) {
+        return scoreA != scoreB ? scoreA > scoreB : ids[a].compareTo(ids[b]) < 0;
+    }
+
+    private static boolean contains(int[] products, int product) {
+        for (int p : products) {
+            if (p == product) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int find(String productId) {
+        return slots[slot(productId)] - 1;
+    }
+
+    private int intern(String productId) {
+        int slot = slot(productId);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        if (size == ids.length) {
+            int capacity = 2 * size;
+            ids = Arrays.copyOf(ids, capacity);
+            neighbors = Arrays.copyOf(neighbors, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            neighborCounts = Arrays.copyOf(neighborCounts, capacity);
+        }
+        ids[size] = productId;
+        slots[slot] = ++size;
+        if (2 * size > slots.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    // Slot holding the product, or the free slot it would take
+    private int slot(String productId) {
+        int mask = slots.length - 1;
+        int slot = mix(productId.hashCode()) & mask;
+        while (slots[slot] != 0 && !ids[slots[slot] - 1].equals(productId)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        slots = new int[2 * slots.length];
+        int mask = slots.length - 1;
+        for (int product = 0; product < size; product++) {
+            int slot = mix(ids[product].hashCode()) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = product + 1;
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,238 @@
+package com.ecommerce.productservice.recommendation;
+
+import com.ecommerce.productservice.entity.ProductCoPurchases;
+import com.ecommerce.productservice.repository.ProductCoPurchasesRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Per-tenant co-purchase graphs built from the orders placed, for "frequently bought together"
+ * and cross-sell recommendations.
+ *
+ * Every order counts once, whether its created or its confirmed event arrives first. A tenant's
+ * graph is restored in the background from its last snapshot on first use; orders arriving in the
+ * meantime are added to it, but it is not used or saved until restored. Changed products are
+ * saved to the snapshot on a fixed delay and on shutdown. Each instance builds its own graphs and
+ * saves the same products, so an instance that restarts picks up where the others left off.
+ *
+ * Instances can disagree, e.g. one started after orders the others counted, so a save never
+ * replaces a saved product outright: it is merged with it, keeping the stronger weight of every
+ * co-purchase once both are decayed to the same time. Saves are versioned, and one that raced
+ * another instance's save of the same product fails and is merged again on the next snapshot.
+ */
+@Component
+public class CoPurchaseRecommendations {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoPurchaseRecommendations.class);
+
+    /** Orders remembered per tenant to count an order once, well beyond the time it takes to confirm */
+    private static final int RECENT_ORDERS = 10_000;
+    private static final int SNAPSHOT_BATCH_SIZE = 1_000;
+
+    private final ProductCoPurchasesRepository snapshotRepository;
+    private final int neighbors;
+    private final int maxOrderItems;
+    private final long halfLifeMs;
+    private final Executor loader;
+    private final LongSupplier clock;
+    private final Map<String, TenantGraph> tenants = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CoPurchaseRecommendations(ProductCoPurchasesRepository snapshotRepository,
+                                     @Value("${app.recommendations.co-purchase.neighbors:32}") int neighbors,
+                                     @Value("${app.recommendations.co-purchase.max-order-items:50}") int maxOrderItems,
+                                     @Value("${app.recommendations.co-purchase.half-life-ms:2592000000}") long halfLifeMs) {
+        this(snapshotRepository, neighbors, maxOrderItems, halfLifeMs,
+            Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "co-purchase-loader");
+                thread.setDaemon(true);
+                return thread;
+            }), System::currentTimeMillis);
+    }
+
+    CoPurchaseRecommendations(ProductCoPurchasesRepository snapshotRepository, int neighbors, int maxOrderItems,
+                              long halfLifeMs, Executor loader, LongSupplier clock) {
+        this.snapshotRepository = snapshotRepository;
+        this.neighbors = neighbors;
+        this.maxOrderItems = maxOrderItems;
+        this.halfLifeMs = halfLifeMs;
+        this.loader = loader;
+        this.clock = clock;
+    }
+
+    /**
+     * Count the products of an order as bought together, unless the order was counted already.
+     * Only the first items of very large orders are paired.
+     */
+    public void recordOrder(String tenantId, String orderId, List<String> productIds) {
+        TenantGraph tenant = tenant(tenantId);
+        List<String> paired = productIds.size() > maxOrderItems ? productIds.subList(0, maxOrderItems) : productIds;
+        synchronized (tenant) {
+            if (tenant.recentOrders.put(orderId, Boolean.TRUE) == null) {
+                tenant.graph.recordOrder(paired, clock.getAsLong());
+            }
+        }
+    }
+
+    /**
+     * The products most often bought together with the given ones, restoring the tenant's graph
+     * if this is its first use
+     *
+     * @return The product IDs, strongest first and excluding the given ones, or null while the
+     *         tenant's graph is being restored
+     */
+    public List<String> boughtTogether(String tenantId, Collection<String> productIds, int limit) {
+        TenantGraph tenant = tenant(tenantId);
+        if (!tenant.restored) {
+            return null;
+        }
+        synchronized (tenant) {
+            return tenant.graph.top(productIds, limit);
+        }
+    }
+
+    /**
+     * Save the products whose co-purchases changed since the last snapshot
+     */
+    @Scheduled(fixedDelayString = "${app.recommendations.co-purchase.snapshot-interval-ms:300000}")
+    public synchronized void snapshot() {
+        tenants.forEach((tenantId, tenant) -> {
+            if (!tenant.restored) {
+                // Saving now would overwrite the snapshot with what little arrived since starting
+                return;
+            }
+            List<ProductCoPurchases> changed;
+            synchronized (tenant) {
+                changed = tenant.graph.takeChanged(tenantId, clock.getAsLong());
+            }
+            for (int from = 0; from < changed.size(); from += SNAPSHOT_BATCH_SIZE) {
+                List<ProductCoPurchases> batch =
+                    changed.subList(from, Math.min(from + SNAPSHOT_BATCH_SIZE, changed.size()));
+                try {
+                    snapshotRepository.saveAll(mergeWithSaved(batch));
+                } catch (RuntimeException e) {
+                    logger.error("Failed to save co-purchases of {} products for tenant {}, retrying next snapshot",
+                        batch.size(), tenantId, e);
+                    synchronized (tenant) {
+                        tenant.graph.markChanged(batch.stream().map(ProductCoPurchases::getProductId).toList());
+                    }
+                }
+            }
+            if (!changed.isEmpty()) {
+                logger.debug("Saved co-purchases of {} products for tenant {}", changed.size(), tenantId);
+            }
+        });
+    }
+
+    private List<ProductCoPurchases> mergeWithSaved(List<ProductCoPurchases> batch) {
+        Map<String, ProductCoPurchases> saved = new HashMap<>();
+        for (ProductCoPurchases snapshot : snapshotRepository.findAllById(
+                batch.stream().map(ProductCoPurchases::getId).toList())) {
+            saved.put(snapshot.getId(), snapshot);
+        }
+        List<ProductCoPurchases> merged = new ArrayList<>(batch.size());
+        for (ProductCoPurchases snapshot : batch) {
+            ProductCoPurchases previous = saved.get(snapshot.getId());
+            merged.add(previous != null ? merge(snapshot, previous) : snapshot);
+        }
+        return merged;
+    }
+
+    private ProductCoPurchases merge(ProductCoPurchases snapshot, ProductCoPurchases previous) {
+        Map<String, Double> weights = new HashMap<>();
+        for (int i = 0; i < snapshot.getProductIds().size(); i++) {
+            weights.put(snapshot.getProductIds().get(i), snapshot.getWeights().get(i));
+        }
+        List<String> previousIds = previous.getProductIds();
+        List<Double> previousWeights = previous.getWeights();
+        if (previousIds != null && previousWeights != null && previous.getSavedAt() != null) {
+            long savedEarlierMs = snapshot.getSavedAt().toEpochMilli() - previous.getSavedAt().toEpochMilli();
+            double decay = Math.pow(2, -savedEarlierMs / (double) halfLifeMs);
+            for (int i = 0; i < Math.min(previousIds.size(), previousWeights.size()); i++) {
+                weights.merge(previousIds.get(i), previousWeights.get(i) * decay, Math::max);
+            }
+        }
+
+        List<Map.Entry<String, Double>> strongest = weights.entrySet().stream()
+            .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+            .limit(neighbors)
+            .toList();
+        ProductCoPurchases merged = new ProductCoPurchases(snapshot.getTenantId(), snapshot.getProductId(),
+            strongest.stream().map(Map.Entry::getKey).toList(),
+            strongest.stream().map(Map.Entry::getValue).toList(), snapshot.getSavedAt());
+        merged.setVersion(previous.getVersion());
+        return merged;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    private TenantGraph tenant(String tenantId) {
+        TenantGraph tenant = tenants.get(tenantId);
+        if (tenant != null) {
+            return tenant;
+        }
+        TenantGraph created = new TenantGraph(new CoPurchaseGraph(neighbors, halfLifeMs, clock.getAsLong()));
+        tenant = tenants.putIfAbsent(tenantId, created);
+        if (tenant != null) {
+            return tenant;
+        }
+        loader.execute(() -> restore(tenantId, created));
+        return created;
+    }
+
+    private void restore(String tenantId, TenantGraph tenant) {
+        long start = System.nanoTime();
+        try (Stream<ProductCoPurchases> snapshots = snapshotRepository.streamByTenantId(tenantId)) {
+            Iterator<ProductCoPurchases> iterator = snapshots.iterator();
+            while (iterator.hasNext()) {
+                ProductCoPurchases saved = iterator.next();
+                synchronized (tenant) {
+                    tenant.graph.restore(saved, clock.getAsLong());
+                }
+            }
+            tenant.restored = true;
+            logger.info("Restored co-purchases of {} products for tenant {} in {} ms", tenant.graph.products(),
+                tenantId, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Start over on next use rather than save over the snapshot with a partial graph
+            tenants.remove(tenantId, tenant);
+            logger.error("Failed to restore co-purchases for tenant {}", tenantId, e);
+        }
+    }
+
+    private static final class TenantGraph {
+        private final CoPurchaseGraph graph;
+        private final Map<String, Boolean> recentOrders = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > RECENT_ORDERS;
+            }
+        };
+        private volatile boolean restored;
+
+        private TenantGraph(CoPurchaseGraph graph) {
+            this.graph = graph;
+        }
+    }
+}
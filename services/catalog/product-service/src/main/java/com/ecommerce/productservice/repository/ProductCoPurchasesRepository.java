@@ -0,0 +1,14 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.ProductCoPurchases;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface ProductCoPurchasesRepository extends MongoRepository<ProductCoPurchases, String> {
+
+    // Stream a tenant's co-purchase snapshot through one cursor, to restore its graph
+    Stream<ProductCoPurchases> streamByTenantId(String tenantId);
+}
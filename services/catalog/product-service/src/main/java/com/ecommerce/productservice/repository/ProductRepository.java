@@ -7,8 +7,10 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends MongoRepository<Product, String> {
@@ -25,6 +27,16 @@ public interface ProductRepository extends MongoRepository<Product, String> {
     // Find all products for a tenant with pagination
     Page<Product> findByTenantId(String tenantId, Pageable pageable);
 
+    // Stream all products for a tenant through one cursor, e.g. to build the search index
+    Stream<Product> streamByTenantId(String tenantId);
+
+    // Stream the products of a tenant updated since a point in time, e.g. to reconcile the search index
+    Stream<Product> streamByTenantIdAndUpdatedAtGreaterThanEqual(String tenantId, LocalDateTime updatedAt);
+
+    // Stream only the IDs of a tenant's products
+    @Query(value = "{ 'tenantId': ?0 }", fields = "{ '_id': 1 }")
+    Stream<Product> streamIdsByTenantId(String tenantId);
+
     // Find products by tenant and status
     Page<Product> findByTenantIdAndStatus(String tenantId, Product.ProductStatus status, Pageable pageable);
 
@@ -0,0 +1,283 @@
+package com.ecommerce.productservice.search;
+
+import com.ecommerce.productservice.dto.FacetedSearchResponse;
+import com.ecommerce.productservice.dto.SearchFilters;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Per-tenant in-memory search indexes of the product catalog.
+ *
+ * A tenant is indexed in the background from the repository on its first search; until then
+ * {@link #search} returns null and callers fall back to the repository. Product events keep built
+ * indexes current, including changes made while a tenant is being built: a product changed by an
+ * event is not overwritten by the older copy the build reads afterwards. Each instance indexes on
+ * its own, so the index trails the repository by the delivery time of product events.
+ *
+ * Product events that never arrive, e.g. while the consumer was stopped, are repaired by a periodic
+ * reconciliation: every indexed tenant's products updated since its last read are read again, and
+ * when the index and the repository disagree on the product count, indexed products the repository
+ * no longer has are dropped. Changes made by events during a reconciliation win over its reads, as
+ * they do during a build.
+ */
+@Component
+public class CatalogSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSearchIndex.class);
+    private static final int MIN_DEAD_DOCS_TO_COMPACT = 10_000;
+    // Reads start this far before the previous read, for products saved by instances whose clocks
+    // run behind or whose saves took a while to land
+    private static final Duration READ_OVERLAP = Duration.ofMinutes(1);
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final Executor builder;
+    private final Clock clock;
+    private final Map<String, TenantEntry> tenants = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CatalogSearchIndex(ProductRepository productRepository,
+                              @Value("${app.search.index.enabled:true}") boolean enabled) {
+        this(productRepository, enabled, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-index-builder");
+            thread.setDaemon(true);
+            return thread;
+        }), Clock.systemDefaultZone());
+    }
+
+    CatalogSearchIndex(ProductRepository productRepository, boolean enabled, Executor builder, Clock clock) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.builder = builder;
+        this.clock = clock;
+    }
+
+    /**
+     * Search a tenant's catalog, starting to index it if this is its first search
+     *
+     * @param withFacets Whether to count matching products per facet value
+     * @return The page of results, or null while the tenant is not indexed yet
+     */
+    public FacetedSearchResponse search(String tenantId, SearchFilters filters, int page, int size,
+                                        boolean withFacets) {
+        TenantSearchIndex index = readyIndex(tenantId);
+        return index != null ? index.search(filters, page, size, withFacets) : null;
+    }
+
+    /**
+     * Names of a tenant's products, starting to index it if this is its first use
+     *
+     * @return The names, or null while the tenant is not indexed yet
+     */
+    public List<String> productNames(String tenantId) {
+        TenantSearchIndex index = readyIndex(tenantId);
+        return index != null ? index.names() : null;
+    }
+
+    /**
+     * Number of product changes applied to a tenant's index since it was built, so callers can
+     * tell whether the catalog changed
+     *
+     * @return The count, or -1 while the tenant is not indexed
+     */
+    public long changes(String tenantId) {
+        TenantEntry entry = tenants.get(tenantId);
+        return entry != null && entry.ready ? entry.changes : -1;
+    }
+
+    /**
+     * Index a created or updated product of a tenant that is indexed or being indexed
+     */
+    public void upsert(Product product) {
+        TenantEntry entry = tenants.get(product.getTenantId());
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (entry.reading) {
+                entry.changedWhileReading.add(product.getId());
+            }
+            entry.index.upsert(product);
+            entry.changes++;
+            compactIfNeeded(entry);
+        }
+    }
+
+    /**
+     * Remove a deleted product of a tenant that is indexed or being indexed
+     */
+    public void remove(String tenantId, String productId) {
+        TenantEntry entry = tenants.get(tenantId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (entry.reading) {
+                entry.changedWhileReading.add(productId);
+            }
+            if (entry.index.remove(productId)) {
+                entry.changes++;
+                compactIfNeeded(entry);
+            }
+        }
+    }
+
+    /**
+     * Reconcile the index of every indexed tenant with the repository, in the background
+     */
+    @Scheduled(fixedDelayString = "${app.search.index.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        tenants.forEach((tenantId, entry) -> {
+            if (entry.ready && entry.reconcileQueued.compareAndSet(false, true)) {
+                builder.execute(() -> reconcile(tenantId, entry));
+            }
+        });
+    }
+
+    private TenantSearchIndex readyIndex(String tenantId) {
+        if (!enabled) {
+            return null;
+        }
+        TenantEntry entry = tenants.get(tenantId);
+        if (entry == null) {
+            TenantEntry created = new TenantEntry();
+            entry = tenants.putIfAbsent(tenantId, created);
+            if (entry == null) {
+                builder.execute(() -> build(tenantId, created));
+                return null;
+            }
+        }
+        return entry.ready ? entry.index : null;
+    }
+
+    private void build(String tenantId, TenantEntry entry) {
+        long start = System.nanoTime();
+        LocalDateTime readFrom = LocalDateTime.now(clock).minus(READ_OVERLAP);
+        try (Stream<Product> products = productRepository.streamByTenantId(tenantId)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                synchronized (entry) {
+                    if (!entry.changedWhileReading.contains(product.getId())) {
+                        entry.index.upsert(product);
+                    }
+                }
+            }
+            synchronized (entry) {
+                entry.ready = true;
+                entry.reading = false;
+                entry.changedWhileReading.clear();
+                entry.readFrom = readFrom;
+            }
+            logger.info("Indexed {} products of tenant {} in {} ms", entry.index.size(), tenantId,
+                (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Dropped, so the next search starts over
+            tenants.remove(tenantId, entry);
+            logger.error("Failed to index products of tenant {}", tenantId, e);
+        }
+    }
+
+    private void reconcile(String tenantId, TenantEntry entry) {
+        LocalDateTime readFrom = LocalDateTime.now(clock).minus(READ_OVERLAP);
+        synchronized (entry) {
+            entry.reading = true;
+        }
+        int updated = 0;
+        int removed = 0;
+        try {
+            try (Stream<Product> products = productRepository.streamByTenantIdAndUpdatedAtGreaterThanEqual(
+                    tenantId, entry.readFrom)) {
+                Iterator<Product> iterator = products.iterator();
+                while (iterator.hasNext()) {
+                    Product product = iterator.next();
+                    synchronized (entry) {
+                        if (!entry.changedWhileReading.contains(product.getId())
+                                && !entry.index.isCurrent(product)) {
+                            entry.index.upsert(product);
+                            entry.changes++;
+                            compactIfNeeded(entry);
+                            updated++;
+                        }
+                    }
+                }
+            }
+
+            // Deletions leave nothing to read by update time, but they do leave the counts apart
+            if (entry.index.size() != productRepository.countByTenantId(tenantId)) {
+                Set<String> productIds = new HashSet<>();
+                try (Stream<Product> products = productRepository.streamIdsByTenantId(tenantId)) {
+                    products.forEach(product -> productIds.add(product.getId()));
+                }
+                for (String productId : entry.index.ids()) {
+                    if (productIds.contains(productId)) {
+                        continue;
+                    }
+                    synchronized (entry) {
+                        if (!entry.changedWhileReading.contains(productId) && entry.index.remove(productId)) {
+                            entry.changes++;
+                            compactIfNeeded(entry);
+                            removed++;
+                        }
+                    }
+                }
+            }
+            entry.readFrom = readFrom;
+            if (updated > 0 || removed > 0) {
+                logger.info("Reconciled search index of tenant {}: {} products updated, {} removed",
+                    tenantId, updated, removed);
+            }
+        } catch (RuntimeException e) {
+            // The next reconciliation reads from the same point again
+            logger.warn("Failed to reconcile search index of tenant {}", tenantId, e);
+        } finally {
+            synchronized (entry) {
+                entry.reading = false;
+                entry.changedWhileReading.clear();
+            }
+            entry.reconcileQueued.set(false);
+        }
+    }
+
+    // Called with the entry locked, so no write can be lost while the copy is made
+    private void compactIfNeeded(TenantEntry entry) {
+        TenantSearchIndex index = entry.index;
+        if (index.deadDocs() >= Math.max(MIN_DEAD_DOCS_TO_COMPACT, index.size() / 4)) {
+            entry.index = index.compacted();
+        }
+    }
+
+    private static final class TenantEntry {
+        private volatile TenantSearchIndex index = new TenantSearchIndex();
+        private volatile boolean ready;
+        // Set while the build or a reconciliation reads the repository; only written with the entry locked
+        private volatile boolean reading = true;
+        // Only written with the entry locked
+        private volatile long changes;
+        // Products changed by events while reading, whose copies read afterwards may be older
+        private final Set<String> changedWhileReading = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean reconcileQueued = new AtomicBoolean();
+        // Products updated from this time on are read again by the next reconciliation
+        private volatile LocalDateTime readFrom;
+    }
+}
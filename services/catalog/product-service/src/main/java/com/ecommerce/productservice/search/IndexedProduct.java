@@ -0,0 +1,74 @@
+package com.ecommerce.productservice.search;
+
+import com.ecommerce.productservice.dto.ProductSummaryResponse;
+import com.ecommerce.productservice.entity.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * One product as held by a {@link TenantSearchIndex}: the fields of its search summary, its facet
+ * ordinals and its weighted term frequencies. Descriptions are indexed but not kept.
+ */
+final class IndexedProduct {
+
+    final String id;
+    final String name;
+    final String brand;
+    final String category;
+    final String subcategory;
+    final String sku;
+    final String currency;
+    final String primaryImageUrl;
+    final Product.ProductStatus status;
+    /** Price in cents, or -1 without a price */
+    final long priceCents;
+    final long createdAt;
+    final long updatedAt;
+    final int categoryOrdinal;
+    final int subcategoryOrdinal;
+    final int brandOrdinal;
+    final int[] terms;
+    final short[] frequencies;
+    /** Weighted number of terms, the document length of BM25 */
+    final int length;
+
+    IndexedProduct(String id, String name, String brand, String category, String subcategory, String sku,
+                   String currency, String primaryImageUrl, Product.ProductStatus status, long priceCents,
+                   long createdAt, long updatedAt, int categoryOrdinal, int subcategoryOrdinal, int brandOrdinal,
+                   int[] terms, short[] frequencies, int length) {
+        this.id = id;
+        this.name = name;
+        this.brand = brand;
+        this.category = category;
+        this.subcategory = subcategory;
+        this.sku = sku;
+        this.currency = currency;
+        this.primaryImageUrl = primaryImageUrl;
+        this.status = status;
+        this.priceCents = priceCents;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.categoryOrdinal = categoryOrdinal;
+        this.subcategoryOrdinal = subcategoryOrdinal;
+        this.brandOrdinal = brandOrdinal;
+        this.terms = terms;
+        this.frequencies = frequencies;
+        this.length = length;
+    }
+
+    ProductSummaryResponse toSummary() {
+        ProductSummaryResponse summary = new ProductSummaryResponse();
+        summary.setId(id);
+        summary.setName(name);
+        summary.setBrand(brand);
+        summary.setCategory(category);
+        summary.setSubcategory(subcategory);
+        summary.setSku(sku);
+        if (priceCents >= 0) {
+            summary.setPrice(new ProductSummaryResponse.PriceDto(BigDecimal.valueOf(priceCents, 2), currency));
+        }
+        summary.setPrimaryImageUrl(primaryImageUrl);
+        summary.setStatus(status);
+        return summary;
+    }
+}
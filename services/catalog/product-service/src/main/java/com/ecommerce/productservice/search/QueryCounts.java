@@ -0,0 +1,125 @@
+package com.ecommerce.productservice.search;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Search counts of the most searched queries of one tenant, in bounded memory, kept with the
+ * Space-Saving algorithm.
+ *
+ * Up to the capacity every query is counted exactly. Beyond it, a query that is not counted yet
+ * takes the place of the least counted one and starts from its count, so a query searched often
+ * enough always gets in, and one searched more than once in every capacity searches is never
+ * pushed out. The count a query inherits is kept as its error and left out of {@link #counts()},
+ * so a newcomer is only ranked by the searches it had itself.
+ *
+ * Not thread-safe; callers serialize access.
+ */
+final class QueryCounts {
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    // Counters by count; within a count, the one counted up to it first goes first
+    private final TreeMap<Long, Set<Counter>> byCount = new TreeMap<>();
+
+    QueryCounts(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Count one search of a query, making room by dropping the least counted query if needed
+     */
+    void increment(String query) {
+        Counter counter = counters.get(query);
+        if (counter == null) {
+            if (capacity <= 0) {
+                return;
+            }
+            counter = new Counter(query);
+            if (counters.size() >= capacity) {
+                Counter weakest = pollWeakest();
+                counters.remove(weakest.query);
+                counter.count = weakest.count;
+                counter.error = weakest.count;
+            }
+            counters.put(query, counter);
+        } else {
+            unlink(counter);
+        }
+        counter.count++;
+        link(counter);
+    }
+
+    /**
+     * Halve every count, dropping the queries whose count reaches zero
+     */
+    void halve() {
+        byCount.clear();
+        Iterator<Counter> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            Counter counter = iterator.next();
+            counter.count /= 2;
+            counter.error /= 2;
+            if (counter.count == 0) {
+                iterator.remove();
+            } else {
+                link(counter);
+            }
+        }
+    }
+
+    /**
+     * Searches each query is known to have had, leaving out counts inherited from dropped queries
+     */
+    Map<String, Long> counts() {
+        Map<String, Long> counts = new HashMap<>(counters.size() * 2);
+        for (Counter counter : counters.values()) {
+            long guaranteed = counter.count - counter.error;
+            if (guaranteed > 0) {
+                counts.put(counter.query, guaranteed);
+            }
+        }
+        return counts;
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    private Counter pollWeakest() {
+        Map.Entry<Long, Set<Counter>> least = byCount.firstEntry();
+        Iterator<Counter> iterator = least.getValue().iterator();
+        Counter weakest = iterator.next();
+        iterator.remove();
+        if (least.getValue().isEmpty()) {
+            byCount.remove(least.getKey());
+        }
+        return weakest;
+    }
+
+    private void link(Counter counter) {
+        byCount.computeIfAbsent(counter.count, count -> new LinkedHashSet<>()).add(counter);
+    }
+
+    private void unlink(Counter counter) {
+        Set<Counter> same = byCount.get(counter.count);
+        same.remove(counter);
+        if (same.isEmpty()) {
+            byCount.remove(counter.count);
+        }
+    }
+
+    private static final class Counter {
+        private final String query;
+        private long count;
+        private long error;
+
+        private Counter(String query) {
+            this.query = query;
+        }
+    }
+}
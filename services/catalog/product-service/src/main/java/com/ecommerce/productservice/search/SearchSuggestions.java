@@ -0,0 +1,176 @@
+package com.ecommerce.productservice.search;
+
+import com.ecommerce.shared.metrics.collectors.BusinessMetricsCollector;
+import com.ecommerce.shared.metrics.collectors.ProductSearchListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-tenant search suggestions from product names and the queries shoppers search for, ranked by
+ * how often each was searched.
+ *
+ * Search counts come from every search recorded with {@link BusinessMetricsCollector}; only
+ * searches that found products count, and they halve every half-life. Only the most searched
+ * queries of a tenant are counted, in {@link QueryCounts}: once the limit is reached a new query
+ * takes the place of the least searched one. A tenant's suggestions are built in the background
+ * on its first suggestion request, from the product names of the {@link CatalogSearchIndex}, and
+ * rebuilt in the background at most once per rebuild interval while its catalog or search counts
+ * keep changing, or its counts are due to decay. Requests are answered from the last build, or
+ * with null before the first one.
+ */
+@Component
+public class SearchSuggestions implements ProductSearchListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchSuggestions.class);
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final CatalogSearchIndex searchIndex;
+    private final long rebuildIntervalMs;
+    private final int maxQueries;
+    private final long halfLifeMs;
+    private final Executor builder;
+    private final LongSupplier clock;
+    private final Map<String, TenantSuggestions> tenants = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SearchSuggestions(CatalogSearchIndex searchIndex, BusinessMetricsCollector businessMetrics,
+                             @Value("${app.search.suggestions.rebuild-interval-ms:30000}") long rebuildIntervalMs,
+                             @Value("${app.search.suggestions.max-queries:50000}") int maxQueries,
+                             @Value("${app.search.suggestions.half-life-ms:604800000}") long halfLifeMs) {
+        this(searchIndex, businessMetrics, rebuildIntervalMs, maxQueries, halfLifeMs,
+            Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "search-suggestions-builder");
+                thread.setDaemon(true);
+                return thread;
+            }), System::currentTimeMillis);
+    }
+
+    SearchSuggestions(CatalogSearchIndex searchIndex, BusinessMetricsCollector businessMetrics,
+                      long rebuildIntervalMs, int maxQueries, long halfLifeMs, Executor builder,
+                      LongSupplier clock) {
+        this.searchIndex = searchIndex;
+        this.rebuildIntervalMs = rebuildIntervalMs;
+        this.maxQueries = maxQueries;
+        this.halfLifeMs = halfLifeMs;
+        this.builder = builder;
+        this.clock = clock;
+        businessMetrics.addProductSearchListener(this);
+    }
+
+    /**
+     * Suggest product names and popular queries for what a shopper has typed so far
+     *
+     * @return The suggestions, most popular first, or null while the tenant has none built yet
+     */
+    public List<String> suggest(String tenantId, String query, int limit) {
+        TenantSuggestions tenant = tenant(tenantId);
+        rebuildIfStale(tenantId, tenant);
+        TenantSuggestionIndex index = tenant.index;
+        return index != null ? index.suggest(query, limit) : null;
+    }
+
+    /**
+     * Count a search towards the popularity of its query
+     */
+    @Override
+    public void onProductSearch(String tenantId, String searchTerm, int resultCount) {
+        if (resultCount <= 0 || searchTerm == null || searchTerm.length() > MAX_QUERY_LENGTH) {
+            return;
+        }
+        String query = TenantSuggestionIndex.normalize(searchTerm);
+        if (query.isEmpty()) {
+            return;
+        }
+        TenantSuggestions tenant = tenant(tenantId);
+        synchronized (tenant.queries) {
+            tenant.queries.increment(query);
+        }
+        tenant.queriesChanged = true;
+    }
+
+    private TenantSuggestions tenant(String tenantId) {
+        return tenants.computeIfAbsent(tenantId, id -> new TenantSuggestions(maxQueries, clock.getAsLong()));
+    }
+
+    private void rebuildIfStale(String tenantId, TenantSuggestions tenant) {
+        if (tenant.index != null) {
+            long now = clock.getAsLong();
+            if (now - tenant.builtAt < rebuildIntervalMs) {
+                return;
+            }
+            boolean decayDue = now - tenant.decayedAt >= halfLifeMs;
+            if (!decayDue && !tenant.queriesChanged && searchIndex.changes(tenantId) == tenant.builtChanges) {
+                return;
+            }
+        }
+        if (tenant.building.compareAndSet(false, true)) {
+            builder.execute(() -> build(tenantId, tenant));
+        }
+    }
+
+    private void build(String tenantId, TenantSuggestions tenant) {
+        try {
+            long changes = searchIndex.changes(tenantId);
+            List<String> productNames = searchIndex.productNames(tenantId);
+            if (productNames == null) {
+                // The catalog is still being indexed; the next request tries again
+                return;
+            }
+            tenant.queriesChanged = false;
+            Map<String, Long> queryCounts;
+            synchronized (tenant.queries) {
+                decayIfDue(tenant);
+                queryCounts = tenant.queries.counts();
+            }
+
+            long start = System.nanoTime();
+            TenantSuggestionIndex index = TenantSuggestionIndex.build(productNames, queryCounts);
+            tenant.index = index;
+            tenant.builtChanges = changes;
+            tenant.builtAt = clock.getAsLong();
+            logger.debug("Built {} search suggestions for tenant {} in {} ms", index.size(), tenantId,
+                (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.error("Failed to build search suggestions for tenant {}", tenantId, e);
+        } finally {
+            tenant.building.set(false);
+        }
+    }
+
+    private void decayIfDue(TenantSuggestions tenant) {
+        long now = clock.getAsLong();
+        if (now - tenant.decayedAt < halfLifeMs) {
+            return;
+        }
+        tenant.decayedAt = now;
+        tenant.queries.halve();
+    }
+
+    private static final class TenantSuggestions {
+        // Locked while in use
+        private final QueryCounts queries;
+        private final AtomicBoolean building = new AtomicBoolean();
+        private volatile TenantSuggestionIndex index;
+        private volatile long builtChanges = -1;
+        private volatile long builtAt;
+        private volatile boolean queriesChanged;
+        // Only written by builds, which never overlap for a tenant
+        private volatile long decayedAt;
+
+        private TenantSuggestions(int maxQueries, long now) {
+            this.queries = new QueryCounts(maxQueries);
+            this.decayedAt = now;
+        }
+    }
+}
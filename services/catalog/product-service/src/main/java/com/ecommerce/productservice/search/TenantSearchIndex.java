@@ -0,0 +1,634 @@
+package com.ecommerce.productservice.search;
+
+import com.ecommerce.productservice.dto.FacetedSearchResponse;
+import com.ecommerce.productservice.dto.ProductSummaryResponse;
+import com.ecommerce.productservice.dto.SearchFilters;
+import com.ecommerce.productservice.entity.Product;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over the products of one tenant.
+ *
+ * Every product gets a document number. Facet values (category, subcategory, brand, status and
+ * price bucket) map to bitmaps of document numbers, so any combination of filters is an AND of
+ * bitmaps. Name, brand and description terms map to postings lists scored with BM25, with name
+ * and brand terms weighted above description terms. Updates and deletes only clear the old
+ * document from the bitmaps; its postings stay behind until {@link #compacted()} renumbers the
+ * live documents.
+ *
+ * Reads may run concurrently; writes must be serialized by the caller.
+ */
+final class TenantSearchIndex {
+
+    /** Upper bounds, in cents, of every price bucket but the last */
+    static final long[] PRICE_BUCKETS = {1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000};
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NAME_WEIGHT = 3;
+    private static final int BRAND_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int FACET_VALUES = 20;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docsById = new HashMap<>();
+    private final List<IndexedProduct> docs = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Facet categories;
+    private final Facet subcategories;
+    private final Facet brands;
+    private final BitSet[] statuses = bitmaps(Product.ProductStatus.values().length);
+    private final BitSet[] priceBuckets = bitmaps(PRICE_BUCKETS.length + 1);
+    private final Map<String, Integer> termIds;
+    private final List<Postings> postings;
+    private long liveLength;
+    private int liveDocs;
+
+    TenantSearchIndex() {
+        this.categories = new Facet();
+        this.subcategories = new Facet();
+        this.brands = new Facet();
+        this.termIds = new HashMap<>();
+        this.postings = new ArrayList<>();
+    }
+
+    // Shares the term and facet dictionaries of another index, so its documents can be copied over
+    private TenantSearchIndex(TenantSearchIndex dictionaries) {
+        this.categories = dictionaries.categories.copyDictionary();
+        this.subcategories = dictionaries.subcategories.copyDictionary();
+        this.brands = dictionaries.brands.copyDictionary();
+        this.termIds = new HashMap<>(dictionaries.termIds);
+        this.postings = new ArrayList<>(dictionaries.postings.size());
+        for (int i = 0; i < dictionaries.postings.size(); i++) {
+            postings.add(new Postings());
+        }
+    }
+
+    int size() {
+        return liveDocs;
+    }
+
+    /**
+     * Documents of updated or deleted products whose postings are still indexed
+     */
+    int deadDocs() {
+        return docs.size() - liveDocs;
+    }
+
+    /**
+     * Names of the indexed products, one per product
+     */
+    List<String> names() {
+        lock.readLock().lock();
+        try {
+            List<String> names = new ArrayList<>(liveDocs);
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                if (docs.get(doc).name != null) {
+                    names.add(docs.get(doc).name);
+                }
+            }
+            return names;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * IDs of the indexed products
+     */
+    List<String> ids() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(docsById.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the product is indexed in a version updated no earlier than the given one
+     */
+    boolean isCurrent(Product product) {
+        lock.readLock().lock();
+        try {
+            Integer doc = docsById.get(product.getId());
+            return doc != null && docs.get(doc).updatedAt >= epochMillis(product.getUpdatedAt());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index a product, replacing its previous version. A product without images keeps the primary
+     * image and every product keeps the creation time of its previous version, as product events
+     * carry neither.
+     */
+    void upsert(Product product) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = docsById.remove(product.getId());
+            IndexedProduct old = null;
+            if (previous != null) {
+                old = docs.get(previous);
+                clear(previous, old);
+            }
+            add(analyze(product, old));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Whether the product was indexed
+     */
+    boolean remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = docsById.remove(productId);
+            if (previous == null) {
+                return false;
+            }
+            clear(previous, docs.get(previous));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A copy of this index without the postings of dead documents
+     */
+    TenantSearchIndex compacted() {
+        lock.readLock().lock();
+        try {
+            TenantSearchIndex compacted = new TenantSearchIndex(this);
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                compacted.add(docs.get(doc));
+            }
+            return compacted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search the index. Text searches are ranked by BM25 unless the filters name another sort
+     * field; every search term is optional, as in a Mongo text search.
+     */
+    FacetedSearchResponse search(SearchFilters filters, int page, int size, boolean withFacets) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) live.clone();
+            if (StringUtils.hasText(filters.getCategory())) {
+                matches.and(categories.bitmap(filters.getCategory()));
+            }
+            if (StringUtils.hasText(filters.getSubcategory())) {
+                matches.and(subcategories.bitmap(filters.getSubcategory()));
+            }
+            if (StringUtils.hasText(filters.getBrand())) {
+                matches.and(brands.bitmap(filters.getBrand()));
+            }
+            if (filters.getStatus() != null) {
+                matches.and(statuses[filters.getStatus().ordinal()]);
+            }
+            if (filters.getMinPrice() != null || filters.getMaxPrice() != null) {
+                matches.and(priceRange(filters.getMinPrice(), filters.getMaxPrice(), matches));
+            }
+
+            float[] scores = null;
+            if (StringUtils.hasText(filters.getSearchText())) {
+                scores = new float[docs.size()];
+                matches = score(SearchTerms.tokenize(filters.getSearchText()), matches, scores);
+            }
+
+            int total = matches.cardinality();
+            long wanted = Math.min((long) (page + 1) * size, total);
+            int[] top = top(matches, order(filters, scores), (int) wanted);
+            List<ProductSummaryResponse> content = new ArrayList<>();
+            for (int i = page * size; i < top.length; i++) {
+                content.add(docs.get(top[i]).toSummary());
+            }
+
+            int totalPages = (int) Math.ceil((double) total / size);
+            return new FacetedSearchResponse(content, page, size, total, totalPages,
+                withFacets ? facets(matches) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IndexedProduct analyze(Product product, IndexedProduct previous) {
+        Map<Integer, Integer> frequencies = new LinkedHashMap<>();
+        int length = addTerms(frequencies, product.getName(), NAME_WEIGHT)
+            + addTerms(frequencies, product.getBrand(), BRAND_WEIGHT)
+            + addTerms(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+        int[] terms = new int[frequencies.size()];
+        short[] termFrequencies = new short[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> frequency : frequencies.entrySet()) {
+            terms[i] = frequency.getKey();
+            termFrequencies[i] = (short) Math.min(Short.MAX_VALUE, frequency.getValue());
+            i++;
+        }
+
+        String primaryImageUrl = previous != null ? previous.primaryImageUrl : null;
+        if (product.getImages() != null && !product.getImages().isEmpty()) {
+            primaryImageUrl = product.getImages().stream()
+                .filter(Product.ProductImage::isPrimary)
+                .findFirst()
+                .orElse(product.getImages().get(0))
+                .getUrl();
+        }
+        long createdAt = previous != null ? previous.createdAt : epochMillis(product.getCreatedAt());
+        Product.Price price = product.getPrice();
+        long priceCents = price != null && price.getAmount() != null
+            ? price.getAmount().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact()
+            : -1;
+
+        return new IndexedProduct(product.getId(), product.getName(), product.getBrand(), product.getCategory(),
+            product.getSubcategory(), product.getSku(), price != null ? price.getCurrency() : null, primaryImageUrl,
+            product.getStatus(), priceCents, createdAt, epochMillis(product.getUpdatedAt()),
+            categories.ordinal(product.getCategory()), subcategories.ordinal(product.getSubcategory()),
+            brands.ordinal(product.getBrand()), terms, termFrequencies, length);
+    }
+
+    private int addTerms(Map<Integer, Integer> frequencies, String text, int weight) {
+        List<String> terms = SearchTerms.tokenize(text);
+        for (String term : terms) {
+            Integer termId = termIds.get(term);
+            if (termId == null) {
+                termId = postings.size();
+                termIds.put(term, termId);
+                postings.add(new Postings());
+            }
+            frequencies.merge(termId, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    private void add(IndexedProduct product) {
+        int doc = docs.size();
+        docs.add(product);
+        docsById.put(product.id, doc);
+        live.set(doc);
+        categories.set(product.categoryOrdinal, doc);
+        subcategories.set(product.subcategoryOrdinal, doc);
+        brands.set(product.brandOrdinal, doc);
+        if (product.status != null) {
+            statuses[product.status.ordinal()].set(doc);
+        }
+        if (product.priceCents >= 0) {
+            priceBuckets[priceBucket(product.priceCents)].set(doc);
+        }
+        for (int i = 0; i < product.terms.length; i++) {
+            postings.get(product.terms[i]).add(doc, product.frequencies[i]);
+        }
+        liveLength += product.length;
+        liveDocs++;
+    }
+
+    private void clear(int doc, IndexedProduct product) {
+        live.clear(doc);
+        categories.clear(product.categoryOrdinal, doc);
+        subcategories.clear(product.subcategoryOrdinal, doc);
+        brands.clear(product.brandOrdinal, doc);
+        if (product.status != null) {
+            statuses[product.status.ordinal()].clear(doc);
+        }
+        if (product.priceCents >= 0) {
+            priceBuckets[priceBucket(product.priceCents)].clear(doc);
+        }
+        liveLength -= product.length;
+        liveDocs--;
+    }
+
+    private BitSet score(List<String> queryTerms, BitSet filter, float[] scores) {
+        BitSet matches = new BitSet(docs.size());
+        double averageLength = liveDocs > 0 ? Math.max(1.0, (double) liveLength / liveDocs) : 1.0;
+        for (String term : new LinkedHashSet<>(queryTerms)) {
+            Integer termId = termIds.get(term);
+            if (termId == null) {
+                continue;
+            }
+            Postings termPostings = postings.get(termId);
+            // Dead postings overcount the document frequency until the next compaction
+            int documentFrequency = Math.min(termPostings.size, liveDocs);
+            float idf = (float) Math.log(1 + (liveDocs - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            for (int i = 0; i < termPostings.size; i++) {
+                int doc = termPostings.docs[i];
+                if (!filter.get(doc)) {
+                    continue;
+                }
+                float frequency = termPostings.frequencies[i];
+                float norm = (float) (K1 * (1 - B + B * docs.get(doc).length / averageLength));
+                scores[doc] += idf * frequency * (K1 + 1) / (frequency + norm);
+                matches.set(doc);
+            }
+        }
+        return matches;
+    }
+
+    // Straddling buckets are only checked among the candidates the other filters left
+    private BitSet priceRange(BigDecimal minPrice, BigDecimal maxPrice, BitSet candidates) {
+        long min = minPrice != null ? minPrice.movePointRight(2).setScale(0, RoundingMode.CEILING).longValue() : 0;
+        long max = maxPrice != null
+            ? maxPrice.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue()
+            : Long.MAX_VALUE;
+        BitSet matches = new BitSet(docs.size());
+        for (int bucket = 0; bucket < priceBuckets.length; bucket++) {
+            long lower = bucket == 0 ? 0 : PRICE_BUCKETS[bucket - 1];
+            long upper = bucket == PRICE_BUCKETS.length ? Long.MAX_VALUE : PRICE_BUCKETS[bucket] - 1;
+            if (upper < min || lower > max) {
+                continue;
+            }
+            if (lower >= min && upper <= max) {
+                matches.or(priceBuckets[bucket]);
+                continue;
+            }
+            // Bucket straddles a bound: check each price
+            BitSet straddling = (BitSet) priceBuckets[bucket].clone();
+            straddling.and(candidates);
+            for (int doc = straddling.nextSetBit(0); doc >= 0; doc = straddling.nextSetBit(doc + 1)) {
+                long price = docs.get(doc).priceCents;
+                if (price >= min && price <= max) {
+                    matches.set(doc);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private DocOrder order(SearchFilters filters, float[] scores) {
+        String sortBy = filters.getSortBy();
+        if (scores != null && (!StringUtils.hasText(sortBy) || "relevance".equalsIgnoreCase(sortBy))) {
+            return (a, b) -> {
+                int byScore = Float.compare(scores[b], scores[a]);
+                return byScore != 0 ? byScore : Integer.compare(a, b);
+            };
+        }
+        boolean descending = "desc".equalsIgnoreCase(filters.getSortDirection());
+        DocOrder ascending;
+        if ("name".equals(sortBy)) {
+            ascending = (a, b) -> compareNullable(docs.get(a).name, docs.get(b).name);
+        } else if ("price".equals(sortBy) || "price.amount".equals(sortBy)) {
+            ascending = (a, b) -> Long.compare(docs.get(a).priceCents, docs.get(b).priceCents);
+        } else if ("createdAt".equals(sortBy)) {
+            ascending = (a, b) -> Long.compare(docs.get(a).createdAt, docs.get(b).createdAt);
+        } else {
+            ascending = (a, b) -> Long.compare(docs.get(a).updatedAt, docs.get(b).updatedAt);
+        }
+        return (a, b) -> {
+            int order = descending ? ascending.compare(b, a) : ascending.compare(a, b);
+            return order != 0 ? order : Integer.compare(a, b);
+        };
+    }
+
+    // The first k matches in the given order, kept in a heap whose root is the worst kept match
+    private static int[] top(BitSet matches, DocOrder order, int k) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        int[] heap = new int[k];
+        int size = 0;
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            if (size < k) {
+                heap[size] = doc;
+                siftUp(heap, size++, order);
+            } else if (order.compare(doc, heap[0]) < 0) {
+                heap[0] = doc;
+                siftDown(heap, size, order);
+            }
+        }
+        Integer[] sorted = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = heap[i];
+        }
+        Arrays.sort(sorted, order::compare);
+        int[] top = new int[size];
+        for (int i = 0; i < size; i++) {
+            top[i] = sorted[i];
+        }
+        return top;
+    }
+
+    private static void siftUp(int[] heap, int index, DocOrder order) {
+        int doc = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (order.compare(heap[parent], doc) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = doc;
+    }
+
+    private static void siftDown(int[] heap, int size, DocOrder order) {
+        int doc = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(doc, heap[child]) >= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = doc;
+    }
+
+    private Map<String, Map<String, Long>> facets(BitSet matches) {
+        long[] categoryCounts = new long[categories.size()];
+        long[] subcategoryCounts = new long[subcategories.size()];
+        long[] brandCounts = new long[brands.size()];
+        long[] statusCounts = new long[statuses.length];
+        long[] priceCounts = new long[priceBuckets.length];
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            IndexedProduct product = docs.get(doc);
+            count(categoryCounts, product.categoryOrdinal);
+            count(subcategoryCounts, product.subcategoryOrdinal);
+            count(brandCounts, product.brandOrdinal);
+            if (product.status != null) {
+                statusCounts[product.status.ordinal()]++;
+            }
+            if (product.priceCents >= 0) {
+                priceCounts[priceBucket(product.priceCents)]++;
+            }
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("category", categories.topValues(categoryCounts));
+        facets.put("subcategory", subcategories.topValues(subcategoryCounts));
+        facets.put("brand", brands.topValues(brandCounts));
+        Map<String, Long> statusFacet = new LinkedHashMap<>();
+        for (Product.ProductStatus status : Product.ProductStatus.values()) {
+            if (statusCounts[status.ordinal()] > 0) {
+                statusFacet.put(status.name(), statusCounts[status.ordinal()]);
+            }
+        }
+        facets.put("status", statusFacet);
+        Map<String, Long> priceFacet = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < priceCounts.length; bucket++) {
+            if (priceCounts[bucket] > 0) {
+                priceFacet.put(priceBucketLabel(bucket), priceCounts[bucket]);
+            }
+        }
+        facets.put("price", priceFacet);
+        return facets;
+    }
+
+    private static void count(long[] counts, int ordinal) {
+        if (ordinal >= 0) {
+            counts[ordinal]++;
+        }
+    }
+
+    static int priceBucket(long priceCents) {
+        int bucket = Arrays.binarySearch(PRICE_BUCKETS, priceCents);
+        return bucket >= 0 ? bucket + 1 : -bucket - 1;
+    }
+
+    static String priceBucketLabel(int bucket) {
+        if (bucket == PRICE_BUCKETS.length) {
+            return PRICE_BUCKETS[bucket - 1] / 100 + "+";
+        }
+        long lower = bucket == 0 ? 0 : PRICE_BUCKETS[bucket - 1] / 100;
+        return lower + "-" + PRICE_BUCKETS[bucket] / 100;
+    }
+
+    private static int compareNullable(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareToIgnoreCase(b);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+    }
+
+    private static BitSet[] bitmaps(int count) {
+        BitSet[] bitmaps = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new BitSet();
+        }
+        return bitmaps;
+    }
+
+    @FunctionalInterface
+    private interface DocOrder {
+        /** Negative if document a comes first */
+        int compare(int a, int b);
+    }
+
+    // Values of one facet field, each with the bitmap of documents holding it
+    private static final class Facet {
+
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<BitSet> bitmaps = new ArrayList<>();
+
+        int size() {
+            return values.size();
+        }
+
+        /**
+         * Ordinal of a value, adding it if new; -1 for no value
+         */
+        int ordinal(String value) {
+            if (!StringUtils.hasText(value)) {
+                return -1;
+            }
+            Integer ordinal = ordinals.get(value);
+            if (ordinal == null) {
+                ordinal = values.size();
+                ordinals.put(value, ordinal);
+                values.add(value);
+                bitmaps.add(new BitSet());
+            }
+            return ordinal;
+        }
+
+        BitSet bitmap(String value) {
+            Integer ordinal = ordinals.get(value);
+            return ordinal != null ? bitmaps.get(ordinal) : new BitSet();
+        }
+
+        void set(int ordinal, int doc) {
+            if (ordinal >= 0) {
+                bitmaps.get(ordinal).set(doc);
+            }
+        }
+
+        void clear(int ordinal, int doc) {
+            if (ordinal >= 0) {
+                bitmaps.get(ordinal).clear(doc);
+            }
+        }
+
+        Map<String, Long> topValues(long[] counts) {
+            Integer[] ordinalsByCount = new Integer[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                ordinalsByCount[i] = i;
+            }
+            Arrays.sort(ordinalsByCount, (a, b) -> Long.compare(counts[b], counts[a]));
+            Map<String, Long> top = new LinkedHashMap<>();
+            for (int i = 0; i < ordinalsByCount.length && top.size() < FACET_VALUES; i++) {
+                if (counts[ordinalsByCount[i]] == 0) {
+                    break;
+                }
+                top.put(values.get(ordinalsByCount[i]), counts[ordinalsByCount[i]]);
+            }
+            return top;
+        }
+
+        Facet copyDictionary() {
+            Facet copy = new Facet();
+            copy.ordinals.putAll(ordinals);
+            copy.values.addAll(values);
+            for (int i = 0; i < values.size(); i++) {
+                copy.bitmaps.add(new BitSet());
+            }
+            return copy;
+        }
+    }
+
+    // Documents holding one term, with their weighted frequencies, in document order
+    private static final class Postings {
+
+        private int[] docs = new int[2];
+        private short[] frequencies = new short[2];
+        private int size;
+
+        void add(int doc, short frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.ecommerce.productservice.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Immutable prefix index over the search suggestions of one tenant: product names and popular
+ * queries, each scored by popularity.
+ *
+ * Suggestions are normalized to lowercase words and kept back to back in one char array. Every
+ * suggestion has a key per word it holds, reaching from the start of that word to the end of the
+ * suggestion, so "galaxy" finds "Samsung Galaxy S23". Keys are sorted, which makes the keys
+ * starting with a prefix one contiguous range, the subtree a trie would hold for it, and a max
+ * tree over the key scores yields the best suggestions of a range without scanning it. Prefixes
+ * without any suggestions fall back to the prefixes one edit away.
+ *
+ * Safe for concurrent reads.
+ */
+final class TenantSuggestionIndex {
+
+    /** Shortest prefix corrected for typos; shorter prefixes are one edit away from too much */
+    static final int MIN_FUZZY_LENGTH = 3;
+
+    /** Leading chars taken as typed when correcting typos, which rarely fall on the first char */
+    private static final int EXACT_FUZZY_PREFIX = 1;
+
+    /** Score a product name gets per product carrying it, before any searches for it */
+    private static final long PRODUCT_SCORE = 1;
+
+    private final String[] suggestions;
+    private final long[] scores;
+    private final char[] text;
+    private final int[] textEnds;
+    private final int[] keyStarts;
+    private final int[] keySuggestions;
+    private final int[] maxTree;
+
+    private TenantSuggestionIndex(String[] suggestions, long[] scores, char[] text, int[] textEnds,
+                                  int[] keyStarts, int[] keySuggestions) {
+        this.suggestions = suggestions;
+        this.scores = scores;
+        this.text = text;
+        this.textEnds = textEnds;
+        this.keyStarts = keyStarts;
+        this.keySuggestions = keySuggestions;
+        this.maxTree = new int[2 * keyStarts.length];
+        for (int key = 0; key < keyStarts.length; key++) {
+            maxTree[keyStarts.length + key] = key;
+        }
+        for (int node = keyStarts.length - 1; node > 0; node--) {
+            maxTree[node] = better(maxTree[2 * node], maxTree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Build an index of product names and searched queries. Suggestions that normalize to the same
+     * words are merged, keeping the first product name's spelling and adding up their scores.
+     *
+     * @param productNames One name per product
+     * @param queryCounts Normalized queries with their search counts
+     */
+    static TenantSuggestionIndex build(Collection<String> productNames, Map<String, Long> queryCounts) {
+        Map<String, Candidate> candidates = new LinkedHashMap<>();
+        for (String name : productNames) {
+            String key = normalize(name);
+            if (!key.isEmpty()) {
+                candidates.computeIfAbsent(key, k -> new Candidate(name)).score += PRODUCT_SCORE;
+            }
+        }
+        for (Map.Entry<String, Long> query : queryCounts.entrySet()) {
+            String key = normalize(query.getKey());
+            if (!key.isEmpty()) {
+                candidates.computeIfAbsent(key, k -> new Candidate(k)).score += query.getValue();
+            }
+        }
+
+        String[] suggestions = new String[candidates.size()];
+        long[] scores = new long[candidates.size()];
+        int[] textEnds = new int[candidates.size()];
+        StringBuilder text = new StringBuilder();
+        int keys = 0;
+        int i = 0;
+        for (Map.Entry<String, Candidate> candidate : candidates.entrySet()) {
+            suggestions[i] = candidate.getValue().display;
+            scores[i] = candidate.getValue().score;
+            text.append(candidate.getKey());
+            textEnds[i] = text.length();
+            keys += 1 + countSpaces(candidate.getKey());
+            i++;
+        }
+
+        char[] chars = text.toString().toCharArray();
+        Integer[] order = new Integer[keys];
+        int[] starts = new int[keys];
+        int[] owners = new int[keys];
+        int key = 0;
+        int start = 0;
+        for (int suggestion = 0; suggestion < suggestions.length; suggestion++) {
+            for (int position = start; position < textEnds[suggestion]; position++) {
+                if (position == start || chars[position - 1] == ' ') {
+                    starts[key] = position;
+                    owners[key] = suggestion;
+                    order[key] = key;
+                    key++;
+                }
+            }
+            start = textEnds[suggestion];
+        }
+        Arrays.sort(order, (a, b) -> compareKeys(chars, starts[a], textEnds[owners[a]],
+            starts[b], textEnds[owners[b]]));
+        int[] keyStarts = new int[keys];
+        int[] keySuggestions = new int[keys];
+        for (int k = 0; k < keys; k++) {
+            keyStarts[k] = starts[order[k]];
+            keySuggestions[k] = owners[order[k]];
+        }
+        return new TenantSuggestionIndex(suggestions, scores, chars, textEnds, keyStarts, keySuggestions);
+    }
+
+    int size() {
+        return suggestions.length;
+    }
+
+    /**
+     * The most popular suggestions having a word that starts with the query or, if there are none,
+     * a word that starts with the query corrected for one typo
+     */
+    List<String> suggest(String query, int limit) {
+        char[] prefix = normalize(query).toCharArray();
+        List<String> result = new ArrayList<>(limit);
+        if (prefix.length == 0 || limit <= 0) {
+            return result;
+        }
+        collect(List.of(range(prefix, prefix.length, 0, keyStarts.length)), limit, result);
+        if (result.isEmpty() && prefix.length >= MIN_FUZZY_LENGTH) {
+            collect(fuzzyRanges(prefix), limit, result);
+        }
+        return result;
+    }
+
+    // Best suggestions across key ranges, best first: each range is split around its best key
+    private void collect(List<int[]> ranges, int limit, List<String> result) {
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> compareByScore(a[2], b[2]));
+        for (int[] range : ranges) {
+            offer(queue, range[0], range[1]);
+        }
+        Set<Integer> seen = new HashSet<>();
+        while (result.size() < limit && !queue.isEmpty()) {
+            int[] best = queue.poll();
+            int suggestion = keySuggestions[best[2]];
+            if (seen.add(suggestion)) {
+                result.add(suggestions[suggestion]);
+            }
+            offer(queue, best[0], best[2]);
+            offer(queue, best[2] + 1, best[1]);
+        }
+    }
+
+    private void offer(PriorityQueue<int[]> queue, int from, int to) {
+        if (from < to) {
+            queue.add(new int[] {from, to, max(from, to)});
+        }
+    }
+
+    // Ranges of the prefixes one deletion, transposition, substitution or insertion away, past the
+    // leading chars taken as typed. An edit at a position keeps the chars before it, so it is only
+    // searched for among the keys starting with those, and substitutions and insertions only try
+    // the chars those keys continue with, like the children of a trie node. Nothing is inserted
+    // after the last char, as that would only narrow the prefix.
+    private List<int[]> fuzzyRanges(char[] prefix) {
+        int length = prefix.length;
+        char[] edited = new char[length];
+        char[] substituted = prefix.clone();
+        char[] inserted = new char[length + 1];
+        System.arraycopy(prefix, 0, inserted, 0, EXACT_FUZZY_PREFIX);
+        System.arraycopy(prefix, EXACT_FUZZY_PREFIX, inserted, EXACT_FUZZY_PREFIX + 1, length - EXACT_FUZZY_PREFIX);
+        List<int[]> ranges = new ArrayList<>();
+        int[] kept = range(prefix, EXACT_FUZZY_PREFIX, 0, keyStarts.length);
+        for (int i = EXACT_FUZZY_PREFIX; i < length && kept[0] < kept[1]; i++) {
+            System.arraycopy(prefix, 0, edited, 0, i);
+            System.arraycopy(prefix, i + 1, edited, i, length - i - 1);
+            addRange(ranges, edited, length - 1, kept);
+            if (i + 1 < length && prefix[i] != prefix[i + 1]) {
+                edited[i] = prefix[i + 1];
+                edited[i + 1] = prefix[i];
+                System.arraycopy(prefix, i + 2, edited, i + 2, length - i - 2);
+                addRange(ranges, edited, length, kept);
+            }
+            // Keys equal to the kept chars sort before those continuing with any char
+            substituted[i] = '\0';
+            int next = search(substituted, i + 1, kept[0], kept[1], false);
+            while (next < kept[1]) {
+                char c = text[keyStarts[next] + i];
+                substituted[i] = c;
+                inserted[i] = c;
+                int[] continuing = {next, search(substituted, i + 1, next, kept[1], true)};
+                if (c != prefix[i]) {
+                    addRange(ranges, substituted, length, continuing);
+                }
+                addRange(ranges, inserted, length + 1, continuing);
+                next = continuing[1];
+            }
+            substituted[i] = prefix[i];
+            inserted[i] = prefix[i];
+            kept = range(prefix, i + 1, kept[0], kept[1]);
+        }
+        return ranges;
+    }
+
+    private void addRange(List<int[]> ranges, char[] prefix, int length, int[] within) {
+        int[] range = range(prefix, length, within[0], within[1]);
+        if (range[0] < range[1]) {
+            ranges.add(range);
+        }
+    }
+
+    // Keys within [from, to) starting with the first length chars of the prefix, as [first, end)
+    private int[] range(char[] prefix, int length, int from, int to) {
+        return new int[] {search(prefix, length, from, to, false), search(prefix, length, from, to, true)};
+    }
+
+    // First key sorting after the prefix, or at or after it if not past
+    private int search(char[] prefix, int length, int from, int to, boolean past) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareToPrefix(middle, prefix, length);
+            if (comparison < 0 || (past && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Zero if the key starts with the prefix
+    private int compareToPrefix(int key, char[] prefix, int prefixLength) {
+        int start = keyStarts[key];
+        int length = textEnds[keySuggestions[key]] - start;
+        int common = Math.min(length, prefixLength);
+        for (int i = 0; i < common; i++) {
+            int difference = text[start + i] - prefix[i];
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length >= prefixLength ? 0 : -1;
+    }
+
+    // Best key in [from, to)
+    private int max(int from, int to) {
+        int best = -1;
+        for (from += keyStarts.length, to += keyStarts.length; from < to; from >>= 1, to >>= 1) {
+            if ((from & 1) == 1) {
+                best = better(best, maxTree[from++]);
+            }
+            if ((to & 1) == 1) {
+                best = better(best, maxTree[--to]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        if (a < 0 || b < 0) {
+            return a < 0 ? b : a;
+        }
+        return compareByScore(a, b) <= 0 ? a : b;
+    }
+
+    // Negative if key a has the higher score, or the same score and sorts first
+    private int compareByScore(int a, int b) {
+        int byScore = Long.compare(scores[keySuggestions[b]], scores[keySuggestions[a]]);
+        return byScore != 0 ? byScore : Integer.compare(a, b);
+    }
+
+    static String normalize(String text) {
+        return String.join(" ", SearchTerms.tokenize(text));
+    }
+
+    private static int countSpaces(String key) {
+        int spaces = 0;
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) == ' ') {
+                spaces++;
+            }
+        }
+        return spaces;
+    }
+
+    private static int compareKeys(char[] text, int startA, int endA, int startB, int endB) {
+        int common = Math.min(endA - startA, endB - startB);
+        for (int i = 0; i < common; i++) {
+            int difference = text[startA + i] - text[startB + i];
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return (endA - startA) - (endB - startB);
+    }
+
+    private static final class Candidate {
+        private final String display;
+        private long score;
+
+        private Candidate(String display) {
+            this.display = display;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.ecommerce.productservice.service;
 
+import com.ecommerce.productservice.cache.ProductCacheTags;
+import com.ecommerce.productservice.cache.TaggedProductCache;
 import com.ecommerce.productservice.dto.ProductSummaryResponse;
 import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.recommendation.CoPurchaseRecommendations;
 import com.ecommerce.productservice.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -13,6 +15,7 @@ import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,26 +23,55 @@ public class ProductRecommendationService {
 
     private final ProductRepository productRepository;
     private final ProductSearchService productSearchService;
+    private final TaggedProductCache productCache;
+    private final CoPurchaseRecommendations coPurchases;
 
     @Autowired
     public ProductRecommendationService(ProductRepository productRepository, 
-                                      ProductSearchService productSearchService) {
+                                      ProductSearchService productSearchService,
+                                      TaggedProductCache productCache,
+                                      CoPurchaseRecommendations coPurchases) {
         this.productRepository = productRepository;
         this.productSearchService = productSearchService;
+        this.productCache = productCache;
+        this.coPurchases = coPurchases;
     }
 
-    @Cacheable(value = "product-recommendations", key = "#tenantId + ':similar:' + #productId + ':' + #limit")
     public List<ProductSummaryResponse> getSimilarProducts(String tenantId, String productId, int limit) {
-        return productSearchService.findSimilarProducts(tenantId, productId, limit);
+        return cached(tenantId, tenantId + ":similar:" + productId + ":" + limit,
+            () -> productSearchService.findSimilarProducts(tenantId, productId, limit),
+            ProductCacheTags.product(tenantId, productId));
     }
 
-    @Cacheable(value = "product-recommendations", key = "#tenantId + ':frequently-bought:' + #productId + ':' + #limit")
     public List<ProductSummaryResponse> getFrequentlyBoughtTogether(String tenantId, String productId, int limit) {
-        // Simplified implementation - in production, this would use order history analysis
+        return cached(tenantId, tenantId + ":frequently-bought:" + productId + ":" + limit,
+            () -> loadFrequentlyBoughtTogether(tenantId, productId, limit),
+            ProductCacheTags.product(tenantId, productId));
+    }
+
+    private List<ProductSummaryResponse> loadFrequentlyBoughtTogether(String tenantId, String productId, int limit) {
+        // Ask for extra products in case some are no longer active
+        List<String> boughtTogether = coPurchases.boughtTogether(tenantId, List.of(productId), limit * 2);
+        if (boughtTogether != null && !boughtTogether.isEmpty()) {
+            List<ProductSummaryResponse> products = findActiveProducts(tenantId, boughtTogether, limit);
+            if (!products.isEmpty()) {
+                return products;
+            }
+        }
+        return loadSameCategoryInPriceBand(tenantId, productId, limit);
+    }
+
+    /**
+     * Products of the same category in a similar price range, until the product is bought with others
+     */
+    private List<ProductSummaryResponse> loadSameCategoryInPriceBand(String tenantId, String productId, int limit) {
         Product product = productRepository.findByTenantIdAndId(tenantId, productId).orElse(null);
         if (product == null) {
             return List.of();
         }
+        if (StringUtils.hasText(product.getCategory())) {
+            productCache.dependOn(Set.of(ProductCacheTags.category(tenantId, product.getCategory())));
+        }
 
         // Find products in the same category with similar price range
         BigDecimal productPrice = product.getPrice() != null ? product.getPrice().getAmount() : BigDecimal.ZERO;
@@ -58,8 +90,15 @@ public class ProductRecommendationService {
             .collect(Collectors.toList());
     }
 
-    @Cacheable(value = "product-recommendations", key = "#tenantId + ':trending:' + #category + ':' + #limit")
     public List<ProductSummaryResponse> getTrendingProducts(String tenantId, String category, int limit) {
+        return cached(tenantId, tenantId + ":trending:" + category + ":" + limit,
+            () -> loadTrendingProducts(tenantId, category, limit),
+            StringUtils.hasText(category)
+                ? ProductCacheTags.category(tenantId, category)
+                : ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.CATALOG));
+    }
+
+    private List<ProductSummaryResponse> loadTrendingProducts(String tenantId, String category, int limit) {
         // Simplified trending logic - in production, this would use view/purchase analytics
         Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "updatedAt"));
         
@@ -77,10 +116,18 @@ public class ProductRecommendationService {
         }
     }
 
-    @Cacheable(value = "product-recommendations", key = "#tenantId + ':personalized:' + #userPreferences.hashCode() + ':' + #limit")
     public List<ProductSummaryResponse> getPersonalizedRecommendations(String tenantId, 
                                                                      UserPreferences userPreferences, 
                                                                      int limit) {
+        return productCache.get("product-recommendations",
+            tenantId + ":personalized:" + userPreferences.hashCode() + ":" + limit,
+            () -> loadPersonalizedRecommendations(tenantId, userPreferences, limit),
+            recommendations -> ProductCacheTags.contents(tenantId, recommendations));
+    }
+
+    private List<ProductSummaryResponse> loadPersonalizedRecommendations(String tenantId,
+                                                                         UserPreferences userPreferences,
+                                                                         int limit) {
         List<ProductSummaryResponse> recommendations = new ArrayList<>();
         
         // Get products from preferred categories
@@ -95,6 +142,7 @@ public class ProductRecommendationService {
         // Get products from preferred brands
         if (userPreferences.getPreferredBrands() != null && !userPreferences.getPreferredBrands().isEmpty()) {
             for (String brand : userPreferences.getPreferredBrands()) {
+                productCache.dependOn(Set.of(ProductCacheTags.brand(tenantId, brand)));
                 Pageable pageable = PageRequest.of(0, limit / userPreferences.getPreferredBrands().size() + 1);
                 List<ProductSummaryResponse> brandProducts = productRepository.findByTenantIdAndBrand(
                         tenantId, brand, pageable)
@@ -112,6 +160,7 @@ public class ProductRecommendationService {
                 userPreferences.getMinPrice().doubleValue() : 0.0;
             double maxPrice = userPreferences.getMaxPrice() != null ? 
                 userPreferences.getMaxPrice().doubleValue() : Double.MAX_VALUE;
+            productCache.dependOn(Set.of(ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.PRICE)));
             
             Pageable pageable = PageRequest.of(0, limit);
             List<ProductSummaryResponse> priceRangeProducts = productRepository.findByTenantIdAndPriceRange(
@@ -136,19 +185,20 @@ public class ProductRecommendationService {
             .collect(Collectors.toList());
     }
 
-    @Cacheable(value = "product-recommendations", key = "#tenantId + ':new-arrivals:' + #limit")
     public List<ProductSummaryResponse> getNewArrivals(String tenantId, int limit) {
-        return productSearchService.findRecentProducts(tenantId, limit);
+        return cached(tenantId, tenantId + ":new-arrivals:" + limit,
+            () -> productSearchService.findRecentProducts(tenantId, limit),
+            ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.CATALOG));
     }
 
-    @Cacheable(value = "product-recommendations", key = "#tenantId + ':featured:' + #limit")
     public List<ProductSummaryResponse> getFeaturedProducts(String tenantId, int limit) {
         // In a real implementation, you might have a "featured" flag on products
         // For now, we'll return popular products
-        return productSearchService.findPopularProducts(tenantId, null, limit);
+        return cached(tenantId, tenantId + ":featured:" + limit,
+            () -> productSearchService.findPopularProducts(tenantId, null, limit),
+            ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.CATALOG));
     }
 
-    @Cacheable(value = "product-recommendations", key = "#tenantId + ':cross-sell:' + #cartItems.hashCode() + ':' + #limit")
     public List<ProductSummaryResponse> getCrossSellRecommendations(String tenantId, 
                                                                   List<String> cartItems, 
                                                                   int limit) {
@@ -156,32 +206,68 @@ public class ProductRecommendationService {
             return List.of();
         }
 
-        Set<String> recommendations = new HashSet<>();
+        return productCache.get("product-recommendations",
+            tenantId + ":cross-sell:" + cartItems.hashCode() + ":" + limit,
+            () -> loadCrossSellRecommendations(tenantId, cartItems, limit),
+            recommendations -> {
+                Set<String> tags = ProductCacheTags.contents(tenantId, recommendations);
+                cartItems.forEach(productId -> tags.add(ProductCacheTags.product(tenantId, productId)));
+                return tags;
+            });
+    }
+
+    private List<ProductSummaryResponse> loadCrossSellRecommendations(String tenantId, List<String> cartItems,
+                                                                      int limit) {
+        // Products bought together with the cart first, with extras in case some are no longer active
+        Set<String> recommendations = new LinkedHashSet<>();
+        List<String> boughtTogether = coPurchases.boughtTogether(tenantId, cartItems, limit * 2);
+        if (boughtTogether != null) {
+            recommendations.addAll(boughtTogether);
+        }
         
-        // For each item in cart, find similar products
-        for (String productId : cartItems) {
-            List<ProductSummaryResponse> similar = getSimilarProducts(tenantId, productId, 5);
-            similar.forEach(p -> recommendations.add(p.getId()));
+        // Then products similar to the items in the cart
+        if (recommendations.size() < limit * 2) {
+            for (String productId : cartItems) {
+                List<ProductSummaryResponse> similar = getSimilarProducts(tenantId, productId, 5);
+                similar.forEach(p -> recommendations.add(p.getId()));
+            }
         }
         
         // Remove items already in cart
         recommendations.removeAll(cartItems);
         
-        // Get product details for recommendations
-        return recommendations.stream()
+        return findActiveProducts(tenantId, new ArrayList<>(recommendations), limit);
+    }
+
+    /**
+     * Look up products in one query, in the given order, skipping missing and inactive ones
+     */
+    private List<ProductSummaryResponse> findActiveProducts(String tenantId, List<String> productIds, int limit) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Product> products = productRepository.findByTenantIdAndIdIn(tenantId, productIds).stream()
+            .collect(Collectors.toMap(Product::getId, p -> p, (existing, replacement) -> existing));
+        return productIds.stream()
+            .map(products::get)
+            .filter(p -> p != null && p.getStatus() == Product.ProductStatus.ACTIVE)
             .limit(limit)
-            .map(id -> {
-                try {
-                    Product product = productRepository.findByTenantIdAndId(tenantId, id).orElse(null);
-                    return product != null ? new ProductSummaryResponse(product) : null;
-                } catch (Exception e) {
-                    return null;
-                }
-            })
-            .filter(Objects::nonNull)
+            .map(ProductSummaryResponse::new)
             .collect(Collectors.toList());
     }
 
+    /**
+     * Cache a recommendation listing, tagged with its contents and the given scope
+     */
+    private List<ProductSummaryResponse> cached(String tenantId, String key,
+                                                Supplier<List<ProductSummaryResponse>> loader, String scopeTag) {
+        return productCache.get("product-recommendations", key, loader, recommendations -> {
+            Set<String> tags = ProductCacheTags.contents(tenantId, recommendations);
+            tags.add(scopeTag);
+            return tags;
+        });
+    }
+
     // User preferences class for personalized recommendations
     public static class UserPreferences {
         private List<String> preferredCategories;
@@ -1,12 +1,17 @@
 package com.ecommerce.productservice.service;
 
+import com.ecommerce.productservice.cache.ProductCacheTags;
+import com.ecommerce.productservice.cache.TaggedProductCache;
+import com.ecommerce.productservice.dto.FacetedSearchResponse;
 import com.ecommerce.productservice.dto.PagedResponse;
 import com.ecommerce.productservice.dto.ProductSummaryResponse;
 import com.ecommerce.productservice.dto.SearchFilters;
 import com.ecommerce.productservice.entity.Product;
 import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.search.CatalogSearchIndex;
+import com.ecommerce.productservice.search.SearchSuggestions;
+import com.ecommerce.shared.metrics.collectors.BusinessMetricsCollector;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,24 +19,94 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductSearchService {
 
     private final ProductRepository productRepository;
+    private final TaggedProductCache productCache;
+    private final CatalogSearchIndex searchIndex;
+    private final SearchSuggestions searchSuggestions;
+    private final BusinessMetricsCollector businessMetrics;
 
     @Autowired
-    public ProductSearchService(ProductRepository productRepository) {
+    public ProductSearchService(ProductRepository productRepository, TaggedProductCache productCache,
+                                CatalogSearchIndex searchIndex, SearchSuggestions searchSuggestions,
+                                BusinessMetricsCollector businessMetrics) {
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.searchIndex = searchIndex;
+        this.searchSuggestions = searchSuggestions;
+        this.businessMetrics = businessMetrics;
     }
 
-    @Cacheable(value = "product-search", key = "#tenantId + ':' + #filters.hashCode() + ':' + #page + ':' + #size")
     public PagedResponse<ProductSummaryResponse> searchProducts(String tenantId, SearchFilters filters, 
                                                               int page, int size) {
-        
+        // Any combination of filters from the in-memory index once the tenant is indexed
+        PagedResponse<ProductSummaryResponse> result = searchIndex.search(tenantId, filters, page, size, false);
+        if (result == null) {
+            String key = tenantId + ":" + filters.hashCode() + ":" + page + ":" + size;
+            result = productCache.get("product-search", key, () -> loadSearchPage(tenantId, filters, page, size),
+                loaded -> ProductCacheTags.search(tenantId, filters, loaded.getContent()));
+        }
+        recordSearch(tenantId, filters, page, result);
+        return result;
+    }
+
+    /**
+     * Search with the number of matching products per category, subcategory, brand, status and
+     * price bucket. Facets are empty while the tenant is not indexed yet.
+     */
+    public FacetedSearchResponse searchProductsWithFacets(String tenantId, SearchFilters filters,
+                                                          int page, int size) {
+        FacetedSearchResponse indexed = searchIndex.search(tenantId, filters, page, size, true);
+        if (indexed != null) {
+            recordSearch(tenantId, filters, page, indexed);
+            return indexed;
+        }
+        PagedResponse<ProductSummaryResponse> result = searchProducts(tenantId, filters, page, size);
+        return new FacetedSearchResponse(result.getContent(), result.getPage(), result.getSize(),
+            result.getTotalElements(), result.getTotalPages(), Map.of());
+    }
+
+    public List<ProductSummaryResponse> findSimilarProducts(String tenantId, String productId, int limit) {
+        return productCache.get("product-search", tenantId + ":similar:" + productId,
+            () -> loadSimilarProducts(tenantId, productId, limit),
+            similar -> {
+                Set<String> tags = ProductCacheTags.contents(tenantId, similar);
+                tags.add(ProductCacheTags.product(tenantId, productId));
+                return tags;
+            });
+    }
+
+    public List<ProductSummaryResponse> findPopularProducts(String tenantId, String category, int limit) {
+        return productCache.get("product-search", tenantId + ":popular:" + category + ":" + limit,
+            () -> loadPopularProducts(tenantId, category, limit),
+            popular -> {
+                Set<String> tags = ProductCacheTags.contents(tenantId, popular);
+                tags.add(StringUtils.hasText(category)
+                    ? ProductCacheTags.category(tenantId, category)
+                    : ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.CATALOG));
+                return tags;
+            });
+    }
+
+    public List<ProductSummaryResponse> findRecentProducts(String tenantId, int limit) {
+        return productCache.get("product-search", tenantId + ":recent:" + limit,
+            () -> loadRecentProducts(tenantId, limit),
+            recent -> {
+                Set<String> tags = ProductCacheTags.contents(tenantId, recent);
+                tags.add(ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.CATALOG));
+                return tags;
+            });
+    }
+
+    private PagedResponse<ProductSummaryResponse> loadSearchPage(String tenantId, SearchFilters filters,
+                                                                 int page, int size) {
         Sort sort = createSort(filters.getSortBy(), filters.getSortDirection());
         Pageable pageable = PageRequest.of(page, size, sort);
         
@@ -79,12 +154,14 @@ public class ProductSearchService {
                                  productPage.getTotalElements(), productPage.getTotalPages());
     }
 
-    @Cacheable(value = "product-search", key = "#tenantId + ':similar:' + #productId")
-    public List<ProductSummaryResponse> findSimilarProducts(String tenantId, String productId, int limit) {
+    private List<ProductSummaryResponse> loadSimilarProducts(String tenantId, String productId, int limit) {
         Product product = productRepository.findByTenantIdAndId(tenantId, productId).orElse(null);
         if (product == null) {
             return List.of();
         }
+        if (StringUtils.hasText(product.getCategory())) {
+            productCache.dependOn(Set.of(ProductCacheTags.category(tenantId, product.getCategory())));
+        }
         
         // Find products in same category and subcategory, excluding the current product
         Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "updatedAt"));
@@ -104,8 +181,7 @@ public class ProductSearchService {
             .collect(Collectors.toList());
     }
 
-    @Cacheable(value = "product-search", key = "#tenantId + ':popular:' + #category + ':' + #limit")
-    public List<ProductSummaryResponse> findPopularProducts(String tenantId, String category, int limit) {
+    private List<ProductSummaryResponse> loadPopularProducts(String tenantId, String category, int limit) {
         Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "updatedAt"));
         Page<Product> products;
         
@@ -120,8 +196,7 @@ public class ProductSearchService {
             .collect(Collectors.toList());
     }
 
-    @Cacheable(value = "product-search", key = "#tenantId + ':recent:' + #limit")
-    public List<ProductSummaryResponse> findRecentProducts(String tenantId, int limit) {
+    private List<ProductSummaryResponse> loadRecentProducts(String tenantId, int limit) {
         Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<Product> products = productRepository.findByTenantIdAndStatus(
             tenantId, Product.ProductStatus.ACTIVE, pageable);
@@ -135,8 +210,13 @@ public class ProductSearchService {
         if (!StringUtils.hasText(query) || query.length() < 2) {
             return List.of();
         }
-        
-        // Simple implementation - in production, you might use Elasticsearch or similar
+
+        List<String> suggestions = searchSuggestions.suggest(tenantId, query, limit);
+        if (suggestions != null) {
+            return suggestions;
+        }
+
+        // Until the tenant's suggestions are built
         Pageable pageable = PageRequest.of(0, limit);
         Page<Product> products = productRepository.findByTenantIdAndTextSearch(tenantId, query, pageable);
         
@@ -148,6 +228,15 @@ public class ProductSearchService {
     }
 
     // Private helper methods
+    private void recordSearch(String tenantId, SearchFilters filters, int page,
+                              PagedResponse<ProductSummaryResponse> result) {
+        // Once per search rather than per page; search suggestions rank queries by these counts
+        if (page == 0 && StringUtils.hasText(filters.getSearchText())) {
+            businessMetrics.recordProductSearch(tenantId, filters.getSearchText(),
+                (int) Math.min(Integer.MAX_VALUE, result.getTotalElements()));
+        }
+    }
+
     private Sort createSort(String sortBy, String sortDirection) {
         if (!StringUtils.hasText(sortBy)) {
             sortBy = "updatedAt";
@@ -1,14 +1,13 @@
 package com.ecommerce.productservice.service;
 
+import com.ecommerce.productservice.cache.ProductCacheTags;
+import com.ecommerce.productservice.cache.TaggedProductCache;
 import com.ecommerce.productservice.dto.*;
 import com.ecommerce.productservice.entity.Product;
 import com.ecommerce.productservice.repository.ProductRepository;
 import com.ecommerce.shared.tracing.annotation.Traced;
 import com.ecommerce.shared.utils.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -20,6 +19,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,33 +27,36 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
-    private final CacheManager cacheManager;
+    private final TaggedProductCache productCache;
     private final ProductEventPublisher eventPublisher;
 
     @Autowired
-    public ProductService(ProductRepository productRepository, CacheManager cacheManager, 
+    public ProductService(ProductRepository productRepository, TaggedProductCache productCache,
                          ProductEventPublisher eventPublisher) {
         this.productRepository = productRepository;
-        this.cacheManager = cacheManager;
+        this.productCache = productCache;
         this.eventPublisher = eventPublisher;
     }
 
-    @Cacheable(value = "products", key = "#tenantId + ':' + #productId")
     @Traced(value = "get-product", operation = "database-read", includeParameters = true)
     public ProductResponse getProduct(String tenantId, String productId) {
-        Product product = productRepository.findByTenantIdAndId(tenantId, productId)
-            .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
-        
-        return new ProductResponse(product);
+        return productCache.get("products", tenantId + ":" + productId, () -> {
+            Product product = productRepository.findByTenantIdAndId(tenantId, productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
+
+            return new ProductResponse(product);
+        }, product -> Set.of(ProductCacheTags.product(tenantId, productId)));
     }
 
     /**
      * Get product by ID for internal gRPC calls (returns Optional)
      */
-    @Cacheable(value = "products", key = "T(com.ecommerce.shared.utils.TenantContext).getTenantId() + ':' + #productId")
     public Optional<Product> getProductById(String productId) {
         String tenantId = com.ecommerce.shared.utils.TenantContext.getTenantId();
-        return productRepository.findByTenantIdAndId(tenantId, productId);
+        // Keyed apart from getProduct, which caches a ProductResponse for the same product
+        return Optional.ofNullable(productCache.get("products", tenantId + ":" + productId + ":entity",
+            () -> productRepository.findByTenantIdAndId(tenantId, productId).orElse(null),
+            product -> Set.of(ProductCacheTags.product(tenantId, productId))));
     }
 
     /**
@@ -64,9 +67,9 @@ public class ProductService {
         return productRepository.findByTenantIdAndIdIn(tenantId, productIds);
     }
 
-    @Cacheable(value = "product-search", key = "#tenantId + ':' + #sku")
     public ProductResponse getProductBySkuCached(String tenantId, String sku) {
-        return getProductBySku(tenantId, sku);
+        return productCache.get("product-search", tenantId + ":" + sku, () -> getProductBySku(tenantId, sku),
+            product -> Set.of(ProductCacheTags.product(tenantId, product.getId())));
     }
 
     public ProductResponse getProductBySku(String tenantId, String sku) {
@@ -139,17 +142,15 @@ public class ProductService {
         Product product = mapToProduct(tenantId, request);
         Product savedProduct = productRepository.save(product);
         
+        // Evict the listings the new product joins, before other instances hear of it
+        productCache.invalidate(ProductCacheTags.createdOrDeleted(savedProduct));
+
         // Publish ProductCreated event
         eventPublisher.publishProductCreatedEvent(savedProduct);
         
-        // Evict related caches when new product is created
-        evictRelatedCaches(tenantId);
-        
         return new ProductResponse(savedProduct);
     }
 
-    @CacheEvict(value = {"products", "product-search", "categories", "brands", "product-recommendations"}, 
-                key = "#tenantId + ':' + #productId", allEntries = true)
     public ProductResponse updateProduct(String tenantId, String productId, UpdateProductRequest request) {
         Product existingProduct = productRepository.findByTenantIdAndId(tenantId, productId)
             .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
@@ -168,22 +169,27 @@ public class ProductService {
         updateProductFields(existingProduct, request);
         Product savedProduct = productRepository.save(existingProduct);
         
+        // Evict the entries holding the product and the listings the change can alter, before other
+        // instances drop their local copies on the event and read the shared cache again
+        productCache.invalidate(ProductCacheTags.updated(previousValues, savedProduct));
+
         // Publish ProductUpdated event
         eventPublisher.publishProductUpdatedEvent(savedProduct, previousValues, updatedFields);
         
         return new ProductResponse(savedProduct);
     }
 
-    @CacheEvict(value = {"products", "product-search", "categories", "brands", "product-recommendations"}, 
-                key = "#tenantId + ':' + #productId", allEntries = true)
     public void deleteProduct(String tenantId, String productId) {
         Product existingProduct = productRepository.findByTenantIdAndId(tenantId, productId)
             .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
-        
-        // Publish ProductDeleted event before deletion
-        eventPublisher.publishProductDeletedEvent(existingProduct, "Manual deletion");
-        
+
         productRepository.deleteByTenantIdAndId(tenantId, productId);
+
+        // Evict the product and the listings it leaves, before other instances hear of it
+        productCache.invalidate(ProductCacheTags.createdOrDeleted(existingProduct));
+
+        // Publish ProductDeleted event
+        eventPublisher.publishProductDeletedEvent(existingProduct, "Manual deletion");
     }
 
     public PagedResponse<ProductSummaryResponse> searchProducts(String tenantId, String searchText, 
@@ -199,24 +205,26 @@ public class ProductService {
                                  productPage.getTotalElements(), productPage.getTotalPages());
     }
 
-    @Cacheable(value = "categories", key = "#tenantId")
     public List<String> getCategories(String tenantId) {
-        return productRepository.findDistinctCategoriesByTenantId(tenantId).stream()
-            .map(Product::getCategory)
-            .filter(category -> category != null && !category.trim().isEmpty())
-            .distinct()
-            .sorted()
-            .collect(Collectors.toList());
+        return productCache.get("categories", tenantId,
+            () -> productRepository.findDistinctCategoriesByTenantId(tenantId).stream()
+                .map(Product::getCategory)
+                .filter(category -> category != null && !category.trim().isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList()),
+            categories -> Set.of(ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.FACETS)));
     }
 
-    @Cacheable(value = "brands", key = "#tenantId")
     public List<String> getBrands(String tenantId) {
-        return productRepository.findDistinctBrandsByTenantId(tenantId).stream()
-            .map(Product::getBrand)
-            .filter(brand -> brand != null && !brand.trim().isEmpty())
-            .distinct()
-            .sorted()
-            .collect(Collectors.toList());
+        return productCache.get("brands", tenantId,
+            () -> productRepository.findDistinctBrandsByTenantId(tenantId).stream()
+                .map(Product::getBrand)
+                .filter(brand -> brand != null && !brand.trim().isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList()),
+            brands -> Set.of(ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.FACETS)));
     }
 
     public long getProductCount(String tenantId) {
@@ -302,17 +310,6 @@ public class ProductService {
         }
     }
 
-    private void evictRelatedCaches(String tenantId) {
-        // Evict tenant-specific caches
-        String[] cacheNames = {"categories", "brands", "product-search", "product-recommendations"};
-        for (String cacheName : cacheNames) {
-            var cache = cacheManager.getCache(cacheName);
-            if (cache != null) {
-                cache.evict(tenantId);
-            }
-        }
-    }
-
     private Map<String, Object> captureProductValues(Product product) {
         Map<String, Object> values = new HashMap<>();
         values.put("name", product.getName());
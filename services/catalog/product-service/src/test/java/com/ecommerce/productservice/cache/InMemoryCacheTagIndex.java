@@ -0,0 +1,61 @@
+package com.ecommerce.productservice.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache tag index held in memory, standing in for the Redis index in tests
+ */
+public class InMemoryCacheTagIndex implements CacheTagIndex {
+
+    private final Map<String, Map<String, Set<String>>> keysByTag = new ConcurrentHashMap<>();
+    private final Map<String, Long> versions = new HashMap<>();
+    private long epoch;
+
+    @Override
+    public void tag(String cacheName, String key, Collection<String> tags) {
+        for (String tag : tags) {
+            keysByTag.computeIfAbsent(tag, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(cacheName, name -> ConcurrentHashMap.newKeySet())
+                .add(key);
+        }
+    }
+
+    @Override
+    public synchronized long epoch() {
+        return epoch;
+    }
+
+    @Override
+    public synchronized boolean invalidatedSince(Collection<String> tags, long epoch) {
+        for (String tag : tags) {
+            if (versions.getOrDefault(tag, 0L) > epoch) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Map<String, Set<String>> removeTagged(Collection<String> tags) {
+        synchronized (this) {
+            epoch++;
+            for (String tag : tags) {
+                versions.put(tag, epoch);
+            }
+        }
+        Map<String, Set<String>> keysByCache = new HashMap<>();
+        for (String tag : tags) {
+            Map<String, Set<String>> tagged = keysByTag.remove(tag);
+            if (tagged != null) {
+                tagged.forEach((cacheName, keys) ->
+                    keysByCache.computeIfAbsent(cacheName, name -> new HashSet<>()).addAll(keys));
+            }
+        }
+        return keysByCache;
+    }
+}
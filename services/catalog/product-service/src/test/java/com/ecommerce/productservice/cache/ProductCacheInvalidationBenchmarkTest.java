@@ -0,0 +1,215 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.dto.CreateProductRequest;
+import com.ecommerce.productservice.dto.SearchFilters;
+import com.ecommerce.productservice.dto.UpdateProductRequest;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.search.CatalogSearchIndex;
+import com.ecommerce.productservice.search.SearchSuggestions;
+import com.ecommerce.productservice.service.ProductEventPublisher;
+import com.ecommerce.productservice.service.ProductSearchService;
+import com.ecommerce.productservice.service.ProductService;
+import com.ecommerce.shared.metrics.collectors.BusinessMetricsCollector;
+import com.ecommerce.shared.metrics.collectors.CacheMetricsCollector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cache hit ratio and repository reads per second while one tenant bulk-updates the price of all
+ * 10,000 of its products, with storefront reads for ten tenants running alongside. Compares
+ * evicting every entry of every product cache on each update, as updateProduct used to, with
+ * evicting only the tagged entries. The repository is an in-memory stand-in that takes about
+ * 200 us per read. Run with {@code -Dperformance.tests.enabled=true}; results are printed rather
+ * than asserted.
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class ProductCacheInvalidationBenchmarkTest {
+
+    private static final String BULK_TENANT = "tenant-0";
+    private static final int TENANTS = 10;
+    private static final int BULK_PRODUCTS = 10_000;
+    private static final int PRODUCTS_PER_TENANT = 1_000;
+    private static final int HOT_PRODUCTS = 200;
+    private static final int CATEGORIES = 20;
+    private static final int READERS = 8;
+    private static final long READ_LATENCY_NANOS = 200_000;
+    private static final long WARMUP_MILLIS = 2_000;
+
+    private static volatile Object sink;
+
+    @Test
+    void compareTaggedWithAllEntriesInvalidation() throws Exception {
+        System.out.printf("Bulk price update of %,d products with %d readers across %d tenants%n",
+            BULK_PRODUCTS, READERS, TENANTS);
+        run("all entries", (cacheManager, metrics) -> new TaggedProductCache(cacheManager,
+            new InMemoryCacheTagIndex(), new ProductLocalCache(Set.of(), 0, 0, metrics), metrics) {
+            @Override
+            public int invalidate(Collection<String> tags) {
+                cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+                return 0;
+            }
+        });
+        run("tagged", (cacheManager, metrics) -> new TaggedProductCache(cacheManager,
+            new InMemoryCacheTagIndex(), new ProductLocalCache(Set.of(), 0, 0, metrics), metrics));
+    }
+
+    private void run(String label, BiFunction<CacheManager, CacheMetricsCollector, TaggedProductCache> cacheFactory)
+            throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaggedProductCache productCache = cacheFactory.apply(new ConcurrentMapCacheManager(),
+            new CacheMetricsCollector(meterRegistry));
+
+        AtomicLong repositoryReads = new AtomicLong();
+        ProductRepository repository = repository(catalog(), repositoryReads);
+        ProductService productService = new ProductService(repository, productCache, mock(ProductEventPublisher.class));
+        ProductSearchService searchService = new ProductSearchService(repository, productCache,
+            mock(CatalogSearchIndex.class), mock(SearchSuggestions.class), mock(BusinessMetricsCollector.class));
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        ExecutorService readers = Executors.newFixedThreadPool(READERS);
+        for (int i = 0; i < READERS; i++) {
+            readers.submit(() -> {
+                while (running.get()) {
+                    read(productService, searchService);
+                    reads.incrementAndGet();
+                }
+            });
+        }
+        Thread.sleep(WARMUP_MILLIS);
+
+        double hitsBefore = count(meterRegistry, "hit");
+        double missesBefore = count(meterRegistry, "miss");
+        long repositoryReadsBefore = repositoryReads.get();
+        long readsBefore = reads.get();
+        long start = System.nanoTime();
+        UpdateProductRequest priceEdit = new UpdateProductRequest();
+        for (int i = 0; i < BULK_PRODUCTS; i++) {
+            priceEdit.setPrice(new CreateProductRequest.PriceDto(BigDecimal.valueOf(1000 + i, 2), "USD"));
+            productService.updateProduct(BULK_TENANT, "p" + i, priceEdit);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        readers.shutdown();
+        readers.awaitTermination(10, TimeUnit.SECONDS);
+
+        double hits = count(meterRegistry, "hit") - hitsBefore;
+        double misses = count(meterRegistry, "miss") - missesBefore;
+        System.out.printf("  %-12s %6.2f s   storefront reads %,9.0f/s   hit ratio %5.1f%%   repository reads %,8.0f/s%n",
+            label, seconds, (reads.get() - readsBefore) / seconds, hits * 100 / Math.max(1, hits + misses),
+            (repositoryReads.get() - repositoryReadsBefore) / seconds);
+    }
+
+    private static void read(ProductService productService, ProductSearchService searchService) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String tenantId = "tenant-" + random.nextInt(TENANTS);
+        int roll = random.nextInt(100);
+        if (roll < 60) {
+            sink = productService.getProduct(tenantId, "p" + random.nextInt(HOT_PRODUCTS));
+        } else if (roll < 85) {
+            SearchFilters filters = new SearchFilters();
+            filters.setCategory("category-" + random.nextInt(CATEGORIES));
+            sink = searchService.searchProducts(tenantId, filters, random.nextInt(3), 20);
+        } else if (roll < 95) {
+            sink = productService.getCategories(tenantId);
+        } else {
+            sink = searchService.findRecentProducts(tenantId, 20);
+        }
+    }
+
+    private static double count(SimpleMeterRegistry meterRegistry, String result) {
+        return meterRegistry.find("cache.operations").tag("result", result).counters().stream()
+            .mapToDouble(Counter::count)
+            .sum();
+    }
+
+    private static Map<String, Map<String, Product>> catalog() {
+        Map<String, Map<String, Product>> catalog = new ConcurrentHashMap<>();
+        for (int t = 0; t < TENANTS; t++) {
+            String tenantId = "tenant-" + t;
+            int size = tenantId.equals(BULK_TENANT) ? BULK_PRODUCTS : PRODUCTS_PER_TENANT;
+            Map<String, Product> products = new ConcurrentHashMap<>();
+            for (int i = 0; i < size; i++) {
+                Product product = new Product(tenantId, "Product " + i, "Description " + i,
+                    "category-" + i % CATEGORIES, "brand-" + i % 50, "SKU-" + i,
+                    new Product.Price(BigDecimal.valueOf(999 + i, 2), "USD"));
+                product.setId("p" + i);
+                products.put(product.getId(), product);
+            }
+            catalog.put(tenantId, products);
+        }
+        return catalog;
+    }
+
+    private static ProductRepository repository(Map<String, Map<String, Product>> catalog, AtomicLong reads) {
+        ProductRepository repository = mock(ProductRepository.class, withSettings().stubOnly());
+        when(repository.findByTenantIdAndId(anyString(), anyString())).thenAnswer(invocation -> {
+            simulateRead(reads);
+            return Optional.ofNullable(catalog.get(invocation.<String>getArgument(0)).get(invocation.<String>getArgument(1)));
+        });
+        when(repository.findByTenantIdAndCategory(anyString(), anyString(), any(Pageable.class))).thenAnswer(invocation -> {
+            simulateRead(reads);
+            String category = invocation.getArgument(1);
+            return page(catalog.get(invocation.<String>getArgument(0)).values().stream()
+                .filter(product -> category.equals(product.getCategory()))
+                .sorted(Comparator.comparing(Product::getId))
+                .toList(), invocation.getArgument(2));
+        });
+        when(repository.findByTenantIdAndStatus(anyString(), any(), any(Pageable.class))).thenAnswer(invocation -> {
+            simulateRead(reads);
+            return page(catalog.get(invocation.<String>getArgument(0)).values().stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .toList(), invocation.getArgument(2));
+        });
+        when(repository.findDistinctCategoriesByTenantId(anyString())).thenAnswer(invocation -> {
+            simulateRead(reads);
+            List<Product> categories = new ArrayList<>();
+            for (int i = 0; i < CATEGORIES; i++) {
+                categories.add(catalog.get(invocation.<String>getArgument(0)).get("p" + i));
+            }
+            return categories;
+        });
+        when(repository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        return repository;
+    }
+
+    private static Page<Product> page(List<Product> products, Pageable pageable) {
+        int from = Math.min((int) pageable.getOffset(), products.size());
+        int to = Math.min(from + pageable.getPageSize(), products.size());
+        return new PageImpl<>(products.subList(from, to), pageable, products.size());
+    }
+
+    private static void simulateRead(AtomicLong reads) {
+        reads.incrementAndGet();
+        LockSupport.parkNanos(READ_LATENCY_NANOS);
+    }
+}
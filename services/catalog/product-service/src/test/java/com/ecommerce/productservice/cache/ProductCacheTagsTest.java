@@ -0,0 +1,134 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.cache.ProductCacheTags.Listing;
+import com.ecommerce.productservice.dto.SearchFilters;
+import com.ecommerce.productservice.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTagsTest {
+
+    private static final String TENANT = "tenant123";
+
+    @Test
+    void updated_PriceChange_ShouldTouchProductFacetsAndPriceListingsOnly() {
+        // Given
+        Product product = product("Electronics", "Apple", "999.00");
+        Map<String, Object> previousValues = previousValues(product);
+        product.setPrice(new Product.Price(new BigDecimal("899.00"), "USD"));
+
+        // When
+        Set<String> tags = ProductCacheTags.updated(previousValues, product);
+
+        // Then
+        assertEquals(Set.of(
+            ProductCacheTags.product(TENANT, "p1"),
+            ProductCacheTags.category(TENANT, "Electronics"),
+            ProductCacheTags.brand(TENANT, "Apple"),
+            ProductCacheTags.listing(TENANT, Listing.PRICE)
+        ), tags);
+    }
+
+    @Test
+    void updated_SamePriceAtOtherScale_ShouldNotTouchPriceListings() {
+        // Given
+        Product product = product("Electronics", "Apple", "999.00");
+        Map<String, Object> previousValues = previousValues(product);
+        product.setPrice(new Product.Price(new BigDecimal("999"), "USD"));
+
+        // When
+        Set<String> tags = ProductCacheTags.updated(previousValues, product);
+
+        // Then
+        assertFalse(tags.contains(ProductCacheTags.listing(TENANT, Listing.PRICE)));
+    }
+
+    @Test
+    void updated_CategoryChange_ShouldTouchOldAndNewCategoryFacetListsAndTextListings() {
+        // Given
+        Product product = product("Electronics", "Apple", "999.00");
+        Map<String, Object> previousValues = previousValues(product);
+        product.setCategory("Phones");
+
+        // When
+        Set<String> tags = ProductCacheTags.updated(previousValues, product);
+
+        // Then
+        assertTrue(tags.contains(ProductCacheTags.category(TENANT, "Electronics")));
+        assertTrue(tags.contains(ProductCacheTags.category(TENANT, "Phones")));
+        assertTrue(tags.contains(ProductCacheTags.listing(TENANT, Listing.FACETS)));
+        assertTrue(tags.contains(ProductCacheTags.listing(TENANT, Listing.TEXT)));
+        assertFalse(tags.contains(ProductCacheTags.listing(TENANT, Listing.CATALOG)));
+    }
+
+    @Test
+    void updated_StatusChange_ShouldTouchCatalogListings() {
+        // Given
+        Product product = product("Electronics", "Apple", "999.00");
+        Map<String, Object> previousValues = previousValues(product);
+        product.setStatus(Product.ProductStatus.INACTIVE);
+
+        // When
+        Set<String> tags = ProductCacheTags.updated(previousValues, product);
+
+        // Then
+        assertTrue(tags.contains(ProductCacheTags.listing(TENANT, Listing.CATALOG)));
+        assertFalse(tags.contains(ProductCacheTags.listing(TENANT, Listing.FACETS)));
+    }
+
+    @Test
+    void createdOrDeleted_ShouldTouchEveryTenantListingButNoOtherTenant() {
+        // When
+        Set<String> tags = ProductCacheTags.createdOrDeleted(product("Electronics", "Apple", "999.00"));
+
+        // Then
+        for (Listing listing : Listing.values()) {
+            assertTrue(tags.contains(ProductCacheTags.listing(TENANT, listing)));
+        }
+        assertTrue(tags.stream().allMatch(tag -> tag.startsWith(TENANT + ":")));
+    }
+
+    @Test
+    void search_ShouldTagContentsAndTheSliceTheFiltersSelect() {
+        // Given
+        SearchFilters byBrand = new SearchFilters();
+        byBrand.setBrand("Apple");
+        SearchFilters byText = new SearchFilters();
+        byText.setSearchText("iphone");
+        byText.setCategory("Electronics");
+
+        // When
+        Set<String> brandTags = ProductCacheTags.search(TENANT, byBrand, List.of());
+        Set<String> textTags = ProductCacheTags.search(TENANT, byText, List.of());
+
+        // Then
+        assertEquals(Set.of(ProductCacheTags.brand(TENANT, "Apple")), brandTags);
+        assertEquals(Set.of(ProductCacheTags.listing(TENANT, Listing.TEXT)), textTags);
+    }
+
+    private static Product product(String category, String brand, String price) {
+        Product product = new Product(TENANT, "iPhone 14", "Latest iPhone", category, brand, "IPHONE-14",
+            new Product.Price(new BigDecimal(price), "USD"));
+        product.setId("p1");
+        return product;
+    }
+
+    private static Map<String, Object> previousValues(Product product) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("name", product.getName());
+        values.put("description", product.getDescription());
+        values.put("category", product.getCategory());
+        values.put("subcategory", product.getSubcategory());
+        values.put("brand", product.getBrand());
+        values.put("price", product.getPrice().getAmount());
+        values.put("status", product.getStatus().name());
+        return values;
+    }
+}
@@ -0,0 +1,223 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.cache.TaggedProductCache.TaggedValue;
+import com.ecommerce.productservice.dto.CreateProductRequest;
+import com.ecommerce.productservice.dto.UpdateProductRequest;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.grpc.ProductGrpcService;
+import com.ecommerce.productservice.proto.ProductServiceProtos.GetProductRequest;
+import com.ecommerce.productservice.proto.ProductServiceProtos.GetProductResponse;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.service.ProductEventPublisher;
+import com.ecommerce.productservice.service.ProductService;
+import com.ecommerce.shared.metrics.collectors.CacheMetricsCollector;
+import com.ecommerce.shared.proto.CommonProtos;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Latency of GetProduct gRPC calls with only the shared Redis tier, and with the local tier in
+ * front of it, while a writer updates a product every 20 ms. Redis is an in-memory stand-in that
+ * stores entries as JSON and takes about 250 us per round trip; the repository takes about 1 ms
+ * per read. Enabled by {@code -Dperformance.tests.enabled=true}; prints p50, p99 and p99.9 for
+ * each setup.
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class ProductGetLatencyBenchmarkTest {
+
+    private static final String TENANT = "tenant-0";
+    private static final int PRODUCTS = 5_000;
+    private static final int HOT_PRODUCTS = 500;
+    private static final int READERS = 8;
+    private static final int CALLS_PER_READER = 50_000;
+    private static final long REDIS_LATENCY_NANOS = 250_000;
+    private static final long REPOSITORY_LATENCY_NANOS = 1_000_000;
+    private static final long UPDATE_INTERVAL_MILLIS = 20;
+
+    private static volatile Object sink;
+
+    @Test
+    void compareSharedOnlyWithLocalTier() throws Exception {
+        System.out.printf("GetProduct, %d readers x %,d calls over %d hot products%n",
+            READERS, CALLS_PER_READER, HOT_PRODUCTS);
+        run("redis only", Set.of());
+        run("local+redis", Set.of("products"));
+    }
+
+    private void run(String label, Set<String> localCaches) throws Exception {
+        CacheMetricsCollector cacheMetrics = new CacheMetricsCollector(new SimpleMeterRegistry());
+        TaggedProductCache productCache = new TaggedProductCache(new JsonCacheManager(), new InMemoryCacheTagIndex(),
+            new ProductLocalCache(localCaches, 10_000, 10_000, cacheMetrics), cacheMetrics);
+        ProductService productService = new ProductService(repository(catalog()), productCache,
+            mock(ProductEventPublisher.class));
+        ProductGrpcService grpcService = new ProductGrpcService();
+        ReflectionTestUtils.setField(grpcService, "productService", productService);
+
+        // Warm both tiers with the hot products
+        for (int i = 0; i < HOT_PRODUCTS; i++) {
+            grpcService.getProduct(request("p" + i), new DiscardingObserver());
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            UpdateProductRequest priceEdit = new UpdateProductRequest();
+            while (running.get()) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                BigDecimal price = BigDecimal.valueOf(random.nextInt(1_000, 100_000), 2);
+                priceEdit.setPrice(new CreateProductRequest.PriceDto(price, "USD"));
+                productService.updateProduct(TENANT, "p" + random.nextInt(HOT_PRODUCTS), priceEdit);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(UPDATE_INTERVAL_MILLIS));
+            }
+        });
+        writer.start();
+
+        ExecutorService readers = Executors.newFixedThreadPool(READERS);
+        Future<?>[] results = new Future<?>[READERS];
+        long[][] latencies = new long[READERS][CALLS_PER_READER];
+        long start = System.nanoTime();
+        for (int r = 0; r < READERS; r++) {
+            long[] readerLatencies = latencies[r];
+            results[r] = readers.submit(() -> {
+                DiscardingObserver observer = new DiscardingObserver();
+                for (int i = 0; i < CALLS_PER_READER; i++) {
+                    GetProductRequest request = request("p" + ThreadLocalRandom.current().nextInt(HOT_PRODUCTS));
+                    long callStart = System.nanoTime();
+                    grpcService.getProduct(request, observer);
+                    readerLatencies[i] = System.nanoTime() - callStart;
+                }
+            });
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        writer.join();
+        readers.shutdown();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("  %-12s %,9.0f calls/s   p50 %7.1f us   p99 %7.1f us   p99.9 %7.1f us%n",
+            label, all.length / seconds, percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * sorted.length))] / 1_000.0;
+    }
+
+    private static GetProductRequest request(String productId) {
+        return GetProductRequest.newBuilder()
+            .setContext(CommonProtos.TenantContext.newBuilder().setTenantId(TENANT).setUserId("user-1").build())
+            .setProductId(productId)
+            .build();
+    }
+
+    private static Map<String, Product> catalog() {
+        Map<String, Product> catalog = new ConcurrentHashMap<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product(TENANT, "Product " + i, "Description " + i, "category-" + i % 20,
+                "brand-" + i % 50, "SKU-" + i, new Product.Price(BigDecimal.valueOf(999 + i, 2), "USD"));
+            product.setId("p" + i);
+            product.setAttributes(Map.of("color", "black", "weight", "1.2kg"));
+            catalog.put(product.getId(), product);
+        }
+        return catalog;
+    }
+
+    private static ProductRepository repository(Map<String, Product> catalog) {
+        ProductRepository repository = mock(ProductRepository.class, withSettings().stubOnly());
+        when(repository.findByTenantIdAndId(anyString(), anyString())).thenAnswer(invocation -> {
+            LockSupport.parkNanos(REPOSITORY_LATENCY_NANOS);
+            return Optional.ofNullable(catalog.get(invocation.<String>getArgument(1)));
+        });
+        when(repository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        return repository;
+    }
+
+    /**
+     * Caches that hold entries as JSON and pay a Redis round trip on every read, like the
+     * RedisCacheManager in CacheConfig
+     */
+    private static final class JsonCacheManager extends ConcurrentMapCacheManager {
+
+        private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        @Override
+        protected ConcurrentMapCache createConcurrentMapCache(String name) {
+            return new ConcurrentMapCache(name) {
+                @Override
+                protected Object toStoreValue(Object userValue) {
+                    TaggedValue tagged = (TaggedValue) userValue;
+                    try {
+                        return new JsonEntry(objectMapper.writeValueAsBytes(tagged.getValue()),
+                            tagged.getValue().getClass(), tagged.getTags());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                protected Object lookup(Object key) {
+                    LockSupport.parkNanos(REDIS_LATENCY_NANOS);
+                    return super.lookup(key);
+                }
+
+                @Override
+                protected Object fromStoreValue(Object storeValue) {
+                    JsonEntry entry = (JsonEntry) storeValue;
+                    try {
+                        return new TaggedValue(objectMapper.readValue(entry.json, entry.type), entry.tags);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+        }
+    }
+
+    private record JsonEntry(byte[] json, Class<?> type, Set<String> tags) {
+    }
+
+    private static final class DiscardingObserver implements StreamObserver<GetProductResponse> {
+
+        @Override
+        public void onNext(GetProductResponse response) {
+            sink = response;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            sink = t;
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.cache.TaggedProductCache.TaggedValue;
+import com.ecommerce.shared.metrics.collectors.CacheMetricsCollector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductLocalCacheTest {
+
+    private static final String TENANT_ID = "tenant123";
+    private static final long TTL_MS = 10_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private ProductLocalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductLocalCache(Set.of("products"), TTL_MS, 3,
+            new CacheMetricsCollector(new SimpleMeterRegistry()), clock::get);
+    }
+
+    @Test
+    void holds_ShouldOnlyHoldConfiguredCaches() {
+        // When & Then
+        assertTrue(cache.holds("products"));
+        assertFalse(cache.holds("product-search"));
+    }
+
+    @Test
+    void get_ShouldReturnFreshEntriesOnly() {
+        // Given
+        cache.put("products", "tenant123:p1", value("p1"), cache.generation());
+
+        // When & Then
+        assertNotNull(cache.get("products", "tenant123:p1"));
+        clock.addAndGet(TTL_MS * 1_000_000L);
+        assertNull(cache.get("products", "tenant123:p1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_AfterInvalidationDuringLoad_ShouldNotHoldStaleEntry() {
+        // Given - a read starts, then some product changes before it completes
+        long generation = cache.generation();
+        cache.invalidate(Set.of(ProductCacheTags.product(TENANT_ID, "p2")));
+
+        // When
+        cache.put("products", "tenant123:p1", value("p1"), generation);
+
+        // Then
+        assertNull(cache.get("products", "tenant123:p1"));
+    }
+
+    @Test
+    void invalidate_ShouldDropOnlyEntriesCarryingTheTags() {
+        // Given
+        cache.put("products", "tenant123:p1", value("p1"), cache.generation());
+        cache.put("products", "tenant123:p2", value("p2"), cache.generation());
+
+        // When
+        int dropped = cache.invalidate(Set.of(ProductCacheTags.product(TENANT_ID, "p1")));
+
+        // Then
+        assertEquals(1, dropped);
+        assertNull(cache.get("products", "tenant123:p1"));
+        assertNotNull(cache.get("products", "tenant123:p2"));
+    }
+
+    @Test
+    void put_OverCapacity_ShouldDropExpiredEntriesFirst() {
+        // Given
+        cache.put("products", "tenant123:old", value("old"), cache.generation());
+        clock.addAndGet(TTL_MS * 1_000_000L);
+        cache.put("products", "tenant123:p1", value("p1"), cache.generation());
+        cache.put("products", "tenant123:p2", value("p2"), cache.generation());
+        cache.put("products", "tenant123:p3", value("p3"), cache.generation());
+
+        // When & Then
+        assertEquals(3, cache.size());
+        assertNotNull(cache.get("products", "tenant123:p1"));
+        assertNotNull(cache.get("products", "tenant123:p3"));
+        assertEquals(0, cache.invalidate(Set.of(ProductCacheTags.product(TENANT_ID, "old"))));
+    }
+
+    @Test
+    void put_OverCapacity_ShouldDropEvictedEntriesFromTheTagIndex() {
+        // Given
+        for (String productId : new String[] {"p1", "p2", "p3"}) {
+            cache.put("products", "tenant123:" + productId, value(productId), cache.generation());
+        }
+        cache.get("products", "tenant123:p1");
+
+        // When
+        cache.put("products", "tenant123:p4", value("p4"), cache.generation());
+
+        // Then - p1 was read, so p2 goes, and its tag with it
+        assertEquals(3, cache.size());
+        assertNotNull(cache.get("products", "tenant123:p1"));
+        assertNull(cache.get("products", "tenant123:p2"));
+        assertEquals(3, cache.indexedTags());
+    }
+
+    @Test
+    void get_Expired_ShouldDropTheEntryFromTheTagIndex() {
+        // Given
+        cache.put("products", "tenant123:p1", value("p1"), cache.generation());
+        clock.addAndGet(TTL_MS * 1_000_000L);
+
+        // When
+        TaggedValue expired = cache.get("products", "tenant123:p1");
+
+        // Then
+        assertNull(expired);
+        assertEquals(0, cache.indexedTags());
+    }
+
+    @Test
+    void invalidateAll_ShouldDropEverything() {
+        // Given
+        cache.put("products", "tenant123:p1", value("p1"), cache.generation());
+
+        // When
+        cache.invalidateAll();
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    private static TaggedValue value(String productId) {
+        return new TaggedValue(productId, Set.of(ProductCacheTags.product(TENANT_ID, productId)));
+    }
+}
@@ -0,0 +1,288 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.shared.metrics.collectors.CacheMetricsCollector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaggedProductCacheTest {
+
+    private static final String TENANT = "tenant123";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCacheManager cacheManager;
+    private InMemoryCacheTagIndex tagIndex;
+    private CacheMetricsCollector cacheMetrics;
+    private TaggedProductCache productCache;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new ConcurrentMapCacheManager();
+        tagIndex = new InMemoryCacheTagIndex();
+        cacheMetrics = new CacheMetricsCollector(meterRegistry);
+        productCache = newInstance();
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void get_SecondCall_ShouldServeFromCache() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        String first = productCache.get("products", "tenant123:p1", () -> "v" + loads.incrementAndGet(), v -> tags("p1"));
+        String second = productCache.get("products", "tenant123:p1", () -> "v" + loads.incrementAndGet(), v -> tags("p1"));
+
+        // Then
+        assertEquals("v1", first);
+        assertEquals("v1", second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.operations").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.operations").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void get_LocalHit_ShouldNotReadTheSharedCache() {
+        // Given
+        productCache.get("products", "tenant123:p1", () -> "v1", v -> tags("p1"));
+        cacheManager.getCache("products").clear();
+
+        // When
+        String value = productCache.get("products", "tenant123:p1", () -> "reloaded", v -> tags("p1"));
+
+        // Then
+        assertEquals("v1", value);
+        assertEquals(1.0, meterRegistry.get("cache.tier.operations")
+            .tags("tier", "l1", "result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.tier.operations")
+            .tags("tier", "l2", "result", "miss").counter().count());
+    }
+
+    @Test
+    void get_SharedHit_ShouldBeHeldLocally() {
+        // Given - another instance loaded the entry into the shared cache
+        new TaggedProductCache(cacheManager, new InMemoryCacheTagIndex(),
+            new ProductLocalCache(Set.of(), 0, 0, new CacheMetricsCollector(new SimpleMeterRegistry())),
+            new CacheMetricsCollector(new SimpleMeterRegistry()))
+            .get("products", "tenant123:p1", () -> "shared", v -> tags("p1"));
+        productCache.get("products", "tenant123:p1", () -> "reloaded", v -> tags("p1"));
+        cacheManager.getCache("products").clear();
+
+        // When
+        String value = productCache.get("products", "tenant123:p1", () -> "reloaded", v -> tags("p1"));
+
+        // Then
+        assertEquals("shared", value);
+    }
+
+    @Test
+    void invalidate_ShouldDropLocalEntriesToo() {
+        // Given
+        productCache.get("products", "tenant123:p1", () -> "v1", v -> tags("p1"));
+
+        // When
+        productCache.invalidate(tags("p1"));
+
+        // Then
+        assertEquals("v2", productCache.get("products", "tenant123:p1", () -> "v2", v -> tags("p1")));
+    }
+
+    @Test
+    void get_ConcurrentMissesOnSameKey_ShouldShareOneLoad() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> productCache.get("products", "tenant123:p1", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "loaded";
+        }, v -> tags("p1")));
+        assertTrue(loading.await(1, TimeUnit.SECONDS));
+
+        // When
+        Future<String> follower = executor.submit(() -> productCache.get("products", "tenant123:p1", () -> {
+            loads.incrementAndGet();
+            return "second load";
+        }, v -> tags("p1")));
+        while (meterRegistry.find("cache.loads.coalesced").counter() == null) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Then
+        assertEquals("loaded", leader.get(1, TimeUnit.SECONDS));
+        assertEquals("loaded", follower.get(1, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_WhenSharedLoadFails_ShouldFailEveryWaiterAndCacheNothing() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> productCache.<String>get("products", "tenant123:p1", () -> {
+            loading.countDown();
+            await(release);
+            throw new IllegalStateException("mongo down");
+        }, v -> tags("p1")));
+        assertTrue(loading.await(1, TimeUnit.SECONDS));
+        Future<String> follower = executor.submit(() -> productCache.get("products", "tenant123:p1", () -> "unused",
+            v -> tags("p1")));
+        while (meterRegistry.find("cache.loads.coalesced").counter() == null) {
+            Thread.sleep(5);
+        }
+
+        // When
+        release.countDown();
+
+        // Then
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(1, TimeUnit.SECONDS));
+        Exception followerFailure = assertThrows(Exception.class, () -> follower.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+        assertInstanceOf(IllegalStateException.class, followerFailure.getCause());
+        assertEquals("reloaded", productCache.get("products", "tenant123:p1", () -> "reloaded", v -> tags("p1")));
+    }
+
+    @Test
+    void invalidate_ShouldEvictOnlyEntriesCarryingTheTags() {
+        // Given
+        productCache.get("products", "tenant123:p1", () -> "p1", v -> tags("p1"));
+        productCache.get("products", "tenant123:p2", () -> "p2", v -> tags("p2"));
+        productCache.get("product-search", "tenant123:page", () -> "p1,p2", v -> tags("p1", "p2"));
+        productCache.get("products", "other:p1", () -> "other", v -> Set.of(ProductCacheTags.product("other", "p1")));
+
+        // When
+        int evicted = productCache.invalidate(tags("p1"));
+
+        // Then
+        assertEquals(2, evicted);
+        assertEquals("reloaded", productCache.get("products", "tenant123:p1", () -> "reloaded", v -> tags("p1")));
+        assertEquals("reloaded", productCache.get("product-search", "tenant123:page", () -> "reloaded", v -> tags("p1")));
+        assertEquals("p2", productCache.get("products", "tenant123:p2", () -> "reloaded", v -> tags("p2")));
+        assertEquals("other", productCache.get("products", "other:p1", () -> "reloaded", v -> Set.of()));
+    }
+
+    @Test
+    void get_ShouldInheritTagsOfEntriesReadWhileLoading() {
+        // Given - a recommendation built from a search entry that depends on the category
+        productCache.get("product-recommendations", "tenant123:featured", () -> productCache.get(
+            "product-search", "tenant123:popular", () -> {
+                productCache.dependOn(Set.of(ProductCacheTags.category(TENANT, "Electronics")));
+                return List.of("p1");
+            }, v -> tags("p1")), v -> Set.of());
+
+        // When
+        productCache.invalidate(Set.of(ProductCacheTags.category(TENANT, "Electronics")));
+
+        // Then
+        assertEquals(List.of("p2"), productCache.get("product-recommendations", "tenant123:featured",
+            () -> List.of("p2"), v -> Set.of()));
+    }
+
+    @Test
+    void get_WhenInvalidatedWhileLoading_ShouldNotCacheTheValue() {
+        // When
+        String loaded = productCache.get("products", "tenant123:p1", () -> {
+            productCache.invalidate(tags("p1"));
+            return "stale";
+        }, v -> tags("p1"));
+
+        // Then
+        assertEquals("stale", loaded);
+        assertEquals("fresh", productCache.get("products", "tenant123:p1", () -> "fresh", v -> tags("p1")));
+    }
+
+    @Test
+    void get_WhenInvalidatedOnAnotherInstanceWhileLoading_ShouldNotKeepTheValue() {
+        // Given
+        TaggedProductCache otherInstance = newInstance();
+
+        // When - the other instance reads the index before the entry is tagged
+        String loaded = productCache.get("products", "tenant123:p1", () -> {
+            otherInstance.invalidate(tags("p1"));
+            return "stale";
+        }, v -> tags("p1"));
+
+        // Then
+        assertEquals("stale", loaded);
+        assertNull(cacheManager.getCache("products").get("tenant123:p1"));
+        assertEquals("fresh", productCache.get("products", "tenant123:p1", () -> "fresh", v -> tags("p1")));
+    }
+
+    @Test
+    void get_WhenOtherTagsInvalidatedWhileLoading_ShouldCacheTheValue() {
+        // Given
+        TaggedProductCache otherInstance = newInstance();
+
+        // When
+        productCache.get("products", "tenant123:p1", () -> {
+            otherInstance.invalidate(tags("p2"));
+            return "v1";
+        }, v -> tags("p1"));
+
+        // Then
+        assertEquals("v1", productCache.get("products", "tenant123:p1", () -> "reloaded", v -> tags("p1")));
+    }
+
+    @Test
+    void get_NullValue_ShouldNotBeCached() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            productCache.get("products", "tenant123:missing", () -> {
+                loads.incrementAndGet();
+                return null;
+            }, v -> tags("missing"));
+        }
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    private TaggedProductCache newInstance() {
+        ProductLocalCache localCache = new ProductLocalCache(Set.of("products", "product-recommendations"),
+            10_000, 100, cacheMetrics);
+        return new TaggedProductCache(cacheManager, tagIndex, localCache, cacheMetrics);
+    }
+
+    private static Set<String> tags(String... productIds) {
+        Set<String> tags = new HashSet<>();
+        for (String productId : productIds) {
+            tags.add(ProductCacheTags.product(TENANT, productId));
+        }
+        return tags;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
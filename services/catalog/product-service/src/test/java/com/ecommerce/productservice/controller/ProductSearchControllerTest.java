@@ -16,6 +16,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -75,6 +76,29 @@ class ProductSearchControllerTest {
         verify(productSearchService).searchProducts(eq(tenantId), any(SearchFilters.class), eq(0), eq(20));
     }
 
+    @Test
+    void facetedSearch_ShouldReturnResultsWithFacetCounts() throws Exception {
+        // Given
+        SearchFilters filters = new SearchFilters();
+        filters.setCategory("Electronics");
+        FacetedSearchResponse facetedResponse = new FacetedSearchResponse(productList, 0, 20, 2, 1,
+            Map.of("brand", Map.of("Apple", 1L, "Samsung", 1L)));
+
+        when(productSearchService.searchProductsWithFacets(eq(tenantId), any(SearchFilters.class), eq(0), eq(20)))
+            .thenReturn(facetedResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/products/faceted-search")
+                .header("X-Tenant-ID", tenantId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(filters)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].name").value("iPhone 14"))
+            .andExpect(jsonPath("$.facets.brand.Apple").value(1));
+
+        verify(productSearchService).searchProductsWithFacets(eq(tenantId), any(SearchFilters.class), eq(0), eq(20));
+    }
+
     @Test
     void filterProducts_ShouldReturnFilteredResults() throws Exception {
         // Given
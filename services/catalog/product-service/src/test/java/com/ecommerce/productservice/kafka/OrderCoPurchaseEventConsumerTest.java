@@ -0,0 +1,69 @@
+package com.ecommerce.productservice.kafka;
+
+import com.ecommerce.productservice.recommendation.CoPurchaseRecommendations;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCoPurchaseEventConsumerTest {
+
+    @Mock
+    private CoPurchaseRecommendations coPurchases;
+
+    private OrderCoPurchaseEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new OrderCoPurchaseEventConsumer(coPurchases, new ObjectMapper());
+    }
+
+    @Test
+    void handleOrderEvent_Created_ShouldRecordItsProducts() {
+        // When
+        consumer.handleOrderEvent("{\"eventType\":\"ORDER_CREATED\",\"tenantId\":\"tenant123\","
+            + "\"orderId\":\"order123\",\"userId\":\"user123\",\"totalAmount\":1028.00,\"status\":\"PENDING\","
+            + "\"items\":[{\"productId\":\"product1\",\"sku\":\"SKU-1\",\"quantity\":1,\"unitPrice\":999.00},"
+            + "{\"productId\":\"product2\",\"sku\":\"SKU-2\",\"quantity\":2,\"unitPrice\":14.50}]}");
+
+        // Then
+        verify(coPurchases).recordOrder("tenant123", "order123", List.of("product1", "product2"));
+    }
+
+    @Test
+    void handleOrderEvent_Confirmed_ShouldRecordItsProducts() {
+        // When
+        consumer.handleOrderEvent("{\"eventType\":\"ORDER_CONFIRMED\",\"tenantId\":\"tenant123\","
+            + "\"orderId\":\"order123\",\"paymentId\":\"payment123\","
+            + "\"items\":[{\"productId\":\"product1\"},{\"productId\":\"product2\"}]}");
+
+        // Then
+        verify(coPurchases).recordOrder("tenant123", "order123", List.of("product1", "product2"));
+    }
+
+    @Test
+    void handleOrderEvent_OtherEventType_ShouldBeIgnored() {
+        // When
+        consumer.handleOrderEvent("{\"eventType\":\"ORDER_CANCELLED\",\"tenantId\":\"tenant123\","
+            + "\"orderId\":\"order123\",\"items\":[{\"productId\":\"product1\"},{\"productId\":\"product2\"}]}");
+
+        // Then
+        verifyNoInteractions(coPurchases);
+    }
+
+    @Test
+    void handleOrderEvent_UnreadablePayload_ShouldBeIgnored() {
+        // When
+        consumer.handleOrderEvent("not-json");
+
+        // Then
+        verifyNoInteractions(coPurchases);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.productservice.kafka;
+
+import com.ecommerce.productservice.cache.ProductCacheTags;
+import com.ecommerce.productservice.cache.ProductLocalCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheEventConsumerTest {
+
+    @Mock
+    private ProductLocalCache localCache;
+
+    private ProductCacheEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new ProductCacheEventConsumer(localCache, new ObjectMapper());
+    }
+
+    @Test
+    void handleProductEvent_Updated_ShouldDropProductAndOldAndNewFacets() {
+        // When
+        consumer.handleProductEvent("{\"eventType\":\"ProductUpdated\",\"tenantId\":\"tenant123\","
+            + "\"productId\":\"product123\",\"category\":\"Phones\",\"brand\":\"Apple\","
+            + "\"previousValues\":{\"category\":\"Electronics\",\"brand\":\"Apple\",\"price\":19.99}}");
+
+        // Then
+        verify(localCache).invalidate(argThat(tags -> tags.contains(ProductCacheTags.product("tenant123", "product123"))
+            && tags.contains(ProductCacheTags.category("tenant123", "Phones"))
+            && tags.contains(ProductCacheTags.category("tenant123", "Electronics"))
+            && tags.contains(ProductCacheTags.brand("tenant123", "Apple"))
+            && tags.stream().allMatch(tag -> tag.startsWith("tenant123:"))));
+    }
+
+    @Test
+    void handleProductEvent_Created_ShouldDropTenantListings() {
+        // When
+        consumer.handleProductEvent(
+            "{\"eventType\":\"ProductCreated\",\"tenantId\":\"tenant123\",\"productId\":\"product123\"}");
+
+        // Then
+        verify(localCache).invalidate(argThat(tags ->
+            tags.contains(ProductCacheTags.listing("tenant123", ProductCacheTags.Listing.CATALOG))));
+    }
+
+    @Test
+    void handleProductEvent_WithoutProductId_ShouldBeIgnored() {
+        // When
+        consumer.handleProductEvent("{\"eventType\":\"ProductDeleted\",\"tenantId\":\"tenant123\"}");
+
+        // Then
+        verifyNoInteractions(localCache);
+    }
+
+    @Test
+    void handleProductEvent_UnreadablePayload_ShouldBeIgnored() {
+        // When
+        consumer.handleProductEvent("not-json");
+
+        // Then
+        verify(localCache, never()).invalidate(any());
+    }
+}
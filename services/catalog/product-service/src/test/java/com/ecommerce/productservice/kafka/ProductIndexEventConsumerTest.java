@@ -0,0 +1,78 @@
+package com.ecommerce.productservice.kafka;
+
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.search.CatalogSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductIndexEventConsumerTest {
+
+    @Mock
+    private CatalogSearchIndex searchIndex;
+
+    private ProductIndexEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new ProductIndexEventConsumer(searchIndex, new ObjectMapper());
+    }
+
+    @Test
+    void handleProductEvent_Updated_ShouldIndexProductFromEvent() {
+        // When
+        consumer.handleProductEvent("{\"eventType\":\"ProductUpdated\",\"tenantId\":\"tenant123\","
+            + "\"productId\":\"product123\",\"name\":\"iPhone 14\",\"category\":\"Electronics\","
+            + "\"brand\":\"Apple\",\"price\":999.00,\"currency\":\"USD\",\"status\":\"ACTIVE\","
+            + "\"occurredAt\":\"2024-01-15T10:30:00\"}");
+
+        // Then
+        verify(searchIndex).upsert(argThat((Product product) -> "product123".equals(product.getId())
+            && "tenant123".equals(product.getTenantId())
+            && "iPhone 14".equals(product.getName())
+            && "Electronics".equals(product.getCategory())
+            && new BigDecimal("999.00").compareTo(product.getPrice().getAmount()) == 0
+            && product.getStatus() == Product.ProductStatus.ACTIVE
+            && LocalDateTime.of(2024, 1, 15, 10, 30).equals(product.getUpdatedAt())));
+    }
+
+    @Test
+    void handleProductEvent_Deleted_ShouldRemoveProduct() {
+        // When
+        consumer.handleProductEvent(
+            "{\"eventType\":\"ProductDeleted\",\"tenantId\":\"tenant123\",\"productId\":\"product123\"}");
+
+        // Then
+        verify(searchIndex).remove("tenant123", "product123");
+        verifyNoMoreInteractions(searchIndex);
+    }
+
+    @Test
+    void handleProductEvent_OtherEventType_ShouldBeIgnored() {
+        // When
+        consumer.handleProductEvent(
+            "{\"eventType\":\"ProductViewed\",\"tenantId\":\"tenant123\",\"productId\":\"product123\"}");
+
+        // Then
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void handleProductEvent_UnreadablePayload_ShouldBeIgnored() {
+        // When
+        consumer.handleProductEvent("not-json");
+
+        // Then
+        verifyNoInteractions(searchIndex);
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.productservice.recommendation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Recommendation latency and heap per million co-purchase pairs of one tenant's co-purchase graph,
+ * fed 2,000,000 orders of 2 to 6 items over a catalog of 200,000 products where a few products
+ * sell far more than the rest. Also prints the order ingest rate. Skipped unless
+ * {@code -Dperformance.tests.enabled=true} is set; it reports figures and never fails on them.
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class CoPurchaseGraphBenchmarkTest {
+
+    private static final int PRODUCTS = 200_000;
+    private static final int ORDERS = 2_000_000;
+    private static final int NEIGHBORS = 32;
+    private static final long HALF_LIFE_MS = 30L * 24 * 3_600_000;
+    private static final int QUERIES = 200_000;
+    private static final int LIMIT = 10;
+
+    private static volatile Object sink;
+
+    @Test
+    void measureLatencyAndMemory() {
+        Random random = new Random(42);
+        String[] productIds = new String[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            productIds[i] = "65a1f0c2e4b0" + String.format("%012x", i);
+        }
+        List<List<String>> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(basket(random, productIds, 2 + random.nextInt(5)));
+        }
+
+        long before = usedHeap();
+        CoPurchaseGraph graph = new CoPurchaseGraph(NEIGHBORS, HALF_LIFE_MS, 0);
+        long start = System.nanoTime();
+        long now = 0;
+        for (List<String> order : orders) {
+            // An order every 1.3 seconds, two million spanning a month
+            now += 1_300;
+            graph.recordOrder(order, now);
+        }
+        long ingestNanos = System.nanoTime() - start;
+        long heap = usedHeap() - before;
+        // Keeps the orders reachable until the graph is measured, so their collection is not counted
+        sink = orders;
+        System.out.printf("Ingested %,d orders in %,d ms: %,d orders/s%n", ORDERS, ingestNanos / 1_000_000,
+            ORDERS * 1_000_000_000L / ingestNanos);
+        System.out.printf("%,d products, %,d pairs (both directions), %,d MB heap: %,.1f MB per million pairs%n",
+            graph.products(), graph.pairs(), heap >> 20, heap / (double) (1 << 20) / (graph.pairs() / 1e6));
+
+        List<List<String>> singles = new ArrayList<>();
+        List<List<String>> carts = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            singles.add(List.of(productIds[skewed(random)]));
+            carts.add(basket(random, productIds, 3));
+        }
+        measure(graph, "1 product", singles);
+        measure(graph, "cart of 3", carts);
+        sink = graph;
+    }
+
+    private static void measure(CoPurchaseGraph graph, String name, List<List<String>> queries) {
+        for (int i = 0; i < QUERIES; i++) {
+            sink = graph.top(queries.get(i % queries.size()), LIMIT);
+        }
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            sink = graph.top(queries.get(i % queries.size()), LIMIT);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-10s p50 %,6.1f us  p99 %,6.1f us  p99.9 %,6.1f us%n", name,
+            nanos[QUERIES / 2] / 1e3, nanos[QUERIES * 99 / 100] / 1e3, nanos[QUERIES * 999 / 1000] / 1e3);
+    }
+
+    private static List<String> basket(Random random, String[] productIds, int items) {
+        List<String> basket = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            basket.add(productIds[skewed(random)]);
+        }
+        return basket;
+    }
+
+    // Skewed, so a few products are bought often and most rarely
+    private static int skewed(Random random) {
+        double uniform = random.nextDouble();
+        return (int) (PRODUCTS * uniform * uniform * uniform);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
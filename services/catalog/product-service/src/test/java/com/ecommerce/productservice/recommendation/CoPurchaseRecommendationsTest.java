@@ -0,0 +1,253 @@
+package com.ecommerce.productservice.recommendation;
+
+import com.ecommerce.productservice.entity.ProductCoPurchases;
+import com.ecommerce.productservice.repository.ProductCoPurchasesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoPurchaseRecommendationsTest {
+
+    private static final String TENANT = "tenant123";
+    private static final int NEIGHBORS = 3;
+    private static final long HALF_LIFE_MS = 3_600_000;
+
+    @Mock
+    private ProductCoPurchasesRepository snapshotRepository;
+
+    @Captor
+    private ArgumentCaptor<Iterable<ProductCoPurchases>> saved;
+
+    private final List<Runnable> restores = new ArrayList<>();
+    private long now = 1_000_000;
+    private CoPurchaseRecommendations coPurchases;
+
+    @BeforeEach
+    void setUp() {
+        coPurchases = newCoPurchases();
+        lenient().when(snapshotRepository.streamByTenantId(TENANT)).thenAnswer(invocation -> Stream.empty());
+    }
+
+    @Test
+    void boughtTogether_BeforeRestore_ShouldReturnNullAndRestoreInBackground() {
+        // Given
+        coPurchases.recordOrder(TENANT, "order1", List.of("a", "b"));
+
+        // When
+        List<String> beforeRestore = coPurchases.boughtTogether(TENANT, List.of("a"), 10);
+        runRestores();
+
+        // Then
+        assertNull(beforeRestore);
+        assertEquals(List.of("b"), coPurchases.boughtTogether(TENANT, List.of("a"), 10));
+    }
+
+    @Test
+    void boughtTogether_ShouldRankByOrdersInCommon() {
+        // Given
+        restore();
+        coPurchases.recordOrder(TENANT, "order1", List.of("a", "b", "c"));
+        coPurchases.recordOrder(TENANT, "order2", List.of("a", "b"));
+        coPurchases.recordOrder(TENANT, "order3", List.of("d", "a", "a"));
+
+        // When & Then
+        assertEquals(List.of("b", "c", "d"), coPurchases.boughtTogether(TENANT, List.of("a"), 10));
+        assertEquals(List.of("b"), coPurchases.boughtTogether(TENANT, List.of("a"), 1));
+        assertEquals(List.of(), coPurchases.boughtTogether(TENANT, List.of("unknown"), 10));
+    }
+
+    @Test
+    void boughtTogether_SeveralProducts_ShouldAddUpTheirCoPurchasesExcludingThem() {
+        // Given
+        restore();
+        coPurchases.recordOrder(TENANT, "order1", List.of("a", "b", "c"));
+        coPurchases.recordOrder(TENANT, "order2", List.of("a", "d"));
+        coPurchases.recordOrder(TENANT, "order3", List.of("a", "d"));
+
+        // When
+        List<String> result = coPurchases.boughtTogether(TENANT, List.of("b", "c"), 10);
+
+        // Then - a was bought with both, d with neither
+        assertEquals(List.of("a"), result);
+    }
+
+    @Test
+    void recordOrder_CreatedThenConfirmed_ShouldCountTheOrderOnce() {
+        // Given
+        restore();
+        coPurchases.recordOrder(TENANT, "order1", List.of("a", "b"));
+        coPurchases.recordOrder(TENANT, "order1", List.of("a", "b"));
+        coPurchases.recordOrder(TENANT, "order2", List.of("a", "c"));
+        coPurchases.recordOrder(TENANT, "order3", List.of("a", "c"));
+
+        // When & Then
+        assertEquals(List.of("c", "b"), coPurchases.boughtTogether(TENANT, List.of("a"), 10));
+    }
+
+    @Test
+    void boughtTogether_ShouldWeighRecentOrdersMore() {
+        // Given
+        restore();
+        coPurchases.recordOrder(TENANT, "order1", List.of("a", "b"));
+        coPurchases.recordOrder(TENANT, "order2", List.of("a", "b"));
+        coPurchases.recordOrder(TENANT, "order3", List.of("a", "b"));
+
+        // When - two half-lives later, the three orders count less than one
+        now += 2 * HALF_LIFE_MS;
+        coPurchases.recordOrder(TENANT, "order4", List.of("a", "c"));
+
+        // Then
+        assertEquals(List.of("c", "b"), coPurchases.boughtTogether(TENANT, List.of("a"), 10));
+    }
+
+    @Test
+    void recordOrder_FullNeighborList_ShouldKeepTheMostBoughtTogether() {
+        // Given
+        restore();
+        for (int i = 0; i < 5; i++) {
+            coPurchases.recordOrder(TENANT, "b" + i, List.of("a", "b"));
+        }
+
+        // When - more products bought once each than the list holds
+        for (String product : List.of("c", "d", "e", "f", "g")) {
+            coPurchases.recordOrder(TENANT, "order-" + product, List.of("a", product));
+        }
+
+        // Then
+        List<String> result = coPurchases.boughtTogether(TENANT, List.of("a"), 10);
+        assertEquals(NEIGHBORS, result.size());
+        assertEquals("b", result.get(0));
+    }
+
+    @Test
+    void snapshot_ShouldSaveChangedProductsToRestoreAfterRestart() {
+        // Given
+        restore();
+        coPurchases.recordOrder(TENANT, "order1", List.of("a", "b", "c"));
+        coPurchases.recordOrder(TENANT, "order2", List.of("a", "c"));
+
+        // When
+        coPurchases.snapshot();
+        coPurchases.snapshot();
+        verify(snapshotRepository).saveAll(saved.capture());
+        List<ProductCoPurchases> snapshot = new ArrayList<>();
+        saved.getValue().forEach(snapshot::add);
+
+        now += HALF_LIFE_MS;
+        when(snapshotRepository.streamByTenantId(TENANT)).thenAnswer(invocation -> snapshot.stream());
+        coPurchases = newCoPurchases();
+        restore();
+        coPurchases.snapshot();
+
+        // Then - restored products are not saved again until they change
+        assertEquals(3, snapshot.size());
+        assertEquals(List.of("c", "b"), coPurchases.boughtTogether(TENANT, List.of("a"), 10));
+        assertEquals(List.of("a", "c"), coPurchases.boughtTogether(TENANT, List.of("b"), 10));
+        verify(snapshotRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void snapshot_ShouldKeepTheStrongerWeightsOfTheSavedSnapshot() {
+        // Given - another instance saved a half-life ago what this one missed
+        restore();
+        coPurchases.recordOrder(TENANT, "order1", List.of("a", "b"));
+        ProductCoPurchases previous = new ProductCoPurchases(TENANT, "a", List.of("c", "b"), List.of(5.0, 0.5),
+            Instant.ofEpochMilli(now - HALF_LIFE_MS));
+        previous.setVersion(3L);
+        when(snapshotRepository.findAllById(any())).thenReturn(List.of(previous));
+
+        // When
+        coPurchases.snapshot();
+
+        // Then
+        verify(snapshotRepository).saveAll(saved.capture());
+        ProductCoPurchases merged = null;
+        for (ProductCoPurchases snapshot : saved.getValue()) {
+            if (snapshot.getProductId().equals("a")) {
+                merged = snapshot;
+            }
+        }
+        assertEquals(List.of("c", "b"), merged.getProductIds());
+        assertEquals(List.of(2.5, 1.0), merged.getWeights());
+        assertEquals(3L, merged.getVersion());
+    }
+
+    @Test
+    void snapshot_RacingAnotherSave_ShouldSaveAgainOnNextSnapshot() {
+        // Given
+        restore();
+        coPurchases.recordOrder(TENANT, "order1", List.of("a", "b"));
+        when(snapshotRepository.saveAll(any()))
+            .thenThrow(new OptimisticLockingFailureException("Saved by another instance"))
+            .thenReturn(List.of());
+
+        // When
+        coPurchases.snapshot();
+        coPurchases.snapshot();
+
+        // Then
+        verify(snapshotRepository, times(2)).saveAll(saved.capture());
+        List<ProductCoPurchases> retried = new ArrayList<>();
+        saved.getAllValues().get(1).forEach(retried::add);
+        assertEquals(2, retried.size());
+    }
+
+    @Test
+    void snapshot_BeforeRestore_ShouldNotSaveOverTheSnapshot() {
+        // Given
+        coPurchases.recordOrder(TENANT, "order1", List.of("a", "b"));
+
+        // When
+        coPurchases.snapshot();
+
+        // Then
+        verify(snapshotRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void restore_Failed_ShouldRestoreAgainOnNextUse() {
+        // Given
+        when(snapshotRepository.streamByTenantId(TENANT))
+            .thenThrow(new RuntimeException("Mongo unavailable"))
+            .thenAnswer(invocation -> Stream.empty());
+        restore();
+
+        // When
+        coPurchases.recordOrder(TENANT, "order1", List.of("a", "b"));
+        runRestores();
+
+        // Then
+        assertEquals(List.of("b"), coPurchases.boughtTogether(TENANT, List.of("a"), 10));
+    }
+
+    private CoPurchaseRecommendations newCoPurchases() {
+        return new CoPurchaseRecommendations(snapshotRepository, NEIGHBORS, 50, HALF_LIFE_MS, restores::add,
+            () -> now);
+    }
+
+    private void restore() {
+        coPurchases.boughtTogether(TENANT, List.of(), 1);
+        runRestores();
+    }
+
+    private void runRestores() {
+        List<Runnable> pending = new ArrayList<>(restores);
+        restores.clear();
+        pending.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.productservice.search;
+
+import com.ecommerce.productservice.dto.SearchFilters;
+import com.ecommerce.productservice.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Query latency of one tenant's in-memory search index over a 2,000,000 product catalog, for text
+ * searches, filtered text searches, faceted filter-only searches and unfiltered price sorts. Also
+ * prints the build time and the heap the index takes. Run with
+ * {@code -Dperformance.tests.enabled=true} and a heap of at least 4 GB ({@code -Xmx4g}) to get
+ * the numbers; no latency bound is enforced.
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class CatalogSearchIndexBenchmarkTest {
+
+    private static final int PRODUCTS = 2_000_000;
+    private static final int CATEGORIES = 50;
+    private static final int SUBCATEGORIES_PER_CATEGORY = 10;
+    private static final int BRANDS = 2_000;
+    private static final int VOCABULARY = 20_000;
+    private static final int WARMUP_QUERIES = 200;
+    private static final int QUERIES = 1_000;
+
+    private static volatile Object sink;
+
+    @Test
+    void measureQueryLatency() {
+        Random random = new Random(42);
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        long start = System.nanoTime();
+        TenantSearchIndex index = new TenantSearchIndex();
+        for (int i = 0; i < PRODUCTS; i++) {
+            index.upsert(product(i, random));
+        }
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("Indexed %,d products in %,d ms, about %,d MB of heap%n",
+            PRODUCTS, buildMillis, (heapAfter - heapBefore) >> 20);
+
+        run(index, "text", false, query -> {
+            SearchFilters filters = new SearchFilters();
+            filters.setSearchText(word(random.nextInt(VOCABULARY)) + " " + word(random.nextInt(VOCABULARY)));
+            return filters;
+        });
+        run(index, "text + category + price", false, query -> {
+            SearchFilters filters = new SearchFilters();
+            filters.setSearchText(word(random.nextInt(VOCABULARY)));
+            filters.setCategory("category-" + random.nextInt(CATEGORIES));
+            filters.setMinPrice(new BigDecimal("20"));
+            filters.setMaxPrice(new BigDecimal("180"));
+            return filters;
+        });
+        run(index, "category + brand + price, facets", true, query -> {
+            SearchFilters filters = new SearchFilters();
+            filters.setCategory("category-" + random.nextInt(CATEGORIES));
+            filters.setBrand("brand-" + random.nextInt(BRANDS));
+            filters.setMaxPrice(new BigDecimal("500"));
+            return filters;
+        });
+        run(index, "unfiltered, by price", false, query -> {
+            SearchFilters filters = new SearchFilters();
+            filters.setSortBy("price");
+            filters.setSortDirection(random.nextBoolean() ? "asc" : "desc");
+            return filters;
+        });
+    }
+
+    private static void run(TenantSearchIndex index, String name, boolean withFacets,
+                            IntFunction<SearchFilters> queries) {
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            sink = index.search(queries.apply(i), 0, 20, withFacets);
+        }
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            SearchFilters filters = queries.apply(i);
+            long start = System.nanoTime();
+            sink = index.search(filters, 0, 20, withFacets);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-34s p50 %,8d us  p99 %,8d us%n", name,
+            latencies[QUERIES / 2] / 1_000, latencies[QUERIES * 99 / 100] / 1_000);
+    }
+
+    private static Product product(int i, Random random) {
+        int category = random.nextInt(CATEGORIES);
+        // Skewed, so a few words and brands are common and most are rare
+        String name = word(skewed(random, VOCABULARY)) + " " + word(skewed(random, VOCABULARY)) + " " + i;
+        StringBuilder description = new StringBuilder();
+        for (int w = 0; w < 12; w++) {
+            description.append(word(skewed(random, VOCABULARY))).append(' ');
+        }
+        Product product = new Product("tenant-0", name, description.toString(), "category-" + category,
+            "brand-" + skewed(random, BRANDS), "SKU-" + i,
+            new Product.Price(BigDecimal.valueOf(100 + random.nextInt(200_000), 2), "USD"));
+        product.setId("product-" + i);
+        product.setSubcategory("subcategory-" + category + "-" + random.nextInt(SUBCATEGORIES_PER_CATEGORY));
+        return product;
+    }
+
+    private static int skewed(Random random, int bound) {
+        double uniform = random.nextDouble();
+        return (int) (bound * uniform * uniform * uniform);
+    }
+
+    private static String word(int i) {
+        return "w" + Integer.toString(i, 36);
+    }
+}
@@ -0,0 +1,313 @@
+package com.ecommerce.productservice.search;
+
+import com.ecommerce.productservice.dto.FacetedSearchResponse;
+import com.ecommerce.productservice.dto.ProductSummaryResponse;
+import com.ecommerce.productservice.dto.SearchFilters;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSearchIndexTest {
+
+    private static final String TENANT = "tenant123";
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-01T12:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final List<Runnable> builds = new ArrayList<>();
+    private CatalogSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new CatalogSearchIndex(productRepository, true, builds::add, CLOCK);
+    }
+
+    @Test
+    void search_FirstSearch_ShouldStartIndexingAndFallBack() {
+        // Given
+        when(productRepository.streamByTenantId(TENANT)).thenReturn(Stream.of(
+            product("p1", "iPhone 14", "Electronics", "Apple", "999.00")));
+
+        // When
+        FacetedSearchResponse beforeBuild = searchIndex.search(TENANT, new SearchFilters(), 0, 20, false);
+        builds.forEach(Runnable::run);
+        FacetedSearchResponse afterBuild = searchIndex.search(TENANT, new SearchFilters(), 0, 20, false);
+
+        // Then
+        assertNull(beforeBuild);
+        assertEquals(1, builds.size());
+        assertEquals(1, afterBuild.getTotalElements());
+    }
+
+    @Test
+    void search_ShouldCombineCategoryBrandAndPriceRange() {
+        // Given
+        index(product("p1", "iPhone 14", "Electronics", "Apple", "999.00"),
+            product("p2", "iPhone SE", "Electronics", "Apple", "429.00"),
+            product("p3", "Galaxy S23", "Electronics", "Samsung", "799.00"),
+            product("p4", "Apple Watch Band", "Accessories", "Apple", "49.00"));
+        SearchFilters filters = new SearchFilters();
+        filters.setCategory("Electronics");
+        filters.setBrand("Apple");
+        filters.setMinPrice(new BigDecimal("500"));
+        filters.setMaxPrice(new BigDecimal("999"));
+
+        // When
+        FacetedSearchResponse result = searchIndex.search(TENANT, filters, 0, 20, false);
+
+        // Then
+        assertEquals(List.of("p1"), ids(result));
+    }
+
+    @Test
+    void search_Text_ShouldRankNameMatchesAboveDescriptionMatches() {
+        // Given
+        Product inDescription = product("p1", "Leather Case", "Accessories", "Acme", "29.00");
+        inDescription.setDescription("Fits the iphone 14 and iphone 14 pro");
+        index(inDescription, product("p2", "iPhone 14", "Electronics", "Apple", "999.00"),
+            product("p3", "Galaxy S23", "Electronics", "Samsung", "799.00"));
+        SearchFilters filters = new SearchFilters();
+        filters.setSearchText("iPhone");
+
+        // When
+        FacetedSearchResponse result = searchIndex.search(TENANT, filters, 0, 20, false);
+
+        // Then
+        assertEquals(List.of("p2", "p1"), ids(result));
+    }
+
+    @Test
+    void search_WithFacets_ShouldCountMatchesPerValue() {
+        // Given
+        index(product("p1", "iPhone 14", "Electronics", "Apple", "999.00"),
+            product("p2", "iPhone SE", "Electronics", "Apple", "429.00"),
+            product("p3", "Galaxy S23", "Electronics", "Samsung", "799.00"),
+            product("p4", "Apple Watch Band", "Accessories", "Apple", "49.00"));
+        SearchFilters filters = new SearchFilters();
+        filters.setCategory("Electronics");
+
+        // When
+        FacetedSearchResponse result = searchIndex.search(TENANT, filters, 0, 1, true);
+
+        // Then
+        assertEquals(1, result.getContent().size());
+        assertEquals(3, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+        Map<String, Map<String, Long>> facets = result.getFacets();
+        assertEquals(Map.of("Apple", 2L, "Samsung", 1L), facets.get("brand"));
+        assertEquals(Map.of("Electronics", 3L), facets.get("category"));
+        assertEquals(Map.of("250-500", 1L, "500-1000", 2L), facets.get("price"));
+        assertEquals(Map.of("ACTIVE", 3L), facets.get("status"));
+    }
+
+    @Test
+    void search_SortedByPrice_ShouldPageInOrder() {
+        // Given
+        index(product("p1", "iPhone 14", "Electronics", "Apple", "999.00"),
+            product("p2", "iPhone SE", "Electronics", "Apple", "429.00"),
+            product("p3", "Galaxy S23", "Electronics", "Samsung", "799.00"));
+        SearchFilters filters = new SearchFilters();
+        filters.setSortBy("price");
+        filters.setSortDirection("asc");
+
+        // When
+        FacetedSearchResponse secondPage = searchIndex.search(TENANT, filters, 1, 2, false);
+
+        // Then
+        assertEquals(List.of("p1"), ids(secondPage));
+        assertFalse(secondPage.isHasNext());
+    }
+
+    @Test
+    void upsert_ShouldMoveProductBetweenFacetsAndTerms() {
+        // Given
+        index(product("p1", "iPhone 14", "Electronics", "Apple", "999.00"));
+        Product renamed = product("p1", "Pixel 8", "Phones", "Google", "699.00");
+
+        // When
+        searchIndex.upsert(renamed);
+
+        // Then
+        assertEquals(List.of(), ids(search("iphone", "Electronics")));
+        assertEquals(List.of("p1"), ids(search("pixel", "Phones")));
+    }
+
+    @Test
+    void remove_ShouldDropProductFromResults() {
+        // Given
+        index(product("p1", "iPhone 14", "Electronics", "Apple", "999.00"),
+            product("p2", "iPhone SE", "Electronics", "Apple", "429.00"));
+
+        // When
+        searchIndex.remove(TENANT, "p1");
+
+        // Then
+        assertEquals(List.of("p2"), ids(search("iphone", null)));
+    }
+
+    @Test
+    void upsert_ManyUpdates_ShouldCompactWithoutChangingResults() {
+        // Given
+        index(product("p1", "iPhone 14", "Electronics", "Apple", "999.00"),
+            product("p2", "Galaxy S23", "Electronics", "Samsung", "799.00"));
+
+        // When - enough updates to leave more dead documents than the compaction threshold
+        for (int i = 0; i < 10_001; i++) {
+            searchIndex.upsert(product("p1", "iPhone 14", "Electronics", "Apple", "999.00"));
+        }
+
+        // Then
+        assertEquals(List.of("p1"), ids(search("iphone", "Electronics")));
+        assertEquals(2, searchIndex.search(TENANT, new SearchFilters(), 0, 20, false).getTotalElements());
+    }
+
+    @Test
+    void build_ShouldKeepChangesThatArriveWhileBuilding() {
+        // Given - the build reads the product before it was renamed
+        when(productRepository.streamByTenantId(TENANT)).thenAnswer(invocation -> {
+            searchIndex.upsert(product("p1", "Pixel 8", "Phones", "Google", "699.00"));
+            return Stream.of(product("p1", "iPhone 14", "Electronics", "Apple", "999.00"));
+        });
+
+        // When
+        searchIndex.search(TENANT, new SearchFilters(), 0, 20, false);
+        builds.forEach(Runnable::run);
+
+        // Then
+        assertEquals(List.of("p1"), ids(search("pixel", null)));
+        assertEquals(List.of(), ids(search("iphone", null)));
+    }
+
+    @Test
+    void reconcile_ShouldApplyUpdatesWhoseEventsWereMissed() {
+        // Given
+        Product original = product("p1", "iPhone 14", "Electronics", "Apple", "999.00");
+        index(original);
+        Product renamed = product("p1", "Pixel 8", "Phones", "Google", "699.00");
+        renamed.setUpdatedAt(original.getUpdatedAt().plusMinutes(1));
+        when(productRepository.streamByTenantIdAndUpdatedAtGreaterThanEqual(
+            TENANT, LocalDateTime.parse("2026-01-01T11:59:00"))).thenReturn(Stream.of(renamed));
+        when(productRepository.countByTenantId(TENANT)).thenReturn(1L);
+
+        // When
+        searchIndex.reconcile();
+        builds.forEach(Runnable::run);
+
+        // Then
+        assertEquals(List.of("p1"), ids(search("pixel", "Phones")));
+        assertEquals(List.of(), ids(search("iphone", null)));
+    }
+
+    @Test
+    void reconcile_ShouldDropProductsDeletedWithoutAnEvent() {
+        // Given
+        index(product("p1", "iPhone 14", "Electronics", "Apple", "999.00"),
+            product("p2", "iPhone SE", "Electronics", "Apple", "429.00"));
+        when(productRepository.streamByTenantIdAndUpdatedAtGreaterThanEqual(eq(TENANT), any()))
+            .thenReturn(Stream.empty());
+        when(productRepository.countByTenantId(TENANT)).thenReturn(1L);
+        when(productRepository.streamIdsByTenantId(TENANT))
+            .thenReturn(Stream.of(product("p1", null, null, null, "0")));
+
+        // When
+        searchIndex.reconcile();
+        builds.forEach(Runnable::run);
+
+        // Then
+        assertEquals(List.of("p1"), ids(search("iphone", null)));
+    }
+
+    @Test
+    void reconcile_ShouldKeepChangesThatArriveWhileReconciling() {
+        // Given - the reconciliation reads the product before an event renames it
+        Product original = product("p1", "iPhone 14", "Electronics", "Apple", "999.00");
+        index(original);
+        Product read = product("p1", "iPhone 14 Pro", "Electronics", "Apple", "1099.00");
+        read.setUpdatedAt(original.getUpdatedAt().plusMinutes(1));
+        when(productRepository.streamByTenantIdAndUpdatedAtGreaterThanEqual(eq(TENANT), any()))
+            .thenAnswer(invocation -> {
+                searchIndex.upsert(product("p1", "Pixel 8", "Phones", "Google", "699.00"));
+                return Stream.of(read);
+            });
+        when(productRepository.countByTenantId(TENANT)).thenReturn(1L);
+
+        // When
+        searchIndex.reconcile();
+        builds.forEach(Runnable::run);
+
+        // Then
+        assertEquals(List.of("p1"), ids(search("pixel", null)));
+        assertEquals(List.of(), ids(search("iphone", null)));
+    }
+
+    @Test
+    void productNames_ShouldFollowCatalogChanges() {
+        // Given
+        index(product("p1", "iPhone 14", "Electronics", "Apple", "999.00"),
+            product("p2", "Galaxy S23", "Electronics", "Samsung", "799.00"));
+        long changesBefore = searchIndex.changes(TENANT);
+
+        // When
+        searchIndex.remove(TENANT, "p2");
+
+        // Then
+        assertEquals(List.of("iPhone 14"), searchIndex.productNames(TENANT));
+        assertEquals(changesBefore + 1, searchIndex.changes(TENANT));
+        assertEquals(-1, searchIndex.changes("other-tenant"));
+    }
+
+    @Test
+    void search_Disabled_ShouldAlwaysFallBack() {
+        // Given
+        CatalogSearchIndex disabled = new CatalogSearchIndex(productRepository, false, builds::add, CLOCK);
+
+        // When & Then
+        assertNull(disabled.search(TENANT, new SearchFilters(), 0, 20, true));
+        assertTrue(builds.isEmpty());
+    }
+
+    private void index(Product... products) {
+        when(productRepository.streamByTenantId(TENANT)).thenReturn(Stream.of(products));
+        searchIndex.search(TENANT, new SearchFilters(), 0, 1, false);
+        builds.forEach(Runnable::run);
+        builds.clear();
+    }
+
+    private FacetedSearchResponse search(String text, String category) {
+        SearchFilters filters = new SearchFilters();
+        filters.setSearchText(text);
+        filters.setCategory(category);
+        return searchIndex.search(TENANT, filters, 0, 20, false);
+    }
+
+    private static List<String> ids(FacetedSearchResponse result) {
+        return result.getContent().stream().map(ProductSummaryResponse::getId).toList();
+    }
+
+    private static Product product(String id, String name, String category, String brand, String price) {
+        Product product = new Product(TENANT, name, null, category, brand, "SKU-" + id,
+            new Product.Price(new BigDecimal(price), "USD"));
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,126 @@
+package com.ecommerce.productservice.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suggestions per second from one tenant's suggestion index over 500,000 product names and 50,000
+ * searched queries, for prefixes of what shoppers type and for prefixes with a typo, on one and
+ * on all cores. Also prints the build time. Only runs with
+ * {@code -Dperformance.tests.enabled=true}, and nothing about the rates is checked.
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class SearchSuggestionsBenchmarkTest {
+
+    private static final int PRODUCTS = 500_000;
+    private static final int QUERIES = 50_000;
+    private static final int VOCABULARY = 20_000;
+    private static final int LIMIT = 10;
+    private static final long WARMUP_MILLIS = 2_000;
+    private static final long MEASURE_MILLIS = 5_000;
+
+    private static volatile Object sink;
+
+    @Test
+    void measureSuggestionsPerSecond() throws Exception {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            names.add(phrase(random, 2 + random.nextInt(3)) + " " + i);
+        }
+        Map<String, Long> queryCounts = new HashMap<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queryCounts.merge(phrase(random, 1 + random.nextInt(2)), 1L + random.nextInt(100), Long::sum);
+        }
+
+        long start = System.nanoTime();
+        TenantSuggestionIndex index = TenantSuggestionIndex.build(names, queryCounts);
+        System.out.printf("Built %,d suggestions in %,d ms%n", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        List<String> prefixes = new ArrayList<>();
+        List<String> typos = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String name = names.get(random.nextInt(PRODUCTS));
+            String prefix = name.substring(0, Math.min(name.length(), 2 + random.nextInt(7)));
+            prefixes.add(prefix);
+            typos.add(withTypo(random, name.substring(0, Math.min(name.length(), 4 + random.nextInt(5)))));
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        run(index, "prefix", prefixes, 1);
+        run(index, "prefix", prefixes, cores);
+        run(index, "prefix with typo", typos, 1);
+        run(index, "prefix with typo", typos, cores);
+    }
+
+    private static void run(TenantSuggestionIndex index, String name, List<String> queries, int threads)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WARMUP_MILLIS + MEASURE_MILLIS);
+            long measureFrom = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WARMUP_MILLIS);
+            List<Future<Long>> counts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                counts.add(executor.submit(() -> {
+                    long measured = 0;
+                    long now;
+                    while ((now = System.nanoTime()) < deadline) {
+                        String query = queries.get(ThreadLocalRandom.current().nextInt(queries.size()));
+                        sink = index.suggest(query, LIMIT);
+                        if (now >= measureFrom) {
+                            measured++;
+                        }
+                    }
+                    return measured;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> count : counts) {
+                total += count.get();
+            }
+            System.out.printf("%-18s %2d threads: %,12d suggestions/s%n", name, threads,
+                total * 1_000 / MEASURE_MILLIS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                phrase.append(' ');
+            }
+            // Skewed, so a few words are common and most are rare
+            double uniform = random.nextDouble();
+            phrase.append(word((int) (VOCABULARY * uniform * uniform * uniform)));
+        }
+        return phrase.toString();
+    }
+
+    private static String word(int i) {
+        StringBuilder word = new StringBuilder();
+        do {
+            word.append((char) ('a' + i % 26));
+            i /= 26;
+        } while (i > 0);
+        return word.append("ex").toString();
+    }
+
+    private static String withTypo(Random random, String prefix) {
+        int position = random.nextInt(prefix.length());
+        char typo = (char) ('a' + random.nextInt(26));
+        return prefix.substring(0, position) + typo + prefix.substring(position + 1);
+    }
+}
@@ -0,0 +1,196 @@
+package com.ecommerce.productservice.search;
+
+import com.ecommerce.shared.metrics.collectors.BusinessMetricsCollector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchSuggestionsTest {
+
+    private static final String TENANT = "tenant123";
+    private static final long REBUILD_INTERVAL_MS = 30_000;
+    private static final long HALF_LIFE_MS = 3_600_000;
+
+    @Mock
+    private CatalogSearchIndex searchIndex;
+
+    private final BusinessMetricsCollector businessMetrics = new BusinessMetricsCollector(new SimpleMeterRegistry());
+    private final List<Runnable> builds = new ArrayList<>();
+    private long now = 1_000_000;
+    private SearchSuggestions suggestions;
+
+    @BeforeEach
+    void setUp() {
+        suggestions = new SearchSuggestions(searchIndex, businessMetrics, REBUILD_INTERVAL_MS, 3, HALF_LIFE_MS,
+            builds::add, () -> now);
+        lenient().when(searchIndex.changes(TENANT)).thenReturn(0L);
+        lenient().when(searchIndex.productNames(TENANT))
+            .thenReturn(List.of("iPhone 14", "iPhone 14 Pro", "iPhone SE", "Samsung Galaxy S23", "Pixel 8"));
+    }
+
+    @Test
+    void suggest_BeforeFirstBuild_ShouldReturnNullAndBuildInBackground() {
+        // When
+        List<String> beforeBuild = suggestions.suggest(TENANT, "iph", 10);
+        runBuilds();
+
+        // Then
+        assertNull(beforeBuild);
+        assertEquals(List.of("iPhone 14", "iPhone 14 Pro", "iPhone SE"), suggestions.suggest(TENANT, "iph", 10));
+    }
+
+    @Test
+    void suggest_ShouldMatchTheStartOfAnyWord() {
+        // Given
+        build();
+
+        // When & Then
+        assertEquals(List.of("Samsung Galaxy S23"), suggestions.suggest(TENANT, "gala", 10));
+        assertEquals(List.of("iPhone 14 Pro"), suggestions.suggest(TENANT, "iPhone 14 p", 10));
+    }
+
+    @Test
+    void suggest_ShouldRankBySearchPopularity() {
+        // Given
+        businessMetrics.recordProductSearch(TENANT, "iPhone SE", 3);
+        businessMetrics.recordProductSearch(TENANT, "iphone se", 3);
+        businessMetrics.recordProductSearch(TENANT, "iphone charger", 7);
+        businessMetrics.recordProductSearch(TENANT, "iPhone charger", 5);
+        build();
+
+        // When
+        List<String> result = suggestions.suggest(TENANT, "iph", 3);
+
+        // Then
+        assertEquals(List.of("iPhone SE", "iphone charger", "iPhone 14"), result);
+    }
+
+    @Test
+    void suggest_SearchesWithoutResults_ShouldNotBeSuggested() {
+        // Given
+        businessMetrics.recordProductSearch(TENANT, "iphone 99", 0);
+        build();
+
+        // When & Then
+        assertFalse(suggestions.suggest(TENANT, "iphone 9", 10).contains("iphone 99"));
+    }
+
+    @Test
+    void suggest_WithTypo_ShouldFallBackToPrefixesOneEditAway() {
+        // Given
+        build();
+
+        // When & Then
+        assertEquals(List.of("Samsung Galaxy S23"), suggestions.suggest(TENANT, "smasung", 10));
+        assertEquals(List.of("Pixel 8"), suggestions.suggest(TENANT, "pixl", 10));
+        assertEquals(List.of(), suggestions.suggest(TENANT, "px", 10));
+    }
+
+    @Test
+    void suggest_CatalogChanged_ShouldRebuildOncePerInterval() {
+        // Given
+        build();
+        when(searchIndex.changes(TENANT)).thenReturn(1L);
+        when(searchIndex.productNames(TENANT)).thenReturn(List.of("iPhone 15"));
+
+        // When
+        now += REBUILD_INTERVAL_MS - 1;
+        suggestions.suggest(TENANT, "iph", 10);
+        boolean rebuiltEarly = !builds.isEmpty();
+        now += 1;
+        suggestions.suggest(TENANT, "iph", 10);
+        runBuilds();
+
+        // Then
+        assertFalse(rebuiltEarly);
+        assertEquals(List.of("iPhone 15"), suggestions.suggest(TENANT, "iph", 10));
+    }
+
+    @Test
+    void suggest_NothingChanged_ShouldNotRebuild() {
+        // Given
+        build();
+
+        // When
+        now += REBUILD_INTERVAL_MS;
+        suggestions.suggest(TENANT, "iph", 10);
+
+        // Then
+        assertTrue(builds.isEmpty());
+    }
+
+    @Test
+    void onProductSearch_OverTheLimit_ShouldReplaceTheLeastSearchedQuery() {
+        // Given
+        search("case", 3);
+        search("charger", 2);
+        search("cable", 1);
+
+        // When
+        search("camera", 2);
+        build();
+
+        // Then - camera is only ranked by its own searches, one of them took cable's place
+        assertEquals(List.of("case", "camera"), suggestions.suggest(TENANT, "ca", 10));
+        assertEquals(List.of("charger"), suggestions.suggest(TENANT, "ch", 10));
+    }
+
+    @Test
+    void onProductSearch_OneOffQueriesOverTheLimit_ShouldKeepTheMostSearchedQuery() {
+        // Given
+        search("case", 5);
+
+        // When
+        for (String query : List.of("cable", "camera", "cap", "card")) {
+            search(query, 1);
+        }
+        build();
+
+        // Then - the one-off queries took each other's places, never that of case
+        List<String> suggested = suggestions.suggest(TENANT, "ca", 10);
+        assertEquals("case", suggested.get(0));
+        assertFalse(suggested.contains("cable"));
+    }
+
+    @Test
+    void onProductSearch_AfterDecay_ShouldDropQueriesSearchedOnce() {
+        // Given
+        search("case", 2);
+        search("cable", 1);
+        build();
+
+        // When
+        now += HALF_LIFE_MS;
+        build();
+
+        // Then
+        assertEquals(List.of("case"), suggestions.suggest(TENANT, "ca", 10));
+    }
+
+    private void search(String query, int times) {
+        for (int i = 0; i < times; i++) {
+            businessMetrics.recordProductSearch(TENANT, query, 1);
+        }
+    }
+
+    private void build() {
+        suggestions.suggest(TENANT, "", 1);
+        runBuilds();
+    }
+
+    private void runBuilds() {
+        List<Runnable> pending = new ArrayList<>(builds);
+        builds.clear();
+        pending.forEach(Runnable::run);
+    }
+}
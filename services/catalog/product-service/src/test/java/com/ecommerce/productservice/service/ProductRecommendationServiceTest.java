@@ -1,14 +1,22 @@
 package com.ecommerce.productservice.service;
 
+import com.ecommerce.productservice.cache.InMemoryCacheTagIndex;
+import com.ecommerce.productservice.cache.ProductLocalCache;
+import com.ecommerce.productservice.cache.TaggedProductCache;
 import com.ecommerce.productservice.dto.ProductSummaryResponse;
 import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.recommendation.CoPurchaseRecommendations;
 import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.shared.metrics.collectors.CacheMetricsCollector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -17,6 +25,7 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,6 +40,15 @@ class ProductRecommendationServiceTest {
     @Mock
     private ProductSearchService productSearchService;
 
+    @Mock
+    private CoPurchaseRecommendations coPurchases;
+
+    private final CacheMetricsCollector cacheMetrics = new CacheMetricsCollector(new SimpleMeterRegistry());
+
+    @Spy
+    private TaggedProductCache productCache = new TaggedProductCache(new NoOpCacheManager(),
+        new InMemoryCacheTagIndex(), new ProductLocalCache(Set.of(), 0, 0, cacheMetrics), cacheMetrics);
+
     @InjectMocks
     private ProductRecommendationService recommendationService;
 
@@ -90,6 +108,25 @@ class ProductRecommendationServiceTest {
         verify(productRepository).findByTenantIdAndPriceRange(eq(tenantId), anyDouble(), anyDouble(), any(Pageable.class));
     }
 
+    @Test
+    void getFrequentlyBoughtTogether_WhenBoughtWithOthers_ShouldLookThemUpInOneQuery() {
+        // Given
+        String productId = "1";
+        Product discontinued = createTestProduct("4", "iPhone 13 Case", "Electronics", "Apple", new BigDecimal("19"));
+        discontinued.setStatus(Product.ProductStatus.DISCONTINUED);
+        when(coPurchases.boughtTogether(tenantId, List.of(productId), 10)).thenReturn(List.of("4", "3", "2"));
+        when(productRepository.findByTenantIdAndIdIn(tenantId, List.of("4", "3", "2")))
+            .thenReturn(List.of(testProduct2, discontinued, testProduct3));
+
+        // When
+        List<ProductSummaryResponse> result = recommendationService.getFrequentlyBoughtTogether(tenantId, productId, 5);
+
+        // Then
+        assertEquals(List.of("3", "2"), result.stream().map(ProductSummaryResponse::getId).toList());
+        verify(productRepository, never()).findByTenantIdAndId(anyString(), anyString());
+        verify(productRepository, never()).findByTenantIdAndPriceRange(anyString(), anyDouble(), anyDouble(), any(Pageable.class));
+    }
+
     @Test
     void getFrequentlyBoughtTogether_WhenProductNotExists_ShouldReturnEmptyList() {
         // Given
@@ -220,24 +257,27 @@ class ProductRecommendationServiceTest {
     void getCrossSellRecommendations_WithCartItems_ShouldReturnCrossSellProducts() {
         // Given
         List<String> cartItems = Arrays.asList("1", "2");
+        Product testProduct4 = createTestProduct("4", "AirPods", "Electronics", "Apple", new BigDecimal("179"));
         List<ProductSummaryResponse> similarToFirst = Arrays.asList(new ProductSummaryResponse(testProduct3));
-        List<ProductSummaryResponse> similarToSecond = Arrays.asList(new ProductSummaryResponse(testProduct3));
+        List<ProductSummaryResponse> similarToSecond = Arrays.asList(
+            new ProductSummaryResponse(testProduct1), new ProductSummaryResponse(testProduct3));
         
-        when(recommendationService.getSimilarProducts(tenantId, "1", 5))
+        when(coPurchases.boughtTogether(tenantId, cartItems, 10)).thenReturn(List.of("4"));
+        when(productSearchService.findSimilarProducts(tenantId, "1", 5))
             .thenReturn(similarToFirst);
-        when(recommendationService.getSimilarProducts(tenantId, "2", 5))
+        when(productSearchService.findSimilarProducts(tenantId, "2", 5))
             .thenReturn(similarToSecond);
-        when(productRepository.findByTenantIdAndId(tenantId, "3"))
-            .thenReturn(Optional.of(testProduct3));
+        when(productRepository.findByTenantIdAndIdIn(tenantId, List.of("4", "3")))
+            .thenReturn(List.of(testProduct3, testProduct4));
 
         // When
         List<ProductSummaryResponse> result = recommendationService.getCrossSellRecommendations(
             tenantId, cartItems, 5);
 
-        // Then
-        assertNotNull(result);
-        // Note: The actual implementation might return different results due to mocking limitations
-        verify(productRepository, atLeastOnce()).findByTenantIdAndId(eq(tenantId), anyString());
+        // Then - bought together first, then similar, in one lookup
+        assertEquals(List.of("4", "3"), result.stream().map(ProductSummaryResponse::getId).toList());
+        verify(productRepository).findByTenantIdAndIdIn(tenantId, List.of("4", "3"));
+        verify(productRepository, never()).findByTenantIdAndId(anyString(), anyString());
     }
 
     @Test
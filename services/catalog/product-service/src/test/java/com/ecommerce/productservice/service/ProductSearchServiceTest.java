@@ -1,16 +1,27 @@
 package com.ecommerce.productservice.service;
 
+import com.ecommerce.productservice.cache.InMemoryCacheTagIndex;
+import com.ecommerce.productservice.cache.ProductLocalCache;
+import com.ecommerce.productservice.cache.TaggedProductCache;
+import com.ecommerce.productservice.dto.FacetedSearchResponse;
 import com.ecommerce.productservice.dto.PagedResponse;
 import com.ecommerce.productservice.dto.ProductSummaryResponse;
 import com.ecommerce.productservice.dto.SearchFilters;
 import com.ecommerce.productservice.entity.Product;
 import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.search.CatalogSearchIndex;
+import com.ecommerce.productservice.search.SearchSuggestions;
+import com.ecommerce.shared.metrics.collectors.BusinessMetricsCollector;
+import com.ecommerce.shared.metrics.collectors.CacheMetricsCollector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -18,7 +29,9 @@ import org.springframework.data.domain.Pageable;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -30,6 +43,21 @@ class ProductSearchServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    private final CacheMetricsCollector cacheMetrics = new CacheMetricsCollector(new SimpleMeterRegistry());
+
+    @Spy
+    private TaggedProductCache productCache = new TaggedProductCache(new NoOpCacheManager(),
+        new InMemoryCacheTagIndex(), new ProductLocalCache(Set.of(), 0, 0, cacheMetrics), cacheMetrics);
+
+    @Mock
+    private CatalogSearchIndex searchIndex;
+
+    @Mock
+    private SearchSuggestions searchSuggestions;
+
+    @Mock
+    private BusinessMetricsCollector businessMetrics;
+
     @InjectMocks
     private ProductSearchService productSearchService;
 
@@ -66,6 +94,58 @@ class ProductSearchServiceTest {
         verify(productRepository).findByTenantIdAndTextSearch(eq(tenantId), eq("iPhone"), any(Pageable.class));
     }
 
+    @Test
+    void searchProducts_WhenTenantIndexed_ShouldServeFromIndex() {
+        // Given
+        SearchFilters filters = new SearchFilters();
+        filters.setSearchText("iPhone");
+        filters.setBrand("Apple");
+        filters.setMaxPrice(new BigDecimal("1000"));
+        FacetedSearchResponse indexed = new FacetedSearchResponse(
+            List.of(new ProductSummaryResponse(testProduct1)), 0, 20, 1, 1, null);
+        when(searchIndex.search(tenantId, filters, 0, 20, false)).thenReturn(indexed);
+
+        // When
+        PagedResponse<ProductSummaryResponse> result = productSearchService.searchProducts(
+            tenantId, filters, 0, 20);
+
+        // Then
+        assertSame(indexed, result);
+        verifyNoInteractions(productRepository);
+        verify(businessMetrics).recordProductSearch(tenantId, "iPhone", 1);
+    }
+
+    @Test
+    void searchProducts_NextPage_ShouldNotRecordSearchAgain() {
+        // Given
+        SearchFilters filters = new SearchFilters();
+        filters.setSearchText("iPhone");
+        FacetedSearchResponse indexed = new FacetedSearchResponse(List.of(), 1, 20, 1, 1, null);
+        when(searchIndex.search(tenantId, filters, 1, 20, false)).thenReturn(indexed);
+
+        // When
+        productSearchService.searchProducts(tenantId, filters, 1, 20);
+
+        // Then
+        verifyNoInteractions(businessMetrics);
+    }
+
+    @Test
+    void searchProductsWithFacets_WhenTenantNotIndexed_ShouldFallBackWithoutFacets() {
+        // Given
+        SearchFilters filters = new SearchFilters();
+        filters.setCategory("Electronics");
+        when(productRepository.findByTenantIdAndCategory(eq(tenantId), eq("Electronics"), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(Arrays.asList(testProduct1, testProduct2)));
+
+        // When
+        FacetedSearchResponse result = productSearchService.searchProductsWithFacets(tenantId, filters, 0, 20);
+
+        // Then
+        assertEquals(2, result.getContent().size());
+        assertEquals(Map.of(), result.getFacets());
+    }
+
     @Test
     void searchProducts_WithCategoryFilter_ShouldReturnResults() {
         // Given
@@ -255,6 +335,19 @@ class ProductSearchServiceTest {
         verify(productRepository).findByTenantIdAndTextSearch(eq(tenantId), eq(query), any(Pageable.class));
     }
 
+    @Test
+    void getSearchSuggestions_WhenSuggestionsBuilt_ShouldNotQueryRepository() {
+        // Given
+        when(searchSuggestions.suggest(tenantId, "iph", 10)).thenReturn(List.of("iPhone 14", "iphone case"));
+
+        // When
+        List<String> result = productSearchService.getSearchSuggestions(tenantId, "iph", 10);
+
+        // Then
+        assertEquals(List.of("iPhone 14", "iphone case"), result);
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     void getSearchSuggestions_WithShortQuery_ShouldReturnEmptyList() {
         // Given
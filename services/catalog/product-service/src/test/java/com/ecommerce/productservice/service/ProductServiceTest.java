@@ -1,15 +1,24 @@
 package com.ecommerce.productservice.service;
 
+import com.ecommerce.productservice.cache.InMemoryCacheTagIndex;
+import com.ecommerce.productservice.cache.ProductCacheTags;
+import com.ecommerce.productservice.cache.ProductLocalCache;
+import com.ecommerce.productservice.cache.TaggedProductCache;
 import com.ecommerce.productservice.dto.*;
 import com.ecommerce.productservice.entity.Product;
 import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.shared.metrics.collectors.CacheMetricsCollector;
 import com.ecommerce.shared.utils.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,6 +30,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,8 +42,11 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
-    @Mock
-    private org.springframework.cache.CacheManager cacheManager;
+    private final CacheMetricsCollector cacheMetrics = new CacheMetricsCollector(new SimpleMeterRegistry());
+
+    @Spy
+    private TaggedProductCache productCache = new TaggedProductCache(new NoOpCacheManager(),
+        new InMemoryCacheTagIndex(), new ProductLocalCache(Set.of(), 0, 0, cacheMetrics), cacheMetrics);
 
     @Mock
     private ProductEventPublisher eventPublisher;
@@ -193,6 +206,27 @@ class ProductServiceTest {
         verify(eventPublisher).publishProductUpdatedEvent(any(Product.class), any(Map.class), any(Map.class));
     }
 
+    @Test
+    void updateProduct_ShouldInvalidateOnlyTagsTheChangeTouches() {
+        // Given
+        when(productRepository.findByTenantIdAndId(tenantId, productId))
+            .thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class)))
+            .thenReturn(testProduct);
+
+        // When
+        productService.updateProduct(tenantId, productId, updateRequest);
+
+        // Then - name, description and price changed; category, brand and status did not
+        verify(productCache).invalidate(argThat(tags ->
+            tags.contains(ProductCacheTags.product(tenantId, productId))
+                && tags.contains(ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.TEXT))
+                && tags.contains(ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.PRICE))
+                && !tags.contains(ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.CATALOG))
+                && !tags.contains(ProductCacheTags.listing(tenantId, ProductCacheTags.Listing.FACETS))
+                && tags.stream().allMatch(tag -> tag.startsWith(tenantId + ":"))));
+    }
+
     @Test
     void updateProduct_WhenProductNotExists_ShouldThrowResourceNotFoundException() {
         // Given
@@ -215,10 +249,12 @@ class ProductServiceTest {
         // When
         productService.deleteProduct(tenantId, productId);
 
-        // Then
+        // Then - other instances only hear of the deletion once the shared caches no longer hold it
         verify(productRepository).findByTenantIdAndId(tenantId, productId);
-        verify(eventPublisher).publishProductDeletedEvent(any(Product.class), eq("Manual deletion"));
-        verify(productRepository).deleteByTenantIdAndId(tenantId, productId);
+        InOrder inOrder = inOrder(productRepository, productCache, eventPublisher);
+        inOrder.verify(productRepository).deleteByTenantIdAndId(tenantId, productId);
+        inOrder.verify(productCache).invalidate(ProductCacheTags.createdOrDeleted(testProduct));
+        inOrder.verify(eventPublisher).publishProductDeletedEvent(any(Product.class), eq("Manual deletion"));
     }
 
     @Test
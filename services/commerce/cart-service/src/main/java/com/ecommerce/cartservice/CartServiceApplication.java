@@ -5,7 +5,6 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 
 @SpringBootApplication(scanBasePackages = {
     "com.ecommerce.cartservice",
@@ -16,7 +15,6 @@ import org.springframework.data.redis.repository.configuration.EnableRedisReposi
     "com.ecommerce.shared.models"
 })
 @EnableJpaRepositories(basePackages = "com.ecommerce.cartservice.repository")
-@EnableRedisRepositories(basePackages = "com.ecommerce.cartservice.redis")
 @EnableCaching
 public class CartServiceApplication {
 
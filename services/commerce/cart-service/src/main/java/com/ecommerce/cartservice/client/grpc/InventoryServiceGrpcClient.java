@@ -5,6 +5,9 @@ import com.ecommerce.cartservice.exception.InsufficientInventoryException;
 import com.ecommerce.inventoryservice.proto.InventoryServiceGrpc;
 import com.ecommerce.inventoryservice.proto.InventoryServiceProtos.*;
 import com.ecommerce.shared.grpc.GrpcContextUtils;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.grpc.Status;
@@ -14,6 +17,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -27,6 +33,9 @@ public class InventoryServiceGrpcClient {
     @GrpcClient("inventory-service")
     private InventoryServiceGrpc.InventoryServiceBlockingStub inventoryServiceStub;
 
+    @GrpcClient("inventory-service")
+    private InventoryServiceGrpc.InventoryServiceFutureStub inventoryServiceFutureStub;
+
     /**
      * Check inventory availability for a product
      */
@@ -98,6 +107,70 @@ public class InventoryServiceGrpcClient {
         throw new InsufficientInventoryException("Inventory service is currently unavailable. Please try again later.", ex);
     }
 
+    /**
+     * Check availability for several products with one non-blocking call, so the caller can do
+     * other work while it is in flight
+     *
+     * @param quantityByProductId requested quantity per product
+     * @return availability keyed by product ID
+     */
+    @CircuitBreaker(name = "inventory-service", fallbackMethod = "checkAvailabilityBatchFallback")
+    public CompletableFuture<Map<String, InventoryCheckResponse>> checkAvailabilityBatch(
+            Map<String, Integer> quantityByProductId) {
+        logger.debug("Checking inventory availability via gRPC: products={}", quantityByProductId.size());
+
+        CheckAvailabilityBatchRequest.Builder request = CheckAvailabilityBatchRequest.newBuilder()
+            .setContext(GrpcContextUtils.createTenantContext());
+        quantityByProductId.forEach((productId, quantity) -> request.addItems(AvailabilityLine.newBuilder()
+            .setProductId(productId)
+            .setRequestedQuantity(quantity)
+            .build()));
+
+        CompletableFuture<Map<String, InventoryCheckResponse>> result = new CompletableFuture<>();
+        Futures.addCallback(
+            GrpcContextUtils.withCurrentContext(inventoryServiceFutureStub)
+                .withDeadlineAfter(5, TimeUnit.SECONDS)
+                .checkAvailabilityBatch(request.build()),
+            new FutureCallback<>() {
+                @Override
+                public void onSuccess(CheckAvailabilityBatchResponse response) {
+                    Map<String, InventoryCheckResponse> availability = new LinkedHashMap<>();
+                    for (CheckAvailabilityResponse item : response.getItemsList()) {
+                        availability.put(item.getProductId(), new InventoryCheckResponse(
+                            item.getProductId(), item.getIsAvailable(), item.getAvailableQuantity(),
+                            quantityByProductId.getOrDefault(item.getProductId(), 0)));
+                    }
+                    result.complete(availability);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    if (t instanceof StatusRuntimeException e) {
+                        logger.error("gRPC error checking inventory availability: products={}, status={}, description={}",
+                                    quantityByProductId.size(), e.getStatus().getCode(), e.getStatus().getDescription());
+                        result.completeExceptionally(mapGrpcException(e, "Inventory availability check failed"));
+                    } else {
+                        logger.error("Unexpected error checking inventory availability via gRPC", t);
+                        result.completeExceptionally(new InsufficientInventoryException(
+                            "Inventory check failed due to unexpected error", t));
+                    }
+                }
+            },
+            MoreExecutors.directExecutor());
+        return result;
+    }
+
+    /**
+     * Fallback method for checkAvailabilityBatch when circuit breaker is open
+     */
+    public CompletableFuture<Map<String, InventoryCheckResponse>> checkAvailabilityBatchFallback(
+            Map<String, Integer> quantityByProductId, Exception ex) {
+        logger.warn("Inventory availability check fallback triggered for {} products, error: {}",
+                   quantityByProductId.size(), ex.getMessage());
+        return CompletableFuture.failedFuture(new InsufficientInventoryException(
+            "Inventory service is currently unavailable. Please try again later.", ex));
+    }
+
     /**
      * Reserve inventory for a product
      */
@@ -20,6 +20,9 @@ import jakarta.validation.constraints.NotNull;
        })
 public class ShoppingCartBackup extends BaseEntity {
 
+    // Shared and thread-safe once configured; building a mapper per call is expensive
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
     @NotBlank(message = "User ID is required")
     @Column(name = "user_id", nullable = false, length = 50)
     private String userId;
@@ -44,13 +47,7 @@ public class ShoppingCartBackup extends BaseEntity {
      * Convert Cart object to JSON string for storage
      */
     public void setCartData(Cart cart) {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.findAndRegisterModules(); // For LocalDateTime serialization
-            this.cartData = mapper.writeValueAsString(cart);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize cart data", e);
-        }
+        this.cartData = toJson(cart);
     }
 
     /**
@@ -58,14 +55,23 @@ public class ShoppingCartBackup extends BaseEntity {
      */
     public Cart getCartObject() {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.findAndRegisterModules(); // For LocalDateTime deserialization
-            return mapper.readValue(this.cartData, Cart.class);
+            return MAPPER.readValue(this.cartData, Cart.class);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to deserialize cart data", e);
         }
     }
 
+    /**
+     * Serialize a cart in the format stored in the cart_data column
+     */
+    public static String toJson(Cart cart) {
+        try {
+            return MAPPER.writeValueAsString(cart);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize cart data", e);
+        }
+    }
+
     // Getters and Setters
     public String getUserId() {
         return userId;
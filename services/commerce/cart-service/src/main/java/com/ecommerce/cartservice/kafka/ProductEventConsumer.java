@@ -0,0 +1,60 @@
+package com.ecommerce.cartservice.kafka;
+
+import com.ecommerce.cartservice.service.ProductNearCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops products from the cart near cache when product-service updates or deletes them
+ */
+@Component
+public class ProductEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventConsumer.class);
+
+    private final ProductNearCache productNearCache;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ProductEventConsumer(ProductNearCache productNearCache, ObjectMapper objectMapper) {
+        this.productNearCache = productNearCache;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Evict a product from the near cache when it is updated or deleted. Events are read as JSON
+     * trees since the producer sends no type headers; created events are ignored, as a product
+     * that did not exist cannot be cached yet.
+     */
+    @KafkaListener(topics = "${app.kafka.topics.product-events:product-events}",
+                   containerFactory = "productEventKafkaListenerContainerFactory")
+    public void handleProductEvent(@Payload String payload) {
+        try {
+            JsonNode event = objectMapper.readTree(payload);
+            String eventType = event.path("eventType").asText();
+            if (!"ProductUpdated".equals(eventType) && !"ProductDeleted".equals(eventType)) {
+                return;
+            }
+
+            String tenantId = event.path("tenantId").asText(null);
+            String productId = event.path("productId").asText(null);
+            if (tenantId == null || productId == null) {
+                logger.warn("Ignoring {} event without tenant or product ID", eventType);
+                return;
+            }
+
+            productNearCache.invalidate(tenantId, productId);
+            logger.debug("Invalidated cached product {} for tenant {} after {}", productId, tenantId, eventType);
+
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring unreadable product event: {}", e.getMessage());
+        }
+    }
+}
@@ -7,25 +7,19 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
-import org.springframework.data.annotation.Id;
-import org.springframework.data.redis.core.RedisHash;
-import org.springframework.data.redis.core.TimeToLive;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 /**
- * Shopping cart model for Redis storage with JSON serialization
+ * Shopping cart model, stored in Redis as a single JSON value per cart
  */
-@RedisHash("cart")
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Cart implements Serializable {
 
-    @Id
     private String id; // Format: tenant_id:user_id
 
     @NotBlank(message = "User ID is required")
@@ -66,8 +60,7 @@ public class Cart implements Serializable {
     @JsonProperty("expires_at")
     private LocalDateTime expiresAt;
 
-    @TimeToLive(unit = TimeUnit.DAYS)
-    private Long ttl = 7L; // 7 days TTL
+    private Long ttl = 7L; // TTL in days
 
     public Cart() {
         this.updatedAt = LocalDateTime.now();
@@ -1,39 +1,271 @@
 package com.ecommerce.cartservice.redis;
 
 import com.ecommerce.cartservice.model.Cart;
-import org.springframework.data.repository.CrudRepository;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
- * Redis repository for cart operations
+ * Redis repository for cart operations.
+ *
+ * Each cart is stored as one compact JSON string under {@code cart:<tenantId>:<userId>}, so a
+ * cart is read with a single GET and N carts with a single MGET. Bulk writes are pipelined and
+ * sweeps walk the keyspace with a SCAN cursor instead of blocking Redis with KEYS.
  */
 @Repository
-public interface CartRedisRepository extends CrudRepository<Cart, String> {
+public class CartRedisRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartRedisRepository.class);
+    public static final String CART_KEY_PREFIX = "cart:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${cart.redis.ttl-days:7}")
+    private long defaultTtlDays = 7;
+
+    @Autowired
+    public CartRedisRepository(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = createObjectMapper();
+    }
 
     /**
      * Find cart by tenant and user ID
      */
-    default Optional<Cart> findByTenantIdAndUserId(String tenantId, String userId) {
-        String cartId = Cart.generateCartId(tenantId, userId);
-        return findById(cartId);
+    public Optional<Cart> findByTenantIdAndUserId(String tenantId, String userId) {
+        return findById(Cart.generateCartId(tenantId, userId));
+    }
+
+    /**
+     * Find cart by cart ID
+     */
+    public Optional<Cart> findById(String cartId) {
+        // MGET rather than GET: it returns nil instead of failing on keys left in the old hash layout
+        return Optional.ofNullable(findAllById(List.of(cartId)).get(cartId));
+    }
+
+    /**
+     * Fetch several carts with one MGET. Missing or unreadable carts are left out of the result.
+     *
+     * @return carts keyed by cart ID, in request order
+     */
+    public Map<String, Cart> findAllById(Collection<String> cartIds) {
+        Map<String, Cart> carts = new LinkedHashMap<>();
+        if (cartIds.isEmpty()) {
+            return carts;
+        }
+
+        List<String> ids = new ArrayList<>(cartIds);
+        List<String> values = redisTemplate.opsForValue()
+            .multiGet(ids.stream().map(CartRedisRepository::cartKey).collect(Collectors.toList()));
+        if (values == null) {
+            return carts;
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            Cart cart = deserialize(ids.get(i), values.get(i));
+            if (cart != null) {
+                carts.put(ids.get(i), cart);
+            }
+        }
+        return carts;
+    }
+
+    /**
+     * Save cart and refresh its TTL
+     */
+    public Cart save(Cart cart) {
+        redisTemplate.opsForValue().set(cartKey(cart.getId()), serialize(cart), ttlDays(cart), TimeUnit.DAYS);
+        return cart;
+    }
+
+    /**
+     * Save several carts in one pipeline
+     */
+    public void saveAll(Collection<Cart> carts) {
+        if (carts.isEmpty()) {
+            return;
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Cart cart : carts) {
+                connection.stringCommands().set(
+                    cartKey(cart.getId()).getBytes(StandardCharsets.UTF_8),
+                    serialize(cart).getBytes(StandardCharsets.UTF_8),
+                    Expiration.from(ttlDays(cart), TimeUnit.DAYS),
+                    RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
     }
 
     /**
      * Delete cart by tenant and user ID
      */
-    default void deleteByTenantIdAndUserId(String tenantId, String userId) {
-        String cartId = Cart.generateCartId(tenantId, userId);
-        deleteById(cartId);
+    public void deleteByTenantIdAndUserId(String tenantId, String userId) {
+        deleteById(Cart.generateCartId(tenantId, userId));
+    }
+
+    /**
+     * Delete cart by cart ID
+     */
+    public void deleteById(String cartId) {
+        redisTemplate.delete(cartKey(cartId));
+    }
+
+    /**
+     * Delete several carts with a single DEL
+     */
+    public void deleteAllById(Collection<String> cartIds) {
+        if (cartIds.isEmpty()) {
+            return;
+        }
+        redisTemplate.delete(cartIds.stream().map(CartRedisRepository::cartKey).collect(Collectors.toList()));
+    }
+
+    /**
+     * Delete every cart, one SCAN batch at a time
+     */
+    public void deleteAll() {
+        scanCartIds(1000, this::deleteAllById);
     }
 
     /**
      * Check if cart exists by tenant and user ID
      */
-    default boolean existsByTenantIdAndUserId(String tenantId, String userId) {
-        String cartId = Cart.generateCartId(tenantId, userId);
-        return existsById(cartId);
+    public boolean existsByTenantIdAndUserId(String tenantId, String userId) {
+        return existsById(Cart.generateCartId(tenantId, userId));
+    }
+
+    /**
+     * Check if cart exists by cart ID
+     */
+    public boolean existsById(String cartId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(cartKey(cartId)));
+    }
+
+    /**
+     * Walk all cart IDs with a SCAN cursor, handing them to the consumer in batches of at most
+     * batchSize. SCAN may return a key more than once, so consumers must be idempotent.
+     */
+    public void scanCartIds(int batchSize, Consumer<List<String>> batchConsumer) {
+        ScanOptions options = ScanOptions.scanOptions()
+            .match(CART_KEY_PREFIX + "*")
+            .type(DataType.STRING)
+            .count(batchSize)
+            .build();
+
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String cartId = cartIdFromKey(cursor.next());
+                if (cartId == null) {
+                    continue;
+                }
+                batch.add(cartId);
+                if (batch.size() >= batchSize) {
+                    batchConsumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+        }
+    }
+
+    /**
+     * Walk all carts in batches: one SCAN page and one MGET per batch
+     */
+    public void forEachCartBatch(int batchSize, Consumer<Map<String, Cart>> batchConsumer) {
+        scanCartIds(batchSize, cartIds -> {
+            Map<String, Cart> carts = findAllById(cartIds);
+            if (!carts.isEmpty()) {
+                batchConsumer.accept(carts);
+            }
+        });
+    }
+
+    public static String cartKey(String cartId) {
+        return CART_KEY_PREFIX + cartId;
+    }
+
+    /**
+     * Extract the cart ID from a key of the form cart:tenantId:userId, or null if malformed
+     */
+    public static String cartIdFromKey(String key) {
+        if (key == null || !key.startsWith(CART_KEY_PREFIX)) {
+            return null;
+        }
+        String cartId = key.substring(CART_KEY_PREFIX.length());
+        int separator = cartId.indexOf(':');
+        return separator > 0 && separator < cartId.length() - 1 ? cartId : null;
+    }
+
+    private long ttlDays(Cart cart) {
+        return cart.getTtl() != null && cart.getTtl() > 0 ? cart.getTtl() : defaultTtlDays;
+    }
+
+    private String serialize(Cart cart) {
+        try {
+            return objectMapper.writeValueAsString(cart);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize cart: " + cart.getId(), e);
+        }
+    }
+
+    private Cart deserialize(String cartId, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            Cart cart = objectMapper.readValue(value, Cart.class);
+            cart.setId(cartId);
+            return cart;
+        } catch (JsonProcessingException e) {
+            logger.warn("Skipping unreadable cart value for cart: {}", cartId, e);
+            return null;
+        }
+    }
+
+    // Fields only: derived getters such as totals per item are not stored
+    private static ObjectMapper createObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.cartservice.repository;
+
+import com.ecommerce.cartservice.entity.ShoppingCartBackup;
+import com.ecommerce.cartservice.model.Cart;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC-batched writes for cart backups.
+ *
+ * Backups are keyed by the (tenant_id, user_id) unique constraint, so a batch of carts is written
+ * as upserts without first reading the existing rows through JPA.
+ */
+@Repository
+public class ShoppingCartBackupBatchRepository {
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO shopping_carts (tenant_id, user_id, cart_data, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE cart_data = VALUES(cart_data), updated_at = VALUES(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ShoppingCartBackupBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert or replace the backup of each cart in a single JDBC batch
+     */
+    public void upsertAll(Collection<Cart> carts) {
+        if (carts.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(carts.size());
+        for (Cart cart : carts) {
+            args.add(new Object[] {
+                cart.getTenantId(),
+                cart.getUserId(),
+                ShoppingCartBackup.toJson(cart),
+                now,
+                now
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+    }
+}
@@ -2,9 +2,12 @@ package com.ecommerce.cartservice.repository;
 
 import com.ecommerce.cartservice.entity.ShoppingCartBackup;
 import com.ecommerce.shared.security.repository.TenantAwareRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,12 @@ public interface ShoppingCartBackupRepository extends TenantAwareRepository<Shop
      */
     Optional<ShoppingCartBackup> findByTenantIdAndUserId(String tenantId, String userId);
 
+    /**
+     * Of the given users of one tenant, return those that have a cart backup
+     */
+    @Query("SELECT b.userId FROM ShoppingCartBackup b WHERE b.tenantId = :tenantId AND b.userId IN :userIds")
+    List<String> findBackedUpUserIds(@Param("tenantId") String tenantId, @Param("userIds") Collection<String> userIds);
+
     /**
      * Delete cart backup by tenant and user ID
      */
@@ -0,0 +1,252 @@
+package com.ecommerce.cartservice.service;
+
+import com.ecommerce.cartservice.model.Cart;
+import com.ecommerce.cartservice.redis.CartRedisRepository;
+import com.ecommerce.cartservice.repository.ShoppingCartBackupBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind MySQL backup for carts.
+ *
+ * Cart mutations only mark the cart dirty. Repeated mutations of the same cart before the next
+ * flush coalesce into a single write, and the flusher reads the latest state of each dirty cart
+ * from Redis with one MGET per batch and upserts the batch in one JDBC round trip. Flushes run on
+ * an interval and whenever a full batch is pending. When the bounded queue is full the caller
+ * flushes one batch inline, which slows mutations down rather than growing the queue without
+ * limit; if a flush is already running, the caller leaves it to that flush instead of waiting.
+ *
+ * Carts that still cannot be queued are picked up by the periodic Redis-to-MySQL sync in
+ * {@link CartCleanupService}.
+ */
+@Service
+public class CartBackupWriteBehindService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartBackupWriteBehindService.class);
+
+    private final CartRedisRepository cartRedisRepository;
+    private final ShoppingCartBackupBatchRepository backupBatchRepository;
+    private final Set<String> dirtyCartIds = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<String> queue;
+    // Carts taken by a flush that has not written them yet; guarded by its own monitor
+    private final Set<String> inFlightCartIds = new HashSet<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ExecutorService flushExecutor;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Counter flushedCounter;
+    private final Counter coalescedCounter;
+    private final Counter backPressureCounter;
+    private final Counter droppedCounter;
+    private final Counter flushFailureCounter;
+
+    @Value("${cart.backup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cart.backup.batch-size:100}")
+    private int batchSize = 100;
+
+    @Autowired
+    public CartBackupWriteBehindService(CartRedisRepository cartRedisRepository,
+                                        ShoppingCartBackupBatchRepository backupBatchRepository,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${cart.backup.max-pending:10000}") int maxPending) {
+        this.cartRedisRepository = cartRedisRepository;
+        this.backupBatchRepository = backupBatchRepository;
+        this.queue = new ArrayBlockingQueue<>(maxPending);
+        this.flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-backup-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushedCounter = Counter.builder("cart.backup.flushed")
+            .description("Cart backups written to MySQL")
+            .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("cart.backup.coalesced")
+            .description("Cart mutations folded into an already pending backup")
+            .register(meterRegistry);
+        this.backPressureCounter = Counter.builder("cart.backup.back_pressure")
+            .description("Cart mutations that flushed inline because the backup queue was full")
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder("cart.backup.dropped")
+            .description("Cart backups left to the periodic sync because the queue stayed full")
+            .register(meterRegistry);
+        this.flushFailureCounter = Counter.builder("cart.backup.flush_failures")
+            .description("Failed cart backup flushes")
+            .register(meterRegistry);
+        Gauge.builder("cart.backup.pending", queue, BlockingQueue::size)
+            .description("Carts waiting to be backed up to MySQL")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue a cart for backup. Must be called after the cart has been written to Redis.
+     */
+    public void markDirty(Cart cart) {
+        if (!enabled) {
+            return;
+        }
+
+        String cartId = cart.getId();
+        if (!dirtyCartIds.add(cartId)) {
+            coalescedCounter.increment();
+            return;
+        }
+
+        if (!queue.offer(cartId)) {
+            backPressureCounter.increment();
+            if (flushLock.tryLock()) {
+                try {
+                    flushBatch();
+                } finally {
+                    flushLock.unlock();
+                }
+            } else {
+                scheduleFlush();
+            }
+            if (!queue.offer(cartId)) {
+                dirtyCartIds.remove(cartId);
+                droppedCounter.increment();
+                logger.warn("Cart backup queue is full, leaving cart {} to the periodic sync", cartId);
+                return;
+            }
+        }
+
+        if (queue.size() >= batchSize) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Drop a pending backup, e.g. because the cart is being deleted. If a flush has already taken
+     * this cart, waits until that flush is done with it, so that a backup row deleted after this
+     * returns cannot be written again by the flush. Flushes of other carts are not waited for.
+     */
+    public void discard(String tenantId, String userId) {
+        String cartId = Cart.generateCartId(tenantId, userId);
+        synchronized (inFlightCartIds) {
+            while (inFlightCartIds.contains(cartId)) {
+                try {
+                    inFlightCartIds.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("Interrupted while waiting for the backup flush of cart {}", cartId);
+                    break;
+                }
+            }
+            // A failed flush puts the cart back in the queue, so it is only removed once the flush is done
+            if (dirtyCartIds.remove(cartId)) {
+                queue.remove(cartId);
+            }
+        }
+    }
+
+    /**
+     * Number of carts waiting to be backed up
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Write every pending cart to MySQL in batches
+     */
+    @Scheduled(fixedDelayString = "${cart.backup.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            while (!queue.isEmpty()) {
+                if (!flushBatch()) {
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Write one batch of pending carts; the caller holds the flush lock
+     *
+     * @return false if the batch failed and was put back in the queue
+     */
+    private boolean flushBatch() {
+        List<String> cartIds = new ArrayList<>(batchSize);
+        synchronized (inFlightCartIds) {
+            queue.drainTo(cartIds, batchSize);
+            inFlightCartIds.addAll(cartIds);
+        }
+        if (cartIds.isEmpty()) {
+            return true;
+        }
+
+        try {
+            // Clear the dirty flags before reading Redis so later mutations are queued again
+            cartIds.forEach(dirtyCartIds::remove);
+            Map<String, Cart> carts = cartRedisRepository.findAllById(cartIds);
+            backupBatchRepository.upsertAll(carts.values());
+            flushedCounter.increment(carts.size());
+            logger.debug("Flushed {} cart backups", carts.size());
+            return true;
+        } catch (Exception e) {
+            flushFailureCounter.increment();
+            logger.error("Failed to flush {} cart backups, will retry", cartIds.size(), e);
+            requeue(cartIds);
+            return false;
+        } finally {
+            synchronized (inFlightCartIds) {
+                inFlightCartIds.removeAll(cartIds);
+                inFlightCartIds.notifyAll();
+            }
+        }
+    }
+
+    private void requeue(List<String> cartIds) {
+        for (String cartId : cartIds) {
+            if (dirtyCartIds.add(cartId) && !queue.offer(cartId)) {
+                dirtyCartIds.remove(cartId);
+                droppedCounter.increment();
+            }
+        }
+    }
+}
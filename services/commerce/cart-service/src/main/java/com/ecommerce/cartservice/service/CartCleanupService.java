@@ -3,19 +3,31 @@ package com.ecommerce.cartservice.service;
 import com.ecommerce.cartservice.entity.ShoppingCartBackup;
 import com.ecommerce.cartservice.model.Cart;
 import com.ecommerce.cartservice.redis.CartRedisRepository;
+import com.ecommerce.cartservice.repository.ShoppingCartBackupBatchRepository;
 import com.ecommerce.cartservice.repository.ShoppingCartBackupRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * Service for cleaning up expired carts and maintaining cart data consistency
@@ -24,25 +36,28 @@ import java.util.Set;
 public class CartCleanupService {
 
     private static final Logger logger = LoggerFactory.getLogger(CartCleanupService.class);
-    private static final String CART_KEY_PATTERN = "cart:*";
     private static final String IDEMPOTENCY_KEY_PATTERN = "idempotency:*";
 
     private final CartRedisRepository cartRedisRepository;
     private final ShoppingCartBackupRepository cartBackupRepository;
+    private final ShoppingCartBackupBatchRepository backupBatchRepository;
     private final RedisTemplate<String, String> redisTemplate;
     
     @Value("${cart.cleanup.expired-days:7}")
     private int expiredDays;
     
+    // Number of carts per SCAN page, MGET, pipeline and backup batch
     @Value("${cart.cleanup.batch-size:100}")
     private int batchSize;
 
     @Autowired
     public CartCleanupService(CartRedisRepository cartRedisRepository,
                              ShoppingCartBackupRepository cartBackupRepository,
+                             ShoppingCartBackupBatchRepository backupBatchRepository,
                              RedisTemplate<String, String> redisTemplate) {
         this.cartRedisRepository = cartRedisRepository;
         this.cartBackupRepository = cartBackupRepository;
+        this.backupBatchRepository = backupBatchRepository;
         this.redisTemplate = redisTemplate;
     }
 
@@ -103,41 +118,22 @@ public class CartCleanupService {
     }
 
     /**
-     * Sync Redis carts to MySQL backup
+     * Sync Redis carts to MySQL backup, one SCAN/MGET batch at a time
      */
     @Scheduled(fixedRate = 1800000) // 30 minutes = 1800000 ms
     public void syncRedisCartsToBackup() {
         logger.debug("Starting sync of Redis carts to MySQL backup");
         
         try {
-            Set<String> cartKeys = redisTemplate.keys(CART_KEY_PATTERN);
-            if (cartKeys == null || cartKeys.isEmpty()) {
-                logger.debug("No Redis carts found to sync");
-                return;
-            }
-            
-            int syncedCount = 0;
-            for (String key : cartKeys) {
-                try {
-                    // Extract tenant and user from key format: cart:tenantId:userId
-                    String[] keyParts = key.split(":");
-                    if (keyParts.length >= 3) {
-                        String tenantId = keyParts[1];
-                        String userId = keyParts[2];
-                        
-                        // Get cart from Redis
-                        Cart cart = cartRedisRepository.findByTenantIdAndUserId(tenantId, userId).orElse(null);
-                        if (cart != null && !cart.getItems().isEmpty()) {
-                            syncCartToBackup(cart);
-                            syncedCount++;
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.warn("Failed to sync cart key: {}", key, e);
-                }
-            }
+            AtomicInteger syncedCount = new AtomicInteger();
+            cartRedisRepository.forEachCartBatch(batchSize, carts -> {
+                List<Cart> nonEmptyCarts = carts.values().stream()
+                    .filter(cart -> !cart.getItems().isEmpty())
+                    .collect(Collectors.toList());
+                syncedCount.addAndGet(syncBatchToBackup(nonEmptyCarts));
+            });
             
-            logger.debug("Sync completed: {} carts synced to backup", syncedCount);
+            logger.debug("Sync completed: {} carts synced to backup", syncedCount.get());
             
         } catch (Exception e) {
             logger.error("Error during Redis to MySQL sync", e);
@@ -151,21 +147,20 @@ public class CartCleanupService {
         List<ShoppingCartBackup> expiredBackups = cartBackupRepository.findByUpdatedAtBefore(cutoffDate);
         
         int deletedCount = 0;
-        for (ShoppingCartBackup backup : expiredBackups) {
+        for (int from = 0; from < expiredBackups.size(); from += batchSize) {
+            List<ShoppingCartBackup> batch = expiredBackups.subList(from, Math.min(from + batchSize, expiredBackups.size()));
             try {
-                // Remove from Redis if exists
-                cartRedisRepository.deleteByTenantIdAndUserId(backup.getTenantId(), backup.getUserId());
-                // Remove from MySQL
-                cartBackupRepository.delete(backup);
-                deletedCount++;
+                // Remove from Redis with one DEL, then from MySQL in one statement
+                cartRedisRepository.deleteAllById(batch.stream()
+                    .map(backup -> Cart.generateCartId(backup.getTenantId(), backup.getUserId()))
+                    .collect(Collectors.toList()));
+                cartBackupRepository.deleteAllInBatch(batch);
+                deletedCount += batch.size();
                 
-                if (deletedCount % batchSize == 0) {
-                    logger.debug("Processed {} expired backup carts", deletedCount);
-                }
+                logger.debug("Processed {} expired backup carts", deletedCount);
                 
             } catch (Exception e) {
-                logger.warn("Failed to delete expired backup cart for tenant {} user {}", 
-                           backup.getTenantId(), backup.getUserId(), e);
+                logger.warn("Failed to delete batch of {} expired backup carts", batch.size(), e);
             }
         }
         
@@ -176,89 +171,104 @@ public class CartCleanupService {
      * Clean up orphaned Redis carts (exist in Redis but not in MySQL)
      */
     private int cleanupOrphanedRedisCarts() {
-        Set<String> cartKeys = redisTemplate.keys(CART_KEY_PATTERN);
-        if (cartKeys == null || cartKeys.isEmpty()) {
-            return 0;
-        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1); // 1 day for Redis-only carts
+        AtomicInteger deletedCount = new AtomicInteger();
         
-        int deletedCount = 0;
-        for (String key : cartKeys) {
+        cartRedisRepository.forEachCartBatch(batchSize, carts -> {
             try {
-                // Extract tenant and user from key
-                String[] keyParts = key.split(":");
-                if (keyParts.length >= 3) {
-                    String tenantId = keyParts[1];
-                    String userId = keyParts[2];
+                List<String> orphanedCartIds = new ArrayList<>();
+                groupByTenant(carts.values()).forEach((tenantId, tenantCarts) -> {
+                    Set<String> backedUpUsers = new HashSet<>(cartBackupRepository.findBackedUpUserIds(tenantId,
+                        tenantCarts.stream().map(Cart::getUserId).collect(Collectors.toList())));
                     
-                    // Check if backup exists
-                    if (!cartBackupRepository.existsByTenantIdAndUserId(tenantId, userId)) {
-                        // Get cart to check if it's empty or very old
-                        Cart cart = cartRedisRepository.findByTenantIdAndUserId(tenantId, userId).orElse(null);
-                        if (cart != null) {
-                            LocalDateTime cartAge = cart.getUpdatedAt();
-                            LocalDateTime cutoff = LocalDateTime.now().minusDays(1); // 1 day for Redis-only carts
-                            
-                            if (cart.getItems().isEmpty() || (cartAge != null && cartAge.isBefore(cutoff))) {
-                                cartRedisRepository.deleteByTenantIdAndUserId(tenantId, userId);
-                                deletedCount++;
-                            }
+                    for (Cart cart : tenantCarts) {
+                        LocalDateTime cartAge = cart.getUpdatedAt();
+                        if (!backedUpUsers.contains(cart.getUserId()) &&
+                            (cart.getItems().isEmpty() || (cartAge != null && cartAge.isBefore(cutoff)))) {
+                            orphanedCartIds.add(cart.getId());
                         }
                     }
-                }
+                });
+                
+                cartRedisRepository.deleteAllById(orphanedCartIds);
+                deletedCount.addAndGet(orphanedCartIds.size());
             } catch (Exception e) {
-                logger.warn("Failed to process Redis cart key: {}", key, e);
+                logger.warn("Failed to process batch of {} Redis carts", carts.size(), e);
             }
-        }
+        });
         
-        return deletedCount;
+        return deletedCount.get();
     }
 
     /**
-     * Clean up expired idempotency keys
+     * Clean up expired idempotency keys, checking TTLs one pipelined batch at a time
      */
     private int cleanupExpiredIdempotencyKeys() {
-        Set<String> idempotencyKeys = redisTemplate.keys(IDEMPOTENCY_KEY_PATTERN);
-        if (idempotencyKeys == null || idempotencyKeys.isEmpty()) {
-            return 0;
-        }
-        
+        ScanOptions options = ScanOptions.scanOptions().match(IDEMPOTENCY_KEY_PATTERN).count(batchSize).build();
         int deletedCount = 0;
-        for (String key : idempotencyKeys) {
-            try {
-                // Check TTL - if no TTL set or very old, delete
-                Long ttl = redisTemplate.getExpire(key);
-                if (ttl != null && ttl <= 0) {
-                    redisTemplate.delete(key);
-                    deletedCount++;
+        
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= batchSize) {
+                    deletedCount += deleteIdempotencyKeysWithoutTtl(batch);
+                    batch = new ArrayList<>(batchSize);
                 }
-            } catch (Exception e) {
-                logger.warn("Failed to process idempotency key: {}", key, e);
             }
         }
+        if (!batch.isEmpty()) {
+            deletedCount += deleteIdempotencyKeysWithoutTtl(batch);
+        }
         
         return deletedCount;
     }
 
-    /**
-     * Sync individual cart to backup
-     */
-    private void syncCartToBackup(Cart cart) {
+    private int deleteIdempotencyKeysWithoutTtl(List<String> keys) {
         try {
-            ShoppingCartBackup existingBackup = cartBackupRepository
-                .findByTenantIdAndUserId(cart.getTenantId(), cart.getUserId())
-                .orElse(null);
+            List<Object> ttls = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : keys) {
+                    connection.keyCommands().ttl(key.getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
             
-            if (existingBackup != null) {
-                existingBackup.setCartData(cart);
-                cartBackupRepository.save(existingBackup);
-            } else {
-                ShoppingCartBackup newBackup = new ShoppingCartBackup(
-                    cart.getTenantId(), cart.getUserId(), cart);
-                cartBackupRepository.save(newBackup);
+            // Check TTL - if no TTL set or very old, delete
+            List<String> expiredKeys = new ArrayList<>();
+            for (int i = 0; i < keys.size() && i < ttls.size(); i++) {
+                if (ttls.get(i) instanceof Long ttl && ttl <= 0) {
+                    expiredKeys.add(keys.get(i));
+                }
+            }
+            if (!expiredKeys.isEmpty()) {
+                redisTemplate.delete(expiredKeys);
             }
+            return expiredKeys.size();
+        } catch (Exception e) {
+            logger.warn("Failed to process batch of {} idempotency keys", keys.size(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Upsert a batch of carts into the backup table in one JDBC batch
+     */
+    private int syncBatchToBackup(List<Cart> carts) {
+        if (carts.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            // Upserted on the (tenant_id, user_id) key, so existing backups are not read first
+            backupBatchRepository.upsertAll(carts);
+            return carts.size();
         } catch (Exception e) {
-            logger.warn("Failed to sync cart to backup for tenant {} user {}", 
-                       cart.getTenantId(), cart.getUserId(), e);
+            logger.warn("Failed to sync batch of {} carts to backup", carts.size(), e);
+            return 0;
         }
     }
-}
\ No newline at end of file
+
+    private Map<String, List<Cart>> groupByTenant(Collection<Cart> carts) {
+        return carts.stream().collect(Collectors.groupingBy(Cart::getTenantId, LinkedHashMap::new, Collectors.toList()));
+    }
+}
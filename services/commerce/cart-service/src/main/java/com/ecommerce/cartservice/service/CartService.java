@@ -34,6 +34,7 @@ public class CartService {
     private final CartValidationService validationService;
     private final IdempotencyService idempotencyService;
     private final BusinessMetricsCollector businessMetricsCollector;
+    private final CartBackupWriteBehindService backupWriteBehind;
 
     @Autowired
     public CartService(CartRedisRepository cartRedisRepository,
@@ -41,13 +42,15 @@ public class CartService {
                       CartCalculationService calculationService,
                       CartValidationService validationService,
                       IdempotencyService idempotencyService,
-                      BusinessMetricsCollector businessMetricsCollector) {
+                      BusinessMetricsCollector businessMetricsCollector,
+                      CartBackupWriteBehindService backupWriteBehind) {
         this.cartRedisRepository = cartRedisRepository;
         this.cartBackupRepository = cartBackupRepository;
         this.calculationService = calculationService;
         this.validationService = validationService;
         this.idempotencyService = idempotencyService;
         this.businessMetricsCollector = businessMetricsCollector;
+        this.backupWriteBehind = backupWriteBehind;
     }
 
     /**
@@ -128,9 +131,9 @@ public class CartService {
             cart.addItem(newItem);
             calculationService.calculateCartTotals(cart);
 
-            // Save to Redis and backup to MySQL
+            // Save to Redis and queue the MySQL backup
             Cart savedCart = cartRedisRepository.save(cart);
-            saveToBackup(savedCart);
+            backupWriteBehind.markDirty(savedCart);
 
             // Record business metrics
             businessMetricsCollector.recordCartOperation(tenantId, "add");
@@ -185,9 +188,9 @@ public class CartService {
             cart.updateItemQuantity(request.getProductId(), request.getSku(), request.getQuantity());
             calculationService.calculateCartTotals(cart);
 
-            // Save to Redis and backup to MySQL
+            // Save to Redis and queue the MySQL backup
             Cart savedCart = cartRedisRepository.save(cart);
-            saveToBackup(savedCart);
+            backupWriteBehind.markDirty(savedCart);
 
             // Record business metrics
             businessMetricsCollector.recordCartOperation(tenantId, "update");
@@ -225,9 +228,9 @@ public class CartService {
         cart.removeItem(productId, sku);
         calculationService.calculateCartTotals(cart);
 
-        // Save to Redis and backup to MySQL
+        // Save to Redis and queue the MySQL backup
         Cart savedCart = cartRedisRepository.save(cart);
-        saveToBackup(savedCart);
+        backupWriteBehind.markDirty(savedCart);
 
         // Record business metrics
         businessMetricsCollector.recordCartOperation(tenantId, "remove");
@@ -249,9 +252,9 @@ public class CartService {
         cart.clearItems();
         calculationService.calculateCartTotals(cart);
 
-        // Save to Redis and backup to MySQL
+        // Save to Redis and queue the MySQL backup
         cartRedisRepository.save(cart);
-        saveToBackup(cart);
+        backupWriteBehind.markDirty(cart);
 
         logger.info("Cleared cart for tenant: {} and user: {}", tenantId, userId);
     }
@@ -263,7 +266,9 @@ public class CartService {
     public void deleteCart(String tenantId, String userId) {
         logger.debug("Deleting cart for tenant: {} and user: {}", tenantId, userId);
 
-        // Delete from Redis
+        // Delete from Redis, dropping any pending backup first (waiting out a flush that already took
+        // it) so it cannot recreate the row
+        backupWriteBehind.discard(tenantId, userId);
         cartRedisRepository.deleteByTenantIdAndUserId(tenantId, userId);
         
         // Delete from MySQL backup
@@ -306,31 +311,4 @@ public class CartService {
         cart.setCurrency(response.getCurrency());
         return cart;
     }
-
-    /**
-     * Save cart to MySQL backup
-     */
-    private void saveToBackup(Cart cart) {
-        try {
-            Optional<ShoppingCartBackup> existingBackup = 
-                cartBackupRepository.findByTenantIdAndUserId(cart.getTenantId(), cart.getUserId());
-
-            if (existingBackup.isPresent()) {
-                ShoppingCartBackup backup = existingBackup.get();
-                backup.setCartData(cart);
-                cartBackupRepository.save(backup);
-            } else {
-                ShoppingCartBackup newBackup = new ShoppingCartBackup(
-                    cart.getTenantId(), cart.getUserId(), cart);
-                cartBackupRepository.save(newBackup);
-            }
-            
-            logger.debug("Saved cart backup for tenant: {} and user: {}", 
-                        cart.getTenantId(), cart.getUserId());
-        } catch (Exception e) {
-            logger.error("Failed to save cart backup for tenant: {} and user: {}", 
-                        cart.getTenantId(), cart.getUserId(), e);
-            // Don't fail the main operation if backup fails
-        }
-    }
 }
\ No newline at end of file
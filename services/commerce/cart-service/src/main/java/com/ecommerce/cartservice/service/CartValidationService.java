@@ -16,7 +16,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service for validating cart operations against external services
@@ -28,12 +35,15 @@ public class CartValidationService {
 
     private final ProductServiceGrpcClient productServiceGrpcClient;
     private final InventoryServiceGrpcClient inventoryServiceGrpcClient;
+    private final ProductNearCache productNearCache;
 
     @Autowired
     public CartValidationService(ProductServiceGrpcClient productServiceGrpcClient,
-                                InventoryServiceGrpcClient inventoryServiceGrpcClient) {
+                                InventoryServiceGrpcClient inventoryServiceGrpcClient,
+                                ProductNearCache productNearCache) {
         this.productServiceGrpcClient = productServiceGrpcClient;
         this.inventoryServiceGrpcClient = inventoryServiceGrpcClient;
+        this.productNearCache = productNearCache;
     }
 
     /**
@@ -70,7 +80,11 @@ public class CartValidationService {
     }
 
     /**
-     * Validate entire cart before checkout
+     * Validate entire cart before checkout.
+     *
+     * The inventory check for all items is sent first and runs while products are resolved from
+     * the near cache and one batched product lookup, so a checkout costs at most two round trips
+     * regardless of cart size.
      */
     public void validateCartForCheckout(String tenantId, Cart cart) {
         logger.debug("Validating cart for checkout in tenant {}", tenantId);
@@ -79,17 +93,29 @@ public class CartValidationService {
             throw new CartValidationException("Cart is empty");
         }
 
+        Map<String, Integer> quantityByProductId = new LinkedHashMap<>();
+        for (CartItem item : cart.getItems()) {
+            quantityByProductId.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        CompletableFuture<Map<String, InventoryCheckResponse>> availability =
+            inventoryServiceGrpcClient.checkAvailabilityBatch(quantityByProductId);
+
+        Map<String, ProductValidationResponse> products = getProducts(tenantId, quantityByProductId.keySet());
         for (CartItem item : cart.getItems()) {
             // Validate each product
-            ProductValidationResponse product = validateProduct(tenantId, item.getProductId(), item.getSku());
-            
+            ProductValidationResponse product = checkProduct(tenantId, products.get(item.getProductId()),
+                item.getProductId(), item.getSku());
+
             // Validate price hasn't changed significantly
             validatePrice(item.getUnitPrice(), product.getPrice(), item.getProductId());
-            
-            // Validate inventory availability
-            validateInventoryAvailability(tenantId, item.getProductId(), item.getQuantity());
         }
 
+        // Validate inventory availability
+        Map<String, InventoryCheckResponse> inventory = awaitAvailability(availability);
+        quantityByProductId.forEach((productId, quantity) ->
+            checkInventory(inventory.get(productId), productId, quantity));
+
         logger.debug("Cart validation for checkout passed");
     }
 
@@ -97,9 +123,46 @@ public class CartValidationService {
      * Validate product exists and is available for purchase
      */
     private ProductValidationResponse validateProduct(String tenantId, String productId, String sku) {
-        ProductValidationResponse product = productServiceGrpcClient.validateProduct(productId, sku);
-        
-        if (!product.isValid()) {
+        ProductValidationResponse product = productNearCache.getAll(tenantId, List.of(productId)).get(productId);
+        if (product == null) {
+            long generation = productNearCache.generation();
+            product = productServiceGrpcClient.validateProduct(productId, sku);
+            // The response echoes the requested SKU, so only a SKU-qualified answer describes the product
+            if (sku != null && !sku.isEmpty()) {
+                productNearCache.putAll(tenantId, List.of(product), generation);
+            }
+        }
+        return checkProduct(tenantId, product, productId, sku);
+    }
+
+    /**
+     * Resolve products from the near cache, loading the rest with one batched call
+     */
+    private Map<String, ProductValidationResponse> getProducts(String tenantId, Collection<String> productIds) {
+        Map<String, ProductValidationResponse> products = new HashMap<>(productNearCache.getAll(tenantId, productIds));
+
+        List<String> missing = new ArrayList<>();
+        for (String productId : productIds) {
+            if (!products.containsKey(productId)) {
+                missing.add(productId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long generation = productNearCache.generation();
+            List<ProductValidationResponse> loaded = productServiceGrpcClient.getProductsByIds(missing);
+            productNearCache.putAll(tenantId, loaded, generation);
+            for (ProductValidationResponse product : loaded) {
+                products.put(product.getProductId(), product);
+            }
+        }
+        return products;
+    }
+
+    private ProductValidationResponse checkProduct(String tenantId, ProductValidationResponse product,
+                                                   String productId, String sku) {
+        boolean skuMatches = product != null && (sku == null || sku.isEmpty() || sku.equals(product.getSku()));
+        if (product == null || !product.isValid() || !skuMatches) {
             logger.warn("Product {} with SKU {} not found for tenant {}", productId, sku, tenantId);
             throw new ProductNotAvailableException("Product not found: " + productId);
         }
@@ -140,13 +203,29 @@ public class CartValidationService {
      */
     private void validateInventoryAvailability(String tenantId, String productId, Integer requestedQuantity) {
         InventoryCheckResponse inventory = inventoryServiceGrpcClient.checkAvailability(productId, requestedQuantity);
-        
-        if (!inventory.isAvailable()) {
+        checkInventory(inventory, productId, requestedQuantity);
+    }
+
+    private void checkInventory(InventoryCheckResponse inventory, String productId, int requestedQuantity) {
+        int availableQuantity = inventory != null ? inventory.getAvailableQuantity() : 0;
+        if (inventory == null || !inventory.isAvailable()) {
             logger.warn("Insufficient inventory for product {}: requested={}, available={}", 
-                       productId, requestedQuantity, inventory.getAvailableQuantity());
+                       productId, requestedQuantity, availableQuantity);
             throw new InsufficientInventoryException(
                 String.format("Insufficient inventory for product %s. Available: %d, Requested: %d", 
-                             productId, inventory.getAvailableQuantity(), requestedQuantity));
+                             productId, availableQuantity, requestedQuantity));
+        }
+    }
+
+    private Map<String, InventoryCheckResponse> awaitAvailability(
+            CompletableFuture<Map<String, InventoryCheckResponse>> availability) {
+        try {
+            return availability.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new InsufficientInventoryException("Inventory check failed", e.getCause());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.ecommerce.cartservice.service;
+
+import com.ecommerce.cartservice.dto.ProductValidationResponse;
+import com.ecommerce.shared.utils.cache.BoundedTtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived, size-bounded local cache of product price and active status for cart validation.
+ *
+ * Entries expire after a few seconds and are dropped as soon as a product update or delete event
+ * arrives. Every invalidation bumps a generation counter; a lookup that started before an
+ * invalidation does not store its result, so a slow RPC cannot put stale data back.
+ */
+@Component
+public class ProductNearCache {
+
+    private final BoundedTtlCache<String, ProductValidationResponse> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    @Autowired
+    public ProductNearCache(@Value("${cart.validation.product-cache.ttl-ms:5000}") long ttlMillis,
+                            @Value("${cart.validation.product-cache.max-size:10000}") int maxSize,
+                            MeterRegistry meterRegistry) {
+        this(ttlMillis, maxSize, meterRegistry, System::nanoTime);
+    }
+
+    ProductNearCache(long ttlMillis, int maxSize, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.entries = new BoundedTtlCache<>(maxSize, ttlMillis * 1_000_000L, nanoClock, null);
+        this.hitCounter = Counter.builder("cart.product_cache.hits")
+            .description("Product lookups served from the cart near cache")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("cart.product_cache.misses")
+            .description("Product lookups that had to call product-service")
+            .register(meterRegistry);
+        Gauge.builder("cart.product_cache.size", entries, BoundedTtlCache::size)
+            .description("Products held in the cart near cache")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Current generation; pass it back to {@link #putAll} after loading missing products
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Look up the cached products of one tenant
+     *
+     * @return the products that were cached and still fresh, keyed by product ID
+     */
+    public Map<String, ProductValidationResponse> getAll(String tenantId, Collection<String> productIds) {
+        Map<String, ProductValidationResponse> found = new HashMap<>();
+        for (String productId : productIds) {
+            ProductValidationResponse product = entries.get(key(tenantId, productId));
+            if (product != null) {
+                found.put(productId, product);
+            }
+        }
+        hitCounter.increment(found.size());
+        missCounter.increment(productIds.size() - found.size());
+        return found;
+    }
+
+    /**
+     * Cache products fetched from product-service. Nothing is cached if a product event arrived
+     * during the fetch, because the response may predate it
+     */
+    public void putAll(String tenantId, Collection<ProductValidationResponse> products, long loadGeneration) {
+        if (generation.get() != loadGeneration) {
+            return;
+        }
+        for (ProductValidationResponse product : products) {
+            if (product.getProductId() != null && product.isValid()) {
+                entries.put(key(tenantId, product.getProductId()), product);
+            }
+        }
+    }
+
+    /**
+     * Drop a product, e.g. because it was updated or deleted
+     */
+    public void invalidate(String tenantId, String productId) {
+        generation.incrementAndGet();
+        entries.remove(key(tenantId, productId));
+    }
+
+    /**
+     * Drop every product
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String key(String tenantId, String productId) {
+        return tenantId + ":" + productId;
+    }
+}
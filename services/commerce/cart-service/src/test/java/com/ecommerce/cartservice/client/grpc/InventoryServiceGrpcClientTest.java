@@ -6,6 +6,7 @@ import com.ecommerce.inventoryservice.proto.InventoryServiceGrpc;
 import com.ecommerce.inventoryservice.proto.InventoryServiceProtos.*;
 import com.ecommerce.shared.grpc.GrpcContextUtils;
 import com.ecommerce.shared.proto.CommonProtos.TenantContext;
+import com.google.common.util.concurrent.Futures;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +17,10 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -26,6 +31,9 @@ class InventoryServiceGrpcClientTest {
     @Mock
     private InventoryServiceGrpc.InventoryServiceBlockingStub inventoryServiceStub;
 
+    @Mock
+    private InventoryServiceGrpc.InventoryServiceFutureStub inventoryServiceFutureStub;
+
     @InjectMocks
     private InventoryServiceGrpcClient inventoryServiceGrpcClient;
 
@@ -406,4 +414,65 @@ class InventoryServiceGrpcClientTest {
             verify(inventoryServiceStub).releaseInventory(any(ReleaseInventoryRequest.class));
         }
     }
+
+    @Test
+    void checkAvailabilityBatch_Success() throws Exception {
+        // Arrange
+        CheckAvailabilityBatchResponse grpcResponse = CheckAvailabilityBatchResponse.newBuilder()
+            .addItems(CheckAvailabilityResponse.newBuilder()
+                .setProductId("product1").setIsAvailable(true).setAvailableQuantity(10))
+            .addItems(CheckAvailabilityResponse.newBuilder()
+                .setProductId("product2").setIsAvailable(false).setAvailableQuantity(1))
+            .build();
+
+        try (MockedStatic<GrpcContextUtils> mockedStatic = mockStatic(GrpcContextUtils.class)) {
+            mockedStatic.when(GrpcContextUtils::createTenantContext).thenReturn(tenantContext);
+            mockedStatic.when(() -> GrpcContextUtils.withCurrentContext(inventoryServiceFutureStub))
+                .thenReturn(inventoryServiceFutureStub);
+
+            when(inventoryServiceFutureStub.withDeadlineAfter(anyLong(), any()))
+                .thenReturn(inventoryServiceFutureStub);
+            when(inventoryServiceFutureStub.checkAvailabilityBatch(any(CheckAvailabilityBatchRequest.class)))
+                .thenReturn(Futures.immediateFuture(grpcResponse));
+
+            // Act
+            Map<String, InventoryCheckResponse> result = inventoryServiceGrpcClient
+                .checkAvailabilityBatch(Map.of("product1", 2, "product2", 3)).get();
+
+            // Assert
+            assertTrue(result.get("product1").isAvailable());
+            assertEquals(2, result.get("product1").getRequestedQuantity());
+            assertFalse(result.get("product2").isAvailable());
+            assertEquals(1, result.get("product2").getAvailableQuantity());
+            verify(inventoryServiceFutureStub).checkAvailabilityBatch(
+                argThat((CheckAvailabilityBatchRequest request) -> request.getItemsCount() == 2));
+            verifyNoInteractions(inventoryServiceStub);
+        }
+    }
+
+    @Test
+    void checkAvailabilityBatch_ServiceUnavailable() {
+        // Arrange
+        StatusRuntimeException unavailableException = new StatusRuntimeException(Status.UNAVAILABLE.withDescription("Service unavailable"));
+
+        try (MockedStatic<GrpcContextUtils> mockedStatic = mockStatic(GrpcContextUtils.class)) {
+            mockedStatic.when(GrpcContextUtils::createTenantContext).thenReturn(tenantContext);
+            mockedStatic.when(() -> GrpcContextUtils.withCurrentContext(inventoryServiceFutureStub))
+                .thenReturn(inventoryServiceFutureStub);
+
+            when(inventoryServiceFutureStub.withDeadlineAfter(anyLong(), any()))
+                .thenReturn(inventoryServiceFutureStub);
+            when(inventoryServiceFutureStub.checkAvailabilityBatch(any(CheckAvailabilityBatchRequest.class)))
+                .thenReturn(Futures.immediateFailedFuture(unavailableException));
+
+            // Act
+            CompletableFuture<Map<String, InventoryCheckResponse>> result =
+                inventoryServiceGrpcClient.checkAvailabilityBatch(Map.of("product1", 2));
+
+            // Assert
+            ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(InsufficientInventoryException.class, exception.getCause());
+            assertTrue(exception.getCause().getMessage().contains("Service unavailable"));
+        }
+    }
 }
\ No newline at end of file
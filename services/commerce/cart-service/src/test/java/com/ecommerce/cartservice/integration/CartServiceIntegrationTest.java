@@ -5,6 +5,7 @@ import com.ecommerce.cartservice.entity.ShoppingCartBackup;
 import com.ecommerce.cartservice.model.Cart;
 import com.ecommerce.cartservice.redis.CartRedisRepository;
 import com.ecommerce.cartservice.repository.ShoppingCartBackupRepository;
+import com.ecommerce.cartservice.service.CartBackupWriteBehindService;
 import com.ecommerce.cartservice.service.CartService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -58,6 +59,9 @@ class CartServiceIntegrationTest {
     @Autowired
     private ShoppingCartBackupRepository cartBackupRepository;
 
+    @Autowired
+    private CartBackupWriteBehindService backupWriteBehind;
+
     private static final String TENANT_ID = "tenant1";
     private static final String USER_ID = "user1";
 
@@ -91,7 +95,8 @@ class CartServiceIntegrationTest {
         assertTrue(redisCart.isPresent());
         assertEquals(1, redisCart.get().getItems().size());
 
-        // 4. Verify backup exists in MySQL
+        // 4. Verify backup exists in MySQL once the write-behind queue is flushed
+        backupWriteBehind.flush();
         Optional<ShoppingCartBackup> backup = cartBackupRepository.findByTenantIdAndUserId(TENANT_ID, USER_ID);
         assertTrue(backup.isPresent());
         Cart backupCart = backup.get().getCartObject();
@@ -128,6 +133,7 @@ class CartServiceIntegrationTest {
         Cart originalCart = cartService.addToCart(TENANT_ID, USER_ID, addRequest);
         
         assertEquals(1, originalCart.getItems().size());
+        backupWriteBehind.flush();
 
         // 2. Simulate Redis failure by deleting from Redis only
         cartRedisRepository.deleteByTenantIdAndUserId(TENANT_ID, USER_ID);
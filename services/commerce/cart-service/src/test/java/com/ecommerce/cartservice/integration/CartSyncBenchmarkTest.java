@@ -0,0 +1,101 @@
+package com.ecommerce.cartservice.integration;
+
+import com.ecommerce.cartservice.model.Cart;
+import com.ecommerce.cartservice.model.CartItem;
+import com.ecommerce.cartservice.redis.CartRedisRepository;
+import com.ecommerce.cartservice.repository.ShoppingCartBackupRepository;
+import com.ecommerce.cartservice.service.CartCleanupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time to sync one million Redis carts to the MySQL backup table. Enabled with
+ * {@code -Dperformance.tests.enabled=true}; the sync rate is only printed, but every cart must
+ * reach the backup table.
+ */
+@SpringBootTest(properties = "cart.cleanup.batch-size=1000")
+@Testcontainers
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class CartSyncBenchmarkTest {
+
+    private static final String TENANT_ID = "bench-tenant";
+    private static final int CARTS = 1_000_000;
+    private static final int SEED_CHUNK = 10_000;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("cart_service_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.redis.host", redis::getHost);
+        registry.add("spring.redis.port", redis::getFirstMappedPort);
+    }
+
+    @Autowired
+    private CartCleanupService cartCleanupService;
+
+    @Autowired
+    private CartRedisRepository cartRedisRepository;
+
+    @Autowired
+    private ShoppingCartBackupRepository cartBackupRepository;
+
+    @BeforeEach
+    void setUp() {
+        cartRedisRepository.deleteAll();
+        cartBackupRepository.deleteAllInBatch();
+
+        long startNanos = System.nanoTime();
+        List<Cart> chunk = new ArrayList<>(SEED_CHUNK);
+        for (int i = 0; i < CARTS; i++) {
+            Cart cart = new Cart(TENANT_ID, "user" + i);
+            cart.addItem(new CartItem("product" + (i % 500), "SKU" + (i % 500), "Product", 1 + i % 3,
+                new BigDecimal("19.99")));
+            chunk.add(cart);
+            if (chunk.size() == SEED_CHUNK) {
+                cartRedisRepository.saveAll(chunk);
+                chunk = new ArrayList<>(SEED_CHUNK);
+            }
+        }
+        cartRedisRepository.saveAll(chunk);
+        System.out.printf("Seeded %,d carts in %,d ms%n", CARTS, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @Test
+    void syncOneMillionCarts() {
+        long startNanos = System.nanoTime();
+        cartCleanupService.syncRedisCartsToBackup();
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        System.out.printf("Synced %,d carts to backup in %,d ms (%,.0f carts/s)%n",
+            CARTS, elapsedMillis, CARTS / (elapsedMillis / 1000.0));
+        assertEquals(CARTS, cartBackupRepository.count());
+    }
+}
@@ -10,6 +10,7 @@ import com.ecommerce.cartservice.exception.CartValidationException;
 import com.ecommerce.cartservice.exception.InsufficientInventoryException;
 import com.ecommerce.cartservice.exception.ProductNotAvailableException;
 import com.ecommerce.cartservice.service.CartService;
+import com.ecommerce.cartservice.service.ProductNearCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +22,8 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -46,6 +49,9 @@ class CartValidationIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ProductNearCache productNearCache;
+
     private String tenantId;
     private String userId;
     private AddToCartRequest validRequest;
@@ -78,8 +84,9 @@ class CartValidationIntegrationTest {
         availableInventory.setAvailable(true);
         availableInventory.setRequestedQuantity(2);
 
-        // Clear Redis before each test
+        // Clear Redis and the product near cache before each test
         redisTemplate.getConnectionFactory().getConnection().flushAll();
+        productNearCache.invalidateAll();
     }
 
     @Test
@@ -217,16 +224,15 @@ class CartValidationIntegrationTest {
 
         // Reset mocks for validation call
         reset(productServiceGrpcClient, inventoryServiceGrpcClient);
-        when(productServiceGrpcClient.validateProduct("product123", "SKU123"))
-            .thenReturn(validProduct);
-        when(inventoryServiceGrpcClient.checkAvailability("product123", 2))
-            .thenReturn(availableInventory);
+        when(inventoryServiceGrpcClient.checkAvailabilityBatch(Map.of("product123", 2)))
+            .thenReturn(CompletableFuture.completedFuture(Map.of("product123", availableInventory)));
 
         // Act & Assert
         assertDoesNotThrow(() -> cartService.validateCartForCheckout(tenantId, userId));
 
-        verify(productServiceGrpcClient).validateProduct("product123", "SKU123");
-        verify(inventoryServiceGrpcClient).checkAvailability("product123", 2);
+        // Product comes from the near cache filled by addToCart; inventory is checked in one batch
+        verifyNoInteractions(productServiceGrpcClient);
+        verify(inventoryServiceGrpcClient).checkAvailabilityBatch(Map.of("product123", 2));
     }
 
     @Test
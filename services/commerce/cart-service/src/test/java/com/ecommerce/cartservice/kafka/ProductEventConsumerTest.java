@@ -0,0 +1,65 @@
+package com.ecommerce.cartservice.kafka;
+
+import com.ecommerce.cartservice.service.ProductNearCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductEventConsumerTest {
+
+    @Mock
+    private ProductNearCache productNearCache;
+
+    private ProductEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new ProductEventConsumer(productNearCache, new ObjectMapper());
+    }
+
+    @Test
+    void handleProductEvent_Updated_ShouldInvalidateProduct() {
+        // When
+        consumer.handleProductEvent(
+            "{\"eventType\":\"ProductUpdated\",\"tenantId\":\"tenant123\",\"productId\":\"product123\",\"price\":19.99}");
+
+        // Then
+        verify(productNearCache).invalidate("tenant123", "product123");
+    }
+
+    @Test
+    void handleProductEvent_Deleted_ShouldInvalidateProduct() {
+        // When
+        consumer.handleProductEvent(
+            "{\"eventType\":\"ProductDeleted\",\"tenantId\":\"tenant123\",\"productId\":\"product123\"}");
+
+        // Then
+        verify(productNearCache).invalidate("tenant123", "product123");
+    }
+
+    @Test
+    void handleProductEvent_Created_ShouldBeIgnored() {
+        // When
+        consumer.handleProductEvent(
+            "{\"eventType\":\"ProductCreated\",\"tenantId\":\"tenant123\",\"productId\":\"product123\"}");
+
+        // Then
+        verifyNoInteractions(productNearCache);
+    }
+
+    @Test
+    void handleProductEvent_UnreadablePayload_ShouldBeIgnored() {
+        // When
+        consumer.handleProductEvent("not-json");
+
+        // Then
+        verify(productNearCache, never()).invalidate(any(), any());
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.cartservice.redis;
+
+import com.ecommerce.cartservice.model.Cart;
+import com.ecommerce.cartservice.model.CartItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartRedisRepositoryTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @InjectMocks
+    private CartRedisRepository cartRedisRepository;
+
+    private static final String TENANT_ID = "tenant1";
+    private static final String USER_ID = "user1";
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void save_ThenFindById_ShouldRoundTripCompactValue() {
+        // Given
+        Cart cart = new Cart(TENANT_ID, USER_ID);
+        cart.addItem(new CartItem("product1", "SKU1", "Product 1", 2, new BigDecimal("10.00")));
+        ArgumentCaptor<String> value = ArgumentCaptor.forClass(String.class);
+
+        // When
+        cartRedisRepository.save(cart);
+
+        // Then
+        verify(valueOperations).set(eq("cart:tenant1:user1"), value.capture(), eq(7L), eq(TimeUnit.DAYS));
+        assertTrue(value.getValue().contains("\"product_id\":\"product1\""));
+        assertFalse(value.getValue().contains("total_price"));
+        assertFalse(value.getValue().contains("@class"));
+
+        when(valueOperations.multiGet(List.of("cart:tenant1:user1"))).thenReturn(List.of(value.getValue()));
+        Optional<Cart> found = cartRedisRepository.findByTenantIdAndUserId(TENANT_ID, USER_ID);
+        assertTrue(found.isPresent());
+        assertEquals("tenant1:user1", found.get().getId());
+        assertEquals(1, found.get().getItems().size());
+        assertEquals(2, found.get().getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void findAllById_ShouldUseSingleMgetAndSkipMissingOrUnreadableCarts() {
+        // Given
+        String cartJson = "{\"user_id\":\"user1\",\"tenant_id\":\"tenant1\",\"items\":[]}";
+        when(valueOperations.multiGet(List.of("cart:tenant1:user1", "cart:tenant1:user2", "cart:tenant1:user3")))
+            .thenReturn(Arrays.asList(cartJson, null, "not-json"));
+
+        // When
+        Map<String, Cart> carts = cartRedisRepository.findAllById(
+            List.of("tenant1:user1", "tenant1:user2", "tenant1:user3"));
+
+        // Then
+        assertEquals(List.of("tenant1:user1"), new ArrayList<>(carts.keySet()));
+        verify(valueOperations, times(1)).multiGet(anyCollection());
+    }
+
+    @Test
+    void scanCartIds_ShouldHandOutFixedSizeBatchesAndSkipMalformedKeys() {
+        // Given
+        givenScanKeys("cart:t1:u1", "cart:t1:u2", "cart:malformed", "cart:t1:u3");
+        List<List<String>> batches = new ArrayList<>();
+
+        // When
+        cartRedisRepository.scanCartIds(2, batches::add);
+
+        // Then
+        assertEquals(List.of(List.of("t1:u1", "t1:u2"), List.of("t1:u3")), batches);
+        verify(redisTemplate, never()).keys(anyString());
+    }
+
+    @Test
+    void cartIdFromKey_ShouldParseTenantAndUser() {
+        assertEquals("tenant1:user1", CartRedisRepository.cartIdFromKey("cart:tenant1:user1"));
+        assertNull(CartRedisRepository.cartIdFromKey("cart:tenant1"));
+        assertNull(CartRedisRepository.cartIdFromKey("cart:tenant1:"));
+        assertNull(CartRedisRepository.cartIdFromKey("invalid:key"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenScanKeys(String... keys) {
+        Cursor<String> cursor = mock(Cursor.class);
+        Iterator<String> iterator = Arrays.asList(keys).iterator();
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+    }
+}
@@ -0,0 +1,221 @@
+package com.ecommerce.cartservice.service;
+
+import com.ecommerce.cartservice.model.Cart;
+import com.ecommerce.cartservice.redis.CartRedisRepository;
+import com.ecommerce.cartservice.repository.ShoppingCartBackupBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartBackupWriteBehindServiceTest {
+
+    @Mock
+    private CartRedisRepository cartRedisRepository;
+
+    @Mock
+    private ShoppingCartBackupBatchRepository backupBatchRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CartBackupWriteBehindService writeBehind;
+
+    private static final String TENANT_ID = "tenant1";
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehind = new CartBackupWriteBehindService(cartRedisRepository, backupBatchRepository, meterRegistry, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeBehind.shutdown();
+    }
+
+    @Test
+    void markDirty_RepeatedMutations_ShouldCoalesceIntoOneWrite() {
+        // Given
+        Cart cart = new Cart(TENANT_ID, "user1");
+        when(cartRedisRepository.findAllById(List.of("tenant1:user1"))).thenReturn(Map.of("tenant1:user1", cart));
+
+        // When
+        writeBehind.markDirty(cart);
+        writeBehind.markDirty(cart);
+        writeBehind.markDirty(cart);
+        writeBehind.flush();
+
+        // Then
+        verify(cartRedisRepository).findAllById(List.of("tenant1:user1"));
+        verify(backupBatchRepository).upsertAll(argThat(carts -> carts.size() == 1));
+        assertEquals(2.0, meterRegistry.counter("cart.backup.coalesced").count());
+        assertEquals(0, writeBehind.getPendingCount());
+    }
+
+    @Test
+    void markDirty_AfterFlush_ShouldQueueCartAgain() {
+        // Given
+        Cart cart = new Cart(TENANT_ID, "user1");
+        when(cartRedisRepository.findAllById(anyCollection())).thenReturn(Map.of("tenant1:user1", cart));
+        writeBehind.markDirty(cart);
+        writeBehind.flush();
+
+        // When
+        writeBehind.markDirty(cart);
+
+        // Then
+        assertEquals(1, writeBehind.getPendingCount());
+    }
+
+    @Test
+    void markDirty_WhenQueueIsFull_ShouldFlushInline() {
+        // Given - the queue holds two carts
+        when(cartRedisRepository.findAllById(anyCollection())).thenReturn(Map.of());
+        writeBehind.markDirty(new Cart(TENANT_ID, "user1"));
+        writeBehind.markDirty(new Cart(TENANT_ID, "user2"));
+
+        // When
+        writeBehind.markDirty(new Cart(TENANT_ID, "user3"));
+
+        // Then
+        verify(cartRedisRepository, atLeastOnce()).findAllById(anyCollection());
+        assertEquals(1.0, meterRegistry.counter("cart.backup.back_pressure").count());
+        assertEquals(0.0, meterRegistry.counter("cart.backup.dropped").count());
+    }
+
+    @Test
+    void flush_WhenUpsertFails_ShouldKeepCartsPending() {
+        // Given
+        Cart cart = new Cart(TENANT_ID, "user1");
+        when(cartRedisRepository.findAllById(anyCollection())).thenReturn(Map.of("tenant1:user1", cart));
+        doThrow(new DataAccessResourceFailureException("MySQL unavailable"))
+            .when(backupBatchRepository).upsertAll(anyCollection());
+        writeBehind.markDirty(cart);
+
+        // When
+        writeBehind.flush();
+
+        // Then
+        assertEquals(1, writeBehind.getPendingCount());
+        assertEquals(1.0, meterRegistry.counter("cart.backup.flush_failures").count());
+    }
+
+    @Test
+    void discard_ShouldDropPendingBackup() {
+        // Given
+        writeBehind.markDirty(new Cart(TENANT_ID, "user1"));
+
+        // When
+        writeBehind.discard(TENANT_ID, "user1");
+        writeBehind.flush();
+
+        // Then
+        assertEquals(0, writeBehind.getPendingCount());
+        verify(backupBatchRepository, never()).upsertAll(any(Collection.class));
+    }
+
+    @Test
+    void discard_DuringFlush_ShouldWaitUntilTheFlushHasWritten() throws Exception {
+        // Given - a flush that has taken the cart and is blocked writing it
+        Cart cart = new Cart(TENANT_ID, "user1");
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(cartRedisRepository.findAllById(anyCollection())).thenReturn(Map.of("tenant1:user1", cart));
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).when(backupBatchRepository).upsertAll(anyCollection());
+        writeBehind.markDirty(cart);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> flush = executor.submit(writeBehind::flush);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // When
+        Future<?> discard = executor.submit(() -> writeBehind.discard(TENANT_ID, "user1"));
+
+        // Then - the caller only deletes the backup row once the upsert is done
+        assertThrows(TimeoutException.class, () -> discard.get(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        discard.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    void discard_DuringFlushOfAnotherCart_ShouldNotWait() throws Exception {
+        // Given - a flush that has taken user1's cart and is blocked writing it
+        Cart cart = new Cart(TENANT_ID, "user1");
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(cartRedisRepository.findAllById(anyCollection())).thenReturn(Map.of("tenant1:user1", cart));
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).when(backupBatchRepository).upsertAll(anyCollection());
+        writeBehind.markDirty(cart);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> flush = executor.submit(writeBehind::flush);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        writeBehind.markDirty(new Cart(TENANT_ID, "user2"));
+
+        // When
+        Future<?> discard = executor.submit(() -> writeBehind.discard(TENANT_ID, "user2"));
+
+        // Then - user2 is dropped while user1 is still being written
+        discard.get(5, TimeUnit.SECONDS);
+        assertEquals(0, writeBehind.getPendingCount());
+        release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    void markDirty_WhenQueueIsFullDuringFlush_ShouldNotWaitForTheFlush() throws Exception {
+        // Given - a flush blocked writing user1 while two more carts fill the queue
+        Cart cart = new Cart(TENANT_ID, "user1");
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(cartRedisRepository.findAllById(anyCollection())).thenReturn(Map.of("tenant1:user1", cart));
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).when(backupBatchRepository).upsertAll(anyCollection());
+        writeBehind.markDirty(cart);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> flush = executor.submit(writeBehind::flush);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        writeBehind.markDirty(new Cart(TENANT_ID, "user2"));
+        writeBehind.markDirty(new Cart(TENANT_ID, "user3"));
+
+        // When
+        Future<?> mutation = executor.submit(() -> writeBehind.markDirty(new Cart(TENANT_ID, "user4")));
+
+        // Then - the mutation returns at once and leaves its cart to the periodic sync
+        mutation.get(5, TimeUnit.SECONDS);
+        assertEquals(1.0, meterRegistry.counter("cart.backup.dropped").count());
+        release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+}
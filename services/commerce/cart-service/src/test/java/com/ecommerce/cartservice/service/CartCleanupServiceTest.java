@@ -2,7 +2,9 @@ package com.ecommerce.cartservice.service;
 
 import com.ecommerce.cartservice.entity.ShoppingCartBackup;
 import com.ecommerce.cartservice.model.Cart;
+import com.ecommerce.cartservice.model.CartItem;
 import com.ecommerce.cartservice.redis.CartRedisRepository;
+import com.ecommerce.cartservice.repository.ShoppingCartBackupBatchRepository;
 import com.ecommerce.cartservice.repository.ShoppingCartBackupRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,16 +12,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +40,9 @@ class CartCleanupServiceTest {
     @Mock
     private ShoppingCartBackupRepository cartBackupRepository;
 
+    @Mock
+    private ShoppingCartBackupBatchRepository backupBatchRepository;
+
     @Mock
     private RedisTemplate<String, String> redisTemplate;
 
@@ -65,23 +76,44 @@ class CartCleanupServiceTest {
     void cleanupExpiredCarts_Success() {
         // Arrange
         List<ShoppingCartBackup> expiredBackups = Arrays.asList(expiredBackup);
-        Set<String> cartKeys = new HashSet<>(Arrays.asList("cart:tenant123:user123"));
-        Set<String> idempotencyKeys = new HashSet<>(Arrays.asList("idempotency:tenant123:user123:key1"));
+        givenIdempotencyKeys("idempotency:tenant123:user123:key1");
 
         when(cartBackupRepository.findByUpdatedAtBefore(any(LocalDateTime.class)))
             .thenReturn(expiredBackups);
-        when(redisTemplate.keys("cart:*")).thenReturn(cartKeys);
-        when(redisTemplate.keys("idempotency:*")).thenReturn(idempotencyKeys);
-        when(cartBackupRepository.existsByTenantIdAndUserId(tenantId, userId)).thenReturn(true);
-        when(redisTemplate.getExpire("idempotency:tenant123:user123:key1")).thenReturn(-1L);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(-1L));
 
         // Act
         cleanupService.cleanupExpiredCarts();
 
         // Assert
-        verify(cartRedisRepository).deleteByTenantIdAndUserId(tenantId, userId);
-        verify(cartBackupRepository).delete(expiredBackup);
-        verify(redisTemplate).delete("idempotency:tenant123:user123:key1");
+        verify(cartRedisRepository).deleteAllById(List.of("tenant123:user123"));
+        verify(cartBackupRepository).deleteAllInBatch(expiredBackups);
+        verify(redisTemplate).delete(List.of("idempotency:tenant123:user123:key1"));
+    }
+
+    @Test
+    void cleanupExpiredCarts_DeletesOrphanedRedisCartsInOneCall() {
+        // Arrange
+        Cart backedUpCart = new Cart(tenantId, userId);
+        backedUpCart.setUpdatedAt(LocalDateTime.now().minusDays(2));
+        Cart staleOrphan = new Cart(tenantId, "user456");
+        staleOrphan.addItem(new CartItem("product1", "SKU1", "Product 1", 1, new BigDecimal("10.00")));
+        staleOrphan.setUpdatedAt(LocalDateTime.now().minusDays(2));
+        Cart emptyOrphan = new Cart(tenantId, "user789");
+        Cart freshOrphan = new Cart(tenantId, "user999");
+        freshOrphan.addItem(new CartItem("product1", "SKU1", "Product 1", 1, new BigDecimal("10.00")));
+        givenRedisCarts(backedUpCart, staleOrphan, emptyOrphan, freshOrphan);
+        givenIdempotencyKeys();
+
+        when(cartBackupRepository.findByUpdatedAtBefore(any(LocalDateTime.class))).thenReturn(List.of());
+        when(cartBackupRepository.findBackedUpUserIds(eq(tenantId), anyCollection())).thenReturn(List.of(userId));
+
+        // Act
+        cleanupService.cleanupExpiredCarts();
+
+        // Assert
+        verify(cartRedisRepository).deleteAllById(List.of("tenant123:user456", "tenant123:user789"));
+        verify(cartBackupRepository, times(1)).findBackedUpUserIds(eq(tenantId), anyCollection());
     }
 
     @Test
@@ -102,73 +134,78 @@ class CartCleanupServiceTest {
     @Test
     void syncRedisCartsToBackup_Success() {
         // Arrange
-        Set<String> cartKeys = new HashSet<>(Arrays.asList("cart:tenant123:user123"));
-        when(redisTemplate.keys("cart:*")).thenReturn(cartKeys);
-        when(cartRedisRepository.findByTenantIdAndUserId(tenantId, userId))
-            .thenReturn(Optional.of(cart));
-        when(cartBackupRepository.findByTenantIdAndUserId(tenantId, userId))
-            .thenReturn(Optional.empty());
+        cart.addItem(new CartItem("product1", "SKU1", "Product 1", 1, new BigDecimal("10.00")));
+        givenRedisCarts(cart);
 
         // Act
         cleanupService.syncRedisCartsToBackup();
 
-        // Assert
-        verify(cartRedisRepository).findByTenantIdAndUserId(tenantId, userId);
-        verify(cartBackupRepository).save(any(ShoppingCartBackup.class));
+        // Assert - upserted without reading the existing backups
+        verify(cartRedisRepository).forEachCartBatch(eq(100), any());
+        verify(backupBatchRepository).upsertAll(List.of(cart));
+        verifyNoInteractions(cartBackupRepository);
     }
 
     @Test
     void syncRedisCartsToBackup_EmptyCart_SkipsSync() {
         // Arrange
-        Set<String> cartKeys = new HashSet<>(Arrays.asList("cart:tenant123:user123"));
         Cart emptyCart = new Cart(tenantId, userId);
-        
-        when(redisTemplate.keys("cart:*")).thenReturn(cartKeys);
-        when(cartRedisRepository.findByTenantIdAndUserId(tenantId, userId))
-            .thenReturn(Optional.of(emptyCart));
+        givenRedisCarts(emptyCart);
 
         // Act
         cleanupService.syncRedisCartsToBackup();
 
         // Assert
-        verify(cartRedisRepository).findByTenantIdAndUserId(tenantId, userId);
-        verifyNoInteractions(cartBackupRepository);
+        verify(cartRedisRepository).forEachCartBatch(eq(100), any());
+        verifyNoInteractions(backupBatchRepository);
     }
 
     @Test
     void syncRedisCartsToBackup_NoRedisKeys_DoesNothing() {
+        // Act
+        cleanupService.syncRedisCartsToBackup();
+
+        // Assert
+        verify(cartRedisRepository).forEachCartBatch(eq(100), any());
+        verify(redisTemplate, never()).keys(anyString());
+        verifyNoInteractions(backupBatchRepository);
+    }
+
+    @Test
+    void syncRedisCartsToBackup_SeveralTenants_UpsertsBatchOnce() {
         // Arrange
-        when(redisTemplate.keys("cart:*")).thenReturn(null);
+        Cart otherCart = new Cart("tenant456", "user456");
+        otherCart.addItem(new CartItem("product1", "SKU1", "Product 1", 1, new BigDecimal("10.00")));
+        cart.addItem(new CartItem("product1", "SKU1", "Product 1", 1, new BigDecimal("10.00")));
+        givenRedisCarts(cart, otherCart);
 
         // Act
         cleanupService.syncRedisCartsToBackup();
 
         // Assert
-        verify(redisTemplate).keys("cart:*");
-        verifyNoInteractions(cartRedisRepository);
-        verifyNoInteractions(cartBackupRepository);
+        verify(backupBatchRepository, times(1)).upsertAll(List.of(cart, otherCart));
     }
 
     @Test
-    void syncRedisCartsToBackup_UpdateExistingBackup() {
+    void syncRedisCartsToBackup_BatchFailure_ContinuesWithNextBatch() {
         // Arrange
-        Set<String> cartKeys = new HashSet<>(Arrays.asList("cart:tenant123:user123"));
-        ShoppingCartBackup existingBackup = new ShoppingCartBackup();
-        existingBackup.setTenantId(tenantId);
-        existingBackup.setUserId(userId);
-
-        when(redisTemplate.keys("cart:*")).thenReturn(cartKeys);
-        when(cartRedisRepository.findByTenantIdAndUserId(tenantId, userId))
-            .thenReturn(Optional.of(cart));
-        when(cartBackupRepository.findByTenantIdAndUserId(tenantId, userId))
-            .thenReturn(Optional.of(existingBackup));
+        Cart otherCart = new Cart("tenant456", "user456");
+        otherCart.addItem(new CartItem("product1", "SKU1", "Product 1", 1, new BigDecimal("10.00")));
+        cart.addItem(new CartItem("product1", "SKU1", "Product 1", 1, new BigDecimal("10.00")));
+
+        doAnswer(invocation -> {
+            Consumer<Map<String, Cart>> consumer = invocation.getArgument(1);
+            consumer.accept(Map.of(cart.getId(), cart));
+            consumer.accept(Map.of(otherCart.getId(), otherCart));
+            return null;
+        }).when(cartRedisRepository).forEachCartBatch(anyInt(), any());
+        doThrow(new RuntimeException("Database error")).when(backupBatchRepository).upsertAll(List.of(cart));
 
         // Act
         cleanupService.syncRedisCartsToBackup();
 
         // Assert
-        verify(cartRedisRepository).findByTenantIdAndUserId(tenantId, userId);
-        verify(cartBackupRepository).save(existingBackup);
+        verify(backupBatchRepository).upsertAll(List.of(otherCart));
     }
 
     @Test
@@ -199,23 +236,24 @@ class CartCleanupServiceTest {
         // Verify that the method completes despite the exception
     }
 
-    @Test
-    void syncRedisCartsToBackup_HandlesInvalidKey() {
-        // Arrange
-        Set<String> cartKeys = new HashSet<>(Arrays.asList("invalid:key", "cart:tenant123:user123"));
-        
-        when(redisTemplate.keys("cart:*")).thenReturn(cartKeys);
-        when(cartRedisRepository.findByTenantIdAndUserId(tenantId, userId))
-            .thenReturn(Optional.of(cart));
-        when(cartBackupRepository.findByTenantIdAndUserId(tenantId, userId))
-            .thenReturn(Optional.empty());
-
-        // Act
-        cleanupService.syncRedisCartsToBackup();
+    private void givenRedisCarts(Cart... carts) {
+        doAnswer(invocation -> {
+            Consumer<Map<String, Cart>> consumer = invocation.getArgument(1);
+            Map<String, Cart> batch = new LinkedHashMap<>();
+            for (Cart redisCart : carts) {
+                batch.put(redisCart.getId(), redisCart);
+            }
+            consumer.accept(batch);
+            return null;
+        }).when(cartRedisRepository).forEachCartBatch(anyInt(), any());
+    }
 
-        // Assert
-        verify(cartRedisRepository).findByTenantIdAndUserId(tenantId, userId);
-        verify(cartBackupRepository).save(any(ShoppingCartBackup.class));
-        // Invalid key should be skipped without causing issues
+    @SuppressWarnings("unchecked")
+    private void givenIdempotencyKeys(String... keys) {
+        Cursor<String> cursor = mock(Cursor.class);
+        Iterator<String> iterator = Arrays.asList(keys).iterator();
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        lenient().when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
     }
-}
\ No newline at end of file
+}
@@ -45,6 +45,9 @@ class CartServiceTest {
     @Mock
     private BusinessMetricsCollector businessMetricsCollector;
 
+    @Mock
+    private CartBackupWriteBehindService backupWriteBehind;
+
     private CartService cartService;
 
     private static final String TENANT_ID = "tenant1";
@@ -53,7 +56,8 @@ class CartServiceTest {
     @BeforeEach
     void setUp() {
         cartService = new CartService(cartRedisRepository, cartBackupRepository, calculationService, 
-                                     validationService, idempotencyService, businessMetricsCollector);
+                                     validationService, idempotencyService, businessMetricsCollector,
+                                     backupWriteBehind);
     }
 
     @Test
@@ -145,7 +149,8 @@ class CartServiceTest {
         verify(calculationService).validateCartItem(any(CartItem.class));
         verify(calculationService, times(2)).calculateCartTotals(any(Cart.class));
         verify(cartRedisRepository).save(any(Cart.class));
-        verify(cartBackupRepository).save(any(ShoppingCartBackup.class));
+        verify(backupWriteBehind).markDirty(any(Cart.class));
+        verify(cartBackupRepository, never()).save(any(ShoppingCartBackup.class));
     }
 
     @Test
@@ -192,7 +197,8 @@ class CartServiceTest {
         verify(validationService).validateCartItemUpdate(TENANT_ID, "product1", "sku1", 5);
         verify(calculationService, times(2)).calculateCartTotals(any(Cart.class));
         verify(cartRedisRepository).save(any(Cart.class));
-        verify(cartBackupRepository).save(any(ShoppingCartBackup.class));
+        verify(backupWriteBehind).markDirty(any(Cart.class));
+        verify(cartBackupRepository, never()).save(any(ShoppingCartBackup.class));
     }
 
     @Test
@@ -215,7 +221,8 @@ class CartServiceTest {
         
         verify(calculationService, times(2)).calculateCartTotals(any(Cart.class));
         verify(cartRedisRepository).save(any(Cart.class));
-        verify(cartBackupRepository).save(any(ShoppingCartBackup.class));
+        verify(backupWriteBehind).markDirty(any(Cart.class));
+        verify(cartBackupRepository, never()).save(any(ShoppingCartBackup.class));
     }
 
     @Test
@@ -237,7 +244,8 @@ class CartServiceTest {
         
         verify(calculationService, times(2)).calculateCartTotals(any(Cart.class));
         verify(cartRedisRepository).save(any(Cart.class));
-        verify(cartBackupRepository).save(any(ShoppingCartBackup.class));
+        verify(backupWriteBehind).markDirty(any(Cart.class));
+        verify(cartBackupRepository, never()).save(any(ShoppingCartBackup.class));
     }
 
     @Test
@@ -246,6 +254,7 @@ class CartServiceTest {
         cartService.deleteCart(TENANT_ID, USER_ID);
 
         // Then
+        verify(backupWriteBehind).discard(TENANT_ID, USER_ID);
         verify(cartRedisRepository).deleteByTenantIdAndUserId(TENANT_ID, USER_ID);
         verify(cartBackupRepository).deleteByTenantIdAndUserId(TENANT_ID, USER_ID);
     }
@@ -10,14 +10,18 @@ import com.ecommerce.cartservice.exception.InsufficientInventoryException;
 import com.ecommerce.cartservice.exception.ProductNotAvailableException;
 import com.ecommerce.cartservice.model.Cart;
 import com.ecommerce.cartservice.model.CartItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,7 +36,7 @@ class CartValidationServiceTest {
     @Mock
     private InventoryServiceGrpcClient inventoryServiceGrpcClient;
 
-    @InjectMocks
+    private ProductNearCache productNearCache;
     private CartValidationService validationService;
 
     private String tenantId;
@@ -42,6 +46,9 @@ class CartValidationServiceTest {
 
     @BeforeEach
     void setUp() {
+        productNearCache = new ProductNearCache(5000, 100, new SimpleMeterRegistry());
+        validationService = new CartValidationService(productServiceGrpcClient, inventoryServiceGrpcClient,
+            productNearCache);
         tenantId = "tenant123";
         
         validRequest = new AddToCartRequest();
@@ -198,16 +205,140 @@ class CartValidationServiceTest {
         CartItem item = new CartItem("product123", "SKU123", "Test Product", 2, new BigDecimal("29.99"));
         cart.addItem(item);
 
+        when(productServiceGrpcClient.getProductsByIds(List.of("product123")))
+            .thenReturn(List.of(validProduct));
+        when(inventoryServiceGrpcClient.checkAvailabilityBatch(Map.of("product123", 2)))
+            .thenReturn(CompletableFuture.completedFuture(Map.of("product123", availableInventory)));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> validationService.validateCartForCheckout(tenantId, cart));
+
+        verify(productServiceGrpcClient).getProductsByIds(List.of("product123"));
+        verify(inventoryServiceGrpcClient).checkAvailabilityBatch(Map.of("product123", 2));
+        verify(productServiceGrpcClient, never()).validateProduct(anyString(), anyString());
+        verify(inventoryServiceGrpcClient, never()).checkAvailability(anyString(), anyInt());
+    }
+
+    @Test
+    void validateCartForCheckout_ManyItems_UsesOneBatchCallPerService() {
+        // Arrange
+        Cart cart = new Cart(tenantId, "user123");
+        for (int i = 1; i <= 20; i++) {
+            cart.addItem(new CartItem("product" + i, "SKU" + i, "Product " + i, 1, new BigDecimal("29.99")));
+        }
+
+        when(productServiceGrpcClient.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            List<String> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> product(id, "SKU" + id.substring("product".length()))).toList();
+        });
+        when(inventoryServiceGrpcClient.checkAvailabilityBatch(anyMap())).thenAnswer(invocation -> {
+            Map<String, Integer> quantities = invocation.getArgument(0);
+            Map<String, InventoryCheckResponse> availability = new HashMap<>();
+            quantities.forEach((id, quantity) -> availability.put(id, new InventoryCheckResponse(id, true, 10, quantity)));
+            return CompletableFuture.completedFuture(availability);
+        });
+
+        // Act & Assert
+        assertDoesNotThrow(() -> validationService.validateCartForCheckout(tenantId, cart));
+
+        verify(productServiceGrpcClient, times(1)).getProductsByIds(argThat(ids -> ids.size() == 20));
+        verify(inventoryServiceGrpcClient, times(1)).checkAvailabilityBatch(argThat(quantities -> quantities.size() == 20));
+    }
+
+    @Test
+    void validateCartForCheckout_InsufficientInventory() {
+        // Arrange
+        Cart cart = new Cart(tenantId, "user123");
+        cart.addItem(new CartItem("product123", "SKU123", "Test Product", 2, new BigDecimal("29.99")));
+        availableInventory.setAvailable(false);
+        availableInventory.setAvailableQuantity(1);
+
+        when(productServiceGrpcClient.getProductsByIds(List.of("product123")))
+            .thenReturn(List.of(validProduct));
+        when(inventoryServiceGrpcClient.checkAvailabilityBatch(Map.of("product123", 2)))
+            .thenReturn(CompletableFuture.completedFuture(Map.of("product123", availableInventory)));
+
+        // Act & Assert
+        InsufficientInventoryException exception = assertThrows(
+            InsufficientInventoryException.class,
+            () -> validationService.validateCartForCheckout(tenantId, cart)
+        );
+
+        assertTrue(exception.getMessage().contains("Insufficient inventory for product product123"));
+    }
+
+    @Test
+    void validateCartForCheckout_ProductMissingFromBatch() {
+        // Arrange
+        Cart cart = new Cart(tenantId, "user123");
+        cart.addItem(new CartItem("product123", "SKU123", "Test Product", 2, new BigDecimal("29.99")));
+
+        when(productServiceGrpcClient.getProductsByIds(List.of("product123"))).thenReturn(List.of());
+        when(inventoryServiceGrpcClient.checkAvailabilityBatch(Map.of("product123", 2)))
+            .thenReturn(CompletableFuture.completedFuture(Map.of("product123", availableInventory)));
+
+        // Act & Assert
+        ProductNotAvailableException exception = assertThrows(
+            ProductNotAvailableException.class,
+            () -> validationService.validateCartForCheckout(tenantId, cart)
+        );
+
+        assertEquals("Product not found: product123", exception.getMessage());
+    }
+
+    @Test
+    void validateCartForCheckout_InventoryServiceFails() {
+        // Arrange
+        Cart cart = new Cart(tenantId, "user123");
+        cart.addItem(new CartItem("product123", "SKU123", "Test Product", 2, new BigDecimal("29.99")));
+
+        when(productServiceGrpcClient.getProductsByIds(List.of("product123")))
+            .thenReturn(List.of(validProduct));
+        when(inventoryServiceGrpcClient.checkAvailabilityBatch(Map.of("product123", 2)))
+            .thenReturn(CompletableFuture.failedFuture(
+                new InsufficientInventoryException("Inventory service unavailable")));
+
+        // Act & Assert
+        InsufficientInventoryException exception = assertThrows(
+            InsufficientInventoryException.class,
+            () -> validationService.validateCartForCheckout(tenantId, cart)
+        );
+
+        assertEquals("Inventory service unavailable", exception.getMessage());
+    }
+
+    @Test
+    void validateAddToCartRequest_SecondCall_UsesNearCache() {
+        // Arrange
         when(productServiceGrpcClient.validateProduct("product123", "SKU123"))
             .thenReturn(validProduct);
         when(inventoryServiceGrpcClient.checkAvailability("product123", 2))
             .thenReturn(availableInventory);
 
-        // Act & Assert
-        assertDoesNotThrow(() -> validationService.validateCartForCheckout(tenantId, cart));
+        // Act
+        validationService.validateAddToCartRequest(tenantId, validRequest);
+        validationService.validateAddToCartRequest(tenantId, validRequest);
 
-        verify(productServiceGrpcClient).validateProduct("product123", "SKU123");
-        verify(inventoryServiceGrpcClient).checkAvailability("product123", 2);
+        // Assert
+        verify(productServiceGrpcClient, times(1)).validateProduct("product123", "SKU123");
+        verify(inventoryServiceGrpcClient, times(2)).checkAvailability("product123", 2);
+    }
+
+    @Test
+    void validateAddToCartRequest_AfterInvalidation_ReloadsProduct() {
+        // Arrange
+        when(productServiceGrpcClient.validateProduct("product123", "SKU123"))
+            .thenReturn(validProduct);
+        when(inventoryServiceGrpcClient.checkAvailability("product123", 2))
+            .thenReturn(availableInventory);
+        validationService.validateAddToCartRequest(tenantId, validRequest);
+
+        // Act
+        productNearCache.invalidate(tenantId, "product123");
+        validationService.validateAddToCartRequest(tenantId, validRequest);
+
+        // Assert
+        verify(productServiceGrpcClient, times(2)).validateProduct("product123", "SKU123");
     }
 
     @Test
@@ -244,4 +375,14 @@ class CartValidationServiceTest {
         verify(productServiceGrpcClient).validateProduct("product123", "SKU123");
         verify(inventoryServiceGrpcClient).checkAvailability("product123", 2);
     }
+
+    private ProductValidationResponse product(String productId, String sku) {
+        ProductValidationResponse product = new ProductValidationResponse();
+        product.setProductId(productId);
+        product.setSku(sku);
+        product.setPrice(new BigDecimal("29.99"));
+        product.setValid(true);
+        product.setActive(true);
+        return product;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.ecommerce.cartservice.service;
+
+import com.ecommerce.cartservice.dto.ProductValidationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductNearCacheTest {
+
+    private static final String TENANT_ID = "tenant123";
+    private static final long TTL_MS = 5000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private ProductNearCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductNearCache(TTL_MS, 3, new SimpleMeterRegistry(), clock::get);
+    }
+
+    @Test
+    void getAll_ShouldReturnFreshEntriesOnly() {
+        // Given
+        cache.putAll(TENANT_ID, List.of(product("product1")), cache.generation());
+
+        // When & Then
+        assertTrue(cache.getAll(TENANT_ID, List.of("product1")).containsKey("product1"));
+        clock.addAndGet(TTL_MS * 1_000_000L);
+        assertTrue(cache.getAll(TENANT_ID, List.of("product1")).isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void getAll_ShouldKeepTenantsApart() {
+        // Given
+        cache.putAll(TENANT_ID, List.of(product("product1")), cache.generation());
+
+        // When & Then
+        assertTrue(cache.getAll("other-tenant", List.of("product1")).isEmpty());
+    }
+
+    @Test
+    void putAll_AfterInvalidationDuringLoad_ShouldNotCacheStaleProducts() {
+        // Given - a load starts, then the product changes before it completes
+        long generation = cache.generation();
+        cache.invalidate(TENANT_ID, "product1");
+
+        // When
+        cache.putAll(TENANT_ID, List.of(product("product1")), generation);
+
+        // Then
+        assertTrue(cache.getAll(TENANT_ID, List.of("product1")).isEmpty());
+    }
+
+    @Test
+    void putAll_ShouldSkipInvalidProducts() {
+        // Given
+        ProductValidationResponse invalid = product("product1");
+        invalid.setValid(false);
+
+        // When
+        cache.putAll(TENANT_ID, List.of(invalid), cache.generation());
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void putAll_ShouldStayWithinMaxSize() {
+        // When
+        cache.putAll(TENANT_ID, List.of(product("p1"), product("p2"), product("p3"), product("p4"), product("p5")),
+            cache.generation());
+
+        // Then
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void invalidate_ShouldDropProduct() {
+        // Given
+        cache.putAll(TENANT_ID, List.of(product("product1"), product("product2")), cache.generation());
+
+        // When
+        cache.invalidate(TENANT_ID, "product1");
+
+        // Then
+        assertEquals(List.of("product2"), List.copyOf(
+            cache.getAll(TENANT_ID, List.of("product1", "product2")).keySet()));
+    }
+
+    private ProductValidationResponse product(String productId) {
+        ProductValidationResponse product = new ProductValidationResponse();
+        product.setProductId(productId);
+        product.setSku("SKU-" + productId);
+        product.setPrice(new BigDecimal("29.99"));
+        product.setValid(true);
+        product.setActive(true);
+        return product;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.orderservice.client;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adapts gRPC future-stub calls to {@link CompletableFuture}
+ */
+final class GrpcFutures {
+
+    private GrpcFutures() {
+    }
+
+    /**
+     * Complete with the call's response, or fail with a {@link RuntimeException} carrying
+     * {@code failureMessage} and the gRPC error as its cause
+     */
+    static <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<T> call, String failureMessage) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Futures.addCallback(call, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T response) {
+                result.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.completeExceptionally(new RuntimeException(failureMessage, t));
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+}
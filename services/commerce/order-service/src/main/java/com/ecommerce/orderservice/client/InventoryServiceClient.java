@@ -8,6 +8,8 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -18,6 +20,9 @@ public class InventoryServiceClient {
     @GrpcClient("inventory-service")
     private InventoryServiceGrpc.InventoryServiceBlockingStub inventoryServiceStub;
 
+    @GrpcClient("inventory-service")
+    private InventoryServiceGrpc.InventoryServiceFutureStub inventoryServiceFutureStub;
+
     public CheckAvailabilityResponse checkAvailability(TenantContext context, String productId, int quantity) {
         try {
             CheckAvailabilityRequest request = CheckAvailabilityRequest.newBuilder()
@@ -55,6 +60,52 @@ public class InventoryServiceClient {
         }
     }
 
+    public ReserveInventoryBatchResponse reserveInventoryBatch(TenantContext context, String orderId,
+                                                             String reservationId, List<ReservationLine> items,
+                                                             long ttlSeconds) {
+        try {
+            ReserveInventoryBatchRequest request = ReserveInventoryBatchRequest.newBuilder()
+                    .setContext(context)
+                    .setOrderId(orderId)
+                    .setReservationId(reservationId)
+                    .setTtlSeconds(ttlSeconds)
+                    .addAllItems(items)
+                    .build();
+
+            return inventoryServiceStub
+                    .withDeadlineAfter(10, TimeUnit.SECONDS)
+                    .reserveInventoryBatch(request);
+        } catch (Exception e) {
+            logger.error("Failed to batch-reserve inventory for order {}: {}", orderId, e.getMessage());
+            throw new RuntimeException("Inventory reservation failed", e);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #reserveInventoryBatch} for the order saga
+     */
+    public CompletableFuture<ReserveInventoryBatchResponse> reserveInventoryBatchAsync(TenantContext context, String orderId,
+                                                                                      String reservationId,
+                                                                                      List<ReservationLine> items,
+                                                                                      long ttlSeconds) {
+        ReserveInventoryBatchRequest request = ReserveInventoryBatchRequest.newBuilder()
+                .setContext(context)
+                .setOrderId(orderId)
+                .setReservationId(reservationId)
+                .setTtlSeconds(ttlSeconds)
+                .addAllItems(items)
+                .build();
+
+        return GrpcFutures.toCompletableFuture(
+                        inventoryServiceFutureStub.withDeadlineAfter(10, TimeUnit.SECONDS).reserveInventoryBatch(request),
+                        "Inventory reservation failed")
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        logger.error("Failed to batch-reserve inventory for order {}: {}", orderId, e.getCause().getMessage());
+                    }
+                });
+    }
+
     public ReleaseInventoryResponse releaseInventory(TenantContext context, String reservationId) {
         try {
             ReleaseInventoryRequest request = ReleaseInventoryRequest.newBuilder()
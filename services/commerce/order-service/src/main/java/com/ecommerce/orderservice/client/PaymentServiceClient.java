@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -19,6 +20,9 @@ public class PaymentServiceClient {
     @GrpcClient("payment-service")
     private PaymentServiceGrpc.PaymentServiceBlockingStub paymentServiceStub;
 
+    @GrpcClient("payment-service")
+    private PaymentServiceGrpc.PaymentServiceFutureStub paymentServiceFutureStub;
+
     public ProcessPaymentResponse processPayment(TenantContext context, long orderId, Money amount, 
                                                String paymentMethod, String paymentToken, String idempotencyKey) {
         try {
@@ -40,6 +44,31 @@ public class PaymentServiceClient {
         }
     }
 
+    /**
+     * Non-blocking variant of {@link #processPayment} for the order saga
+     */
+    public CompletableFuture<ProcessPaymentResponse> processPaymentAsync(TenantContext context, long orderId, Money amount,
+                                                                         String paymentMethod, String paymentToken,
+                                                                         String idempotencyKey) {
+        ProcessPaymentRequest request = ProcessPaymentRequest.newBuilder()
+                .setContext(context)
+                .setOrderId(orderId)
+                .setAmount(amount)
+                .setPaymentMethod(paymentMethod)
+                .setPaymentToken(paymentToken)
+                .setIdempotencyKey(idempotencyKey)
+                .build();
+
+        return GrpcFutures.toCompletableFuture(
+                        paymentServiceFutureStub.withDeadlineAfter(30, TimeUnit.SECONDS).processPayment(request),
+                        "Payment processing failed")
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        logger.error("Failed to process payment for order {}: {}", orderId, e.getCause().getMessage());
+                    }
+                });
+    }
+
     public GetPaymentStatusResponse getPaymentStatus(TenantContext context, String paymentId) {
         try {
             GetPaymentStatusRequest request = GetPaymentStatusRequest.newBuilder()
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -18,6 +19,9 @@ public class UserServiceClient {
     @GrpcClient("user-service")
     private UserServiceGrpc.UserServiceBlockingStub userServiceStub;
 
+    @GrpcClient("user-service")
+    private UserServiceGrpc.UserServiceFutureStub userServiceFutureStub;
+
     public ValidateUserResponse validateUser(TenantContext context, long userId) {
         try {
             ValidateUserRequest request = ValidateUserRequest.newBuilder()
@@ -34,6 +38,25 @@ public class UserServiceClient {
         }
     }
 
+    /**
+     * Non-blocking variant of {@link #validateUser} for the order saga
+     */
+    public CompletableFuture<ValidateUserResponse> validateUserAsync(TenantContext context, long userId) {
+        ValidateUserRequest request = ValidateUserRequest.newBuilder()
+                .setContext(context)
+                .setUserId(userId)
+                .build();
+
+        return GrpcFutures.toCompletableFuture(
+                        userServiceFutureStub.withDeadlineAfter(5, TimeUnit.SECONDS).validateUser(request),
+                        "User validation failed")
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        logger.error("Failed to validate user {}: {}", userId, e.getCause().getMessage());
+                    }
+                });
+    }
+
     public GetUserResponse getUser(TenantContext context, long userId) {
         try {
             GetUserRequest request = GetUserRequest.newBuilder()
@@ -1,6 +1,5 @@
 package com.ecommerce.orderservice.config;
 
-import com.ecommerce.shared.models.events.DomainEvent;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,13 +8,16 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Kafka configuration for Order Service
+ * Kafka configuration for Order Service.
+ *
+ * The producer is only used by {@link com.ecommerce.orderservice.service.OrderOutboxRelay}, which
+ * sends events that are already serialized to JSON in the outbox. Idempotence keeps per-partition
+ * order with several requests in flight, so the relay can pipeline large batches.
  */
 @Configuration
 public class KafkaConfig {
@@ -23,37 +25,44 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // Idempotent producers keep ordering with up to 5 requests in flight
+    @Value("${app.outbox.producer.max-in-flight:5}")
+    private int maxInFlightRequests;
+
+    @Value("${app.outbox.producer.batch-size:131072}")
+    private int batchSize;
+
+    @Value("${app.outbox.producer.linger-ms:20}")
+    private int lingerMs;
+
     @Bean
-    public ProducerFactory<String, DomainEvent> producerFactory() {
+    public ProducerFactory<String, String> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         
         // Producer reliability settings
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, 1000);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 1);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequests);
         
         // Batch settings for performance
-        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
-        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
-        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, 33554432);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, 67108864);
         
         // Compression
         configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "snappy");
         
-        // JSON serializer settings
-        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
-        
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
     @Bean
-    public KafkaTemplate<String, DomainEvent> kafkaTemplate() {
-        KafkaTemplate<String, DomainEvent> template = new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, String> kafkaTemplate() {
+        KafkaTemplate<String, String> template = new KafkaTemplate<>(producerFactory());
         
         // Set default topic
         template.setDefaultTopic("order-events");
@@ -0,0 +1,180 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.shared.models.events.DomainEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for order events.
+ *
+ * Events are appended through the caller's connection, so they commit or roll back together with
+ * the order change that produced them. {@link com.ecommerce.orderservice.service.OrderOutboxRelay}
+ * later publishes them to Kafka in ID order and deletes them once acknowledged.
+ *
+ * A relay claims the events it is about to send ({@code claimed_by}, {@code claimed_until}) so that
+ * it can send them without holding a transaction open. Claims always cover the oldest events, and
+ * while one relay's claim is live no other relay claims anything, so only one relay sends at a
+ * time and events of the same key stay in order across instances.
+ */
+@Repository
+public class OrderOutboxRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO order_outbox (tenant_id, topic, event_key, event_type, payload, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RowMapper<OutboxEvent> rowMapper = (rs, rowNum) -> new OutboxEvent(
+        rs.getLong("id"),
+        rs.getString("topic"),
+        rs.getString("event_key"),
+        rs.getString("payload"),
+        rs.getTimestamp("created_at").toLocalDateTime());
+
+    @Autowired
+    public OrderOutboxRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Append an event to the outbox in the current transaction
+     */
+    public void append(String topic, String key, DomainEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + event.getEventType() + " event", e);
+        }
+        jdbcTemplate.update(INSERT_SQL, event.getTenantId(), topic, key, event.getEventType(), payload,
+                            Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Claim the oldest unpublished events for {@code relayId}, in the order they were written.
+     * Must run in a transaction, which only needs to last for this call.
+     *
+     * @return the claimed events, or an empty list if another relay holds a live claim
+     */
+    public List<OutboxEvent> claimOldest(String relayId, LocalDateTime now, LocalDateTime claimedUntil, int limit) {
+        // Locking the oldest rows serializes concurrent claims; the second one then sees the first one's claim
+        List<Long> ids = new ArrayList<>();
+        boolean claimedElsewhere = false;
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT id, claimed_by, claimed_until FROM order_outbox ORDER BY id LIMIT ? FOR UPDATE", limit)) {
+            Timestamp until = (Timestamp) row.get("claimed_until");
+            if (until != null && until.toLocalDateTime().isAfter(now) && !relayId.equals(row.get("claimed_by"))) {
+                claimedElsewhere = true;
+                break;
+            }
+            ids.add(((Number) row.get("id")).longValue());
+        }
+        if (claimedElsewhere || ids.isEmpty()) {
+            return List.of();
+        }
+
+        String placeholders = placeholders(ids);
+        List<Object> args = new ArrayList<>(ids.size() + 2);
+        args.add(relayId);
+        args.add(Timestamp.valueOf(claimedUntil));
+        args.addAll(ids);
+        jdbcTemplate.update(
+            "UPDATE order_outbox SET claimed_by = ?, claimed_until = ? WHERE id IN (" + placeholders + ")",
+            args.toArray());
+        return jdbcTemplate.query(
+            "SELECT id, topic, event_key, payload, created_at FROM order_outbox WHERE id IN (" + placeholders + ") " +
+            "ORDER BY id", rowMapper, ids.toArray());
+    }
+
+    /**
+     * Give up {@code relayId}'s claim on events it did not publish, so any relay can send them next
+     */
+    public int releaseClaims(String relayId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.addAll(ids);
+        args.add(relayId);
+        return jdbcTemplate.update(
+            "UPDATE order_outbox SET claimed_by = NULL, claimed_until = NULL WHERE id IN (" + placeholders(ids) + ") " +
+            "AND claimed_by = ?", args.toArray());
+    }
+
+    public int deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM order_outbox WHERE id IN (" + placeholders(ids) + ")", ids.toArray());
+    }
+
+    public long countPending() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_outbox", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Creation time of the oldest unpublished event, or {@code null} if the outbox is empty
+     */
+    public LocalDateTime findOldestCreatedAt() {
+        List<Timestamp> oldest = jdbcTemplate.queryForList(
+            "SELECT created_at FROM order_outbox ORDER BY id LIMIT 1", Timestamp.class);
+        return oldest.isEmpty() ? null : oldest.get(0).toLocalDateTime();
+    }
+
+    private static String placeholders(Collection<Long> ids) {
+        return ids.stream().map(id -> "?").collect(Collectors.joining(", "));
+    }
+
+    /**
+     * An unpublished event; the payload is the event's JSON
+     */
+    public static final class OutboxEvent {
+        private final long id;
+        private final String topic;
+        private final String key;
+        private final String payload;
+        private final LocalDateTime createdAt;
+
+        public OutboxEvent(long id, String topic, String key, String payload, LocalDateTime createdAt) {
+            this.id = id;
+            this.topic = topic;
+            this.key = key;
+            this.payload = payload;
+            this.createdAt = createdAt;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
@@ -18,6 +18,9 @@ public interface OrderRepository extends TenantAwareRepository<Order, Long> {
 
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :id")
+    Optional<Order> findByIdWithItems(@Param("id") Long id);
+
     @Query("SELECT o FROM Order o WHERE o.tenantId = :tenantId AND o.userId = :userId")
     Page<Order> findByUserId(@Param("tenantId") String tenantId, 
                             @Param("userId") Long userId, 
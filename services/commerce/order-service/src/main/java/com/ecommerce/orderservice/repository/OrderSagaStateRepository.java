@@ -0,0 +1,196 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.saga.OrderSagaState;
+import com.ecommerce.orderservice.saga.SagaStatus;
+import com.ecommerce.orderservice.saga.SagaStep;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Durable saga state.
+ *
+ * Each row carries a lease ({@code locked_by}, {@code locked_until}). The instance running a saga
+ * holds the lease and renews it on every checkpoint; writes are fenced on the lease holder, so once
+ * a lease expires and another instance claims the saga, the previous holder can no longer
+ * overwrite it. The lease is all that decides which instance runs a saga: every instance scans all
+ * active sagas when resuming or timing them out, and the claim lets only one of them take each.
+ */
+@Repository
+public class OrderSagaStateRepository {
+
+    private static final String COLUMNS =
+        "saga_id, order_id, tenant_id, current_step, saga_data, status, retry_count, error_message, " +
+        "next_attempt_at, timeout_at, created_at, updated_at";
+
+    private static final String ACTIVE_STATUSES = "('STARTED', 'IN_PROGRESS', 'COMPENSATING')";
+    private static final String FINAL_STATUSES = "('COMPLETED', 'COMPENSATED', 'FAILED')";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO order_saga_state (saga_id, order_id, tenant_id, current_step, saga_data, status, " +
+        "retry_count, error_message, next_attempt_at, timeout_at, locked_by, locked_until, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+        "UPDATE order_saga_state SET current_step = ?, saga_data = ?, status = ?, retry_count = ?, error_message = ?, " +
+        "next_attempt_at = ?, timeout_at = ?, locked_by = ?, locked_until = ?, updated_at = ?, " +
+        "completed_at = COALESCE(completed_at, ?) " +
+        "WHERE order_id = ? AND locked_by = ?";
+
+    private static final String CLAIM_SQL =
+        "UPDATE order_saga_state SET locked_by = ?, locked_until = ? " +
+        "WHERE order_id = ? AND status IN " + ACTIVE_STATUSES + " " +
+        "AND (locked_until IS NULL OR locked_until < ? OR locked_by = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RowMapper<OrderSagaState> rowMapper = (rs, rowNum) -> {
+        OrderSagaState state = new OrderSagaState(rs.getLong("order_id"), rs.getString("tenant_id"));
+        state.setSagaId(rs.getString("saga_id"));
+        state.setCurrentStep(SagaStep.valueOf(rs.getString("current_step")));
+        state.setSagaData(fromJson(rs.getString("saga_data")));
+        state.setStatus(SagaStatus.valueOf(rs.getString("status")));
+        state.setRetryCount(rs.getInt("retry_count"));
+        state.setErrorMessage(rs.getString("error_message"));
+        state.setNextAttemptAt(rs.getTimestamp("next_attempt_at").toLocalDateTime());
+        state.setTimeoutAt(rs.getTimestamp("timeout_at").toLocalDateTime());
+        state.setStartedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        state.setLastUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return state;
+    };
+
+    @Autowired
+    public OrderSagaStateRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Persist a new saga, leased to {@code owner}
+     */
+    public void insert(OrderSagaState state, String owner, LocalDateTime lockedUntil) {
+        jdbcTemplate.update(INSERT_SQL,
+            state.getSagaId(),
+            state.getOrderId(),
+            state.getTenantId(),
+            state.getCurrentStep().name(),
+            toJson(state.getSagaData()),
+            state.getStatus().name(),
+            state.getRetryCount(),
+            state.getErrorMessage(),
+            timestamp(state.getNextAttemptAt()),
+            timestamp(state.getTimeoutAt()),
+            owner,
+            timestamp(lockedUntil),
+            timestamp(state.getStartedAt()),
+            timestamp(state.getLastUpdatedAt()));
+    }
+
+    /**
+     * Checkpoint a saga and renew or release its lease
+     *
+     * @param owner current lease holder
+     * @param nextOwner lease holder after the update, {@code null} to release the lease
+     * @return false if {@code owner} no longer holds the lease, in which case nothing was written
+     */
+    public boolean update(OrderSagaState state, String owner, String nextOwner, LocalDateTime lockedUntil) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = jdbcTemplate.update(UPDATE_SQL,
+            state.getCurrentStep().name(),
+            toJson(state.getSagaData()),
+            state.getStatus().name(),
+            state.getRetryCount(),
+            state.getErrorMessage(),
+            timestamp(state.getNextAttemptAt()),
+            timestamp(state.getTimeoutAt()),
+            nextOwner,
+            timestamp(lockedUntil),
+            timestamp(now),
+            state.getStatus().isFinal() ? timestamp(now) : null,
+            state.getOrderId(),
+            owner);
+        return updated == 1;
+    }
+
+    /**
+     * Take over the lease of an active saga whose lease has expired
+     *
+     * @return true if {@code owner} now holds the lease
+     */
+    public boolean claim(long orderId, String owner, LocalDateTime now, LocalDateTime lockedUntil) {
+        return jdbcTemplate.update(CLAIM_SQL, owner, timestamp(lockedUntil), orderId, timestamp(now), owner) == 1;
+    }
+
+    public Optional<OrderSagaState> findByOrderId(long orderId) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM order_saga_state WHERE order_id = ?", rowMapper, orderId)
+            .stream()
+            .findFirst();
+    }
+
+    /**
+     * Active, unleased sagas whose next attempt is due
+     */
+    public List<OrderSagaState> findDue(LocalDateTime now, int limit) {
+        return jdbcTemplate.query(
+            "SELECT " + COLUMNS + " FROM order_saga_state " +
+            "WHERE status IN " + ACTIVE_STATUSES + " " +
+            "AND next_attempt_at <= ? AND timeout_at > ? AND (locked_until IS NULL OR locked_until < ?) " +
+            "ORDER BY next_attempt_at LIMIT ?",
+            rowMapper, timestamp(now), timestamp(now), timestamp(now), limit);
+    }
+
+    /**
+     * Active, unleased sagas that ran past their timeout
+     */
+    public List<OrderSagaState> findTimedOut(LocalDateTime now, int limit) {
+        return jdbcTemplate.query(
+            "SELECT " + COLUMNS + " FROM order_saga_state " +
+            "WHERE status IN " + ACTIVE_STATUSES + " " +
+            "AND timeout_at <= ? AND (locked_until IS NULL OR locked_until < ?) " +
+            "ORDER BY timeout_at LIMIT ?",
+            rowMapper, timestamp(now), timestamp(now), limit);
+    }
+
+    /**
+     * Delete finished sagas
+     */
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(
+            "DELETE FROM order_saga_state WHERE status IN " + FINAL_STATUSES + " AND completed_at < ?",
+            timestamp(cutoff));
+    }
+
+    private String toJson(Map<String, Object> sagaData) {
+        try {
+            return objectMapper.writeValueAsString(sagaData);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize saga data", e);
+        }
+    }
+
+    private Map<String, Object> fromJson(String sagaData) {
+        if (sagaData == null) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(sagaData, new TypeReference<HashMap<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize saga data", e);
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+}
@@ -4,239 +4,317 @@ import com.ecommerce.orderservice.client.InventoryServiceClient;
 import com.ecommerce.orderservice.client.PaymentServiceClient;
 import com.ecommerce.orderservice.client.UserServiceClient;
 import com.ecommerce.orderservice.entity.Order;
-import com.ecommerce.orderservice.entity.OrderItem;
 import com.ecommerce.orderservice.entity.OrderStatus;
 import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.OrderSagaStateRepository;
+import com.ecommerce.inventoryservice.proto.InventoryServiceProtos.FailedReservationLine;
+import com.ecommerce.inventoryservice.proto.InventoryServiceProtos.ReservationLine;
 import com.ecommerce.shared.proto.CommonProtos.TenantContext;
 import com.ecommerce.shared.proto.CommonProtos.Money;
 import com.ecommerce.shared.utils.CorrelationIdGenerator;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Runs order sagas as non-blocking step chains with durable state.
+ *
+ * Every step transition is checkpointed to {@code order_saga_state} before the next step starts.
+ * Remote steps use the async gRPC stubs and continue on a small worker pool once the response
+ * arrives, so no thread waits on a remote call. Failed steps are retried after a back-off on a
+ * scheduler instead of sleeping on a worker.
+ *
+ * The instance that starts a saga leases it and runs it to the end. If that instance stops, the
+ * lease expires and whichever instance claims the saga first (see
+ * {@link OrderSagaStateRepository#claim}) resumes it from the last checkpoint.
+ */
 @Service
 public class OrderSagaOrchestrator {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(OrderSagaOrchestrator.class);
-    
+    private static final String INVENTORY_RESERVATION_KEY = "inventoryReservationId";
+
     private final UserServiceClient userServiceClient;
     private final InventoryServiceClient inventoryServiceClient;
     private final PaymentServiceClient paymentServiceClient;
     private final OrderRepository orderRepository;
-    
-    // In-memory saga state storage (in production, use Redis or database)
+    private final OrderSagaStateRepository sagaStateRepository;
+    private final String instanceId;
+    private final ExecutorService stepExecutor;
+    private final ScheduledExecutorService retryScheduler;
+    private final long retryBackoffMillis;
+    private final long leaseMillis;
+
+    // Sagas this instance is running or has recently finished; the database is the source of truth
     private final ConcurrentHashMap<Long, OrderSagaState> sagaStates = new ConcurrentHashMap<>();
-    
+
+    @Value("${app.order.saga.recovery-batch-size:100}")
+    private int recoveryBatchSize = 100;
+
+    @Value("${app.order.saga.retention-hours:168}")
+    private long retentionHours = 168;
+
     @Autowired
     public OrderSagaOrchestrator(UserServiceClient userServiceClient,
                                InventoryServiceClient inventoryServiceClient,
                                PaymentServiceClient paymentServiceClient,
-                               OrderRepository orderRepository) {
+                               OrderRepository orderRepository,
+                               OrderSagaStateRepository sagaStateRepository,
+                               @Value("${app.order.saga.instance-id:}") String instanceId,
+                               @Value("${app.order.saga.worker-threads:16}") int workerThreads,
+                               @Value("${app.order.saga.retry-backoff-ms:1000}") long retryBackoffMillis,
+                               @Value("${app.order.saga.lease-ms:60000}") long leaseMillis) {
+        this(userServiceClient, inventoryServiceClient, paymentServiceClient, orderRepository, sagaStateRepository,
+             instanceId == null || instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId,
+             Executors.newFixedThreadPool(workerThreads, daemonThreads("order-saga-worker")),
+             Executors.newSingleThreadScheduledExecutor(daemonThreads("order-saga-retry")),
+             retryBackoffMillis, leaseMillis);
+    }
+
+    OrderSagaOrchestrator(UserServiceClient userServiceClient,
+                          InventoryServiceClient inventoryServiceClient,
+                          PaymentServiceClient paymentServiceClient,
+                          OrderRepository orderRepository,
+                          OrderSagaStateRepository sagaStateRepository,
+                          String instanceId,
+                          ExecutorService stepExecutor,
+                          ScheduledExecutorService retryScheduler,
+                          long retryBackoffMillis,
+                          long leaseMillis) {
         this.userServiceClient = userServiceClient;
         this.inventoryServiceClient = inventoryServiceClient;
         this.paymentServiceClient = paymentServiceClient;
         this.orderRepository = orderRepository;
+        this.sagaStateRepository = sagaStateRepository;
+        this.instanceId = instanceId;
+        this.stepExecutor = stepExecutor;
+        this.retryScheduler = retryScheduler;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.leaseMillis = leaseMillis;
     }
 
-    @Async
+    /**
+     * Start the saga for an order.
+     *
+     * The saga is persisted in the caller's transaction, if any, and starts running once that
+     * transaction commits, so the steps always see the committed order.
+     *
+     * @return completes with true when the order is confirmed, false when it was cancelled
+     */
     public CompletableFuture<Boolean> processOrder(Long orderId, String paymentMethod, String paymentToken) {
         logger.info("Starting saga for order {}", orderId);
-        
+
         try {
             Order order = orderRepository.findById(orderId)
                     .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
-            
+
             OrderSagaState sagaState = new OrderSagaState(orderId, order.getTenantId());
-            sagaStates.put(orderId, sagaState);
-            
+
             // Store payment details in saga data
             sagaState.putSagaData("paymentMethod", paymentMethod);
             sagaState.putSagaData("paymentToken", paymentToken);
             sagaState.putSagaData("idempotencyKey", CorrelationIdGenerator.generate());
-            
-            return executeNextStep(sagaState);
-            
+
+            sagaStateRepository.insert(sagaState, instanceId, leaseUntil(0));
+            sagaStates.put(orderId, sagaState);
+
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            afterCommit(() -> complete(result, runStep(sagaState)));
+            return result;
+
         } catch (Exception e) {
             logger.error("Failed to start saga for order {}: {}", orderId, e.getMessage(), e);
             return CompletableFuture.completedFuture(false);
         }
     }
 
+    private CompletableFuture<Boolean> runStep(OrderSagaState sagaState) {
+        return CompletableFuture.supplyAsync(() -> executeNextStep(sagaState), stepExecutor)
+                .thenCompose(Function.identity());
+    }
+
     private CompletableFuture<Boolean> executeNextStep(OrderSagaState sagaState) {
+        sagaState.setStatus(SagaStatus.IN_PROGRESS);
+
+        CompletableFuture<Void> step;
         try {
-            sagaState.setStatus(SagaStatus.IN_PROGRESS);
-            
             switch (sagaState.getCurrentStep()) {
-                case USER_VALIDATION -> {
-                    return executeUserValidation(sagaState);
-                }
-                case INVENTORY_RESERVATION -> {
-                    return executeInventoryReservation(sagaState);
-                }
-                case PAYMENT_PROCESSING -> {
-                    return executePaymentProcessing(sagaState);
-                }
-                case ORDER_CONFIRMATION -> {
-                    return executeOrderConfirmation(sagaState);
-                }
+                case USER_VALIDATION -> step = executeUserValidation(sagaState);
+                case INVENTORY_RESERVATION -> step = executeInventoryReservation(sagaState);
+                case PAYMENT_PROCESSING -> step = executePaymentProcessing(sagaState);
+                case ORDER_CONFIRMATION -> step = executeOrderConfirmation(sagaState);
                 case COMPLETED -> {
                     sagaState.markCompleted();
+                    checkpoint(sagaState);
                     logger.info("Saga completed successfully for order {}", sagaState.getOrderId());
                     return CompletableFuture.completedFuture(true);
                 }
-                default -> {
-                    throw new IllegalStateException("Unknown saga step: " + sagaState.getCurrentStep());
-                }
+                default -> throw new IllegalStateException("Unknown saga step: " + sagaState.getCurrentStep());
             }
         } catch (Exception e) {
-            logger.error("Error executing saga step {} for order {}: {}", 
-                        sagaState.getCurrentStep(), sagaState.getOrderId(), e.getMessage(), e);
-            return handleStepFailure(sagaState, e.getMessage());
+            step = CompletableFuture.failedFuture(e);
         }
+
+        return step.handleAsync((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                logger.error("Error executing saga step {} for order {}: {}",
+                            sagaState.getCurrentStep(), sagaState.getOrderId(), cause.getMessage());
+                return handleStepFailure(sagaState, describe(sagaState.getCurrentStep()) + " failed: " + cause.getMessage());
+            }
+
+            logger.info("{} successful for order {}", describe(sagaState.getCurrentStep()), sagaState.getOrderId());
+            sagaState.moveToNextStep();
+            sagaState.setNextAttemptAt(LocalDateTime.now());
+            if (!checkpoint(sagaState)) {
+                return CompletableFuture.completedFuture(false);
+            }
+            return executeNextStep(sagaState);
+        }, stepExecutor).thenCompose(Function.identity());
     }
 
-    private CompletableFuture<Boolean> executeUserValidation(OrderSagaState sagaState) {
+    private CompletableFuture<Void> executeUserValidation(OrderSagaState sagaState) {
         logger.info("Executing user validation for order {}", sagaState.getOrderId());
-        
-        try {
-            Order order = getOrder(sagaState.getOrderId());
-            TenantContext context = buildTenantContext(sagaState.getTenantId(), order.getUserId().toString());
-            
-            var userValidation = userServiceClient.validateUser(context, order.getUserId());
-            
-            if (userValidation.getIsValid() && userValidation.getIsActive()) {
-                logger.info("User validation successful for order {}", sagaState.getOrderId());
-                sagaState.moveToNextStep();
-                return executeNextStep(sagaState);
-            } else {
-                throw new RuntimeException("User validation failed: user is not valid or active");
-            }
-            
-        } catch (Exception e) {
-            return handleStepFailure(sagaState, "User validation failed: " + e.getMessage());
-        }
+
+        Order order = getOrder(sagaState.getOrderId());
+        TenantContext context = buildTenantContext(sagaState.getTenantId(), order.getUserId().toString());
+
+        return userServiceClient.validateUserAsync(context, order.getUserId())
+                .thenAccept(userValidation -> {
+                    if (!userValidation.getIsValid() || !userValidation.getIsActive()) {
+                        throw new IllegalStateException("user is not valid or active");
+                    }
+                });
     }
 
-    private CompletableFuture<Boolean> executeInventoryReservation(OrderSagaState sagaState) {
+    private CompletableFuture<Void> executeInventoryReservation(OrderSagaState sagaState) {
         logger.info("Executing inventory reservation for order {}", sagaState.getOrderId());
-        
-        try {
-            Order order = getOrder(sagaState.getOrderId());
-            TenantContext context = buildTenantContext(sagaState.getTenantId(), order.getUserId().toString());
-            
-            // Reserve inventory for each order item
-            for (OrderItem item : order.getItems()) {
-                String reservationId = CorrelationIdGenerator.generate();
-                
-                var reservationResponse = inventoryServiceClient.reserveInventory(
-                    context, 
-                    item.getProductId(), 
-                    item.getQuantity(), 
-                    reservationId, 
-                    TimeUnit.MINUTES.toSeconds(30) // 30 minute reservation
-                );
-                
-                if (!reservationResponse.getSuccess()) {
-                    throw new RuntimeException("Inventory reservation failed for product " + 
-                                             item.getProductId() + ": " + reservationResponse.getErrorMessage());
-                }
-                
-                // Store reservation ID for compensation
-                sagaState.putSagaData("reservation_" + item.getProductId(), reservationId);
-            }
-            
-            logger.info("Inventory reservation successful for order {}", sagaState.getOrderId());
-            sagaState.moveToNextStep();
-            return executeNextStep(sagaState);
-            
-        } catch (Exception e) {
-            return handleStepFailure(sagaState, "Inventory reservation failed: " + e.getMessage());
+
+        Order order = getOrderWithItems(sagaState.getOrderId());
+        TenantContext context = buildTenantContext(sagaState.getTenantId(), order.getUserId().toString());
+
+        // Reserve every order line in a single all-or-nothing call
+        List<ReservationLine> lines = order.getItems().stream()
+                .map(item -> ReservationLine.newBuilder()
+                        .setProductId(item.getProductId())
+                        .setSku(item.getSku() != null ? item.getSku() : "")
+                        .setQuantity(item.getQuantity())
+                        .build())
+                .collect(Collectors.toList());
+
+        // Keep the reservation ID across retries and restarts so a retried call cannot reserve twice,
+        // and store it before the call so compensation can release a reservation whose response was lost
+        String reservationId = sagaState.getSagaData(INVENTORY_RESERVATION_KEY, String.class);
+        if (reservationId == null) {
+            reservationId = CorrelationIdGenerator.generate();
+            sagaState.putSagaData(INVENTORY_RESERVATION_KEY, reservationId);
+            checkpoint(sagaState);
         }
+
+        return inventoryServiceClient.reserveInventoryBatchAsync(
+                    context,
+                    order.getId().toString(),
+                    reservationId,
+                    lines,
+                    TimeUnit.MINUTES.toSeconds(30) // 30 minute reservation
+                )
+                .thenAccept(reservationResponse -> {
+                    if (!reservationResponse.getSuccess()) {
+                        String failedProducts = reservationResponse.getFailedItemsList().stream()
+                                .map(FailedReservationLine::getProductId)
+                                .collect(Collectors.joining(", "));
+                        throw new IllegalStateException("Inventory reservation failed for products [" + failedProducts + "]: " +
+                                                        reservationResponse.getErrorMessage());
+                    }
+
+                    // Store reservation ID for compensation
+                    sagaState.putSagaData(INVENTORY_RESERVATION_KEY, reservationResponse.getReservationId());
+                });
     }
 
-    private CompletableFuture<Boolean> executePaymentProcessing(OrderSagaState sagaState) {
+    private CompletableFuture<Void> executePaymentProcessing(OrderSagaState sagaState) {
         logger.info("Executing payment processing for order {}", sagaState.getOrderId());
-        
-        try {
-            Order order = getOrder(sagaState.getOrderId());
-            TenantContext context = buildTenantContext(sagaState.getTenantId(), order.getUserId().toString());
-            
-            String paymentMethod = sagaState.getSagaData("paymentMethod", String.class);
-            String paymentToken = sagaState.getSagaData("paymentToken", String.class);
-            String idempotencyKey = sagaState.getSagaData("idempotencyKey", String.class);
-            
-            Money amount = Money.newBuilder()
-                    .setAmountCents(order.getTotalAmount().multiply(new BigDecimal("100")).longValue())
-                    .setCurrency(order.getCurrency())
-                    .build();
-            
-            var paymentResponse = paymentServiceClient.processPayment(
-                context, 
-                order.getId(), 
-                amount, 
-                paymentMethod, 
-                paymentToken, 
-                idempotencyKey
-            );
-            
-            if (paymentResponse.getSuccess() && "COMPLETED".equals(paymentResponse.getStatus())) {
-                logger.info("Payment processing successful for order {}", sagaState.getOrderId());
-                sagaState.putSagaData("paymentId", paymentResponse.getPaymentId());
-                sagaState.putSagaData("transactionId", paymentResponse.getTransactionId());
-                sagaState.moveToNextStep();
-                return executeNextStep(sagaState);
-            } else {
-                throw new RuntimeException("Payment processing failed: " + paymentResponse.getErrorMessage());
-            }
-            
-        } catch (Exception e) {
-            return handleStepFailure(sagaState, "Payment processing failed: " + e.getMessage());
-        }
+
+        Order order = getOrder(sagaState.getOrderId());
+        TenantContext context = buildTenantContext(sagaState.getTenantId(), order.getUserId().toString());
+
+        String paymentMethod = sagaState.getSagaData("paymentMethod", String.class);
+        String paymentToken = sagaState.getSagaData("paymentToken", String.class);
+        String idempotencyKey = sagaState.getSagaData("idempotencyKey", String.class);
+
+        Money amount = Money.newBuilder()
+                .setAmountCents(order.getTotalAmount().multiply(new BigDecimal("100")).longValue())
+                .setCurrency(order.getCurrency())
+                .build();
+
+        return paymentServiceClient.processPaymentAsync(
+                    context,
+                    order.getId(),
+                    amount,
+                    paymentMethod,
+                    paymentToken,
+                    idempotencyKey
+                )
+                .thenAccept(paymentResponse -> {
+                    if (!paymentResponse.getSuccess() || !"COMPLETED".equals(paymentResponse.getStatus())) {
+                        throw new IllegalStateException("Payment processing failed: " + paymentResponse.getErrorMessage());
+                    }
+                    sagaState.putSagaData("paymentId", paymentResponse.getPaymentId());
+                    sagaState.putSagaData("transactionId", paymentResponse.getTransactionId());
+                });
     }
 
-    @Transactional
-    private CompletableFuture<Boolean> executeOrderConfirmation(OrderSagaState sagaState) {
+    private CompletableFuture<Void> executeOrderConfirmation(OrderSagaState sagaState) {
         logger.info("Executing order confirmation for order {}", sagaState.getOrderId());
-        
-        try {
-            Order order = getOrder(sagaState.getOrderId());
-            order.updateStatus(OrderStatus.CONFIRMED);
-            orderRepository.save(order);
-            
-            logger.info("Order confirmation successful for order {}", sagaState.getOrderId());
-            sagaState.moveToNextStep();
-            return executeNextStep(sagaState);
-            
-        } catch (Exception e) {
-            return handleStepFailure(sagaState, "Order confirmation failed: " + e.getMessage());
-        }
+
+        Order order = getOrder(sagaState.getOrderId());
+        order.updateStatus(OrderStatus.CONFIRMED);
+        orderRepository.save(order);
+        return CompletableFuture.completedFuture(null);
     }
 
     private CompletableFuture<Boolean> handleStepFailure(OrderSagaState sagaState, String errorMessage) {
         logger.error("Saga step failed for order {}: {}", sagaState.getOrderId(), errorMessage);
-        
+
         if (sagaState.canRetry()) {
             sagaState.incrementRetryCount();
-            logger.info("Retrying saga step for order {} (attempt {})", 
-                       sagaState.getOrderId(), sagaState.getRetryCount());
-            
-            // Exponential backoff
-            try {
-                Thread.sleep(1000 * sagaState.getRetryCount());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            long delayMillis = retryBackoffMillis * sagaState.getRetryCount();
+            sagaState.setErrorMessage(errorMessage);
+            sagaState.setNextAttemptAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(delayMillis)));
+            if (!checkpoint(sagaState, delayMillis)) {
+                return CompletableFuture.completedFuture(false);
             }
-            
-            return executeNextStep(sagaState);
+
+            logger.info("Retrying saga step for order {} (attempt {}) in {} ms",
+                       sagaState.getOrderId(), sagaState.getRetryCount(), delayMillis);
+
+            // Linear back-off on the scheduler; no worker thread waits for the retry
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            retryScheduler.schedule(() -> complete(result, runStep(sagaState)), delayMillis, TimeUnit.MILLISECONDS);
+            return result;
         } else {
             sagaState.markFailed(errorMessage);
             return compensateSaga(sagaState);
@@ -246,8 +324,12 @@ public class OrderSagaOrchestrator {
     private CompletableFuture<Boolean> compensateSaga(OrderSagaState sagaState) {
         logger.info("Starting compensation for order {}", sagaState.getOrderId());
         sagaState.startCompensation();
-        
+
         try {
+            if (!checkpoint(sagaState)) {
+                return CompletableFuture.completedFuture(false);
+            }
+
             // Compensate in reverse order
             switch (sagaState.getCurrentStep()) {
                 case PAYMENT_PROCESSING, ORDER_CONFIRMATION, COMPLETED -> {
@@ -261,14 +343,15 @@ public class OrderSagaOrchestrator {
                     // No compensation needed for user validation
                 }
             }
-            
+
             // Update order status to cancelled
             updateOrderStatus(sagaState.getOrderId(), OrderStatus.CANCELLED);
-            
+
             sagaState.markCompensated();
+            checkpoint(sagaState);
             logger.info("Compensation completed for order {}", sagaState.getOrderId());
             return CompletableFuture.completedFuture(false);
-            
+
         } catch (Exception e) {
             logger.error("Compensation failed for order {}: {}", sagaState.getOrderId(), e.getMessage(), e);
             return CompletableFuture.completedFuture(false);
@@ -281,12 +364,12 @@ public class OrderSagaOrchestrator {
             try {
                 Order order = getOrder(sagaState.getOrderId());
                 TenantContext context = buildTenantContext(sagaState.getTenantId(), order.getUserId().toString());
-                
+
                 Money amount = Money.newBuilder()
                         .setAmountCents(order.getTotalAmount().multiply(new BigDecimal("100")).longValue())
                         .setCurrency(order.getCurrency())
                         .build();
-                
+
                 paymentServiceClient.refundPayment(context, paymentId, amount, "Order cancelled due to saga failure");
                 logger.info("Payment refunded for order {}", sagaState.getOrderId());
             } catch (Exception e) {
@@ -299,27 +382,18 @@ public class OrderSagaOrchestrator {
         try {
             Order order = getOrder(sagaState.getOrderId());
             TenantContext context = buildTenantContext(sagaState.getTenantId(), order.getUserId().toString());
-            
-            for (OrderItem item : order.getItems()) {
-                String reservationId = sagaState.getSagaData("reservation_" + item.getProductId(), String.class);
-                if (reservationId != null) {
-                    try {
-                        inventoryServiceClient.releaseInventory(context, reservationId);
-                        logger.info("Inventory reservation released for product {} in order {}", 
-                                   item.getProductId(), sagaState.getOrderId());
-                    } catch (Exception e) {
-                        logger.error("Failed to release inventory reservation for product {} in order {}: {}", 
-                                    item.getProductId(), sagaState.getOrderId(), e.getMessage());
-                    }
-                }
+
+            String reservationId = sagaState.getSagaData(INVENTORY_RESERVATION_KEY, String.class);
+            if (reservationId != null) {
+                inventoryServiceClient.releaseInventory(context, reservationId);
+                logger.info("Inventory reservation {} released for order {}", reservationId, sagaState.getOrderId());
             }
         } catch (Exception e) {
-            logger.error("Failed to compensate inventory reservations for order {}: {}", 
+            logger.error("Failed to compensate inventory reservations for order {}: {}",
                         sagaState.getOrderId(), e.getMessage());
         }
     }
 
-    @Transactional
     private void updateOrderStatus(Long orderId, OrderStatus status) {
         try {
             Order order = getOrder(orderId);
@@ -330,47 +404,178 @@ public class OrderSagaOrchestrator {
         }
     }
 
+    /**
+     * Persist the saga and renew the lease, or release it once the saga has finished.
+     *
+     * @return false if another instance has taken the saga over; this instance then stops running it
+     */
+    private boolean checkpoint(OrderSagaState sagaState) {
+        return checkpoint(sagaState, 0);
+    }
+
+    private boolean checkpoint(OrderSagaState sagaState, long extraLeaseMillis) {
+        boolean finished = sagaState.getStatus().isFinal();
+        String owner = instanceId;
+        if (sagaStateRepository.update(sagaState, owner, finished ? null : owner,
+                                       finished ? null : leaseUntil(extraLeaseMillis))) {
+            return true;
+        }
+        logger.warn("Lost the lease on the saga for order {}, leaving it to its new owner", sagaState.getOrderId());
+        sagaStates.remove(sagaState.getOrderId(), sagaState);
+        return false;
+    }
+
+    private LocalDateTime leaseUntil(long extraLeaseMillis) {
+        return LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(leaseMillis + extraLeaseMillis));
+    }
+
     private Order getOrder(Long orderId) {
         return orderRepository.findById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
     }
 
+    // Steps run outside a transaction, so the lazy items are fetched with the order
+    private Order getOrderWithItems(Long orderId) {
+        return orderRepository.findByIdWithItems(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+    }
+
+    // Instances scanning at the same time see the same sagas; trying them in different orders
+    // keeps them from all racing for the first one
+    private static List<OrderSagaState> inRandomOrder(List<OrderSagaState> sagaStates) {
+        List<OrderSagaState> shuffled = new ArrayList<>(sagaStates);
+        Collections.shuffle(shuffled);
+        return shuffled;
+    }
+
     private TenantContext buildTenantContext(String tenantId, String userId) {
         return TenantContext.newBuilder()
                 .setTenantId(tenantId)
                 .setUserId(userId)
-                .setCorrelationId(com.ecommerce.shared.utils.TenantContext.getCorrelationId() != null ? 
+                .setCorrelationId(com.ecommerce.shared.utils.TenantContext.getCorrelationId() != null ?
                                 com.ecommerce.shared.utils.TenantContext.getCorrelationId() : CorrelationIdGenerator.generate())
                 .build();
     }
 
-    // Timeout handling method
+    private static String describe(SagaStep step) {
+        return switch (step) {
+            case USER_VALIDATION -> "User validation";
+            case INVENTORY_RESERVATION -> "Inventory reservation";
+            case PAYMENT_PROCESSING -> "Payment processing";
+            case ORDER_CONFIRMATION -> "Order confirmation";
+            case COMPLETED -> "Saga completion";
+        };
+    }
+
+    // Run a saga once the surrounding transaction, if any, has committed
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void complete(CompletableFuture<Boolean> result, CompletableFuture<Boolean> outcome) {
+        outcome.whenComplete((success, e) -> {
+            if (e != null) {
+                result.completeExceptionally(e);
+            } else {
+                result.complete(success);
+            }
+        });
+    }
+
+    /**
+     * Resume active sagas that no instance is running, e.g. after a restart or because their
+     * previous owner stopped
+     *
+     * @return number of sagas resumed
+     */
+    public int resumeDueSagas() {
+        LocalDateTime now = LocalDateTime.now();
+        int resumed = 0;
+        for (OrderSagaState sagaState : inRandomOrder(
+                sagaStateRepository.findDue(now, recoveryBatchSize))) {
+            if (!sagaStateRepository.claim(sagaState.getOrderId(), instanceId, now, leaseUntil(0))) {
+                continue;
+            }
+            logger.info("Resuming saga for order {} at step {}", sagaState.getOrderId(), sagaState.getCurrentStep());
+            sagaStates.put(sagaState.getOrderId(), sagaState);
+            if (sagaState.getStatus() == SagaStatus.COMPENSATING) {
+                stepExecutor.execute(() -> compensateSaga(sagaState));
+            } else {
+                runStep(sagaState);
+            }
+            resumed++;
+        }
+        return resumed;
+    }
+
+    /**
+     * Compensate active sagas that ran past their timeout and that no instance is running
+     */
     public void handleTimeouts() {
-        sagaStates.values().stream()
-                .filter(state -> state.getStatus().isActive() && state.isTimedOut())
-                .forEach(state -> {
-                    logger.warn("Saga timeout for order {}", state.getOrderId());
-                    state.markFailed("Saga timeout");
-                    compensateSaga(state);
-                });
+        LocalDateTime now = LocalDateTime.now();
+        for (OrderSagaState state : inRandomOrder(
+                sagaStateRepository.findTimedOut(now, recoveryBatchSize))) {
+            if (!sagaStateRepository.claim(state.getOrderId(), instanceId, now, leaseUntil(0))) {
+                continue;
+            }
+            logger.warn("Saga timeout for order {}", state.getOrderId());
+            sagaStates.put(state.getOrderId(), state);
+            state.markFailed("Saga timeout");
+            compensateSaga(state);
+        }
     }
 
-    // Get saga state for monitoring
+    /**
+     * Saga state for monitoring, from memory if this instance ran the saga, otherwise from the database
+     */
     public OrderSagaState getSagaState(Long orderId) {
-        return sagaStates.get(orderId);
+        OrderSagaState state = sagaStates.get(orderId);
+        return state != null ? state : sagaStateRepository.findByOrderId(orderId).orElse(null);
     }
 
-    // Remove completed sagas to prevent memory leaks
+    /**
+     * Forget finished sagas after an hour and delete them from the database after the retention period
+     */
     public void cleanupCompletedSagas() {
         sagaStates.entrySet().removeIf(entry -> {
             OrderSagaState state = entry.getValue();
-            return state.getStatus().isFinal() && 
+            return state.getStatus().isFinal() &&
                    state.getLastUpdatedAt().isBefore(LocalDateTime.now().minusHours(1));
         });
+        int deleted = sagaStateRepository.deleteFinishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            logger.info("Deleted {} finished sagas older than {} hours", deleted, retentionHours);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Pending retries are not lost: their leases expire and another instance resumes them
+        retryScheduler.shutdownNow();
+        stepExecutor.shutdown();
+        stepExecutor.awaitTermination(10, TimeUnit.SECONDS);
     }
 
     // Package-private method for testing
     ConcurrentHashMap<Long, OrderSagaState> getSagaStates() {
         return sagaStates;
     }
-}
\ No newline at end of file
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
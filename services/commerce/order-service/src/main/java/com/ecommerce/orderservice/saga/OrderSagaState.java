@@ -1,10 +1,13 @@
 package com.ecommerce.orderservice.saga;
 
+import com.ecommerce.shared.utils.CorrelationIdGenerator;
+
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
 public class OrderSagaState {
+    private String sagaId;
     private Long orderId;
     private String tenantId;
     private SagaStatus status;
@@ -13,11 +16,13 @@ public class OrderSagaState {
     private LocalDateTime startedAt;
     private LocalDateTime lastUpdatedAt;
     private LocalDateTime timeoutAt;
+    private LocalDateTime nextAttemptAt;
     private String errorMessage;
     private int retryCount;
     private static final int MAX_RETRIES = 3;
 
     public OrderSagaState(Long orderId, String tenantId) {
+        this.sagaId = CorrelationIdGenerator.generate();
         this.orderId = orderId;
         this.tenantId = tenantId;
         this.status = SagaStatus.STARTED;
@@ -26,6 +31,7 @@ public class OrderSagaState {
         this.startedAt = LocalDateTime.now();
         this.lastUpdatedAt = LocalDateTime.now();
         this.timeoutAt = LocalDateTime.now().plusMinutes(30); // 30 minute timeout
+        this.nextAttemptAt = this.startedAt;
         this.retryCount = 0;
     }
 
@@ -98,6 +104,14 @@ public class OrderSagaState {
     }
 
     // Getters and Setters
+    public String getSagaId() {
+        return sagaId;
+    }
+
+    public void setSagaId(String sagaId) {
+        this.sagaId = sagaId;
+    }
+
     public Long getOrderId() {
         return orderId;
     }
@@ -164,6 +178,14 @@ public class OrderSagaState {
         this.timeoutAt = timeoutAt;
     }
 
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
     public String getErrorMessage() {
         return errorMessage;
     }
@@ -18,6 +18,18 @@ public class SagaTimeoutHandler {
         this.sagaOrchestrator = sagaOrchestrator;
     }
 
+    @Scheduled(fixedDelayString = "${app.order.saga.recovery-interval-ms:5000}")
+    public void resumeDueSagas() {
+        try {
+            int resumed = sagaOrchestrator.resumeDueSagas();
+            if (resumed > 0) {
+                logger.info("Resumed {} sagas", resumed);
+            }
+        } catch (Exception e) {
+            logger.error("Error resuming sagas: {}", e.getMessage(), e);
+        }
+    }
+
     @Scheduled(fixedDelay = 60000) // Run every minute
     public void handleTimeouts() {
         try {
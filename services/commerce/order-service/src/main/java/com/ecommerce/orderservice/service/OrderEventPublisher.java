@@ -2,6 +2,7 @@ package com.ecommerce.orderservice.service;
 
 import com.ecommerce.orderservice.entity.Order;
 import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.repository.OrderOutboxRepository;
 import com.ecommerce.shared.models.events.*;
 import com.ecommerce.shared.utils.CorrelationIdGenerator;
 import com.ecommerce.shared.utils.TenantContext;
@@ -10,37 +11,37 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
- * Service responsible for publishing order-related events to Kafka
+ * Service responsible for publishing order-related events to Kafka.
+ *
+ * Events are appended to the transactional outbox rather than sent directly, so they are only
+ * published if the caller's transaction commits; {@link OrderOutboxRelay} delivers them.
  */
 @Service
 public class OrderEventPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderEventPublisher.class);
 
-    private final KafkaTemplate<String, DomainEvent> kafkaTemplate;
+    private final OrderOutboxRepository outboxRepository;
     private final String orderEventsTopic;
 
     @Autowired
-    public OrderEventPublisher(KafkaTemplate<String, DomainEvent> kafkaTemplate,
+    public OrderEventPublisher(OrderOutboxRepository outboxRepository,
                               @Value("${app.kafka.topics.order-events}") String orderEventsTopic) {
-        this.kafkaTemplate = kafkaTemplate;
+        this.outboxRepository = outboxRepository;
         this.orderEventsTopic = orderEventsTopic;
     }
 
     /**
      * Publishes an OrderCreatedEvent when a new order is created
      */
-    public CompletableFuture<SendResult<String, DomainEvent>> publishOrderCreated(Order order) {
+    public void publishOrderCreated(Order order) {
         logger.info("Publishing OrderCreatedEvent for order: {} in tenant: {}", 
                    order.getId(), order.getTenantId());
 
@@ -53,13 +54,13 @@ public class OrderEventPublisher {
             order.getStatus().name()
         );
 
-        return publishEvent(event, order.getId().toString());
+        publishEvent(event, order.getId().toString());
     }
 
     /**
      * Publishes an OrderConfirmedEvent when an order is confirmed (payment successful)
      */
-    public CompletableFuture<SendResult<String, DomainEvent>> publishOrderConfirmed(Order order, String paymentId) {
+    public void publishOrderConfirmed(Order order, String paymentId) {
         logger.info("Publishing OrderConfirmedEvent for order: {} in tenant: {}", 
                    order.getId(), order.getTenantId());
 
@@ -72,13 +73,13 @@ public class OrderEventPublisher {
             paymentId
         );
 
-        return publishEvent(event, order.getId().toString());
+        publishEvent(event, order.getId().toString());
     }
 
     /**
      * Publishes an OrderProcessingEvent when an order starts processing
      */
-    public CompletableFuture<SendResult<String, DomainEvent>> publishOrderProcessing(Order order) {
+    public void publishOrderProcessing(Order order) {
         logger.info("Publishing OrderProcessingEvent for order: {} in tenant: {}", 
                    order.getId(), order.getTenantId());
 
@@ -89,16 +90,16 @@ public class OrderEventPublisher {
             mapToOrderProcessingItemData(order.getItems())
         );
 
-        return publishEvent(event, order.getId().toString());
+        publishEvent(event, order.getId().toString());
     }
 
     /**
      * Publishes an OrderShippedEvent when an order is shipped
      */
-    public CompletableFuture<SendResult<String, DomainEvent>> publishOrderShipped(Order order, 
-                                                                                 String trackingNumber, 
-                                                                                 String carrier, 
-                                                                                 String estimatedDeliveryDate) {
+    public void publishOrderShipped(Order order,
+                                    String trackingNumber,
+                                    String carrier,
+                                    String estimatedDeliveryDate) {
         logger.info("Publishing OrderShippedEvent for order: {} in tenant: {}", 
                    order.getId(), order.getTenantId());
 
@@ -112,17 +113,17 @@ public class OrderEventPublisher {
             estimatedDeliveryDate
         );
 
-        return publishEvent(event, order.getId().toString());
+        publishEvent(event, order.getId().toString());
     }
 
     /**
      * Publishes an OrderDeliveredEvent when an order is delivered
      */
-    public CompletableFuture<SendResult<String, DomainEvent>> publishOrderDelivered(Order order, 
-                                                                                   String trackingNumber, 
-                                                                                   String carrier, 
-                                                                                   LocalDateTime deliveredAt, 
-                                                                                   String deliverySignature) {
+    public void publishOrderDelivered(Order order,
+                                      String trackingNumber,
+                                      String carrier,
+                                      LocalDateTime deliveredAt,
+                                      String deliverySignature) {
         logger.info("Publishing OrderDeliveredEvent for order: {} in tenant: {}", 
                    order.getId(), order.getTenantId());
 
@@ -137,13 +138,13 @@ public class OrderEventPublisher {
             deliverySignature
         );
 
-        return publishEvent(event, order.getId().toString());
+        publishEvent(event, order.getId().toString());
     }
 
     /**
      * Publishes an OrderCancelledEvent when an order is cancelled
      */
-    public CompletableFuture<SendResult<String, DomainEvent>> publishOrderCancelled(Order order, String reason) {
+    public void publishOrderCancelled(Order order, String reason) {
         logger.info("Publishing OrderCancelledEvent for order: {} in tenant: {}", 
                    order.getId(), order.getTenantId());
 
@@ -155,13 +156,13 @@ public class OrderEventPublisher {
             reason
         );
 
-        return publishEvent(event, order.getId().toString());
+        publishEvent(event, order.getId().toString());
     }
 
     /**
      * Generic method to publish any domain event with correlation ID tracking
      */
-    private CompletableFuture<SendResult<String, DomainEvent>> publishEvent(DomainEvent event, String orderKey) {
+    private void publishEvent(DomainEvent event, String orderKey) {
         // Set correlation ID from MDC or generate new one
         String correlationId = MDC.get("correlationId");
         if (correlationId == null) {
@@ -174,28 +175,10 @@ public class OrderEventPublisher {
             event.setTenantId(TenantContext.getTenantId());
         }
 
-        logger.debug("Publishing event: {} with correlation ID: {} to topic: {}", 
-                    event.getEventType(), correlationId, orderEventsTopic);
+        outboxRepository.append(orderEventsTopic, orderKey, event);
 
-        // Make variables effectively final for lambda
-        final String finalCorrelationId = correlationId;
-        final String finalOrderKey = orderKey;
-        final String eventType = event.getEventType();
-
-        CompletableFuture<SendResult<String, DomainEvent>> future = kafkaTemplate.send(orderEventsTopic, orderKey, event);
-
-        future.whenComplete((result, throwable) -> {
-            if (throwable != null) {
-                logger.error("Failed to publish event: {} for order: {} with correlation ID: {}", 
-                           eventType, finalOrderKey, finalCorrelationId, throwable);
-            } else {
-                logger.info("Successfully published event: {} for order: {} with correlation ID: {} to partition: {} at offset: {}", 
-                           eventType, finalOrderKey, finalCorrelationId, 
-                           result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
-            }
-        });
-
-        return future;
+        logger.debug("Recorded event: {} for order: {} with correlation ID: {} in the outbox for topic: {}",
+                    event.getEventType(), orderKey, correlationId, orderEventsTopic);
     }
 
     /**
@@ -1,6 +1,5 @@
 package com.ecommerce.orderservice.service;
 
-import com.ecommerce.orderservice.repository.OrderRepository;
 import com.ecommerce.shared.utils.TenantContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,78 +7,181 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
 
+/**
+ * Generates order numbers without touching the database.
+ *
+ * The random suffix of the original format is replaced by a snowflake-style value packed into
+ * the same 8 base-36 characters: milliseconds since the start of the day (27 bits), the node ID
+ * (6 bits) and a per-millisecond sequence (8 bits). Together with the date part this makes
+ * numbers unique across nodes as long as every instance runs with its own node ID, so a
+ * deployment of several replicas refuses to start until each is given one.
+ *
+ * The timestamp is a logical clock that never moves backwards: if the wall clock steps back, or
+ * more than 256 numbers are requested within one millisecond, numbers are taken from the next
+ * millisecond. It never runs more than {@value #MAX_CLOCK_LEAD_MS} ms ahead of the wall clock;
+ * beyond that, callers wait for the clock to catch up. A restarted instance starts that far ahead
+ * of the wall clock, past every number its previous run can have issued, as long as the wall
+ * clock did not step back by more than that while it was down.
+ */
 @Service
 public class OrderNumberGenerator {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderNumberGenerator.class);
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-    private static final int MAX_RETRY_ATTEMPTS = 5;
 
-    private final OrderRepository orderRepository;
+    static final int NODE_BITS = 6;
+    static final int SEQUENCE_BITS = 8;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    static final long MAX_CLOCK_LEAD_MS = 1000;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int SUFFIX_LENGTH = 8;
+    private static final char[] BASE36 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
     private final String orderPrefix;
+    private final int nodeId;
+    private final ZoneId zone;
+    private final LongSupplier clock;
+    private final Runnable pause;
+
+    // Last issued (millis << SEQUENCE_BITS | sequence)
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
+    private final Map<String, String> tenantHashes = new ConcurrentHashMap<>();
+    private volatile Day currentDay;
 
     @Autowired
-    public OrderNumberGenerator(OrderRepository orderRepository,
-                               @Value("${app.order.number-prefix:ORD}") String orderPrefix) {
-        this.orderRepository = orderRepository;
+    public OrderNumberGenerator(@Value("${app.order.number-prefix:ORD}") String orderPrefix,
+                               @Value("${app.order.number-node-id:}") Integer nodeId,
+                               @Value("${app.order.replicas:1}") int replicas) {
+        this(orderPrefix, resolveNodeId(nodeId, replicas), ZoneId.systemDefault(), System::currentTimeMillis,
+             () -> LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+
+    OrderNumberGenerator(String orderPrefix, int nodeId, ZoneId zone, LongSupplier clock, Runnable pause) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Order number node ID " + nodeId + " is outside 0.." + MAX_NODE_ID);
+        }
         this.orderPrefix = orderPrefix;
+        this.nodeId = nodeId;
+        this.zone = zone;
+        this.clock = clock;
+        this.pause = pause;
+        // As if the sequence of the millisecond before the start floor had just run out
+        this.lastTimestampAndSequence.set(((clock.getAsLong() + MAX_CLOCK_LEAD_MS) << SEQUENCE_BITS) - 1);
+        logger.info("Order numbers are generated with node ID {}", nodeId);
+    }
+
+    /**
+     * The configured node ID, or 0 for a single replica. Replicas sharing the default would issue
+     * the same numbers, so several replicas without node IDs are a configuration error.
+     */
+    static int resolveNodeId(Integer nodeId, int replicas) {
+        if (replicas > MAX_NODE_ID + 1) {
+            throw new IllegalStateException(
+                "At most " + (MAX_NODE_ID + 1) + " order-service replicas can generate order numbers, got " + replicas);
+        }
+        if (nodeId != null) {
+            return nodeId;
+        }
+        if (replicas > 1) {
+            throw new IllegalStateException("app.order.number-node-id (ORDER_NUMBER_NODE_ID) must be set to a "
+                + "distinct value in 0.." + MAX_NODE_ID + " on each of the " + replicas + " order-service replicas");
+        }
+        return 0;
     }
 
     /**
      * Generates a unique order number with the following format:
-     * {PREFIX}-{YYYYMMDD}-{TENANT_HASH}-{RANDOM}
-     * 
+     * {PREFIX}-{YYYYMMDD}-{TENANT_HASH}-{SUFFIX}
+     *
      * Example: ORD-20240101-A1B2-C3D4E5F6
      */
     public String generateUniqueOrderNumber() {
-        String tenantId = TenantContext.getTenantId();
-        
-        for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS; attempt++) {
-            String orderNumber = generateOrderNumber(tenantId);
-            
-            // Check if order number already exists
-            if (!orderRepository.existsByOrderNumber(orderNumber)) {
-                logger.debug("Generated unique order number: {} on attempt {}", orderNumber, attempt);
-                return orderNumber;
-            }
-            
-            logger.warn("Order number collision detected: {} (attempt {})", orderNumber, attempt);
-        }
-        
-        // If we still have collisions after max attempts, add timestamp for uniqueness
-        String fallbackOrderNumber = generateFallbackOrderNumber(tenantId);
-        logger.warn("Using fallback order number generation: {}", fallbackOrderNumber);
-        return fallbackOrderNumber;
+        long timestampAndSequence = nextTimestampAndSequence();
+        long millis = timestampAndSequence >>> SEQUENCE_BITS;
+        long sequence = timestampAndSequence & SEQUENCE_MASK;
+
+        Day day = dayOf(millis);
+        long suffix = ((millis - day.startMillis) << (NODE_BITS + SEQUENCE_BITS))
+            | ((long) nodeId << SEQUENCE_BITS)
+            | sequence;
+
+        String tenantHash = tenantHashes.computeIfAbsent(TenantContext.getTenantId(), this::generateTenantHash);
+
+        char[] chars = new char[orderPrefix.length() + 1 + day.datePart.length() + 1 + tenantHash.length() + 1 + SUFFIX_LENGTH];
+        int pos = 0;
+        orderPrefix.getChars(0, orderPrefix.length(), chars, pos);
+        pos += orderPrefix.length();
+        chars[pos++] = '-';
+        day.datePart.getChars(0, day.datePart.length(), chars, pos);
+        pos += day.datePart.length();
+        chars[pos++] = '-';
+        tenantHash.getChars(0, tenantHash.length(), chars, pos);
+        pos += tenantHash.length();
+        chars[pos++] = '-';
+        for (int i = chars.length - 1; i >= pos; i--) {
+            chars[i] = BASE36[(int) (suffix % 36)];
+            suffix /= 36;
+        }
+        return new String(chars);
     }
 
-    private String generateOrderNumber(String tenantId) {
-        String datePart = LocalDateTime.now().format(DATE_FORMAT);
-        String tenantHash = generateTenantHash(tenantId);
-        String randomPart = generateRandomPart();
-        
-        return String.format("%s-%s-%s-%s", orderPrefix, datePart, tenantHash, randomPart);
+    /**
+     * Claim the next (millisecond, sequence) pair; lock-free and strictly increasing
+     */
+    private long nextTimestampAndSequence() {
+        while (true) {
+            long last = lastTimestampAndSequence.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+            long now = clock.getAsLong();
+
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = last + 1;
+            } else {
+                next = (lastMillis + 1) << SEQUENCE_BITS;
+            }
+
+            if ((next >>> SEQUENCE_BITS) - now > MAX_CLOCK_LEAD_MS) {
+                pause.run();
+                continue;
+            }
+            if (lastTimestampAndSequence.compareAndSet(last, next)) {
+                return next;
+            }
+        }
     }
 
-    private String generateFallbackOrderNumber(String tenantId) {
-        String datePart = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String tenantHash = generateTenantHash(tenantId);
-        String randomPart = generateRandomPart();
-        String timestampPart = String.valueOf(System.nanoTime()).substring(8); // Last 10 digits
-        
-        return String.format("%s-%s-%s-%s-%s", orderPrefix, datePart, tenantHash, randomPart, timestampPart);
+    private Day dayOf(long millis) {
+        Day day = currentDay;
+        if (day == null || millis < day.startMillis || millis >= day.endMillis) {
+            LocalDate date = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+            day = new Day(date.format(DATE_FORMAT),
+                          date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                          date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+            currentDay = day;
+        }
+        return day;
     }
 
     private String generateTenantHash(String tenantId) {
         // Generate a 4-character hash from tenant ID for readability
         int hash = Math.abs(tenantId.hashCode());
         String hexHash = Integer.toHexString(hash).toUpperCase();
-        
+
         // Take first 4 characters, pad if necessary
         if (hexHash.length() >= 4) {
             return hexHash.substring(0, 4);
@@ -88,18 +190,6 @@ public class OrderNumberGenerator {
         }
     }
 
-    private String generateRandomPart() {
-        // Generate 8-character random alphanumeric string
-        StringBuilder sb = new StringBuilder(8);
-        String chars = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-        
-        for (int i = 0; i < 8; i++) {
-            sb.append(chars.charAt(SECURE_RANDOM.nextInt(chars.length())));
-        }
-        
-        return sb.toString();
-    }
-
     /**
      * Validates order number format
      */
@@ -107,34 +197,34 @@ public class OrderNumberGenerator {
         if (orderNumber == null || orderNumber.trim().isEmpty()) {
             return false;
         }
-        
+
         // Basic format validation: PREFIX-YYYYMMDD-XXXX-XXXXXXXX
         String[] parts = orderNumber.split("-");
-        
+
         if (parts.length < 4) {
             return false;
         }
-        
+
         // Check prefix
         if (!orderPrefix.equals(parts[0])) {
             return false;
         }
-        
+
         // Check date part (8 digits)
         if (parts[1].length() != 8 || !parts[1].matches("\\d{8}")) {
             return false;
         }
-        
+
         // Check tenant hash (4 alphanumeric characters)
         if (parts[2].length() != 4 || !parts[2].matches("[0-9A-F]{4}")) {
             return false;
         }
-        
-        // Check random part (8 alphanumeric characters)
+
+        // Check suffix (8 alphanumeric characters)
         if (parts[3].length() != 8 || !parts[3].matches("[0-9A-Z]{8}")) {
             return false;
         }
-        
+
         return true;
     }
 
@@ -145,14 +235,29 @@ public class OrderNumberGenerator {
         if (!isValidOrderNumberFormat(orderNumber)) {
             throw new IllegalArgumentException("Invalid order number format: " + orderNumber);
         }
-        
+
         String[] parts = orderNumber.split("-");
         String datePart = parts[1];
-        
+
         try {
             return LocalDateTime.parse(datePart + "000000", DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid date in order number: " + orderNumber, e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Formatted date and epoch-millisecond bounds of one local day
+     */
+    private static final class Day {
+        private final String datePart;
+        private final long startMillis;
+        private final long endMillis;
+
+        private Day(String datePart, long startMillis, long endMillis) {
+            this.datePart = datePart;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+    }
+}
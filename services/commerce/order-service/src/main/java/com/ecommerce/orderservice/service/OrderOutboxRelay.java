@@ -0,0 +1,218 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.repository.OrderOutboxRepository;
+import com.ecommerce.orderservice.repository.OrderOutboxRepository.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Publishes outbox events to Kafka.
+ *
+ * Each batch is handled in three steps: a short transaction claims the oldest events, they are sent
+ * to Kafka outside any transaction, and a second short transaction deletes the events Kafka
+ * acknowledged and releases the claim on the rest. No connection or row lock is held while waiting
+ * for Kafka; the claim keeps other instances from relaying meanwhile (see
+ * {@link OrderOutboxRepository#claimOldest}) and lapses if this instance stops mid-batch.
+ *
+ * Events are grouped by key: different keys are sent concurrently, but the events of
+ * one key are sent one at a time, each only once the previous one was acknowledged. If an event
+ * fails, the later events of its key are not sent at all and stay in the outbox with it until the
+ * next run, so a retry can never overtake them and events of one order keep their relative order.
+ * Delivery is at least once.
+ */
+@Service
+public class OrderOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+    private final OrderOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String relayId = UUID.randomUUID().toString();
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.outbox.max-batches-per-run:10}")
+    private int maxBatchesPerRun = 10;
+
+    @Value("${app.outbox.send-timeout-ms:30000}")
+    private long sendTimeoutMillis = 30000;
+
+    // Longer than the send timeout, so a claim only lapses when its relay stopped
+    @Value("${app.outbox.claim-ms:60000}")
+    private long claimMillis = 60000;
+
+    @Autowired
+    public OrderOutboxRelay(OrderOutboxRepository outboxRepository,
+                            KafkaTemplate<String, String> kafkaTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishedCounter = Counter.builder("order.outbox.published")
+            .description("Order events relayed from the outbox to Kafka")
+            .register(meterRegistry);
+        this.failureCounter = Counter.builder("order.outbox.publish_failures")
+            .description("Order events that failed to publish and stay in the outbox")
+            .register(meterRegistry);
+        Gauge.builder("order.outbox.pending", pendingEvents, AtomicLong::get)
+            .description("Order events waiting in the outbox")
+            .register(meterRegistry);
+        Gauge.builder("order.outbox.lag_seconds", lagMillis, millis -> millis.get() / 1000.0)
+            .description("Age of the oldest order event waiting in the outbox")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Drain the outbox
+     *
+     * @return number of events published
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:200}")
+    public synchronized int relay() {
+        int published = 0;
+        try {
+            for (int run = 0; run < maxBatchesPerRun; run++) {
+                List<OutboxEvent> batch = claimBatch();
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                List<Long> acknowledged = publish(batch);
+                markSent(batch, acknowledged);
+                published += acknowledged.size();
+                publishedCounter.increment(acknowledged.size());
+
+                if (acknowledged.size() < batch.size() || batch.size() < batchSize) {
+                    break;
+                }
+            }
+            updateLag();
+        } catch (Exception e) {
+            logger.error("Outbox relay run failed: {}", e.getMessage(), e);
+        }
+        if (published > 0) {
+            logger.debug("Relayed {} order events", published);
+        }
+        return published;
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = transactionTemplate.execute(status ->
+            outboxRepository.claimOldest(relayId, now, now.plus(Duration.ofMillis(claimMillis)), batchSize));
+        return batch != null ? batch : List.of();
+    }
+
+    private void markSent(List<OutboxEvent> batch, List<Long> acknowledged) {
+        Set<Long> sent = Set.copyOf(acknowledged);
+        List<Long> unsent = batch.stream()
+            .map(OutboxEvent::getId)
+            .filter(id -> !sent.contains(id))
+            .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxRepository.deleteByIds(acknowledged);
+            outboxRepository.releaseClaims(relayId, unsent);
+        });
+    }
+
+    /**
+     * Send a batch and return the IDs of the events that can be removed from the outbox, in batch order
+     */
+    private List<Long> publish(List<OutboxEvent> batch) {
+        Map<String, List<OutboxEvent>> byKey = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byKey.computeIfAbsent(event.getKey(), key -> new ArrayList<>()).add(event);
+        }
+
+        Set<Long> acknowledged = ConcurrentHashMap.newKeySet();
+        AtomicBoolean stopped = new AtomicBoolean();
+        CompletableFuture<?>[] sends = byKey.values().stream()
+            .map(events -> sendInOrder(events, 0, acknowledged, stopped))
+            .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            logger.warn("Timed out waiting for Kafka acks after {} ms, unacknowledged events will be retried",
+                       sendTimeoutMillis);
+        } catch (ExecutionException e) {
+            // Failures end their key's chain and are logged there
+        } finally {
+            // Events acknowledged from here on are sent again next run, which at least once allows
+            stopped.set(true);
+        }
+        return batch.stream()
+            .map(OutboxEvent::getId)
+            .filter(acknowledged::contains)
+            .toList();
+    }
+
+    // Send the events of one key from index on, each once the previous one was acknowledged
+    private CompletableFuture<Void> sendInOrder(List<OutboxEvent> events, int index, Set<Long> acknowledged,
+                                                AtomicBoolean stopped) {
+        if (index == events.size() || stopped.get()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        OutboxEvent event = events.get(index);
+        return send(event).handle((result, e) -> {
+            if (e != null) {
+                failureCounter.increment();
+                logger.error("Failed to publish outbox event {} for key {}, will retry it and {} later events: {}",
+                           event.getId(), event.getKey(), events.size() - index - 1, e.getMessage());
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            acknowledged.add(event.getId());
+            return sendInOrder(events, index + 1, acknowledged, stopped);
+        }).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OutboxEvent event) {
+        try {
+            return kafkaTemplate.send(event.getTopic(), event.getKey(), event.getPayload());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void updateLag() {
+        pendingEvents.set(outboxRepository.countPending());
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt();
+        lagMillis.set(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()) : 0);
+    }
+}
@@ -147,17 +147,8 @@ public class OrderService {
         // Record business metrics
         businessMetricsCollector.recordOrderCreated(TenantContext.getTenantId(), savedOrder.getTotalAmount());
 
-        // Publish OrderCreated event
-        eventPublisher.publishOrderCreated(savedOrder)
-            .whenComplete((result, throwable) -> {
-                if (throwable != null) {
-                    logger.error("Failed to publish OrderCreated event for order: {}", 
-                               savedOrder.getId(), throwable);
-                } else {
-                    logger.debug("Successfully published OrderCreated event for order: {}", 
-                               savedOrder.getId());
-                }
-            });
+        // Record OrderCreated in the outbox; it commits together with the order
+        eventPublisher.publishOrderCreated(savedOrder);
 
         logger.info("Order created successfully: {} for user: {} with idempotency token: {}", 
                    savedOrder.getOrderNumber(), savedOrder.getUserId(), 
@@ -242,17 +233,8 @@ public class OrderService {
         order.updateStatus(OrderStatus.CANCELLED);
         Order savedOrder = orderRepository.save(order);
 
-        // Publish OrderCancelled event
-        eventPublisher.publishOrderCancelled(savedOrder, reason)
-            .whenComplete((result, throwable) -> {
-                if (throwable != null) {
-                    logger.error("Failed to publish OrderCancelled event for order: {}", 
-                               orderId, throwable);
-                } else {
-                    logger.debug("Successfully published OrderCancelled event for order: {}", 
-                               orderId);
-                }
-            });
+        // Record OrderCancelled in the outbox; it commits together with the order
+        eventPublisher.publishOrderCancelled(savedOrder, reason);
 
         logger.info("Order cancelled successfully: {}", orderId);
     }
@@ -353,50 +335,20 @@ public class OrderService {
     private void publishStatusChangeEvent(Order order, OrderStatus newStatus, String reason) {
         switch (newStatus) {
             case CONFIRMED:
-                eventPublisher.publishOrderConfirmed(order, "payment-id-placeholder")
-                    .whenComplete((result, throwable) -> {
-                        if (throwable != null) {
-                            logger.error("Failed to publish OrderConfirmed event for order: {}", 
-                                       order.getId(), throwable);
-                        }
-                    });
+                eventPublisher.publishOrderConfirmed(order, "payment-id-placeholder");
                 break;
             case PROCESSING:
-                eventPublisher.publishOrderProcessing(order)
-                    .whenComplete((result, throwable) -> {
-                        if (throwable != null) {
-                            logger.error("Failed to publish OrderProcessing event for order: {}", 
-                                       order.getId(), throwable);
-                        }
-                    });
+                eventPublisher.publishOrderProcessing(order);
                 break;
             case SHIPPED:
-                eventPublisher.publishOrderShipped(order, "tracking-placeholder", "carrier-placeholder", null)
-                    .whenComplete((result, throwable) -> {
-                        if (throwable != null) {
-                            logger.error("Failed to publish OrderShipped event for order: {}", 
-                                       order.getId(), throwable);
-                        }
-                    });
+                eventPublisher.publishOrderShipped(order, "tracking-placeholder", "carrier-placeholder", null);
                 break;
             case DELIVERED:
                 eventPublisher.publishOrderDelivered(order, "tracking-placeholder", "carrier-placeholder", 
-                                                   LocalDateTime.now(), null)
-                    .whenComplete((result, throwable) -> {
-                        if (throwable != null) {
-                            logger.error("Failed to publish OrderDelivered event for order: {}", 
-                                       order.getId(), throwable);
-                        }
-                    });
+                                                   LocalDateTime.now(), null);
                 break;
             case CANCELLED:
-                eventPublisher.publishOrderCancelled(order, reason != null ? reason : "Status update")
-                    .whenComplete((result, throwable) -> {
-                        if (throwable != null) {
-                            logger.error("Failed to publish OrderCancelled event for order: {}", 
-                                       order.getId(), throwable);
-                        }
-                    });
+                eventPublisher.publishOrderCancelled(order, reason != null ? reason : "Status update");
                 break;
             default:
                 logger.debug("No event publishing needed for status: {}", newStatus);
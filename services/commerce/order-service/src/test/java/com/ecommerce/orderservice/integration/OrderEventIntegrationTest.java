@@ -27,7 +27,6 @@ import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.kafka.test.utils.KafkaTestUtils;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Duration;
@@ -37,6 +36,10 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+/**
+ * Tests run without a surrounding transaction: events reach Kafka only after the order change
+ * commits and the outbox relay picks them up.
+ */
 @SpringBootTest
 @EmbeddedKafka(
     partitions = 1,
@@ -84,7 +87,6 @@ class OrderEventIntegrationTest {
     }
 
     @Test
-    @Transactional
     void createOrder_ShouldPublishOrderCreatedEvent() throws Exception {
         // Arrange
         CreateOrderRequest request = createTestOrderRequest();
@@ -114,7 +116,6 @@ class OrderEventIntegrationTest {
     }
 
     @Test
-    @Transactional
     void updateOrderStatus_ToConfirmed_ShouldPublishOrderConfirmedEvent() throws Exception {
         // Arrange
         CreateOrderRequest request = createTestOrderRequest();
@@ -146,7 +147,6 @@ class OrderEventIntegrationTest {
     }
 
     @Test
-    @Transactional
     void updateOrderStatus_ToProcessing_ShouldPublishOrderProcessingEvent() throws Exception {
         // Arrange
         CreateOrderRequest request = createTestOrderRequest();
@@ -177,7 +177,6 @@ class OrderEventIntegrationTest {
     }
 
     @Test
-    @Transactional
     void updateOrderStatus_ToShipped_ShouldPublishOrderShippedEvent() throws Exception {
         // Arrange
         CreateOrderRequest request = createTestOrderRequest();
@@ -210,7 +209,6 @@ class OrderEventIntegrationTest {
     }
 
     @Test
-    @Transactional
     void cancelOrder_ShouldPublishOrderCancelledEvent() throws Exception {
         // Arrange
         CreateOrderRequest request = createTestOrderRequest();
@@ -240,7 +238,6 @@ class OrderEventIntegrationTest {
     }
 
     @Test
-    @Transactional
     void multipleStatusUpdates_ShouldPublishMultipleEvents() throws Exception {
         // Arrange
         CreateOrderRequest request = createTestOrderRequest();
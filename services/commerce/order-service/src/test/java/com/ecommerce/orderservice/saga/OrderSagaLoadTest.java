@@ -0,0 +1,192 @@
+package com.ecommerce.orderservice.saga;
+
+import com.ecommerce.inventoryservice.proto.InventoryServiceProtos.ReserveInventoryBatchResponse;
+import com.ecommerce.orderservice.client.InventoryServiceClient;
+import com.ecommerce.orderservice.client.PaymentServiceClient;
+import com.ecommerce.orderservice.client.UserServiceClient;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.paymentservice.proto.PaymentServiceProtos.ProcessPaymentResponse;
+import com.ecommerce.userservice.proto.UserServiceProtos.ValidateUserResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * End-to-end saga throughput against MySQL, with remote services stubbed to answer after a fixed
+ * latency. Run with {@code -Dperformance.tests.enabled=true}; throughput and latency are printed,
+ * and nearly every saga must complete.
+ *
+ * The database is created from the deployment schema, so the saga table and its indexes are the
+ * ones used in production.
+ */
+@SpringBootTest(properties = {
+    "app.order.saga.worker-threads=16",
+    "app.order.saga.instance-id=bench-instance"
+})
+@Testcontainers
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class OrderSagaLoadTest {
+
+    private static final String TENANT_ID = "bench-tenant";
+    private static final int SAGAS = 5_000;
+    private static final int SUBMITTERS = 32;
+    private static final long REMOTE_LATENCY_MS = 20;
+
+    /** Remote calls always succeed, so only lost leases or database errors may fail a saga */
+    private static final int MIN_SUCCEEDED = SAGAS * 99 / 100;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("order_service")
+            .withUsername("test")
+            .withPassword("test")
+            .withCopyFileToContainer(
+                MountableFile.forHostPath("../../../docker/mysql/init/06-order-service-schema.sql"),
+                "/docker-entrypoint-initdb.d/06-order-service-schema.sql");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "40");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private OrderSagaOrchestrator sagaOrchestrator;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @MockBean
+    private InventoryServiceClient inventoryServiceClient;
+
+    @MockBean
+    private PaymentServiceClient paymentServiceClient;
+
+    private List<Long> orderIds;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM order_saga_state");
+        orderRepository.deleteAll();
+        List<Order> orders = new ArrayList<>(SAGAS);
+        for (int i = 0; i < SAGAS; i++) {
+            Order order = new Order(TENANT_ID, "ORD-BENCH-" + i, (long) (i % 1000) + 1);
+            order.setStatus(OrderStatus.PENDING);
+            order.setCurrency("USD");
+            order.setBillingAddress("{\"street\":\"123 Main St\",\"city\":\"Bench City\"}");
+            order.setShippingAddress("{\"street\":\"123 Main St\",\"city\":\"Bench City\"}");
+            order.addItem(new OrderItem("product-" + (i % 100), "SKU-" + (i % 100), "Bench Product", 1, new BigDecimal("25.00")));
+            order.calculateTotals();
+            orders.add(order);
+        }
+        orderIds = orderRepository.saveAll(orders).stream().map(Order::getId).toList();
+
+        ValidateUserResponse validUser = ValidateUserResponse.newBuilder().setIsValid(true).setIsActive(true).build();
+        ReserveInventoryBatchResponse reserved = ReserveInventoryBatchResponse.newBuilder()
+            .setSuccess(true).setReservationId("bench-reservation").build();
+        ProcessPaymentResponse paid = ProcessPaymentResponse.newBuilder()
+            .setSuccess(true).setPaymentId("bench-payment").setStatus("COMPLETED").build();
+        when(userServiceClient.validateUserAsync(any(), anyLong())).thenAnswer(invocation -> respondLater(validUser));
+        when(inventoryServiceClient.reserveInventoryBatchAsync(any(), anyString(), anyString(), anyList(), anyLong()))
+            .thenAnswer(invocation -> respondLater(reserved));
+        when(paymentServiceClient.processPaymentAsync(any(), anyLong(), any(), anyString(), anyString(), anyString()))
+            .thenAnswer(invocation -> respondLater(paid));
+    }
+
+    @Test
+    void sagaThroughputAndLatency() throws Exception {
+        AtomicLongArray latencies = new AtomicLongArray(SAGAS);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(SAGAS);
+        ExecutorService submitters = Executors.newFixedThreadPool(SUBMITTERS);
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < SAGAS; i++) {
+            int index = i;
+            submitters.execute(() -> {
+                long sagaStart = System.nanoTime();
+                sagaOrchestrator.processOrder(orderIds.get(index), "CREDIT_CARD", "bench-token")
+                    .whenComplete((success, e) -> {
+                        latencies.set(index, System.nanoTime() - sagaStart);
+                        if (e == null && Boolean.TRUE.equals(success)) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        finished.countDown();
+                    });
+            });
+        }
+        assertTrue(finished.await(10, TimeUnit.MINUTES));
+        long elapsedNanos = System.nanoTime() - startNanos;
+        submitters.shutdown();
+
+        long[] sorted = new long[SAGAS];
+        for (int i = 0; i < SAGAS; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+
+        System.out.printf("Sagas: %d ok, %d failed, %,.0f sagas/s%n",
+            succeeded.get(), failed.get(), SAGAS / (elapsedNanos / 1_000_000_000.0));
+        System.out.printf("End-to-end latency: p50 %.1f ms, p99 %.1f ms, max %.1f ms (remote calls %d ms each)%n",
+            millis(sorted[SAGAS / 2]), millis(sorted[(int) Math.ceil(SAGAS * 0.99) - 1]), millis(sorted[SAGAS - 1]),
+            REMOTE_LATENCY_MS);
+
+        Integer completed = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM order_saga_state WHERE status = 'COMPLETED' AND locked_by IS NULL", Integer.class);
+        assertEquals(succeeded.get(), completed);
+        assertTrue(succeeded.get() >= MIN_SUCCEEDED,
+            "Only " + succeeded.get() + " of " + SAGAS + " sagas completed, expected at least " + MIN_SUCCEEDED);
+    }
+
+    private static <T> CompletableFuture<T> respondLater(T response) {
+        return CompletableFuture.supplyAsync(() -> response,
+            CompletableFuture.delayedExecutor(REMOTE_LATENCY_MS, TimeUnit.MILLISECONDS));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
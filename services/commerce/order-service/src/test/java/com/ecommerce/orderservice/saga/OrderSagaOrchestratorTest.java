@@ -9,11 +9,13 @@ import com.ecommerce.orderservice.entity.Order;
 import com.ecommerce.orderservice.entity.OrderItem;
 import com.ecommerce.orderservice.entity.OrderStatus;
 import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.OrderSagaStateRepository;
 import com.ecommerce.paymentservice.proto.PaymentServiceGrpc;
 import com.ecommerce.paymentservice.proto.PaymentServiceProtos.*;
 import com.ecommerce.shared.proto.CommonProtos.Money;
 import com.ecommerce.userservice.proto.UserServiceGrpc;
 import com.ecommerce.userservice.proto.UserServiceProtos.*;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,8 +23,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,6 +48,9 @@ class OrderSagaOrchestratorTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderSagaStateRepository sagaStateRepository;
+
     private OrderSagaOrchestrator sagaOrchestrator;
 
     private Order testOrder;
@@ -53,8 +61,15 @@ class OrderSagaOrchestratorTest {
             userServiceClient,
             inventoryServiceClient,
             paymentServiceClient,
-            orderRepository
+            orderRepository,
+            sagaStateRepository,
+            "instance-1",
+            Executors.newFixedThreadPool(2),
+            Executors.newSingleThreadScheduledExecutor(),
+            1,
+            60000
         );
+        lenient().when(sagaStateRepository.update(any(), eq("instance-1"), any(), any())).thenReturn(true);
 
         // Create test order
         testOrder = new Order("tenant1", "ORD-123", 1L);
@@ -68,25 +83,31 @@ class OrderSagaOrchestratorTest {
         testOrder.calculateTotals();
     }
 
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        sagaOrchestrator.shutdown();
+    }
+
     @Test
     void testSuccessfulSagaExecution() throws Exception {
         // Arrange
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdWithItems(1L)).thenReturn(Optional.of(testOrder));
 
         // Mock successful user validation
         ValidateUserResponse userValidation = ValidateUserResponse.newBuilder()
             .setIsValid(true)
             .setIsActive(true)
             .build();
-        when(userServiceClient.validateUser(any(), eq(1L))).thenReturn(userValidation);
+        when(userServiceClient.validateUserAsync(any(), eq(1L))).thenReturn(CompletableFuture.completedFuture(userValidation));
 
         // Mock successful inventory reservation
-        ReserveInventoryResponse inventoryReservation = ReserveInventoryResponse.newBuilder()
+        ReserveInventoryBatchResponse inventoryReservation = ReserveInventoryBatchResponse.newBuilder()
             .setSuccess(true)
             .setReservationId("reservation-123")
             .build();
-        when(inventoryServiceClient.reserveInventory(any(), eq("product1"), eq(2), anyString(), anyLong()))
-            .thenReturn(inventoryReservation);
+        when(inventoryServiceClient.reserveInventoryBatchAsync(any(), eq("1"), anyString(), anyList(), anyLong()))
+            .thenReturn(CompletableFuture.completedFuture(inventoryReservation));
 
         // Mock successful payment processing
         ProcessPaymentResponse paymentResponse = ProcessPaymentResponse.newBuilder()
@@ -95,8 +116,8 @@ class OrderSagaOrchestratorTest {
             .setTransactionId("txn-123")
             .setStatus("COMPLETED")
             .build();
-        when(paymentServiceClient.processPayment(any(), eq(1L), any(Money.class), anyString(), anyString(), anyString()))
-            .thenReturn(paymentResponse);
+        when(paymentServiceClient.processPaymentAsync(any(), eq(1L), any(Money.class), anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(paymentResponse));
 
         // Mock order save for confirmation
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
@@ -105,7 +126,7 @@ class OrderSagaOrchestratorTest {
         CompletableFuture<Boolean> result = sagaOrchestrator.processOrder(1L, "CREDIT_CARD", "token123");
 
         // Assert
-        assertTrue(result.get());
+        assertTrue(result.get(5, TimeUnit.SECONDS));
         
         OrderSagaState sagaState = sagaOrchestrator.getSagaState(1L);
         assertNotNull(sagaState);
@@ -113,9 +134,13 @@ class OrderSagaOrchestratorTest {
         assertEquals(SagaStep.COMPLETED, sagaState.getCurrentStep());
 
         // Verify all services were called
-        verify(userServiceClient).validateUser(any(), eq(1L));
-        verify(inventoryServiceClient).reserveInventory(any(), eq("product1"), eq(2), anyString(), anyLong());
-        verify(paymentServiceClient).processPayment(any(), eq(1L), any(Money.class), anyString(), anyString(), anyString());
+        verify(userServiceClient).validateUserAsync(any(), eq(1L));
+        verify(inventoryServiceClient).reserveInventoryBatchAsync(any(), eq("1"), anyString(),
+            argThat(lines -> lines.size() == 1
+                && "product1".equals(lines.get(0).getProductId())
+                && lines.get(0).getQuantity() == 2),
+            anyLong());
+        verify(paymentServiceClient).processPaymentAsync(any(), eq(1L), any(Money.class), anyString(), anyString(), anyString());
         verify(orderRepository, atLeast(1)).save(any(Order.class));
     }
 
@@ -123,29 +148,30 @@ class OrderSagaOrchestratorTest {
     void testSagaFailureWithCompensation() throws Exception {
         // Arrange
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdWithItems(1L)).thenReturn(Optional.of(testOrder));
 
         // Mock successful user validation
         ValidateUserResponse userValidation = ValidateUserResponse.newBuilder()
             .setIsValid(true)
             .setIsActive(true)
             .build();
-        when(userServiceClient.validateUser(any(), eq(1L))).thenReturn(userValidation);
+        when(userServiceClient.validateUserAsync(any(), eq(1L))).thenReturn(CompletableFuture.completedFuture(userValidation));
 
         // Mock successful inventory reservation
-        ReserveInventoryResponse inventoryReservation = ReserveInventoryResponse.newBuilder()
+        ReserveInventoryBatchResponse inventoryReservation = ReserveInventoryBatchResponse.newBuilder()
             .setSuccess(true)
             .setReservationId("reservation-123")
             .build();
-        when(inventoryServiceClient.reserveInventory(any(), eq("product1"), eq(2), anyString(), anyLong()))
-            .thenReturn(inventoryReservation);
+        when(inventoryServiceClient.reserveInventoryBatchAsync(any(), eq("1"), anyString(), anyList(), anyLong()))
+            .thenReturn(CompletableFuture.completedFuture(inventoryReservation));
 
         // Mock failed payment processing
         ProcessPaymentResponse paymentResponse = ProcessPaymentResponse.newBuilder()
             .setSuccess(false)
             .setErrorMessage("Payment declined")
             .build();
-        when(paymentServiceClient.processPayment(any(), eq(1L), any(Money.class), anyString(), anyString(), anyString()))
-            .thenReturn(paymentResponse);
+        when(paymentServiceClient.processPaymentAsync(any(), eq(1L), any(Money.class), anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(paymentResponse));
 
         // Mock successful inventory release (compensation)
         ReleaseInventoryResponse releaseResponse = ReleaseInventoryResponse.newBuilder()
@@ -161,14 +187,14 @@ class OrderSagaOrchestratorTest {
         CompletableFuture<Boolean> result = sagaOrchestrator.processOrder(1L, "CREDIT_CARD", "token123");
 
         // Assert
-        assertFalse(result.get());
+        assertFalse(result.get(5, TimeUnit.SECONDS));
         
         OrderSagaState sagaState = sagaOrchestrator.getSagaState(1L);
         assertNotNull(sagaState);
         assertEquals(SagaStatus.COMPENSATED, sagaState.getStatus());
 
         // Verify compensation was executed
-        verify(inventoryServiceClient).releaseInventory(any(), anyString());
+        verify(inventoryServiceClient).releaseInventory(any(), eq("reservation-123"));
         verify(orderRepository, atLeast(1)).save(any(Order.class));
     }
 
@@ -182,7 +208,7 @@ class OrderSagaOrchestratorTest {
             .setIsValid(false)
             .setIsActive(false)
             .build();
-        when(userServiceClient.validateUser(any(), eq(1L))).thenReturn(userValidation);
+        when(userServiceClient.validateUserAsync(any(), eq(1L))).thenReturn(CompletableFuture.completedFuture(userValidation));
 
         // Mock order save for cancellation
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
@@ -191,14 +217,14 @@ class OrderSagaOrchestratorTest {
         CompletableFuture<Boolean> result = sagaOrchestrator.processOrder(1L, "CREDIT_CARD", "token123");
 
         // Assert
-        assertFalse(result.get());
+        assertFalse(result.get(5, TimeUnit.SECONDS));
         
         OrderSagaState sagaState = sagaOrchestrator.getSagaState(1L);
         assertNotNull(sagaState);
         assertEquals(SagaStatus.COMPENSATED, sagaState.getStatus());
 
         // Verify only user validation was called (accounting for retries)
-        verify(userServiceClient, atLeastOnce()).validateUser(any(), eq(1L));
+        verify(userServiceClient, atLeastOnce()).validateUserAsync(any(), eq(1L));
         verifyNoInteractions(inventoryServiceClient);
         verifyNoInteractions(paymentServiceClient);
     }
@@ -207,21 +233,27 @@ class OrderSagaOrchestratorTest {
     void testInventoryReservationFailure() throws Exception {
         // Arrange
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdWithItems(1L)).thenReturn(Optional.of(testOrder));
 
         // Mock successful user validation
         ValidateUserResponse userValidation = ValidateUserResponse.newBuilder()
             .setIsValid(true)
             .setIsActive(true)
             .build();
-        when(userServiceClient.validateUser(any(), eq(1L))).thenReturn(userValidation);
+        when(userServiceClient.validateUserAsync(any(), eq(1L))).thenReturn(CompletableFuture.completedFuture(userValidation));
 
         // Mock failed inventory reservation
-        ReserveInventoryResponse inventoryReservation = ReserveInventoryResponse.newBuilder()
+        ReserveInventoryBatchResponse inventoryReservation = ReserveInventoryBatchResponse.newBuilder()
             .setSuccess(false)
             .setErrorMessage("Insufficient inventory")
+            .addFailedItems(FailedReservationLine.newBuilder()
+                .setProductId("product1")
+                .setRequestedQuantity(2)
+                .setAvailableQuantity(0)
+                .setReason("Insufficient stock"))
             .build();
-        when(inventoryServiceClient.reserveInventory(any(), eq("product1"), eq(2), anyString(), anyLong()))
-            .thenReturn(inventoryReservation);
+        when(inventoryServiceClient.reserveInventoryBatchAsync(any(), eq("1"), anyString(), anyList(), anyLong()))
+            .thenReturn(CompletableFuture.completedFuture(inventoryReservation));
 
         // Mock order save for cancellation
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
@@ -230,15 +262,15 @@ class OrderSagaOrchestratorTest {
         CompletableFuture<Boolean> result = sagaOrchestrator.processOrder(1L, "CREDIT_CARD", "token123");
 
         // Assert
-        assertFalse(result.get());
+        assertFalse(result.get(5, TimeUnit.SECONDS));
         
         OrderSagaState sagaState = sagaOrchestrator.getSagaState(1L);
         assertNotNull(sagaState);
         assertEquals(SagaStatus.COMPENSATED, sagaState.getStatus());
 
         // Verify services were called appropriately (accounting for retries)
-        verify(userServiceClient, atLeastOnce()).validateUser(any(), eq(1L));
-        verify(inventoryServiceClient, atLeastOnce()).reserveInventory(any(), eq("product1"), eq(2), anyString(), anyLong());
+        verify(userServiceClient, atLeastOnce()).validateUserAsync(any(), eq(1L));
+        verify(inventoryServiceClient, atLeastOnce()).reserveInventoryBatchAsync(any(), eq("1"), anyString(), anyList(), anyLong());
         verifyNoInteractions(paymentServiceClient);
     }
 
@@ -246,6 +278,7 @@ class OrderSagaOrchestratorTest {
     void testSagaRetryMechanism() throws Exception {
         // Arrange
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdWithItems(1L)).thenReturn(Optional.of(testOrder));
 
         // Mock user validation that fails first time, succeeds second time
         ValidateUserResponse failedValidation = ValidateUserResponse.newBuilder()
@@ -257,18 +290,18 @@ class OrderSagaOrchestratorTest {
             .setIsActive(true)
             .build();
         
-        when(userServiceClient.validateUser(any(), eq(1L)))
-            .thenReturn(failedValidation)
-            .thenReturn(failedValidation)
-            .thenReturn(successValidation);
+        when(userServiceClient.validateUserAsync(any(), eq(1L)))
+            .thenReturn(CompletableFuture.completedFuture(failedValidation))
+            .thenReturn(CompletableFuture.completedFuture(failedValidation))
+            .thenReturn(CompletableFuture.completedFuture(successValidation));
 
         // Mock successful inventory reservation
-        ReserveInventoryResponse inventoryReservation = ReserveInventoryResponse.newBuilder()
+        ReserveInventoryBatchResponse inventoryReservation = ReserveInventoryBatchResponse.newBuilder()
             .setSuccess(true)
             .setReservationId("reservation-123")
             .build();
-        when(inventoryServiceClient.reserveInventory(any(), eq("product1"), eq(2), anyString(), anyLong()))
-            .thenReturn(inventoryReservation);
+        when(inventoryServiceClient.reserveInventoryBatchAsync(any(), eq("1"), anyString(), anyList(), anyLong()))
+            .thenReturn(CompletableFuture.completedFuture(inventoryReservation));
 
         // Mock successful payment processing
         ProcessPaymentResponse paymentResponse = ProcessPaymentResponse.newBuilder()
@@ -277,8 +310,8 @@ class OrderSagaOrchestratorTest {
             .setTransactionId("txn-123")
             .setStatus("COMPLETED")
             .build();
-        when(paymentServiceClient.processPayment(any(), eq(1L), any(Money.class), anyString(), anyString(), anyString()))
-            .thenReturn(paymentResponse);
+        when(paymentServiceClient.processPaymentAsync(any(), eq(1L), any(Money.class), anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(paymentResponse));
 
         // Mock order save
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
@@ -287,14 +320,14 @@ class OrderSagaOrchestratorTest {
         CompletableFuture<Boolean> result = sagaOrchestrator.processOrder(1L, "CREDIT_CARD", "token123");
 
         // Assert
-        assertTrue(result.get());
+        assertTrue(result.get(5, TimeUnit.SECONDS));
         
         OrderSagaState sagaState = sagaOrchestrator.getSagaState(1L);
         assertNotNull(sagaState);
         assertEquals(SagaStatus.COMPLETED, sagaState.getStatus());
 
         // Verify retry happened
-        verify(userServiceClient, times(3)).validateUser(any(), eq(1L));
+        verify(userServiceClient, times(3)).validateUserAsync(any(), eq(1L));
     }
 
     @Test
@@ -308,8 +341,9 @@ class OrderSagaOrchestratorTest {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
         
-        // Simulate adding the saga state
-        sagaOrchestrator.getSagaStates().put(1L, sagaState);
+        // Simulate a persisted saga that nobody is running
+        when(sagaStateRepository.findTimedOut(any(), anyInt())).thenReturn(List.of(sagaState));
+        when(sagaStateRepository.claim(eq(1L), eq("instance-1"), any(), any())).thenReturn(true);
 
         // Act
         sagaOrchestrator.handleTimeouts();
@@ -319,6 +353,89 @@ class OrderSagaOrchestratorTest {
         assertEquals("Saga timeout", sagaState.getErrorMessage());
     }
 
+    @Test
+    void testSagaCheckpointsEveryStepAndReleasesLeaseWhenDone() throws Exception {
+        // Arrange
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdWithItems(1L)).thenReturn(Optional.of(testOrder));
+        when(userServiceClient.validateUserAsync(any(), eq(1L))).thenReturn(CompletableFuture.completedFuture(
+            ValidateUserResponse.newBuilder().setIsValid(true).setIsActive(true).build()));
+        when(inventoryServiceClient.reserveInventoryBatchAsync(any(), eq("1"), anyString(), anyList(), anyLong()))
+            .thenReturn(CompletableFuture.completedFuture(ReserveInventoryBatchResponse.newBuilder()
+                .setSuccess(true).setReservationId("reservation-123").build()));
+        when(paymentServiceClient.processPaymentAsync(any(), eq(1L), any(Money.class), anyString(), anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(ProcessPaymentResponse.newBuilder()
+                .setSuccess(true).setPaymentId("payment-123").setStatus("COMPLETED").build()));
+
+        // Act
+        assertTrue(sagaOrchestrator.processOrder(1L, "CREDIT_CARD", "token123").get(5, TimeUnit.SECONDS));
+
+        // Assert - leased on insert, renewed per step, released at the end
+        verify(sagaStateRepository).insert(any(OrderSagaState.class), eq("instance-1"), notNull());
+        verify(sagaStateRepository, atLeast(4)).update(any(), eq("instance-1"), eq("instance-1"), notNull());
+        verify(sagaStateRepository).update(argThat(state -> state.getStatus() == SagaStatus.COMPLETED),
+            eq("instance-1"), isNull(), isNull());
+    }
+
+    @Test
+    void testResumeDueSagasContinuesFromPersistedStep() throws Exception {
+        // Arrange - a saga persisted by an instance that stopped after reserving inventory
+        OrderSagaState sagaState = new OrderSagaState(1L, "tenant1");
+        sagaState.setCurrentStep(SagaStep.PAYMENT_PROCESSING);
+        sagaState.putSagaData("paymentMethod", "CREDIT_CARD");
+        sagaState.putSagaData("paymentToken", "token123");
+        sagaState.putSagaData("idempotencyKey", "key-1");
+        sagaState.putSagaData("inventoryReservationId", "reservation-123");
+        when(sagaStateRepository.findDue(any(), anyInt())).thenReturn(List.of(sagaState));
+        when(sagaStateRepository.claim(eq(1L), eq("instance-1"), any(), any())).thenReturn(true);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(paymentServiceClient.processPaymentAsync(any(), eq(1L), any(Money.class), eq("CREDIT_CARD"), eq("token123"), eq("key-1")))
+            .thenReturn(CompletableFuture.completedFuture(ProcessPaymentResponse.newBuilder()
+                .setSuccess(true).setPaymentId("payment-123").setStatus("COMPLETED").build()));
+
+        // Act
+        int resumed = sagaOrchestrator.resumeDueSagas();
+
+        // Assert
+        assertEquals(1, resumed);
+        verify(sagaStateRepository, timeout(5000)).update(argThat(state -> state.getStatus() == SagaStatus.COMPLETED),
+            eq("instance-1"), isNull(), isNull());
+        verifyNoInteractions(userServiceClient);
+        verifyNoInteractions(inventoryServiceClient);
+    }
+
+    @Test
+    void testResumeDueSagasSkipsSagaClaimedByAnotherInstance() {
+        // Arrange
+        OrderSagaState sagaState = new OrderSagaState(1L, "tenant1");
+        when(sagaStateRepository.findDue(any(), anyInt())).thenReturn(List.of(sagaState));
+        when(sagaStateRepository.claim(eq(1L), eq("instance-1"), any(), any())).thenReturn(false);
+
+        // Act
+        int resumed = sagaOrchestrator.resumeDueSagas();
+
+        // Assert
+        assertEquals(0, resumed);
+        verifyNoInteractions(userServiceClient);
+    }
+
+    @Test
+    void testSagaStopsWhenLeaseIsLost() throws Exception {
+        // Arrange - another instance took the saga over while user validation was running
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(userServiceClient.validateUserAsync(any(), eq(1L))).thenReturn(CompletableFuture.completedFuture(
+            ValidateUserResponse.newBuilder().setIsValid(true).setIsActive(true).build()));
+        when(sagaStateRepository.update(any(), eq("instance-1"), any(), any())).thenReturn(false);
+
+        // Act
+        CompletableFuture<Boolean> result = sagaOrchestrator.processOrder(1L, "CREDIT_CARD", "token123");
+
+        // Assert
+        assertFalse(result.get(5, TimeUnit.SECONDS));
+        verifyNoInteractions(inventoryServiceClient);
+        assertNull(sagaOrchestrator.getSagaStates().get(1L));
+    }
+
     @Test
     void testSagaStateManagement() {
         // Test saga state creation and transitions
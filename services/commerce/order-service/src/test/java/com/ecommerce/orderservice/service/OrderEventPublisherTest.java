@@ -3,6 +3,7 @@ package com.ecommerce.orderservice.service;
 import com.ecommerce.orderservice.entity.Order;
 import com.ecommerce.orderservice.entity.OrderItem;
 import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderOutboxRepository;
 import com.ecommerce.shared.models.events.*;
 import com.ecommerce.shared.utils.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,27 +13,20 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.MDC;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
-import static org.mockito.Mockito.lenient;
 
 @ExtendWith(MockitoExtension.class)
 class OrderEventPublisherTest {
 
     @Mock
-    private KafkaTemplate<String, DomainEvent> kafkaTemplate;
-
-    @Mock
-    private SendResult<String, DomainEvent> sendResult;
+    private OrderOutboxRepository outboxRepository;
 
     private OrderEventPublisher eventPublisher;
     private Order testOrder;
@@ -40,7 +34,7 @@ class OrderEventPublisherTest {
 
     @BeforeEach
     void setUp() {
-        eventPublisher = new OrderEventPublisher(kafkaTemplate, orderEventsTopic);
+        eventPublisher = new OrderEventPublisher(outboxRepository, orderEventsTopic);
         
         // Set up tenant context
         TenantContext.setTenantId("test-tenant");
@@ -64,27 +58,20 @@ class OrderEventPublisherTest {
         OrderItem item2 = new OrderItem("product-2", "SKU-2", "Product 2", 1, new BigDecimal("50.00"));
         testOrder.addItem(item1);
         testOrder.addItem(item2);
-        
-        // Mock successful Kafka send (will be overridden in specific tests if needed)
-        CompletableFuture<SendResult<String, DomainEvent>> future = CompletableFuture.completedFuture(sendResult);
-        lenient().when(kafkaTemplate.send(anyString(), anyString(), any(DomainEvent.class))).thenReturn(future);
     }
 
     @Test
     void publishOrderCreated_ShouldPublishCorrectEvent() {
         // Act
-        CompletableFuture<SendResult<String, DomainEvent>> result = eventPublisher.publishOrderCreated(testOrder);
+        eventPublisher.publishOrderCreated(testOrder);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isDone());
-        
-        // Verify Kafka template was called
+        // Verify the event was written to the outbox
         ArgumentCaptor<String> topicCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<DomainEvent> eventCaptor = ArgumentCaptor.forClass(DomainEvent.class);
         
-        verify(kafkaTemplate).send(topicCaptor.capture(), keyCaptor.capture(), eventCaptor.capture());
+        verify(outboxRepository).append(topicCaptor.capture(), keyCaptor.capture(), eventCaptor.capture());
         
         assertEquals(orderEventsTopic, topicCaptor.getValue());
         assertEquals("1", keyCaptor.getValue());
@@ -109,14 +96,11 @@ class OrderEventPublisherTest {
         String paymentId = "payment-123";
 
         // Act
-        CompletableFuture<SendResult<String, DomainEvent>> result = eventPublisher.publishOrderConfirmed(testOrder, paymentId);
+        eventPublisher.publishOrderConfirmed(testOrder, paymentId);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isDone());
-        
         ArgumentCaptor<DomainEvent> eventCaptor = ArgumentCaptor.forClass(DomainEvent.class);
-        verify(kafkaTemplate).send(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
+        verify(outboxRepository).append(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
         
         DomainEvent capturedEvent = eventCaptor.getValue();
         assertInstanceOf(OrderConfirmedEvent.class, capturedEvent);
@@ -133,14 +117,11 @@ class OrderEventPublisherTest {
     @Test
     void publishOrderProcessing_ShouldPublishCorrectEvent() {
         // Act
-        CompletableFuture<SendResult<String, DomainEvent>> result = eventPublisher.publishOrderProcessing(testOrder);
+        eventPublisher.publishOrderProcessing(testOrder);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isDone());
-        
         ArgumentCaptor<DomainEvent> eventCaptor = ArgumentCaptor.forClass(DomainEvent.class);
-        verify(kafkaTemplate).send(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
+        verify(outboxRepository).append(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
         
         DomainEvent capturedEvent = eventCaptor.getValue();
         assertInstanceOf(OrderProcessingEvent.class, capturedEvent);
@@ -161,15 +142,12 @@ class OrderEventPublisherTest {
         String estimatedDeliveryDate = "2024-01-15";
 
         // Act
-        CompletableFuture<SendResult<String, DomainEvent>> result = eventPublisher.publishOrderShipped(
+        eventPublisher.publishOrderShipped(
             testOrder, trackingNumber, carrier, estimatedDeliveryDate);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isDone());
-        
         ArgumentCaptor<DomainEvent> eventCaptor = ArgumentCaptor.forClass(DomainEvent.class);
-        verify(kafkaTemplate).send(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
+        verify(outboxRepository).append(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
         
         DomainEvent capturedEvent = eventCaptor.getValue();
         assertInstanceOf(OrderShippedEvent.class, capturedEvent);
@@ -193,15 +171,12 @@ class OrderEventPublisherTest {
         String deliverySignature = "John Doe";
 
         // Act
-        CompletableFuture<SendResult<String, DomainEvent>> result = eventPublisher.publishOrderDelivered(
+        eventPublisher.publishOrderDelivered(
             testOrder, trackingNumber, carrier, deliveredAt, deliverySignature);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isDone());
-        
         ArgumentCaptor<DomainEvent> eventCaptor = ArgumentCaptor.forClass(DomainEvent.class);
-        verify(kafkaTemplate).send(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
+        verify(outboxRepository).append(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
         
         DomainEvent capturedEvent = eventCaptor.getValue();
         assertInstanceOf(OrderDeliveredEvent.class, capturedEvent);
@@ -223,14 +198,11 @@ class OrderEventPublisherTest {
         String reason = "Customer requested cancellation";
 
         // Act
-        CompletableFuture<SendResult<String, DomainEvent>> result = eventPublisher.publishOrderCancelled(testOrder, reason);
+        eventPublisher.publishOrderCancelled(testOrder, reason);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isDone());
-        
         ArgumentCaptor<DomainEvent> eventCaptor = ArgumentCaptor.forClass(DomainEvent.class);
-        verify(kafkaTemplate).send(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
+        verify(outboxRepository).append(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
         
         DomainEvent capturedEvent = eventCaptor.getValue();
         assertInstanceOf(OrderCancelledEvent.class, capturedEvent);
@@ -254,7 +226,7 @@ class OrderEventPublisherTest {
 
         // Assert
         ArgumentCaptor<DomainEvent> eventCaptor = ArgumentCaptor.forClass(DomainEvent.class);
-        verify(kafkaTemplate).send(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
+        verify(outboxRepository).append(eq(orderEventsTopic), eq("1"), eventCaptor.capture());
         
         DomainEvent capturedEvent = eventCaptor.getValue();
         assertNotNull(capturedEvent.getCorrelationId());
@@ -262,17 +234,14 @@ class OrderEventPublisherTest {
     }
 
     @Test
-    void publishEvent_WithKafkaFailure_ShouldLogError() {
+    void publishEvent_WithOutboxFailure_ShouldPropagateSoTransactionRollsBack() {
         // Arrange
-        CompletableFuture<SendResult<String, DomainEvent>> failedFuture = new CompletableFuture<>();
-        failedFuture.completeExceptionally(new RuntimeException("Kafka error"));
-        when(kafkaTemplate.send(anyString(), anyString(), any(DomainEvent.class))).thenReturn(failedFuture);
+        doThrow(new RuntimeException("Outbox insert failed"))
+            .when(outboxRepository).append(anyString(), anyString(), any(DomainEvent.class));
 
-        // Act
-        CompletableFuture<SendResult<String, DomainEvent>> result = eventPublisher.publishOrderCreated(testOrder);
-
-        // Assert
-        assertNotNull(result);
-        assertTrue(result.isCompletedExceptionally());
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> eventPublisher.publishOrderCreated(testOrder));
+        assertEquals("Outbox insert failed", exception.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -14,7 +14,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.support.SendResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -36,9 +35,6 @@ class OrderEventReplayServiceTest {
     @Mock
     private OrderEventPublisher eventPublisher;
 
-    @Mock
-    private SendResult<String, Object> sendResult;
-
     private OrderEventReplayService replayService;
     private Order testOrder;
 
@@ -64,15 +60,6 @@ class OrderEventReplayServiceTest {
         OrderItem item2 = new OrderItem("product-2", "SKU-2", "Product 2", 1, new BigDecimal("50.00"));
         testOrder.addItem(item1);
         testOrder.addItem(item2);
-        
-        // Mock successful event publishing
-        CompletableFuture<SendResult<String, Object>> future = CompletableFuture.completedFuture(sendResult);
-        when(eventPublisher.publishOrderCreated(any(Order.class))).thenReturn((CompletableFuture) future);
-        when(eventPublisher.publishOrderConfirmed(any(Order.class), anyString())).thenReturn((CompletableFuture) future);
-        when(eventPublisher.publishOrderProcessing(any(Order.class))).thenReturn((CompletableFuture) future);
-        when(eventPublisher.publishOrderShipped(any(Order.class), anyString(), anyString(), anyString())).thenReturn((CompletableFuture) future);
-        when(eventPublisher.publishOrderDelivered(any(Order.class), anyString(), anyString(), any(LocalDateTime.class), anyString())).thenReturn((CompletableFuture) future);
-        when(eventPublisher.publishOrderCancelled(any(Order.class), anyString())).thenReturn((CompletableFuture) future);
     }
 
     @Test
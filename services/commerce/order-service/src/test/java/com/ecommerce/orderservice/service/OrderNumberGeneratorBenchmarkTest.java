@@ -0,0 +1,87 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.shared.utils.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput of the snowflake-style generator against the previous SecureRandom/String.format
+ * generator. The previous generator also ran one existsByOrderNumber query per attempt, which is
+ * not included here, so its numbers are a lower bound. The snowflake generator is given a clock
+ * that skips ahead instead of making it wait, so its pacing at 256 numbers per millisecond does
+ * not hide the cost of generating them. Numbers per second are printed when
+ * {@code -Dperformance.tests.enabled=true} is set.
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class OrderNumberGeneratorBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+    private static final int IDS_PER_ITERATION = 1_000_000;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private static volatile Object sink;
+
+    @Test
+    void compareGenerators() {
+        TenantContext.setTenantId("bench-tenant");
+        AtomicLong skipped = new AtomicLong();
+        OrderNumberGenerator generator = new OrderNumberGenerator("ORD", 1, ZoneId.systemDefault(),
+            () -> System.currentTimeMillis() + skipped.get(), skipped::incrementAndGet);
+
+        double previous = measure("previous (random suffix)", () -> previousOrderNumber("bench-tenant"));
+        double current = measure("snowflake suffix", generator::generateUniqueOrderNumber);
+
+        System.out.printf("Speedup: %.1fx, plus one fewer SELECT per order%n", previous / current);
+        assertNotNull(sink);
+    }
+
+    private static double measure(String name, Supplier<String> generator) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            run(generator);
+        }
+        long totalNanos = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            totalNanos += run(generator);
+        }
+        double nanosPerId = (double) totalNanos / ((long) MEASURED_ITERATIONS * IDS_PER_ITERATION);
+        System.out.printf("%-26s %8.1f ns/id  %,12.0f ids/s%n", name, nanosPerId, 1_000_000_000.0 / nanosPerId);
+        return nanosPerId;
+    }
+
+    private static long run(Supplier<String> generator) {
+        long start = System.nanoTime();
+        for (int i = 0; i < IDS_PER_ITERATION; i++) {
+            sink = generator.get();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * The generator this class replaced, without its database existence check
+     */
+    private static String previousOrderNumber(String tenantId) {
+        String datePart = LocalDateTime.now().format(DATE_FORMAT);
+        String hexHash = Integer.toHexString(Math.abs(tenantId.hashCode())).toUpperCase();
+        String tenantHash = hexHash.length() >= 4 ? hexHash.substring(0, 4) : String.format("%4s", hexHash).replace(' ', '0');
+
+        StringBuilder randomPart = new StringBuilder(8);
+        String chars = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        for (int i = 0; i < 8; i++) {
+            randomPart.append(chars.charAt(SECURE_RANDOM.nextInt(chars.length())));
+        }
+
+        return String.format("%s-%s-%s-%s", "ORD", datePart, tenantHash, randomPart);
+    }
+}
@@ -1,28 +1,34 @@
 package com.ecommerce.orderservice.service;
 
-import com.ecommerce.orderservice.repository.OrderRepository;
 import com.ecommerce.shared.utils.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 class OrderNumberGeneratorTest {
 
-    @Mock
-    private OrderRepository orderRepository;
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    // 2024-03-15T12:00:00Z
+    private static final long NOON = 1710504000000L;
 
-    @InjectMocks
+    // Waiting for the clock advances it by a millisecond
+    private final AtomicLong clock = new AtomicLong(NOON);
+    private final Runnable pause = clock::incrementAndGet;
     private OrderNumberGenerator orderNumberGenerator;
 
     private String tenantId = "tenant123";
@@ -30,65 +36,173 @@ class OrderNumberGeneratorTest {
     @BeforeEach
     void setUp() {
         TenantContext.setTenantId(tenantId);
-        // Use reflection to set the orderPrefix field
-        try {
-            var field = OrderNumberGenerator.class.getDeclaredField("orderPrefix");
-            field.setAccessible(true);
-            field.set(orderNumberGenerator, "ORD");
-        } catch (Exception e) {
-            // Fallback - create new instance with constructor
-            orderNumberGenerator = new OrderNumberGenerator(orderRepository, "ORD");
-        }
+        orderNumberGenerator = new OrderNumberGenerator("ORD", 5, ZONE, clock::get, pause);
     }
 
     @Test
-    void generateUniqueOrderNumber_FirstAttempt_ShouldReturnValidOrderNumber() {
-        // Given
-        when(orderRepository.existsByOrderNumber(anyString())).thenReturn(false);
-
+    void generateUniqueOrderNumber_ShouldReturnValidOrderNumber() {
         // When
         String orderNumber = orderNumberGenerator.generateUniqueOrderNumber();
 
         // Then
         assertNotNull(orderNumber);
-        assertTrue(orderNumber.startsWith("ORD-"));
+        assertTrue(orderNumber.startsWith("ORD-20240315-"));
         assertTrue(isValidOrderNumberFormat(orderNumber));
-        verify(orderRepository, times(1)).existsByOrderNumber(anyString());
     }
 
     @Test
-    void generateUniqueOrderNumber_WithCollisions_ShouldRetryAndSucceed() {
+    void generateUniqueOrderNumber_SameMillisecond_ShouldUseIncreasingSequence() {
+        // When
+        String first = orderNumberGenerator.generateUniqueOrderNumber();
+        String second = orderNumberGenerator.generateUniqueOrderNumber();
+
+        // Then
+        assertEquals(suffixOf(first) + 1, suffixOf(second));
+    }
+
+    @Test
+    void generateUniqueOrderNumber_SequenceExhausted_ShouldBorrowNextMillisecond() {
         // Given
-        when(orderRepository.existsByOrderNumber(anyString()))
-            .thenReturn(true)  // First attempt - collision
-            .thenReturn(true)  // Second attempt - collision
-            .thenReturn(false); // Third attempt - success
+        Set<String> orderNumbers = new HashSet<>();
 
         // When
-        String orderNumber = orderNumberGenerator.generateUniqueOrderNumber();
+        for (int i = 0; i < 600; i++) {
+            orderNumbers.add(orderNumberGenerator.generateUniqueOrderNumber());
+        }
 
         // Then
-        assertNotNull(orderNumber);
-        assertTrue(orderNumber.startsWith("ORD-"));
-        assertTrue(isValidOrderNumberFormat(orderNumber));
-        verify(orderRepository, times(3)).existsByOrderNumber(anyString());
+        assertEquals(600, orderNumbers.size());
+        assertTrue(orderNumbers.stream().allMatch(this::isValidOrderNumberFormat));
     }
 
     @Test
-    void generateUniqueOrderNumber_MaxCollisions_ShouldUseFallback() {
+    void generateUniqueOrderNumber_ClockMovesBackwards_ShouldStayUnique() {
         // Given
-        when(orderRepository.existsByOrderNumber(anyString())).thenReturn(true);
+        clock.addAndGet(10_000);
+        String beforeStep = orderNumberGenerator.generateUniqueOrderNumber();
+        clock.addAndGet(-500);
 
         // When
-        String orderNumber = orderNumberGenerator.generateUniqueOrderNumber();
+        String afterStep = orderNumberGenerator.generateUniqueOrderNumber();
+
+        // Then - within the allowed lead, so no waiting
+        assertTrue(suffixOf(afterStep) > suffixOf(beforeStep));
+        assertEquals(NOON + 9_500, clock.get());
+    }
+
+    @Test
+    void generateUniqueOrderNumber_ClockMovesBackwardsBeyondLead_ShouldWaitForClock() {
+        // Given
+        clock.addAndGet(10_000);
+        String beforeStep = orderNumberGenerator.generateUniqueOrderNumber();
+        clock.addAndGet(-5_000);
+
+        // When
+        String afterStep = orderNumberGenerator.generateUniqueOrderNumber();
 
         // Then
-        assertNotNull(orderNumber);
-        assertTrue(orderNumber.startsWith("ORD-"));
-        // Fallback format has more parts (includes timestamp)
-        String[] parts = orderNumber.split("-");
-        assertTrue(parts.length >= 5); // ORD-YYYYMMDDHHMMSS-XXXX-XXXXXXXX-TIMESTAMP
-        verify(orderRepository, times(5)).existsByOrderNumber(anyString()); // 5 attempts before fallback
+        assertTrue(suffixOf(afterStep) > suffixOf(beforeStep));
+        assertEquals(NOON + 10_000 - OrderNumberGenerator.MAX_CLOCK_LEAD_MS, clock.get());
+    }
+
+    @Test
+    void generateUniqueOrderNumber_AfterRestart_ShouldNotReissueNumbersOfPreviousRun() {
+        // Given - a burst that ran the previous instance as far ahead of the clock as allowed
+        Set<Long> previousRun = new HashSet<>();
+        for (int i = 0; i < 300_000; i++) {
+            previousRun.add(suffixOf(orderNumberGenerator.generateUniqueOrderNumber()));
+        }
+        clock.incrementAndGet();
+
+        // When
+        OrderNumberGenerator restarted = new OrderNumberGenerator("ORD", 5, ZONE, clock::get, pause);
+        long first = suffixOf(restarted.generateUniqueOrderNumber());
+
+        // Then
+        assertTrue(previousRun.stream().allMatch(suffix -> suffix < first));
+    }
+
+    @Test
+    void generateUniqueOrderNumber_DifferentNodes_ShouldNotCollide() {
+        // Given
+        OrderNumberGenerator otherNode = new OrderNumberGenerator("ORD", 6, ZONE, clock::get, pause);
+
+        // When
+        String fromNode5 = orderNumberGenerator.generateUniqueOrderNumber();
+        String fromNode6 = otherNode.generateUniqueOrderNumber();
+
+        // Then
+        assertNotEquals(fromNode5, fromNode6);
+        assertEquals(5, (suffixOf(fromNode5) >> OrderNumberGenerator.SEQUENCE_BITS) & OrderNumberGenerator.MAX_NODE_ID);
+        assertEquals(6, (suffixOf(fromNode6) >> OrderNumberGenerator.SEQUENCE_BITS) & OrderNumberGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void generateUniqueOrderNumber_AcrossMidnight_ShouldUseNewDate() {
+        // Given
+        clock.set(NOON + 12 * 3600_000L - 1);
+        String beforeMidnight = orderNumberGenerator.generateUniqueOrderNumber();
+        clock.set(NOON + 12 * 3600_000L);
+
+        // When
+        String afterMidnight = orderNumberGenerator.generateUniqueOrderNumber();
+
+        // Then
+        assertTrue(beforeMidnight.startsWith("ORD-20240315-"));
+        assertTrue(afterMidnight.startsWith("ORD-20240316-"));
+        assertEquals(0, suffixOf(afterMidnight) >> (OrderNumberGenerator.NODE_BITS + OrderNumberGenerator.SEQUENCE_BITS));
+    }
+
+    @Test
+    void resolveNodeId_SeveralReplicasWithoutNodeId_ShouldFailStartup() {
+        assertThrows(IllegalStateException.class, () -> OrderNumberGenerator.resolveNodeId(null, 3));
+        assertThrows(IllegalStateException.class, () -> OrderNumberGenerator.resolveNodeId(1, 65));
+        assertEquals(0, OrderNumberGenerator.resolveNodeId(null, 1));
+        assertEquals(2, OrderNumberGenerator.resolveNodeId(2, 3));
+    }
+
+    @Test
+    void constructor_InvalidNodeId_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator("ORD", 64, ZONE, clock::get, pause));
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator("ORD", -1, ZONE, clock::get, pause));
+    }
+
+    @Test
+    void generateUniqueOrderNumber_ConcurrentThreads_ShouldBeUniqueAcrossMillionsOfIds() throws Exception {
+        // Given
+        int threads = 8;
+        int perThread = 500_000;
+        long start = System.currentTimeMillis();
+        AtomicLong waited = new AtomicLong();
+        OrderNumberGenerator generator = new OrderNumberGenerator("ORD", 1, ZONE,
+            () -> NOON + (System.currentTimeMillis() - start) + waited.get(), waited::incrementAndGet);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                TenantContext.setTenantId(tenantId);
+                long[] suffixes = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    String orderNumber = generator.generateUniqueOrderNumber();
+                    assertTrue(orderNumber.startsWith("ORD-20240315-"));
+                    suffixes[i] = suffixOf(orderNumber);
+                }
+                return suffixes;
+            }));
+        }
+        long[] all = new long[threads * perThread];
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(results.get(t).get(), 0, all, t * perThread, perThread);
+        }
+        executor.shutdown();
+
+        // Then
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "Duplicate order number suffix");
+        }
     }
 
     @Test
@@ -190,7 +304,7 @@ class OrderNumberGeneratorTest {
     @Test
     void orderNumberFormat_ShouldContainCurrentDate() {
         // Given
-        when(orderRepository.existsByOrderNumber(anyString())).thenReturn(false);
+        orderNumberGenerator = new OrderNumberGenerator("ORD", null, 1);
         String expectedDatePart = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
 
         // When
@@ -202,9 +316,6 @@ class OrderNumberGeneratorTest {
 
     @Test
     void orderNumberFormat_ShouldContainTenantHash() {
-        // Given
-        when(orderRepository.existsByOrderNumber(anyString())).thenReturn(false);
-
         // When
         String orderNumber = orderNumberGenerator.generateUniqueOrderNumber();
 
@@ -216,10 +327,7 @@ class OrderNumberGeneratorTest {
     }
 
     @Test
-    void orderNumberFormat_ShouldHaveRandomPart() {
-        // Given
-        when(orderRepository.existsByOrderNumber(anyString())).thenReturn(false);
-
+    void orderNumberFormat_ShouldHaveDistinctSuffix() {
         // When
         String orderNumber1 = orderNumberGenerator.generateUniqueOrderNumber();
         String orderNumber2 = orderNumberGenerator.generateUniqueOrderNumber();
@@ -227,15 +335,18 @@ class OrderNumberGeneratorTest {
         // Then
         String[] parts1 = orderNumber1.split("-");
         String[] parts2 = orderNumber2.split("-");
-        
-        // Random parts should be different (very high probability)
+
         assertNotEquals(parts1[3], parts2[3]);
-        
+
         // Both should be 8 alphanumeric characters
         assertTrue(parts1[3].matches("[0-9A-Z]{8}"));
         assertTrue(parts2[3].matches("[0-9A-Z]{8}"));
     }
 
+    private static long suffixOf(String orderNumber) {
+        return Long.parseLong(orderNumber.substring(orderNumber.length() - 8), 36);
+    }
+
     private boolean isValidOrderNumberFormat(String orderNumber) {
         return orderNumberGenerator.isValidOrderNumberFormat(orderNumber);
     }
@@ -0,0 +1,172 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.repository.OrderOutboxRepository;
+import com.ecommerce.orderservice.repository.OrderOutboxRepository.OutboxEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxRelayTest {
+
+    private static final String TOPIC = "order-events";
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SendResult<String, String> sendResult;
+
+    private MeterRegistry meterRegistry;
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OrderOutboxRelay(outboxRepository, kafkaTemplate, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(relay, "batchSize", 3);
+    }
+
+    @Test
+    void relay_ShouldPublishInOrderAndDeleteAcknowledgedEvents() {
+        // Arrange
+        List<OutboxEvent> batch = List.of(event(1, "10"), event(2, "11"), event(3, "10"));
+        when(outboxRepository.claimOldest(anyString(), any(), any(), eq(3))).thenReturn(batch, List.of());
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        // Act
+        int published = relay.relay();
+
+        // Assert
+        assertEquals(3, published);
+        var inOrder = inOrder(kafkaTemplate);
+        inOrder.verify(kafkaTemplate).send(TOPIC, "10", "{\"id\":1}");
+        inOrder.verify(kafkaTemplate).send(TOPIC, "10", "{\"id\":3}");
+        verify(kafkaTemplate).send(TOPIC, "11", "{\"id\":2}");
+        verify(outboxRepository).deleteByIds(List.of(1L, 2L, 3L));
+        verify(outboxRepository).releaseClaims(anyString(), eq(List.of()));
+        assertEquals(3.0, meterRegistry.counter("order.outbox.published").count());
+    }
+
+    @Test
+    void relay_WhenSendFails_ShouldNotSendLaterEventsForSameKey() {
+        // Arrange
+        List<OutboxEvent> batch = List.of(event(1, "10"), event(2, "11"), event(3, "10"));
+        when(outboxRepository.claimOldest(anyString(), any(), any(), eq(3))).thenReturn(batch);
+        CompletableFuture<SendResult<String, String>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("Broker unavailable"));
+        when(kafkaTemplate.send(TOPIC, "10", "{\"id\":1}")).thenReturn(failed);
+        when(kafkaTemplate.send(TOPIC, "11", "{\"id\":2}")).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        // Act
+        int published = relay.relay();
+
+        // Assert
+        assertEquals(1, published);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxRepository).deleteByIds(deleted.capture());
+        assertEquals(List.of(2L), deleted.getValue());
+        verify(outboxRepository).releaseClaims(anyString(), eq(List.of(1L, 3L)));
+        verify(kafkaTemplate, never()).send(TOPIC, "10", "{\"id\":3}");
+        verify(outboxRepository, times(1)).claimOldest(anyString(), any(), any(), eq(3));
+        assertEquals(1.0, meterRegistry.counter("order.outbox.publish_failures").count());
+    }
+
+    @Test
+    void relay_WhileAnEventIsUnacknowledged_ShouldNotSendLaterEventsForSameKey() {
+        // Arrange
+        ReflectionTestUtils.setField(relay, "sendTimeoutMillis", 100L);
+        List<OutboxEvent> batch = List.of(event(1, "10"), event(2, "10"), event(3, "11"));
+        when(outboxRepository.claimOldest(anyString(), any(), any(), eq(3))).thenReturn(batch);
+        when(kafkaTemplate.send(TOPIC, "10", "{\"id\":1}")).thenReturn(new CompletableFuture<>());
+        when(kafkaTemplate.send(TOPIC, "11", "{\"id\":3}")).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        // Act
+        int published = relay.relay();
+
+        // Assert - the other key is not held up, and event 2 waits in the outbox for event 1
+        assertEquals(1, published);
+        verify(outboxRepository).deleteByIds(List.of(3L));
+        verify(kafkaTemplate, never()).send(TOPIC, "10", "{\"id\":2}");
+    }
+
+    @Test
+    void relay_ShouldSendBetweenClaimAndMarkTransactions() {
+        // Arrange
+        List<OutboxEvent> batch = List.of(event(1, "10"));
+        when(outboxRepository.claimOldest(anyString(), any(), any(), eq(3))).thenReturn(batch);
+        when(kafkaTemplate.send(TOPIC, "10", "{\"id\":1}")).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        // Act
+        relay.relay();
+
+        // Assert - Kafka is called with no transaction open
+        var inOrder = inOrder(transactionManager, outboxRepository, kafkaTemplate);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(outboxRepository).claimOldest(anyString(), any(), any(), eq(3));
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(kafkaTemplate).send(TOPIC, "10", "{\"id\":1}");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(outboxRepository).deleteByIds(List.of(1L));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void relay_WhenAnotherInstanceHoldsClaim_ShouldNotPublish() {
+        // Arrange
+        when(outboxRepository.claimOldest(anyString(), any(), any(), eq(3))).thenReturn(List.of());
+
+        // Act
+        int published = relay.relay();
+
+        // Assert
+        assertEquals(0, published);
+        verify(outboxRepository, never()).deleteByIds(any());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void relay_ShouldReportPendingEventsAndLag() {
+        // Arrange
+        when(outboxRepository.claimOldest(anyString(), any(), any(), eq(3))).thenReturn(List.of());
+        when(outboxRepository.countPending()).thenReturn(42L);
+        when(outboxRepository.findOldestCreatedAt()).thenReturn(LocalDateTime.now().minusSeconds(30));
+
+        // Act
+        relay.relay();
+
+        // Assert
+        assertEquals(42.0, meterRegistry.get("order.outbox.pending").gauge().value());
+        assertTrue(meterRegistry.get("order.outbox.lag_seconds").gauge().value() >= 30.0);
+    }
+
+    private static OutboxEvent event(long id, String key) {
+        return new OutboxEvent(id, TOPIC, key, "{\"id\":" + id + "}", LocalDateTime.now());
+    }
+}
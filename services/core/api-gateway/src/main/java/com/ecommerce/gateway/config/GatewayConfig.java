@@ -2,6 +2,7 @@ package com.ecommerce.gateway.config;
 
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -16,6 +17,7 @@ import java.time.Duration;
  * Configuration for API Gateway including Redis
  */
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class GatewayConfig {
 
     /**
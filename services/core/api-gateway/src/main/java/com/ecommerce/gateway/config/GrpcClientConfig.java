@@ -4,6 +4,7 @@ import com.ecommerce.gateway.grpc.GrpcMetricsInterceptor;
 import com.ecommerce.gateway.grpc.TenantContextInterceptor;
 import io.micrometer.core.instrument.MeterRegistry;
 import net.devh.boot.grpc.client.interceptor.GrpcGlobalClientInterceptor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,6 +12,7 @@ import org.springframework.context.annotation.Configuration;
  * Configuration for gRPC clients in the API Gateway
  */
 @Configuration
+@EnableConfigurationProperties(GrpcClientProperties.class)
 public class GrpcClientConfig {
 
     /**
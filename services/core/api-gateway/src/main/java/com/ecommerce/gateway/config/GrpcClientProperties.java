@@ -0,0 +1,45 @@
+package com.ecommerce.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the gateway's gRPC calls
+ */
+@ConfigurationProperties(prefix = "app.grpc.client")
+public class GrpcClientProperties {
+
+    /**
+     * Deadline of any operation without its own entry in {@link #deadlines}
+     * Default: 5 seconds
+     */
+    private Duration defaultDeadline = Duration.ofSeconds(5);
+
+    /**
+     * Deadline per operation, keyed by operation name (e.g. process-payment)
+     */
+    private Map<String, Duration> deadlines = new HashMap<>();
+
+    public Duration getDefaultDeadline() {
+        return defaultDeadline;
+    }
+
+    public void setDefaultDeadline(Duration defaultDeadline) {
+        this.defaultDeadline = defaultDeadline;
+    }
+
+    public Map<String, Duration> getDeadlines() {
+        return deadlines;
+    }
+
+    public void setDeadlines(Map<String, Duration> deadlines) {
+        this.deadlines = deadlines;
+    }
+
+    public Duration getDeadline(String operation) {
+        return deadlines.getOrDefault(operation, defaultDeadline);
+    }
+}
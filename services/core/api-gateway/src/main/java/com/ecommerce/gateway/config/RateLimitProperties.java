@@ -0,0 +1,114 @@
+package com.ecommerce.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration properties for the gateway's per-tenant rate limits
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Length of the sliding window the limits apply to
+     * Default: 1 minute
+     */
+    private Duration window = Duration.ofMinutes(1);
+
+    /**
+     * Requests per window for tenants without their own entry in {@link #tenants}, and for
+     * unauthenticated clients by IP
+     * Default: 1000
+     */
+    private int defaultLimit = 1000;
+
+    /**
+     * Requests per window, keyed by tenant ID
+     */
+    private Map<String, Integer> tenants = new HashMap<>();
+
+    /**
+     * Requests a gateway node takes from the shared window in one Redis call. Capped at a tenth
+     * of the tenant's limit so no single node can hold most of a small limit.
+     * Default: 50
+     */
+    private int leaseSize = 50;
+
+    /**
+     * Rate limit keys tracked locally before the least recently used are dropped
+     * Default: 100000
+     */
+    private int maxTrackedKeys = 100_000;
+
+    /**
+     * Addresses of the load balancers and proxies in front of the gateway. Unauthenticated
+     * clients are limited by the address their connection comes from; X-Forwarded-For is only
+     * followed, from the right, through hops listed here, so clients cannot pick their own key.
+     * Default: none
+     */
+    private Set<String> trustedProxies = new HashSet<>();
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public void setDefaultLimit(int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    public Map<String, Integer> getTenants() {
+        return tenants;
+    }
+
+    public void setTenants(Map<String, Integer> tenants) {
+        this.tenants = tenants;
+    }
+
+    public int getLeaseSize() {
+        return leaseSize;
+    }
+
+    public void setLeaseSize(int leaseSize) {
+        this.leaseSize = leaseSize;
+    }
+
+    public int getMaxTrackedKeys() {
+        return maxTrackedKeys;
+    }
+
+    public void setMaxTrackedKeys(int maxTrackedKeys) {
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    public Set<String> getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(Set<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public int getLimit(String tenantId) {
+        return tenants.getOrDefault(tenantId, defaultLimit);
+    }
+
+    /**
+     * Requests to take per lease for a limit
+     */
+    public int getLeaseSize(int limit) {
+        return Math.max(1, Math.min(leaseSize, limit / 10));
+    }
+}
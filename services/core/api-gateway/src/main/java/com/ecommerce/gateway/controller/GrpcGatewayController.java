@@ -6,19 +6,26 @@ import com.ecommerce.gateway.dto.TokenValidationRequest;
 import com.ecommerce.gateway.grpc.GrpcExceptionHandler;
 import com.ecommerce.gateway.grpc.GrpcMessageMapper;
 import com.ecommerce.gateway.service.GatewayGrpcClientService;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * REST controller that demonstrates gRPC client usage in API Gateway
  * Provides REST endpoints that internally use gRPC for service communication
+ *
+ * Endpoints return the client's Monos without blocking, so a slow downstream holds a pending
+ * call rather than a gateway thread.
  */
 @RestController
 @RequestMapping("/api/v1/grpc")
@@ -36,260 +43,176 @@ public class GrpcGatewayController {
     }
 
     @GetMapping("/users/{userId}/profile")
-    public ResponseEntity<GrpcMessageMapper.UserProfileResponse> getUserProfile(
+    public Mono<ResponseEntity<GrpcMessageMapper.UserProfileResponse>> getUserProfile(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @PathVariable String userId) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, userId);
-        
-        try {
+        return execute(tenantId, userId, "Failed to get user profile", () -> {
             logger.info("REST request: Get user profile for tenantId: {}, userId: {}", tenantId, userId);
-            GrpcMessageMapper.UserProfileResponse profile = grpcClientService.getUserProfile(tenantId, userId);
-            return ResponseEntity.ok(profile);
-        } catch (Exception e) {
-            logger.error("Failed to get user profile", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.getUserProfile(tenantId, userId)
+                .map(ResponseEntity::ok);
+        });
     }
 
     @GetMapping("/users/{userId}/addresses")
-    public ResponseEntity<List<GrpcMessageMapper.UserAddressResponse>> getUserAddresses(
+    public Mono<ResponseEntity<List<GrpcMessageMapper.UserAddressResponse>>> getUserAddresses(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @PathVariable String userId) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, userId);
-        
-        try {
+        return execute(tenantId, userId, "Failed to get user addresses", () -> {
             logger.info("REST request: Get user addresses for tenantId: {}, userId: {}", tenantId, userId);
-            List<GrpcMessageMapper.UserAddressResponse> addresses = grpcClientService.getUserAddresses(tenantId, userId);
-            return ResponseEntity.ok(addresses);
-        } catch (Exception e) {
-            logger.error("Failed to get user addresses", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.getUserAddresses(tenantId, userId)
+                .map(ResponseEntity::ok);
+        });
     }
 
     @GetMapping("/products/{productId}")
-    public ResponseEntity<GrpcMessageMapper.ProductResponse> getProduct(
+    public Mono<ResponseEntity<GrpcMessageMapper.ProductResponse>> getProduct(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @RequestHeader(value = "X-User-ID", required = false) String userId,
             @PathVariable String productId) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, userId);
-        
-        try {
+        return execute(tenantId, userId, "Failed to get product", () -> {
             logger.info("REST request: Get product for tenantId: {}, productId: {}", tenantId, productId);
-            GrpcMessageMapper.ProductResponse product = grpcClientService.getProduct(tenantId, userId, productId);
-            return ResponseEntity.ok(product);
-        } catch (Exception e) {
-            logger.error("Failed to get product", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.getProduct(tenantId, userId, productId)
+                .map(ResponseEntity::ok);
+        });
+    }
+
+    @GetMapping("/products/{productId}/page")
+    public Mono<ResponseEntity<GatewayGrpcClientService.ProductPageResponse>> getProductPage(
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            @RequestHeader(value = "X-User-ID", required = false) String userId,
+            @PathVariable String productId) {
+        
+        return execute(tenantId, userId, "Failed to get product page", () -> {
+            logger.info("REST request: Get product page for tenantId: {}, productId: {}", tenantId, productId);
+            return grpcClientService.getProductPage(tenantId, userId, productId)
+                .map(ResponseEntity::ok);
+        });
     }
 
     @PostMapping("/products/batch")
-    public ResponseEntity<List<GrpcMessageMapper.ProductResponse>> getProductsByIds(
+    public Mono<ResponseEntity<List<GrpcMessageMapper.ProductResponse>>> getProductsByIds(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @RequestHeader(value = "X-User-ID", required = false) String userId,
             @RequestBody List<String> productIds) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, userId);
-        
-        try {
+        return execute(tenantId, userId, "Failed to get products by IDs", () -> {
             logger.info("REST request: Get products by IDs for tenantId: {}, count: {}", tenantId, productIds.size());
-            List<GrpcMessageMapper.ProductResponse> products = grpcClientService.getProductsByIds(tenantId, userId, productIds);
-            return ResponseEntity.ok(products);
-        } catch (Exception e) {
-            logger.error("Failed to get products by IDs", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.getProductsByIds(tenantId, userId, productIds)
+                .map(ResponseEntity::ok);
+        });
     }
 
     @GetMapping("/users/{userId}/cart")
-    public ResponseEntity<GrpcMessageMapper.CartResponse> getCart(
+    public Mono<ResponseEntity<GrpcMessageMapper.CartResponse>> getCart(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @PathVariable String userId) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, userId);
-        
-        try {
+        return execute(tenantId, userId, "Failed to get cart", () -> {
             logger.info("REST request: Get cart for tenantId: {}, userId: {}", tenantId, userId);
-            GrpcMessageMapper.CartResponse cart = grpcClientService.getCart(tenantId, userId);
-            return ResponseEntity.ok(cart);
-        } catch (Exception e) {
-            logger.error("Failed to get cart", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.getCart(tenantId, userId)
+                .map(ResponseEntity::ok);
+        });
     }
 
     @PostMapping("/users/{userId}/cart/items")
-    public ResponseEntity<GrpcMessageMapper.CartResponse> addCartItem(
+    public Mono<ResponseEntity<GrpcMessageMapper.CartResponse>> addCartItem(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @PathVariable String userId,
             @RequestBody GatewayGrpcClientService.AddCartItemRequest request) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, userId);
-        
-        try {
+        return execute(tenantId, userId, "Failed to add cart item", () -> {
             logger.info("REST request: Add cart item for tenantId: {}, userId: {}, productId: {}", 
                 tenantId, userId, request.getProductId());
-            GrpcMessageMapper.CartResponse cart = grpcClientService.addCartItem(tenantId, userId, request);
-            return ResponseEntity.ok(cart);
-        } catch (Exception e) {
-            logger.error("Failed to add cart item", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.addCartItem(tenantId, userId, request)
+                .map(ResponseEntity::ok);
+        });
     }
 
     @GetMapping("/orders/{orderId}")
-    public ResponseEntity<GrpcMessageMapper.OrderResponse> getOrder(
+    public Mono<ResponseEntity<GrpcMessageMapper.OrderResponse>> getOrder(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @RequestHeader("X-User-ID") String userId,
             @PathVariable Long orderId) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, userId);
-        
-        try {
+        return execute(tenantId, userId, "Failed to get order", () -> {
             logger.info("REST request: Get order for tenantId: {}, userId: {}, orderId: {}", tenantId, userId, orderId);
-            GrpcMessageMapper.OrderResponse order = grpcClientService.getOrder(tenantId, userId, orderId);
-            return ResponseEntity.ok(order);
-        } catch (Exception e) {
-            logger.error("Failed to get order", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.getOrder(tenantId, userId, orderId)
+                .map(ResponseEntity::ok);
+        });
     }
 
     @GetMapping("/inventory/{productId}/availability")
-    public ResponseEntity<GatewayGrpcClientService.InventoryAvailabilityResponse> checkInventoryAvailability(
+    public Mono<ResponseEntity<GatewayGrpcClientService.InventoryAvailabilityResponse>> checkInventoryAvailability(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @PathVariable String productId,
             @RequestParam int quantity) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, null);
-        
-        try {
+        return execute(tenantId, null, "Failed to check inventory availability", () -> {
             logger.info("REST request: Check inventory availability for tenantId: {}, productId: {}, quantity: {}", 
                 tenantId, productId, quantity);
-            GatewayGrpcClientService.InventoryAvailabilityResponse availability = 
-                grpcClientService.checkInventoryAvailability(tenantId, productId, quantity);
-            return ResponseEntity.ok(availability);
-        } catch (Exception e) {
-            logger.error("Failed to check inventory availability", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.checkInventoryAvailability(tenantId, productId, quantity)
+                .map(ResponseEntity::ok);
+        });
     }
 
     @PostMapping("/payments")
-    public ResponseEntity<GatewayGrpcClientService.PaymentResponse> processPayment(
+    public Mono<ResponseEntity<GatewayGrpcClientService.PaymentResponse>> processPayment(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @RequestHeader("X-User-ID") String userId,
             @RequestBody GatewayGrpcClientService.ProcessPaymentRequest request) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, userId);
-        
-        try {
+        return execute(tenantId, userId, "Failed to process payment", () -> {
             logger.info("REST request: Process payment for tenantId: {}, userId: {}, orderId: {}", 
                 tenantId, userId, request.getOrderId());
-            GatewayGrpcClientService.PaymentResponse payment = grpcClientService.processPayment(tenantId, userId, request);
-            return ResponseEntity.ok(payment);
-        } catch (Exception e) {
-            logger.error("Failed to process payment", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.processPayment(tenantId, userId, request)
+                .map(ResponseEntity::ok);
+        });
     }
 
     @PostMapping("/shipments")
-    public ResponseEntity<GatewayGrpcClientService.ShippingResponse> createShipment(
+    public Mono<ResponseEntity<GatewayGrpcClientService.ShippingResponse>> createShipment(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @RequestHeader("X-User-ID") String userId,
             @RequestBody GatewayGrpcClientService.CreateShipmentRequest request) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, userId);
-        
-        try {
+        return execute(tenantId, userId, "Failed to create shipment", () -> {
             logger.info("REST request: Create shipment for tenantId: {}, userId: {}, orderId: {}", 
                 tenantId, userId, request.getOrderId());
-            GatewayGrpcClientService.ShippingResponse shipment = grpcClientService.createShipment(tenantId, userId, request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(shipment);
-        } catch (Exception e) {
-            logger.error("Failed to create shipment", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.createShipment(tenantId, userId, request)
+                .map(shipment -> ResponseEntity.status(HttpStatus.CREATED).body(shipment));
+        });
     }
 
     // Auth Service Endpoints - Note: Authentication is typically handled by the gateway itself
 
     @PostMapping("/auth/validate")
-    public ResponseEntity<GatewayGrpcClientService.TokenValidationResponse> validateToken(
+    public Mono<ResponseEntity<GatewayGrpcClientService.TokenValidationResponse>> validateToken(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @RequestBody TokenValidationRequest request) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, null);
-        
-        try {
+        return execute(tenantId, null, "Failed to validate token", () -> {
             logger.info("REST request: Validate token for tenantId: {}", tenantId);
-            GatewayGrpcClientService.TokenValidationResponse validation = grpcClientService.validateToken(tenantId, request.getToken());
-            return ResponseEntity.ok(validation);
-        } catch (Exception e) {
-            logger.error("Failed to validate token", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.validateToken(tenantId, request.getToken())
+                .map(ResponseEntity::ok);
+        });
     }
 
     // Notification Service Endpoints
     @PostMapping("/users/{userId}/notifications")
-    public ResponseEntity<GatewayGrpcClientService.NotificationResponse> sendNotification(
+    public Mono<ResponseEntity<GatewayGrpcClientService.NotificationResponse>> sendNotification(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @PathVariable String userId,
             @RequestBody GatewayGrpcClientService.SendNotificationRequest request) {
         
-        setCorrelationId();
-        setMDCContext(tenantId, userId);
-        
-        try {
+        return execute(tenantId, userId, "Failed to send notification", () -> {
             logger.info("REST request: Send notification for tenantId: {}, userId: {}, templateId: {}", 
                 tenantId, userId, request.getTemplateId());
-            GatewayGrpcClientService.NotificationResponse notification = grpcClientService.sendNotification(tenantId, userId, request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(notification);
-        } catch (Exception e) {
-            logger.error("Failed to send notification", e);
-            return handleException(e);
-        } finally {
-            clearMDCContext();
-        }
+            return grpcClientService.sendNotification(tenantId, userId, request)
+                .map(notification -> ResponseEntity.status(HttpStatus.CREATED).body(notification));
+        });
     }
 
     // Note: Get user notifications is not implemented as it's not in the current proto definition
@@ -298,20 +221,34 @@ public class GrpcGatewayController {
     // Note: Review creation is not available in the current proto definition
 
     @GetMapping("/products/{productId}/reviews")
-    public ResponseEntity<List<GatewayGrpcClientService.ReviewResponse>> getProductReviews(
+    public Mono<ResponseEntity<List<GatewayGrpcClientService.ReviewResponse>>> getProductReviews(
             @RequestHeader("X-Tenant-ID") String tenantId,
             @PathVariable String productId) {
         
+        return execute(tenantId, null, "Failed to get product reviews", () -> {
+            logger.info("REST request: Get reviews for tenantId: {}, productId: {}", tenantId, productId);
+            return grpcClientService.getProductReviews(tenantId, productId)
+                .map(ResponseEntity::ok);
+        });
+    }
+
+    /**
+     * Set the request's MDC context while the call is assembled (the client captures it there)
+     * and turn failures, both immediate and from the downstream, into error responses
+     */
+    private <T> Mono<ResponseEntity<T>> execute(String tenantId, String userId, String failureMessage,
+                                                Supplier<Mono<ResponseEntity<T>>> call) {
         setCorrelationId();
-        setMDCContext(tenantId, null);
+        setMDCContext(tenantId, userId);
         
         try {
-            logger.info("REST request: Get reviews for tenantId: {}, productId: {}", tenantId, productId);
-            List<GatewayGrpcClientService.ReviewResponse> reviews = grpcClientService.getProductReviews(tenantId, productId);
-            return ResponseEntity.ok(reviews);
+            return call.get().onErrorResume(e -> {
+                logger.error(failureMessage, e);
+                return Mono.just(handleException(e));
+            });
         } catch (Exception e) {
-            logger.error("Failed to get product reviews", e);
-            return handleException(e);
+            logger.error(failureMessage, e);
+            return Mono.just(handleException(e));
         } finally {
             clearMDCContext();
         }
@@ -336,7 +273,7 @@ public class GrpcGatewayController {
     }
 
     @SuppressWarnings("unchecked")
-    private <T> ResponseEntity<T> handleException(Exception e) {
+    private <T> ResponseEntity<T> handleException(Throwable e) {
         HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
         
         if (e instanceof GrpcExceptionHandler.ResourceNotFoundException) {
@@ -345,7 +282,8 @@ public class GrpcGatewayController {
             status = HttpStatus.FORBIDDEN;
         } else if (e instanceof GrpcExceptionHandler.ValidationException) {
             status = HttpStatus.BAD_REQUEST;
-        } else if (e instanceof GrpcExceptionHandler.ServiceUnavailableException) {
+        } else if (e instanceof GrpcExceptionHandler.ServiceUnavailableException
+                   || e instanceof BulkheadFullException || e instanceof CallNotPermittedException) {
             status = HttpStatus.SERVICE_UNAVAILABLE;
         } else if (e instanceof GrpcExceptionHandler.TimeoutException) {
             status = HttpStatus.REQUEST_TIMEOUT;
@@ -1,6 +1,7 @@
 package com.ecommerce.gateway.filter;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.ecommerce.shared.security.JwtPrincipal;
 import com.ecommerce.shared.security.JwtTokenProvider;
 import com.ecommerce.shared.utils.CorrelationIdGenerator;
 import com.ecommerce.shared.utils.TenantContext;
@@ -75,10 +76,11 @@ public class JwtAuthenticationGatewayFilter implements GlobalFilter, Ordered {
             }
 
             try {
-                // Validate token and extract claims
-                String userId = jwtTokenProvider.getUserIdFromToken(token);
-                String tenantId = jwtTokenProvider.getTenantIdFromToken(token);
-                List<String> roles = jwtTokenProvider.getRolesFromToken(token);
+                // Validate token once and read all claims from the verified principal
+                JwtPrincipal principal = jwtTokenProvider.verify(token);
+                String userId = principal.getUserId();
+                String tenantId = principal.getTenantId();
+                List<String> roles = principal.getRoles();
 
                 // Set context
                 TenantContext.setTenantId(tenantId);
@@ -1,5 +1,7 @@
 package com.ecommerce.gateway.filter;
 
+import com.ecommerce.gateway.config.RateLimitProperties;
+import com.ecommerce.gateway.ratelimit.HybridRateLimiter;
 import com.ecommerce.shared.utils.TenantContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,7 +9,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpResponse;
@@ -15,21 +16,17 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
 /**
- * Rate limiting filter using Redis for per-tenant rate limiting
+ * Rate limiting filter enforcing per-tenant limits through {@link HybridRateLimiter}
  */
 @Component
 public class RateLimitingGatewayFilter implements GlobalFilter, Ordered {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimitingGatewayFilter.class);
-    
-    private static final String RATE_LIMIT_KEY_PREFIX = "rate_limit:";
-    private static final int DEFAULT_REQUESTS_PER_MINUTE = 1000;
-    private static final int PREMIUM_REQUESTS_PER_MINUTE = 5000;
-    private static final Duration WINDOW_DURATION = Duration.ofMinutes(1);
 
     // Paths that are exempt from rate limiting
     private static final List<String> EXEMPT_PATHS = List.of(
@@ -37,8 +34,17 @@ public class RateLimitingGatewayFilter implements GlobalFilter, Ordered {
         "/actuator/info"
     );
 
+    // IPv4 and IPv6 literals; anything else in X-Forwarded-For is not an address
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9A-Fa-f:.]{2,45}");
+
+    private final HybridRateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
     @Autowired
-    private ReactiveRedisTemplate<String, String> redisTemplate;
+    public RateLimitingGatewayFilter(HybridRateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -56,23 +62,25 @@ public class RateLimitingGatewayFilter implements GlobalFilter, Ordered {
         }
 
         final String finalTenantId = tenantId; // Make it effectively final for lambda
-        String rateLimitKey = RATE_LIMIT_KEY_PREFIX + tenantId;
-        int requestLimit = getRequestLimit(tenantId);
 
-        return checkRateLimit(rateLimitKey, requestLimit)
-            .flatMap(allowed -> {
-                if (allowed) {
-                    logger.debug("Request allowed for tenant: {}", finalTenantId);
-                    return chain.filter(exchange);
-                } else {
-                    logger.warn("Rate limit exceeded for tenant: {}", finalTenantId);
-                    return rateLimitExceededResponse(exchange.getResponse());
-                }
-            })
+        return rateLimiter.tryAcquire(tenantId)
+            .map(Optional::of)
             .onErrorResume(error -> {
                 logger.error("Error checking rate limit for tenant: {}", finalTenantId, error);
                 // On Redis error, allow the request to proceed
-                return chain.filter(exchange);
+                return Mono.just(Optional.empty());
+            })
+            .flatMap(decision -> {
+                if (decision.isEmpty()) {
+                    return chain.filter(exchange);
+                }
+                addRateLimitHeaders(exchange.getResponse(), decision.get());
+                if (decision.get().isAllowed()) {
+                    logger.debug("Request allowed for tenant: {}", finalTenantId);
+                    return chain.filter(exchange);
+                }
+                logger.warn("Rate limit exceeded for tenant: {}", finalTenantId);
+                return rateLimitExceededResponse(exchange.getResponse(), decision.get());
             });
     }
 
@@ -80,53 +88,40 @@ public class RateLimitingGatewayFilter implements GlobalFilter, Ordered {
         return EXEMPT_PATHS.stream().anyMatch(path::startsWith);
     }
 
+    /**
+     * Address of the client. X-Forwarded-For is only read when the connection comes from a
+     * trusted proxy, and then from the right: the first hop that is not itself a trusted proxy is
+     * the client. Headers from anyone else are ignored, so a client cannot choose its own key.
+     */
     private String getClientIp(ServerWebExchange exchange) {
-        String xForwardedFor = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        
-        String xRealIp = exchange.getRequest().getHeaders().getFirst("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-        
-        return exchange.getRequest().getRemoteAddress() != null 
+        String clientIp = exchange.getRequest().getRemoteAddress() != null
             ? exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
             : "unknown";
-    }
 
-    private int getRequestLimit(String tenantId) {
-        // In a real implementation, this would come from tenant configuration
-        // For now, use simple logic based on tenant ID
-        if (tenantId.startsWith("premium_") || tenantId.startsWith("enterprise_")) {
-            return PREMIUM_REQUESTS_PER_MINUTE;
+        String xForwardedFor = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
+        if (xForwardedFor == null || xForwardedFor.isEmpty()) {
+            return clientIp;
+        }
+        String[] hops = xForwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0 && properties.getTrustedProxies().contains(clientIp); i--) {
+            String hop = hops[i].trim();
+            if (!IP_LITERAL.matcher(hop).matches()) {
+                break;
+            }
+            clientIp = hop;
         }
-        return DEFAULT_REQUESTS_PER_MINUTE;
+        return clientIp;
     }
 
-    private Mono<Boolean> checkRateLimit(String key, int limit) {
-        return redisTemplate.opsForValue()
-            .increment(key)
-            .flatMap(currentCount -> {
-                if (currentCount == 1) {
-                    // First request in the window, set expiration
-                    return redisTemplate.expire(key, WINDOW_DURATION)
-                        .thenReturn(true);
-                } else if (currentCount <= limit) {
-                    return Mono.just(true);
-                } else {
-                    return Mono.just(false);
-                }
-            });
+    private void addRateLimitHeaders(ServerHttpResponse response, HybridRateLimiter.Decision decision) {
+        response.getHeaders().set("X-RateLimit-Limit", String.valueOf(decision.getLimit()));
+        response.getHeaders().set("X-RateLimit-Remaining", String.valueOf(decision.getRemaining()));
     }
 
-    private Mono<Void> rateLimitExceededResponse(ServerHttpResponse response) {
+    private Mono<Void> rateLimitExceededResponse(ServerHttpResponse response, HybridRateLimiter.Decision decision) {
         response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
         response.getHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
-        response.getHeaders().add("X-RateLimit-Limit", String.valueOf(DEFAULT_REQUESTS_PER_MINUTE));
-        response.getHeaders().add("X-RateLimit-Remaining", "0");
-        response.getHeaders().add("Retry-After", "60");
+        response.getHeaders().add("Retry-After", String.valueOf(decision.getRetryAfterSeconds()));
         
         String body = "{\"error\":\"Rate Limit Exceeded\",\"message\":\"Too many requests. Please try again later.\"}";
         return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes())));
@@ -136,4 +131,4 @@ public class RateLimitingGatewayFilter implements GlobalFilter, Ordered {
     public int getOrder() {
         return -50; // Run after authentication but before other filters
     }
-}
\ No newline at end of file
+}
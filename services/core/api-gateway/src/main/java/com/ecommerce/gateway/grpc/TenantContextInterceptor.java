@@ -26,26 +26,35 @@ public class TenantContextInterceptor implements ClientInterceptor {
 
             @Override
             public void start(Listener<RespT> responseListener, Metadata headers) {
-                // Propagate context from current thread/request
-                String tenantId = getCurrentTenantId();
-                String userId = getCurrentUserId();
-                String correlationId = MDC.get("correlationId");
-
-                if (tenantId != null && !tenantId.isEmpty()) {
-                    headers.put(TENANT_ID_KEY, tenantId);
-                }
-                if (userId != null && !userId.isEmpty()) {
-                    headers.put(USER_ID_KEY, userId);
-                }
-                if (correlationId != null && !correlationId.isEmpty()) {
-                    headers.put(CORRELATION_ID_KEY, correlationId);
-                }
+                // Propagate context from current thread/request, unless the caller attached it
+                // explicitly because the call starts after the request thread moved on
+                putIfAbsent(headers, TENANT_ID_KEY, getCurrentTenantId());
+                putIfAbsent(headers, USER_ID_KEY, getCurrentUserId());
+                putIfAbsent(headers, CORRELATION_ID_KEY, MDC.get("correlationId"));
 
                 super.start(responseListener, headers);
             }
         };
     }
 
+    /**
+     * Capture the context of the current thread as headers, for calls that are started later on
+     * another thread
+     */
+    public static Metadata captureContextHeaders() {
+        Metadata headers = new Metadata();
+        putIfAbsent(headers, TENANT_ID_KEY, MDC.get("tenantId"));
+        putIfAbsent(headers, USER_ID_KEY, MDC.get("userId"));
+        putIfAbsent(headers, CORRELATION_ID_KEY, MDC.get("correlationId"));
+        return headers;
+    }
+
+    private static void putIfAbsent(Metadata headers, Metadata.Key<String> key, String value) {
+        if (value != null && !value.isEmpty() && !headers.containsKey(key)) {
+            headers.put(key, value);
+        }
+    }
+
     private String getCurrentTenantId() {
         // In a real implementation, this would get the tenant ID from the current request context
         // For now, we'll get it from MDC or return a default
@@ -0,0 +1,235 @@
+package com.ecommerce.gateway.ratelimit;
+
+import com.ecommerce.gateway.config.RateLimitProperties;
+import com.ecommerce.shared.utils.cache.BoundedTtlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-tenant rate limiter that decides most requests from local state.
+ *
+ * Each gateway node leases batches of requests from a sliding window shared in Redis (see
+ * scripts/rate_limit_lease.lua) and spends them without a round trip. A bucket that runs low
+ * leases again in the background, so a request only waits on Redis when its bucket is empty.
+ * When the window is full the node remembers until when, and rejects locally until then.
+ *
+ * Leased requests count against the window whether used or not, so a tenant spread over many
+ * nodes may be throttled slightly before its limit, never after it. Buckets are held in a
+ * {@link BoundedTtlCache}, so a flood of distinct keys evicts the least recently used ones rather
+ * than growing the map; an evicted bucket only loses its unused requests, which stay counted in
+ * Redis.
+ */
+@Component
+public class HybridRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(HybridRateLimiter.class);
+
+    private static final String KEY_PREFIX = "rate_limit:window:";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RateLimitProperties properties;
+    private final RedisScript<List<Long>> leaseScript;
+    private final LongSupplier nanoClock;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong leaseSequence = new AtomicLong();
+    private final BoundedTtlCache<String, Bucket> buckets;
+
+    @Autowired
+    public HybridRateLimiter(ReactiveRedisTemplate<String, String> redisTemplate, RateLimitProperties properties) {
+        this(redisTemplate, properties, System::nanoTime);
+    }
+
+    HybridRateLimiter(ReactiveRedisTemplate<String, String> redisTemplate, RateLimitProperties properties,
+                      LongSupplier nanoClock) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.leaseScript = loadLeaseScript();
+        this.buckets = new BoundedTtlCache<>(properties.getMaxTrackedKeys(), BoundedTtlCache.NO_EXPIRY, nanoClock, null);
+    }
+
+    /**
+     * Take one request from a client's limit
+     *
+     * @param key tenant ID, or "ip:" and the address for unauthenticated clients
+     */
+    public Mono<Decision> tryAcquire(String key) {
+        return tryAcquire(key, bucket(key));
+    }
+
+    int trackedKeys() {
+        return buckets.size();
+    }
+
+    private Mono<Decision> tryAcquire(String key, Bucket bucket) {
+        long now = nanoClock.getAsLong();
+        Decision decision = bucket.tryTake(now);
+        if (decision == null) {
+            // Empty bucket: wait for a lease, then try again on the bucket it went to, even if
+            // that was evicted meanwhile
+            return lease(key, bucket).then(Mono.defer(() -> tryAcquire(key, bucket)));
+        }
+        if (bucket.shouldPrefetch(now)) {
+            lease(key, bucket).subscribe(null, error ->
+                logger.warn("Failed to prefetch rate limit lease for {}: {}", key, error.getMessage()));
+        }
+        return Mono.just(decision);
+    }
+
+    // At most one lease per bucket is in flight; concurrent callers share it
+    private Mono<Void> lease(String key, Bucket bucket) {
+        synchronized (bucket) {
+            if (bucket.pendingLease == null) {
+                int wanted = properties.getLeaseSize(bucket.limit);
+                bucket.pendingLease = requestLease(key, bucket.limit, wanted)
+                    .doOnNext(values -> bucket.applyLease(values.get(0), values.get(1), values.get(2),
+                        nanoClock.getAsLong(), properties.getWindow().toNanos()))
+                    .then()
+                    .doFinally(signal -> bucket.leaseFinished())
+                    .cache();
+            }
+            return bucket.pendingLease;
+        }
+    }
+
+    private Mono<List<Long>> requestLease(String key, int limit, int wanted) {
+        List<String> args = List.of(
+            String.valueOf(properties.getWindow().toMillis()),
+            String.valueOf(limit),
+            String.valueOf(wanted),
+            nodeId + ":" + leaseSequence.incrementAndGet());
+
+        return redisTemplate.execute(leaseScript, List.of(KEY_PREFIX + key), args)
+            .<List<Long>>reduce(new ArrayList<>(), (values, batch) -> {
+                values.addAll(batch);
+                return values;
+            });
+    }
+
+    private Bucket bucket(String key) {
+        return buckets.computeIfAbsent(key, k -> {
+            int limit = properties.getLimit(k);
+            return new Bucket(limit, properties.getLeaseSize(limit), nanoClock.getAsLong());
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RedisScript<List<Long>> loadLeaseScript() {
+        return (RedisScript) RedisScript.of(new ClassPathResource("scripts/rate_limit_lease.lua"), List.class);
+    }
+
+    /**
+     * Requests leased by this node for one key
+     */
+    private static final class Bucket {
+        private final int limit;
+        private final int prefetchThreshold;
+        private long tokens;
+        private long leaseExpiresAtNanos;
+        private long remainingInWindow;
+        private long blockedUntilNanos;
+        private Mono<Void> pendingLease;
+
+        private Bucket(int limit, int leaseSize, long now) {
+            this.limit = limit;
+            this.prefetchThreshold = leaseSize / 4;
+            this.leaseExpiresAtNanos = now;
+            this.blockedUntilNanos = now;
+        }
+
+        /**
+         * Decide locally, or return {@code null} if a lease is needed first
+         */
+        synchronized Decision tryTake(long now) {
+            if (now - leaseExpiresAtNanos >= 0) {
+                tokens = 0;
+            }
+            if (tokens > 0) {
+                tokens--;
+                return Decision.allowed(limit, remainingInWindow + tokens);
+            }
+            if (blockedUntilNanos - now > 0) {
+                long retryAfterSeconds = (blockedUntilNanos - now + 999_999_999L) / 1_000_000_000L;
+                return Decision.rejected(limit, retryAfterSeconds);
+            }
+            return null;
+        }
+
+        synchronized boolean shouldPrefetch(long now) {
+            return pendingLease == null && tokens <= prefetchThreshold && now - blockedUntilNanos >= 0;
+        }
+
+        synchronized void applyLease(long granted, long remaining, long retryAfterMillis, long now, long windowNanos) {
+            if (now - leaseExpiresAtNanos >= 0) {
+                tokens = 0;
+            }
+            remainingInWindow = remaining;
+            if (granted > 0) {
+                tokens += granted;
+                leaseExpiresAtNanos = now + windowNanos;
+            } else {
+                blockedUntilNanos = now + retryAfterMillis * 1_000_000L;
+            }
+        }
+
+        synchronized void leaseFinished() {
+            pendingLease = null;
+        }
+    }
+
+    /**
+     * Outcome of {@link #tryAcquire}
+     */
+    public static final class Decision {
+        private final boolean allowed;
+        private final int limit;
+        private final long remaining;
+        private final long retryAfterSeconds;
+
+        private Decision(boolean allowed, int limit, long remaining, long retryAfterSeconds) {
+            this.allowed = allowed;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public static Decision allowed(int limit, long remaining) {
+            return new Decision(true, limit, remaining, 0);
+        }
+
+        public static Decision rejected(int limit, long retryAfterSeconds) {
+            return new Decision(false, limit, 0, Math.max(1, retryAfterSeconds));
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        /**
+         * Requests left in the window as of this node's last lease
+         */
+        public long getRemaining() {
+            return remaining;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
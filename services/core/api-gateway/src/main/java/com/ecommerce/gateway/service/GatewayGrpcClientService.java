@@ -1,7 +1,9 @@
 package com.ecommerce.gateway.service;
 
+import com.ecommerce.gateway.config.GrpcClientProperties;
 import com.ecommerce.gateway.grpc.GrpcExceptionHandler;
 import com.ecommerce.gateway.grpc.GrpcMessageMapper;
+import com.ecommerce.gateway.grpc.TenantContextInterceptor;
 import com.ecommerce.shared.proto.CommonProtos;
 import com.ecommerce.userservice.proto.UserServiceGrpc;
 import com.ecommerce.userservice.proto.UserServiceProtos;
@@ -24,22 +26,41 @@ import com.ecommerce.notificationservice.proto.NotificationServiceProtos;
 import com.ecommerce.reviewservice.proto.ReviewServiceGrpc;
 import com.ecommerce.reviewservice.proto.ReviewServiceProtos;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.grpc.Metadata;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.AbstractStub;
+import io.grpc.stub.MetadataUtils;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Service that provides gRPC client functionality for the API Gateway
  * Handles REST-to-gRPC protocol translation and error handling
+ *
+ * All calls go through the future stubs and are exposed as {@link Mono}s, so no gateway thread
+ * waits for a downstream. A call starts when the Mono is subscribed (again on every retry) with
+ * the deadline configured for its operation, and is cancelled when the subscriber goes away.
+ * Concurrent calls per downstream are capped by a bulkhead named after the downstream; calls
+ * over the cap fail fast instead of queueing.
  */
 @Service
 public class GatewayGrpcClientService {
@@ -47,47 +68,52 @@ public class GatewayGrpcClientService {
     private static final Logger logger = LoggerFactory.getLogger(GatewayGrpcClientService.class);
 
     @GrpcClient("user-service")
-    private UserServiceGrpc.UserServiceBlockingStub userServiceStub;
+    private UserServiceGrpc.UserServiceFutureStub userServiceStub;
 
     @GrpcClient("product-service")
-    private ProductServiceGrpc.ProductServiceBlockingStub productServiceStub;
+    private ProductServiceGrpc.ProductServiceFutureStub productServiceStub;
 
     @GrpcClient("cart-service")
-    private CartServiceGrpc.CartServiceBlockingStub cartServiceStub;
+    private CartServiceGrpc.CartServiceFutureStub cartServiceStub;
 
     @GrpcClient("order-service")
-    private OrderServiceGrpc.OrderServiceBlockingStub orderServiceStub;
+    private OrderServiceGrpc.OrderServiceFutureStub orderServiceStub;
 
     @GrpcClient("payment-service")
-    private PaymentServiceGrpc.PaymentServiceBlockingStub paymentServiceStub;
+    private PaymentServiceGrpc.PaymentServiceFutureStub paymentServiceStub;
 
     @GrpcClient("inventory-service")
-    private InventoryServiceGrpc.InventoryServiceBlockingStub inventoryServiceStub;
+    private InventoryServiceGrpc.InventoryServiceFutureStub inventoryServiceStub;
 
     @GrpcClient("shipping-service")
-    private ShippingServiceGrpc.ShippingServiceBlockingStub shippingServiceStub;
+    private ShippingServiceGrpc.ShippingServiceFutureStub shippingServiceStub;
 
     @GrpcClient("auth-service")
-    private AuthServiceGrpc.AuthServiceBlockingStub authServiceStub;
+    private AuthServiceGrpc.AuthServiceFutureStub authServiceStub;
 
     @GrpcClient("notification-service")
-    private NotificationServiceGrpc.NotificationServiceBlockingStub notificationServiceStub;
+    private NotificationServiceGrpc.NotificationServiceFutureStub notificationServiceStub;
 
     @GrpcClient("review-service")
-    private ReviewServiceGrpc.ReviewServiceBlockingStub reviewServiceStub;
+    private ReviewServiceGrpc.ReviewServiceFutureStub reviewServiceStub;
 
     private final GrpcMessageMapper messageMapper;
     private final GrpcExceptionHandler exceptionHandler;
+    private final GrpcClientProperties properties;
+    private final BulkheadRegistry bulkheadRegistry;
 
-    public GatewayGrpcClientService(GrpcMessageMapper messageMapper, GrpcExceptionHandler exceptionHandler) {
+    public GatewayGrpcClientService(GrpcMessageMapper messageMapper, GrpcExceptionHandler exceptionHandler,
+                                    GrpcClientProperties properties, BulkheadRegistry bulkheadRegistry) {
         this.messageMapper = messageMapper;
         this.exceptionHandler = exceptionHandler;
+        this.properties = properties;
+        this.bulkheadRegistry = bulkheadRegistry;
     }
 
     // User Service Methods
     @CircuitBreaker(name = "user-service")
     @Retry(name = "user-service")
-    public GrpcMessageMapper.UserProfileResponse getUserProfile(String tenantId, String userId) {
+    public Mono<GrpcMessageMapper.UserProfileResponse> getUserProfile(String tenantId, String userId) {
         logger.debug("Getting user profile for tenantId: {}, userId: {}", tenantId, userId);
         
         CommonProtos.TenantContext context = messageMapper.buildTenantContext(
@@ -98,22 +124,18 @@ public class GatewayGrpcClientService {
             .setUserId(Long.parseLong(userId))
             .build();
 
-        try {
-            UserServiceProtos.GetUserResponse response = userServiceStub
-                .withDeadlineAfter(5, TimeUnit.SECONDS)
-                .getUser(request);
-            
-            logger.debug("Successfully retrieved user profile for userId: {}", userId);
-            return messageMapper.mapToUserProfileResponse(response);
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get user profile for userId: {}", userId, e);
-            throw exceptionHandler.handleGrpcException(e, "Get user profile");
-        }
+        return call(userServiceStub, "user-service", "get-user-profile", stub -> stub.getUser(request))
+            .map(response -> {
+                logger.debug("Successfully retrieved user profile for userId: {}", userId);
+                return messageMapper.mapToUserProfileResponse(response);
+            })
+            .doOnError(e -> logger.error("Failed to get user profile for userId: {}", userId, e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Get user profile"));
     }
 
     @CircuitBreaker(name = "user-service")
     @Retry(name = "user-service")
-    public List<GrpcMessageMapper.UserAddressResponse> getUserAddresses(String tenantId, String userId) {
+    public Mono<List<GrpcMessageMapper.UserAddressResponse>> getUserAddresses(String tenantId, String userId) {
         logger.debug("Getting user addresses for tenantId: {}, userId: {}", tenantId, userId);
         
         CommonProtos.TenantContext context = messageMapper.buildTenantContext(
@@ -124,77 +146,112 @@ public class GatewayGrpcClientService {
             .setUserId(Long.parseLong(userId))
             .build();
 
-        try {
-            UserServiceProtos.GetUserAddressesResponse response = userServiceStub
-                .withDeadlineAfter(5, TimeUnit.SECONDS)
-                .getUserAddresses(request);
-            
-            logger.debug("Successfully retrieved {} addresses for userId: {}", 
-                response.getAddressesCount(), userId);
-            return messageMapper.mapToUserAddressesResponse(response);
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get user addresses for userId: {}", userId, e);
-            throw exceptionHandler.handleGrpcException(e, "Get user addresses");
-        }
+        return call(userServiceStub, "user-service", "get-user-addresses", stub -> stub.getUserAddresses(request))
+            .map(response -> {
+                logger.debug("Successfully retrieved {} addresses for userId: {}", 
+                    response.getAddressesCount(), userId);
+                return messageMapper.mapToUserAddressesResponse(response);
+            })
+            .doOnError(e -> logger.error("Failed to get user addresses for userId: {}", userId, e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Get user addresses"));
     }
 
     // Product Service Methods
     @CircuitBreaker(name = "product-service")
     @Retry(name = "product-service")
-    public GrpcMessageMapper.ProductResponse getProduct(String tenantId, String userId, String productId) {
-        logger.debug("Getting product for tenantId: {}, productId: {}", tenantId, productId);
+    public Mono<GrpcMessageMapper.ProductResponse> getProduct(String tenantId, String userId, String productId) {
+        return fetchProduct(tenantId, userId, productId, "get-product");
+    }
+
+    @CircuitBreaker(name = "product-service")
+    @Retry(name = "product-service")
+    public Mono<List<GrpcMessageMapper.ProductResponse>> getProductsByIds(String tenantId, String userId, List<String> productIds) {
+        logger.debug("Getting products for tenantId: {}, productIds: {}", tenantId, productIds);
         
         CommonProtos.TenantContext context = messageMapper.buildTenantContext(
             tenantId, userId, MDC.get("correlationId"));
 
-        ProductServiceProtos.GetProductRequest request = ProductServiceProtos.GetProductRequest.newBuilder()
+        ProductServiceProtos.GetProductsByIdsRequest request = ProductServiceProtos.GetProductsByIdsRequest.newBuilder()
             .setContext(context)
-            .setProductId(productId)
+            .addAllProductIds(productIds)
             .build();
 
-        try {
-            ProductServiceProtos.GetProductResponse response = productServiceStub
-                .withDeadlineAfter(5, TimeUnit.SECONDS)
-                .getProduct(request);
-            
-            logger.debug("Successfully retrieved product: {}", productId);
-            return messageMapper.mapToProductResponse(response);
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get product: {}", productId, e);
-            throw exceptionHandler.handleGrpcException(e, "Get product");
-        }
+        return call(productServiceStub, "product-service", "get-products-by-ids", stub -> stub.getProductsByIds(request))
+            .map(response -> {
+                logger.debug("Successfully retrieved {} products", response.getProductsCount());
+                return messageMapper.mapToProductsResponse(response);
+            })
+            .doOnError(e -> logger.error("Failed to get products by IDs: {}", productIds, e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Get products by IDs"));
     }
 
-    @CircuitBreaker(name = "product-service")
-    @Retry(name = "product-service")
-    public List<GrpcMessageMapper.ProductResponse> getProductsByIds(String tenantId, String userId, List<String> productIds) {
-        logger.debug("Getting products for tenantId: {}, productIds: {}", tenantId, productIds);
+    /**
+     * Everything a product page needs, fetched from product, inventory and review service in
+     * parallel. Only the product itself is required: if inventory or reviews fail or miss their
+     * (shorter) deadlines, the page is returned without them and names them as unavailable.
+     */
+    public Mono<ProductPageResponse> getProductPage(String tenantId, String userId, String productId) {
+        logger.debug("Getting product page for tenantId: {}, productId: {}", tenantId, productId);
+
+        Mono<Optional<InventoryAvailabilityResponse>> availability =
+            fetchInventoryAvailability(tenantId, productId, 1, "product-page-inventory")
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    logger.warn("Serving product page {} without availability: {}", productId, e.getMessage());
+                    return Mono.just(Optional.empty());
+                });
+
+        Mono<Optional<List<ReviewResponse>>> reviews =
+            fetchProductReviews(tenantId, productId, "product-page-reviews")
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    logger.warn("Serving product page {} without reviews: {}", productId, e.getMessage());
+                    return Mono.just(Optional.empty());
+                });
+
+        return Mono.zip(fetchProduct(tenantId, userId, productId, "product-page-product"), availability, reviews)
+            .map(parts -> {
+                List<String> unavailable = new ArrayList<>();
+                if (parts.getT2().isEmpty()) {
+                    unavailable.add("inventory");
+                }
+                if (parts.getT3().isEmpty()) {
+                    unavailable.add("reviews");
+                }
+                return ProductPageResponse.builder()
+                    .product(parts.getT1())
+                    .availability(parts.getT2().orElse(null))
+                    .reviews(parts.getT3().orElse(List.of()))
+                    .unavailableSections(unavailable)
+                    .build();
+            });
+    }
+
+    private Mono<GrpcMessageMapper.ProductResponse> fetchProduct(String tenantId, String userId, String productId,
+                                                                 String operation) {
+        logger.debug("Getting product for tenantId: {}, productId: {}", tenantId, productId);
         
         CommonProtos.TenantContext context = messageMapper.buildTenantContext(
             tenantId, userId, MDC.get("correlationId"));
 
-        ProductServiceProtos.GetProductsByIdsRequest request = ProductServiceProtos.GetProductsByIdsRequest.newBuilder()
+        ProductServiceProtos.GetProductRequest request = ProductServiceProtos.GetProductRequest.newBuilder()
             .setContext(context)
-            .addAllProductIds(productIds)
+            .setProductId(productId)
             .build();
 
-        try {
-            ProductServiceProtos.GetProductsByIdsResponse response = productServiceStub
-                .withDeadlineAfter(10, TimeUnit.SECONDS)
-                .getProductsByIds(request);
-            
-            logger.debug("Successfully retrieved {} products", response.getProductsCount());
-            return messageMapper.mapToProductsResponse(response);
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get products by IDs: {}", productIds, e);
-            throw exceptionHandler.handleGrpcException(e, "Get products by IDs");
-        }
+        return call(productServiceStub, "product-service", operation, stub -> stub.getProduct(request))
+            .map(response -> {
+                logger.debug("Successfully retrieved product: {}", productId);
+                return messageMapper.mapToProductResponse(response);
+            })
+            .doOnError(e -> logger.error("Failed to get product: {}", productId, e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Get product"));
     }
 
     // Cart Service Methods
     @CircuitBreaker(name = "cart-service")
     @Retry(name = "cart-service")
-    public GrpcMessageMapper.CartResponse getCart(String tenantId, String userId) {
+    public Mono<GrpcMessageMapper.CartResponse> getCart(String tenantId, String userId) {
         logger.debug("Getting cart for tenantId: {}, userId: {}", tenantId, userId);
         
         CommonProtos.TenantContext context = messageMapper.buildTenantContext(
@@ -205,22 +262,18 @@ public class GatewayGrpcClientService {
             .setUserId(Long.parseLong(userId))
             .build();
 
-        try {
-            CartServiceProtos.GetCartResponse response = cartServiceStub
-                .withDeadlineAfter(5, TimeUnit.SECONDS)
-                .getCart(request);
-            
-            logger.debug("Successfully retrieved cart for userId: {}", userId);
-            return messageMapper.mapToCartResponse(response);
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get cart for userId: {}", userId, e);
-            throw exceptionHandler.handleGrpcException(e, "Get cart");
-        }
+        return call(cartServiceStub, "cart-service", "get-cart", stub -> stub.getCart(request))
+            .map(response -> {
+                logger.debug("Successfully retrieved cart for userId: {}", userId);
+                return messageMapper.mapToCartResponse(response);
+            })
+            .doOnError(e -> logger.error("Failed to get cart for userId: {}", userId, e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Get cart"));
     }
 
     @CircuitBreaker(name = "cart-service")
     @Retry(name = "cart-service")
-    public GrpcMessageMapper.CartResponse addCartItem(String tenantId, String userId, AddCartItemRequest request) {
+    public Mono<GrpcMessageMapper.CartResponse> addCartItem(String tenantId, String userId, AddCartItemRequest request) {
         logger.debug("Adding item to cart for tenantId: {}, userId: {}, productId: {}", 
             tenantId, userId, request.getProductId());
         
@@ -235,23 +288,19 @@ public class GatewayGrpcClientService {
             .setQuantity(request.getQuantity())
             .build();
 
-        try {
-            CartServiceProtos.AddToCartResponse response = cartServiceStub
-                .withDeadlineAfter(10, TimeUnit.SECONDS)
-                .addToCart(grpcRequest);
-            
-            logger.debug("Successfully added item to cart for userId: {}", userId);
-            return messageMapper.mapToCartResponse(response.getCart());
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to add item to cart for userId: {}", userId, e);
-            throw exceptionHandler.handleGrpcException(e, "Add cart item");
-        }
+        return call(cartServiceStub, "cart-service", "add-cart-item", stub -> stub.addToCart(grpcRequest))
+            .map(response -> {
+                logger.debug("Successfully added item to cart for userId: {}", userId);
+                return messageMapper.mapToCartResponse(response.getCart());
+            })
+            .doOnError(e -> logger.error("Failed to add item to cart for userId: {}", userId, e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Add cart item"));
     }
 
     // Order Service Methods
     @CircuitBreaker(name = "order-service")
     @Retry(name = "order-service")
-    public GrpcMessageMapper.OrderResponse getOrder(String tenantId, String userId, Long orderId) {
+    public Mono<GrpcMessageMapper.OrderResponse> getOrder(String tenantId, String userId, Long orderId) {
         logger.debug("Getting order for tenantId: {}, userId: {}, orderId: {}", tenantId, userId, orderId);
         
         CommonProtos.TenantContext context = messageMapper.buildTenantContext(
@@ -262,23 +311,24 @@ public class GatewayGrpcClientService {
             .setOrderId(orderId)
             .build();
 
-        try {
-            OrderServiceProtos.GetOrderResponse response = orderServiceStub
-                .withDeadlineAfter(5, TimeUnit.SECONDS)
-                .getOrder(request);
-            
-            logger.debug("Successfully retrieved order: {}", response.getOrder().getId());
-            return messageMapper.mapToOrderResponse(response.getOrder());
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get order: {}", orderId, e);
-            throw exceptionHandler.handleGrpcException(e, "Get order");
-        }
+        return call(orderServiceStub, "order-service", "get-order", stub -> stub.getOrder(request))
+            .map(response -> {
+                logger.debug("Successfully retrieved order: {}", response.getOrder().getId());
+                return messageMapper.mapToOrderResponse(response.getOrder());
+            })
+            .doOnError(e -> logger.error("Failed to get order: {}", orderId, e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Get order"));
     }
 
     // Inventory Service Methods
     @CircuitBreaker(name = "inventory-service")
     @Retry(name = "inventory-service")
-    public InventoryAvailabilityResponse checkInventoryAvailability(String tenantId, String productId, int quantity) {
+    public Mono<InventoryAvailabilityResponse> checkInventoryAvailability(String tenantId, String productId, int quantity) {
+        return fetchInventoryAvailability(tenantId, productId, quantity, "check-inventory-availability");
+    }
+
+    private Mono<InventoryAvailabilityResponse> fetchInventoryAvailability(String tenantId, String productId,
+                                                                          int quantity, String operation) {
         logger.debug("Checking inventory availability for tenantId: {}, productId: {}, quantity: {}", 
             tenantId, productId, quantity);
         
@@ -291,27 +341,23 @@ public class GatewayGrpcClientService {
             .setRequestedQuantity(quantity)
             .build();
 
-        try {
-            InventoryServiceProtos.CheckAvailabilityResponse response = inventoryServiceStub
-                .withDeadlineAfter(5, TimeUnit.SECONDS)
-                .checkAvailability(request);
-            
-            logger.debug("Successfully checked inventory availability for productId: {}", productId);
-            return InventoryAvailabilityResponse.builder()
-                .available(response.getIsAvailable())
-                .productId(response.getProductId())
-                .availableQuantity(response.getAvailableQuantity())
-                .build();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to check inventory availability for productId: {}", productId, e);
-            throw exceptionHandler.handleGrpcException(e, "Check inventory availability");
-        }
+        return call(inventoryServiceStub, "inventory-service", operation, stub -> stub.checkAvailability(request))
+            .map(response -> {
+                logger.debug("Successfully checked inventory availability for productId: {}", productId);
+                return InventoryAvailabilityResponse.builder()
+                    .available(response.getIsAvailable())
+                    .productId(response.getProductId())
+                    .availableQuantity(response.getAvailableQuantity())
+                    .build();
+            })
+            .doOnError(e -> logger.error("Failed to check inventory availability for productId: {}", productId, e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Check inventory availability"));
     }
 
     // Payment Service Methods
     @CircuitBreaker(name = "payment-service")
     @Retry(name = "payment-service")
-    public PaymentResponse processPayment(String tenantId, String userId, ProcessPaymentRequest request) {
+    public Mono<PaymentResponse> processPayment(String tenantId, String userId, ProcessPaymentRequest request) {
         logger.debug("Processing payment for tenantId: {}, userId: {}, orderId: {}", 
             tenantId, userId, request.getOrderId());
         
@@ -327,28 +373,24 @@ public class GatewayGrpcClientService {
             .setIdempotencyKey(request.getIdempotencyKey())
             .build();
 
-        try {
-            PaymentServiceProtos.ProcessPaymentResponse response = paymentServiceStub
-                .withDeadlineAfter(30, TimeUnit.SECONDS)
-                .processPayment(grpcRequest);
-            
-            logger.debug("Successfully processed payment: {}", response.getPaymentId());
-            return PaymentResponse.builder()
-                .id(response.getPaymentId())
-                .orderId(request.getOrderId())
-                .status(response.getStatus())
-                .transactionId(response.getTransactionId())
-                .build();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to process payment for orderId: {}", request.getOrderId(), e);
-            throw exceptionHandler.handleGrpcException(e, "Process payment");
-        }
+        return call(paymentServiceStub, "payment-service", "process-payment", stub -> stub.processPayment(grpcRequest))
+            .map(response -> {
+                logger.debug("Successfully processed payment: {}", response.getPaymentId());
+                return PaymentResponse.builder()
+                    .id(response.getPaymentId())
+                    .orderId(request.getOrderId())
+                    .status(response.getStatus())
+                    .transactionId(response.getTransactionId())
+                    .build();
+            })
+            .doOnError(e -> logger.error("Failed to process payment for orderId: {}", request.getOrderId(), e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Process payment"));
     }
 
     // Shipping Service Methods
     @CircuitBreaker(name = "shipping-service")
     @Retry(name = "shipping-service")
-    public ShippingResponse createShipment(String tenantId, String userId, CreateShipmentRequest request) {
+    public Mono<ShippingResponse> createShipment(String tenantId, String userId, CreateShipmentRequest request) {
         logger.debug("Creating shipment for tenantId: {}, userId: {}, orderId: {}", 
             tenantId, userId, request.getOrderId());
         
@@ -362,54 +404,46 @@ public class GatewayGrpcClientService {
             .setServiceType(request.getServiceType())
             .build();
 
-        try {
-            ShippingServiceProtos.CreateShipmentResponse response = shippingServiceStub
-                .withDeadlineAfter(10, TimeUnit.SECONDS)
-                .createShipment(grpcRequest);
-            
-            logger.debug("Successfully created shipment: {}", response.getShipmentId());
-            return ShippingResponse.builder()
-                .id(String.valueOf(response.getShipmentId()))
-                .orderId(request.getOrderId())
-                .trackingNumber(response.getTrackingNumber())
-                .build();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to create shipment for orderId: {}", request.getOrderId(), e);
-            throw exceptionHandler.handleGrpcException(e, "Create shipment");
-        }
+        return call(shippingServiceStub, "shipping-service", "create-shipment", stub -> stub.createShipment(grpcRequest))
+            .map(response -> {
+                logger.debug("Successfully created shipment: {}", response.getShipmentId());
+                return ShippingResponse.builder()
+                    .id(String.valueOf(response.getShipmentId()))
+                    .orderId(request.getOrderId())
+                    .trackingNumber(response.getTrackingNumber())
+                    .build();
+            })
+            .doOnError(e -> logger.error("Failed to create shipment for orderId: {}", request.getOrderId(), e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Create shipment"));
     }
 
     // Auth Service Methods
     @CircuitBreaker(name = "auth-service")
     @Retry(name = "auth-service")
-    public TokenValidationResponse validateToken(String tenantId, String token) {
+    public Mono<TokenValidationResponse> validateToken(String tenantId, String token) {
         logger.debug("Validating token for tenantId: {}", tenantId);
 
         AuthServiceProtos.ValidateTokenRequest request = AuthServiceProtos.ValidateTokenRequest.newBuilder()
             .setToken(token)
             .build();
 
-        try {
-            AuthServiceProtos.ValidateTokenResponse response = authServiceStub
-                .withDeadlineAfter(5, TimeUnit.SECONDS)
-                .validateToken(request);
-            
-            logger.debug("Successfully validated token");
-            return TokenValidationResponse.builder()
-                .valid(response.getIsValid())
-                .userId(response.getUserId())
-                .expiresAt(String.valueOf(response.getExpiresAt()))
-                .build();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to validate token", e);
-            throw exceptionHandler.handleGrpcException(e, "Validate token");
-        }
+        return call(authServiceStub, "auth-service", "validate-token", stub -> stub.validateToken(request))
+            .map(response -> {
+                logger.debug("Successfully validated token");
+                return TokenValidationResponse.builder()
+                    .valid(response.getIsValid())
+                    .userId(response.getUserId())
+                    .expiresAt(String.valueOf(response.getExpiresAt()))
+                    .build();
+            })
+            .doOnError(e -> logger.error("Failed to validate token", e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Validate token"));
     }
 
     // Notification Service Methods
     @CircuitBreaker(name = "notification-service")
     @Retry(name = "notification-service")
-    public NotificationResponse sendNotification(String tenantId, String userId, SendNotificationRequest request) {
+    public Mono<NotificationResponse> sendNotification(String tenantId, String userId, SendNotificationRequest request) {
         logger.debug("Sending notification for tenantId: {}, userId: {}, templateId: {}", 
             tenantId, userId, request.getTemplateId());
         
@@ -426,27 +460,28 @@ public class GatewayGrpcClientService {
             .setIdempotencyKey(request.getIdempotencyKey())
             .build();
 
-        try {
-            NotificationServiceProtos.SendNotificationResponse response = notificationServiceStub
-                .withDeadlineAfter(10, TimeUnit.SECONDS)
-                .sendNotification(grpcRequest);
-            
-            logger.debug("Successfully sent notification: {}", response.getNotificationId());
-            return NotificationResponse.builder()
-                .id(response.getNotificationId())
-                .success(response.getSuccess())
-                .errorMessage(response.getErrorMessage())
-                .build();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to send notification", e);
-            throw exceptionHandler.handleGrpcException(e, "Send notification");
-        }
+        return call(notificationServiceStub, "notification-service", "send-notification",
+                stub -> stub.sendNotification(grpcRequest))
+            .map(response -> {
+                logger.debug("Successfully sent notification: {}", response.getNotificationId());
+                return NotificationResponse.builder()
+                    .id(response.getNotificationId())
+                    .success(response.getSuccess())
+                    .errorMessage(response.getErrorMessage())
+                    .build();
+            })
+            .doOnError(e -> logger.error("Failed to send notification", e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Send notification"));
     }
 
     // Review Service Methods
     @CircuitBreaker(name = "review-service")
     @Retry(name = "review-service")
-    public List<ReviewResponse> getProductReviews(String tenantId, String productId) {
+    public Mono<List<ReviewResponse>> getProductReviews(String tenantId, String productId) {
+        return fetchProductReviews(tenantId, productId, "get-product-reviews");
+    }
+
+    private Mono<List<ReviewResponse>> fetchProductReviews(String tenantId, String productId, String operation) {
         logger.debug("Getting reviews for tenantId: {}, productId: {}", tenantId, productId);
         
         CommonProtos.TenantContext context = messageMapper.buildTenantContext(
@@ -457,20 +492,16 @@ public class GatewayGrpcClientService {
             .setProductId(productId)
             .build();
 
-        try {
-            ReviewServiceProtos.GetProductReviewsResponse response = reviewServiceStub
-                .withDeadlineAfter(5, TimeUnit.SECONDS)
-                .getProductReviews(request);
-            
-            logger.debug("Successfully retrieved {} reviews for productId: {}", 
-                response.getReviewsCount(), productId);
-            return response.getReviewsList().stream()
-                .map(this::mapToReviewResponse)
-                .collect(java.util.stream.Collectors.toList());
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get product reviews for productId: {}", productId, e);
-            throw exceptionHandler.handleGrpcException(e, "Get product reviews");
-        }
+        return call(reviewServiceStub, "review-service", operation, stub -> stub.getProductReviews(request))
+            .map(response -> {
+                logger.debug("Successfully retrieved {} reviews for productId: {}", 
+                    response.getReviewsCount(), productId);
+                return response.getReviewsList().stream()
+                    .map(this::mapToReviewResponse)
+                    .collect(Collectors.toList());
+            })
+            .doOnError(e -> logger.error("Failed to get product reviews for productId: {}", productId, e))
+            .onErrorMap(StatusRuntimeException.class, e -> exceptionHandler.handleGrpcException(e, "Get product reviews"));
     }
 
     private ReviewResponse mapToReviewResponse(ReviewServiceProtos.Review review) {
@@ -485,6 +516,41 @@ public class GatewayGrpcClientService {
             .build();
     }
 
+    /**
+     * Run a unary call on a future stub as a Mono.
+     *
+     * The request context is captured now, while the caller's MDC is still set, and attached as
+     * headers; the call itself starts on subscription with the operation's deadline.
+     */
+    private <S extends AbstractStub<S>, T> Mono<T> call(S stub, String downstream, String operation,
+                                                        Function<S, ListenableFuture<T>> rpc) {
+        Metadata headers = TenantContextInterceptor.captureContextHeaders();
+
+        Mono<T> response = Mono.create(sink -> {
+            long deadlineMillis = properties.getDeadline(operation).toMillis();
+            ListenableFuture<T> future = rpc.apply(stub
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers))
+                .withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS));
+
+            sink.onCancel(() -> future.cancel(true));
+            Futures.addCallback(future, new FutureCallback<T>() {
+                @Override
+                public void onSuccess(T result) {
+                    sink.success(result);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    if (!future.isCancelled()) {
+                        sink.error(t);
+                    }
+                }
+            }, MoreExecutors.directExecutor());
+        });
+
+        return response.transformDeferred(BulkheadOperator.of(bulkheadRegistry.bulkhead(downstream)));
+    }
+
     // Request/Response DTOs (these would typically be in a separate package)
     public static class AddCartItemRequest {
         private String productId;
@@ -740,6 +806,33 @@ public class GatewayGrpcClientService {
         public String getCreatedAt() { return createdAt; }
     }
 
+    public static class ProductPageResponse {
+        private GrpcMessageMapper.ProductResponse product;
+        private InventoryAvailabilityResponse availability;
+        private List<ReviewResponse> reviews;
+        private List<String> unavailableSections;
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public static class Builder {
+            private ProductPageResponse response = new ProductPageResponse();
+
+            public Builder product(GrpcMessageMapper.ProductResponse product) { response.product = product; return this; }
+            public Builder availability(InventoryAvailabilityResponse availability) { response.availability = availability; return this; }
+            public Builder reviews(List<ReviewResponse> reviews) { response.reviews = reviews; return this; }
+            public Builder unavailableSections(List<String> unavailableSections) { response.unavailableSections = unavailableSections; return this; }
+            public ProductPageResponse build() { return response; }
+        }
+
+        // Getters
+        public GrpcMessageMapper.ProductResponse getProduct() { return product; }
+        public InventoryAvailabilityResponse getAvailability() { return availability; }
+        public List<ReviewResponse> getReviews() { return reviews; }
+        public List<String> getUnavailableSections() { return unavailableSections; }
+    }
+
     public static class CreateReviewRequest {
         private String productId;
         private int rating;
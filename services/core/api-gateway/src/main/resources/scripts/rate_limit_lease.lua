@@ -0,0 +1,43 @@
+-- Grants up to ARGV[3] requests from a sliding window shared by all gateway nodes.
+--
+-- KEYS[1]  sorted set of leases in the window; score = grant time in ms, member = "<lease id>:<count>"
+-- ARGV[1]  window length in ms
+-- ARGV[2]  limit per window
+-- ARGV[3]  requests wanted
+-- ARGV[4]  unique lease id
+--
+-- Returns {granted, remaining in the window after the grant, ms until the oldest lease leaves the window}
+
+local window = tonumber(ARGV[1])
+local limit = tonumber(ARGV[2])
+local wanted = tonumber(ARGV[3])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+
+local used = 0
+local leases = redis.call('ZRANGE', KEYS[1], 0, -1)
+for i = 1, #leases do
+    used = used + tonumber(string.match(leases[i], ':(%d+)$'))
+end
+
+local granted = math.max(0, math.min(wanted, limit - used))
+if granted > 0 then
+    redis.call('ZADD', KEYS[1], now, ARGV[4] .. ':' .. granted)
+    used = used + granted
+end
+redis.call('PEXPIRE', KEYS[1], window)
+
+local retryAfter = 0
+if granted == 0 then
+    local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+    if oldest[2] then
+        retryAfter = math.max(1, tonumber(oldest[2]) + window - now)
+    else
+        retryAfter = window
+    end
+end
+
+return {granted, math.max(0, limit - used), retryAfter}
@@ -1,5 +1,6 @@
 package com.ecommerce.gateway.filter;
 
+import com.ecommerce.shared.security.JwtPrincipal;
 import com.ecommerce.shared.security.JwtTokenProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,7 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Instant;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -92,7 +94,7 @@ class JwtAuthenticationGatewayFilterTest {
                 .build()
         );
 
-        when(jwtTokenProvider.getUserIdFromToken(anyString()))
+        when(jwtTokenProvider.verify(anyString()))
             .thenThrow(new RuntimeException("Invalid token"));
 
         // When & Then
@@ -114,9 +116,8 @@ class JwtAuthenticationGatewayFilterTest {
                 .build()
         );
 
-        when(jwtTokenProvider.getUserIdFromToken(validToken)).thenReturn("user123");
-        when(jwtTokenProvider.getTenantIdFromToken(validToken)).thenReturn("tenant_abc");
-        when(jwtTokenProvider.getRolesFromToken(validToken)).thenReturn(List.of("CUSTOMER"));
+        when(jwtTokenProvider.verify(validToken)).thenReturn(
+            new JwtPrincipal("user123", "tenant_abc", List.of("CUSTOMER"), "access", Instant.now().plusSeconds(3600)));
 
         // When & Then
         StepVerifier.create(filter.filter(exchange, filterChain))
@@ -1,14 +1,14 @@
 package com.ecommerce.gateway.filter;
 
+import com.ecommerce.gateway.config.RateLimitProperties;
+import com.ecommerce.gateway.ratelimit.HybridRateLimiter;
+import com.ecommerce.gateway.ratelimit.HybridRateLimiter.Decision;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.data.redis.core.ReactiveValueOperations;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
@@ -16,33 +16,36 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
-import java.time.Duration;
+import java.net.InetSocketAddress;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class RateLimitingGatewayFilterTest {
 
     @Mock
-    private ReactiveRedisTemplate<String, String> redisTemplate;
-
-    @Mock
-    private ReactiveValueOperations<String, String> valueOperations;
+    private HybridRateLimiter rateLimiter;
 
     @Mock
     private GatewayFilterChain filterChain;
 
-    @InjectMocks
     private RateLimitingGatewayFilter filter;
 
-    private ServerWebExchange exchange;
+    private MockServerWebExchange exchange;
 
     @BeforeEach
     void setUp() {
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(filterChain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setTrustedProxies(Set.of("10.0.0.1", "10.0.0.2"));
+        filter = new RateLimitingGatewayFilter(rateLimiter, properties);
+        lenient().when(filterChain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
     }
 
     @Test
@@ -55,6 +58,7 @@ class RateLimitingGatewayFilterTest {
         // When & Then
         StepVerifier.create(filter.filter(exchange, filterChain))
             .verifyComplete();
+        verifyNoInteractions(rateLimiter);
     }
 
     @Test
@@ -64,12 +68,14 @@ class RateLimitingGatewayFilterTest {
             MockServerHttpRequest.get("/api/v1/users/profile").build()
         );
 
-        when(valueOperations.increment(anyString())).thenReturn(Mono.just(1L));
-        when(redisTemplate.expire(anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(rateLimiter.tryAcquire(any())).thenReturn(Mono.just(Decision.allowed(1000, 958)));
 
         // When & Then
         StepVerifier.create(filter.filter(exchange, filterChain))
             .verifyComplete();
+        verify(filterChain).filter(any(ServerWebExchange.class));
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-RateLimit-Limit")).isEqualTo("1000");
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-RateLimit-Remaining")).isEqualTo("958");
     }
 
     @Test
@@ -79,15 +85,17 @@ class RateLimitingGatewayFilterTest {
             MockServerHttpRequest.get("/api/v1/users/profile").build()
         );
 
-        when(valueOperations.increment(anyString())).thenReturn(Mono.just(1001L)); // Exceeds default limit
+        when(rateLimiter.tryAcquire(any())).thenReturn(Mono.just(Decision.rejected(1000, 17)));
 
         // When & Then
         StepVerifier.create(filter.filter(exchange, filterChain))
             .expectComplete()
             .verify();
 
-        // Verify response status
-        assert exchange.getResponse().getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-RateLimit-Remaining")).isEqualTo("0");
+        assertThat(exchange.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("17");
+        verify(filterChain, never()).filter(any(ServerWebExchange.class));
     }
 
     @Test
@@ -97,11 +105,30 @@ class RateLimitingGatewayFilterTest {
             MockServerHttpRequest.get("/api/v1/users/profile").build()
         );
 
-        when(valueOperations.increment(anyString())).thenReturn(Mono.error(new RuntimeException("Redis error")));
+        when(rateLimiter.tryAcquire(any())).thenReturn(Mono.error(new RuntimeException("Redis error")));
 
         // When & Then
         StepVerifier.create(filter.filter(exchange, filterChain))
             .verifyComplete();
+        verify(filterChain).filter(any(ServerWebExchange.class));
+        assertThat(exchange.getResponse().getHeaders().containsKey("X-RateLimit-Remaining")).isFalse();
+    }
+
+    @Test
+    void shouldNotRetryChainWhenDownstreamFails() {
+        // Given
+        exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/v1/users/profile").build()
+        );
+
+        when(rateLimiter.tryAcquire(any())).thenReturn(Mono.just(Decision.allowed(1000, 999)));
+        when(filterChain.filter(any(ServerWebExchange.class))).thenReturn(Mono.error(new IllegalStateException("downstream")));
+
+        // When & Then
+        StepVerifier.create(filter.filter(exchange, filterChain))
+            .expectError(IllegalStateException.class)
+            .verify();
+        verify(filterChain).filter(any(ServerWebExchange.class));
     }
 
     @Test
@@ -115,12 +142,45 @@ class RateLimitingGatewayFilterTest {
         // Given
         exchange = MockServerWebExchange.from(
             MockServerHttpRequest.get("/api/v1/products")
-                .remoteAddress(java.net.InetSocketAddress.createUnresolved("192.168.1.1", 8080))
+                .remoteAddress(new InetSocketAddress("192.168.1.1", 8080))
+                .build()
+        );
+
+        when(rateLimiter.tryAcquire("ip:192.168.1.1")).thenReturn(Mono.just(Decision.allowed(1000, 999)));
+
+        // When & Then
+        StepVerifier.create(filter.filter(exchange, filterChain))
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldHandleXForwardedForHeaderFromTrustedProxies() {
+        // Given - the client sent a forged first hop; the load balancers appended the real ones
+        exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/v1/products")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 443))
+                .header("X-Forwarded-For", "198.51.100.7, 203.0.113.1, 10.0.0.2")
+                .build()
+        );
+
+        when(rateLimiter.tryAcquire("ip:203.0.113.1")).thenReturn(Mono.just(Decision.allowed(1000, 999)));
+
+        // When & Then
+        StepVerifier.create(filter.filter(exchange, filterChain))
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldIgnoreXForwardedForHeaderFromUntrustedClients() {
+        // Given
+        exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/v1/products")
+                .remoteAddress(new InetSocketAddress("192.168.1.1", 8080))
+                .header("X-Forwarded-For", "203.0.113.1")
                 .build()
         );
 
-        when(valueOperations.increment(anyString())).thenReturn(Mono.just(1L));
-        when(redisTemplate.expire(anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(rateLimiter.tryAcquire("ip:192.168.1.1")).thenReturn(Mono.just(Decision.allowed(1000, 999)));
 
         // When & Then
         StepVerifier.create(filter.filter(exchange, filterChain))
@@ -128,19 +188,19 @@ class RateLimitingGatewayFilterTest {
     }
 
     @Test
-    void shouldHandleXForwardedForHeader() {
+    void shouldNotKeyOnMalformedForwardedAddresses() {
         // Given
         exchange = MockServerWebExchange.from(
             MockServerHttpRequest.get("/api/v1/products")
-                .header("X-Forwarded-For", "203.0.113.1, 192.168.1.1")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 443))
+                .header("X-Forwarded-For", "random-" + System.nanoTime())
                 .build()
         );
 
-        when(valueOperations.increment(anyString())).thenReturn(Mono.just(1L));
-        when(redisTemplate.expire(anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(rateLimiter.tryAcquire("ip:10.0.0.1")).thenReturn(Mono.just(Decision.allowed(1000, 999)));
 
         // When & Then
         StepVerifier.create(filter.filter(exchange, filterChain))
             .verifyComplete();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,204 @@
+package com.ecommerce.gateway.performance;
+
+import com.ecommerce.gateway.config.GrpcClientProperties;
+import com.ecommerce.gateway.grpc.GrpcExceptionHandler;
+import com.ecommerce.gateway.grpc.GrpcMessageMapper;
+import com.ecommerce.gateway.service.GatewayGrpcClientService;
+import com.ecommerce.inventoryservice.proto.InventoryServiceGrpc;
+import com.ecommerce.inventoryservice.proto.InventoryServiceProtos;
+import com.ecommerce.productservice.proto.ProductServiceGrpc;
+import com.ecommerce.productservice.proto.ProductServiceProtos;
+import com.ecommerce.reviewservice.proto.ReviewServiceGrpc;
+import com.ecommerce.reviewservice.proto.ReviewServiceProtos;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Load test of the product page fan-out with an artificially slow review service.
+ *
+ * Reviews answer after {@link #REVIEW_DELAY}, well past the page's review deadline, so every page
+ * is served without them once the deadline fires. The reactive client keeps
+ * {@link #IN_FLIGHT} pages pending at once; the baseline runs the same three calls sequentially
+ * through blocking stubs on a fixed pool, as the gateway did before.
+ *
+ * Run with: -Dperformance.tests.enabled=true
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class ProductPageLoadTest {
+
+    private static final Duration RUN_TIME = Duration.ofSeconds(10);
+    private static final Duration REVIEW_DELAY = Duration.ofSeconds(2);
+    private static final Duration REVIEW_DEADLINE = Duration.ofMillis(300);
+    private static final int IN_FLIGHT = 1000;
+    private static final int BLOCKING_THREADS = 64;
+
+    private final ScheduledExecutorService slowResponder = Executors.newScheduledThreadPool(2);
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+            .addService(new FastProductService())
+            .addService(new FastInventoryService())
+            .addService(new SlowReviewService())
+            .build()
+            .start();
+        channel = InProcessChannelBuilder.forName(serverName).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        slowResponder.shutdownNow();
+    }
+
+    @Test
+    void testSustainedProductPageThroughputWithSlowReviews() throws Exception {
+        double reactiveRps = runReactive();
+        double blockingRps = runBlocking();
+
+        System.out.printf("Product page with reviews delayed %dms (deadline %dms) over %ds%n",
+            REVIEW_DELAY.toMillis(), REVIEW_DEADLINE.toMillis(), RUN_TIME.toSeconds());
+        System.out.printf("  reactive, %d in flight:     %8.1f pages/s%n", IN_FLIGHT, reactiveRps);
+        System.out.printf("  blocking, %d threads:        %8.1f pages/s%n", BLOCKING_THREADS, blockingRps);
+
+        // Bounded by in-flight pages / review deadline for reactive, threads / deadline for blocking
+        assertThat(reactiveRps).isGreaterThan(blockingRps * 5);
+    }
+
+    private double runReactive() {
+        GrpcClientProperties properties = new GrpcClientProperties();
+        properties.setDeadlines(Map.of("product-page-reviews", REVIEW_DEADLINE));
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(IN_FLIGHT)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+
+        GatewayGrpcClientService service = new GatewayGrpcClientService(
+            new GrpcMessageMapper(), new GrpcExceptionHandler(), properties, bulkheads);
+        ReflectionTestUtils.setField(service, "productServiceStub", ProductServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(service, "inventoryServiceStub", InventoryServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(service, "reviewServiceStub", ReviewServiceGrpc.newFutureStub(channel));
+
+        LongAdder pages = new LongAdder();
+        LongAdder degraded = new LongAdder();
+        long start = System.nanoTime();
+        long end = start + RUN_TIME.toNanos();
+
+        Flux.range(0, Integer.MAX_VALUE)
+            .takeWhile(i -> System.nanoTime() < end)
+            .flatMap(i -> service.getProductPage("tenant-1", null, "product-" + (i % 100)), IN_FLIGHT)
+            .doOnNext(page -> {
+                pages.increment();
+                if (!page.getUnavailableSections().isEmpty()) {
+                    degraded.increment();
+                }
+            })
+            .blockLast();
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        assertThat(degraded.sum()).isEqualTo(pages.sum());
+        return pages.sum() / seconds;
+    }
+
+    private double runBlocking() throws InterruptedException {
+        ProductServiceGrpc.ProductServiceBlockingStub products = ProductServiceGrpc.newBlockingStub(channel);
+        InventoryServiceGrpc.InventoryServiceBlockingStub inventory = InventoryServiceGrpc.newBlockingStub(channel);
+        ReviewServiceGrpc.ReviewServiceBlockingStub reviews = ReviewServiceGrpc.newBlockingStub(channel);
+
+        LongAdder pages = new LongAdder();
+        long start = System.nanoTime();
+        long end = start + RUN_TIME.toNanos();
+
+        ExecutorService pool = Executors.newFixedThreadPool(BLOCKING_THREADS);
+        for (int t = 0; t < BLOCKING_THREADS; t++) {
+            pool.submit(() -> {
+                while (System.nanoTime() < end) {
+                    products.withDeadlineAfter(2, TimeUnit.SECONDS)
+                        .getProduct(ProductServiceProtos.GetProductRequest.newBuilder().setProductId("p").build());
+                    inventory.withDeadlineAfter(800, TimeUnit.MILLISECONDS)
+                        .checkAvailability(InventoryServiceProtos.CheckAvailabilityRequest.newBuilder().setProductId("p").build());
+                    try {
+                        reviews.withDeadlineAfter(REVIEW_DEADLINE.toMillis(), TimeUnit.MILLISECONDS)
+                            .getProductReviews(ReviewServiceProtos.GetProductReviewsRequest.newBuilder().setProductId("p").build());
+                    } catch (StatusRuntimeException e) {
+                        // Deadline exceeded, served without reviews
+                    }
+                    pages.increment();
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(RUN_TIME.toSeconds() + 10, TimeUnit.SECONDS);
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return pages.sum() / seconds;
+    }
+
+    private static class FastProductService extends ProductServiceGrpc.ProductServiceImplBase {
+        @Override
+        public void getProduct(ProductServiceProtos.GetProductRequest request,
+                               StreamObserver<ProductServiceProtos.GetProductResponse> responseObserver) {
+            responseObserver.onNext(ProductServiceProtos.GetProductResponse.newBuilder()
+                .setProduct(ProductServiceProtos.Product.newBuilder().setId(request.getProductId()).setName("Product"))
+                .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    private static class FastInventoryService extends InventoryServiceGrpc.InventoryServiceImplBase {
+        @Override
+        public void checkAvailability(InventoryServiceProtos.CheckAvailabilityRequest request,
+                                      StreamObserver<InventoryServiceProtos.CheckAvailabilityResponse> responseObserver) {
+            responseObserver.onNext(InventoryServiceProtos.CheckAvailabilityResponse.newBuilder()
+                .setProductId(request.getProductId()).setIsAvailable(true).setAvailableQuantity(10).build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    /**
+     * Answers from a timer without holding a server thread, like a downstream stuck on I/O
+     */
+    private class SlowReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
+        @Override
+        public void getProductReviews(ReviewServiceProtos.GetProductReviewsRequest request,
+                                      StreamObserver<ReviewServiceProtos.GetProductReviewsResponse> responseObserver) {
+            ServerCallStreamObserver<ReviewServiceProtos.GetProductReviewsResponse> call =
+                (ServerCallStreamObserver<ReviewServiceProtos.GetProductReviewsResponse>) responseObserver;
+            call.setOnCancelHandler(() -> { });
+            slowResponder.schedule(() -> {
+                if (!call.isCancelled()) {
+                    call.onNext(ReviewServiceProtos.GetProductReviewsResponse.getDefaultInstance());
+                    call.onCompleted();
+                }
+            }, REVIEW_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.gateway.performance;
+
+import com.ecommerce.gateway.config.RateLimitProperties;
+import com.ecommerce.gateway.filter.RateLimitingGatewayFilter;
+import com.ecommerce.gateway.ratelimit.HybridRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latency the rate limiting filter adds to a request, with every Redis call delayed by a
+ * simulated round trip.
+ *
+ * The baseline replays the previous filter logic, an INCR per request plus an EXPIRE on the
+ * first request of each window; the hybrid limiter answers most requests from its local lease.
+ * The downstream chain completes immediately, so the measured time is the filter's overhead.
+ *
+ * Run with: -Dperformance.tests.enabled=true
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class RateLimitFilterOverheadTest {
+
+    private static final Duration REDIS_RTT = Duration.ofMillis(1);
+    private static final int TENANTS = 50;
+    private static final int WARMUP_REQUESTS = 20_000;
+    private static final int MEASURED_REQUESTS = 100_000;
+    private static final int CONCURRENCY = 64;
+
+    private final GatewayFilterChain chain = exchange -> Mono.empty();
+
+    @Test
+    void testP99FilterOverhead() {
+        BiFunction<ServerWebExchange, GatewayFilterChain, Mono<Void>> previous = previousFilter();
+        RateLimitingGatewayFilter hybrid = hybridFilter();
+
+        long[] previousLatencies = measure(previous);
+        long[] hybridLatencies = measure(hybrid::filter);
+
+        System.out.printf("Rate limit filter overhead with %dms Redis RTT, %d concurrent requests%n",
+            REDIS_RTT.toMillis(), CONCURRENCY);
+        print("INCR + EXPIRE per request", previousLatencies);
+        print("hybrid local lease", hybridLatencies);
+
+        assertThat(percentile(hybridLatencies, 99)).isLessThan(percentile(previousLatencies, 99));
+    }
+
+    private long[] measure(BiFunction<ServerWebExchange, GatewayFilterChain, Mono<Void>> filter) {
+        run(filter, WARMUP_REQUESTS);
+        return run(filter, MEASURED_REQUESTS);
+    }
+
+    private long[] run(BiFunction<ServerWebExchange, GatewayFilterChain, Mono<Void>> filter, int requests) {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        Flux.range(0, requests)
+            .flatMap(i -> {
+                ServerWebExchange exchange = MockServerWebExchange.from(
+                    MockServerHttpRequest.get("/api/v1/products")
+                        .header("X-Forwarded-For", "10.0.0." + (i % TENANTS))
+                        .build());
+                return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return filter.apply(exchange, chain)
+                        .doOnTerminate(() -> latencies[next.getAndIncrement()] = System.nanoTime() - start);
+                });
+            }, CONCURRENCY)
+            .blockLast();
+        return latencies;
+    }
+
+    private static void print(String name, long[] latencies) {
+        System.out.printf("  %-28s p50 %8.1f us   p99 %8.1f us   p99.9 %8.1f us%n", name,
+            percentile(latencies, 50) / 1000.0, percentile(latencies, 99) / 1000.0, percentile(latencies, 99.9) / 1000.0);
+    }
+
+    private static long percentile(long[] latencies, double percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RateLimitingGatewayFilter hybridFilter() {
+        ReactiveRedisTemplate<String, String> redisTemplate = mock(ReactiveRedisTemplate.class);
+        AtomicLong used = new AtomicLong();
+        doAnswer(invocation -> {
+            List<String> args = invocation.getArgument(2);
+            long granted = Long.parseLong(args.get(2));
+            long remaining = Long.MAX_VALUE / 2 - used.addAndGet(granted);
+            return Mono.delay(REDIS_RTT).thenMany(Flux.just(List.of(granted, remaining, 0L)));
+        }).when(redisTemplate).execute(any(RedisScript.class), anyList(), anyList());
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultLimit(Integer.MAX_VALUE);
+        return new RateLimitingGatewayFilter(new HybridRateLimiter(redisTemplate, properties), properties);
+    }
+
+    /**
+     * The filter this benchmark compares against, reduced to its Redis calls
+     */
+    @SuppressWarnings("unchecked")
+    private static BiFunction<ServerWebExchange, GatewayFilterChain, Mono<Void>> previousFilter() {
+        ReactiveRedisTemplate<String, String> redisTemplate = mock(ReactiveRedisTemplate.class);
+        ReactiveValueOperations<String, String> valueOperations = mock(ReactiveValueOperations.class);
+        AtomicLong counter = new AtomicLong();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(anyString()))
+            .thenAnswer(invocation -> Mono.delay(REDIS_RTT).map(tick -> counter.incrementAndGet() % 1000));
+        when(redisTemplate.expire(anyString(), any(Duration.class)))
+            .thenAnswer(invocation -> Mono.delay(REDIS_RTT).thenReturn(true));
+
+        return (exchange, chain) -> {
+            String key = "rate_limit:ip:" + exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
+            return redisTemplate.opsForValue().increment(key)
+                .flatMap(count -> count == 1
+                    ? redisTemplate.expire(key, Duration.ofMinutes(1)).thenReturn(true)
+                    : Mono.just(count <= 1000))
+                .flatMap(allowed -> chain.filter(exchange));
+        };
+    }
+}
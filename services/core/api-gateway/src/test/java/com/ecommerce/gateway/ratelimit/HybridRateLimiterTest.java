@@ -0,0 +1,204 @@
+package com.ecommerce.gateway.ratelimit;
+
+import com.ecommerce.gateway.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class HybridRateLimiterTest {
+
+    private static final long RETRY_AFTER_MILLIS = 30_000;
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final Map<String, Long> usedInWindow = new HashMap<>();
+    private final List<List<String>> leaseRequests = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean redisDown = new AtomicBoolean();
+
+    private RateLimitProperties properties;
+    private HybridRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setTenants(Map.of("tenant-premium", 5000));
+        rateLimiter = new HybridRateLimiter(redisTemplate, properties, clock::get);
+
+        // Stands in for the Lua script: grants from a per-key window without sliding it
+        doAnswer(invocation -> {
+            if (redisDown.get()) {
+                return Flux.error(new IllegalStateException("Redis unavailable"));
+            }
+            String key = invocation.<List<String>>getArgument(1).get(0);
+            List<String> args = invocation.getArgument(2);
+            leaseRequests.add(args);
+            long limit = Long.parseLong(args.get(1));
+            long wanted = Long.parseLong(args.get(2));
+            long used = usedInWindow.getOrDefault(key, 0L);
+            long granted = Math.max(0, Math.min(wanted, limit - used));
+            usedInWindow.put(key, used + granted);
+            return Flux.just(List.of(granted, limit - used - granted, granted == 0 ? RETRY_AFTER_MILLIS : 0L));
+        }).when(redisTemplate).execute(any(RedisScript.class), anyList(), anyList());
+    }
+
+    @Test
+    void tryAcquire_ShouldServeRequestsFromOneLease() {
+        // When
+        for (int i = 0; i < 30; i++) {
+            rateLimiter.tryAcquire("tenant-1").block();
+        }
+
+        // Then
+        assertThat(leaseRequests).hasSize(1);
+        assertThat(leaseRequests.get(0)).containsExactly("60000", "1000", "50", leaseRequests.get(0).get(3));
+    }
+
+    @Test
+    void tryAcquire_ShouldReportRemainingAcrossWindowAndLease() {
+        // When & Then
+        StepVerifier.create(rateLimiter.tryAcquire("tenant-1"))
+            .assertNext(decision -> {
+                assertThat(decision.isAllowed()).isTrue();
+                assertThat(decision.getLimit()).isEqualTo(1000);
+                assertThat(decision.getRemaining()).isEqualTo(999);
+            })
+            .verifyComplete();
+        StepVerifier.create(rateLimiter.tryAcquire("tenant-1"))
+            .assertNext(decision -> assertThat(decision.getRemaining()).isEqualTo(998))
+            .verifyComplete();
+    }
+
+    @Test
+    void tryAcquire_ShouldLeaseAgainBeforeBucketIsEmpty() {
+        // When: 50 leased, prefetch once 12 or fewer are left
+        for (int i = 0; i < 39; i++) {
+            rateLimiter.tryAcquire("tenant-1").block();
+        }
+
+        // Then
+        assertThat(leaseRequests).hasSize(2);
+    }
+
+    @Test
+    void tryAcquire_ShouldUseConfiguredTenantLimit() {
+        // When & Then
+        StepVerifier.create(rateLimiter.tryAcquire("tenant-premium"))
+            .assertNext(decision -> assertThat(decision.getLimit()).isEqualTo(5000))
+            .verifyComplete();
+        assertThat(leaseRequests.get(0).get(1)).isEqualTo("5000");
+    }
+
+    @Test
+    void tryAcquire_WhenWindowIsFull_ShouldRejectLocallyUntilRetryAfter() {
+        // Given
+        usedInWindow.put("rate_limit:window:tenant-1", 1000L);
+
+        // When & Then
+        StepVerifier.create(rateLimiter.tryAcquire("tenant-1"))
+            .assertNext(decision -> {
+                assertThat(decision.isAllowed()).isFalse();
+                assertThat(decision.getRemaining()).isZero();
+                assertThat(decision.getRetryAfterSeconds()).isEqualTo(30);
+            })
+            .verifyComplete();
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        StepVerifier.create(rateLimiter.tryAcquire("tenant-1"))
+            .assertNext(decision -> {
+                assertThat(decision.isAllowed()).isFalse();
+                assertThat(decision.getRetryAfterSeconds()).isEqualTo(20);
+            })
+            .verifyComplete();
+        assertThat(leaseRequests).hasSize(1);
+
+        usedInWindow.clear();
+        clock.addAndGet(Duration.ofSeconds(21).toNanos());
+        StepVerifier.create(rateLimiter.tryAcquire("tenant-1"))
+            .assertNext(decision -> assertThat(decision.isAllowed()).isTrue())
+            .verifyComplete();
+        assertThat(leaseRequests).hasSize(2);
+    }
+
+    @Test
+    void tryAcquire_ShouldDropLeaseOnceWindowHasPassed() {
+        // Given
+        rateLimiter.tryAcquire("tenant-1").block();
+
+        // When
+        clock.addAndGet(properties.getWindow().toNanos());
+        rateLimiter.tryAcquire("tenant-1").block();
+
+        // Then
+        assertThat(leaseRequests).hasSize(2);
+    }
+
+    @Test
+    void tryAcquire_WhenRedisFails_ShouldFailAndLeaseAgainOnNextRequest() {
+        // Given
+        redisDown.set(true);
+
+        // When & Then
+        StepVerifier.create(rateLimiter.tryAcquire("tenant-1"))
+            .expectError(IllegalStateException.class)
+            .verify();
+
+        redisDown.set(false);
+        StepVerifier.create(rateLimiter.tryAcquire("tenant-1"))
+            .assertNext(decision -> assertThat(decision.isAllowed()).isTrue())
+            .verifyComplete();
+    }
+
+    @Test
+    void tryAcquire_ShouldBoundTrackedKeys() {
+        // Given
+        properties.setMaxTrackedKeys(3);
+        rateLimiter = new HybridRateLimiter(redisTemplate, properties, clock::get);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire("ip:10.0.0." + i).block();
+        }
+
+        // Then
+        assertThat(rateLimiter.trackedKeys()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void tryAcquire_FloodOfNewKeys_ShouldKeepTheBucketOfAnActiveKey() {
+        // Given
+        properties.setMaxTrackedKeys(3);
+        rateLimiter = new HybridRateLimiter(redisTemplate, properties, clock::get);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire("tenant-1").block();
+            rateLimiter.tryAcquire("ip:10.0.0." + i).block();
+        }
+
+        // Then - one lease for the active tenant, one per flooding address
+        assertThat(leaseRequests).hasSize(11);
+        assertThat(rateLimiter.trackedKeys()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,273 @@
+package com.ecommerce.gateway.service;
+
+import com.ecommerce.gateway.config.GrpcClientProperties;
+import com.ecommerce.gateway.grpc.GrpcExceptionHandler;
+import com.ecommerce.gateway.grpc.GrpcMessageMapper;
+import com.ecommerce.inventoryservice.proto.InventoryServiceGrpc;
+import com.ecommerce.inventoryservice.proto.InventoryServiceProtos;
+import com.ecommerce.productservice.proto.ProductServiceGrpc;
+import com.ecommerce.productservice.proto.ProductServiceProtos;
+import com.ecommerce.reviewservice.proto.ReviewServiceGrpc;
+import com.ecommerce.reviewservice.proto.ReviewServiceProtos;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for the non-blocking calls of GatewayGrpcClientService against in-process gRPC servers
+ */
+class GatewayGrpcClientServiceInProcessTest {
+
+    private static final Metadata.Key<String> TENANT_ID_KEY =
+        Metadata.Key.of("tenant-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final AtomicReference<Metadata> lastHeaders = new AtomicReference<>();
+    private final List<StreamObserver<?>> pendingCalls = new CopyOnWriteArrayList<>();
+
+    private final StubProductService productService = new StubProductService();
+    private final StubInventoryService inventoryService = new StubInventoryService();
+    private final StubReviewService reviewService = new StubReviewService();
+
+    private Server server;
+    private ManagedChannel channel;
+    private GrpcClientProperties properties;
+    private GatewayGrpcClientService grpcClientService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String serverName = InProcessServerBuilder.generateName();
+        ServerInterceptor headerCapture = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                    ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                lastHeaders.set(headers);
+                return next.startCall(call, headers);
+            }
+        };
+        server = InProcessServerBuilder.forName(serverName)
+            .directExecutor()
+            .addService(ServerInterceptors.intercept(productService, headerCapture))
+            .addService(inventoryService)
+            .addService(reviewService)
+            .build()
+            .start();
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+
+        properties = new GrpcClientProperties();
+        properties.setDeadlines(Map.of("product-page-reviews", Duration.ofMillis(200)));
+
+        grpcClientService = createClientService(BulkheadRegistry.ofDefaults());
+        MDC.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void getProduct_ShouldMapResponseAndSendContextCapturedAtAssembly() {
+        // Given
+        productService.respondWith = product("product-1");
+        MDC.put("tenantId", "tenant-1");
+        Mono<GrpcMessageMapper.ProductResponse> product = grpcClientService.getProduct("tenant-1", null, "product-1");
+        MDC.clear();
+
+        // When & Then
+        StepVerifier.create(product)
+            .assertNext(response -> assertThat(response.getId()).isEqualTo("product-1"))
+            .verifyComplete();
+        assertThat(lastHeaders.get().get(TENANT_ID_KEY)).isEqualTo("tenant-1");
+    }
+
+    @Test
+    void getProduct_ShouldNotCallDownstreamUntilSubscribed() {
+        // Given
+        productService.respondWith = product("product-1");
+
+        // When
+        grpcClientService.getProduct("tenant-1", null, "product-1");
+
+        // Then
+        assertThat(productService.calls.get()).isZero();
+    }
+
+    @Test
+    void getProduct_WhenDeadlineExceeded_ShouldFailWithTimeout() {
+        // Given
+        properties.setDefaultDeadline(Duration.ofMillis(100));
+
+        // When & Then
+        StepVerifier.create(grpcClientService.getProduct("tenant-1", null, "slow-product"))
+            .expectError(GrpcExceptionHandler.TimeoutException.class)
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void getProduct_WhenBulkheadIsFull_ShouldRejectWithoutCallingDownstream() {
+        // Given
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+        grpcClientService = createClientService(registry);
+        Disposable pending = grpcClientService.getProduct("tenant-1", null, "slow-product").subscribe();
+
+        // When & Then
+        StepVerifier.create(grpcClientService.getProduct("tenant-1", null, "product-1"))
+            .expectError(BulkheadFullException.class)
+            .verify(Duration.ofSeconds(5));
+        assertThat(productService.calls.get()).isEqualTo(1);
+        pending.dispose();
+    }
+
+    @Test
+    void getProductPage_ShouldCombineAllSections() {
+        // Given
+        productService.respondWith = product("product-1");
+        inventoryService.respondWith = InventoryServiceProtos.CheckAvailabilityResponse.newBuilder()
+            .setProductId("product-1").setIsAvailable(true).setAvailableQuantity(12).build();
+        reviewService.respondWith = ReviewServiceProtos.GetProductReviewsResponse.newBuilder()
+            .addReviews(ReviewServiceProtos.Review.newBuilder().setId("review-1").setProductId("product-1").setRating(5))
+            .build();
+
+        // When & Then
+        StepVerifier.create(grpcClientService.getProductPage("tenant-1", null, "product-1"))
+            .assertNext(page -> {
+                assertThat(page.getProduct().getId()).isEqualTo("product-1");
+                assertThat(page.getAvailability().getAvailableQuantity()).isEqualTo(12);
+                assertThat(page.getReviews()).extracting(GatewayGrpcClientService.ReviewResponse::getId)
+                    .containsExactly("review-1");
+                assertThat(page.getUnavailableSections()).isEmpty();
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void getProductPage_WhenReviewsMissTheirDeadline_ShouldServePageWithoutThem() {
+        // Given
+        productService.respondWith = product("product-1");
+        inventoryService.respondWith = InventoryServiceProtos.CheckAvailabilityResponse.newBuilder()
+            .setProductId("product-1").setIsAvailable(true).setAvailableQuantity(3).build();
+
+        // When & Then
+        StepVerifier.create(grpcClientService.getProductPage("tenant-1", null, "product-1"))
+            .assertNext(page -> {
+                assertThat(page.getProduct().getId()).isEqualTo("product-1");
+                assertThat(page.getAvailability().isAvailable()).isTrue();
+                assertThat(page.getReviews()).isEmpty();
+                assertThat(page.getUnavailableSections()).containsExactly("reviews");
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void getProductPage_WhenProductIsMissing_ShouldFail() {
+        // Given
+        productService.failWith = Status.NOT_FOUND.withDescription("Product not found");
+
+        // When & Then
+        StepVerifier.create(grpcClientService.getProductPage("tenant-1", null, "missing"))
+            .expectError(GrpcExceptionHandler.ResourceNotFoundException.class)
+            .verify(Duration.ofSeconds(5));
+    }
+
+    private GatewayGrpcClientService createClientService(BulkheadRegistry bulkheadRegistry) {
+        GatewayGrpcClientService service = new GatewayGrpcClientService(
+            new GrpcMessageMapper(), new GrpcExceptionHandler(), properties, bulkheadRegistry);
+        ReflectionTestUtils.setField(service, "productServiceStub", ProductServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(service, "inventoryServiceStub", InventoryServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(service, "reviewServiceStub", ReviewServiceGrpc.newFutureStub(channel));
+        return service;
+    }
+
+    private static ProductServiceProtos.GetProductResponse product(String productId) {
+        return ProductServiceProtos.GetProductResponse.newBuilder()
+            .setProduct(ProductServiceProtos.Product.newBuilder().setId(productId).setName("Product").setIsActive(true))
+            .build();
+    }
+
+    /**
+     * Answers with the configured response or status; leaves "slow-product" and unset responses
+     * pending
+     */
+    private class StubProductService extends ProductServiceGrpc.ProductServiceImplBase {
+        volatile ProductServiceProtos.GetProductResponse respondWith;
+        volatile Status failWith;
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public void getProduct(ProductServiceProtos.GetProductRequest request,
+                               StreamObserver<ProductServiceProtos.GetProductResponse> responseObserver) {
+            calls.incrementAndGet();
+            if (failWith != null) {
+                responseObserver.onError(failWith.asRuntimeException());
+            } else if (respondWith == null || request.getProductId().equals("slow-product")) {
+                pendingCalls.add(responseObserver);
+            } else {
+                responseObserver.onNext(respondWith);
+                responseObserver.onCompleted();
+            }
+        }
+    }
+
+    private class StubInventoryService extends InventoryServiceGrpc.InventoryServiceImplBase {
+        volatile InventoryServiceProtos.CheckAvailabilityResponse respondWith;
+
+        @Override
+        public void checkAvailability(InventoryServiceProtos.CheckAvailabilityRequest request,
+                                      StreamObserver<InventoryServiceProtos.CheckAvailabilityResponse> responseObserver) {
+            if (respondWith == null) {
+                pendingCalls.add(responseObserver);
+                return;
+            }
+            responseObserver.onNext(respondWith);
+            responseObserver.onCompleted();
+        }
+    }
+
+    private class StubReviewService extends ReviewServiceGrpc.ReviewServiceImplBase {
+        volatile ReviewServiceProtos.GetProductReviewsResponse respondWith;
+
+        @Override
+        public void getProductReviews(ReviewServiceProtos.GetProductReviewsRequest request,
+                                      StreamObserver<ReviewServiceProtos.GetProductReviewsResponse> responseObserver) {
+            if (respondWith == null) {
+                pendingCalls.add(responseObserver);
+                return;
+            }
+            responseObserver.onNext(respondWith);
+            responseObserver.onCompleted();
+        }
+    }
+}
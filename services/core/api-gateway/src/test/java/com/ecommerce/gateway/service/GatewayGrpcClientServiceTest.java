@@ -1,5 +1,6 @@
 package com.ecommerce.gateway.service;
 
+import com.ecommerce.gateway.config.GrpcClientProperties;
 import com.ecommerce.gateway.grpc.GrpcExceptionHandler;
 import com.ecommerce.gateway.grpc.GrpcMessageMapper;
 import com.ecommerce.shared.proto.CommonProtos;
@@ -9,6 +10,7 @@ import com.ecommerce.productservice.proto.ProductServiceGrpc;
 import com.ecommerce.productservice.proto.ProductServiceProtos;
 import com.ecommerce.cartservice.proto.CartServiceGrpc;
 import com.ecommerce.cartservice.proto.CartServiceProtos;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import org.junit.jupiter.api.BeforeEach;
@@ -49,7 +51,8 @@ class GatewayGrpcClientServiceTest {
     void setUp() {
         messageMapper = new GrpcMessageMapper();
         exceptionHandler = new GrpcExceptionHandler();
-        grpcClientService = new GatewayGrpcClientService(messageMapper, exceptionHandler);
+        grpcClientService = new GatewayGrpcClientService(messageMapper, exceptionHandler,
+            new GrpcClientProperties(), BulkheadRegistry.ofDefaults());
 
         // Use reflection to inject mocked stubs (in real implementation, use @InjectMocks or Spring test configuration)
         // For this test, we'll focus on testing the mapping and error handling logic
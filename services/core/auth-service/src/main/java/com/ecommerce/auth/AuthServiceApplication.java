@@ -1,5 +1,6 @@
 package com.ecommerce.auth;
 
+import com.ecommerce.auth.config.PasswordHashingProperties;
 import com.ecommerce.auth.config.TokenCleanupProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -13,7 +14,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
     "com.ecommerce.shared.security"
 })
 @EnableScheduling
-@EnableConfigurationProperties(TokenCleanupProperties.class)
+@EnableConfigurationProperties({TokenCleanupProperties.class, PasswordHashingProperties.class})
 public class AuthServiceApplication {
 
     public static void main(String[] args) {
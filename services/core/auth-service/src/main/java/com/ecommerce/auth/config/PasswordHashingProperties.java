@@ -0,0 +1,73 @@
+package com.ecommerce.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for password hashing
+ */
+@ConfigurationProperties(prefix = "auth.password.hashing")
+public class PasswordHashingProperties {
+
+    /**
+     * Threads that hash passwords; 0 means one per available processor
+     * Default: 0
+     */
+    private int threads = 0;
+
+    /**
+     * Hashing requests that may wait for a thread before further logins are rejected
+     * Default: 64
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * BCrypt cost of new hashes. Stored hashes below it are upgraded on the next successful login.
+     * Default: 12
+     */
+    private int bcryptStrength = 12;
+
+    /**
+     * Whether a successful login upgrades a hash below {@link #bcryptStrength} in the background
+     * Default: true
+     */
+    private boolean rehashOnLogin = true;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    public void setBcryptStrength(int bcryptStrength) {
+        this.bcryptStrength = bcryptStrength;
+    }
+
+    public boolean isRehashOnLogin() {
+        return rehashOnLogin;
+    }
+
+    public void setRehashOnLogin(boolean rehashOnLogin) {
+        this.rehashOnLogin = rehashOnLogin;
+    }
+
+    /**
+     * Pool size after resolving 0 to the processor count
+     */
+    public int getEffectiveThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
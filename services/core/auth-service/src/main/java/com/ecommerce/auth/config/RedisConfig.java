@@ -0,0 +1,27 @@
+package com.ecommerce.auth.config;
+
+import com.ecommerce.auth.service.AccountStatusCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis subscriptions of the authentication service
+ */
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Drops users from this instance's account status cache when any instance changes them
+     */
+    @Bean
+    public RedisMessageListenerContainer accountStatusListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                        AccountStatusCache accountStatusCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(accountStatusCache, new ChannelTopic(AccountStatusCache.CHANNEL));
+        return container;
+    }
+}
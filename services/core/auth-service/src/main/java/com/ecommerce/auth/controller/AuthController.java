@@ -2,6 +2,7 @@ package com.ecommerce.auth.controller;
 
 import com.ecommerce.auth.dto.*;
 import com.ecommerce.auth.service.AuthenticationService;
+import com.ecommerce.auth.service.PasswordHashingRejectedException;
 import com.ecommerce.shared.models.dto.ErrorResponse;
 import com.ecommerce.shared.utils.CorrelationIdGenerator;
 import io.micrometer.core.annotation.Timed;
@@ -12,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -74,6 +76,14 @@ public class AuthController {
             
             return ResponseEntity.ok(response);
             
+        } catch (PasswordHashingRejectedException e) {
+            logger.warn("Login rejected for user: {} in tenant: {} - password hashing queue is full",
+                       loginRequest.getUsernameOrEmail(), loginRequest.getTenantId());
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse("SERVICE_BUSY", "Too many login attempts, please retry shortly"));
+
         } catch (IllegalArgumentException e) {
             loginFailureCounter.increment();
             logger.warn("Login failed for user: {} in tenant: {} - {}", 
@@ -198,7 +208,7 @@ public class AuthController {
             MDC.put("userId", validation.getUserId());
             MDC.put("tenantId", validation.getTenantId());
             
-            authenticationService.logout(validation.getUserId());
+            authenticationService.logout(validation.getUserId(), token);
             
             logger.info("Logout successful for user: {}", validation.getUserId());
             
@@ -2,6 +2,7 @@ package com.ecommerce.auth.dto;
 
 import com.ecommerce.auth.entity.Role;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -15,6 +16,7 @@ public class TokenValidationResponse {
     private String username;
     private List<Role> roles;
     private String errorMessage;
+    private Instant expiresAt;
 
     public TokenValidationResponse() {}
 
@@ -83,6 +85,14 @@ public class TokenValidationResponse {
         this.errorMessage = errorMessage;
     }
 
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
     @Override
     public String toString() {
         return "TokenValidationResponse{" +
@@ -92,6 +102,7 @@ public class TokenValidationResponse {
                 ", username='" + username + '\'' +
                 ", roles=" + roles +
                 ", errorMessage='" + errorMessage + '\'' +
+                ", expiresAt=" + expiresAt +
                 '}';
     }
 }
\ No newline at end of file
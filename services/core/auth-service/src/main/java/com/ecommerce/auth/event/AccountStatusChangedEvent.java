@@ -0,0 +1,35 @@
+package com.ecommerce.auth.event;
+
+/**
+ * Published when something happens to an account that tokens already issued to it must see,
+ * so caches of account status can drop the user
+ */
+public class AccountStatusChangedEvent {
+
+    public enum Reason {
+        LOCKED,
+        DEACTIVATED,
+        LOGGED_OUT
+    }
+
+    private final Long userId;
+    private final Reason reason;
+
+    public AccountStatusChangedEvent(Long userId, Reason reason) {
+        this.userId = userId;
+        this.reason = reason;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountStatusChangedEvent{userId=" + userId + ", reason=" + reason + '}';
+    }
+}
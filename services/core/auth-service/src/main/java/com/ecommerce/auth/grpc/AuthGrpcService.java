@@ -0,0 +1,174 @@
+package com.ecommerce.auth.grpc;
+
+import com.ecommerce.auth.dto.RefreshTokenRequest;
+import com.ecommerce.auth.dto.TokenResponse;
+import com.ecommerce.auth.dto.TokenValidationRequest;
+import com.ecommerce.auth.dto.TokenValidationResponse;
+import com.ecommerce.auth.entity.Role;
+import com.ecommerce.auth.entity.UserAuth;
+import com.ecommerce.auth.repository.UserAuthRepository;
+import com.ecommerce.auth.service.AuthenticationService;
+import com.ecommerce.authservice.proto.AuthServiceGrpc;
+import com.ecommerce.authservice.proto.AuthServiceProtos.*;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * gRPC service implementation for Auth Service, backed by {@link AuthenticationService}
+ */
+@GrpcService
+public class AuthGrpcService extends AuthServiceGrpc.AuthServiceImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthGrpcService.class);
+
+    private final AuthenticationService authenticationService;
+    private final UserAuthRepository userAuthRepository;
+
+    @Autowired
+    public AuthGrpcService(AuthenticationService authenticationService, UserAuthRepository userAuthRepository) {
+        this.authenticationService = authenticationService;
+        this.userAuthRepository = userAuthRepository;
+    }
+
+    @Override
+    public void validateToken(ValidateTokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
+        try {
+            logger.debug("gRPC ValidateToken request");
+
+            TokenValidationResponse result = authenticationService.validateToken(
+                new TokenValidationRequest(request.getToken()));
+
+            responseObserver.onNext(toProto(result));
+            responseObserver.onCompleted();
+
+            logger.debug("gRPC ValidateToken completed, valid: {}", result.isValid());
+
+        } catch (Exception e) {
+            logger.error("Error validating token", e);
+
+            ValidateTokenResponse response = ValidateTokenResponse.newBuilder()
+                .setIsValid(false)
+                .build();
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        }
+    }
+
+    @Override
+    public void validateTokens(ValidateTokensRequest request, StreamObserver<ValidateTokensResponse> responseObserver) {
+        try {
+            logger.debug("gRPC ValidateTokens request for {} tokens", request.getTokensCount());
+
+            List<TokenValidationResponse> results = authenticationService.validateTokens(request.getTokensList());
+
+            ValidateTokensResponse.Builder responseBuilder = ValidateTokensResponse.newBuilder();
+            for (TokenValidationResponse result : results) {
+                responseBuilder.addResults(toProto(result));
+            }
+
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            logger.error("Error validating tokens", e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Failed to validate tokens")
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void getUserFromToken(GetUserFromTokenRequest request, StreamObserver<GetUserFromTokenResponse> responseObserver) {
+        try {
+            logger.debug("gRPC GetUserFromToken request");
+
+            TokenValidationResponse result = authenticationService.validateToken(
+                new TokenValidationRequest(request.getToken()));
+
+            GetUserFromTokenResponse.Builder responseBuilder = GetUserFromTokenResponse.newBuilder()
+                .setIsValid(result.isValid());
+
+            if (result.isValid()) {
+                responseBuilder
+                    .setTenantId(result.getTenantId())
+                    .setUserId(result.getUserId());
+                for (Role role : result.getRoles()) {
+                    responseBuilder.addRoles(role.name());
+                }
+                userAuthRepository.findById(Long.valueOf(result.getUserId()))
+                    .map(UserAuth::getEmail)
+                    .ifPresent(responseBuilder::setEmail);
+            }
+
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            logger.error("Error getting user from token", e);
+
+            GetUserFromTokenResponse response = GetUserFromTokenResponse.newBuilder()
+                .setIsValid(false)
+                .build();
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        }
+    }
+
+    @Override
+    public void refreshToken(com.ecommerce.authservice.proto.AuthServiceProtos.RefreshTokenRequest request,
+                             StreamObserver<RefreshTokenResponse> responseObserver) {
+        RefreshTokenResponse.Builder responseBuilder = RefreshTokenResponse.newBuilder()
+            .setAccessToken("")
+            .setRefreshToken("")
+            .setExpiresAt(0)
+            .setErrorMessage("");
+        try {
+            logger.info("gRPC RefreshToken request");
+
+            TokenResponse tokens = authenticationService.refreshToken(
+                new RefreshTokenRequest(request.getRefreshToken()));
+
+            // Refresh tokens are not rotated, so the caller keeps using the one it sent
+            responseBuilder
+                .setSuccess(true)
+                .setAccessToken(tokens.getAccessToken())
+                .setRefreshToken(request.getRefreshToken())
+                .setExpiresAt(Instant.now().plusSeconds(tokens.getExpiresIn()).getEpochSecond());
+
+        } catch (Exception e) {
+            logger.error("Error refreshing token", e);
+            responseBuilder
+                .setSuccess(false)
+                .setErrorMessage(e.getMessage() != null ? e.getMessage() : "Invalid refresh token");
+        }
+        responseObserver.onNext(responseBuilder.build());
+        responseObserver.onCompleted();
+    }
+
+    private static ValidateTokenResponse toProto(TokenValidationResponse result) {
+        ValidateTokenResponse.Builder responseBuilder = ValidateTokenResponse.newBuilder()
+            .setIsValid(result.isValid());
+
+        if (result.isValid()) {
+            responseBuilder
+                .setTenantId(result.getTenantId())
+                .setUserId(result.getUserId());
+            for (Role role : result.getRoles()) {
+                responseBuilder.addRoles(role.name());
+            }
+            if (result.getExpiresAt() != null) {
+                responseBuilder.setExpiresAt(result.getExpiresAt().getEpochSecond());
+            }
+        }
+        return responseBuilder.build();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -73,4 +74,16 @@ public interface UserAuthRepository extends JpaRepository<UserAuth, Long>, Tenan
     @Query("SELECT u FROM UserAuth u WHERE u.tenantId = :tenantId AND (u.username = :usernameOrEmail OR u.email = :usernameOrEmail) AND u.isActive = true AND u.accountLocked = false")
     Optional<UserAuth> findActiveUserByTenantIdAndUsernameOrEmail(@Param("tenantId") String tenantId, 
                                                                   @Param("usernameOrEmail") String usernameOrEmail);
-}
\ No newline at end of file
+
+    /**
+     * Replace a password hash, unless the password was changed since the old hash was read
+     *
+     * @return the number of users updated, 0 or 1
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserAuth u SET u.passwordHash = :newHash WHERE u.id = :userId AND u.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("userId") Long userId,
+                           @Param("oldHash") String oldHash,
+                           @Param("newHash") String newHash);
+}
@@ -0,0 +1,189 @@
+package com.ecommerce.auth.service;
+
+import com.ecommerce.auth.entity.UserAuth;
+import com.ecommerce.auth.event.AccountStatusChangedEvent;
+import com.ecommerce.shared.utils.cache.BoundedTtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded local cache of whether an account may still use its tokens, keyed by user ID.
+ *
+ * Token validation reads it instead of loading the user on every call. Entries expire after a
+ * short TTL. Once an {@link AccountStatusChangedEvent} commits, the user is dropped here and
+ * published on a Redis channel every instance subscribes to, so a lock or logout reaches the
+ * other replicas' caches too; an instance that misses the message trusts the old status for at
+ * most the TTL. Every invalidation bumps a generation counter; a load that started before an
+ * invalidation does not store its result, so a read racing a lock cannot put the old status back.
+ */
+@Component
+public class AccountStatusCache implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountStatusCache.class);
+
+    /** Redis channel carrying the IDs of users whose status changed */
+    public static final String CHANNEL = "auth:account-status-changed";
+
+    private final BoundedTtlCache<Long, AccountStatus> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final StringRedisTemplate redisTemplate;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    @Autowired
+    public AccountStatusCache(@Value("${auth.validation.account-cache.ttl-ms:30000}") long ttlMillis,
+                              @Value("${auth.validation.account-cache.max-size:100000}") int maxSize,
+                              StringRedisTemplate redisTemplate,
+                              MeterRegistry meterRegistry) {
+        this(ttlMillis, maxSize, redisTemplate, meterRegistry, System::nanoTime);
+    }
+
+    AccountStatusCache(long ttlMillis, int maxSize, StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+                       LongSupplier nanoClock) {
+        this.entries = new BoundedTtlCache<>(maxSize, ttlMillis * 1_000_000L, nanoClock, null);
+        this.redisTemplate = redisTemplate;
+        this.hitCounter = Counter.builder("auth.account_status_cache.hits")
+            .description("Token validations that found the account status cached")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("auth.account_status_cache.misses")
+            .description("Token validations that had to load the account")
+            .register(meterRegistry);
+        Gauge.builder("auth.account_status_cache.size", entries, BoundedTtlCache::size)
+            .description("Accounts held in the status cache")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Current generation; pass it back to {@link #put} after loading missing accounts
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Look up one account
+     *
+     * @return the cached status, or {@code null} if it is missing or expired
+     */
+    public AccountStatus get(Long userId) {
+        AccountStatus status = entries.get(userId);
+        (status != null ? hitCounter : missCounter).increment();
+        return status;
+    }
+
+    /**
+     * Look up several accounts
+     *
+     * @return the accounts that were cached and still fresh, keyed by user ID
+     */
+    public Map<Long, AccountStatus> getAll(Collection<Long> userIds) {
+        Map<Long, AccountStatus> found = new HashMap<>();
+        for (Long userId : userIds) {
+            AccountStatus status = entries.get(userId);
+            if (status != null) {
+                found.put(userId, status);
+            }
+        }
+        hitCounter.increment(found.size());
+        missCounter.increment(userIds.size() - found.size());
+        return found;
+    }
+
+    /**
+     * Cache an account loaded from the database. Dropped if an account was invalidated after the
+     * caller took {@code loadGeneration}, so a lock that lands mid-load is not hidden by the status
+     * read before it
+     */
+    public void put(Long userId, AccountStatus status, long loadGeneration) {
+        if (generation.get() != loadGeneration) {
+            return;
+        }
+        entries.put(userId, status);
+    }
+
+    /**
+     * Drop an account, e.g. because it was locked
+     */
+    public void invalidate(Long userId) {
+        generation.incrementAndGet();
+        entries.remove(userId);
+    }
+
+    /**
+     * Runs once the change is committed, or straight away outside a transaction
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountStatusChanged(AccountStatusChangedEvent event) {
+        logger.debug("Invalidating cached account status: {}", event);
+        invalidate(event.getUserId());
+        try {
+            redisTemplate.convertAndSend(CHANNEL, event.getUserId().toString());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to broadcast {}, other instances drop the user within the cache TTL", event, e);
+        }
+    }
+
+    /**
+     * A user ID published on {@link #CHANNEL} by any instance, this one included
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String userId = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            invalidate(Long.valueOf(userId));
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed account status message: {}", userId);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * What token validation needs to know about an account
+     */
+    public static final class AccountStatus {
+        private final String username;
+        private final boolean usable;
+
+        public AccountStatus(String username, boolean usable) {
+            this.username = username;
+            this.usable = usable;
+        }
+
+        public static AccountStatus of(UserAuth user) {
+            return new AccountStatus(user.getUsername(),
+                Boolean.TRUE.equals(user.getIsActive()) && !Boolean.TRUE.equals(user.getAccountLocked()));
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        /**
+         * Active and not locked
+         */
+        public boolean isUsable() {
+            return usable;
+        }
+    }
+}
@@ -4,23 +4,33 @@ import com.ecommerce.auth.dto.*;
 import com.ecommerce.auth.entity.RefreshToken;
 import com.ecommerce.auth.entity.Role;
 import com.ecommerce.auth.entity.UserAuth;
+import com.ecommerce.auth.event.AccountStatusChangedEvent;
 import com.ecommerce.auth.repository.RefreshTokenRepository;
 import com.ecommerce.auth.repository.UserAuthRepository;
-import com.ecommerce.auth.util.PasswordUtil;
+import com.ecommerce.auth.service.AccountStatusCache.AccountStatus;
+import com.ecommerce.shared.security.JwtPrincipal;
 import com.ecommerce.shared.security.JwtTokenProvider;
 import com.ecommerce.shared.utils.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -35,8 +45,13 @@ public class AuthenticationService {
 
     private final UserAuthRepository userAuthRepository;
     private final RefreshTokenRepository refreshTokenRepository;
-    private final PasswordUtil passwordUtil;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final JwtTokenProvider jwtTokenProvider;
+    private final AccountStatusCache accountStatusCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer validationTimer;
+    private final Timer batchValidationTimer;
 
     @Value("${jwt.access-token.expiration:3600}")
     private long accessTokenExpiration;
@@ -47,17 +62,36 @@ public class AuthenticationService {
     @Autowired
     public AuthenticationService(UserAuthRepository userAuthRepository,
                                RefreshTokenRepository refreshTokenRepository,
-                               PasswordUtil passwordUtil,
-                               JwtTokenProvider jwtTokenProvider) {
+                               PasswordHashingExecutor passwordHashingExecutor,
+                               JwtTokenProvider jwtTokenProvider,
+                               AccountStatusCache accountStatusCache,
+                               TokenRevocationList tokenRevocationList,
+                               ApplicationEventPublisher eventPublisher,
+                               MeterRegistry meterRegistry) {
         this.userAuthRepository = userAuthRepository;
         this.refreshTokenRepository = refreshTokenRepository;
-        this.passwordUtil = passwordUtil;
+        this.passwordHashingExecutor = passwordHashingExecutor;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.accountStatusCache = accountStatusCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.eventPublisher = eventPublisher;
+        this.validationTimer = Timer.builder("auth.token.validation")
+            .description("Time to validate an access token")
+            .tag("mode", "single")
+            .register(meterRegistry);
+        this.batchValidationTimer = Timer.builder("auth.token.validation")
+            .description("Time to validate an access token")
+            .tag("mode", "batch")
+            .register(meterRegistry);
     }
 
     /**
      * Authenticate user and generate tokens
+     *
+     * Runs without a surrounding transaction so no database connection is held while the password
+     * is hashed; each repository call commits on its own.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LoginResponse login(LoginRequest loginRequest) {
         logger.info("Login attempt for user: {} in tenant: {}", 
                    loginRequest.getUsernameOrEmail(), loginRequest.getTenantId());
@@ -92,7 +126,7 @@ public class AuthenticationService {
         }
 
         // Verify password
-        if (!passwordUtil.verifyPassword(loginRequest.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingExecutor.verifyPassword(loginRequest.getPassword(), user.getPasswordHash())) {
             handleFailedLogin(user);
             logger.warn("Login failed - invalid password for user: {} in tenant: {}", 
                        user.getUsername(), user.getTenantId());
@@ -105,6 +139,16 @@ public class AuthenticationService {
             userAuthRepository.save(user);
         }
 
+        // Upgrade a hash below the configured cost; scheduled after the save above so that
+        // save cannot write the old hash back
+        Long userId = user.getId();
+        String oldHash = user.getPasswordHash();
+        passwordHashingExecutor.rehashIfNeeded(loginRequest.getPassword(), oldHash, newHash -> {
+            if (userAuthRepository.updatePasswordHash(userId, oldHash, newHash) == 1) {
+                logger.info("Upgraded password hash for user: {}", userId);
+            }
+        });
+
         // Generate tokens
         List<String> roleStrings = user.getRoles().stream()
             .map(Role::name)
@@ -146,7 +190,7 @@ public class AuthenticationService {
         logger.info("Token refresh attempt");
 
         try {
-            // Validate refresh token
+            // Validate refresh token; always checked in full since each one is used only once
             var decodedJWT = jwtTokenProvider.validateToken(request.getRefreshToken());
             String tokenType = decodedJWT.getClaim("token_type").asString();
             
@@ -206,50 +250,175 @@ public class AuthenticationService {
      * Validate access token
      */
     public TokenValidationResponse validateToken(TokenValidationRequest request) {
+        Timer.Sample sample = Timer.start();
         try {
-            var decodedJWT = jwtTokenProvider.validateToken(request.getToken());
-            String tokenType = decodedJWT.getClaim("token_type").asString();
-            
-            if (!"access".equals(tokenType)) {
-                return new TokenValidationResponse(false, "Invalid token type");
+            VerifiedToken verified = verifyToken(request.getToken());
+            if (verified.rejection != null) {
+                return verified.rejection;
+            }
+            if (tokenRevocationList.isRevoked(verified.tokenHash)) {
+                return new TokenValidationResponse(false, "Token has been revoked");
             }
+            return toResponse(verified, accountStatus(verified.userId));
 
-            String userId = decodedJWT.getSubject();
-            String tenantId = decodedJWT.getClaim("tenant_id").asString();
-            List<String> roleStrings = decodedJWT.getClaim("roles").asList(String.class);
+        } catch (Exception e) {
+            logger.debug("Token validation failed: {}", e.getMessage());
+            return new TokenValidationResponse(false, "Invalid token");
+        } finally {
+            sample.stop(validationTimer);
+        }
+    }
 
-            // Verify user still exists and is active
-            UserAuth user = userAuthRepository.findById(Long.valueOf(userId))
-                .orElse(null);
+    /**
+     * Validate several access tokens at once, checking revocations in one Redis round trip and
+     * loading the accounts that are not cached in one query
+     *
+     * @return one response per token, in the order given
+     */
+    public List<TokenValidationResponse> validateTokens(List<String> tokens) {
+        Timer.Sample sample = Timer.start();
+        try {
+            List<VerifiedToken> verified = tokens.stream()
+                .map(this::verifyToken)
+                .collect(Collectors.toList());
+
+            Set<String> tokenHashes = new LinkedHashSet<>();
+            for (VerifiedToken token : verified) {
+                if (token.rejection == null) {
+                    tokenHashes.add(token.tokenHash);
+                }
+            }
+            Set<String> revoked;
+            try {
+                revoked = tokenRevocationList.findRevoked(tokenHashes);
+            } catch (Exception e) {
+                logger.warn("Token revocation check failed, rejecting batch: {}", e.getMessage());
+                return tokens.stream()
+                    .map(token -> new TokenValidationResponse(false, "Invalid token"))
+                    .collect(Collectors.toList());
+            }
 
-            if (user == null || !user.getIsActive() || user.getAccountLocked()) {
-                return new TokenValidationResponse(false, "User account is inactive or locked");
+            Set<Long> userIds = new LinkedHashSet<>();
+            for (VerifiedToken token : verified) {
+                if (token.rejection == null && !revoked.contains(token.tokenHash)) {
+                    userIds.add(token.userId);
+                }
+            }
+            Map<Long, AccountStatus> statuses = accountStatuses(userIds);
+
+            return verified.stream()
+                .map(token -> token.rejection != null ? token.rejection
+                    : revoked.contains(token.tokenHash) ? new TokenValidationResponse(false, "Token has been revoked")
+                    : toResponse(token, statuses.get(token.userId)))
+                .collect(Collectors.toList());
+        } finally {
+            sample.stop(batchValidationTimer);
+        }
+    }
+
+    /**
+     * Logout user by revoking refresh tokens
+     */
+    public void logout(String userId) {
+        logout(userId, null);
+    }
+
+    /**
+     * Logout user by revoking refresh tokens and the access token the logout was made with
+     */
+    public void logout(String userId, String accessToken) {
+        logger.info("Logout for user: {}", userId);
+        Long id = Long.valueOf(userId);
+        refreshTokenRepository.revokeAllTokensForUser(id);
+
+        if (accessToken != null) {
+            JwtPrincipal principal = jwtTokenProvider.verify(accessToken);
+            if (principal.getExpiresAt() != null) {
+                tokenRevocationList.revoke(hashToken(accessToken), principal.getExpiresAt());
+            }
+        }
+        eventPublisher.publishEvent(new AccountStatusChangedEvent(id, AccountStatusChangedEvent.Reason.LOGGED_OUT));
+    }
+
+    /**
+     * Check everything about a token that needs neither Redis nor its account
+     */
+    private VerifiedToken verifyToken(String token) {
+        try {
+            JwtPrincipal principal = jwtTokenProvider.verify(token);
+
+            if (!principal.isAccessToken()) {
+                return VerifiedToken.rejected("Invalid token type");
+            }
+
+            String userId = principal.getUserId();
+            String tenantId = principal.getTenantId();
+            List<String> roleStrings = principal.getRoles();
+            if (userId == null || tenantId == null || roleStrings == null) {
+                return VerifiedToken.rejected("Invalid token");
             }
 
             List<Role> roles = roleStrings.stream()
                 .map(Role::valueOf)
                 .collect(Collectors.toList());
 
-            return new TokenValidationResponse(
-                true, 
-                userId, 
-                tenantId, 
-                user.getUsername(), 
-                roles
-            );
+            return new VerifiedToken(principal, Long.valueOf(userId), roles, hashToken(token));
 
         } catch (Exception e) {
             logger.debug("Token validation failed: {}", e.getMessage());
-            return new TokenValidationResponse(false, "Invalid token");
+            return VerifiedToken.rejected("Invalid token");
         }
     }
 
-    /**
-     * Logout user by revoking refresh tokens
-     */
-    public void logout(String userId) {
-        logger.info("Logout for user: {}", userId);
-        refreshTokenRepository.revokeAllTokensForUser(Long.valueOf(userId));
+    private TokenValidationResponse toResponse(VerifiedToken token, AccountStatus status) {
+        // Verify user still exists and is active
+        if (status == null || !status.isUsable()) {
+            return new TokenValidationResponse(false, "User account is inactive or locked");
+        }
+
+        TokenValidationResponse response = new TokenValidationResponse(
+            true,
+            token.principal.getUserId(),
+            token.principal.getTenantId(),
+            status.getUsername(),
+            token.roles
+        );
+        response.setExpiresAt(token.principal.getExpiresAt());
+        return response;
+    }
+
+    private AccountStatus accountStatus(Long userId) {
+        AccountStatus cached = accountStatusCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = accountStatusCache.generation();
+        UserAuth user = userAuthRepository.findById(userId).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        AccountStatus status = AccountStatus.of(user);
+        accountStatusCache.put(userId, status, generation);
+        return status;
+    }
+
+    private Map<Long, AccountStatus> accountStatuses(Set<Long> userIds) {
+        Map<Long, AccountStatus> statuses = new HashMap<>(accountStatusCache.getAll(userIds));
+        if (statuses.size() == userIds.size()) {
+            return statuses;
+        }
+
+        long generation = accountStatusCache.generation();
+        List<Long> missing = userIds.stream()
+            .filter(userId -> !statuses.containsKey(userId))
+            .collect(Collectors.toList());
+        for (UserAuth user : userAuthRepository.findAllById(missing)) {
+            AccountStatus status = AccountStatus.of(user);
+            statuses.put(user.getId(), status);
+            accountStatusCache.put(user.getId(), status, generation);
+        }
+        return statuses;
     }
 
     /**
@@ -258,6 +427,11 @@ public class AuthenticationService {
     private void handleFailedLogin(UserAuth user) {
         user.incrementFailedLoginAttempts();
         userAuthRepository.save(user);
+
+        if (user.getAccountLocked()) {
+            eventPublisher.publishEvent(
+                new AccountStatusChangedEvent(user.getId(), AccountStatusChangedEvent.Reason.LOCKED));
+        }
         
         logger.warn("Failed login attempt {} for user: {} in tenant: {}", 
                    user.getFailedLoginAttempts(), user.getUsername(), user.getTenantId());
@@ -314,4 +488,35 @@ public class AuthenticationService {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
         refreshTokenRepository.deleteRevokedTokensOlderThan(cutoffDate);
     }
-}
\ No newline at end of file
+
+    /**
+     * Outcome of {@link #verifyToken}: either the verified claims, or the response rejecting the token
+     */
+    private static final class VerifiedToken {
+        private final JwtPrincipal principal;
+        private final Long userId;
+        private final List<Role> roles;
+        private final String tokenHash;
+        private final TokenValidationResponse rejection;
+
+        private VerifiedToken(JwtPrincipal principal, Long userId, List<Role> roles, String tokenHash) {
+            this.principal = principal;
+            this.userId = userId;
+            this.roles = roles;
+            this.tokenHash = tokenHash;
+            this.rejection = null;
+        }
+
+        private VerifiedToken(TokenValidationResponse rejection) {
+            this.principal = null;
+            this.userId = null;
+            this.roles = null;
+            this.tokenHash = null;
+            this.rejection = rejection;
+        }
+
+        private static VerifiedToken rejected(String errorMessage) {
+            return new VerifiedToken(new TokenValidationResponse(false, errorMessage));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.auth.service;
+
+import com.ecommerce.auth.config.PasswordHashingProperties;
+import com.ecommerce.auth.util.PasswordUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs BCrypt on a pool sized to the CPU count, so password hashing never occupies request threads.
+ *
+ * The pool's queue is bounded. Once it is full, further logins fail straight away with
+ * {@link PasswordHashingRejectedException} rather than wait behind a backlog that only grows
+ * during a credential-stuffing burst. Requests run on virtual threads, so a login waiting for its
+ * hash holds no platform thread and refresh and validate calls keep being served.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final PasswordUtil passwordUtil;
+    private final PasswordHashingProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Timer verifyTimer;
+    private final Timer rehashTimer;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public PasswordHashingExecutor(PasswordUtil passwordUtil, PasswordHashingProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.passwordUtil = passwordUtil;
+        this.properties = properties;
+        int threads = properties.getEffectiveThreads();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+            Thread.ofPlatform().name("password-hashing-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+        this.verifyTimer = Timer.builder("auth.password_hashing.duration")
+            .description("Time spent hashing a password on the hashing pool")
+            .tag("operation", "verify")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rehashTimer = Timer.builder("auth.password_hashing.duration")
+            .description("Time spent hashing a password on the hashing pool")
+            .tag("operation", "rehash")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password_hashing.rejected")
+            .description("Logins rejected because the password hashing queue was full")
+            .register(meterRegistry);
+        Gauge.builder("auth.password_hashing.queue.depth", executor, pool -> pool.getQueue().size())
+            .description("Password hashing requests waiting for a thread")
+            .register(meterRegistry);
+        Gauge.builder("auth.password_hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Passwords being hashed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Verify a password on the hashing pool and wait for the result
+     *
+     * @throws PasswordHashingRejectedException if the queue is full
+     */
+    public boolean verifyPassword(String plainPassword, String hashedPassword) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> verifyTimer.record(() -> passwordUtil.verifyPassword(plainPassword, hashedPassword)));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Too many concurrent logins", e);
+        }
+        return await(result);
+    }
+
+    /**
+     * Rehash a just-verified password in the background if its stored hash is below the configured
+     * cost. Upgrades are best effort: they are skipped while the queue is more than half full, so
+     * they never take capacity that logins need.
+     *
+     * @param onRehashed receives the new hash, on a hashing thread
+     * @return whether an upgrade was scheduled
+     */
+    public boolean rehashIfNeeded(String plainPassword, String hashedPassword, Consumer<String> onRehashed) {
+        if (!properties.isRehashOnLogin() || !passwordUtil.needsRehash(hashedPassword)) {
+            return false;
+        }
+        if (executor.getQueue().size() >= properties.getQueueCapacity() / 2) {
+            logger.debug("Skipping password rehash, hashing queue is busy");
+            return false;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    onRehashed.accept(rehashTimer.record(() -> passwordUtil.rehashPassword(plainPassword)));
+                } catch (Exception e) {
+                    logger.warn("Password rehash failed: {}", e.getMessage());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static <T> T await(Future<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.auth.service;
+
+/**
+ * Thrown when the password hashing pool is saturated and a login cannot be queued
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.auth.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Access tokens revoked before they expire, e.g. on logout, held by hash in Redis until their
+ * expiry.
+ *
+ * Every instance checks the same keys, so a token revoked through one instance is rejected by all
+ * of them. Each key expires with its token, so Redis only holds tokens that are revoked and still
+ * unexpired, and the check is exact: a revoked token is always rejected and no other token ever is.
+ */
+@Component
+public class TokenRevocationList {
+
+    static final String KEY_PREFIX = "auth:revoked:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+
+    @Autowired
+    public TokenRevocationList(StringRedisTemplate redisTemplate) {
+        this(redisTemplate, Clock.systemUTC());
+    }
+
+    TokenRevocationList(StringRedisTemplate redisTemplate, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+    }
+
+    /**
+     * Revoke a token until it expires
+     *
+     * @param tokenHash SHA-256 hash of the token
+     * @param expiresAt when the token stops being valid anyway
+     */
+    public void revoke(String tokenHash, Instant expiresAt) {
+        Duration remaining = Duration.between(clock.instant(), expiresAt);
+        if (remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+        redisTemplate.opsForValue().set(KEY_PREFIX + tokenHash, "1", remaining);
+    }
+
+    public boolean isRevoked(String tokenHash) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenHash));
+    }
+
+    /**
+     * Check several tokens in one round trip
+     *
+     * @return the hashes of the revoked ones
+     */
+    public Set<String> findRevoked(Collection<String> tokenHashes) {
+        Set<String> revoked = new HashSet<>();
+        if (tokenHashes.isEmpty()) {
+            return revoked;
+        }
+        List<String> hashes = List.copyOf(tokenHashes);
+        List<String> values = redisTemplate.opsForValue().multiGet(
+            hashes.stream().map(hash -> KEY_PREFIX + hash).toList());
+        for (int i = 0; values != null && i < hashes.size(); i++) {
+            if (values.get(i) != null) {
+                revoked.add(hashes.get(i));
+            }
+        }
+        return revoked;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ecommerce.auth.util;
 
+import com.ecommerce.auth.config.PasswordHashingProperties;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -13,8 +15,7 @@ import java.util.regex.Pattern;
 @Component
 public class PasswordUtil {
 
-    private static final int BCRYPT_STRENGTH = 12;
-    private static final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(BCRYPT_STRENGTH, new SecureRandom());
+    private static final int DEFAULT_BCRYPT_STRENGTH = 12;
 
     // Password validation patterns
     private static final Pattern PASSWORD_PATTERN = Pattern.compile(
@@ -24,6 +25,23 @@ public class PasswordUtil {
     private static final int MIN_PASSWORD_LENGTH = 8;
     private static final int MAX_PASSWORD_LENGTH = 128;
 
+    private final int bcryptStrength;
+    private final PasswordEncoder passwordEncoder;
+
+    public PasswordUtil() {
+        this(DEFAULT_BCRYPT_STRENGTH);
+    }
+
+    @Autowired
+    public PasswordUtil(PasswordHashingProperties properties) {
+        this(properties.getBcryptStrength());
+    }
+
+    private PasswordUtil(int bcryptStrength) {
+        this.bcryptStrength = bcryptStrength;
+        this.passwordEncoder = new BCryptPasswordEncoder(bcryptStrength, new SecureRandom());
+    }
+
     /**
      * Hash a plain text password using BCrypt
      */
@@ -36,6 +54,17 @@ public class PasswordUtil {
         return passwordEncoder.encode(plainPassword);
     }
 
+    /**
+     * Hash a password that was just verified, at the current cost. Skips the strength checks,
+     * since the user may have chosen it under older rules.
+     */
+    public String rehashPassword(String plainPassword) {
+        if (plainPassword == null || plainPassword.isEmpty()) {
+            throw new IllegalArgumentException("Password cannot be null or empty");
+        }
+        return passwordEncoder.encode(plainPassword);
+    }
+
     /**
      * Verify a plain text password against a hashed password
      */
@@ -94,7 +123,7 @@ public class PasswordUtil {
             String[] parts = hashedPassword.split("\\$");
             if (parts.length >= 3) {
                 int strength = Integer.parseInt(parts[2]);
-                return strength < BCRYPT_STRENGTH;
+                return strength < bcryptStrength;
             }
         } catch (NumberFormatException e) {
             return true;
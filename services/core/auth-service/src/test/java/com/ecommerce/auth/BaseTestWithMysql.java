@@ -5,6 +5,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -54,6 +55,11 @@ public abstract class BaseTestWithMysql {
                         "--max-connections=50") // Limit connections for test environment
             .withTmpFs(Map.of("/var/lib/mysql", "rw,noexec,nosuid,size=512m")); // Use tmpfs for better I/O performance
 
+    // Revoked tokens and account status broadcasts
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine")
+            .withExposedPorts(6379);
+
     @DynamicPropertySource
     static void configureProperties(DynamicPropertyRegistry registry) {
         // Database connection properties
@@ -61,6 +67,8 @@ public abstract class BaseTestWithMysql {
         registry.add("spring.datasource.username", mysql::getUsername);
         registry.add("spring.datasource.password", mysql::getPassword);
         registry.add("spring.datasource.driver-class-name", () -> "com.mysql.cj.jdbc.Driver");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
         
         // JPA/Hibernate properties
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate"); // Validate schema matches entities
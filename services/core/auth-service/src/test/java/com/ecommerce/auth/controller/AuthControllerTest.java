@@ -3,6 +3,7 @@ package com.ecommerce.auth.controller;
 import com.ecommerce.auth.dto.*;
 import com.ecommerce.auth.entity.Role;
 import com.ecommerce.auth.service.AuthenticationService;
+import com.ecommerce.auth.service.PasswordHashingRejectedException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
@@ -143,6 +144,22 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.timestamp").exists());
     }
 
+    @Test
+    @Order(2)
+    void testLogin_HashingSaturated_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(authenticationService.login(any(LoginRequest.class)))
+            .thenThrow(new PasswordHashingRejectedException("Too many concurrent logins"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.code").value("SERVICE_BUSY"));
+    }
+
     @Test
     @Order(3)
     void testLogin_InvalidRequest_ShouldReturnBadRequest() throws Exception {
@@ -0,0 +1,135 @@
+package com.ecommerce.auth.service;
+
+import com.ecommerce.auth.event.AccountStatusChangedEvent;
+import com.ecommerce.auth.service.AccountStatusCache.AccountStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountStatusCacheTest {
+
+    private static final long TTL_MS = 30000;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private AccountStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AccountStatusCache(TTL_MS, 3, redisTemplate, meterRegistry, clock::get);
+    }
+
+    @Test
+    void get_ShouldReturnFreshEntriesOnly() {
+        // Given
+        cache.put(1L, new AccountStatus("user1", true), cache.generation());
+
+        // When & Then
+        assertEquals("user1", cache.get(1L).getUsername());
+        clock.addAndGet(TTL_MS * 1_000_000L);
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_AfterInvalidationDuringLoad_ShouldNotCacheStaleStatus() {
+        // Given - a load starts, then the account is locked before it completes
+        long generation = cache.generation();
+        cache.invalidate(1L);
+
+        // When
+        cache.put(1L, new AccountStatus("user1", true), generation);
+
+        // Then
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void onAccountStatusChanged_ShouldDropAccount() {
+        // Given
+        cache.put(1L, new AccountStatus("user1", true), cache.generation());
+        cache.put(2L, new AccountStatus("user2", true), cache.generation());
+
+        // When
+        cache.onAccountStatusChanged(new AccountStatusChangedEvent(1L, AccountStatusChangedEvent.Reason.LOCKED));
+
+        // Then
+        assertNull(cache.get(1L));
+        assertNotNull(cache.get(2L));
+        verify(redisTemplate).convertAndSend(AccountStatusCache.CHANNEL, "1");
+    }
+
+    @Test
+    void onAccountStatusChanged_WhenBroadcastFails_ShouldStillDropAccountLocally() {
+        // Given
+        cache.put(1L, new AccountStatus("user1", true), cache.generation());
+        doThrow(new IllegalStateException("Redis unavailable")).when(redisTemplate).convertAndSend(anyString(), anyString());
+
+        // When
+        cache.onAccountStatusChanged(new AccountStatusChangedEvent(1L, AccountStatusChangedEvent.Reason.LOCKED));
+
+        // Then
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void onMessage_FromAnotherInstance_ShouldDropAccount() {
+        // Given
+        cache.put(1L, new AccountStatus("user1", true), cache.generation());
+        long generation = cache.generation();
+
+        // When
+        cache.onMessage(new DefaultMessage(AccountStatusCache.CHANNEL.getBytes(StandardCharsets.UTF_8),
+            "1".getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        assertNull(cache.get(1L));
+        assertNotEquals(generation, cache.generation());
+    }
+
+    @Test
+    void getAll_ShouldReturnCachedAccountsAndCountHitsAndMisses() {
+        // Given
+        cache.put(1L, new AccountStatus("user1", true), cache.generation());
+        cache.put(2L, new AccountStatus("user2", false), cache.generation());
+
+        // When
+        Map<Long, AccountStatus> found = cache.getAll(List.of(1L, 2L, 3L));
+
+        // Then
+        assertEquals(2, found.size());
+        assertFalse(found.get(2L).isUsable());
+        assertEquals(2.0, meterRegistry.counter("auth.account_status_cache.hits").count());
+        assertEquals(1.0, meterRegistry.counter("auth.account_status_cache.misses").count());
+    }
+
+    @Test
+    void put_ShouldStayWithinMaxSize() {
+        // When
+        for (long userId = 1; userId <= 5; userId++) {
+            cache.put(userId, new AccountStatus("user" + userId, true), cache.generation());
+        }
+
+        // Then
+        assertEquals(3, cache.size());
+    }
+}
@@ -5,22 +5,33 @@ import com.ecommerce.auth.dto.*;
 import com.ecommerce.auth.entity.RefreshToken;
 import com.ecommerce.auth.entity.Role;
 import com.ecommerce.auth.entity.UserAuth;
+import com.ecommerce.auth.event.AccountStatusChangedEvent;
 import com.ecommerce.auth.repository.RefreshTokenRepository;
 import com.ecommerce.auth.repository.UserAuthRepository;
 import com.ecommerce.auth.util.JWTTestUtils;
-import com.ecommerce.auth.util.PasswordUtil;
 import com.ecommerce.auth.util.TestDataFactory;
+import com.ecommerce.shared.security.JwtPrincipal;
 import com.ecommerce.shared.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -61,11 +72,23 @@ class AuthenticationServiceTest {
     private RefreshTokenRepository refreshTokenRepository;
 
     @Mock
-    private PasswordUtil passwordUtil;
+    private PasswordHashingExecutor passwordHashingExecutor;
 
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    // Stands in for Redis, shared by every instance of the service
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+
     private AuthenticationService authenticationService;
 
     // Test data
@@ -86,20 +109,22 @@ class AuthenticationServiceTest {
     @BeforeEach
     void setUp() {
         // Reset all mocks to avoid interference between tests - performance optimized
-        reset(userAuthRepository, refreshTokenRepository, passwordUtil, jwtTokenProvider);
+        reset(userAuthRepository, refreshTokenRepository, passwordHashingExecutor, jwtTokenProvider);
         
         // Use lenient mode to avoid unnecessary stubbing exceptions - reduces test overhead
         lenient().when(userAuthRepository.findByTenantIdAndUsernameOrEmail(anyString(), anyString())).thenReturn(Optional.empty());
-        lenient().when(passwordUtil.verifyPassword(anyString(), anyString())).thenReturn(false);
+        lenient().when(passwordHashingExecutor.verifyPassword(anyString(), anyString())).thenReturn(false);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        lenient().when(redisTemplate.hasKey(anyString()))
+            .thenAnswer(invocation -> redis.containsKey(invocation.<String>getArgument(0)));
+        lenient().when(valueOperations.multiGet(anyCollection()))
+            .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).stream().map(redis::get).toList());
         
         // Initialize service only once per test method for performance
         if (authenticationService == null) {
-            authenticationService = new AuthenticationService(
-                userAuthRepository,
-                refreshTokenRepository,
-                passwordUtil,
-                jwtTokenProvider
-            );
+            authenticationService = newAuthenticationService();
 
             // Set private fields using reflection - done once for performance
             ReflectionTestUtils.setField(authenticationService, "accessTokenExpiration", 3600L);
@@ -110,6 +135,19 @@ class AuthenticationServiceTest {
         setupTestData();
     }
 
+    private AuthenticationService newAuthenticationService() {
+        return new AuthenticationService(
+            userAuthRepository,
+            refreshTokenRepository,
+            passwordHashingExecutor,
+            jwtTokenProvider,
+            new AccountStatusCache(30000, 1000, redisTemplate, new SimpleMeterRegistry()),
+            new TokenRevocationList(redisTemplate),
+            eventPublisher,
+            new SimpleMeterRegistry()
+        );
+    }
+
     /**
      * Optimized test data setup to minimize object creation overhead
      */
@@ -136,7 +174,7 @@ class AuthenticationServiceTest {
         // Minimal cleanup for performance - avoid strict verification that can cause issues
         // Reset is handled in setUp() for better performance and reliability
         // Only clear invocations to avoid interference between tests
-        clearInvocations(userAuthRepository, refreshTokenRepository, passwordUtil, jwtTokenProvider);
+        clearInvocations(userAuthRepository, refreshTokenRepository, passwordHashingExecutor, jwtTokenProvider);
     }
 
     // ========== LOGIN TESTS ==========
@@ -148,7 +186,7 @@ class AuthenticationServiceTest {
         // Arrange
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
             .thenReturn(Optional.of(activeUser));
-        when(passwordUtil.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(true);
         when(jwtTokenProvider.createAccessToken(anyString(), eq(TENANT_ID), eq(Arrays.asList("CUSTOMER"))))
             .thenReturn(ACCESS_TOKEN);
@@ -183,7 +221,7 @@ class AuthenticationServiceTest {
         loginRequest.setUsernameOrEmail("active@example.com");
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "active@example.com"))
             .thenReturn(Optional.of(activeUser));
-        when(passwordUtil.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(true);
         when(jwtTokenProvider.createAccessToken(anyString(), eq(TENANT_ID), eq(Arrays.asList("CUSTOMER"))))
             .thenReturn(ACCESS_TOKEN);
@@ -231,7 +269,7 @@ class AuthenticationServiceTest {
         });
 
         assertEquals("Account is locked due to too many failed login attempts", exception.getMessage());
-        verify(passwordUtil, never()).verifyPassword(any(), any());
+        verify(passwordHashingExecutor, never()).verifyPassword(any(), any());
         verify(refreshTokenRepository, never()).save(any());
     }
 
@@ -252,7 +290,7 @@ class AuthenticationServiceTest {
 
         assertEquals("Invalid credentials", exception.getMessage());
         // Password verification should NOT be called since user is not found by the repository
-        verify(passwordUtil, never()).verifyPassword(any(), any());
+        verify(passwordHashingExecutor, never()).verifyPassword(any(), any());
         verify(refreshTokenRepository, never()).save(any());
     }
 
@@ -264,7 +302,7 @@ class AuthenticationServiceTest {
         loginRequest.setPassword(INVALID_PASSWORD);
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
             .thenReturn(Optional.of(activeUser));
-        when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(false);
 
         // Act & Assert
@@ -287,7 +325,7 @@ class AuthenticationServiceTest {
         loginRequest.setPassword(INVALID_PASSWORD);
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
             .thenReturn(Optional.of(activeUser));
-        when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(false);
 
         // Act & Assert - First failed attempt
@@ -301,10 +339,10 @@ class AuthenticationServiceTest {
         verify(userAuthRepository, times(1)).save(activeUser);
 
         // Test 2: Second failed attempt
-        reset(userAuthRepository, passwordUtil);
+        reset(userAuthRepository, passwordHashingExecutor);
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
             .thenReturn(Optional.of(activeUser));
-        when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(false);
 
         IllegalArgumentException exception2 = assertThrows(IllegalArgumentException.class, () -> {
@@ -317,10 +355,10 @@ class AuthenticationServiceTest {
         verify(userAuthRepository, times(1)).save(activeUser);
 
         // Test 3: Third failed attempt
-        reset(userAuthRepository, passwordUtil);
+        reset(userAuthRepository, passwordHashingExecutor);
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
             .thenReturn(Optional.of(activeUser));
-        when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(false);
 
         IllegalArgumentException exception3 = assertThrows(IllegalArgumentException.class, () -> {
@@ -333,10 +371,10 @@ class AuthenticationServiceTest {
         verify(userAuthRepository, times(1)).save(activeUser);
 
         // Test 4: Fourth failed attempt
-        reset(userAuthRepository, passwordUtil);
+        reset(userAuthRepository, passwordHashingExecutor);
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
             .thenReturn(Optional.of(activeUser));
-        when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(false);
 
         IllegalArgumentException exception4 = assertThrows(IllegalArgumentException.class, () -> {
@@ -349,10 +387,10 @@ class AuthenticationServiceTest {
         verify(userAuthRepository, times(1)).save(activeUser);
 
         // Test 5: Fifth failed attempt - should lock the account
-        reset(userAuthRepository, passwordUtil);
+        reset(userAuthRepository, passwordHashingExecutor);
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
             .thenReturn(Optional.of(activeUser));
-        when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(false);
 
         IllegalArgumentException exception5 = assertThrows(IllegalArgumentException.class, () -> {
@@ -384,7 +422,7 @@ class AuthenticationServiceTest {
 
         assertEquals("Account is locked due to too many failed login attempts", exception.getMessage());
         // Verify password verification is NOT called for locked accounts
-        verify(passwordUtil, never()).verifyPassword(any(), any());
+        verify(passwordHashingExecutor, never()).verifyPassword(any(), any());
         // Verify no tokens are created
         verify(refreshTokenRepository, never()).save(any());
         verify(jwtTokenProvider, never()).createAccessToken(any(), any(), any());
@@ -404,10 +442,10 @@ class AuthenticationServiceTest {
         
         // Test each increment from 0 to 4
         for (int expectedAttempts = 1; expectedAttempts <= 4; expectedAttempts++) {
-            reset(userAuthRepository, passwordUtil);
+            reset(userAuthRepository, passwordHashingExecutor);
             when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
                 .thenReturn(Optional.of(activeUser));
-            when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+            when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
                 .thenReturn(false);
 
             IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -418,14 +456,14 @@ class AuthenticationServiceTest {
             assertEquals(expectedAttempts, activeUser.getFailedLoginAttempts());
             assertFalse(activeUser.getAccountLocked()); // Should not be locked until 5
             verify(userAuthRepository, times(1)).save(activeUser);
-            verify(passwordUtil, times(1)).verifyPassword(INVALID_PASSWORD, PASSWORD_HASH);
+            verify(passwordHashingExecutor, times(1)).verifyPassword(INVALID_PASSWORD, PASSWORD_HASH);
         }
 
         // Test the 5th attempt that should lock the account
-        reset(userAuthRepository, passwordUtil);
+        reset(userAuthRepository, passwordHashingExecutor);
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
             .thenReturn(Optional.of(activeUser));
-        when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(false);
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -436,7 +474,7 @@ class AuthenticationServiceTest {
         assertEquals(5, activeUser.getFailedLoginAttempts());
         assertTrue(activeUser.getAccountLocked()); // Should be locked now
         verify(userAuthRepository, times(1)).save(activeUser);
-        verify(passwordUtil, times(1)).verifyPassword(INVALID_PASSWORD, PASSWORD_HASH);
+        verify(passwordHashingExecutor, times(1)).verifyPassword(INVALID_PASSWORD, PASSWORD_HASH);
     }
 
     @Test
@@ -450,7 +488,7 @@ class AuthenticationServiceTest {
         
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
             .thenReturn(Optional.of(activeUser));
-        when(passwordUtil.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(true);
         when(jwtTokenProvider.createAccessToken(eq(activeUser.getId().toString()), eq(TENANT_ID), any()))
             .thenReturn(ACCESS_TOKEN);
@@ -471,6 +509,47 @@ class AuthenticationServiceTest {
         verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
     }
 
+    @Test
+    @Order(11)
+    @DisplayName("Login should upgrade a weak password hash in the background")
+    @SuppressWarnings("unchecked")
+    void testLogin_ValidCredentials_ShouldScheduleRehashThatUpdatesStoredHash() {
+        // Arrange
+        when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
+            .thenReturn(Optional.of(activeUser));
+        when(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
+            .thenReturn(true);
+        when(jwtTokenProvider.createAccessToken(anyString(), eq(TENANT_ID), any()))
+            .thenReturn(ACCESS_TOKEN);
+        when(jwtTokenProvider.createRefreshToken(anyString(), eq(TENANT_ID)))
+            .thenReturn(REFRESH_TOKEN_VALUE);
+
+        // Act
+        authenticationService.login(loginRequest);
+
+        // Assert - the upgraded hash replaces the one the login was checked against
+        ArgumentCaptor<Consumer<String>> onRehashed = ArgumentCaptor.forClass(Consumer.class);
+        verify(passwordHashingExecutor).rehashIfNeeded(eq(VALID_PASSWORD), eq(PASSWORD_HASH), onRehashed.capture());
+        onRehashed.getValue().accept("new-hash");
+        verify(userAuthRepository).updatePasswordHash(activeUser.getId(), PASSWORD_HASH, "new-hash");
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Login should be rejected without counting a failed attempt when hashing is saturated")
+    void testLogin_HashingSaturated_ShouldPropagateRejection() {
+        // Arrange
+        when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
+            .thenReturn(Optional.of(activeUser));
+        when(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
+            .thenThrow(new PasswordHashingRejectedException("Too many concurrent logins"));
+
+        // Act & Assert
+        assertThrows(PasswordHashingRejectedException.class, () -> authenticationService.login(loginRequest));
+        assertEquals(0, activeUser.getFailedLoginAttempts());
+        verify(userAuthRepository, never()).save(any());
+    }
+
     // ========== TOKEN REFRESH TESTS ==========
 
     @Test
@@ -630,10 +709,10 @@ class AuthenticationServiceTest {
     void testValidateToken_ValidToken_ShouldReturnValidationResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest(ACCESS_TOKEN);
-        DecodedJWT decodedJWT = JWTTestUtils.createValidAccessToken(USER_ID.toString(), TENANT_ID, Arrays.asList("CUSTOMER"));
+        JwtPrincipal principal = JWTTestUtils.createAccessPrincipal(USER_ID.toString(), TENANT_ID, Arrays.asList("CUSTOMER"));
         
-        when(jwtTokenProvider.validateToken(ACCESS_TOKEN))
-            .thenReturn(decodedJWT);
+        when(jwtTokenProvider.verify(ACCESS_TOKEN))
+            .thenReturn(principal);
         when(userAuthRepository.findById(USER_ID))
             .thenReturn(Optional.of(activeUser));
 
@@ -656,7 +735,7 @@ class AuthenticationServiceTest {
     void testValidateToken_InvalidToken_ShouldReturnInvalidResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest("invalid-token");
-        when(jwtTokenProvider.validateToken("invalid-token"))
+        when(jwtTokenProvider.verify("invalid-token"))
             .thenThrow(new RuntimeException("Invalid token"));
 
         // Act
@@ -678,10 +757,10 @@ class AuthenticationServiceTest {
     void testValidateToken_WrongTokenType_ShouldReturnInvalidResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest(REFRESH_TOKEN_VALUE);
-        DecodedJWT decodedJWT = JWTTestUtils.createValidRefreshToken(USER_ID.toString(), TENANT_ID);
+        JwtPrincipal principal = JWTTestUtils.createPrincipal(USER_ID.toString(), TENANT_ID, null, JWTTestUtils.REFRESH_TOKEN_TYPE);
         
-        when(jwtTokenProvider.validateToken(REFRESH_TOKEN_VALUE))
-            .thenReturn(decodedJWT);
+        when(jwtTokenProvider.verify(REFRESH_TOKEN_VALUE))
+            .thenReturn(principal);
 
         // Act
         TokenValidationResponse response = authenticationService.validateToken(request);
@@ -699,10 +778,10 @@ class AuthenticationServiceTest {
     void testValidateToken_InvalidTokenType_ShouldReturnInvalidResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest(ACCESS_TOKEN);
-        DecodedJWT decodedJWT = JWTTestUtils.createInvalidTokenType(USER_ID.toString(), TENANT_ID);
+        JwtPrincipal principal = JWTTestUtils.createPrincipal(USER_ID.toString(), TENANT_ID, null, "invalid");
         
-        when(jwtTokenProvider.validateToken(ACCESS_TOKEN))
-            .thenReturn(decodedJWT);
+        when(jwtTokenProvider.verify(ACCESS_TOKEN))
+            .thenReturn(principal);
 
         // Act
         TokenValidationResponse response = authenticationService.validateToken(request);
@@ -732,7 +811,7 @@ class AuthenticationServiceTest {
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail("tenant2", commonUsername))
             .thenReturn(Optional.of(tenant2User));
         
-        when(passwordUtil.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(true);
         when(jwtTokenProvider.createAccessToken(anyString(), anyString(), any()))
             .thenReturn(ACCESS_TOKEN);
@@ -787,7 +866,7 @@ class AuthenticationServiceTest {
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail("tenant2", commonEmail))
             .thenReturn(Optional.of(tenant2User));
         
-        when(passwordUtil.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(true);
         when(jwtTokenProvider.createAccessToken(anyString(), anyString(), any()))
             .thenReturn(ACCESS_TOKEN);
@@ -863,7 +942,7 @@ class AuthenticationServiceTest {
         
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "resetuser"))
             .thenReturn(Optional.of(userWithFailedAttempts));
-        when(passwordUtil.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(true);
         when(jwtTokenProvider.createAccessToken(anyString(), anyString(), any()))
             .thenReturn(ACCESS_TOKEN);
@@ -897,7 +976,7 @@ class AuthenticationServiceTest {
         
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "persistentuser"))
             .thenReturn(Optional.of(persistentUser));
-        when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(false);
 
         LoginRequest loginRequest = new LoginRequest();
@@ -907,10 +986,10 @@ class AuthenticationServiceTest {
 
         // Act - Make multiple failed attempts and verify persistence
         for (int attempt = 1; attempt <= 3; attempt++) {
-            reset(userAuthRepository, passwordUtil);
+            reset(userAuthRepository, passwordHashingExecutor);
             when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "persistentuser"))
                 .thenReturn(Optional.of(persistentUser));
-            when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+            when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
                 .thenReturn(false);
 
             IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -937,7 +1016,7 @@ class AuthenticationServiceTest {
         
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "nearlockuser"))
             .thenReturn(Optional.of(nearLockUser));
-        when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(false);
 
         LoginRequest loginRequest = new LoginRequest();
@@ -1105,7 +1184,7 @@ class AuthenticationServiceTest {
     void testValidateToken_MalformedToken_ShouldReturnInvalidResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest("malformed-token");
-        when(jwtTokenProvider.validateToken("malformed-token"))
+        when(jwtTokenProvider.verify("malformed-token"))
             .thenThrow(new RuntimeException("Invalid token"));
 
         // Act
@@ -1127,10 +1206,10 @@ class AuthenticationServiceTest {
     void testValidateToken_ValidTokenButUserNotFound_ShouldReturnInvalidResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest(ACCESS_TOKEN);
-        DecodedJWT decodedJWT = JWTTestUtils.createValidAccessToken(USER_ID.toString(), TENANT_ID, Arrays.asList("CUSTOMER"));
+        JwtPrincipal principal = JWTTestUtils.createAccessPrincipal(USER_ID.toString(), TENANT_ID, Arrays.asList("CUSTOMER"));
         
-        when(jwtTokenProvider.validateToken(ACCESS_TOKEN))
-            .thenReturn(decodedJWT);
+        when(jwtTokenProvider.verify(ACCESS_TOKEN))
+            .thenReturn(principal);
         when(userAuthRepository.findById(USER_ID))
             .thenReturn(Optional.empty());
 
@@ -1149,10 +1228,10 @@ class AuthenticationServiceTest {
     void testValidateToken_InactiveUser_ShouldReturnInvalidResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest(ACCESS_TOKEN);
-        DecodedJWT decodedJWT = JWTTestUtils.createValidAccessToken("2", TENANT_ID, Arrays.asList("CUSTOMER"));
+        JwtPrincipal principal = JWTTestUtils.createAccessPrincipal("2", TENANT_ID, Arrays.asList("CUSTOMER"));
         
-        when(jwtTokenProvider.validateToken(ACCESS_TOKEN))
-            .thenReturn(decodedJWT);
+        when(jwtTokenProvider.verify(ACCESS_TOKEN))
+            .thenReturn(principal);
         when(userAuthRepository.findById(2L))
             .thenReturn(Optional.of(inactiveUser));
 
@@ -1171,10 +1250,10 @@ class AuthenticationServiceTest {
     void testValidateToken_LockedUser_ShouldReturnInvalidResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest(ACCESS_TOKEN);
-        DecodedJWT decodedJWT = JWTTestUtils.createValidAccessToken("3", TENANT_ID, Arrays.asList("CUSTOMER"));
+        JwtPrincipal principal = JWTTestUtils.createAccessPrincipal("3", TENANT_ID, Arrays.asList("CUSTOMER"));
         
-        when(jwtTokenProvider.validateToken(ACCESS_TOKEN))
-            .thenReturn(decodedJWT);
+        when(jwtTokenProvider.verify(ACCESS_TOKEN))
+            .thenReturn(principal);
         when(userAuthRepository.findById(3L))
             .thenReturn(Optional.of(lockedUser));
 
@@ -1193,10 +1272,10 @@ class AuthenticationServiceTest {
     void testValidateToken_MissingTenantId_ShouldReturnInvalidResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest(ACCESS_TOKEN);
-        DecodedJWT decodedJWT = JWTTestUtils.createTokenWithMissingTenantId(USER_ID.toString(), Arrays.asList("CUSTOMER"));
+        JwtPrincipal principal = JWTTestUtils.createAccessPrincipal(USER_ID.toString(), null, Arrays.asList("CUSTOMER"));
         
-        when(jwtTokenProvider.validateToken(ACCESS_TOKEN))
-            .thenReturn(decodedJWT);
+        when(jwtTokenProvider.verify(ACCESS_TOKEN))
+            .thenReturn(principal);
 
         // Act
         TokenValidationResponse response = authenticationService.validateToken(request);
@@ -1204,11 +1283,7 @@ class AuthenticationServiceTest {
         // Assert
         assertNotNull(response);
         assertFalse(response.isValid());
-        // Based on actual implementation, when tenant_id claim is missing (null), 
-        // calling .asString() on null claim causes NullPointerException which gets caught
-        // and returns "Invalid token". However, if user lookup happens first and user is found
-        // but inactive/locked, it returns "User account is inactive or locked"
-        // Since our test user is active, the null tenant_id should cause "Invalid token"
+        // A missing claim leaves that field of the principal null, which is rejected as an invalid token
         assertEquals("Invalid token", response.getErrorMessage());
     }
 
@@ -1218,10 +1293,10 @@ class AuthenticationServiceTest {
     void testValidateToken_MissingRoles_ShouldReturnInvalidResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest(ACCESS_TOKEN);
-        DecodedJWT decodedJWT = JWTTestUtils.createTokenWithMissingRoles(USER_ID.toString(), TENANT_ID);
+        JwtPrincipal principal = JWTTestUtils.createPrincipal(USER_ID.toString(), TENANT_ID, null, JWTTestUtils.ACCESS_TOKEN_TYPE);
         
-        when(jwtTokenProvider.validateToken(ACCESS_TOKEN))
-            .thenReturn(decodedJWT);
+        when(jwtTokenProvider.verify(ACCESS_TOKEN))
+            .thenReturn(principal);
 
         // Act
         TokenValidationResponse response = authenticationService.validateToken(request);
@@ -1229,11 +1304,7 @@ class AuthenticationServiceTest {
         // Assert
         assertNotNull(response);
         assertFalse(response.isValid());
-        // Based on actual implementation, when roles claim is missing (null), 
-        // calling .asList() on null claim causes NullPointerException which gets caught
-        // and returns "Invalid token". However, if user lookup happens first and user is found
-        // but inactive/locked, it returns "User account is inactive or locked"
-        // Since our test user is active, the null roles should cause "Invalid token"
+        // A missing claim leaves that field of the principal null, which is rejected as an invalid token
         assertEquals("Invalid token", response.getErrorMessage());
     }
 
@@ -1243,10 +1314,10 @@ class AuthenticationServiceTest {
     void testValidateToken_NullSubject_ShouldReturnInvalidResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest(ACCESS_TOKEN);
-        DecodedJWT decodedJWT = JWTTestUtils.createTokenWithNullSubject(TENANT_ID, Arrays.asList("CUSTOMER"));
+        JwtPrincipal principal = JWTTestUtils.createAccessPrincipal(null, TENANT_ID, Arrays.asList("CUSTOMER"));
         
-        when(jwtTokenProvider.validateToken(ACCESS_TOKEN))
-            .thenReturn(decodedJWT);
+        when(jwtTokenProvider.verify(ACCESS_TOKEN))
+            .thenReturn(principal);
 
         // Act
         TokenValidationResponse response = authenticationService.validateToken(request);
@@ -1282,6 +1353,203 @@ class AuthenticationServiceTest {
         verify(refreshTokenRepository).revokeAllTokensForUser(999L);
     }
 
+    @Test
+    @Order(42)
+    @DisplayName("Logout with access token should revoke it")
+    void testLogout_WithAccessToken_ShouldRevokeAccessToken() {
+        // Arrange
+        JwtPrincipal principal = JWTTestUtils.createAccessPrincipal(USER_ID.toString(), TENANT_ID, Arrays.asList("CUSTOMER"));
+        when(jwtTokenProvider.verify(ACCESS_TOKEN)).thenReturn(principal);
+
+        // Act
+        authenticationService.logout(USER_ID.toString(), ACCESS_TOKEN);
+        TokenValidationResponse response = authenticationService.validateToken(new TokenValidationRequest(ACCESS_TOKEN));
+
+        // Assert
+        assertFalse(response.isValid());
+        assertEquals("Token has been revoked", response.getErrorMessage());
+        verify(refreshTokenRepository).revokeAllTokensForUser(USER_ID);
+        verify(userAuthRepository, never()).findById(any());
+    }
+
+    @Test
+    @Order(43)
+    @DisplayName("Logout should publish an account status change")
+    void testLogout_ShouldPublishAccountStatusChangedEvent() {
+        // Act
+        authenticationService.logout(USER_ID.toString());
+
+        // Assert
+        ArgumentCaptor<AccountStatusChangedEvent> event = ArgumentCaptor.forClass(AccountStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(USER_ID, event.getValue().getUserId());
+        assertEquals(AccountStatusChangedEvent.Reason.LOGGED_OUT, event.getValue().getReason());
+    }
+
+    // ========== ACCOUNT STATUS CACHE TESTS ==========
+
+    @Test
+    @Order(44)
+    @DisplayName("Validate token should load the account once and then serve it from the cache")
+    void testValidateToken_RepeatedCalls_ShouldLoadAccountOnce() {
+        // Arrange
+        TokenValidationRequest request = new TokenValidationRequest(ACCESS_TOKEN);
+        JwtPrincipal principal = JWTTestUtils.createAccessPrincipal(USER_ID.toString(), TENANT_ID, Arrays.asList("CUSTOMER"));
+        when(jwtTokenProvider.verify(ACCESS_TOKEN)).thenReturn(principal);
+        when(userAuthRepository.findById(USER_ID)).thenReturn(Optional.of(activeUser));
+
+        // Act
+        TokenValidationResponse first = authenticationService.validateToken(request);
+        TokenValidationResponse second = authenticationService.validateToken(request);
+
+        // Assert
+        assertTrue(first.isValid());
+        assertTrue(second.isValid());
+        assertEquals("activeuser", second.getUsername());
+        assertEquals(principal.getExpiresAt(), second.getExpiresAt());
+        verify(userAuthRepository, times(1)).findById(USER_ID);
+    }
+
+    @Test
+    @Order(56)
+    @DisplayName("Locking an account should publish an account status change")
+    void testAccountLocking_ShouldPublishAccountStatusChangedEvent() {
+        // Arrange - User with 4 failed attempts (one away from locking)
+        UserAuth nearLockUser = TestDataFactory.createCustomUser(TENANT_ID, "nearlockuser", "nearlock@example.com",
+                                                                Arrays.asList(Role.CUSTOMER), true, false, 4);
+        nearLockUser.setId(USER_ID);
+
+        when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "nearlockuser"))
+            .thenReturn(Optional.of(nearLockUser));
+
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsernameOrEmail("nearlockuser");
+        loginRequest.setPassword(INVALID_PASSWORD);
+        loginRequest.setTenantId(TENANT_ID);
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> authenticationService.login(loginRequest));
+
+        // Assert
+        ArgumentCaptor<AccountStatusChangedEvent> event = ArgumentCaptor.forClass(AccountStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(USER_ID, event.getValue().getUserId());
+        assertEquals(AccountStatusChangedEvent.Reason.LOCKED, event.getValue().getReason());
+    }
+
+    @Test
+    @Order(45)
+    @DisplayName("Failed login below the lock threshold should not publish an account status change")
+    void testLogin_InvalidPasswordBelowThreshold_ShouldNotPublishEvent() {
+        // Arrange
+        when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
+            .thenReturn(Optional.of(TestDataFactory.createActiveUser(TENANT_ID)));
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> authenticationService.login(loginRequest));
+
+        // Assert
+        verifyNoInteractions(eventPublisher);
+    }
+
+    // ========== BATCH TOKEN VALIDATION TESTS ==========
+
+    @Test
+    @Order(46)
+    @DisplayName("Validate tokens should answer each token in order and load accounts in one query")
+    void testValidateTokens_ShouldValidateEachTokenAndLoadAccountsOnce() {
+        // Arrange
+        UserAuth first = TestDataFactory.createActiveUser(TENANT_ID);
+        first.setId(1L);
+        UserAuth second = TestDataFactory.createLockedUser(TENANT_ID);
+        second.setId(2L);
+
+        when(jwtTokenProvider.verify("token-1"))
+            .thenReturn(JWTTestUtils.createAccessPrincipal("1", TENANT_ID, Arrays.asList("CUSTOMER")));
+        when(jwtTokenProvider.verify("token-2"))
+            .thenReturn(JWTTestUtils.createAccessPrincipal("2", TENANT_ID, Arrays.asList("CUSTOMER")));
+        when(jwtTokenProvider.verify("token-1b"))
+            .thenReturn(JWTTestUtils.createAccessPrincipal("1", TENANT_ID, Arrays.asList("ADMIN")));
+        when(jwtTokenProvider.verify("malformed-token"))
+            .thenThrow(new RuntimeException("Invalid token"));
+        when(userAuthRepository.findAllById(anyIterable()))
+            .thenReturn(List.of(first, second));
+
+        // Act
+        List<TokenValidationResponse> responses = authenticationService.validateTokens(
+            List.of("token-1", "malformed-token", "token-2", "token-1b"));
+
+        // Assert
+        assertEquals(4, responses.size());
+        assertTrue(responses.get(0).isValid());
+        assertEquals("1", responses.get(0).getUserId());
+        assertEquals("Invalid token", responses.get(1).getErrorMessage());
+        assertEquals("User account is inactive or locked", responses.get(2).getErrorMessage());
+        assertTrue(responses.get(3).isValid());
+        assertEquals(Arrays.asList(Role.ADMIN), responses.get(3).getRoles());
+        verify(userAuthRepository, times(1)).findAllById(List.of(1L, 2L));
+        verify(userAuthRepository, never()).findById(any());
+    }
+
+    @Test
+    @Order(47)
+    @DisplayName("Validate tokens should not query the database when every account is cached")
+    void testValidateTokens_AllAccountsCached_ShouldNotQueryDatabase() {
+        // Arrange - a single validation caches the account
+        JwtPrincipal principal = JWTTestUtils.createAccessPrincipal(USER_ID.toString(), TENANT_ID, Arrays.asList("CUSTOMER"));
+        when(jwtTokenProvider.verify(ACCESS_TOKEN)).thenReturn(principal);
+        when(userAuthRepository.findById(USER_ID)).thenReturn(Optional.of(activeUser));
+        authenticationService.validateToken(new TokenValidationRequest(ACCESS_TOKEN));
+
+        // Act
+        List<TokenValidationResponse> responses = authenticationService.validateTokens(List.of(ACCESS_TOKEN, ACCESS_TOKEN));
+
+        // Assert
+        assertTrue(responses.stream().allMatch(TokenValidationResponse::isValid));
+        verify(userAuthRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @Order(48)
+    @DisplayName("Validate tokens should reject a token revoked through another instance")
+    void testValidateTokens_RevokedOnAnotherInstance_ShouldReject() {
+        // Arrange
+        JwtPrincipal principal = JWTTestUtils.createAccessPrincipal(USER_ID.toString(), TENANT_ID, Arrays.asList("CUSTOMER"));
+        when(jwtTokenProvider.verify(ACCESS_TOKEN)).thenReturn(principal);
+        when(jwtTokenProvider.verify("token-2"))
+            .thenReturn(JWTTestUtils.createAccessPrincipal("2", TENANT_ID, Arrays.asList("CUSTOMER")));
+        UserAuth second = TestDataFactory.createActiveUser(TENANT_ID);
+        second.setId(2L);
+        when(userAuthRepository.findAllById(anyIterable())).thenReturn(List.of(second));
+        newAuthenticationService().logout(USER_ID.toString(), ACCESS_TOKEN);
+
+        // Act
+        List<TokenValidationResponse> responses = authenticationService.validateTokens(List.of(ACCESS_TOKEN, "token-2"));
+
+        // Assert
+        assertEquals("Token has been revoked", responses.get(0).getErrorMessage());
+        assertTrue(responses.get(1).isValid());
+        verify(userAuthRepository).findAllById(List.of(2L));
+        verify(valueOperations, times(1)).multiGet(anyCollection());
+    }
+
+    @Test
+    @Order(49)
+    @DisplayName("Validate token should fail closed when revocations cannot be checked")
+    void testValidateToken_RedisUnavailable_ShouldReject() {
+        // Arrange
+        JwtPrincipal principal = JWTTestUtils.createAccessPrincipal(USER_ID.toString(), TENANT_ID, Arrays.asList("CUSTOMER"));
+        when(jwtTokenProvider.verify(ACCESS_TOKEN)).thenReturn(principal);
+        when(redisTemplate.hasKey(anyString())).thenThrow(new IllegalStateException("Redis unavailable"));
+
+        // Act
+        TokenValidationResponse response = authenticationService.validateToken(new TokenValidationRequest(ACCESS_TOKEN));
+
+        // Assert
+        assertFalse(response.isValid());
+        verify(userAuthRepository, never()).findById(any());
+    }
+
     // ========== EDGE CASES AND ERROR HANDLING ==========
 
     @Test
@@ -1343,7 +1611,7 @@ class AuthenticationServiceTest {
         // Arrange
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "activeuser"))
             .thenReturn(Optional.of(activeUser));
-        when(passwordUtil.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(true);
         when(jwtTokenProvider.createAccessToken(anyString(), eq(TENANT_ID), any()))
             .thenThrow(new RuntimeException("JWT creation failed"));
@@ -1362,7 +1630,7 @@ class AuthenticationServiceTest {
     void testValidateToken_JwtVerificationException_ShouldReturnInvalidResponse() {
         // Arrange
         TokenValidationRequest request = new TokenValidationRequest("malformed-jwt-token");
-        when(jwtTokenProvider.validateToken("malformed-jwt-token"))
+        when(jwtTokenProvider.verify("malformed-jwt-token"))
             .thenThrow(new com.auth0.jwt.exceptions.JWTVerificationException("JWT signature does not match"));
 
         // Act
@@ -1398,14 +1666,14 @@ class AuthenticationServiceTest {
     @DisplayName("Password verification should work correctly")
     void testPasswordVerification() {
         // Arrange
-        when(passwordUtil.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(true);
-        when(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(false);
 
         // Act & Assert
-        assertTrue(passwordUtil.verifyPassword(VALID_PASSWORD, PASSWORD_HASH));
-        assertFalse(passwordUtil.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH));
+        assertTrue(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH));
+        assertFalse(passwordHashingExecutor.verifyPassword(INVALID_PASSWORD, PASSWORD_HASH));
     }
 
     @Test
@@ -1418,7 +1686,7 @@ class AuthenticationServiceTest {
         loginRequest.setUsernameOrEmail("multiroleuser");
         when(userAuthRepository.findByTenantIdAndUsernameOrEmail(TENANT_ID, "multiroleuser"))
             .thenReturn(Optional.of(multiRoleUser));
-        when(passwordUtil.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
+        when(passwordHashingExecutor.verifyPassword(VALID_PASSWORD, PASSWORD_HASH))
             .thenReturn(true);
         when(jwtTokenProvider.createAccessToken(anyString(), eq(TENANT_ID), eq(Arrays.asList("ADMIN", "MANAGER", "CUSTOMER"))))
             .thenReturn(ACCESS_TOKEN);
@@ -0,0 +1,141 @@
+package com.ecommerce.auth.service;
+
+import com.ecommerce.auth.config.PasswordHashingProperties;
+import com.ecommerce.auth.util.PasswordUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Logins per second and validate latency while a credential-stuffing burst hits the service.
+ *
+ * The baseline hashes on the request thread of a 200-thread pool, as Tomcat does by default.
+ * The bounded variant runs requests on virtual threads and hashes on {@link PasswordHashingExecutor}.
+ * Validate is stood in for by a few SHA-256 rounds, about what a cached token check costs.
+ * Needs {@code -Dperformance.tests.enabled=true}; login rate and validate percentiles of both
+ * variants are printed side by side.
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class LoginStormBenchmarkTest {
+
+    private static final String PASSWORD = "StrongPass123!";
+    private static final int BCRYPT_STRENGTH = 10;
+    private static final int REQUEST_THREADS = 200;
+    private static final int STORM_CLIENTS = 400;
+    private static final long WARMUP_MILLIS = 2_000;
+    private static final long MEASURE_MILLIS = 10_000;
+    private static final long REJECTED_BACKOFF_MILLIS = 10;
+    private static final long PROBE_INTERVAL_MILLIS = 5;
+
+    @Test
+    void loginStorm_ShouldNotStarveValidate() throws Exception {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setBcryptStrength(BCRYPT_STRENGTH);
+        PasswordUtil passwordUtil = new PasswordUtil(properties);
+        String hash = passwordUtil.hashPassword(PASSWORD);
+
+        System.out.printf("Login storm: %d clients, BCrypt cost %d, %d cores%n",
+            STORM_CLIENTS, BCRYPT_STRENGTH, Runtime.getRuntime().availableProcessors());
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        try {
+            run("hash on request thread", requestThreads, () -> passwordUtil.verifyPassword(PASSWORD, hash));
+        } finally {
+            requestThreads.shutdownNow();
+        }
+
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(passwordUtil, properties, new SimpleMeterRegistry());
+        ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            run("bounded hashing pool", virtualThreads, () -> hashingExecutor.verifyPassword(PASSWORD, hash));
+        } finally {
+            virtualThreads.shutdownNow();
+            hashingExecutor.shutdown();
+        }
+    }
+
+    private void run(String name, ExecutorService requests, BooleanSupplier login) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean measuring = new AtomicBoolean();
+        LongAdder logins = new LongAdder();
+        LongAdder rejected = new LongAdder();
+
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < STORM_CLIENTS; i++) {
+            clients.add(Thread.ofVirtual().start(() -> {
+                while (running.get()) {
+                    try {
+                        requests.submit(login::getAsBoolean).get();
+                        if (measuring.get()) {
+                            logins.increment();
+                        }
+                    } catch (ExecutionException e) {
+                        if (measuring.get()) {
+                            rejected.increment();
+                        }
+                        sleep(REJECTED_BACKOFF_MILLIS);
+                    } catch (Exception e) {
+                        return;
+                    }
+                }
+            }));
+        }
+
+        sleep(WARMUP_MILLIS);
+        measuring.set(true);
+        List<Long> validateLatencies = new ArrayList<>();
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+        while (System.nanoTime() < end) {
+            long start = System.nanoTime();
+            requests.submit(LoginStormBenchmarkTest::validate).get();
+            validateLatencies.add(System.nanoTime() - start);
+            sleep(PROBE_INTERVAL_MILLIS);
+        }
+        measuring.set(false);
+        running.set(false);
+        for (Thread client : clients) {
+            client.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        long[] latencies = validateLatencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        double seconds = MEASURE_MILLIS / 1000.0;
+        System.out.printf("  %-24s logins/s %7.1f   rejected/s %8.1f   validate p50 %8.2f ms   p99 %8.2f ms   max %8.2f ms%n",
+            name, logins.sum() / seconds, rejected.sum() / seconds,
+            percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6, latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static byte[] validate() throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] token = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiIxIiwidGVuYW50X2lkIjoidGVuYW50MSJ9.signature"
+            .repeat(4).getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 10; i++) {
+            token = digest.digest(token);
+        }
+        return token;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
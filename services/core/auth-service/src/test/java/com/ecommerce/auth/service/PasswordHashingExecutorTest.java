@@ -0,0 +1,119 @@
+package com.ecommerce.auth.service;
+
+import com.ecommerce.auth.config.PasswordHashingProperties;
+import com.ecommerce.auth.util.PasswordUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private static final String PASSWORD = "StrongPass123!";
+
+    // Below the configured strength of 5, so it needs a rehash
+    private static final String WEAK_HASH = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingProperties properties;
+    private PasswordUtil passwordUtil;
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new PasswordHashingProperties();
+        properties.setThreads(1);
+        properties.setQueueCapacity(2);
+        properties.setBcryptStrength(5);
+        passwordUtil = new PasswordUtil(properties);
+        executor = new PasswordHashingExecutor(passwordUtil, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void verifyPassword_ShouldMatchOnPool() {
+        // When & Then
+        assertTrue(executor.verifyPassword(PASSWORD, WEAK_HASH));
+        assertFalse(executor.verifyPassword("WrongPass123!", WEAK_HASH));
+        assertEquals(2, meterRegistry.timer("auth.password_hashing.duration", "operation", "verify").count());
+    }
+
+    @Test
+    void verifyPassword_WhenQueueIsFull_ShouldRejectImmediately() throws Exception {
+        // Given - the only thread is busy and both queue slots are taken
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        assertTrue(executor.rehashIfNeeded(PASSWORD, WEAK_HASH, hash -> {
+            started.countDown();
+            awaitQuietly(release);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> executor.verifyPassword(PASSWORD, WEAK_HASH));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> executor.verifyPassword(PASSWORD, WEAK_HASH));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.queueDepth() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        // When & Then
+        assertThrows(PasswordHashingRejectedException.class, () -> executor.verifyPassword(PASSWORD, WEAK_HASH));
+        assertEquals(1.0, meterRegistry.counter("auth.password_hashing.rejected").count());
+
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rehashIfNeeded_ShouldHashAtConfiguredStrength() throws Exception {
+        // Given
+        CompletableFuture<String> rehashed = new CompletableFuture<>();
+
+        // When
+        boolean scheduled = executor.rehashIfNeeded(PASSWORD, WEAK_HASH, rehashed::complete);
+
+        // Then
+        assertTrue(scheduled);
+        String hash = rehashed.get(5, TimeUnit.SECONDS);
+        assertTrue(passwordUtil.verifyPassword(PASSWORD, hash));
+        assertFalse(passwordUtil.needsRehash(hash));
+    }
+
+    @Test
+    void rehashIfNeeded_WithCurrentHash_ShouldDoNothing() {
+        // Given
+        String currentHash = passwordUtil.hashPassword(PASSWORD);
+
+        // When & Then
+        assertFalse(executor.rehashIfNeeded(PASSWORD, currentHash, hash -> fail("should not rehash")));
+    }
+
+    @Test
+    void rehashIfNeeded_WhenDisabled_ShouldDoNothing() {
+        // Given
+        properties.setRehashOnLogin(false);
+
+        // When & Then
+        assertFalse(executor.rehashIfNeeded(PASSWORD, WEAK_HASH, hash -> fail("should not rehash")));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
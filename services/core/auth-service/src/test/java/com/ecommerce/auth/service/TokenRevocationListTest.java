@@ -0,0 +1,145 @@
+package com.ecommerce.auth.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    // Stands in for Redis: key to expiry
+    private final Map<String, Instant> redis = new HashMap<>();
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().doAnswer(invocation -> redis.put(invocation.getArgument(0),
+                clock.instant().plus(invocation.<Duration>getArgument(2))))
+            .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        lenient().when(redisTemplate.hasKey(anyString()))
+            .thenAnswer(invocation -> live(invocation.getArgument(0)));
+        lenient().when(valueOperations.multiGet(anyCollection()))
+            .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).stream()
+                .map(key -> live(key) ? "1" : null)
+                .toList());
+        revocationList = new TokenRevocationList(redisTemplate, clock);
+    }
+
+    @Test
+    void isRevoked_ShouldMatchRevokedTokensOnly() {
+        // Given
+        revocationList.revoke("hash1", NOW.plusSeconds(3600));
+
+        // When & Then
+        assertTrue(revocationList.isRevoked("hash1"));
+        assertFalse(revocationList.isRevoked("hash2"));
+    }
+
+    @Test
+    void isRevoked_ShouldSeeTokensRevokedByAnotherInstance() {
+        // Given
+        new TokenRevocationList(redisTemplate, clock).revoke("hash1", NOW.plusSeconds(3600));
+
+        // When & Then
+        assertTrue(revocationList.isRevoked("hash1"));
+    }
+
+    @Test
+    void revoke_ShouldKeepTokenOnlyUntilItExpires() {
+        // Given
+        revocationList.revoke("hash1", NOW.plusSeconds(3600));
+
+        // When
+        clock.advance(Duration.ofSeconds(3600));
+
+        // Then
+        assertFalse(revocationList.isRevoked("hash1"));
+        verify(valueOperations).set(TokenRevocationList.KEY_PREFIX + "hash1", "1", Duration.ofSeconds(3600));
+    }
+
+    @Test
+    void revoke_WithExpiredToken_ShouldNotStoreIt() {
+        // When
+        revocationList.revoke("hash1", NOW.minusSeconds(1));
+
+        // Then
+        assertTrue(redis.isEmpty());
+    }
+
+    @Test
+    void findRevoked_ShouldCheckEveryTokenInOneRoundTrip() {
+        // Given
+        revocationList.revoke("hash1", NOW.plusSeconds(3600));
+        revocationList.revoke("hash3", NOW.plusSeconds(3600));
+
+        // When
+        Set<String> revoked = revocationList.findRevoked(List.of("hash1", "hash2", "hash3"));
+
+        // Then
+        assertEquals(Set.of("hash1", "hash3"), revoked);
+        verify(valueOperations, times(1)).multiGet(anyCollection());
+        verify(redisTemplate, never()).hasKey(anyString());
+    }
+
+    private boolean live(String key) {
+        Instant expiresAt = redis.get(key);
+        return expiresAt != null && expiresAt.isAfter(clock.instant());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.ecommerce.auth.util;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.ecommerce.auth.entity.Role;
+import com.ecommerce.shared.security.JwtPrincipal;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -274,6 +275,20 @@ public class JWTTestUtils {
         return jwt;
     }
 
+    /**
+     * Creates a verified access token principal
+     */
+    public static JwtPrincipal createAccessPrincipal(String userId, String tenantId, List<String> roles) {
+        return createPrincipal(userId, tenantId, roles, ACCESS_TOKEN_TYPE);
+    }
+
+    /**
+     * Creates a verified token principal; null arguments stand for missing claims
+     */
+    public static JwtPrincipal createPrincipal(String userId, String tenantId, List<String> roles, String tokenType) {
+        return new JwtPrincipal(userId, tenantId, roles, tokenType, Instant.now().plusSeconds(3600));
+    }
+
     /**
      * Creates tokens for tenant isolation testing
      */
@@ -1,5 +1,6 @@
 package com.ecommerce.auth.util;
 
+import com.ecommerce.auth.config.PasswordHashingProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -184,4 +185,27 @@ class PasswordUtilTest {
         
         assertTrue(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testNeedsRehash_BelowConfiguredStrength_ShouldReturnTrue() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setBcryptStrength(5);
+        PasswordUtil upgraded = new PasswordUtil(properties);
+
+        properties.setBcryptStrength(4);
+        String weakHash = new PasswordUtil(properties).hashPassword("StrongPass123!");
+
+        assertTrue(upgraded.needsRehash(weakHash));
+        assertFalse(upgraded.needsRehash(upgraded.hashPassword("StrongPass123!")));
+    }
+
+    @Test
+    void testRehashPassword_ShouldSkipStrengthChecks() {
+        String weakPassword = "password";
+
+        String rehashed = passwordUtil.rehashPassword(weakPassword);
+
+        assertTrue(passwordUtil.verifyPassword(weakPassword, rehashed));
+        assertFalse(passwordUtil.needsRehash(rehashed));
+    }
+}
@@ -1,5 +1,7 @@
 package com.ecommerce.userservice.config;
 
+import com.ecommerce.userservice.service.UserSearchIndex;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -8,6 +10,8 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -21,6 +25,7 @@ import java.util.Map;
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheWarmupProperties.class)
 public class CacheConfig {
 
     public static final String USER_CACHE = "users";
@@ -28,6 +33,17 @@ public class CacheConfig {
     public static final String USER_SEARCH_CACHE = "user-search";
     public static final String USER_COUNT_CACHE = "user-count";
 
+    public static final String CACHE_KEY_PREFIX = "user-service:";
+    public static final Duration USER_PROFILE_CACHE_TTL = Duration.ofMinutes(45);
+
+    /**
+     * Redis key under which the cache manager stores {@code key} in {@code cacheName}, for
+     * writing entries directly with {@link RedisTemplate}
+     */
+    public static String redisKey(String cacheName, String key) {
+        return CACHE_KEY_PREFIX + cacheName + "::" + key;
+    }
+
     /**
      * Configure Redis cache manager with different TTL for different cache types
      */
@@ -41,7 +57,7 @@ public class CacheConfig {
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new GenericJackson2JsonRedisSerializer()))
                 .disableCachingNullValues()
-                .prefixCacheNameWith("user-service:");
+                .prefixCacheNameWith(CACHE_KEY_PREFIX);
 
         // Cache-specific configurations
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
@@ -52,7 +68,7 @@ public class CacheConfig {
         
         // User profile response cache - medium TTL
         cacheConfigurations.put(USER_PROFILE_CACHE, defaultCacheConfig
-                .entryTtl(Duration.ofMinutes(45)));
+                .entryTtl(USER_PROFILE_CACHE_TTL));
         
         // Search results cache - shorter TTL as data changes frequently
         cacheConfigurations.put(USER_SEARCH_CACHE, defaultCacheConfig
@@ -83,4 +99,16 @@ public class CacheConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * Reloads users into this instance's search index when any instance writes them
+     */
+    @Bean
+    public RedisMessageListenerContainer searchIndexListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                      UserSearchIndex userSearchIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(userSearchIndex, new ChannelTopic(UserSearchIndex.CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.userservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for user profile cache warm-up
+ */
+@ConfigurationProperties(prefix = "user.cache.warmup")
+public class CacheWarmupProperties {
+
+    /**
+     * Most frequently read users warmed per tenant
+     * Default: 1000
+     */
+    private int hotSetSize = 1000;
+
+    /**
+     * Users loaded from the database per query while warming
+     * Default: 200
+     */
+    private int fetchBatchSize = 200;
+
+    /**
+     * Tenants warmed at the same time
+     * Default: 4
+     */
+    private int maxConcurrentTenants = 4;
+
+    /**
+     * Counters per row of each tenant's access sketch; rounded up to a power of two
+     * Default: 4096
+     */
+    private int sketchWidth = 4096;
+
+    /**
+     * Newest users warmed for a tenant with no recorded or saved accesses
+     * Default: 100
+     */
+    private int newestUsersFallback = 100;
+
+    /**
+     * How long a tenant's saved hot set is kept in Redis for the next startup
+     * Default: 7 days
+     */
+    private Duration hotSetRetention = Duration.ofDays(7);
+
+    public int getHotSetSize() {
+        return hotSetSize;
+    }
+
+    public void setHotSetSize(int hotSetSize) {
+        this.hotSetSize = hotSetSize;
+    }
+
+    public int getFetchBatchSize() {
+        return fetchBatchSize;
+    }
+
+    public void setFetchBatchSize(int fetchBatchSize) {
+        this.fetchBatchSize = fetchBatchSize;
+    }
+
+    public int getMaxConcurrentTenants() {
+        return maxConcurrentTenants;
+    }
+
+    public void setMaxConcurrentTenants(int maxConcurrentTenants) {
+        this.maxConcurrentTenants = maxConcurrentTenants;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public void setSketchWidth(int sketchWidth) {
+        this.sketchWidth = sketchWidth;
+    }
+
+    public int getNewestUsersFallback() {
+        return newestUsersFallback;
+    }
+
+    public void setNewestUsersFallback(int newestUsersFallback) {
+        this.newestUsersFallback = newestUsersFallback;
+    }
+
+    public Duration getHotSetRetention() {
+        return hotSetRetention;
+    }
+
+    public void setHotSetRetention(Duration hotSetRetention) {
+        this.hotSetRetention = hotSetRetention;
+    }
+}
@@ -160,17 +160,19 @@ public class UserController {
     }
 
     /**
-     * Search users by name or email
+     * Search users by name or email, one page at a time
      */
     @GetMapping("/search")
     @Timed(value = "user.search", description = "Time taken to search users")
     public ResponseEntity<List<UserProfileResponse>> searchUsers(
             @RequestHeader("X-Tenant-ID") String tenantId,
-            @RequestParam String q) {
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         
         logger.debug("Searching users for tenant: {} with query: {}", tenantId, q);
         
-        List<UserProfileResponse> response = userService.searchUsers(tenantId, q);
+        List<UserProfileResponse> response = userService.searchUsers(tenantId, q, page, size);
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,44 @@
+package com.ecommerce.userservice.event;
+
+import java.util.Objects;
+
+/**
+ * Published when a user is created, updated or deleted, so the search index of every instance
+ * can reload the user once the change commits
+ */
+public class UserSearchFieldsChangedEvent {
+
+    private final String tenantId;
+    private final Long userId;
+
+    public UserSearchFieldsChangedEvent(String tenantId, Long userId) {
+        this.tenantId = tenantId;
+        this.userId = userId;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserSearchFieldsChangedEvent)) return false;
+        UserSearchFieldsChangedEvent that = (UserSearchFieldsChangedEvent) o;
+        return Objects.equals(tenantId, that.tenantId) && Objects.equals(userId, that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tenantId, userId);
+    }
+
+    @Override
+    public String toString() {
+        return "UserSearchFieldsChangedEvent{tenantId=" + tenantId + ", userId=" + userId + '}';
+    }
+}
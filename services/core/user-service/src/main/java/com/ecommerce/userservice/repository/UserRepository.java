@@ -4,10 +4,14 @@ import com.ecommerce.shared.security.repository.TenantAwareRepository;
 import com.ecommerce.userservice.entity.User;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,6 +53,18 @@ public interface UserRepository extends TenantAwareRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.tenantId = :tenantId ORDER BY u.createdAt DESC")
     List<User> findByTenantIdOrderByCreatedAtDesc(@Param("tenantId") String tenantId);
 
+    /**
+     * Auth user IDs of a tenant's newest users
+     */
+    @Query("SELECT u.authUserId FROM User u WHERE u.tenantId = :tenantId ORDER BY u.createdAt DESC")
+    List<Long> findNewestAuthUserIds(@Param("tenantId") String tenantId, Pageable pageable);
+
+    /**
+     * Find users by auth user IDs with everything a profile response reads, for cache warm-up
+     */
+    @EntityGraph(attributePaths = {"addresses", "userPreferences"})
+    List<User> findByTenantIdAndAuthUserIdIn(String tenantId, Collection<Long> authUserIds);
+
     /**
      * Search users by name or email within tenant
      */
@@ -59,6 +75,55 @@ public interface UserRepository extends TenantAwareRepository<User, Long> {
     List<User> searchUsersByNameOrEmail(@Param("tenantId") String tenantId, 
                                        @Param("searchTerm") String searchTerm);
 
+    /**
+     * Search users by name or email within tenant, one page at a time
+     */
+    @Query("SELECT u FROM User u WHERE u.tenantId = :tenantId AND " +
+           "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) ORDER BY u.id")
+    List<User> searchUsersByNameOrEmail(@Param("tenantId") String tenantId,
+                                       @Param("searchTerm") String searchTerm,
+                                       Pageable pageable);
+
+    /**
+     * Searchable fields of users with an ID above {@code afterId}, in ID order, for building the
+     * search index without loading whole entities
+     */
+    @Query("SELECT u.id AS id, u.tenantId AS tenantId, u.firstName AS firstName, u.lastName AS lastName, " +
+           "u.email AS email, u.updatedAt AS updatedAt FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<SearchFields> findSearchFieldsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Searchable fields of one user, for refreshing the search index after a write
+     */
+    @Query("SELECT u.id AS id, u.tenantId AS tenantId, u.firstName AS firstName, u.lastName AS lastName, " +
+           "u.email AS email, u.updatedAt AS updatedAt FROM User u WHERE u.id = :id")
+    Optional<SearchFields> findSearchFieldsById(@Param("id") Long id);
+
+    /**
+     * Searchable fields of users updated at or after {@code since} with an ID above
+     * {@code afterId}, in ID order, for reconciling the search index
+     */
+    @Query("SELECT u.id AS id, u.tenantId AS tenantId, u.firstName AS firstName, u.lastName AS lastName, " +
+           "u.email AS email, u.updatedAt AS updatedAt FROM User u " +
+           "WHERE u.updatedAt >= :since AND u.id > :afterId ORDER BY u.id")
+    List<SearchFields> findSearchFieldsUpdatedSince(@Param("since") LocalDateTime since,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    /**
+     * Users per tenant, for spotting tenants whose search index missed a deletion
+     */
+    @Query("SELECT u.tenantId AS tenantId, COUNT(u) AS users FROM User u GROUP BY u.tenantId")
+    List<TenantUserCount> countUsersPerTenant();
+
+    /**
+     * IDs of every user of a tenant
+     */
+    @Query("SELECT u.id FROM User u WHERE u.tenantId = :tenantId")
+    List<Long> findIdsByTenantId(@Param("tenantId") String tenantId);
+
     /**
      * Override save to clear cache
      */
@@ -101,4 +166,30 @@ public interface UserRepository extends TenantAwareRepository<User, Long> {
      */
     @Query("SELECT DISTINCT u.tenantId FROM User u")
     List<String> findDistinctTenantIds();
+
+    /**
+     * Projection of the fields the search index covers
+     */
+    interface SearchFields {
+        Long getId();
+
+        String getTenantId();
+
+        String getFirstName();
+
+        String getLastName();
+
+        String getEmail();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    /**
+     * Projection of {@link #countUsersPerTenant()}
+     */
+    interface TenantUserCount {
+        String getTenantId();
+
+        long getUsers();
+    }
 }
\ No newline at end of file
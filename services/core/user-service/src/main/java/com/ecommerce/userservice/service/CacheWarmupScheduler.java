@@ -1,5 +1,6 @@
 package com.ecommerce.userservice.service;
 
+import com.ecommerce.userservice.config.CacheWarmupProperties;
 import com.ecommerce.userservice.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,8 +11,11 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 
 /**
  * Service for scheduling cache warm-up operations
@@ -23,15 +27,22 @@ public class CacheWarmupScheduler {
 
     private final UserCacheService userCacheService;
     private final UserRepository userRepository;
+    private final UserAccessTracker userAccessTracker;
+    private final CacheWarmupProperties warmupProperties;
 
     @Autowired
-    public CacheWarmupScheduler(UserCacheService userCacheService, UserRepository userRepository) {
+    public CacheWarmupScheduler(UserCacheService userCacheService,
+                                UserRepository userRepository,
+                                UserAccessTracker userAccessTracker,
+                                CacheWarmupProperties warmupProperties) {
         this.userCacheService = userCacheService;
         this.userRepository = userRepository;
+        this.userAccessTracker = userAccessTracker;
+        this.warmupProperties = warmupProperties;
     }
 
     /**
-     * Warm up cache on application startup
+     * Warm up cache on application startup, from the hot sets saved before the restart
      */
     @EventListener(ApplicationReadyEvent.class)
     @Async
@@ -41,16 +52,7 @@ public class CacheWarmupScheduler {
         try {
             // Get all distinct tenant IDs
             List<String> tenantIds = userRepository.findDistinctTenantIds();
-            
-            for (String tenantId : tenantIds) {
-                try {
-                    userCacheService.warmUpUserCache(tenantId).get();
-                    logger.info("Completed cache warm-up for tenant: {}", tenantId);
-                } catch (Exception e) {
-                    logger.warn("Failed to warm up cache for tenant: {}", tenantId, e);
-                }
-            }
-            
+            warmUpTenants(tenantIds);
             logger.info("Completed cache warm-up on application startup for {} tenants", tenantIds.size());
         } catch (Exception e) {
             logger.error("Error during application startup cache warm-up", e);
@@ -60,7 +62,7 @@ public class CacheWarmupScheduler {
     }
 
     /**
-     * Scheduled cache refresh - runs every 2 hours
+     * Scheduled cache refresh - runs every 2 hours for tenants whose users were read since startup
      */
     @Scheduled(fixedRate = 7200000) // 2 hours in milliseconds
     @Async
@@ -68,28 +70,39 @@ public class CacheWarmupScheduler {
         logger.info("Starting scheduled cache refresh");
         
         try {
-            // Get all distinct tenant IDs
-            List<String> tenantIds = userRepository.findDistinctTenantIds();
-            
-            for (String tenantId : tenantIds) {
-                try {
-                    // Only warm up cache for active tenants (those with recent activity)
-                    long userCount = userRepository.countByTenantId(tenantId);
-                    if (userCount > 0) {
-                        userCacheService.warmUpUserCache(tenantId).get();
-                        logger.debug("Refreshed cache for tenant: {} ({} users)", tenantId, userCount);
-                    }
-                } catch (Exception e) {
-                    logger.warn("Failed to refresh cache for tenant: {}", tenantId, e);
-                }
-            }
-            
+            Collection<String> tenantIds = userAccessTracker.tenantIds();
+            warmUpTenants(tenantIds);
+            // Older reads count for half at the next refresh
+            userAccessTracker.decay();
             logger.info("Completed scheduled cache refresh for {} tenants", tenantIds.size());
         } catch (Exception e) {
             logger.error("Error during scheduled cache refresh", e);
         }
     }
 
+    // Tenants run in parallel, at most maxConcurrentTenants at a time
+    private void warmUpTenants(Collection<String> tenantIds) throws InterruptedException {
+        Semaphore permits = new Semaphore(Math.max(1, warmupProperties.getMaxConcurrentTenants()));
+        List<CompletableFuture<Void>> warmUps = new ArrayList<>();
+        for (String tenantId : tenantIds) {
+            permits.acquire();
+            try {
+                warmUps.add(userCacheService.warmUpUserCache(tenantId).whenComplete((result, e) -> {
+                    permits.release();
+                    if (e != null) {
+                        logger.warn("Failed to warm up cache for tenant: {}", tenantId, e);
+                    }
+                }));
+            } catch (Exception e) {
+                permits.release();
+                logger.warn("Failed to warm up cache for tenant: {}", tenantId, e);
+            }
+        }
+        CompletableFuture.allOf(warmUps.toArray(CompletableFuture[]::new))
+                .exceptionally(e -> null)
+                .join();
+    }
+
     /**
      * Cache health check - runs every 30 minutes
      */
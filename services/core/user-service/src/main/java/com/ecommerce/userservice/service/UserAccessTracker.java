@@ -0,0 +1,179 @@
+package com.ecommerce.userservice.service;
+
+import com.ecommerce.userservice.config.CacheWarmupProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate per-tenant read frequency of user profiles, used to pick which users to warm.
+ *
+ * Each tenant has a count-min sketch that counts profile reads in fixed memory, and a bounded
+ * set of candidates with the highest estimates. Counts are halved after every warm-up so the
+ * hot set follows recent traffic rather than all-time totals.
+ */
+@Component
+public class UserAccessTracker {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final Map<String, TenantSketch> tenants = new ConcurrentHashMap<>();
+    private final int width;
+    private final int hotSetSize;
+
+    @Autowired
+    public UserAccessTracker(CacheWarmupProperties properties) {
+        this.width = Integer.highestOneBit(Math.max(16, properties.getSketchWidth()) - 1) << 1;
+        this.hotSetSize = Math.max(1, properties.getHotSetSize());
+    }
+
+    /**
+     * Count one read of a user's profile
+     */
+    public void recordAccess(String tenantId, Long authUserId) {
+        tenants.computeIfAbsent(tenantId, id -> new TenantSketch(width, hotSetSize)).record(authUserId, 1);
+    }
+
+    /**
+     * Restore counts saved before a restart, on top of any reads recorded since
+     */
+    public void seed(String tenantId, Collection<HotUser> hotUsers) {
+        TenantSketch sketch = tenants.computeIfAbsent(tenantId, id -> new TenantSketch(width, hotSetSize));
+        for (HotUser hotUser : hotUsers) {
+            sketch.record(hotUser.getAuthUserId(), hotUser.getCount());
+        }
+    }
+
+    /**
+     * Most read users of a tenant, most read first
+     */
+    public List<HotUser> hotUsers(String tenantId, int limit) {
+        TenantSketch sketch = tenants.get(tenantId);
+        return sketch != null ? sketch.hotUsers(limit) : List.of();
+    }
+
+    /**
+     * Tenants with recorded reads
+     */
+    public Set<String> tenantIds() {
+        return Set.copyOf(tenants.keySet());
+    }
+
+    /**
+     * Halve every count so older reads weigh less than recent ones
+     */
+    public void decay() {
+        tenants.values().forEach(TenantSketch::decay);
+    }
+
+    /**
+     * A user and its estimated read count
+     */
+    public static final class HotUser {
+        private final long authUserId;
+        private final long count;
+
+        public HotUser(long authUserId, long count) {
+            this.authUserId = authUserId;
+            this.count = count;
+        }
+
+        public long getAuthUserId() {
+            return authUserId;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    private static final class TenantSketch {
+        private final int[][] counters;
+        private final int mask;
+        private final int capacity;
+        private final Map<Long, Long> candidates = new HashMap<>();
+        // Smallest estimate kept at the last prune; colder users are not tracked
+        private long admissionThreshold;
+
+        TenantSketch(int width, int capacity) {
+            this.counters = new int[DEPTH][width];
+            this.mask = width - 1;
+            this.capacity = capacity;
+        }
+
+        synchronized void record(long authUserId, long amount) {
+            long estimate = add(authUserId, amount);
+            if (candidates.containsKey(authUserId) || estimate > admissionThreshold) {
+                candidates.put(authUserId, estimate);
+                // Prune in bulk so recording stays O(1) amortized
+                if (candidates.size() > capacity * 2) {
+                    prune();
+                }
+            }
+        }
+
+        synchronized List<HotUser> hotUsers(int limit) {
+            return candidates.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> new HotUser(entry.getKey(), entry.getValue()))
+                .toList();
+        }
+
+        synchronized void decay() {
+            for (int[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>>= 1;
+                }
+            }
+            candidates.replaceAll((authUserId, count) -> count >>> 1);
+            candidates.values().removeIf(count -> count == 0);
+            admissionThreshold >>>= 1;
+        }
+
+        // Conservative update: only counters below the new estimate are raised
+        private long add(long authUserId, long amount) {
+            long current = Long.MAX_VALUE;
+            int[] slots = new int[DEPTH];
+            for (int row = 0; row < DEPTH; row++) {
+                slots[row] = slot(authUserId, row);
+                current = Math.min(current, counters[row][slots[row]]);
+            }
+            int estimate = (int) Math.min(Integer.MAX_VALUE, current + amount);
+            for (int row = 0; row < DEPTH; row++) {
+                if (counters[row][slots[row]] < estimate) {
+                    counters[row][slots[row]] = estimate;
+                }
+            }
+            return estimate;
+        }
+
+        private int slot(long authUserId, int row) {
+            long h = authUserId ^ SEEDS[row];
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            return (int) h & mask;
+        }
+
+        private void prune() {
+            List<Map.Entry<Long, Long>> entries = new ArrayList<>(candidates.entrySet());
+            entries.sort(Map.Entry.comparingByValue(Comparator.reverseOrder()));
+            for (Map.Entry<Long, Long> evicted : entries.subList(capacity, entries.size())) {
+                candidates.remove(evicted.getKey());
+            }
+            admissionThreshold = entries.get(capacity - 1).getValue();
+        }
+    }
+}
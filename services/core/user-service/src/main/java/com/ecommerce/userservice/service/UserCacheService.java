@@ -1,22 +1,34 @@
 package com.ecommerce.userservice.service;
 
 import com.ecommerce.userservice.config.CacheConfig;
+import com.ecommerce.userservice.config.CacheWarmupProperties;
 import com.ecommerce.userservice.dto.UserProfileResponse;
 import com.ecommerce.userservice.entity.User;
 import com.ecommerce.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing user profile caching with cache-aside pattern and warming strategies
@@ -25,18 +37,35 @@ import java.util.concurrent.TimeUnit;
 public class UserCacheService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserCacheService.class);
+
+    private static final String HOT_SET_KEY_PREFIX = CacheConfig.CACHE_KEY_PREFIX + "hot-users:";
     
     private final CacheManager cacheManager;
     private final RedisTemplate<String, Object> redisTemplate;
     private final UserRepository userRepository;
+    private final UserAccessTracker userAccessTracker;
+    private final CacheWarmupProperties warmupProperties;
+    private final Counter hitCounter;
+    private final Counter missCounter;
 
     @Autowired
     public UserCacheService(CacheManager cacheManager, 
                            RedisTemplate<String, Object> redisTemplate,
-                           UserRepository userRepository) {
+                           UserRepository userRepository,
+                           UserAccessTracker userAccessTracker,
+                           CacheWarmupProperties warmupProperties,
+                           MeterRegistry meterRegistry) {
         this.cacheManager = cacheManager;
         this.redisTemplate = redisTemplate;
         this.userRepository = userRepository;
+        this.userAccessTracker = userAccessTracker;
+        this.warmupProperties = warmupProperties;
+        this.hitCounter = Counter.builder("user.profile_cache.hits")
+                .description("Profile lookups served from the cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("user.profile_cache.misses")
+                .description("Profile lookups that missed the cache")
+                .register(meterRegistry);
     }
 
     /**
@@ -51,14 +80,17 @@ public class UserCacheService {
                 Cache.ValueWrapper wrapper = cache.get(cacheKey);
                 if (wrapper != null) {
                     logger.debug("Cache hit for user profile: {}", cacheKey);
+                    hitCounter.increment();
                     return Optional.of((UserProfileResponse) wrapper.get());
                 }
             }
             
             logger.debug("Cache miss for user profile: {}", cacheKey);
+            missCounter.increment();
             return Optional.empty();
         } catch (Exception e) {
             logger.warn("Error accessing cache for user profile: {}", cacheKey, e);
+            missCounter.increment();
             return Optional.empty();
         }
     }
@@ -92,14 +124,17 @@ public class UserCacheService {
                 Cache.ValueWrapper wrapper = cache.get(cacheKey);
                 if (wrapper != null) {
                     logger.debug("Cache hit for user profile by email: {}", cacheKey);
+                    hitCounter.increment();
                     return Optional.of((UserProfileResponse) wrapper.get());
                 }
             }
             
             logger.debug("Cache miss for user profile by email: {}", cacheKey);
+            missCounter.increment();
             return Optional.empty();
         } catch (Exception e) {
             logger.warn("Error accessing cache for user profile by email: {}", cacheKey, e);
+            missCounter.increment();
             return Optional.empty();
         }
     }
@@ -185,33 +220,37 @@ public class UserCacheService {
     }
 
     /**
-     * Warm up cache for frequently accessed users
+     * Warm up cache for the tenant's most read users
+     *
+     * The users come from {@link UserAccessTracker}; right after a restart, from the hot set
+     * saved by the previous warm-up; and for a tenant with no reads yet, the newest users. They
+     * are loaded in pages and each page is written to Redis in a single pipeline.
      */
     @Async
     public CompletableFuture<Void> warmUpUserCache(String tenantId) {
         logger.info("Starting cache warm-up for tenant: {}", tenantId);
         
         try {
-            // Get recently active users (last 100 users by creation date)
-            List<User> recentUsers = userRepository.findByTenantIdOrderByCreatedAtDesc(tenantId)
-                    .stream()
-                    .limit(100)
-                    .toList();
-            
-            for (User user : recentUsers) {
-                try {
-                    UserProfileResponse userProfile = new UserProfileResponse(user);
-                    putUserProfileInCache(tenantId, user.getAuthUserId(), userProfile);
-                    putUserProfileByEmailInCache(tenantId, user.getEmail(), userProfile);
-                    
-                    // Small delay to avoid overwhelming the cache
-                    Thread.sleep(10);
-                } catch (Exception e) {
-                    logger.warn("Error warming up cache for user: {}", user.getId(), e);
-                }
+            List<UserAccessTracker.HotUser> hotUsers = userAccessTracker.hotUsers(tenantId, warmupProperties.getHotSetSize());
+            if (hotUsers.isEmpty()) {
+                hotUsers = loadHotSet(tenantId);
+                userAccessTracker.seed(tenantId, hotUsers);
+            } else {
+                saveHotSet(tenantId, hotUsers);
+            }
+
+            List<Long> authUserIds = hotUsers.isEmpty()
+                    ? userRepository.findNewestAuthUserIds(tenantId, PageRequest.of(0, warmupProperties.getNewestUsersFallback()))
+                    : hotUsers.stream().map(UserAccessTracker.HotUser::getAuthUserId).toList();
+
+            int cached = 0;
+            int batchSize = Math.max(1, warmupProperties.getFetchBatchSize());
+            for (int from = 0; from < authUserIds.size(); from += batchSize) {
+                List<Long> batch = authUserIds.subList(from, Math.min(authUserIds.size(), from + batchSize));
+                cached += cacheUsers(tenantId, userRepository.findByTenantIdAndAuthUserIdIn(tenantId, batch));
             }
             
-            logger.info("Completed cache warm-up for tenant: {} ({} users cached)", tenantId, recentUsers.size());
+            logger.info("Completed cache warm-up for tenant: {} ({} users cached)", tenantId, cached);
         } catch (Exception e) {
             logger.error("Error during cache warm-up for tenant: {}", tenantId, e);
         }
@@ -243,24 +282,25 @@ public class UserCacheService {
     }
 
     /**
-     * Get cache statistics
+     * Get cache statistics; hits and misses are profile lookups since startup
      */
     public CacheStatistics getCacheStatistics() {
+        long hits = (long) hitCounter.count();
+        long misses = (long) missCounter.count();
         try {
-            // Get cache hit/miss statistics from Redis
-            String userProfileCacheKey = "user-service:" + CacheConfig.USER_PROFILE_CACHE + ":*";
+            String userProfileCacheKey = CacheConfig.CACHE_KEY_PREFIX + CacheConfig.USER_PROFILE_CACHE + ":*";
             Long userProfileCacheSize = redisTemplate.countExistingKeys(
                 redisTemplate.keys(userProfileCacheKey)
             );
             
             return new CacheStatistics(
                 userProfileCacheSize != null ? userProfileCacheSize : 0L,
-                0L, // Hit count would need to be tracked separately
-                0L  // Miss count would need to be tracked separately
+                hits,
+                misses
             );
         } catch (Exception e) {
             logger.warn("Error getting cache statistics", e);
-            return new CacheStatistics(0L, 0L, 0L);
+            return new CacheStatistics(0L, hits, misses);
         }
     }
 
@@ -280,6 +320,70 @@ public class UserCacheService {
         }
     }
 
+    private int cacheUsers(String tenantId, List<User> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        pipelined(operations -> {
+            ValueOperations<String, Object> values = operations.opsForValue();
+            for (User user : users) {
+                UserProfileResponse userProfile = new UserProfileResponse(user);
+                values.set(CacheConfig.redisKey(CacheConfig.USER_PROFILE_CACHE, buildUserCacheKey(tenantId, user.getAuthUserId())),
+                        userProfile, CacheConfig.USER_PROFILE_CACHE_TTL);
+                values.set(CacheConfig.redisKey(CacheConfig.USER_PROFILE_CACHE, buildUserEmailCacheKey(tenantId, user.getEmail())),
+                        userProfile, CacheConfig.USER_PROFILE_CACHE_TTL);
+            }
+        });
+        return users.size();
+    }
+
+    // Saved as a sorted set scored by read count, so a restarted instance warms the same users
+    private void saveHotSet(String tenantId, List<UserAccessTracker.HotUser> hotUsers) {
+        String key = HOT_SET_KEY_PREFIX + tenantId;
+        Set<ZSetOperations.TypedTuple<Object>> entries = hotUsers.stream()
+                .map(hotUser -> (ZSetOperations.TypedTuple<Object>)
+                        new DefaultTypedTuple<Object>(hotUser.getAuthUserId(), (double) hotUser.getCount()))
+                .collect(Collectors.toSet());
+        try {
+            pipelined(operations -> {
+                operations.delete(key);
+                operations.opsForZSet().add(key, entries);
+                operations.expire(key, warmupProperties.getHotSetRetention());
+            });
+        } catch (Exception e) {
+            logger.warn("Error saving hot users for tenant: {}", tenantId, e);
+        }
+    }
+
+    private List<UserAccessTracker.HotUser> loadHotSet(String tenantId) {
+        try {
+            Set<ZSetOperations.TypedTuple<Object>> entries = redisTemplate.opsForZSet()
+                    .reverseRangeWithScores(HOT_SET_KEY_PREFIX + tenantId, 0, warmupProperties.getHotSetSize() - 1);
+            if (entries == null) {
+                return List.of();
+            }
+            // Small IDs come back from JSON as Integer
+            return entries.stream()
+                    .filter(entry -> entry.getValue() instanceof Number && entry.getScore() != null)
+                    .map(entry -> new UserAccessTracker.HotUser(((Number) entry.getValue()).longValue(), entry.getScore().longValue()))
+                    .toList();
+        } catch (Exception e) {
+            logger.warn("Error loading hot users for tenant: {}", tenantId, e);
+            return List.of();
+        }
+    }
+
+    private void pipelined(Consumer<RedisOperations<String, Object>> commands) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                commands.accept((RedisOperations<String, Object>) operations);
+                return null;
+            }
+        });
+    }
+
     private String buildUserCacheKey(String tenantId, Long authUserId) {
         return tenantId + ":user:" + authUserId;
     }
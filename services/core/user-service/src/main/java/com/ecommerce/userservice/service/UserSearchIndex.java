@@ -0,0 +1,648 @@
+package com.ecommerce.userservice.service;
+
+import com.ecommerce.userservice.entity.User;
+import com.ecommerce.userservice.event.UserSearchFieldsChangedEvent;
+import com.ecommerce.userservice.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory trigram index over user first name, last name and email, one per tenant.
+ *
+ * Each user is a document holding its lowercased fields. Every trigram maps to a delta-encoded
+ * list of the documents containing it; a search walks the shortest list among the query's
+ * trigrams and confirms each candidate with a substring check, which covers prefix and infix
+ * matches alike. Queries shorter than three characters scan the tenant's documents. Matches come
+ * back in index order, and the walk stops as soon as the requested page is full.
+ *
+ * An update appends a new document and drops the old one; a tenant is compacted once dropped
+ * documents outnumber live ones. The index is built from the database on startup and
+ * {@link #isReady()} stays false until then, so callers can fall back to the database.
+ *
+ * Every instance holds its own index. Once a write commits, the user's ID is published on a Redis
+ * channel and each instance reloads that user's row, so the index only ever holds committed
+ * fields. Each document keeps the row's update time, and an older row never replaces a newer
+ * one, whatever order the reloads finish in. Messages can be lost, so the index is also
+ * reconciled on a fixed delay: rows updated since the last pass (less an overlap for clock skew
+ * and long transactions) are reloaded, and tenants holding more documents than users are swept
+ * of the deleted ones.
+ */
+@Component
+public class UserSearchIndex implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    /** Redis channel carrying "userId:tenantId" of users whose searchable fields changed */
+    public static final String CHANNEL = "user-service:search-index-changed";
+
+    static final int TRIGRAM_LENGTH = 3;
+    private static final char FIELD_SEPARATOR = '\n';
+    private static final int MIN_DEAD_BEFORE_COMPACTION = 1024;
+
+    private final Map<String, TenantIndex> tenants = new ConcurrentHashMap<>();
+    private final Set<Long> removedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final int rebuildBatchSize;
+    private final Duration reconcileOverlap;
+    private final Clock clock;
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    private volatile LocalDateTime reconciledUpTo;
+
+    @Autowired
+    public UserSearchIndex(UserRepository userRepository,
+                           StringRedisTemplate redisTemplate,
+                           @Value("${user.search.index.enabled:true}") boolean enabled,
+                           @Value("${user.search.index.rebuild-batch-size:5000}") int rebuildBatchSize,
+                           @Value("${user.search.index.reconcile-overlap-ms:300000}") long reconcileOverlapMillis) {
+        this(userRepository, redisTemplate, enabled, rebuildBatchSize, Duration.ofMillis(reconcileOverlapMillis),
+            Clock.systemDefaultZone());
+    }
+
+    UserSearchIndex(UserRepository userRepository, StringRedisTemplate redisTemplate, boolean enabled,
+                    int rebuildBatchSize, Duration reconcileOverlap, Clock clock) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.reconcileOverlap = reconcileOverlap;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether the index has been built and can answer searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Index a user as of now, replacing whatever was indexed for it before
+     */
+    public void put(String tenantId, Long userId, String firstName, String lastName, String email) {
+        if (!enabled) {
+            return;
+        }
+        tenant(tenantId).put(userId, document(firstName, lastName, email), version(LocalDateTime.now(clock)), true);
+    }
+
+    public void remove(String tenantId, Long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (rebuilding) {
+            removedDuringRebuild.add(userId);
+        }
+        TenantIndex index = tenants.get(tenantId);
+        if (index != null) {
+            index.remove(userId);
+        }
+    }
+
+    /**
+     * Reload a user from the database: index its committed fields, or drop it if it is gone
+     */
+    public void refresh(String tenantId, Long userId) {
+        if (!enabled) {
+            return;
+        }
+        userRepository.findSearchFieldsById(userId).ifPresentOrElse(
+            this::apply,
+            () -> remove(tenantId, userId));
+    }
+
+    /**
+     * Runs once the write is committed, or straight away outside a transaction
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserSearchFieldsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        refresh(event.getTenantId(), event.getUserId());
+        try {
+            redisTemplate.convertAndSend(CHANNEL, event.getUserId() + ":" + event.getTenantId());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to broadcast {}, other instances pick it up when they reconcile", event, e);
+        }
+    }
+
+    /**
+     * A change published on {@link #CHANNEL} by any instance, this one included
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        try {
+            refresh(body.substring(separator + 1), Long.valueOf(body.substring(0, separator)));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply search index change {}: {}", body, e.getMessage());
+        }
+    }
+
+    /**
+     * Find users whose first name, last name or email contains the query, ignoring case
+     *
+     * @param offset matches to skip
+     * @param limit  most matches to return
+     * @return matching user IDs in index order
+     */
+    public List<Long> search(String tenantId, String query, int offset, int limit) {
+        TenantIndex index = tenants.get(tenantId);
+        if (index == null || limit <= 0) {
+            return List.of();
+        }
+        return index.search(normalize(query), offset, limit);
+    }
+
+    /**
+     * Whether a user matches a query the way {@link #search} matches it
+     */
+    public static boolean matches(User user, String query) {
+        return document(user.getFirstName(), user.getLastName(), user.getEmail()).contains(normalize(query));
+    }
+
+    /**
+     * Users indexed for a tenant
+     */
+    public int size(String tenantId) {
+        TenantIndex index = tenants.get(tenantId);
+        return index != null ? index.size() : 0;
+    }
+
+    /**
+     * Build the index on startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Async
+    public void rebuildOnStartup() {
+        if (!enabled) {
+            logger.info("User search index is disabled; searches will use the database");
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to build user search index; searches will keep using the database", e);
+        }
+    }
+
+    /**
+     * Reload every user from the database. Searches fall back to the database meanwhile; writes
+     * made while it runs are applied on top of the loaded rows.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now(clock);
+        ready = false;
+        rebuilding = true;
+        removedDuringRebuild.clear();
+        tenants.clear();
+        long indexed = 0;
+        try {
+            long afterId = 0;
+            List<UserRepository.SearchFields> batch;
+            do {
+                batch = userRepository.findSearchFieldsAfter(afterId, PageRequest.of(0, rebuildBatchSize));
+                for (UserRepository.SearchFields user : batch) {
+                    // Rows read before a concurrent write never replace what that write indexed
+                    if (!removedDuringRebuild.contains(user.getId())) {
+                        tenant(user.getTenantId()).put(user.getId(),
+                            document(user.getFirstName(), user.getLastName(), user.getEmail()),
+                            version(user.getUpdatedAt()), false);
+                    }
+                    afterId = user.getId();
+                }
+                indexed += batch.size();
+            } while (batch.size() == rebuildBatchSize);
+            reconciledUpTo = startedAt;
+            ready = true;
+        } finally {
+            rebuilding = false;
+            removedDuringRebuild.clear();
+        }
+        logger.info("Built user search index: {} users across {} tenants in {} ms",
+            indexed, tenants.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Catch up on writes whose change messages this instance missed
+     */
+    @Scheduled(fixedDelayString = "${user.search.index.reconcile-interval-ms:60000}")
+    public synchronized void reconcile() {
+        if (!enabled || !ready) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now(clock);
+        LocalDateTime since = reconciledUpTo.minus(reconcileOverlap);
+        long reloaded = 0;
+        long afterId = 0;
+        List<UserRepository.SearchFields> batch;
+        do {
+            batch = userRepository.findSearchFieldsUpdatedSince(since, afterId, PageRequest.of(0, rebuildBatchSize));
+            for (UserRepository.SearchFields user : batch) {
+                apply(user);
+                afterId = user.getId();
+            }
+            reloaded += batch.size();
+        } while (batch.size() == rebuildBatchSize);
+
+        // Deletions leave no row to find by update time; a tenant with more documents than users
+        // missed one
+        long swept = 0;
+        Map<String, Long> counts = new HashMap<>();
+        for (UserRepository.TenantUserCount count : userRepository.countUsersPerTenant()) {
+            counts.put(count.getTenantId(), count.getUsers());
+        }
+        for (Map.Entry<String, TenantIndex> tenant : tenants.entrySet()) {
+            if (tenant.getValue().size() > counts.getOrDefault(tenant.getKey(), 0L)) {
+                // Listed before reading the IDs, so a user created meanwhile is never swept
+                long[] indexed = tenant.getValue().userIds();
+                Set<Long> existing = new HashSet<>(userRepository.findIdsByTenantId(tenant.getKey()));
+                for (long userId : indexed) {
+                    if (!existing.contains(userId)) {
+                        tenant.getValue().remove(userId);
+                        swept++;
+                    }
+                }
+            }
+        }
+        reconciledUpTo = startedAt;
+        if (reloaded > 0 || swept > 0) {
+            logger.debug("Reconciled user search index: {} users reloaded, {} deleted users dropped", reloaded, swept);
+        }
+    }
+
+    private void apply(UserRepository.SearchFields user) {
+        tenant(user.getTenantId()).put(user.getId(),
+            document(user.getFirstName(), user.getLastName(), user.getEmail()), version(user.getUpdatedAt()), true);
+    }
+
+    private TenantIndex tenant(String tenantId) {
+        return tenants.computeIfAbsent(tenantId, id -> new TenantIndex());
+    }
+
+    static String normalize(String query) {
+        return query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // Fields are separated so a match never spans two of them
+    static String document(String firstName, String lastName, String email) {
+        return (nullToEmpty(firstName) + FIELD_SEPARATOR + nullToEmpty(lastName) + FIELD_SEPARATOR + nullToEmpty(email))
+            .toLowerCase(Locale.ROOT);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    // Rows without an update time never replace an indexed document
+    private static long version(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return Long.MIN_VALUE;
+        }
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + updatedAt.getNano();
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Documents of one tenant. Document IDs only grow until compaction, so posting lists stay
+     * sorted by appending.
+     */
+    private static final class TenantIndex {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private Map<Long, PostingList> postings = new HashMap<>();
+        private LongIntMap docsByUser = new LongIntMap();
+        private long[] userIds = new long[16];
+        // null once a document is dropped
+        private String[] documents = new String[16];
+        // Update time of the row each document was read from
+        private long[] versions = new long[16];
+        private int docCount;
+        private int deadCount;
+
+        void put(long userId, String document, long version, boolean replace) {
+            lock.writeLock().lock();
+            try {
+                int existing = docsByUser.get(userId);
+                if (existing >= 0) {
+                    if (!replace || version < versions[existing]) {
+                        return;
+                    }
+                    if (documents[existing].equals(document)) {
+                        versions[existing] = version;
+                        return;
+                    }
+                    drop(existing);
+                }
+                append(userId, document, version);
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long userId) {
+            lock.writeLock().lock();
+            try {
+                int doc = docsByUser.remove(userId);
+                if (doc >= 0) {
+                    drop(doc);
+                    compactIfNeeded();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long[] userIds() {
+            lock.readLock().lock();
+            try {
+                long[] live = new long[docCount - deadCount];
+                int i = 0;
+                for (int doc = 0; doc < docCount; doc++) {
+                    if (documents[doc] != null) {
+                        live[i++] = userIds[doc];
+                    }
+                }
+                return live;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return docCount - deadCount;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<Long> search(String query, int offset, int limit) {
+            lock.readLock().lock();
+            try {
+                List<Long> matches = new ArrayList<>(Math.min(limit, 64));
+                int[] toSkip = {offset};
+                IntPredicate collect = doc -> {
+                    String document = documents[doc];
+                    if (document != null && document.contains(query)) {
+                        if (toSkip[0] > 0) {
+                            toSkip[0]--;
+                        } else {
+                            matches.add(userIds[doc]);
+                        }
+                    }
+                    return matches.size() < limit;
+                };
+
+                if (query.length() < TRIGRAM_LENGTH) {
+                    int doc = 0;
+                    while (doc < docCount && collect.test(doc)) {
+                        doc++;
+                    }
+                } else {
+                    PostingList candidates = shortestPostingList(query);
+                    if (candidates != null) {
+                        candidates.scan(collect);
+                    }
+                }
+                return matches;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // null if some trigram of the query is in no document
+        private PostingList shortestPostingList(String query) {
+            PostingList shortest = null;
+            for (int i = 0; i + TRIGRAM_LENGTH <= query.length(); i++) {
+                PostingList list = postings.get(trigram(query, i));
+                if (list == null) {
+                    return null;
+                }
+                if (shortest == null || list.count < shortest.count) {
+                    shortest = list;
+                }
+            }
+            return shortest;
+        }
+
+        private void append(long userId, String document, long version) {
+            if (docCount == userIds.length) {
+                userIds = Arrays.copyOf(userIds, docCount * 2);
+                documents = Arrays.copyOf(documents, docCount * 2);
+                versions = Arrays.copyOf(versions, docCount * 2);
+            }
+            int doc = docCount++;
+            userIds[doc] = userId;
+            documents[doc] = document;
+            versions[doc] = version;
+            docsByUser.put(userId, doc);
+            for (int i = 0; i + TRIGRAM_LENGTH <= document.length(); i++) {
+                if (document.charAt(i) == FIELD_SEPARATOR
+                        || document.charAt(i + 1) == FIELD_SEPARATOR
+                        || document.charAt(i + 2) == FIELD_SEPARATOR) {
+                    continue;
+                }
+                postings.computeIfAbsent(trigram(document, i), key -> new PostingList()).add(doc);
+            }
+        }
+
+        // Posting lists keep pointing at the document; the null check in search skips it
+        private void drop(int doc) {
+            documents[doc] = null;
+            deadCount++;
+        }
+
+        private void compactIfNeeded() {
+            int live = docCount - deadCount;
+            if (deadCount < Math.max(MIN_DEAD_BEFORE_COMPACTION, live)) {
+                return;
+            }
+            long[] oldUserIds = userIds;
+            String[] oldDocuments = documents;
+            long[] oldVersions = versions;
+            int oldDocCount = docCount;
+            int capacity = Math.max(16, live * 2);
+            userIds = new long[capacity];
+            documents = new String[capacity];
+            versions = new long[capacity];
+            postings = new HashMap<>();
+            docsByUser = new LongIntMap();
+            docCount = 0;
+            deadCount = 0;
+            for (int doc = 0; doc < oldDocCount; doc++) {
+                if (oldDocuments[doc] != null) {
+                    append(oldUserIds[doc], oldDocuments[doc], oldVersions[doc]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ascending document IDs stored as variable-length deltas, usually one byte each
+     */
+    private static final class PostingList {
+        private byte[] data = new byte[4];
+        private int length;
+        private int count;
+        private int lastDoc = -1;
+
+        void add(int doc) {
+            // A trigram repeated within one document is listed once
+            if (doc == lastDoc) {
+                return;
+            }
+            int delta = doc - lastDoc;
+            lastDoc = doc;
+            count++;
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+            }
+            while ((delta & ~0x7F) != 0) {
+                data[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+        }
+
+        /**
+         * Visit documents in order until the visitor returns false
+         */
+        void scan(IntPredicate visitor) {
+            int position = 0;
+            int doc = -1;
+            while (position < length) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += delta;
+                if (!visitor.test(doc)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Open-addressing map from user ID to document ID. User IDs are positive, so 0 marks a free
+     * slot; a removed key keeps its slot with value -1 until the next resize.
+     */
+    private static final class LongIntMap {
+        private long[] keys = new long[16];
+        private int[] values = new int[16];
+        private int used;
+
+        int get(long key) {
+            int slot = find(key);
+            return keys[slot] == key ? values[slot] : -1;
+        }
+
+        void put(long key, int value) {
+            if ((used + 1) * 4 > keys.length * 3) {
+                resize();
+            }
+            insert(key, value);
+        }
+
+        int remove(long key) {
+            int slot = find(key);
+            if (keys[slot] != key) {
+                return -1;
+            }
+            int value = values[slot];
+            values[slot] = -1;
+            return value;
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void insert(long key, int value) {
+            int slot = find(key);
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                used++;
+            }
+            values[slot] = value;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            int live = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0 && oldValues[i] >= 0) {
+                    live++;
+                }
+            }
+            int capacity = 16;
+            while (capacity < (live + 1) * 2) {
+                capacity <<= 1;
+            }
+            keys = new long[capacity];
+            values = new int[capacity];
+            used = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0 && oldValues[i] >= 0) {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -6,17 +6,22 @@ import com.ecommerce.userservice.dto.UpdateUserProfileRequest;
 import com.ecommerce.userservice.dto.UserProfileResponse;
 import com.ecommerce.userservice.entity.User;
 import com.ecommerce.userservice.entity.UserPreferences;
+import com.ecommerce.userservice.event.UserSearchFieldsChangedEvent;
 import com.ecommerce.userservice.repository.UserPreferencesRepository;
 import com.ecommerce.userservice.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -28,17 +33,29 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    public static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final UserPreferencesRepository userPreferencesRepository;
     private final UserCacheService userCacheService;
+    private final UserSearchIndex userSearchIndex;
+    private final UserAccessTracker userAccessTracker;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public UserService(UserRepository userRepository, 
                       UserPreferencesRepository userPreferencesRepository,
-                      UserCacheService userCacheService) {
+                      UserCacheService userCacheService,
+                      UserSearchIndex userSearchIndex,
+                      UserAccessTracker userAccessTracker,
+                      ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.userPreferencesRepository = userPreferencesRepository;
         this.userCacheService = userCacheService;
+        this.userSearchIndex = userSearchIndex;
+        this.userAccessTracker = userAccessTracker;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -72,6 +89,7 @@ public class UserService {
         UserPreferences preferences = new UserPreferences(savedUser);
         userPreferencesRepository.save(preferences);
         savedUser.setUserPreferences(preferences);
+        eventPublisher.publishEvent(new UserSearchFieldsChangedEvent(tenantId, savedUser.getId()));
 
         logger.info("Successfully created user profile with ID: {} for tenant: {}", savedUser.getId(), tenantId);
         return new UserProfileResponse(savedUser);
@@ -83,6 +101,7 @@ public class UserService {
     @Transactional(readOnly = true)
     public UserProfileResponse getUserProfile(String tenantId, Long authUserId) {
         logger.debug("Retrieving user profile for tenant: {} with authUserId: {}", tenantId, authUserId);
+        userAccessTracker.recordAccess(tenantId, authUserId);
 
         // Try to get from cache first
         Optional<UserProfileResponse> cachedProfile = userCacheService.getUserProfileFromCache(tenantId, authUserId);
@@ -157,6 +176,7 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserSearchFieldsChangedEvent(tenantId, updatedUser.getId()));
         
         // Comprehensive cache invalidation
         userCacheService.invalidateUserProfileCache(tenantId, authUserId);
@@ -190,6 +210,7 @@ public class UserService {
         userCacheService.invalidateUserProfileCacheByEmail(tenantId, user.getEmail());
 
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserSearchFieldsChangedEvent(tenantId, user.getId()));
         logger.info("Successfully deleted user profile with ID: {} for tenant: {}", user.getId(), tenantId);
     }
 
@@ -234,15 +255,46 @@ public class UserService {
     }
 
     /**
-     * Search users by name or email with caching
+     * Search users by name or email, first page only
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "user-search", key = "#tenantId + ':search:' + #searchTerm")
     public List<UserProfileResponse> searchUsers(String tenantId, String searchTerm) {
-        logger.debug("Searching users for tenant: {} with term: {}", tenantId, searchTerm);
+        return searchUsers(tenantId, searchTerm, 0, DEFAULT_SEARCH_PAGE_SIZE);
+    }
 
-        List<User> users = userRepository.searchUsersByNameOrEmail(tenantId, searchTerm);
-        return users.stream()
+    /**
+     * Search users whose name or email contains the term, served from the search index once it
+     * is built and from the database until then. The index picks up writes once they commit.
+     */
+    @Transactional(readOnly = true)
+    public List<UserProfileResponse> searchUsers(String tenantId, String searchTerm, int page, int size) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+        logger.debug("Searching users for tenant: {} with term: {} (page {}, size {})",
+                tenantId, searchTerm, pageNumber, pageSize);
+
+        if (!userSearchIndex.isReady()) {
+            return userRepository.searchUsersByNameOrEmail(tenantId, searchTerm, PageRequest.of(pageNumber, pageSize))
+                    .stream()
+                    .map(UserProfileResponse::new)
+                    .toList();
+        }
+
+        int offset = (int) Math.min((long) pageNumber * pageSize, Integer.MAX_VALUE);
+        List<Long> userIds = userSearchIndex.search(tenantId, searchTerm, offset, pageSize);
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, User> usersById = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            usersById.put(user.getId(), user);
+        }
+        // The index trails writes on other instances, so re-check against the committed rows
+        return userIds.stream()
+                .map(usersById::get)
+                .filter(user -> user != null && tenantId.equals(user.getTenantId())
+                        && UserSearchIndex.matches(user, searchTerm))
                 .map(UserProfileResponse::new)
                 .toList();
     }
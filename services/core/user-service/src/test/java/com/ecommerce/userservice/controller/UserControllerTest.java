@@ -273,7 +273,7 @@ class UserControllerTest {
     void searchUsers_Success() throws Exception {
         // Given
         List<UserProfileResponse> users = Arrays.asList(userProfileResponse);
-        when(userService.searchUsers(tenantId, "John")).thenReturn(users);
+        when(userService.searchUsers(tenantId, "John", 0, 20)).thenReturn(users);
 
         // When & Then
         mockMvc.perform(get("/api/v1/users/search")
@@ -284,6 +284,23 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[0].firstName").value("John"));
     }
 
+    @Test
+    @WithMockUser
+    void searchUsers_WithPage_PassesPageThrough() throws Exception {
+        // Given
+        List<UserProfileResponse> users = Arrays.asList(userProfileResponse);
+        when(userService.searchUsers(tenantId, "john", 2, 50)).thenReturn(users);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/search")
+                .header("X-Tenant-ID", tenantId)
+                .param("q", "john")
+                .param("page", "2")
+                .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName").value("John"));
+    }
+
     @Test
     @WithMockUser
     void getAllUsers_Success() throws Exception {
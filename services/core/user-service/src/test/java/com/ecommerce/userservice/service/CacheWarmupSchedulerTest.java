@@ -1,5 +1,6 @@
 package com.ecommerce.userservice.service;
 
+import com.ecommerce.userservice.config.CacheWarmupProperties;
 import com.ecommerce.userservice.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,8 +10,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -23,11 +28,17 @@ class CacheWarmupSchedulerTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserAccessTracker userAccessTracker;
+
+    private CacheWarmupProperties warmupProperties;
+
     private CacheWarmupScheduler cacheWarmupScheduler;
 
     @BeforeEach
     void setUp() {
-        cacheWarmupScheduler = new CacheWarmupScheduler(userCacheService, userRepository);
+        warmupProperties = new CacheWarmupProperties();
+        cacheWarmupScheduler = new CacheWarmupScheduler(userCacheService, userRepository, userAccessTracker, warmupProperties);
     }
 
     @Test
@@ -50,25 +61,49 @@ class CacheWarmupSchedulerTest {
     }
 
     @Test
-    void testScheduledCacheRefresh() throws Exception {
+    void testWarmUpCacheOnStartup_RunsTenantsInParallelUpToLimit() throws Exception {
         // Arrange
-        List<String> tenantIds = Arrays.asList("tenant1", "tenant2");
-        when(userRepository.findDistinctTenantIds()).thenReturn(tenantIds);
-        when(userRepository.countByTenantId("tenant1")).thenReturn(10L);
-        when(userRepository.countByTenantId("tenant2")).thenReturn(0L); // No users, should skip
+        warmupProperties.setMaxConcurrentTenants(2);
+        when(userRepository.findDistinctTenantIds()).thenReturn(Arrays.asList("tenant1", "tenant2", "tenant3", "tenant4"));
+        List<CompletableFuture<Void>> started = new CopyOnWriteArrayList<>();
+        when(userCacheService.warmUpUserCache(anyString())).thenAnswer(invocation -> {
+            CompletableFuture<Void> warmUp = new CompletableFuture<>();
+            started.add(warmUp);
+            return warmUp;
+        });
+
+        // Act
+        CompletableFuture<Void> run = CompletableFuture.runAsync(() -> cacheWarmupScheduler.warmUpCacheOnStartup());
+        awaitStarted(started, 2);
+        Thread.sleep(100);
+
+        // Assert - the third tenant waits until one of the first two finishes
+        assertEquals(2, started.size());
+        started.get(0).complete(null);
+        awaitStarted(started, 3);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!run.isDone() && System.nanoTime() < deadline) {
+            started.forEach(warmUp -> warmUp.complete(null));
+            Thread.sleep(5);
+        }
+        run.get(1, TimeUnit.SECONDS);
+        assertEquals(4, started.size());
+    }
+
+    @Test
+    void testScheduledCacheRefresh() throws Exception {
+        // Arrange - only tenant1 had profile reads
+        when(userAccessTracker.tenantIds()).thenReturn(Set.of("tenant1"));
         when(userCacheService.warmUpUserCache(anyString())).thenReturn(CompletableFuture.completedFuture(null));
 
         // Act
         cacheWarmupScheduler.scheduledCacheRefresh();
-        // Wait a bit for async execution
-        Thread.sleep(100);
 
         // Assert
-        verify(userRepository).findDistinctTenantIds();
-        verify(userRepository).countByTenantId("tenant1");
-        verify(userRepository).countByTenantId("tenant2");
-        verify(userCacheService, times(1)).warmUpUserCache("tenant1"); // Only tenant1 has users
-        verify(userCacheService, never()).warmUpUserCache("tenant2"); // tenant2 has no users
+        verify(userCacheService, times(1)).warmUpUserCache("tenant1");
+        verify(userCacheService, never()).warmUpUserCache("tenant2");
+        verify(userAccessTracker).decay();
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -128,14 +163,13 @@ class CacheWarmupSchedulerTest {
     @Test
     void testScheduledCacheRefresh_WithException() throws Exception {
         // Arrange
-        when(userRepository.findDistinctTenantIds()).thenThrow(new RuntimeException("Database error"));
+        when(userAccessTracker.tenantIds()).thenThrow(new RuntimeException("Tracker error"));
 
         // Act & Assert - Should not throw exception
         cacheWarmupScheduler.scheduledCacheRefresh();
-        // Wait a bit for async execution
-        Thread.sleep(100);
 
-        verify(userRepository).findDistinctTenantIds();
+        verify(userAccessTracker).tenantIds();
+        verify(userAccessTracker, never()).decay();
     }
 
     @Test
@@ -159,4 +193,11 @@ class CacheWarmupSchedulerTest {
 
         verify(userCacheService).getCacheStatistics();
     }
-}
\ No newline at end of file
+
+    private static void awaitStarted(List<CompletableFuture<Void>> started, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (started.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
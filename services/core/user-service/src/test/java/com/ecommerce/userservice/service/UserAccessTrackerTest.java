@@ -0,0 +1,116 @@
+package com.ecommerce.userservice.service;
+
+import com.ecommerce.userservice.config.CacheWarmupProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserAccessTrackerTest {
+
+    private static final String TENANT = "tenant1";
+
+    private UserAccessTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        CacheWarmupProperties properties = new CacheWarmupProperties();
+        properties.setHotSetSize(10);
+        properties.setSketchWidth(4096);
+        tracker = new UserAccessTracker(properties);
+    }
+
+    @Test
+    void hotUsers_ShouldRankByReadCount() {
+        // Given
+        read(1L, 3);
+        read(2L, 5);
+        read(3L, 1);
+
+        // When
+        List<UserAccessTracker.HotUser> hotUsers = tracker.hotUsers(TENANT, 2);
+
+        // Then
+        assertEquals(List.of(2L, 1L), ids(hotUsers));
+        assertEquals(5, hotUsers.get(0).getCount());
+        assertEquals(3, hotUsers.get(1).getCount());
+    }
+
+    @Test
+    void hotUsers_ShouldFindHeavyHittersAmongManyColdUsers() {
+        // Given - ten users read 50 times each, interleaved with 100k users read once
+        long coldUser = 1_000;
+        for (int round = 0; round < 50; round++) {
+            for (long hotUser = 1; hotUser <= 10; hotUser++) {
+                tracker.recordAccess(TENANT, hotUser);
+            }
+            for (int i = 0; i < 2_000; i++) {
+                tracker.recordAccess(TENANT, coldUser++);
+            }
+        }
+
+        // When
+        List<UserAccessTracker.HotUser> hotUsers = tracker.hotUsers(TENANT, 10);
+
+        // Then
+        assertEquals(LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toSet()), Set.copyOf(ids(hotUsers)));
+    }
+
+    @Test
+    void decay_ShouldHalveCountsAndForgetUsersReadOnce() {
+        // Given
+        read(1L, 8);
+        read(2L, 1);
+
+        // When
+        tracker.decay();
+
+        // Then
+        List<UserAccessTracker.HotUser> hotUsers = tracker.hotUsers(TENANT, 10);
+        assertEquals(List.of(1L), ids(hotUsers));
+        assertEquals(4, hotUsers.get(0).getCount());
+    }
+
+    @Test
+    void seed_ShouldRestoreSavedCounts() {
+        // Given
+        read(2L, 3);
+
+        // When
+        tracker.seed(TENANT, List.of(new UserAccessTracker.HotUser(1L, 20), new UserAccessTracker.HotUser(2L, 2)));
+
+        // Then
+        List<UserAccessTracker.HotUser> hotUsers = tracker.hotUsers(TENANT, 10);
+        assertEquals(List.of(1L, 2L), ids(hotUsers));
+        assertEquals(20, hotUsers.get(0).getCount());
+        assertEquals(5, hotUsers.get(1).getCount());
+    }
+
+    @Test
+    void hotUsers_ShouldBeTrackedPerTenant() {
+        // Given
+        read(1L, 2);
+        tracker.recordAccess("tenant2", 9L);
+
+        // When & Then
+        assertEquals(List.of(9L), ids(tracker.hotUsers("tenant2", 10)));
+        assertEquals(List.of(1L), ids(tracker.hotUsers(TENANT, 10)));
+        assertTrue(tracker.hotUsers("unknown", 10).isEmpty());
+        assertEquals(Set.of(TENANT, "tenant2"), tracker.tenantIds());
+    }
+
+    private void read(long authUserId, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.recordAccess(TENANT, authUserId);
+        }
+    }
+
+    private static List<Long> ids(List<UserAccessTracker.HotUser> hotUsers) {
+        return hotUsers.stream().map(UserAccessTracker.HotUser::getAuthUserId).toList();
+    }
+}
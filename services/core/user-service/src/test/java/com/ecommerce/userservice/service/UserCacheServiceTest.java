@@ -1,24 +1,35 @@
 package com.ecommerce.userservice.service;
 
 import com.ecommerce.userservice.config.CacheConfig;
+import com.ecommerce.userservice.config.CacheWarmupProperties;
 import com.ecommerce.userservice.dto.UserProfileResponse;
 import com.ecommerce.userservice.entity.User;
 import com.ecommerce.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,6 +57,17 @@ class UserCacheServiceTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
+    @Mock
+    private ZSetOperations<String, Object> zSetOperations;
+
+    @Mock
+    private RedisOperations<String, Object> pipelineOperations;
+
+    @Mock
+    private UserAccessTracker userAccessTracker;
+
+    private CacheWarmupProperties warmupProperties;
+    private SimpleMeterRegistry meterRegistry;
     private UserCacheService userCacheService;
 
     private User testUser;
@@ -56,7 +78,10 @@ class UserCacheServiceTest {
 
     @BeforeEach
     void setUp() {
-        userCacheService = new UserCacheService(cacheManager, redisTemplate, userRepository);
+        warmupProperties = new CacheWarmupProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        userCacheService = new UserCacheService(cacheManager, redisTemplate, userRepository,
+                userAccessTracker, warmupProperties, meterRegistry);
 
         // Create test user
         testUser = new User(tenantId, authUserId, email);
@@ -197,23 +222,73 @@ class UserCacheServiceTest {
 
     @Test
     void testWarmUpUserCache() throws Exception {
-        // Arrange
+        // Arrange - the two most read users, loaded one per query
+        warmupProperties.setFetchBatchSize(1);
         User user2 = new User(tenantId, 456L, "user2@example.com");
         user2.setId(2L);
         user2.setFirstName("Jane");
         user2.setLastName("Smith");
 
-        List<User> users = Arrays.asList(testUser, user2);
-        when(userRepository.findByTenantIdOrderByCreatedAtDesc(tenantId)).thenReturn(users);
-        when(cacheManager.getCache(CacheConfig.USER_PROFILE_CACHE)).thenReturn(cache);
+        when(userAccessTracker.hotUsers(tenantId, 1000)).thenReturn(List.of(
+                new UserAccessTracker.HotUser(456L, 9), new UserAccessTracker.HotUser(authUserId, 4)));
+        when(userRepository.findByTenantIdAndAuthUserIdIn(tenantId, List.of(456L))).thenReturn(List.of(user2));
+        when(userRepository.findByTenantIdAndAuthUserIdIn(tenantId, List.of(authUserId))).thenReturn(List.of(testUser));
+        when(pipelineOperations.opsForValue()).thenReturn(valueOperations);
+        when(pipelineOperations.opsForZSet()).thenReturn(zSetOperations);
 
         // Act
         CompletableFuture<Void> result = userCacheService.warmUpUserCache(tenantId);
         result.get(); // Wait for completion
+        runPipelines(3); // hot set, then one per page of users
+
+        // Assert
+        verify(valueOperations).set(eq("user-service:user-profiles::" + tenantId + ":user:" + authUserId),
+                any(UserProfileResponse.class), eq(Duration.ofMinutes(45)));
+        verify(valueOperations).set(eq("user-service:user-profiles::" + tenantId + ":email:" + email),
+                any(UserProfileResponse.class), eq(Duration.ofMinutes(45)));
+        verify(valueOperations, times(4)).set(anyString(), any(UserProfileResponse.class), any(Duration.class)); // 2 users * 2 cache entries each
+        verify(zSetOperations).add(eq("user-service:hot-users:" + tenantId), anySet());
+        verify(pipelineOperations).expire("user-service:hot-users:" + tenantId, Duration.ofDays(7));
+        verify(cache, never()).put(anyString(), any());
+    }
+
+    @Test
+    void testWarmUpUserCache_AfterRestart_UsesSavedHotSet() throws Exception {
+        // Arrange - nothing read yet; the previous instance saved user 123 with 7 reads
+        Set<ZSetOperations.TypedTuple<Object>> saved = new LinkedHashSet<>();
+        saved.add(new DefaultTypedTuple<>(123, 7.0));
+        when(userAccessTracker.hotUsers(tenantId, 1000)).thenReturn(List.of());
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.reverseRangeWithScores("user-service:hot-users:" + tenantId, 0, 999)).thenReturn(saved);
+        when(userRepository.findByTenantIdAndAuthUserIdIn(tenantId, List.of(authUserId))).thenReturn(List.of(testUser));
+
+        // Act
+        userCacheService.warmUpUserCache(tenantId).get();
+
+        // Assert
+        ArgumentCaptor<List<UserAccessTracker.HotUser>> seeded = ArgumentCaptor.forClass(List.class);
+        verify(userAccessTracker).seed(eq(tenantId), seeded.capture());
+        assertEquals(authUserId, seeded.getValue().get(0).getAuthUserId());
+        assertEquals(7L, seeded.getValue().get(0).getCount());
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(userRepository, never()).findNewestAuthUserIds(anyString(), any());
+    }
+
+    @Test
+    void testWarmUpUserCache_WithNoReads_WarmsNewestUsers() throws Exception {
+        // Arrange
+        when(userAccessTracker.hotUsers(tenantId, 1000)).thenReturn(List.of());
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.reverseRangeWithScores(anyString(), anyLong(), anyLong())).thenReturn(Set.of());
+        when(userRepository.findNewestAuthUserIds(tenantId, PageRequest.of(0, 100))).thenReturn(List.of(authUserId));
+        when(userRepository.findByTenantIdAndAuthUserIdIn(tenantId, List.of(authUserId))).thenReturn(List.of(testUser));
+
+        // Act
+        userCacheService.warmUpUserCache(tenantId).get();
 
         // Assert
-        verify(userRepository).findByTenantIdOrderByCreatedAtDesc(tenantId);
-        verify(cache, times(4)).put(anyString(), any(UserProfileResponse.class)); // 2 users * 2 cache entries each
+        verify(userRepository).findByTenantIdAndAuthUserIdIn(tenantId, List.of(authUserId));
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
     }
 
     @Test
@@ -273,6 +348,28 @@ class UserCacheServiceTest {
         assertEquals(5L, stats.getCacheSize());
     }
 
+    @Test
+    void testGetCacheStatistics_CountsHitsAndMisses() {
+        // Arrange
+        when(cacheManager.getCache(CacheConfig.USER_PROFILE_CACHE)).thenReturn(cache);
+        when(cache.get(tenantId + ":user:" + authUserId)).thenReturn(valueWrapper);
+        when(valueWrapper.get()).thenReturn(testUserProfile);
+        when(cache.get(tenantId + ":email:" + email)).thenReturn(null);
+        when(redisTemplate.countExistingKeys(any())).thenReturn(1L);
+
+        // Act
+        userCacheService.getUserProfileFromCache(tenantId, authUserId);
+        userCacheService.getUserProfileFromCache(tenantId, authUserId);
+        userCacheService.getUserProfileByEmailFromCache(tenantId, email);
+        UserCacheService.CacheStatistics stats = userCacheService.getCacheStatistics();
+
+        // Assert
+        assertEquals(2L, stats.getHitCount());
+        assertEquals(1L, stats.getMissCount());
+        assertEquals(2.0 / 3, stats.getHitRatio(), 1e-9);
+        assertEquals(2.0, meterRegistry.counter("user.profile_cache.hits").count());
+    }
+
     @Test
     void testCacheErrorHandling() {
         // Arrange
@@ -292,4 +389,13 @@ class UserCacheServiceTest {
             userCacheService.invalidateUserProfileCache(tenantId, authUserId);
         });
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void runPipelines(int expected) {
+        ArgumentCaptor<SessionCallback> callbacks = ArgumentCaptor.forClass(SessionCallback.class);
+        verify(redisTemplate, times(expected)).executePipelined(callbacks.capture());
+        for (SessionCallback callback : callbacks.getAllValues()) {
+            callback.execute(pipelineOperations);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.userservice.service;
+
+import com.ecommerce.userservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Search latency over 5M users in one tenant, against a scan that checks every user the way
+ * {@code LIKE '%term%'} does. The scan runs over strings already in memory, so it leaves out
+ * the I/O a real table scan pays and its numbers are a lower bound. Needs about 4 GB of heap,
+ * e.g. {@code -Xmx4g}, and {@code -Dperformance.tests.enabled=true}; the latencies are
+ * reported, not checked.
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class UserSearchBenchmarkTest {
+
+    private static final String TENANT = "bench-tenant";
+    private static final int USERS = 5_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 100;
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+        "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Daniel", "Nancy", "Matthew", "Lisa", "Anthony", "Betty", "Mark", "Margaret", "Donald", "Sandra",
+        "Steven", "Ashley", "Paul", "Kimberly", "Andrew", "Emily", "Joshua", "Donna", "Kenneth", "Michelle"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+        "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores"
+    };
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "outlook.com", "example.com", "corp.io"};
+
+    private static volatile Object sink;
+
+    @Test
+    void compareIndexWithScan() {
+        String[] documents = new String[USERS];
+        long heapBefore = usedHeap();
+        UserSearchIndex index = new UserSearchIndex(mock(UserRepository.class), mock(StringRedisTemplate.class), true, 5000,
+            Duration.ofMinutes(5), Clock.systemUTC());
+        long start = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            long id = i + 1;
+            String firstName = FIRST_NAMES[(int) (id * 7 % FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[(int) (id * 13 % LAST_NAMES.length)];
+            String email = (firstName + "." + lastName + id + "@" + DOMAINS[(int) (id % DOMAINS.length)])
+                .toLowerCase(Locale.ROOT);
+            index.put(TENANT, id, firstName, lastName, email);
+            documents[i] = UserSearchIndex.document(firstName, lastName, email);
+        }
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long heapAfter = usedHeap();
+
+        System.out.printf("Indexed %,d users in %,d ms; index plus scan copy use about %,d MB of heap%n",
+            USERS, buildMillis, (heapAfter - heapBefore) / (1024 * 1024));
+
+        List<String> queries = List.of("jo", "john", "ohnso", "smith42", "4999999@", "corp.io", "nobody");
+        for (String query : queries) {
+            double indexed = measure(() -> index.search(TENANT, query, 0, PAGE_SIZE));
+            double scanned = measure(() -> scan(documents, query, 0, PAGE_SIZE));
+            double deepIndexed = measure(() -> index.search(TENANT, query, 1_000, PAGE_SIZE));
+            System.out.printf("  %-10s index p50 %9.3f ms   scan p50 %9.3f ms   index page 50 p50 %9.3f ms%n",
+                query, indexed, scanned, deepIndexed);
+        }
+    }
+
+    private static List<Integer> scan(String[] documents, String query, int offset, int limit) {
+        List<Integer> matches = new ArrayList<>(limit);
+        int toSkip = offset;
+        for (int doc = 0; doc < documents.length && matches.size() < limit; doc++) {
+            if (documents[doc].contains(query)) {
+                if (toSkip > 0) {
+                    toSkip--;
+                } else {
+                    matches.add(doc);
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Median of the measured rounds, in milliseconds
+    private static double measure(Supplier<Object> search) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink = search.get();
+        }
+        long[] nanos = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink = search.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[MEASURED_ROUNDS / 2] / 1e6;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,373 @@
+package com.ecommerce.userservice.service;
+
+import com.ecommerce.userservice.event.UserSearchFieldsChangedEvent;
+import com.ecommerce.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchIndexTest {
+
+    private static final String TENANT = "tenant1";
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+    private static final LocalDateTime EARLIER = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).minusHours(1);
+    private static final LocalDateTime LATER = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).plusHours(1);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = newIndex(true, 2);
+        index.put(TENANT, 1L, "John", "Doe", "john.doe@example.com");
+        index.put(TENANT, 2L, "Jane", "Johnson", "jane@example.com");
+        index.put(TENANT, 3L, "Bob", "Smith", "bob@corp.io");
+    }
+
+    @Test
+    void search_ShouldMatchPrefixAndInfixAcrossFields() {
+        // When & Then
+        assertEquals(List.of(1L, 2L), index.search(TENANT, "joh", 0, 10));
+        assertEquals(List.of(2L), index.search(TENANT, "hnson", 0, 10));
+        assertEquals(List.of(3L), index.search(TENANT, "corp.io", 0, 10));
+        assertEquals(List.of(1L, 2L), index.search(TENANT, "example", 0, 10));
+    }
+
+    @Test
+    void search_ShouldIgnoreCaseAndSurroundingWhitespace() {
+        // When & Then
+        assertEquals(List.of(3L), index.search(TENANT, "  SMITH ", 0, 10));
+    }
+
+    @Test
+    void search_ShouldNotMatchAcrossFields() {
+        // When & Then - "john" + "doe"
+        assertTrue(index.search(TENANT, "johndoe", 0, 10).isEmpty());
+        assertTrue(index.search(TENANT, "nd", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_WithShortQuery_ShouldScanDocuments() {
+        // When & Then
+        assertEquals(List.of(1L, 2L, 3L), index.search(TENANT, "o", 0, 10));
+        assertEquals(List.of(3L), index.search(TENANT, "bo", 0, 10));
+    }
+
+    @Test
+    void search_ShouldReturnRequestedPage() {
+        // Given
+        for (long id = 10; id < 40; id++) {
+            index.put(TENANT, id, "Alex", "Page" + id, "alex" + id + "@example.com");
+        }
+
+        // When
+        List<Long> firstPage = index.search(TENANT, "alex", 0, 10);
+        List<Long> secondPage = index.search(TENANT, "alex", 10, 10);
+        List<Long> lastPage = index.search(TENANT, "alex", 25, 10);
+
+        // Then
+        assertEquals(10, firstPage.size());
+        assertEquals(10L, firstPage.get(0));
+        assertEquals(20L, secondPage.get(0));
+        assertEquals(List.of(35L, 36L, 37L, 38L, 39L), lastPage);
+    }
+
+    @Test
+    void put_ShouldReplacePreviouslyIndexedFields() {
+        // When
+        index.put(TENANT, 1L, "Johnny", "Walker", "jw@example.com");
+
+        // Then
+        assertTrue(index.search(TENANT, "doe", 0, 10).isEmpty());
+        assertEquals(List.of(1L), index.search(TENANT, "walker", 0, 10));
+        assertEquals(3, index.size(TENANT));
+    }
+
+    @Test
+    void remove_ShouldDropUser() {
+        // When
+        index.remove(TENANT, 2L);
+
+        // Then
+        assertEquals(List.of(1L), index.search(TENANT, "joh", 0, 10));
+        assertEquals(2, index.size(TENANT));
+    }
+
+    @Test
+    void search_ShouldOnlySeeOwnTenant() {
+        // Given
+        index.put("tenant2", 4L, "John", "Other", "john@other.com");
+
+        // When & Then
+        assertEquals(List.of(4L), index.search("tenant2", "john", 0, 10));
+        assertEquals(List.of(1L, 2L), index.search(TENANT, "john", 0, 10));
+        assertTrue(index.search("unknown", "john", 0, 10).isEmpty());
+    }
+
+    @Test
+    void put_AfterManyUpdates_ShouldCompactAndKeepAnswering() {
+        // When - enough updates to trigger compaction more than once
+        for (int round = 0; round < 3000; round++) {
+            index.put(TENANT, 3L, "Bob", "Smith" + round, "bob@corp.io");
+        }
+
+        // Then
+        assertEquals(3, index.size(TENANT));
+        assertEquals(List.of(3L), index.search(TENANT, "smith2999", 0, 10));
+        assertTrue(index.search(TENANT, "smith2998", 0, 10).isEmpty());
+        assertEquals(List.of(1L, 2L), index.search(TENANT, "joh", 0, 10));
+    }
+
+    @Test
+    void rebuild_ShouldLoadEveryBatchAndBecomeReady() {
+        // Given
+        UserSearchIndex rebuilt = newIndex(true, 2);
+        when(userRepository.findSearchFieldsAfter(0L, PageRequest.of(0, 2)))
+            .thenReturn(List.of(fields(1L, "John", "Doe", "john@example.com", EARLIER),
+                fields(2L, "Jane", "Roe", "jane@example.com", EARLIER)));
+        when(userRepository.findSearchFieldsAfter(2L, PageRequest.of(0, 2)))
+            .thenReturn(List.of(fields(5L, "Johan", "Berg", "johan@example.com", EARLIER)));
+        assertFalse(rebuilt.isReady());
+
+        // When
+        rebuilt.rebuild();
+
+        // Then
+        assertTrue(rebuilt.isReady());
+        assertEquals(3, rebuilt.size(TENANT));
+        assertEquals(List.of(1L, 5L), rebuilt.search(TENANT, "joh", 0, 10));
+    }
+
+    @Test
+    void rebuild_ShouldNotOverwriteNewerWrites() {
+        // Given - user 1 was updated and user 2 deleted while their old rows were being read
+        UserSearchIndex rebuilt = newIndex(true, 10);
+        when(userRepository.findSearchFieldsAfter(0L, PageRequest.of(0, 10))).thenAnswer(invocation -> {
+            rebuilt.put(TENANT, 1L, "John", "Newname", "john@example.com");
+            rebuilt.remove(TENANT, 2L);
+            return List.of(fields(1L, "John", "Doe", "john@example.com", EARLIER),
+                fields(2L, "Jane", "Roe", "jane@example.com", EARLIER));
+        });
+
+        // When
+        rebuilt.rebuild();
+
+        // Then
+        assertEquals(List.of(1L), rebuilt.search(TENANT, "newname", 0, 10));
+        assertTrue(rebuilt.search(TENANT, "doe", 0, 10).isEmpty());
+        assertTrue(rebuilt.search(TENANT, "jane", 0, 10).isEmpty());
+    }
+
+    @Test
+    void rebuildOnStartup_WhenDisabled_ShouldStayNotReady() {
+        // Given
+        UserSearchIndex disabled = newIndex(false, 2);
+
+        // When
+        disabled.rebuildOnStartup();
+        disabled.put(TENANT, 1L, "John", "Doe", "john@example.com");
+
+        // Then
+        assertFalse(disabled.isReady());
+        assertEquals(0, disabled.size(TENANT));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void refresh_ShouldIndexTheCommittedRow() {
+        // Given
+        when(userRepository.findSearchFieldsById(1L))
+            .thenReturn(Optional.of(fields(1L, "John", "Newname", "john.doe@example.com", LATER)));
+
+        // When
+        index.refresh(TENANT, 1L);
+
+        // Then
+        assertEquals(List.of(1L), index.search(TENANT, "newname", 0, 10));
+        assertEquals(3, index.size(TENANT));
+    }
+
+    @Test
+    void refresh_WhenUserIsGone_ShouldDropIt() {
+        // Given
+        when(userRepository.findSearchFieldsById(2L)).thenReturn(Optional.empty());
+
+        // When
+        index.refresh(TENANT, 2L);
+
+        // Then
+        assertEquals(List.of(1L), index.search(TENANT, "joh", 0, 10));
+    }
+
+    @Test
+    void refresh_WithRowOlderThanIndexed_ShouldKeepTheNewerFields() {
+        // Given - a slow reload read the row before the update another reload already applied
+        when(userRepository.findSearchFieldsById(1L))
+            .thenReturn(Optional.of(fields(1L, "John", "Newname", "john@example.com", LATER)))
+            .thenReturn(Optional.of(fields(1L, "John", "Oldname", "john@example.com", EARLIER)));
+        index.refresh(TENANT, 1L);
+
+        // When
+        index.refresh(TENANT, 1L);
+
+        // Then
+        assertEquals(List.of(1L), index.search(TENANT, "newname", 0, 10));
+        assertTrue(index.search(TENANT, "oldname", 0, 10).isEmpty());
+    }
+
+    @Test
+    void onUserChanged_ShouldRefreshAndBroadcastToOtherInstances() {
+        // Given
+        when(userRepository.findSearchFieldsById(3L))
+            .thenReturn(Optional.of(fields(3L, "Bob", "Builder", "bob@corp.io", LATER)));
+
+        // When
+        index.onUserChanged(new UserSearchFieldsChangedEvent(TENANT, 3L));
+
+        // Then
+        assertEquals(List.of(3L), index.search(TENANT, "builder", 0, 10));
+        verify(redisTemplate).convertAndSend(UserSearchIndex.CHANNEL, "3:" + TENANT);
+    }
+
+    @Test
+    void onMessage_FromAnotherInstance_ShouldRefreshTheUser() {
+        // Given
+        when(userRepository.findSearchFieldsById(2L)).thenReturn(Optional.empty());
+
+        // When
+        index.onMessage(new DefaultMessage(UserSearchIndex.CHANNEL.getBytes(StandardCharsets.UTF_8),
+            ("2:" + TENANT).getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        assertEquals(2, index.size(TENANT));
+        assertTrue(index.search(TENANT, "jane", 0, 10).isEmpty());
+    }
+
+    @Test
+    void reconcile_ShouldReloadRecentRowsAndSweepDeletedUsers() {
+        // Given - an update and a deletion whose messages never arrived
+        UserSearchIndex reconciled = newIndex(true, 10);
+        when(userRepository.findSearchFieldsAfter(0L, PageRequest.of(0, 10)))
+            .thenReturn(List.of(fields(1L, "John", "Doe", "john@example.com", EARLIER),
+                fields(2L, "Jane", "Roe", "jane@example.com", EARLIER)));
+        reconciled.rebuild();
+        LocalDateTime since = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).minusMinutes(5);
+        when(userRepository.findSearchFieldsUpdatedSince(since, 0L, PageRequest.of(0, 10)))
+            .thenReturn(List.of(fields(1L, "John", "Newname", "john@example.com", LATER)));
+        when(userRepository.countUsersPerTenant()).thenReturn(List.of(count(TENANT, 1)));
+        when(userRepository.findIdsByTenantId(TENANT)).thenReturn(List.of(1L));
+
+        // When
+        reconciled.reconcile();
+
+        // Then
+        assertEquals(List.of(1L), reconciled.search(TENANT, "newname", 0, 10));
+        assertTrue(reconciled.search(TENANT, "jane", 0, 10).isEmpty());
+        assertEquals(1, reconciled.size(TENANT));
+    }
+
+    @Test
+    void reconcile_WhenCountsMatch_ShouldNotListUserIds() {
+        // Given
+        UserSearchIndex reconciled = newIndex(true, 10);
+        when(userRepository.findSearchFieldsAfter(0L, PageRequest.of(0, 10)))
+            .thenReturn(List.of(fields(1L, "John", "Doe", "john@example.com", EARLIER)));
+        reconciled.rebuild();
+        when(userRepository.findSearchFieldsUpdatedSince(any(), eq(0L), any())).thenReturn(List.of());
+        when(userRepository.countUsersPerTenant()).thenReturn(List.of(count(TENANT, 1)));
+
+        // When
+        reconciled.reconcile();
+
+        // Then
+        assertEquals(1, reconciled.size(TENANT));
+        verify(userRepository, never()).findIdsByTenantId(any());
+    }
+
+    @Test
+    void reconcile_BeforeBuilt_ShouldDoNothing() {
+        // When
+        newIndex(true, 10).reconcile();
+
+        // Then
+        verifyNoInteractions(userRepository);
+    }
+
+    private UserSearchIndex newIndex(boolean enabled, int batchSize) {
+        return new UserSearchIndex(userRepository, redisTemplate, enabled, batchSize, Duration.ofMinutes(5),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static UserRepository.TenantUserCount count(String tenantId, long users) {
+        return new UserRepository.TenantUserCount() {
+            @Override
+            public String getTenantId() {
+                return tenantId;
+            }
+
+            @Override
+            public long getUsers() {
+                return users;
+            }
+        };
+    }
+
+    private static UserRepository.SearchFields fields(Long id, String firstName, String lastName, String email,
+                                                      LocalDateTime updatedAt) {
+        return new UserRepository.SearchFields() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTenantId() {
+                return TENANT;
+            }
+
+            @Override
+            public String getFirstName() {
+                return firstName;
+            }
+
+            @Override
+            public String getLastName() {
+                return lastName;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return updatedAt;
+            }
+        };
+    }
+}
@@ -6,6 +6,7 @@ import com.ecommerce.userservice.dto.UpdateUserProfileRequest;
 import com.ecommerce.userservice.dto.UserProfileResponse;
 import com.ecommerce.userservice.entity.User;
 import com.ecommerce.userservice.entity.UserPreferences;
+import com.ecommerce.userservice.event.UserSearchFieldsChangedEvent;
 import com.ecommerce.userservice.repository.UserPreferencesRepository;
 import com.ecommerce.userservice.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,7 +15,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -40,6 +43,15 @@ class UserServiceTest {
     @Mock
     private UserCacheService userCacheService;
 
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @Mock
+    private UserAccessTracker userAccessTracker;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -97,6 +109,7 @@ class UserServiceTest {
         verify(userRepository).existsByEmailAndTenantId("test@example.com", tenantId);
         verify(userRepository).save(any(User.class));
         verify(userPreferencesRepository).save(any(UserPreferences.class));
+        verify(eventPublisher).publishEvent(new UserSearchFieldsChangedEvent(tenantId, testUser.getId()));
     }
 
     @Test
@@ -162,6 +175,7 @@ class UserServiceTest {
 
         verify(userCacheService).getUserProfileFromCache(tenantId, authUserId);
         verify(userRepository, never()).findByAuthUserIdAndTenantId(authUserId, tenantId);
+        verify(userAccessTracker).recordAccess(tenantId, authUserId);
     }
 
     @Test
@@ -208,6 +222,7 @@ class UserServiceTest {
         assertNotNull(response);
         verify(userRepository).findByAuthUserIdAndTenantId(authUserId, tenantId);
         verify(userRepository).save(testUser);
+        verify(eventPublisher).publishEvent(new UserSearchFieldsChangedEvent(tenantId, testUser.getId()));
         verify(userCacheService).invalidateUserProfileCache(tenantId, authUserId);
         verify(userCacheService).invalidateUserProfileCacheByEmail(tenantId, testUser.getEmail());
         verify(userCacheService).putUserProfileInCache(eq(tenantId), eq(authUserId), any(UserProfileResponse.class));
@@ -262,6 +277,7 @@ class UserServiceTest {
         verify(userCacheService).invalidateUserProfileCache(tenantId, authUserId);
         verify(userCacheService).invalidateUserProfileCacheByEmail(tenantId, testUser.getEmail());
         verify(userRepository).delete(testUser);
+        verify(eventPublisher).publishEvent(new UserSearchFieldsChangedEvent(tenantId, testUser.getId()));
     }
 
     @Test
@@ -354,10 +370,10 @@ class UserServiceTest {
 
     @Test
     void searchUsers_Success() {
-        // Given
+        // Given - the index is still being built
         String searchTerm = "John";
         List<User> users = Arrays.asList(testUser);
-        when(userRepository.searchUsersByNameOrEmail(tenantId, searchTerm)).thenReturn(users);
+        when(userRepository.searchUsersByNameOrEmail(tenantId, searchTerm, PageRequest.of(0, 20))).thenReturn(users);
 
         // When
         List<UserProfileResponse> response = userService.searchUsers(tenantId, searchTerm);
@@ -366,7 +382,42 @@ class UserServiceTest {
         assertNotNull(response);
         assertEquals(1, response.size());
         assertEquals(testUser.getId(), response.get(0).getId());
-        verify(userRepository).searchUsersByNameOrEmail(tenantId, searchTerm);
+        verify(userRepository).searchUsersByNameOrEmail(tenantId, searchTerm, PageRequest.of(0, 20));
+        verify(userSearchIndex, never()).search(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchUsers_WithIndexReady_ShouldLoadMatchesInIndexOrder() {
+        // Given
+        User jane = new User(tenantId, 2L, "jane.johnson@example.com");
+        jane.setId(2L);
+        jane.setFirstName("Jane");
+        when(userSearchIndex.isReady()).thenReturn(true);
+        when(userSearchIndex.search(tenantId, "john", 20, 20)).thenReturn(List.of(2L, 1L));
+        when(userRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testUser, jane));
+
+        // When
+        List<UserProfileResponse> response = userService.searchUsers(tenantId, "john", 1, 20);
+
+        // Then
+        assertEquals(List.of(2L, 1L), response.stream().map(UserProfileResponse::getId).toList());
+        verify(userRepository, never()).searchUsersByNameOrEmail(any(), any(), any());
+    }
+
+    @Test
+    void searchUsers_WithIndexReady_ShouldSkipUsersThatNoLongerMatch() {
+        // Given - the index still holds a change that was rolled back
+        User otherTenantUser = new User("other-tenant", 3L, "john@other.com");
+        otherTenantUser.setId(3L);
+        when(userSearchIndex.isReady()).thenReturn(true);
+        when(userSearchIndex.search(tenantId, "smith", 0, 100)).thenReturn(List.of(1L, 3L, 4L));
+        when(userRepository.findAllById(List.of(1L, 3L, 4L))).thenReturn(List.of(testUser, otherTenantUser));
+
+        // When
+        List<UserProfileResponse> response = userService.searchUsers(tenantId, "smith", 0, 500);
+
+        // Then
+        assertTrue(response.isEmpty());
     }
 
     @Test
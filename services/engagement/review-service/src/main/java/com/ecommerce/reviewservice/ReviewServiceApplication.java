@@ -3,12 +3,14 @@ package com.ecommerce.reviewservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {
     "com.ecommerce.reviewservice",
     "com.ecommerce.shared"
 })
 @EnableMongoAuditing
+@EnableScheduling
 public class ReviewServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,192 @@
+package com.ecommerce.reviewservice.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Materialized rating statistics of the approved reviews of one product.
+ *
+ * Kept up to date with atomic $inc updates whenever a review enters or leaves the approved set,
+ * so reads never touch the reviews collection. Sums are stored rather than averages so they can
+ * be adjusted incrementally.
+ */
+@Document(collection = "product_rating_aggregates")
+public class ProductRatingAggregate {
+
+    @Id
+    private String id;
+
+    private String tenantId;
+
+    private String productId;
+
+    private long totalReviews;
+
+    private long ratingSum;
+
+    // Rating ("1".."5") -> number of approved reviews
+    private Map<String, Long> ratingCounts = new HashMap<>();
+
+    private long verifiedReviews;
+
+    private long reviewsWithImages;
+
+    // Sum of the helpfulness ratio of every approved review
+    private double helpfulnessSum;
+
+    private LocalDateTime lastReviewDate;
+
+    // Incremented by every change; rebuilds only replace the version they computed from
+    private long version;
+
+    @Indexed
+    private LocalDateTime verifiedAt;
+
+    // Constructors
+    public ProductRatingAggregate() {}
+
+    public ProductRatingAggregate(String tenantId, String productId) {
+        this.id = idOf(tenantId, productId);
+        this.tenantId = tenantId;
+        this.productId = productId;
+    }
+
+    public static String idOf(String tenantId, String productId) {
+        return tenantId + ":" + productId;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public long getTotalReviews() {
+        return totalReviews;
+    }
+
+    public void setTotalReviews(long totalReviews) {
+        this.totalReviews = totalReviews;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public Map<String, Long> getRatingCounts() {
+        return ratingCounts;
+    }
+
+    public void setRatingCounts(Map<String, Long> ratingCounts) {
+        this.ratingCounts = ratingCounts;
+    }
+
+    public long getVerifiedReviews() {
+        return verifiedReviews;
+    }
+
+    public void setVerifiedReviews(long verifiedReviews) {
+        this.verifiedReviews = verifiedReviews;
+    }
+
+    public long getReviewsWithImages() {
+        return reviewsWithImages;
+    }
+
+    public void setReviewsWithImages(long reviewsWithImages) {
+        this.reviewsWithImages = reviewsWithImages;
+    }
+
+    public double getHelpfulnessSum() {
+        return helpfulnessSum;
+    }
+
+    public void setHelpfulnessSum(double helpfulnessSum) {
+        this.helpfulnessSum = helpfulnessSum;
+    }
+
+    public LocalDateTime getLastReviewDate() {
+        return lastReviewDate;
+    }
+
+    public void setLastReviewDate(LocalDateTime lastReviewDate) {
+        this.lastReviewDate = lastReviewDate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getVerifiedAt() {
+        return verifiedAt;
+    }
+
+    public void setVerifiedAt(LocalDateTime verifiedAt) {
+        this.verifiedAt = verifiedAt;
+    }
+
+    // Business methods
+    public long getRatingCount(int rating) {
+        Long count = ratingCounts != null ? ratingCounts.get(String.valueOf(rating)) : null;
+        return count != null ? count : 0L;
+    }
+
+    public double getAverageRating() {
+        return totalReviews > 0 ? (double) ratingSum / totalReviews : 0.0;
+    }
+
+    public double getAverageHelpfulness() {
+        return totalReviews > 0 ? helpfulnessSum / totalReviews : 0.0;
+    }
+
+    /**
+     * Whether both aggregates describe the same review statistics
+     */
+    public boolean hasSameTotals(ProductRatingAggregate other) {
+        if (totalReviews != other.totalReviews || ratingSum != other.ratingSum
+            || verifiedReviews != other.verifiedReviews || reviewsWithImages != other.reviewsWithImages
+            || Math.abs(helpfulnessSum - other.helpfulnessSum) > 1e-6
+            || !Objects.equals(lastReviewDate, other.lastReviewDate)) {
+            return false;
+        }
+        for (int rating = 1; rating <= 5; rating++) {
+            if (getRatingCount(rating) != other.getRatingCount(rating)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,9 +1,9 @@
 package com.ecommerce.reviewservice.grpc;
 
 import com.ecommerce.reviewservice.dto.ReviewResponse;
-import com.ecommerce.reviewservice.dto.ProductRatingAggregateResponse;
+import com.ecommerce.reviewservice.entity.ProductRatingAggregate;
 import com.ecommerce.reviewservice.service.ReviewService;
-import com.ecommerce.reviewservice.service.ReviewAggregationService;
+import com.ecommerce.reviewservice.service.ProductRatingAggregateService;
 import com.ecommerce.reviewservice.proto.ReviewServiceGrpc;
 import com.ecommerce.reviewservice.proto.ReviewServiceProtos.*;
 import com.ecommerce.shared.grpc.TenantContextInterceptor;
@@ -19,7 +19,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
-import java.util.Map;
 
 @GrpcService(interceptors = {TenantContextInterceptor.class})
 public class ReviewGrpcService extends ReviewServiceGrpc.ReviewServiceImplBase {
@@ -27,12 +26,12 @@ public class ReviewGrpcService extends ReviewServiceGrpc.ReviewServiceImplBase {
     private static final Logger logger = LoggerFactory.getLogger(ReviewGrpcService.class);
 
     private final ReviewService reviewService;
-    private final ReviewAggregationService aggregationService;
+    private final ProductRatingAggregateService ratingAggregateService;
 
     @Autowired
-    public ReviewGrpcService(ReviewService reviewService, ReviewAggregationService aggregationService) {
+    public ReviewGrpcService(ReviewService reviewService, ProductRatingAggregateService ratingAggregateService) {
         this.reviewService = reviewService;
-        this.aggregationService = aggregationService;
+        this.ratingAggregateService = ratingAggregateService;
     }
 
     @Override
@@ -151,7 +150,9 @@ public class ReviewGrpcService extends ReviewServiceGrpc.ReviewServiceImplBase {
             logger.debug("gRPC GetProductRatingAggregate request for product: {} in tenant: {}", 
                         request.getProductId(), TenantContext.getTenantId());
 
-            ProductRatingAggregateResponse aggregate = aggregationService.getProductRatingAggregate(request.getProductId());
+            // Single document read from the materialized aggregate
+            ProductRatingAggregate aggregate = ratingAggregateService.getAggregate(
+                TenantContext.getTenantId(), request.getProductId());
             
             GetProductRatingAggregateResponse.Builder responseBuilder = GetProductRatingAggregateResponse.newBuilder()
                 .setProductId(aggregate.getProductId())
@@ -159,10 +160,10 @@ public class ReviewGrpcService extends ReviewServiceGrpc.ReviewServiceImplBase {
                 .setTotalReviews(aggregate.getTotalReviews());
 
             // Add rating counts
-            for (Map.Entry<Integer, Long> entry : aggregate.getRatingCounts().entrySet()) {
+            for (int rating = 1; rating <= 5; rating++) {
                 responseBuilder.addRatingCounts(RatingCount.newBuilder()
-                    .setRating(entry.getKey())
-                    .setCount(entry.getValue())
+                    .setRating(rating)
+                    .setCount(aggregate.getRatingCount(rating))
                     .build());
             }
 
@@ -0,0 +1,236 @@
+package com.ecommerce.reviewservice.service;
+
+import com.ecommerce.reviewservice.entity.ProductRatingAggregate;
+import com.ecommerce.reviewservice.entity.Review;
+import com.ecommerce.reviewservice.entity.ReviewStatus;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the per-product {@link ProductRatingAggregate} documents.
+ *
+ * Callers snapshot a review's contribution before and after a change and pass both to
+ * {@link #applyChange}; the difference is applied to the aggregate with a single $inc update.
+ * An aggregate is only created by {@link #rebuild}, either lazily on the first read of a product
+ * or by {@link RatingAggregateVerificationJob}, which also repairs any drift.
+ */
+@Service
+public class ProductRatingAggregateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductRatingAggregateService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public ProductRatingAggregateService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Current aggregate of a product; built from the reviews collection if it does not exist yet
+     */
+    public ProductRatingAggregate getAggregate(String tenantId, String productId) {
+        ProductRatingAggregate aggregate = mongoTemplate.findById(
+            ProductRatingAggregate.idOf(tenantId, productId), ProductRatingAggregate.class);
+        return aggregate != null ? aggregate : rebuild(tenantId, productId);
+    }
+
+    /**
+     * What a review currently adds to its product's aggregate, or {@code null} if nothing
+     */
+    public Contribution snapshot(Review review) {
+        if (review == null || review.getStatus() != ReviewStatus.APPROVED) {
+            return null;
+        }
+        return new Contribution(review);
+    }
+
+    /**
+     * Move a product's aggregate from one contribution of a review to another
+     */
+    public void applyChange(Contribution before, Contribution after) {
+        Contribution any = before != null ? before : after;
+        if (any == null) {
+            return;
+        }
+
+        Map<String, Number> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            before.addTo(deltas, -1);
+        }
+        if (after != null) {
+            after.addTo(deltas, 1);
+        }
+
+        Update update = new Update();
+        deltas.forEach((field, delta) -> {
+            if (delta.doubleValue() != 0) {
+                update.inc(field, delta);
+            }
+        });
+        if (update.getUpdateObject().isEmpty()) {
+            return;
+        }
+        update.inc("version", 1);
+        if (after != null && after.createdAt != null) {
+            update.max("lastReviewDate", after.createdAt);
+        }
+
+        // No upsert: a product without an aggregate is built from scratch on first read
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(ProductRatingAggregate.idOf(any.tenantId, any.productId))),
+            update, ProductRatingAggregate.class);
+    }
+
+    /**
+     * Recompute a product's aggregate from its approved reviews and store it
+     */
+    public ProductRatingAggregate rebuild(String tenantId, String productId) {
+        ProductRatingAggregate current = mongoTemplate.findById(
+            ProductRatingAggregate.idOf(tenantId, productId), ProductRatingAggregate.class);
+        ProductRatingAggregate rebuilt = compute(tenantId, productId);
+        store(current, rebuilt);
+        return rebuilt;
+    }
+
+    /**
+     * Compare a stored aggregate with the reviews collection and replace it if it has drifted
+     *
+     * @return true if the aggregate was repaired
+     */
+    public boolean verifyAndRepair(ProductRatingAggregate current) {
+        ProductRatingAggregate rebuilt = compute(current.getTenantId(), current.getProductId());
+        if (rebuilt.hasSameTotals(current)) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(current.getId())),
+                Update.update("verifiedAt", LocalDateTime.now()), ProductRatingAggregate.class);
+            return false;
+        }
+
+        logger.warn("Rating aggregate for product {} in tenant {} drifted ({} stored vs {} actual reviews), repairing",
+                   current.getProductId(), current.getTenantId(), current.getTotalReviews(), rebuilt.getTotalReviews());
+        return store(current, rebuilt);
+    }
+
+    /**
+     * Save a rebuilt aggregate unless the stored one changed since it was read
+     */
+    private boolean store(ProductRatingAggregate current, ProductRatingAggregate rebuilt) {
+        rebuilt.setVerifiedAt(LocalDateTime.now());
+        if (current == null) {
+            try {
+                mongoTemplate.insert(rebuilt);
+                return true;
+            } catch (DuplicateKeyException e) {
+                // Built concurrently by another request
+                return false;
+            }
+        }
+
+        rebuilt.setVersion(current.getVersion());
+        Query unchanged = Query.query(Criteria.where("_id").is(current.getId()).and("version").is(current.getVersion()));
+        boolean replaced = mongoTemplate.findAndReplace(unchanged, rebuilt) != null;
+        if (!replaced) {
+            logger.debug("Rating aggregate {} changed during rebuild, keeping the newer version", current.getId());
+        }
+        return replaced;
+    }
+
+    private ProductRatingAggregate compute(String tenantId, String productId) {
+        List<Document> pipeline = List.of(
+            new Document("$match", new Document("tenantId", tenantId)
+                .append("productId", productId)
+                .append("status", ReviewStatus.APPROVED.name())),
+            new Document("$group", new Document("_id", "$rating")
+                .append("count", new Document("$sum", 1))
+                .append("verified", new Document("$sum",
+                    new Document("$cond", List.of(new Document("$eq", List.of("$verified", true)), 1, 0))))
+                .append("withImages", new Document("$sum",
+                    new Document("$cond", List.of(
+                        new Document("$gt", List.of(new Document("$size", new Document("$ifNull", List.of("$imageUrls", List.of()))), 0)),
+                        1, 0))))
+                .append("helpfulness", new Document("$sum",
+                    new Document("$cond", List.of(
+                        new Document("$gt", List.of("$totalVotes", 0)),
+                        new Document("$divide", List.of("$helpfulVotes", "$totalVotes")),
+                        0))))
+                .append("lastReviewDate", new Document("$max", "$createdAt"))));
+
+        ProductRatingAggregate aggregate = new ProductRatingAggregate(tenantId, productId);
+        Map<String, Long> ratingCounts = new HashMap<>();
+        Date lastReviewDate = null;
+        for (Document group : mongoTemplate.getCollection(mongoTemplate.getCollectionName(Review.class)).aggregate(pipeline)) {
+            int rating = ((Number) group.get("_id")).intValue();
+            long count = ((Number) group.get("count")).longValue();
+            ratingCounts.put(String.valueOf(rating), count);
+            aggregate.setTotalReviews(aggregate.getTotalReviews() + count);
+            aggregate.setRatingSum(aggregate.getRatingSum() + rating * count);
+            aggregate.setVerifiedReviews(aggregate.getVerifiedReviews() + ((Number) group.get("verified")).longValue());
+            aggregate.setReviewsWithImages(aggregate.getReviewsWithImages() + ((Number) group.get("withImages")).longValue());
+            aggregate.setHelpfulnessSum(aggregate.getHelpfulnessSum() + ((Number) group.get("helpfulness")).doubleValue());
+            Date groupLast = group.getDate("lastReviewDate");
+            if (groupLast != null && (lastReviewDate == null || groupLast.after(lastReviewDate))) {
+                lastReviewDate = groupLast;
+            }
+        }
+        aggregate.setRatingCounts(ratingCounts);
+        if (lastReviewDate != null) {
+            aggregate.setLastReviewDate(LocalDateTime.ofInstant(lastReviewDate.toInstant(), ZoneId.systemDefault()));
+        }
+        return aggregate;
+    }
+
+    /**
+     * The values one approved review adds to its product's aggregate
+     */
+    public static final class Contribution {
+        private final String tenantId;
+        private final String productId;
+        private final int rating;
+        private final boolean verified;
+        private final boolean withImages;
+        private final double helpfulness;
+        private final LocalDateTime createdAt;
+
+        private Contribution(Review review) {
+            this.tenantId = review.getTenantId();
+            this.productId = review.getProductId();
+            this.rating = review.getRating();
+            this.verified = Boolean.TRUE.equals(review.getVerified());
+            this.withImages = review.getImageUrls() != null && !review.getImageUrls().isEmpty();
+            this.helpfulness = review.getHelpfulnessRatio();
+            this.createdAt = review.getCreatedAt();
+        }
+
+        private void addTo(Map<String, Number> deltas, int sign) {
+            deltas.merge("totalReviews", (long) sign, ProductRatingAggregateService::sum);
+            deltas.merge("ratingSum", (long) sign * rating, ProductRatingAggregateService::sum);
+            deltas.merge("ratingCounts." + rating, (long) sign, ProductRatingAggregateService::sum);
+            deltas.merge("verifiedReviews", verified ? (long) sign : 0L, ProductRatingAggregateService::sum);
+            deltas.merge("reviewsWithImages", withImages ? (long) sign : 0L, ProductRatingAggregateService::sum);
+            deltas.merge("helpfulnessSum", sign * helpfulness, ProductRatingAggregateService::sum);
+        }
+    }
+
+    private static Number sum(Number a, Number b) {
+        if (a instanceof Double || b instanceof Double) {
+            return a.doubleValue() + b.doubleValue();
+        }
+        return a.longValue() + b.longValue();
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.reviewservice.service;
+
+import com.ecommerce.reviewservice.entity.ProductRatingAggregate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Background check of the materialized rating aggregates.
+ *
+ * Each run recomputes the least recently verified aggregates from the reviews collection and
+ * repairs any that drifted, e.g. from a lost increment racing a rebuild or a removed latest
+ * review. Over successive runs every product is covered.
+ */
+@Component
+public class RatingAggregateVerificationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingAggregateVerificationJob.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductRatingAggregateService aggregateService;
+    private final Counter verifiedCounter;
+    private final Counter repairedCounter;
+
+    @Value("${app.review.aggregates.verification-batch-size:200}")
+    private int batchSize = 200;
+
+    @Autowired
+    public RatingAggregateVerificationJob(MongoTemplate mongoTemplate,
+                                          ProductRatingAggregateService aggregateService,
+                                          MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.aggregateService = aggregateService;
+        this.verifiedCounter = Counter.builder("review.aggregates.verified")
+            .description("Rating aggregates compared with the reviews collection")
+            .register(meterRegistry);
+        this.repairedCounter = Counter.builder("review.aggregates.repaired")
+            .description("Rating aggregates rebuilt after drifting from the reviews collection")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Verify the next batch of aggregates
+     *
+     * @return number of aggregates repaired
+     */
+    @Scheduled(fixedDelayString = "${app.review.aggregates.verification-interval-ms:60000}")
+    public int verifyAggregates() {
+        Query oldestFirst = new Query().with(Sort.by(Sort.Direction.ASC, "verifiedAt")).limit(batchSize);
+        List<ProductRatingAggregate> aggregates = mongoTemplate.find(oldestFirst, ProductRatingAggregate.class);
+
+        int repaired = 0;
+        for (ProductRatingAggregate aggregate : aggregates) {
+            try {
+                if (aggregateService.verifyAndRepair(aggregate)) {
+                    repaired++;
+                }
+                verifiedCounter.increment();
+            } catch (Exception e) {
+                logger.error("Failed to verify rating aggregate {}: {}", aggregate.getId(), e.getMessage(), e);
+            }
+        }
+        repairedCounter.increment(repaired);
+
+        if (repaired > 0) {
+            logger.info("Verified {} rating aggregates, repaired {}", aggregates.size(), repaired);
+        }
+        return repaired;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.reviewservice.service;
 
 import com.ecommerce.reviewservice.dto.*;
+import com.ecommerce.reviewservice.entity.ProductRatingAggregate;
 import com.ecommerce.reviewservice.entity.Review;
 import com.ecommerce.reviewservice.entity.ReviewStatus;
 import com.ecommerce.reviewservice.entity.ReviewVote;
@@ -8,6 +9,7 @@ import com.ecommerce.reviewservice.exception.ReviewNotFoundException;
 import com.ecommerce.reviewservice.exception.UnauthorizedReviewAccessException;
 import com.ecommerce.reviewservice.repository.ReviewRepository;
 import com.ecommerce.reviewservice.repository.ReviewVoteRepository;
+import com.ecommerce.reviewservice.service.ProductRatingAggregateService.Contribution;
 import com.ecommerce.shared.utils.TenantContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,7 +30,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -41,70 +42,46 @@ public class ReviewAggregationService {
     private final ReviewRepository reviewRepository;
     private final ReviewVoteRepository reviewVoteRepository;
     private final MongoTemplate mongoTemplate;
+    private final ProductRatingAggregateService aggregateService;
 
     @Autowired
     public ReviewAggregationService(ReviewRepository reviewRepository, 
                                   ReviewVoteRepository reviewVoteRepository,
-                                  MongoTemplate mongoTemplate) {
+                                  MongoTemplate mongoTemplate,
+                                  ProductRatingAggregateService aggregateService) {
         this.reviewRepository = reviewRepository;
         this.reviewVoteRepository = reviewVoteRepository;
         this.mongoTemplate = mongoTemplate;
+        this.aggregateService = aggregateService;
     }
 
     @Transactional(readOnly = true)
     public ProductRatingAggregateResponse getProductRatingAggregate(String productId) {
         String tenantId = TenantContext.getTenantId();
         
-        logger.info("Calculating rating aggregate for product {} in tenant {}", productId, tenantId);
+        logger.debug("Reading rating aggregate for product {} in tenant {}", productId, tenantId);
 
-        // Get all approved reviews for the product
-        List<Review> reviews = reviewRepository.findByTenantIdAndProductIdAndStatus(
-            tenantId, productId, ReviewStatus.APPROVED, Pageable.unpaged()).getContent();
+        ProductRatingAggregate aggregate = aggregateService.getAggregate(tenantId, productId);
 
-        if (reviews.isEmpty()) {
+        if (aggregate.getTotalReviews() == 0) {
             return new ProductRatingAggregateResponse(productId, BigDecimal.ZERO, 0L, 
                 new HashMap<>(), 0L, 0L, BigDecimal.ZERO);
         }
 
-        // Calculate average rating
-        double avgRating = reviews.stream()
-            .mapToInt(Review::getRating)
-            .average()
-            .orElse(0.0);
-
-        // Calculate rating distribution
-        Map<Integer, Long> ratingDistribution = reviews.stream()
-            .collect(Collectors.groupingBy(Review::getRating, Collectors.counting()));
-
         // Ensure all ratings 1-5 are present
+        Map<Integer, Long> ratingDistribution = new HashMap<>();
         for (int i = 1; i <= 5; i++) {
-            ratingDistribution.putIfAbsent(i, 0L);
+            ratingDistribution.put(i, aggregate.getRatingCount(i));
         }
 
-        // Count verified reviews
-        long verifiedReviews = reviews.stream()
-            .mapToLong(review -> review.getVerified() ? 1 : 0)
-            .sum();
-
-        // Count reviews with images
-        long reviewsWithImages = reviews.stream()
-            .mapToLong(review -> (review.getImageUrls() != null && !review.getImageUrls().isEmpty()) ? 1 : 0)
-            .sum();
-
-        // Calculate overall helpfulness score
-        double helpfulnessScore = reviews.stream()
-            .mapToDouble(Review::getHelpfulnessRatio)
-            .average()
-            .orElse(0.0);
-
         return new ProductRatingAggregateResponse(
             productId,
-            BigDecimal.valueOf(avgRating).setScale(2, RoundingMode.HALF_UP),
-            (long) reviews.size(),
+            BigDecimal.valueOf(aggregate.getAverageRating()).setScale(2, RoundingMode.HALF_UP),
+            aggregate.getTotalReviews(),
             ratingDistribution,
-            verifiedReviews,
-            reviewsWithImages,
-            BigDecimal.valueOf(helpfulnessScore).setScale(3, RoundingMode.HALF_UP)
+            aggregate.getVerifiedReviews(),
+            aggregate.getReviewsWithImages(),
+            BigDecimal.valueOf(aggregate.getAverageHelpfulness()).setScale(3, RoundingMode.HALF_UP)
         );
     }
 
@@ -112,68 +89,28 @@ public class ReviewAggregationService {
     public ReviewSummaryResponse getReviewSummary(String productId) {
         String tenantId = TenantContext.getTenantId();
         
-        logger.info("Generating review summary for product {} in tenant {}", productId, tenantId);
+        logger.debug("Reading review summary for product {} in tenant {}", productId, tenantId);
 
-        // Get all approved reviews for the product
-        List<Review> reviews = reviewRepository.findByTenantIdAndProductIdAndStatus(
-            tenantId, productId, ReviewStatus.APPROVED, Pageable.unpaged()).getContent();
+        ProductRatingAggregate aggregate = aggregateService.getAggregate(tenantId, productId);
 
-        if (reviews.isEmpty()) {
+        if (aggregate.getTotalReviews() == 0) {
             return new ReviewSummaryResponse(productId, BigDecimal.ZERO, 0L, 0L, 0L, 0L, 0L, 0L, 
                 0L, 0L, null, BigDecimal.ZERO);
         }
 
-        // Calculate average rating
-        double avgRating = reviews.stream()
-            .mapToInt(Review::getRating)
-            .average()
-            .orElse(0.0);
-
-        // Count reviews by rating
-        Map<Integer, Long> ratingCounts = reviews.stream()
-            .collect(Collectors.groupingBy(Review::getRating, Collectors.counting()));
-
-        long fiveStarReviews = ratingCounts.getOrDefault(5, 0L);
-        long fourStarReviews = ratingCounts.getOrDefault(4, 0L);
-        long threeStarReviews = ratingCounts.getOrDefault(3, 0L);
-        long twoStarReviews = ratingCounts.getOrDefault(2, 0L);
-        long oneStarReviews = ratingCounts.getOrDefault(1, 0L);
-
-        // Count verified reviews
-        long verifiedReviews = reviews.stream()
-            .mapToLong(review -> review.getVerified() ? 1 : 0)
-            .sum();
-
-        // Count reviews with images
-        long reviewsWithImages = reviews.stream()
-            .mapToLong(review -> (review.getImageUrls() != null && !review.getImageUrls().isEmpty()) ? 1 : 0)
-            .sum();
-
-        // Find last review date
-        LocalDateTime lastReviewDate = reviews.stream()
-            .map(Review::getCreatedAt)
-            .max(LocalDateTime::compareTo)
-            .orElse(null);
-
-        // Calculate overall helpfulness score
-        double helpfulnessScore = reviews.stream()
-            .mapToDouble(Review::getHelpfulnessRatio)
-            .average()
-            .orElse(0.0);
-
         return new ReviewSummaryResponse(
             productId,
-            BigDecimal.valueOf(avgRating).setScale(2, RoundingMode.HALF_UP),
-            (long) reviews.size(),
-            fiveStarReviews,
-            fourStarReviews,
-            threeStarReviews,
-            twoStarReviews,
-            oneStarReviews,
-            verifiedReviews,
-            reviewsWithImages,
-            lastReviewDate,
-            BigDecimal.valueOf(helpfulnessScore).setScale(3, RoundingMode.HALF_UP)
+            BigDecimal.valueOf(aggregate.getAverageRating()).setScale(2, RoundingMode.HALF_UP),
+            aggregate.getTotalReviews(),
+            aggregate.getRatingCount(5),
+            aggregate.getRatingCount(4),
+            aggregate.getRatingCount(3),
+            aggregate.getRatingCount(2),
+            aggregate.getRatingCount(1),
+            aggregate.getVerifiedReviews(),
+            aggregate.getReviewsWithImages(),
+            aggregate.getLastReviewDate(),
+            BigDecimal.valueOf(aggregate.getAverageHelpfulness()).setScale(3, RoundingMode.HALF_UP)
         );
     }
 
@@ -250,6 +187,8 @@ public class ReviewAggregationService {
             throw new UnauthorizedReviewAccessException("Users cannot vote on their own reviews");
         }
 
+        Contribution before = aggregateService.snapshot(review);
+
         // Check if user has already voted
         Optional<ReviewVote> existingVote = reviewVoteRepository.findByTenantIdAndUserIdAndReviewId(
             tenantId, userId, reviewId);
@@ -273,6 +212,7 @@ public class ReviewAggregationService {
         }
 
         Review savedReview = reviewRepository.save(review);
+        aggregateService.applyChange(before, aggregateService.snapshot(savedReview));
         
         logger.info("Vote recorded for review {}: helpful votes={}, total votes={}", 
                    reviewId, savedReview.getHelpfulVotes(), savedReview.getTotalVotes());
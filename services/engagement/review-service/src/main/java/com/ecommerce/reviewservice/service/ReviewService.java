@@ -7,6 +7,7 @@ import com.ecommerce.reviewservice.exception.DuplicateReviewException;
 import com.ecommerce.reviewservice.exception.ReviewNotFoundException;
 import com.ecommerce.reviewservice.exception.UnauthorizedReviewAccessException;
 import com.ecommerce.reviewservice.repository.ReviewRepository;
+import com.ecommerce.reviewservice.service.ProductRatingAggregateService.Contribution;
 import com.ecommerce.shared.utils.TenantContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,11 +32,14 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final ReviewEventPublisher eventPublisher;
+    private final ProductRatingAggregateService aggregateService;
 
     @Autowired
-    public ReviewService(ReviewRepository reviewRepository, ReviewEventPublisher eventPublisher) {
+    public ReviewService(ReviewRepository reviewRepository, ReviewEventPublisher eventPublisher,
+                         ProductRatingAggregateService aggregateService) {
         this.reviewRepository = reviewRepository;
         this.eventPublisher = eventPublisher;
+        this.aggregateService = aggregateService;
     }
 
     public ReviewResponse createReview(CreateReviewRequest request, Long userId) {
@@ -56,6 +60,8 @@ public class ReviewService {
         
         logger.info("Review created with ID: {}", savedReview.getId());
         
+        aggregateService.applyChange(null, aggregateService.snapshot(savedReview));
+
         // Publish event
         eventPublisher.publishReviewCreated(savedReview);
         
@@ -80,6 +86,7 @@ public class ReviewService {
         }
 
         Integer previousRating = review.getRating();
+        Contribution before = aggregateService.snapshot(review);
         
         review.setRating(request.getRating());
         review.setTitle(request.getTitle());
@@ -95,6 +102,8 @@ public class ReviewService {
         
         logger.info("Review updated: {}", savedReview.getId());
         
+        aggregateService.applyChange(before, aggregateService.snapshot(savedReview));
+
         // Publish event
         eventPublisher.publishReviewUpdated(savedReview, previousRating);
         
@@ -148,6 +157,7 @@ public class ReviewService {
         logger.info("Moderating review {} by moderator {} in tenant {}", reviewId, moderatorId, tenantId);
 
         Review review = findReviewByIdAndTenant(reviewId, tenantId);
+        Contribution before = aggregateService.snapshot(review);
         
         if (request.getStatus() == ReviewStatus.APPROVED) {
             review.approve(moderatorId, request.getModerationNotes());
@@ -161,6 +171,8 @@ public class ReviewService {
         
         logger.info("Review {} moderated with status: {}", reviewId, request.getStatus());
         
+        aggregateService.applyChange(before, aggregateService.snapshot(savedReview));
+
         // Publish event
         eventPublisher.publishReviewModerated(savedReview);
         
@@ -183,6 +195,7 @@ public class ReviewService {
         eventPublisher.publishReviewDeleted(review, "User requested deletion");
         
         reviewRepository.delete(review);
+        aggregateService.applyChange(aggregateService.snapshot(review), null);
         
         logger.info("Review deleted: {}", reviewId);
     }
@@ -197,12 +210,15 @@ public class ReviewService {
         logger.info("Flagging review {} in tenant {} for reason: {}", reviewId, tenantId, reason);
 
         Review review = findReviewByIdAndTenant(reviewId, tenantId);
+        Contribution before = aggregateService.snapshot(review);
         review.flag(reason);
         
         Review savedReview = reviewRepository.save(review);
         
         logger.info("Review flagged: {}", reviewId);
         
+        aggregateService.applyChange(before, aggregateService.snapshot(savedReview));
+
         // Publish event
         eventPublisher.publishReviewFlagged(savedReview, flaggedBy);
     }
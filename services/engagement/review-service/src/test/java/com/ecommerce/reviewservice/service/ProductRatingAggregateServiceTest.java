@@ -0,0 +1,244 @@
+package com.ecommerce.reviewservice.service;
+
+import com.ecommerce.reviewservice.entity.ProductRatingAggregate;
+import com.ecommerce.reviewservice.entity.Review;
+import com.ecommerce.reviewservice.entity.ReviewStatus;
+import com.ecommerce.reviewservice.service.ProductRatingAggregateService.Contribution;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductRatingAggregateServiceTest {
+
+    private static final String TENANT_ID = "tenant_1";
+    private static final String PRODUCT_ID = "product_123";
+    private static final String AGGREGATE_ID = TENANT_ID + ":" + PRODUCT_ID;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> reviewsCollection;
+
+    @Mock
+    private AggregateIterable<Document> aggregateIterable;
+
+    @Mock
+    private MongoCursor<Document> cursor;
+
+    private ProductRatingAggregateService aggregateService;
+
+    @BeforeEach
+    void setUp() {
+        aggregateService = new ProductRatingAggregateService(mongoTemplate);
+    }
+
+    @Test
+    void applyChange_ReviewApproved_ShouldIncrementAllCounters() {
+        // Given
+        Review review = createReview(4, true, List.of("image.jpg"), 3, 4);
+        review.setStatus(ReviewStatus.PENDING);
+        Contribution before = aggregateService.snapshot(review);
+        review.approve(2L, "ok");
+
+        // When
+        aggregateService.applyChange(before, aggregateService.snapshot(review));
+
+        // Then
+        Document inc = captureIncrement();
+        assertEquals(1L, inc.get("totalReviews"));
+        assertEquals(4L, inc.get("ratingSum"));
+        assertEquals(1L, inc.get("ratingCounts.4"));
+        assertEquals(1L, inc.get("verifiedReviews"));
+        assertEquals(1L, inc.get("reviewsWithImages"));
+        assertEquals(0.75, (Double) inc.get("helpfulnessSum"), 1e-9);
+        assertEquals(1, inc.get("version"));
+    }
+
+    @Test
+    void applyChange_RatingChanged_ShouldOnlyMoveRatingCounts() {
+        // Given
+        Review review = createReview(5, false, null, 0, 0);
+        Contribution before = aggregateService.snapshot(review);
+        review.setRating(2);
+
+        // When
+        aggregateService.applyChange(before, aggregateService.snapshot(review));
+
+        // Then
+        Document inc = captureIncrement();
+        assertEquals(-3L, inc.get("ratingSum"));
+        assertEquals(-1L, inc.get("ratingCounts.5"));
+        assertEquals(1L, inc.get("ratingCounts.2"));
+        assertFalse(inc.containsKey("totalReviews"));
+        assertFalse(inc.containsKey("verifiedReviews"));
+    }
+
+    @Test
+    void applyChange_ReviewDeleted_ShouldDecrementCounters() {
+        // Given
+        Review review = createReview(3, true, null, 1, 2);
+
+        // When
+        aggregateService.applyChange(aggregateService.snapshot(review), null);
+
+        // Then
+        Document inc = captureIncrement();
+        assertEquals(-1L, inc.get("totalReviews"));
+        assertEquals(-3L, inc.get("ratingSum"));
+        assertEquals(-1L, inc.get("ratingCounts.3"));
+        assertEquals(-1L, inc.get("verifiedReviews"));
+        assertEquals(-0.5, (Double) inc.get("helpfulnessSum"), 1e-9);
+    }
+
+    @Test
+    void applyChange_ReviewNeverApproved_ShouldNotTouchAggregate() {
+        // Given
+        Review review = createReview(5, false, null, 0, 0);
+        review.setStatus(ReviewStatus.PENDING);
+
+        // When
+        aggregateService.applyChange(null, aggregateService.snapshot(review));
+
+        // Then
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getAggregate_Existing_ShouldReadSingleDocument() {
+        // Given
+        ProductRatingAggregate stored = new ProductRatingAggregate(TENANT_ID, PRODUCT_ID);
+        stored.setTotalReviews(50_000);
+        when(mongoTemplate.findById(AGGREGATE_ID, ProductRatingAggregate.class)).thenReturn(stored);
+
+        // When
+        ProductRatingAggregate result = aggregateService.getAggregate(TENANT_ID, PRODUCT_ID);
+
+        // Then
+        assertSame(stored, result);
+        verify(mongoTemplate, never()).getCollection(anyString());
+    }
+
+    @Test
+    void getAggregate_Missing_ShouldBuildAndInsert() {
+        // Given
+        when(mongoTemplate.findById(AGGREGATE_ID, ProductRatingAggregate.class)).thenReturn(null);
+        stubReviewGroups(
+            group(5, 2, 1, 0, 1.5),
+            group(1, 1, 0, 1, 0.0));
+
+        // When
+        ProductRatingAggregate result = aggregateService.getAggregate(TENANT_ID, PRODUCT_ID);
+
+        // Then
+        assertEquals(3, result.getTotalReviews());
+        assertEquals(11, result.getRatingSum());
+        assertEquals(2, result.getRatingCount(5));
+        assertEquals(1, result.getRatingCount(1));
+        assertEquals(1, result.getVerifiedReviews());
+        assertEquals(1, result.getReviewsWithImages());
+        assertEquals(0.5, result.getAverageHelpfulness(), 1e-9);
+        assertNotNull(result.getLastReviewDate());
+        verify(mongoTemplate).insert(result);
+    }
+
+    @Test
+    void verifyAndRepair_WithDrift_ShouldReplaceStoredVersion() {
+        // Given
+        ProductRatingAggregate stored = new ProductRatingAggregate(TENANT_ID, PRODUCT_ID);
+        stored.setTotalReviews(7);
+        stored.setVersion(42);
+        stubReviewGroups(group(4, 2, 0, 0, 0.0));
+        when(mongoTemplate.findAndReplace(any(Query.class), any(ProductRatingAggregate.class))).thenReturn(stored);
+
+        // When
+        boolean repaired = aggregateService.verifyAndRepair(stored);
+
+        // Then
+        assertTrue(repaired);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<ProductRatingAggregate> replacement = ArgumentCaptor.forClass(ProductRatingAggregate.class);
+        verify(mongoTemplate).findAndReplace(query.capture(), replacement.capture());
+        assertEquals(42L, query.getValue().getQueryObject().get("version"));
+        assertEquals(2, replacement.getValue().getTotalReviews());
+        assertEquals(42, replacement.getValue().getVersion());
+    }
+
+    @Test
+    void verifyAndRepair_WithoutDrift_ShouldOnlyStampVerification() {
+        // Given
+        Date lastReview = new Date();
+        ProductRatingAggregate stored = new ProductRatingAggregate(TENANT_ID, PRODUCT_ID);
+        stored.setTotalReviews(2);
+        stored.setRatingSum(8);
+        stored.setRatingCounts(Map.of("4", 2L));
+        stored.setLastReviewDate(LocalDateTime.ofInstant(lastReview.toInstant(), ZoneId.systemDefault()));
+        stubReviewGroups(group(4, 2, 0, 0, 0.0).append("lastReviewDate", lastReview));
+
+        // When
+        boolean repaired = aggregateService.verifyAndRepair(stored);
+
+        // Then
+        assertFalse(repaired);
+        verify(mongoTemplate, never()).findAndReplace(any(Query.class), any(ProductRatingAggregate.class));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(ProductRatingAggregate.class));
+    }
+
+    private Document captureIncrement() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(ProductRatingAggregate.class));
+        return (Document) update.getValue().getUpdateObject().get("$inc");
+    }
+
+    private void stubReviewGroups(Document... groups) {
+        Iterator<Document> iterator = List.of(groups).iterator();
+        when(mongoTemplate.getCollectionName(Review.class)).thenReturn("reviews");
+        when(mongoTemplate.getCollection("reviews")).thenReturn(reviewsCollection);
+        when(reviewsCollection.aggregate(anyList())).thenReturn(aggregateIterable);
+        when(aggregateIterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+    }
+
+    private static Document group(int rating, int count, int verified, int withImages, double helpfulness) {
+        return new Document("_id", rating)
+            .append("count", count)
+            .append("verified", verified)
+            .append("withImages", withImages)
+            .append("helpfulness", helpfulness)
+            .append("lastReviewDate", new Date());
+    }
+
+    private static Review createReview(int rating, boolean verified, List<String> imageUrls, int helpfulVotes, int totalVotes) {
+        Review review = new Review(TENANT_ID, 1L, PRODUCT_ID, rating, "Title", "Comment");
+        review.setStatus(ReviewStatus.APPROVED);
+        review.setVerified(verified);
+        review.setImageUrls(imageUrls);
+        review.setHelpfulVotes(helpfulVotes);
+        review.setTotalVotes(totalVotes);
+        review.setCreatedAt(LocalDateTime.now());
+        return review;
+    }
+}
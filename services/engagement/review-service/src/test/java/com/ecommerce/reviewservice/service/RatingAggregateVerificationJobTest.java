@@ -0,0 +1,87 @@
+package com.ecommerce.reviewservice.service;
+
+import com.ecommerce.reviewservice.entity.ProductRatingAggregate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatingAggregateVerificationJobTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ProductRatingAggregateService aggregateService;
+
+    private MeterRegistry meterRegistry;
+    private RatingAggregateVerificationJob verificationJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        verificationJob = new RatingAggregateVerificationJob(mongoTemplate, aggregateService, meterRegistry);
+    }
+
+    @Test
+    void verifyAggregates_ShouldRepairDriftedAggregates() {
+        // Given
+        ProductRatingAggregate accurate = new ProductRatingAggregate("tenant_1", "product_1");
+        ProductRatingAggregate drifted = new ProductRatingAggregate("tenant_1", "product_2");
+        when(mongoTemplate.find(any(Query.class), eq(ProductRatingAggregate.class)))
+            .thenReturn(List.of(accurate, drifted));
+        when(aggregateService.verifyAndRepair(accurate)).thenReturn(false);
+        when(aggregateService.verifyAndRepair(drifted)).thenReturn(true);
+
+        // When
+        int repaired = verificationJob.verifyAggregates();
+
+        // Then
+        assertEquals(1, repaired);
+        assertEquals(2.0, meterRegistry.counter("review.aggregates.verified").count());
+        assertEquals(1.0, meterRegistry.counter("review.aggregates.repaired").count());
+    }
+
+    @Test
+    void verifyAggregates_WhenOneFails_ShouldContinueWithTheRest() {
+        // Given
+        ProductRatingAggregate failing = new ProductRatingAggregate("tenant_1", "product_1");
+        ProductRatingAggregate drifted = new ProductRatingAggregate("tenant_1", "product_2");
+        when(mongoTemplate.find(any(Query.class), eq(ProductRatingAggregate.class)))
+            .thenReturn(List.of(failing, drifted));
+        when(aggregateService.verifyAndRepair(failing)).thenThrow(new RuntimeException("Mongo unavailable"));
+        when(aggregateService.verifyAndRepair(drifted)).thenReturn(true);
+
+        // When
+        int repaired = verificationJob.verifyAggregates();
+
+        // Then
+        assertEquals(1, repaired);
+        verify(aggregateService).verifyAndRepair(drifted);
+    }
+
+    @Test
+    void verifyAggregates_ShouldVisitLeastRecentlyVerifiedFirst() {
+        // Given
+        when(mongoTemplate.find(any(Query.class), eq(ProductRatingAggregate.class))).thenReturn(List.of());
+
+        // When
+        verificationJob.verifyAggregates();
+
+        // Then
+        verify(mongoTemplate).find(argThat((Query query) ->
+            query.getSortObject().getInteger("verifiedAt") == 1 && query.getLimit() == 200), eq(ProductRatingAggregate.class));
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.reviewservice.service;
 
 import com.ecommerce.reviewservice.dto.*;
+import com.ecommerce.reviewservice.entity.ProductRatingAggregate;
 import com.ecommerce.reviewservice.entity.Review;
 import com.ecommerce.reviewservice.entity.ReviewStatus;
 import com.ecommerce.reviewservice.entity.ReviewVote;
@@ -15,9 +16,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 
@@ -41,6 +39,9 @@ class ReviewAggregationServiceTest {
     @Mock
     private MongoTemplate mongoTemplate;
 
+    @Mock
+    private ProductRatingAggregateService aggregateService;
+
     @InjectMocks
     private ReviewAggregationService reviewAggregationService;
 
@@ -57,12 +58,7 @@ class ReviewAggregationServiceTest {
     @Test
     void getProductRatingAggregate_WithReviews_ShouldReturnCorrectAggregate() {
         // Given
-        List<Review> reviews = createSampleReviews();
-        Page<Review> reviewPage = new PageImpl<>(reviews);
-        
-        when(reviewRepository.findByTenantIdAndProductIdAndStatus(
-            eq(TENANT_ID), eq(PRODUCT_ID), eq(ReviewStatus.APPROVED), any(Pageable.class)))
-            .thenReturn(reviewPage);
+        when(aggregateService.getAggregate(TENANT_ID, PRODUCT_ID)).thenReturn(createSampleAggregate());
 
         // When
         ProductRatingAggregateResponse result = reviewAggregationService.getProductRatingAggregate(PRODUCT_ID);
@@ -79,16 +75,15 @@ class ReviewAggregationServiceTest {
         assertEquals(expectedDistribution, result.getRatingDistribution());
         assertEquals(2L, result.getVerifiedReviews());
         assertEquals(1L, result.getReviewsWithImages());
+        assertEquals(new BigDecimal("0.450"), result.getHelpfulnessScore());
+        verifyNoInteractions(reviewRepository);
     }
 
     @Test
     void getProductRatingAggregate_WithNoReviews_ShouldReturnEmptyAggregate() {
         // Given
-        Page<Review> emptyPage = new PageImpl<>(Collections.emptyList());
-        
-        when(reviewRepository.findByTenantIdAndProductIdAndStatus(
-            eq(TENANT_ID), eq(PRODUCT_ID), eq(ReviewStatus.APPROVED), any(Pageable.class)))
-            .thenReturn(emptyPage);
+        when(aggregateService.getAggregate(TENANT_ID, PRODUCT_ID))
+            .thenReturn(new ProductRatingAggregate(TENANT_ID, PRODUCT_ID));
 
         // When
         ProductRatingAggregateResponse result = reviewAggregationService.getProductRatingAggregate(PRODUCT_ID);
@@ -107,12 +102,7 @@ class ReviewAggregationServiceTest {
     @Test
     void getReviewSummary_WithReviews_ShouldReturnCorrectSummary() {
         // Given
-        List<Review> reviews = createSampleReviews();
-        Page<Review> reviewPage = new PageImpl<>(reviews);
-        
-        when(reviewRepository.findByTenantIdAndProductIdAndStatus(
-            eq(TENANT_ID), eq(PRODUCT_ID), eq(ReviewStatus.APPROVED), any(Pageable.class)))
-            .thenReturn(reviewPage);
+        when(aggregateService.getAggregate(TENANT_ID, PRODUCT_ID)).thenReturn(createSampleAggregate());
 
         // When
         ReviewSummaryResponse result = reviewAggregationService.getReviewSummary(PRODUCT_ID);
@@ -184,6 +174,8 @@ class ReviewAggregationServiceTest {
         verify(reviewRepository).save(review);
         assertEquals(6, review.getHelpfulVotes());
         assertEquals(9, review.getTotalVotes());
+        verify(aggregateService, times(2)).snapshot(review);
+        verify(aggregateService).applyChange(any(), any());
     }
 
     @Test
@@ -252,6 +244,19 @@ class ReviewAggregationServiceTest {
             reviewAggregationService.voteOnReview(REVIEW_ID, voteRequest, USER_ID));
     }
 
+    private ProductRatingAggregate createSampleAggregate() {
+        // Matches createSampleReviews(): ratings 5, 5, 4, 3, 1
+        ProductRatingAggregate aggregate = new ProductRatingAggregate(TENANT_ID, PRODUCT_ID);
+        aggregate.setTotalReviews(5);
+        aggregate.setRatingSum(18);
+        aggregate.setRatingCounts(new HashMap<>(Map.of("5", 2L, "4", 1L, "3", 1L, "1", 1L)));
+        aggregate.setVerifiedReviews(2);
+        aggregate.setReviewsWithImages(1);
+        aggregate.setHelpfulnessSum(2.25);
+        aggregate.setLastReviewDate(LocalDateTime.now());
+        return aggregate;
+    }
+
     private List<Review> createSampleReviews() {
         List<Review> reviews = new ArrayList<>();
         
@@ -37,6 +37,9 @@ class ReviewServiceTest {
     @Mock
     private ReviewEventPublisher eventPublisher;
 
+    @Mock
+    private ProductRatingAggregateService aggregateService;
+
     @InjectMocks
     private ReviewService reviewService;
 
@@ -252,6 +255,7 @@ class ReviewServiceTest {
         verify(reviewRepository).findById(REVIEW_ID);
         verify(reviewRepository).save(any(Review.class));
         verify(eventPublisher).publishReviewModerated(any(Review.class));
+        verify(aggregateService).applyChange(any(), any());
     }
 
     @Test
@@ -289,6 +293,7 @@ class ReviewServiceTest {
         verify(reviewRepository).findById(REVIEW_ID);
         verify(eventPublisher).publishReviewDeleted(any(Review.class), eq("User requested deletion"));
         verify(reviewRepository).delete(review);
+        verify(aggregateService).applyChange(any(), isNull());
     }
 
     @Test
@@ -36,6 +36,13 @@ public class ReservationResponse {
         return response;
     }
 
+    public static ReservationResponse success(String reservationId, String orderId,
+                                            List<InventoryReservedEvent.ReservedItemData> reservedItems) {
+        ReservationResponse response = success(reservationId, reservedItems);
+        response.orderId = orderId;
+        return response;
+    }
+
     public static ReservationResponse failed(String reservationId, 
                                            List<InventoryReservationFailedEvent.FailedItemData> failedItems) {
         ReservationResponse response = new ReservationResponse();
@@ -3,6 +3,7 @@ package com.ecommerce.inventoryservice.grpc;
 import com.ecommerce.inventoryservice.dto.InventoryItemResponse;
 import com.ecommerce.inventoryservice.dto.ReservationResponse;
 import com.ecommerce.inventoryservice.dto.CreateReservationRequest;
+import com.ecommerce.inventoryservice.dto.ReservationRequest;
 import com.ecommerce.inventoryservice.service.InventoryService;
 import com.ecommerce.inventoryservice.service.InventoryReservationService;
 import com.ecommerce.inventoryservice.proto.InventoryServiceGrpc;
@@ -16,6 +17,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @GrpcService(interceptors = {TenantContextInterceptor.class})
 public class InventoryGrpcService extends InventoryServiceGrpc.InventoryServiceImplBase {
 
@@ -60,6 +65,44 @@ public class InventoryGrpcService extends InventoryServiceGrpc.InventoryServiceI
         }
     }
 
+    @Override
+    public void checkAvailabilityBatch(CheckAvailabilityBatchRequest request,
+                                       StreamObserver<CheckAvailabilityBatchResponse> responseObserver) {
+        try {
+            logger.debug("gRPC CheckAvailabilityBatch request for {} products in tenant: {}",
+                        request.getItemsCount(), TenantContext.getTenantId());
+
+            List<String> productIds = request.getItemsList().stream()
+                .map(AvailabilityLine::getProductId)
+                .distinct()
+                .collect(Collectors.toList());
+            Map<String, Integer> availableByProductId = inventoryService
+                .checkStockAvailability(TenantContext.getTenantId(), productIds).stream()
+                .collect(Collectors.toMap(InventoryItemResponse::getProductId,
+                    InventoryItemResponse::getAvailableQuantity, (first, second) -> first));
+
+            CheckAvailabilityBatchResponse.Builder response = CheckAvailabilityBatchResponse.newBuilder();
+            for (AvailabilityLine line : request.getItemsList()) {
+                int availableQuantity = availableByProductId.getOrDefault(line.getProductId(), 0);
+                response.addItems(CheckAvailabilityResponse.newBuilder()
+                    .setProductId(line.getProductId())
+                    .setAvailableQuantity(availableQuantity)
+                    .setIsAvailable(availableByProductId.containsKey(line.getProductId())
+                        && availableQuantity >= line.getRequestedQuantity())
+                    .build());
+            }
+
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            logger.error("Error checking availability for {} products", request.getItemsCount(), e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Internal server error")
+                .asRuntimeException());
+        }
+    }
+
     @Override
     public void reserveInventory(ReserveInventoryRequest request, StreamObserver<ReserveInventoryResponse> responseObserver) {
         try {
@@ -98,6 +141,57 @@ public class InventoryGrpcService extends InventoryServiceGrpc.InventoryServiceI
         }
     }
 
+    @Override
+    public void reserveInventoryBatch(ReserveInventoryBatchRequest request,
+                                      StreamObserver<ReserveInventoryBatchResponse> responseObserver) {
+        try {
+            logger.info("gRPC ReserveInventoryBatch request for order: {} lines: {} reservation: {} in tenant: {}",
+                       request.getOrderId(), request.getItemsCount(), request.getReservationId(), TenantContext.getTenantId());
+
+            List<ReservationRequest.ReservationItemRequest> items = request.getItemsList().stream()
+                .map(line -> new ReservationRequest.ReservationItemRequest(
+                    line.getProductId(), line.getSku(), line.getQuantity()))
+                .collect(Collectors.toList());
+
+            ReservationResponse reservation = reservationService.reserveInventoryBatch(
+                TenantContext.getTenantId(), request.getReservationId(),
+                new ReservationRequest(request.getOrderId(), items), request.getTtlSeconds());
+
+            ReserveInventoryBatchResponse.Builder response = ReserveInventoryBatchResponse.newBuilder()
+                .setSuccess(reservation.getStatus() == ReservationResponse.ReservationStatus.SUCCESS)
+                .setReservationId(reservation.getReservationId());
+
+            if (reservation.getFailedItems() != null) {
+                reservation.getFailedItems().forEach(failed -> response.addFailedItems(
+                    FailedReservationLine.newBuilder()
+                        .setProductId(failed.getProductId())
+                        .setRequestedQuantity(failed.getRequestedQuantity())
+                        .setAvailableQuantity(failed.getAvailableQuantity())
+                        .setReason(failed.getFailureReason())
+                        .build()));
+            }
+            if (reservation.getFailureReason() != null) {
+                response.setErrorMessage(reservation.getFailureReason());
+            }
+
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            logger.error("Error batch-reserving inventory for order: {} reservation: {}",
+                        request.getOrderId(), request.getReservationId(), e);
+
+            ReserveInventoryBatchResponse response = ReserveInventoryBatchResponse.newBuilder()
+                .setSuccess(false)
+                .setReservationId(request.getReservationId())
+                .setErrorMessage(e.getMessage() != null ? e.getMessage() : "Failed to reserve inventory")
+                .build();
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        }
+    }
+
     @Override
     public void releaseInventory(ReleaseInventoryRequest request, StreamObserver<ReleaseInventoryResponse> responseObserver) {
         try {
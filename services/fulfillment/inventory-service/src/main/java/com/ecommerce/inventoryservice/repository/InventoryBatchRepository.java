@@ -0,0 +1,230 @@
+package com.ecommerce.inventoryservice.repository;
+
+import com.ecommerce.inventoryservice.entity.InventoryReservation;
+import com.ecommerce.inventoryservice.entity.StockTransaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC-batched writes for the reservation hot paths.
+ *
+ * Reservation and transaction rows use IDENTITY keys, which prevents Hibernate from batching
+ * inserts, so the bulk paths go through {@link JdbcTemplate#batchUpdate} instead. Item quantity
+ * changes are applied as relative updates that also bump the JPA version column, so concurrent
+ * entity-based writers fail their optimistic check and retry rather than overwrite the delta.
+ */
+@Repository
+public class InventoryBatchRepository {
+
+    private static final String INSERT_RESERVATION_SQL =
+        "INSERT INTO inventory_reservations (tenant_id, reservation_id, order_id, inventory_item_id, " +
+        "product_id, sku, reserved_quantity, status, created_at, expires_at, version) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_TRANSACTION_SQL =
+        "INSERT INTO stock_transactions (tenant_id, inventory_item_id, transaction_type, quantity, " +
+        "previous_available_quantity, new_available_quantity, previous_reserved_quantity, " +
+        "new_reserved_quantity, reference_id, reference_type, reason, performed_by, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String APPLY_RESERVATION_DELTA_SQL =
+        "UPDATE inventory_items SET available_quantity = available_quantity - ?, " +
+        "reserved_quantity = reserved_quantity + ?, version = version + 1, updated_at = ? " +
+        "WHERE id = ?";
+
+    private static final String RESERVE_IF_AVAILABLE_SQL =
+        "UPDATE inventory_items SET available_quantity = available_quantity - ?, " +
+        "reserved_quantity = reserved_quantity + ?, version = version + 1, updated_at = ? " +
+        "WHERE id = ? AND status = 'ACTIVE' AND available_quantity >= ?";
+
+    private static final String RELEASE_ACTIVE_RESERVATION_SQL =
+        "UPDATE inventory_reservations SET status = 'RELEASED', released_at = ?, version = version + 1 " +
+        "WHERE id = ? AND status = 'ACTIVE'";
+
+    private static final String LOCK_ITEMS_SQL =
+        "SELECT id FROM inventory_items WHERE id IN (%s) ORDER BY id FOR UPDATE";
+
+    private static final String WRITTEN_RESERVATION_IDS_SQL =
+        "SELECT DISTINCT reservation_id FROM inventory_reservations WHERE reservation_id IN (%s) FOR SHARE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public InventoryBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert reservation rows in a single JDBC batch
+     */
+    public void insertReservations(List<InventoryReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(reservations.size());
+        for (InventoryReservation reservation : reservations) {
+            args.add(new Object[] {
+                reservation.getTenantId(),
+                reservation.getReservationId(),
+                reservation.getOrderId(),
+                reservation.getInventoryItemId(),
+                reservation.getProductId(),
+                reservation.getSku(),
+                reservation.getReservedQuantity(),
+                reservation.getStatus().name(),
+                Timestamp.valueOf(reservation.getCreatedAt()),
+                Timestamp.valueOf(reservation.getExpiresAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_RESERVATION_SQL, args);
+    }
+
+    /**
+     * Insert stock transaction rows in a single JDBC batch
+     */
+    public void insertTransactions(List<StockTransaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(transactions.size());
+        for (StockTransaction transaction : transactions) {
+            args.add(new Object[] {
+                transaction.getTenantId(),
+                transaction.getInventoryItemId(),
+                transaction.getTransactionType().name(),
+                transaction.getQuantity(),
+                transaction.getPreviousAvailableQuantity(),
+                transaction.getNewAvailableQuantity(),
+                transaction.getPreviousReservedQuantity(),
+                transaction.getNewReservedQuantity(),
+                transaction.getReferenceId(),
+                transaction.getReferenceType(),
+                transaction.getReason(),
+                transaction.getPerformedBy(),
+                Timestamp.valueOf(transaction.getCreatedAt())
+            });
+        }
+        int[] argTypes = {
+            Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.INTEGER,
+            Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.TIMESTAMP
+        };
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, args, argTypes);
+    }
+
+    /**
+     * Conditionally reserve quantity on each inventory item in one JDBC batch. An item is only
+     * updated if it is still active and has enough available stock at write time.
+     *
+     * @return the IDs of items whose condition failed; empty if every item was reserved
+     */
+    public List<Long> reserveIfAvailable(Map<Long, Integer> quantityByItemId) {
+        if (quantityByItemId.isEmpty()) {
+            return List.of();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> itemIds = new ArrayList<>(quantityByItemId.size());
+        List<Object[]> args = new ArrayList<>(quantityByItemId.size());
+        for (Map.Entry<Long, Integer> entry : quantityByItemId.entrySet()) {
+            itemIds.add(entry.getKey());
+            args.add(new Object[] {entry.getValue(), entry.getValue(), now, entry.getKey(), entry.getValue()});
+        }
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(RESERVE_IF_AVAILABLE_SQL, args);
+        List<Long> conflicts = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                conflicts.add(itemIds.get(i));
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Mark reservation rows as released in one JDBC batch, skipping rows that are no longer
+     * active. Concurrent releasers therefore cannot both return the same stock.
+     *
+     * @return the IDs of rows that this call moved from ACTIVE to RELEASED
+     */
+    public List<Long> releaseActiveReservations(List<Long> reservationRowIds, LocalDateTime releasedAt) {
+        if (reservationRowIds.isEmpty()) {
+            return List.of();
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(releasedAt);
+        List<Object[]> args = new ArrayList<>(reservationRowIds.size());
+        for (Long id : reservationRowIds) {
+            args.add(new Object[] {timestamp, id});
+        }
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(RELEASE_ACTIVE_RESERVATION_SQL, args);
+        List<Long> released = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] > 0) {
+                released.add(reservationRowIds.get(i));
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Lock inventory item rows until the end of the current transaction, in ID order so that
+     * writers locking overlapping sets cannot deadlock
+     */
+    public void lockItems(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.queryForList(String.format(LOCK_ITEMS_SQL, placeholders(itemIds.size())),
+            Long.class, itemIds.toArray());
+    }
+
+    /**
+     * Which of the given reservation IDs already have rows, read with a locking read so it sees
+     * rows committed after the current transaction started
+     */
+    public Set<String> findWrittenReservationIds(Collection<String> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+            String.format(WRITTEN_RESERVATION_IDS_SQL, placeholders(reservationIds.size())),
+            String.class, reservationIds.toArray()));
+    }
+
+    /**
+     * Move quantity from available to reserved for each inventory item, keyed by item ID.
+     * Negative quantities move stock back from reserved to available.
+     */
+    public void applyReservationDeltas(Map<Long, Integer> quantityByItemId) {
+        if (quantityByItemId.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(quantityByItemId.size());
+        for (Map.Entry<Long, Integer> entry : quantityByItemId.entrySet()) {
+            args.add(new Object[] {entry.getValue(), entry.getValue(), now, entry.getKey()});
+        }
+        jdbcTemplate.batchUpdate(APPLY_RESERVATION_DELTA_SQL, args);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
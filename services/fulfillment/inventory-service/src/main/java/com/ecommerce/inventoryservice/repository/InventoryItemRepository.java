@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -90,6 +91,11 @@ public interface InventoryItemRepository extends TenantAwareRepository<Inventory
     List<InventoryItem> findByTenantIdAndProductIdIn(@Param("tenantId") String tenantId, 
                                                     @Param("productIds") List<String> productIds);
 
+    /**
+     * Find items by multiple item IDs
+     */
+    List<InventoryItem> findByTenantIdAndIdIn(String tenantId, Collection<Long> ids);
+
     /**
      * Find items by multiple SKUs
      */
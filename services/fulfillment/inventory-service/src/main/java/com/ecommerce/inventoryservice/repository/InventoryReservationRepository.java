@@ -12,6 +12,7 @@ import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,10 +20,10 @@ import java.util.Optional;
 public interface InventoryReservationRepository extends TenantAwareRepository<InventoryReservation, Long> {
 
     /**
-     * Find reservation by tenant ID and reservation ID with optimistic locking
+     * Find the rows of a reservation, one per reserved item, with optimistic locking
      */
     @Lock(LockModeType.OPTIMISTIC)
-    Optional<InventoryReservation> findByTenantIdAndReservationId(String tenantId, String reservationId);
+    List<InventoryReservation> findByTenantIdAndReservationId(String tenantId, String reservationId);
 
     /**
      * Find reservation by tenant ID and order ID with optimistic locking
@@ -42,6 +43,11 @@ public interface InventoryReservationRepository extends TenantAwareRepository<In
                                                       InventoryReservation.ReservationStatus status, 
                                                       Pageable pageable);
 
+    /**
+     * Find every reservation row of an order, whatever its status
+     */
+    List<InventoryReservation> findAllByTenantIdAndOrderId(String tenantId, String orderId);
+
     /**
      * Find all active reservations for an order
      */
@@ -111,6 +117,27 @@ public interface InventoryReservationRepository extends TenantAwareRepository<In
                                                               @Param("startTime") LocalDateTime startTime,
                                                               @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * Keyset page of active reservations across all tenants expiring no later than endTime,
+     * ordered by (expiresAt, id) and starting strictly after the given cursor
+     */
+    @Query("SELECT r FROM InventoryReservation r WHERE r.status = 'ACTIVE' " +
+           "AND r.expiresAt <= :endTime " +
+           "AND (r.expiresAt > :afterExpiresAt OR (r.expiresAt = :afterExpiresAt AND r.id > :afterId)) " +
+           "ORDER BY r.expiresAt ASC, r.id ASC")
+    List<InventoryReservation> findReservationsExpiringBetween(@Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                                              @Param("afterId") Long afterId,
+                                                              @Param("endTime") LocalDateTime endTime,
+                                                              Pageable pageable);
+
+    /**
+     * Find the active rows of several reservations at once
+     */
+    @Query("SELECT r FROM InventoryReservation r WHERE r.tenantId = :tenantId " +
+           "AND r.reservationId IN :reservationIds AND r.status = 'ACTIVE'")
+    List<InventoryReservation> findActiveByTenantIdAndReservationIdIn(@Param("tenantId") String tenantId,
+                                                                     @Param("reservationIds") Collection<String> reservationIds);
+
     /**
      * Get reservation statistics for a tenant
      */
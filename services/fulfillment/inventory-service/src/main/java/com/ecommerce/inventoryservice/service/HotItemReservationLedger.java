@@ -0,0 +1,526 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.entity.InventoryItem;
+import com.ecommerce.inventoryservice.repository.InventoryItemRepository;
+import com.ecommerce.shared.utils.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shared admission ledger for hot inventory items.
+ *
+ * Items listed in {@code app.inventory.hot-items.keys} (as {@code tenantId:productId}) are
+ * reserved against a counter in Redis instead of the JPA-versioned row, so concurrent buyers of
+ * the same SKU never contend on an optimistic lock. Each item is a hash under
+ * {@code hot_item:<tenantId>:<productId>} holding its available and reserved quantities and its
+ * status, seeded from the database row on first use and updated only by Lua scripts, so every
+ * replica admits against the same stock and the check and the decrement are one atomic step.
+ * The hash has no expiry: it runs ahead of the row, which is brought up to date asynchronously
+ * by {@link ReservationWriteBehindService}.
+ *
+ * The reservations still to be written live next to the ledger, so any replica can finish them.
+ * The admission script also adds the reserved quantity to {@code hot_item_pending:<tenantId>:<productId>},
+ * keyed by reservation ID, and each order's write-behind payload is journaled in the
+ * {@code hot_item_journal} hash, with {@code hot_item_journal_orders} mapping the order to it.
+ * All three are removed in one script once the rows are written. An item
+ * whose hash was lost is only re-seeded from its row when nothing is pending for it, so the row
+ * then already holds every admission.
+ */
+@Component
+public class HotItemReservationLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotItemReservationLedger.class);
+    private static final String LEDGER_KEY_PREFIX = "hot_item:";
+    private static final String PENDING_KEY_PREFIX = "hot_item_pending:";
+    static final String JOURNAL_KEY = "hot_item_journal";
+    static final String JOURNAL_ORDERS_KEY = "hot_item_journal_orders";
+
+    static final long MISSING = 0;
+    static final long ADMITTED = 1;
+    static final long NOT_ACTIVE = 2;
+    static final long INSUFFICIENT = 3;
+
+    // Returns {outcome, available, reserved, itemId, sku} with the quantities from before the admission,
+    // and records the admitted quantity as pending for the reservation
+    static final RedisScript<List> RESERVE_SCRIPT = new DefaultRedisScript<>(
+        "local item = redis.call('HMGET', KEYS[1], 'status', 'available', 'reserved', 'itemId', 'sku') " +
+        "if not item[1] then return {0} end " +
+        "local available = tonumber(item[2]) " +
+        "local reserved = tonumber(item[3]) " +
+        "local quantity = tonumber(ARGV[1]) " +
+        "if item[1] ~= 'ACTIVE' then return {2, available, reserved} end " +
+        "if available < quantity then return {3, available, reserved} end " +
+        "redis.call('HSET', KEYS[1], 'available', available - quantity, 'reserved', reserved + quantity) " +
+        "redis.call('HINCRBY', KEYS[2], ARGV[2], quantity) " +
+        "return {1, available, reserved, item[4], item[5]}",
+        List.class);
+
+    // Refuses while reservations of the item are pending, as the row does not include them yet
+    static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+        "if redis.call('EXISTS', KEYS[2]) == 1 then return 2 end " +
+        "redis.call('HSET', KEYS[1], 'status', ARGV[1], 'available', ARGV[2], 'reserved', ARGV[3], " +
+        "'itemId', ARGV[4], 'sku', ARGV[5]) " +
+        "return 1",
+        Long.class);
+
+    // Items not seeded yet are left alone: they will be seeded from the already changed row
+    static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+        "redis.call('HINCRBY', KEYS[1], 'available', ARGV[1]) " +
+        "redis.call('HINCRBY', KEYS[1], 'reserved', ARGV[2]) " +
+        "return 1",
+        Long.class);
+
+    // Returns a reservation's pending quantity to the ledger. With a journal key, only if the
+    // reservation was never journaled, so an order that is about to be written keeps its stock.
+    static final RedisScript<Long> REVERT_SCRIPT = new DefaultRedisScript<>(
+        "if KEYS[3] and redis.call('HEXISTS', KEYS[3], ARGV[3]) == 1 then return 0 end " +
+        "local pending = tonumber(redis.call('HGET', KEYS[2], ARGV[2])) " +
+        "if not pending then return 0 end " +
+        "local quantity = math.min(tonumber(ARGV[1]), pending) " +
+        "if quantity >= pending then redis.call('HDEL', KEYS[2], ARGV[2]) " +
+        "else redis.call('HINCRBY', KEYS[2], ARGV[2], -quantity) end " +
+        "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+        "redis.call('HINCRBY', KEYS[1], 'available', quantity) " +
+        "redis.call('HINCRBY', KEYS[1], 'reserved', -quantity) end " +
+        "return 1",
+        Long.class);
+
+    // KEYS: the journal, its order index, then the pending hash of each admission. Returns 2 if
+    // another reservation of the order is journaled, and 0 if any admission was already returned
+    // to the ledger, so a reverted order is never written.
+    static final RedisScript<Long> JOURNAL_SCRIPT = new DefaultRedisScript<>(
+        "local existing = redis.call('HGET', KEYS[2], ARGV[4]) " +
+        "if existing and existing ~= ARGV[1] and redis.call('HEXISTS', KEYS[1], existing) == 1 then return 2 end " +
+        "for i = 3, #KEYS do " +
+        "if redis.call('HEXISTS', KEYS[i], ARGV[3]) == 0 then return 0 end end " +
+        "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) " +
+        "redis.call('HSET', KEYS[2], ARGV[4], ARGV[1]) " +
+        "return 1",
+        Long.class);
+
+    // KEYS: the journal, its order index, then the pending hash of each admission. ARGV: the
+    // number of reservations, their journal fields, their order fields, then the reservation ID
+    // of each admission.
+    static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(
+        "local count = tonumber(ARGV[1]) " +
+        "for i = 1, count do " +
+        "redis.call('HDEL', KEYS[1], ARGV[1 + i]) " +
+        "if redis.call('HGET', KEYS[2], ARGV[1 + count + i]) == ARGV[1 + i] then " +
+        "redis.call('HDEL', KEYS[2], ARGV[1 + count + i]) end end " +
+        "for i = 3, #KEYS do redis.call('HDEL', KEYS[i], ARGV[2 * count + i - 1]) end " +
+        "return count",
+        Long.class);
+
+    static final RedisScript<Long> STATUS_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+        "redis.call('HSET', KEYS[1], 'status', ARGV[1]) " +
+        "return 1",
+        Long.class);
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate seedTransaction;
+    private final Set<String> hotKeys;
+    private final boolean enabled;
+
+    @Autowired
+    public HotItemReservationLedger(InventoryItemRepository inventoryItemRepository,
+                                    StringRedisTemplate redisTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.inventory.hot-items.enabled:false}") boolean enabled,
+                                    @Value("${app.inventory.hot-items.keys:}") List<String> hotKeys) {
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.redisTemplate = redisTemplate;
+        this.seedTransaction = new TransactionTemplate(transactionManager);
+        this.seedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.seedTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.hotKeys = Collections.unmodifiableSet(new HashSet<>(hotKeys));
+    }
+
+    /**
+     * Whether reservations for this item are admitted by the ledger
+     */
+    public boolean isHot(String tenantId, String productId) {
+        return enabled && hotKeys.contains(key(tenantId, productId));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Atomically move quantity from available to reserved, recording it as pending for the
+     * reservation until {@link #complete} or {@link #revert}
+     */
+    public Admission tryReserve(String tenantId, String reservationId, String orderId, String productId,
+                                int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Invalid quantity to reserve: " + quantity);
+        }
+
+        List<String> keys = List.of(ledgerKey(tenantId, productId), pendingKey(tenantId, productId));
+        List<?> result = reserve(keys, reservationId, quantity);
+        if (outcome(result) == MISSING) {
+            seed(tenantId, productId, keys);
+            result = reserve(keys, reservationId, quantity);
+        }
+
+        long outcome = outcome(result);
+        if (outcome == MISSING || outcome == NOT_ACTIVE) {
+            throw new IllegalArgumentException("Product is not available: " + productId);
+        }
+        int available = intValue(result.get(1));
+        int reserved = intValue(result.get(2));
+        if (outcome == INSUFFICIENT) {
+            throw new IllegalArgumentException(
+                String.format("Insufficient stock for product %s. Requested: %d, Available: %d",
+                    productId, quantity, available));
+        }
+        return new Admission(tenantId, reservationId, orderId, productId, Long.valueOf(result.get(3).toString()),
+            result.get(4).toString(), quantity, available, available - quantity, reserved, reserved + quantity);
+    }
+
+    /**
+     * Undo an admission whose reservation will never be written
+     */
+    public void revert(Admission admission) {
+        redisTemplate.execute(REVERT_SCRIPT,
+            List.of(ledgerKey(admission.getTenantId(), admission.getProductId()),
+                pendingKey(admission.getTenantId(), admission.getProductId())),
+            String.valueOf(admission.getQuantity()), admission.getReservationId());
+    }
+
+    /**
+     * Undo an admission only if its reservation was never journaled, for admissions left
+     * behind by a request that died before {@link #journal}
+     *
+     * @return whether the admission was reverted
+     */
+    public boolean revertUnjournaled(Admission admission) {
+        Long reverted = redisTemplate.execute(REVERT_SCRIPT,
+            List.of(ledgerKey(admission.getTenantId(), admission.getProductId()),
+                pendingKey(admission.getTenantId(), admission.getProductId()), JOURNAL_KEY),
+            String.valueOf(admission.getQuantity()), admission.getReservationId(),
+            journalField(admission.getTenantId(), admission.getReservationId()));
+        return reverted != null && reverted == 1;
+    }
+
+    /**
+     * Journal the write-behind payload of an order's admissions
+     *
+     * @throws IllegalStateException if another reservation of the order is journaled, or if any
+     *         of the admissions has been reverted in the meantime
+     */
+    public void journal(String tenantId, String reservationId, String orderId, String payload,
+                        List<Admission> admissions) {
+        List<String> keys = new ArrayList<>(admissions.size() + 2);
+        keys.add(JOURNAL_KEY);
+        keys.add(JOURNAL_ORDERS_KEY);
+        for (Admission admission : admissions) {
+            keys.add(pendingKey(admission.getTenantId(), admission.getProductId()));
+        }
+        Long journaled = redisTemplate.execute(JOURNAL_SCRIPT, keys,
+            journalField(tenantId, reservationId), payload, reservationId, journalField(tenantId, orderId));
+        if (journaled != null && journaled == 2) {
+            throw new IllegalStateException("Another reservation of order " + orderId + " is already pending");
+        }
+        if (journaled == null || journaled != 1) {
+            throw new IllegalStateException(
+                "Hot-item admissions of reservation " + reservationId + " were already returned to the ledger");
+        }
+    }
+
+    /**
+     * Journaled payload of a reservation that has not been written yet, or null
+     */
+    public String journaled(String tenantId, String reservationId) {
+        Object payload = redisTemplate.opsForHash().get(JOURNAL_KEY, journalField(tenantId, reservationId));
+        return payload != null ? payload.toString() : null;
+    }
+
+    /**
+     * ID of the journaled reservation of an order that has not been written yet, or null
+     */
+    public String journaledReservationId(String tenantId, String orderId) {
+        Object field = redisTemplate.opsForHash().get(JOURNAL_ORDERS_KEY, journalField(tenantId, orderId));
+        return field != null ? field.toString().substring(tenantId.length() + 1) : null;
+    }
+
+    /**
+     * Payloads of every journaled reservation not written yet, on any replica
+     */
+    public List<String> journaledPayloads() {
+        List<String> payloads = new ArrayList<>();
+        for (Object payload : redisTemplate.opsForHash().values(JOURNAL_KEY)) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    /**
+     * Drop a journaled payload without writing it. Its admissions are still pending and must be
+     * reverted afterwards.
+     */
+    public void dropJournal(String tenantId, String reservationId, String orderId) {
+        redisTemplate.execute(COMPLETE_SCRIPT, List.of(JOURNAL_KEY, JOURNAL_ORDERS_KEY), "1",
+            journalField(tenantId, reservationId), journalField(tenantId, orderId));
+    }
+
+    /**
+     * Remove the journal entries and pending quantities of reservations whose rows are written
+     */
+    public void complete(Collection<Admission> admissions) {
+        if (admissions.isEmpty()) {
+            return;
+        }
+        Map<String, String> orderFields = new LinkedHashMap<>();
+        List<String> keys = new ArrayList<>(admissions.size() + 2);
+        List<String> reservationIds = new ArrayList<>(admissions.size());
+        keys.add(JOURNAL_KEY);
+        keys.add(JOURNAL_ORDERS_KEY);
+        for (Admission admission : admissions) {
+            orderFields.put(journalField(admission.getTenantId(), admission.getReservationId()),
+                journalField(admission.getTenantId(), admission.getOrderId()));
+            keys.add(pendingKey(admission.getTenantId(), admission.getProductId()));
+            reservationIds.add(admission.getReservationId());
+        }
+
+        List<String> args = new ArrayList<>(orderFields.size() * 2 + reservationIds.size() + 1);
+        args.add(String.valueOf(orderFields.size()));
+        args.addAll(orderFields.keySet());
+        args.addAll(orderFields.values());
+        args.addAll(reservationIds);
+        redisTemplate.execute(COMPLETE_SCRIPT, keys, args.toArray());
+    }
+
+    /**
+     * Pending admissions whose reservation has no journal entry. These belong to requests still
+     * between admission and {@link #journal}, or to requests that died in between.
+     */
+    public List<Admission> unjournaledAdmissions() {
+        List<Admission> admissions = new ArrayList<>();
+        for (String hotKey : hotKeys) {
+            int separator = hotKey.indexOf(':');
+            if (separator < 0) {
+                continue;
+            }
+            String tenantId = hotKey.substring(0, separator);
+            String productId = hotKey.substring(separator + 1);
+            for (Map.Entry<Object, Object> entry : redisTemplate.opsForHash()
+                    .entries(pendingKey(tenantId, productId)).entrySet()) {
+                String reservationId = entry.getKey().toString();
+                if (!redisTemplate.opsForHash().hasKey(JOURNAL_KEY, journalField(tenantId, reservationId))) {
+                    admissions.add(new Admission(tenantId, reservationId, null, productId, null, null,
+                        Integer.parseInt(entry.getValue().toString()), 0, 0, 0, 0));
+                }
+            }
+        }
+        return admissions;
+    }
+
+    /**
+     * Current available quantity of a hot item, or null if it has not been seeded yet
+     */
+    public Integer getAvailableQuantity(String tenantId, String productId) {
+        Object available = redisTemplate.opsForHash().get(ledgerKey(tenantId, productId), "available");
+        return available != null ? Integer.valueOf(available.toString()) : null;
+    }
+
+    /**
+     * Mirror a committed change made to the inventory row outside the ledger
+     * (stock adjustments, confirmations, releases). Applied after commit so a
+     * rolled-back change never leaks into the shared counters, and once by the
+     * replica that made it.
+     */
+    public void onItemChanged(String tenantId, String productId, int availableDelta, int reservedDelta) {
+        if (!enabled || !hotKeys.contains(key(tenantId, productId))) {
+            return;
+        }
+        afterCommit(() -> redisTemplate.execute(ADJUST_SCRIPT, List.of(ledgerKey(tenantId, productId)),
+            String.valueOf(availableDelta), String.valueOf(reservedDelta)));
+    }
+
+    /**
+     * Mirror a committed status change or removal of a hot item
+     */
+    public void onItemStatusChanged(String tenantId, String productId, InventoryItem.InventoryStatus status) {
+        if (!enabled || !hotKeys.contains(key(tenantId, productId))) {
+            return;
+        }
+        afterCommit(() -> {
+            if (status == null) {
+                redisTemplate.delete(ledgerKey(tenantId, productId));
+            } else {
+                redisTemplate.execute(STATUS_SCRIPT, List.of(ledgerKey(tenantId, productId)), status.name());
+            }
+        });
+    }
+
+    private List<?> reserve(List<String> keys, String reservationId, int quantity) {
+        return redisTemplate.execute(RESERVE_SCRIPT, keys, String.valueOf(quantity), reservationId);
+    }
+
+    // Only the first replica to get here seeds the item; the others keep what it wrote.
+    // Nothing is pending when the row is read, and nothing can be admitted until the seed, so
+    // the row holds every admission. It is read in its own transaction: the caller's snapshot
+    // may predate the last write-behind commit.
+    private void seed(String tenantId, String productId, List<String> keys) {
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(keys.get(1)))) {
+            throw new IllegalStateException("Reservations of product " + productId +
+                " are still being written, retry shortly");
+        }
+        InventoryItem item = seedTransaction.execute(status ->
+            inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId).orElse(null));
+        if (item == null) {
+            throw new ResourceNotFoundException("Inventory item not found for product: " + productId);
+        }
+        Long seeded = redisTemplate.execute(SEED_SCRIPT, keys, item.getStatus().name(),
+            String.valueOf(item.getAvailableQuantity()), String.valueOf(item.getReservedQuantity()),
+            String.valueOf(item.getId()), item.getSku());
+        if (seeded != null && seeded == 2) {
+            throw new IllegalStateException("Reservations of product " + productId +
+                " are still being written, retry shortly");
+        }
+        if (seeded != null && seeded == 1) {
+            logger.info("Seeded hot item ledger: tenantId={}, productId={}, available={}, reserved={}",
+                       tenantId, productId, item.getAvailableQuantity(), item.getReservedQuantity());
+        }
+    }
+
+    private static long outcome(List<?> result) {
+        return result == null || result.isEmpty() ? MISSING : ((Number) result.get(0)).longValue();
+    }
+
+    private static int intValue(Object value) {
+        return ((Number) value).intValue();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    static String key(String tenantId, String productId) {
+        return tenantId + ":" + productId;
+    }
+
+    static String ledgerKey(String tenantId, String productId) {
+        return LEDGER_KEY_PREFIX + key(tenantId, productId);
+    }
+
+    static String pendingKey(String tenantId, String productId) {
+        return PENDING_KEY_PREFIX + key(tenantId, productId);
+    }
+
+    static String journalField(String tenantId, String reservationId) {
+        return tenantId + ":" + reservationId;
+    }
+
+    /**
+     * Result of a successful ledger reservation of a single item
+     */
+    public static final class Admission {
+        private final String tenantId;
+        private final String reservationId;
+        private final String orderId;
+        private final String productId;
+        private final Long inventoryItemId;
+        private final String sku;
+        private final int quantity;
+        private final int previousAvailable;
+        private final int newAvailable;
+        private final int previousReserved;
+        private final int newReserved;
+
+        public Admission(String tenantId, String reservationId, String orderId, String productId,
+                         Long inventoryItemId, String sku, int quantity, int previousAvailable, int newAvailable,
+                         int previousReserved, int newReserved) {
+            this.tenantId = tenantId;
+            this.reservationId = reservationId;
+            this.orderId = orderId;
+            this.productId = productId;
+            this.inventoryItemId = inventoryItemId;
+            this.sku = sku;
+            this.quantity = quantity;
+            this.previousAvailable = previousAvailable;
+            this.newAvailable = newAvailable;
+            this.previousReserved = previousReserved;
+            this.newReserved = newReserved;
+        }
+
+        public String getTenantId() {
+            return tenantId;
+        }
+
+        public String getReservationId() {
+            return reservationId;
+        }
+
+        public String getOrderId() {
+            return orderId;
+        }
+
+        public String getProductId() {
+            return productId;
+        }
+
+        public Long getInventoryItemId() {
+            return inventoryItemId;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public int getPreviousAvailable() {
+            return previousAvailable;
+        }
+
+        public int getNewAvailable() {
+            return newAvailable;
+        }
+
+        public int getPreviousReserved() {
+            return previousReserved;
+        }
+
+        public int getNewReserved() {
+            return newReserved;
+        }
+    }
+}
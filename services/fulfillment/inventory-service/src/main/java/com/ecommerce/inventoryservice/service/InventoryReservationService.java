@@ -5,6 +5,7 @@ import com.ecommerce.inventoryservice.dto.ReservationResponse;
 import com.ecommerce.inventoryservice.entity.InventoryItem;
 import com.ecommerce.inventoryservice.entity.InventoryReservation;
 import com.ecommerce.inventoryservice.entity.StockTransaction;
+import com.ecommerce.inventoryservice.repository.InventoryBatchRepository;
 import com.ecommerce.inventoryservice.repository.InventoryItemRepository;
 import com.ecommerce.inventoryservice.repository.InventoryReservationRepository;
 import com.ecommerce.shared.models.events.InventoryReservedEvent;
@@ -13,6 +14,7 @@ import com.ecommerce.shared.models.events.InventoryReleasedEvent;
 import com.ecommerce.shared.utils.exception.ResourceNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.OptimisticLockingFailureException;
@@ -22,12 +24,19 @@ import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,9 +49,13 @@ public class InventoryReservationService {
 
     private final InventoryReservationRepository reservationRepository;
     private final InventoryItemRepository inventoryItemRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
     private final StockTransactionService stockTransactionService;
     private final RedisTemplate<String, Object> redisTemplate;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final HotItemReservationLedger hotItemLedger;
+    private final ReservationWriteBehindService reservationWriteBehind;
+    private final ReservationExpiryWheel expiryWheel;
 
     @Value("${app.inventory.reservation.ttl-minutes:30}")
     private int reservationTtlMinutes;
@@ -53,14 +66,22 @@ public class InventoryReservationService {
     @Autowired
     public InventoryReservationService(InventoryReservationRepository reservationRepository,
                                      InventoryItemRepository inventoryItemRepository,
+                                     InventoryBatchRepository inventoryBatchRepository,
                                      StockTransactionService stockTransactionService,
                                      RedisTemplate<String, Object> redisTemplate,
-                                     KafkaTemplate<String, Object> kafkaTemplate) {
+                                     KafkaTemplate<String, Object> kafkaTemplate,
+                                     HotItemReservationLedger hotItemLedger,
+                                     ReservationWriteBehindService reservationWriteBehind,
+                                     ReservationExpiryWheel expiryWheel) {
         this.reservationRepository = reservationRepository;
         this.inventoryItemRepository = inventoryItemRepository;
+        this.inventoryBatchRepository = inventoryBatchRepository;
         this.stockTransactionService = stockTransactionService;
         this.redisTemplate = redisTemplate;
         this.kafkaTemplate = kafkaTemplate;
+        this.hotItemLedger = hotItemLedger;
+        this.reservationWriteBehind = reservationWriteBehind;
+        this.expiryWheel = expiryWheel;
     }
 
     /**
@@ -71,19 +92,37 @@ public class InventoryReservationService {
         String reservationId = UUID.randomUUID().toString();
         LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(reservationTtlMinutes);
         
-        // Check if reservation already exists for this order
-        if (reservationRepository.existsByTenantIdAndOrderId(tenantId, request.getOrderId())) {
-            throw new IllegalArgumentException("Reservation already exists for order: " + request.getOrderId());
+        // A redelivered request gets the order's existing reservation instead of a second one
+        ReservationResponse existing = findExistingReservation(tenantId, null, request.getOrderId());
+        if (existing != null) {
+            return existing;
         }
 
         List<InventoryReservation> reservations = new ArrayList<>();
+        List<HotItemReservationLedger.Admission> admissions = new ArrayList<>();
         List<InventoryReservedEvent.ReservedItemData> reservedItems = new ArrayList<>();
         List<InventoryReservationFailedEvent.FailedItemData> failedItems = new ArrayList<>();
+        boolean admissionsSubmitted = false;
 
         try {
             // Process each item in the reservation request
             for (ReservationRequest.ReservationItemRequest itemRequest : request.getItems()) {
                 try {
+                    // Hot items are admitted against the shared ledger and persisted asynchronously
+                    if (hotItemLedger.isHot(tenantId, itemRequest.getProductId())) {
+                        HotItemReservationLedger.Admission admission = hotItemLedger.tryReserve(
+                            tenantId, reservationId, request.getOrderId(), itemRequest.getProductId(),
+                            itemRequest.getQuantity());
+                        admissions.add(admission);
+                        reservedItems.add(new InventoryReservedEvent.ReservedItemData(
+                            admission.getProductId(),
+                            admission.getSku(),
+                            admission.getQuantity(),
+                            admission.getInventoryItemId()
+                        ));
+                        continue;
+                    }
+
                     InventoryReservation reservation = processItemReservation(
                         tenantId, reservationId, request.getOrderId(), itemRequest, expiresAt);
                     
@@ -102,15 +141,19 @@ public class InventoryReservationService {
                                itemRequest.getQuantity(), e.getMessage());
                     
                     // Find available quantity for failed item
-                    Integer availableQuantity = 0;
-                    try {
-                        InventoryItem item = inventoryItemRepository
-                            .findByTenantIdAndProductId(tenantId, itemRequest.getProductId())
-                            .orElse(null);
-                        if (item != null) {
-                            availableQuantity = item.getAvailableQuantity();
-                        }
-                    } catch (Exception ignored) {}
+                    Integer availableQuantity = hotItemLedger.isHot(tenantId, itemRequest.getProductId())
+                        ? hotItemLedger.getAvailableQuantity(tenantId, itemRequest.getProductId()) : null;
+                    if (availableQuantity == null) {
+                        availableQuantity = 0;
+                        try {
+                            InventoryItem item = inventoryItemRepository
+                                .findByTenantIdAndProductId(tenantId, itemRequest.getProductId())
+                                .orElse(null);
+                            if (item != null) {
+                                availableQuantity = item.getAvailableQuantity();
+                            }
+                        } catch (Exception ignored) {}
+                    }
 
                     failedItems.add(new InventoryReservationFailedEvent.FailedItemData(
                         itemRequest.getProductId(),
@@ -125,6 +168,7 @@ public class InventoryReservationService {
             // If any items failed, rollback all reservations
             if (!failedItems.isEmpty()) {
                 rollbackReservations(tenantId, reservations);
+                admissions.forEach(hotItemLedger::revert);
                 
                 // Publish failure event
                 InventoryReservationFailedEvent failureEvent = new InventoryReservationFailedEvent(
@@ -134,8 +178,16 @@ public class InventoryReservationService {
                 return ReservationResponse.failed(reservationId, failedItems);
             }
 
+            // Journal hot-item admissions before acknowledging them
+            if (!admissions.isEmpty()) {
+                reservationWriteBehind.submit(tenantId, reservationId, request.getOrderId(), expiresAt, admissions);
+                admissionsSubmitted = true;
+            }
+
+            expiryWheel.schedule(tenantId, reservationId, expiresAt);
+
             // Cache reservation data in Redis
-            cacheReservationData(tenantId, reservationId, reservations);
+            cacheReservationData(tenantId, reservationId, request.getOrderId(), reservedItems);
 
             // Publish success event
             InventoryReservedEvent successEvent = new InventoryReservedEvent(
@@ -145,13 +197,207 @@ public class InventoryReservationService {
             logger.info("Successfully reserved inventory for order: {}, reservationId: {}, items: {}", 
                        request.getOrderId(), reservationId, reservedItems.size());
 
-            return ReservationResponse.success(reservationId, reservedItems);
+            return ReservationResponse.success(reservationId, request.getOrderId(), reservedItems);
 
         } catch (Exception e) {
             logger.error("Failed to reserve inventory for order: {}", request.getOrderId(), e);
             rollbackReservations(tenantId, reservations);
+            if (!admissionsSubmitted) {
+                admissions.forEach(hotItemLedger::revert);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reserve all items of an order in a fixed number of statements regardless of line count:
+     * one bulk item lookup, one batch of conditional stock updates, and one insert batch each
+     * for reservations and stock transactions. All-or-nothing, like {@link #reserveInventory}.
+     */
+    public ReservationResponse reserveInventoryBatch(String tenantId, String reservationId,
+                                                     ReservationRequest request, long ttlSeconds) {
+        String batchReservationId = reservationId != null && !reservationId.isBlank()
+            ? reservationId : UUID.randomUUID().toString();
+        LocalDateTime expiresAt = ttlSeconds > 0
+            ? LocalDateTime.now().plusSeconds(ttlSeconds)
+            : LocalDateTime.now().plusMinutes(reservationTtlMinutes);
+
+        // A retried call, for example after a lost response, gets the reservation it already made
+        ReservationResponse existing = findExistingReservation(tenantId, reservationId, request.getOrderId());
+        if (existing != null) {
+            return existing;
+        }
+
+        // Merge repeated lines for the same product so each item is checked and updated once
+        Map<String, ReservationRequest.ReservationItemRequest> lines = new LinkedHashMap<>();
+        for (ReservationRequest.ReservationItemRequest itemRequest : request.getItems()) {
+            lines.merge(itemRequest.getProductId(), itemRequest, (existing, added) ->
+                new ReservationRequest.ReservationItemRequest(existing.getProductId(), existing.getSku(),
+                    existing.getQuantity() + added.getQuantity()));
+        }
+
+        List<String> databaseProductIds = lines.keySet().stream()
+            .filter(productId -> !hotItemLedger.isHot(tenantId, productId))
+            .collect(Collectors.toList());
+        Map<String, InventoryItem> itemsByProduct = databaseProductIds.isEmpty() ? Map.of() :
+            inventoryItemRepository.findByTenantIdAndProductIdIn(tenantId, databaseProductIds).stream()
+                .collect(Collectors.toMap(InventoryItem::getProductId, Function.identity(), (a, b) -> a));
+
+        List<HotItemReservationLedger.Admission> admissions = new ArrayList<>();
+        List<InventoryReservationFailedEvent.FailedItemData> failedItems = new ArrayList<>();
+        Map<Long, Integer> quantityByItemId = new LinkedHashMap<>();
+
+        List<InventoryReservedEvent.ReservedItemData> reservedItems = new ArrayList<>();
+        boolean admissionsSubmitted = false;
+
+        // Any failure once stock is admitted in Redis must hand it back, as the JPA rollback cannot
+        try {
+            for (ReservationRequest.ReservationItemRequest line : lines.values()) {
+                String productId = line.getProductId();
+                int quantity = line.getQuantity();
+
+                if (hotItemLedger.isHot(tenantId, productId)) {
+                    try {
+                        admissions.add(hotItemLedger.tryReserve(
+                            tenantId, batchReservationId, request.getOrderId(), productId, quantity));
+                    } catch (RuntimeException e) {
+                        Integer available = hotItemLedger.getAvailableQuantity(tenantId, productId);
+                        failedItems.add(new InventoryReservationFailedEvent.FailedItemData(
+                            productId, line.getSku(), quantity, available != null ? available : 0, e.getMessage()));
+                    }
+                    continue;
+                }
+
+                InventoryItem item = itemsByProduct.get(productId);
+                if (item == null) {
+                    failedItems.add(new InventoryReservationFailedEvent.FailedItemData(
+                        productId, line.getSku(), quantity, 0,
+                        "Inventory item not found or not available for product: " + productId));
+                } else if (!item.canReserve(quantity)) {
+                    failedItems.add(new InventoryReservationFailedEvent.FailedItemData(
+                        productId, line.getSku(), quantity, item.getAvailableQuantity(),
+                        String.format("Insufficient stock for product %s. Requested: %d, Available: %d",
+                            productId, quantity, item.getAvailableQuantity())));
+                } else {
+                    quantityByItemId.put(item.getId(), quantity);
+                }
+            }
+
+            if (!failedItems.isEmpty()) {
+                return failBatchReservation(
+                    tenantId, batchReservationId, request.getOrderId(), admissions, failedItems);
+            }
+
+            // Stock may have moved since the lookup; the conditional update is the real check
+            List<Long> conflicts = inventoryBatchRepository.reserveIfAvailable(quantityByItemId);
+            if (!conflicts.isEmpty()) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                for (InventoryItem item : itemsByProduct.values()) {
+                    if (conflicts.contains(item.getId())) {
+                        int quantity = quantityByItemId.get(item.getId());
+                        failedItems.add(new InventoryReservationFailedEvent.FailedItemData(
+                            item.getProductId(), item.getSku(), quantity, item.getAvailableQuantity(),
+                            "Insufficient stock for product " + item.getProductId() + " after concurrent update"));
+                    }
+                }
+                return failBatchReservation(
+                    tenantId, batchReservationId, request.getOrderId(), admissions, failedItems);
+            }
+
+            String performedBy = MDC.get("userId");
+            List<InventoryReservation> reservations = new ArrayList<>();
+            List<StockTransaction> transactions = new ArrayList<>();
+
+            for (InventoryItem item : itemsByProduct.values()) {
+                Integer quantity = quantityByItemId.get(item.getId());
+                if (quantity == null) {
+                    continue;
+                }
+                reservations.add(new InventoryReservation(tenantId, batchReservationId, request.getOrderId(),
+                    item.getId(), item.getProductId(), item.getSku(), quantity, expiresAt));
+
+                StockTransaction transaction = new StockTransaction(tenantId, item.getId(),
+                    StockTransaction.TransactionType.RESERVATION, quantity, request.getOrderId(),
+                    "ORDER", "Inventory reservation for order");
+                transaction.setPreviousAvailableQuantity(item.getAvailableQuantity());
+                transaction.setNewAvailableQuantity(item.getAvailableQuantity() - quantity);
+                transaction.setPreviousReservedQuantity(item.getReservedQuantity());
+                transaction.setNewReservedQuantity(item.getReservedQuantity() + quantity);
+                transaction.setPerformedBy(performedBy);
+                transactions.add(transaction);
+
+                reservedItems.add(new InventoryReservedEvent.ReservedItemData(
+                    item.getProductId(), item.getSku(), quantity, item.getId()));
+            }
+
+            inventoryBatchRepository.insertReservations(reservations);
+            inventoryBatchRepository.insertTransactions(transactions);
+
+            if (!admissions.isEmpty()) {
+                reservationWriteBehind.submit(
+                    tenantId, batchReservationId, request.getOrderId(), expiresAt, admissions);
+                admissionsSubmitted = true;
+                for (HotItemReservationLedger.Admission admission : admissions) {
+                    reservedItems.add(new InventoryReservedEvent.ReservedItemData(
+                        admission.getProductId(), admission.getSku(), admission.getQuantity(),
+                        admission.getInventoryItemId()));
+                }
+            }
+        } catch (RuntimeException e) {
+            if (!admissionsSubmitted) {
+                admissions.forEach(hotItemLedger::revert);
+            }
             throw e;
         }
+
+        expiryWheel.schedule(tenantId, batchReservationId, expiresAt);
+        cacheReservationData(tenantId, batchReservationId, request.getOrderId(), reservedItems);
+
+        InventoryReservedEvent successEvent = new InventoryReservedEvent(
+            tenantId, request.getOrderId(), batchReservationId, reservedItems);
+        kafkaTemplate.send(inventoryEventsTopic, successEvent);
+
+        logger.info("Successfully batch-reserved inventory for order: {}, reservationId: {}, items: {}",
+                   request.getOrderId(), batchReservationId, reservedItems.size());
+
+        return ReservationResponse.success(batchReservationId, request.getOrderId(), reservedItems);
+    }
+
+    /**
+     * The reservation already made for an order, or under the given reservation ID, or null if
+     * there is none. Hot-item reservations still in the write-behind journal are written first,
+     * so they are found too; this must therefore run before the transaction's first read.
+     */
+    private ReservationResponse findExistingReservation(String tenantId, String reservationId, String orderId) {
+        if (reservationId != null && !reservationId.isBlank()) {
+            reservationWriteBehind.awaitPersisted(tenantId, reservationId);
+        }
+        reservationWriteBehind.awaitPersistedForOrder(tenantId, orderId);
+
+        List<InventoryReservation> reservations = reservationRepository.findAllByTenantIdAndOrderId(tenantId, orderId);
+        if (reservations.isEmpty()) {
+            if (reservationId != null
+                    && reservationRepository.existsByTenantIdAndReservationId(tenantId, reservationId)) {
+                throw new IllegalArgumentException("Reservation " + reservationId + " belongs to another order");
+            }
+            return null;
+        }
+
+        String existingReservationId = reservations.get(0).getReservationId();
+        List<InventoryReservedEvent.ReservedItemData> items = reservations.stream()
+            .filter(r -> r.getStatus() == InventoryReservation.ReservationStatus.ACTIVE
+                || r.getStatus() == InventoryReservation.ReservationStatus.CONFIRMED)
+            .map(r -> new InventoryReservedEvent.ReservedItemData(
+                r.getProductId(), r.getSku(), r.getReservedQuantity(), r.getInventoryItemId()))
+            .collect(Collectors.toList());
+
+        if (items.isEmpty()) {
+            logger.info("Reservation {} for order {} was already released", existingReservationId, orderId);
+            return ReservationResponse.failed(existingReservationId,
+                "Reservation for order " + orderId + " was already released");
+        }
+        logger.info("Returning existing reservation {} for order {}", existingReservationId, orderId);
+        return ReservationResponse.success(existingReservationId, orderId, items);
     }
 
     /**
@@ -207,6 +453,7 @@ public class InventoryReservationService {
      */
     @Retryable(value = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100))
     public void confirmReservation(String tenantId, String reservationId) {
+        reservationWriteBehind.awaitPersisted(tenantId, reservationId);
         List<InventoryReservation> reservations = reservationRepository
             .findActiveReservationsByOrder(tenantId, getOrderIdFromCache(tenantId, reservationId));
 
@@ -232,6 +479,7 @@ public class InventoryReservationService {
             // Update reservation status
             reservation.confirm();
             reservationRepository.save(reservation);
+            hotItemLedger.onItemChanged(tenantId, reservation.getProductId(), 0, -reservation.getReservedQuantity());
 
             // Log transaction
             stockTransactionService.logTransaction(
@@ -253,6 +501,7 @@ public class InventoryReservationService {
      */
     @Retryable(value = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100))
     public void releaseReservation(String tenantId, String reservationId, String reason) {
+        reservationWriteBehind.awaitPersisted(tenantId, reservationId);
         List<InventoryReservation> reservations = reservationRepository
             .findActiveReservationsByOrder(tenantId, getOrderIdFromCache(tenantId, reservationId));
 
@@ -284,6 +533,8 @@ public class InventoryReservationService {
             // Update reservation status
             reservation.release();
             reservationRepository.save(reservation);
+            hotItemLedger.onItemChanged(tenantId, reservation.getProductId(),
+                reservation.getReservedQuantity(), -reservation.getReservedQuantity());
 
             // Log transaction
             stockTransactionService.logTransaction(
@@ -339,7 +590,7 @@ public class InventoryReservationService {
                 r.getProductId(), r.getSku(), r.getReservedQuantity(), r.getInventoryItemId()))
             .collect(Collectors.toList());
 
-        return ReservationResponse.success(reservationId, items);
+        return ReservationResponse.success(reservationId, reservations.get(0).getOrderId(), items);
     }
 
     /**
@@ -362,7 +613,114 @@ public class InventoryReservationService {
         logger.info("Cleaned up {} expired reservations for tenant: {}", expiredReservations.size(), tenantId);
     }
 
+    /**
+     * Release a set of expired reservations in bulk. Stock is returned with one relative update
+     * per inventory item instead of a load and save per reservation row, and rows already
+     * confirmed or released elsewhere are skipped.
+     *
+     * @return the number of reservation rows released by this call
+     */
+    public int expireReservations(String tenantId, Collection<String> reservationIds, String reason) {
+        reservationIds.forEach(reservationId -> reservationWriteBehind.awaitPersisted(tenantId, reservationId));
+        List<InventoryReservation> candidates = reservationRepository
+            .findActiveByTenantIdAndReservationIdIn(tenantId, reservationIds);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> releasedIds = new HashSet<>(inventoryBatchRepository.releaseActiveReservations(
+            candidates.stream().map(InventoryReservation::getId).collect(Collectors.toList()),
+            LocalDateTime.now()));
+        List<InventoryReservation> released = candidates.stream()
+            .filter(reservation -> releasedIds.contains(reservation.getId()))
+            .collect(Collectors.toList());
+        if (released.isEmpty()) {
+            return 0;
+        }
+
+        // One stock update per item, however many expired reservations point at it
+        Map<Long, Integer> deltaByItemId = new LinkedHashMap<>();
+        for (InventoryReservation reservation : released) {
+            deltaByItemId.merge(reservation.getInventoryItemId(), -reservation.getReservedQuantity(), Integer::sum);
+        }
+        Map<Long, InventoryItem> itemsById = inventoryItemRepository
+            .findByTenantIdAndIdIn(tenantId, deltaByItemId.keySet()).stream()
+            .collect(Collectors.toMap(InventoryItem::getId, Function.identity()));
+        inventoryBatchRepository.applyReservationDeltas(deltaByItemId);
+
+        // Quantities are tracked locally; the loaded items must stay unmodified so the
+        // persistence context does not flush them over the relative update
+        Map<Long, Integer> availableByItemId = new LinkedHashMap<>();
+        Map<Long, Integer> reservedByItemId = new LinkedHashMap<>();
+        itemsById.values().forEach(item -> {
+            availableByItemId.put(item.getId(), item.getAvailableQuantity());
+            reservedByItemId.put(item.getId(), item.getReservedQuantity());
+        });
+
+        List<StockTransaction> transactions = new ArrayList<>();
+        Map<String, List<InventoryReleasedEvent.ReleasedItemData>> itemsByReservation = new LinkedHashMap<>();
+        Map<String, String> orderByReservation = new LinkedHashMap<>();
+
+        for (InventoryReservation reservation : released) {
+            Long itemId = reservation.getInventoryItemId();
+            int quantity = reservation.getReservedQuantity();
+
+            if (itemsById.containsKey(itemId)) {
+                int previousAvailable = availableByItemId.get(itemId);
+                int previousReserved = reservedByItemId.get(itemId);
+                availableByItemId.put(itemId, previousAvailable + quantity);
+                reservedByItemId.put(itemId, previousReserved - quantity);
+
+                StockTransaction transaction = new StockTransaction(tenantId, itemId,
+                    StockTransaction.TransactionType.RESERVATION_RELEASE, quantity, reservation.getOrderId(),
+                    "ORDER", "Reservation release: " + reason);
+                transaction.setPreviousAvailableQuantity(previousAvailable);
+                transaction.setNewAvailableQuantity(previousAvailable + quantity);
+                transaction.setPreviousReservedQuantity(previousReserved);
+                transaction.setNewReservedQuantity(previousReserved - quantity);
+                transactions.add(transaction);
+            }
+
+            hotItemLedger.onItemChanged(tenantId, reservation.getProductId(), quantity, -quantity);
+            orderByReservation.put(reservation.getReservationId(), reservation.getOrderId());
+            itemsByReservation.computeIfAbsent(reservation.getReservationId(), id -> new ArrayList<>())
+                .add(new InventoryReleasedEvent.ReleasedItemData(
+                    reservation.getProductId(), reservation.getSku(), quantity, itemId));
+        }
+        inventoryBatchRepository.insertTransactions(transactions);
+
+        try {
+            redisTemplate.delete(itemsByReservation.keySet().stream()
+                .map(reservationId -> RESERVATION_CACHE_PREFIX + tenantId + ":" + reservationId)
+                .collect(Collectors.toList()));
+        } catch (Exception e) {
+            logger.warn("Failed to remove expired reservations from cache for tenant: {}", tenantId, e);
+        }
+
+        itemsByReservation.forEach((reservationId, items) -> kafkaTemplate.send(inventoryEventsTopic,
+            new InventoryReleasedEvent(tenantId, orderByReservation.get(reservationId), reservationId, items, reason)));
+
+        logger.info("Expired {} reservations ({} rows, {} items) for tenant: {}",
+                   itemsByReservation.size(), released.size(), deltaByItemId.size(), tenantId);
+        return released.size();
+    }
+
     // Private helper methods
+    private ReservationResponse failBatchReservation(String tenantId, String reservationId, String orderId,
+                                                     List<HotItemReservationLedger.Admission> admissions,
+                                                     List<InventoryReservationFailedEvent.FailedItemData> failedItems) {
+        admissions.forEach(hotItemLedger::revert);
+        // Reverted once here; the caller must not revert them again if publishing fails
+        admissions.clear();
+
+        InventoryReservationFailedEvent failureEvent = new InventoryReservationFailedEvent(
+            tenantId, orderId, failedItems, "Insufficient inventory for some items");
+        kafkaTemplate.send(inventoryEventsTopic, failureEvent);
+
+        logger.warn("Batch reservation failed for order: {}, failed items: {}", orderId, failedItems.size());
+        return ReservationResponse.failed(reservationId, failedItems);
+    }
+
     private void rollbackReservations(String tenantId, List<InventoryReservation> reservations) {
         for (InventoryReservation reservation : reservations) {
             try {
@@ -382,15 +740,11 @@ public class InventoryReservationService {
         }
     }
 
-    private void cacheReservationData(String tenantId, String reservationId, List<InventoryReservation> reservations) {
+    private void cacheReservationData(String tenantId, String reservationId, String orderId,
+                                      List<InventoryReservedEvent.ReservedItemData> items) {
         try {
             String cacheKey = RESERVATION_CACHE_PREFIX + tenantId + ":" + reservationId;
-            List<InventoryReservedEvent.ReservedItemData> items = reservations.stream()
-                .map(r -> new InventoryReservedEvent.ReservedItemData(
-                    r.getProductId(), r.getSku(), r.getReservedQuantity(), r.getInventoryItemId()))
-                .collect(Collectors.toList());
-            
-            ReservationResponse response = ReservationResponse.success(reservationId, items);
+            ReservationResponse response = ReservationResponse.success(reservationId, orderId, items);
             redisTemplate.opsForValue().set(cacheKey, response, reservationTtlMinutes, TimeUnit.MINUTES);
         } catch (Exception e) {
             logger.warn("Failed to cache reservation data: {}", reservationId, e);
@@ -421,8 +775,10 @@ public class InventoryReservationService {
         return cached != null ? cached.getOrderId() : getOrderIdFromDatabase(tenantId, reservationId);
     }
 
+    // A reservation has one row per line, all for the same order
     private String getOrderIdFromDatabase(String tenantId, String reservationId) {
-        return reservationRepository.findByTenantIdAndReservationId(tenantId, reservationId)
+        return reservationRepository.findByTenantIdAndReservationId(tenantId, reservationId).stream()
+            .findFirst()
             .map(InventoryReservation::getOrderId)
             .orElseThrow(() -> new ResourceNotFoundException("Reservation not found: " + reservationId));
     }
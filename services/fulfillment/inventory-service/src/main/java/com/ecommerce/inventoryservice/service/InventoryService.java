@@ -31,12 +31,15 @@ public class InventoryService {
 
     private final InventoryItemRepository inventoryItemRepository;
     private final StockTransactionService stockTransactionService;
+    private final HotItemReservationLedger hotItemLedger;
 
     @Autowired
     public InventoryService(InventoryItemRepository inventoryItemRepository,
-                           StockTransactionService stockTransactionService) {
+                           StockTransactionService stockTransactionService,
+                           HotItemReservationLedger hotItemLedger) {
         this.inventoryItemRepository = inventoryItemRepository;
         this.stockTransactionService = stockTransactionService;
+        this.hotItemLedger = hotItemLedger;
     }
 
     /**
@@ -153,10 +156,17 @@ public class InventoryService {
             .orElseThrow(() -> new ResourceNotFoundException("Inventory item not found with ID: " + id));
         
         Integer previousAvailable = existingItem.getAvailableQuantity();
+        InventoryItem.InventoryStatus previousStatus = existingItem.getStatus();
         
         updateInventoryItemFields(existingItem, request);
         InventoryItem savedItem = inventoryItemRepository.save(existingItem);
         
+        hotItemLedger.onItemChanged(tenantId, savedItem.getProductId(),
+            savedItem.getAvailableQuantity() - previousAvailable, 0);
+        if (savedItem.getStatus() != previousStatus) {
+            hotItemLedger.onItemStatusChanged(tenantId, savedItem.getProductId(), savedItem.getStatus());
+        }
+        
         // Log adjustment transaction if quantity changed
         if (request.getAvailableQuantity() != null && !request.getAvailableQuantity().equals(previousAvailable)) {
             Integer quantityDiff = request.getAvailableQuantity() - previousAvailable;
@@ -184,6 +194,7 @@ public class InventoryService {
             .orElseThrow(() -> new ResourceNotFoundException("Inventory item not found with ID: " + id));
         
         inventoryItemRepository.delete(item);
+        hotItemLedger.onItemStatusChanged(tenantId, item.getProductId(), null);
         
         logger.info("Deleted inventory item for tenant: {}, ID: {}", tenantId, id);
     }
@@ -200,6 +211,7 @@ public class InventoryService {
         Integer previousAvailable = item.getAvailableQuantity();
         item.addStock(request.getQuantity());
         InventoryItem savedItem = inventoryItemRepository.save(item);
+        hotItemLedger.onItemChanged(tenantId, savedItem.getProductId(), request.getQuantity(), 0);
         
         // Log stock in transaction
         stockTransactionService.logTransaction(
@@ -231,6 +243,7 @@ public class InventoryService {
         Integer previousAvailable = item.getAvailableQuantity();
         item.setAvailableQuantity(item.getAvailableQuantity() - request.getQuantity());
         InventoryItem savedItem = inventoryItemRepository.save(item);
+        hotItemLedger.onItemChanged(tenantId, savedItem.getProductId(), -request.getQuantity(), 0);
         
         // Log stock out transaction
         stockTransactionService.logTransaction(
@@ -5,68 +5,143 @@ import com.ecommerce.inventoryservice.repository.InventoryReservationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Expires reservations close to their deadline. Active reservations are tracked in a
+ * {@link ReservationExpiryWheel} that is seeded from the database on startup and fed by new
+ * reservations; every tick the due entries are released in bulk. A periodic keyset-paged sweep
+ * catches reservations this instance never scheduled, such as those created by another instance.
+ */
 @Service
 public class ReservationCleanupService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReservationCleanupService.class);
+    private static final String EXPIRY_REASON = "Expired - automatic cleanup";
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final long RETRY_DELAY_SECONDS = 5;
 
     private final InventoryReservationRepository reservationRepository;
     private final InventoryReservationService reservationService;
+    private final ReservationExpiryWheel expiryWheel;
+
+    @Value("${app.inventory.reservation.expiry.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.inventory.reservation.expiry.page-size:1000}")
+    private int pageSize = 1000;
+
+    @Value("${app.inventory.reservation.expiry.seed-horizon-hours:24}")
+    private int seedHorizonHours = 24;
 
     @Autowired
     public ReservationCleanupService(InventoryReservationRepository reservationRepository,
-                                   InventoryReservationService reservationService) {
+                                   InventoryReservationService reservationService,
+                                   ReservationExpiryWheel expiryWheel) {
         this.reservationRepository = reservationRepository;
         this.reservationService = reservationService;
+        this.expiryWheel = expiryWheel;
     }
 
     /**
-     * Cleanup expired reservations every 5 minutes
+     * Load active reservations into the expiry wheel, including any backlog that expired while
+     * the service was down
      */
-    @Scheduled(fixedRate = 300000) // 5 minutes
-    @Transactional
-    public void cleanupExpiredReservations() {
-        logger.debug("Starting cleanup of expired reservations");
-        
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedExpiryWheel() {
         try {
-            LocalDateTime now = LocalDateTime.now();
-            List<InventoryReservation> expiredReservations = reservationRepository
-                .findAllExpiredReservations(now);
-
-            if (expiredReservations.isEmpty()) {
-                logger.debug("No expired reservations found");
-                return;
-            }
+            int seeded = forEachActivePage(LocalDateTime.now().plusHours(seedHorizonHours),
+                page -> page.forEach(reservation -> expiryWheel.schedule(
+                    reservation.getTenantId(), reservation.getReservationId(), reservation.getExpiresAt())));
+            logger.info("Seeded reservation expiry wheel with {} active reservation rows", seeded);
+        } catch (Exception e) {
+            logger.error("Failed to seed reservation expiry wheel", e);
+        }
+    }
 
-            logger.info("Found {} expired reservations to cleanup", expiredReservations.size());
+    /**
+     * Release reservations whose expiry time has passed since the last tick
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.expiry.tick-ms:1000}")
+    public void expireDueReservations() {
+        List<ReservationExpiryWheel.Entry> due = expiryWheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
 
-            int successCount = 0;
-            int failureCount = 0;
+        Map<String, Set<String>> reservationIdsByTenant = new LinkedHashMap<>();
+        for (ReservationExpiryWheel.Entry entry : due) {
+            reservationIdsByTenant.computeIfAbsent(entry.getTenantId(), tenantId -> new LinkedHashSet<>())
+                .add(entry.getReservationId());
+        }
 
-            for (InventoryReservation reservation : expiredReservations) {
+        int released = 0;
+        for (Map.Entry<String, Set<String>> tenant : reservationIdsByTenant.entrySet()) {
+            for (List<String> chunk : chunk(new ArrayList<>(tenant.getValue()))) {
                 try {
-                    reservationService.releaseReservation(
-                        reservation.getTenantId(), 
-                        reservation.getReservationId(), 
-                        "Expired - automatic cleanup"
-                    );
-                    successCount++;
+                    released += reservationService.expireReservations(tenant.getKey(), chunk, EXPIRY_REASON);
                 } catch (Exception e) {
-                    logger.error("Failed to cleanup expired reservation: reservationId={}, orderId={}, error={}", 
-                               reservation.getReservationId(), reservation.getOrderId(), e.getMessage());
-                    failureCount++;
+                    logger.error("Failed to expire {} reservations for tenant {}, retrying: {}",
+                               chunk.size(), tenant.getKey(), e.getMessage());
+                    LocalDateTime retryAt = LocalDateTime.now().plusSeconds(RETRY_DELAY_SECONDS);
+                    chunk.forEach(reservationId -> expiryWheel.schedule(tenant.getKey(), reservationId, retryAt));
+                }
+            }
+        }
+
+        if (released > 0) {
+            logger.debug("Expiry tick released {} reservation rows", released);
+        }
+    }
+
+    /**
+     * Sweep for expired reservations every 5 minutes, one keyset page at a time
+     */
+    @Scheduled(fixedRate = 300000) // 5 minutes
+    public void cleanupExpiredReservations() {
+        logger.debug("Starting cleanup of expired reservations");
+
+        try {
+            AtomicInteger released = new AtomicInteger();
+            int scanned = forEachActivePage(LocalDateTime.now(), page -> {
+                Map<String, Set<String>> reservationIdsByTenant = new LinkedHashMap<>();
+                for (InventoryReservation reservation : page) {
+                    reservationIdsByTenant.computeIfAbsent(reservation.getTenantId(), tenantId -> new LinkedHashSet<>())
+                        .add(reservation.getReservationId());
                 }
+                reservationIdsByTenant.forEach((tenantId, reservationIds) -> {
+                    try {
+                        released.addAndGet(reservationService.expireReservations(tenantId, reservationIds, EXPIRY_REASON));
+                    } catch (Exception e) {
+                        logger.error("Failed to cleanup {} expired reservations for tenant {}: {}",
+                                   reservationIds.size(), tenantId, e.getMessage());
+                    }
+                });
+            });
+
+            if (scanned == 0) {
+                logger.debug("No expired reservations found");
+                return;
             }
 
-            logger.info("Completed cleanup of expired reservations: success={}, failures={}", 
-                       successCount, failureCount);
+            logger.info("Completed cleanup of expired reservations: scanned={}, released={}",
+                       scanned, released.get());
 
         } catch (Exception e) {
             logger.error("Failed to cleanup expired reservations", e);
@@ -124,4 +199,36 @@ public class ReservationCleanupService {
             logger.error("Failed to log reservation statistics", e);
         }
     }
+
+    private int forEachActivePage(LocalDateTime endTime, Consumer<List<InventoryReservation>> pageHandler) {
+        LocalDateTime afterExpiresAt = KEYSET_START;
+        Long afterId = 0L;
+        int total = 0;
+
+        while (true) {
+            List<InventoryReservation> page = reservationRepository.findReservationsExpiringBetween(
+                afterExpiresAt, afterId, endTime, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                return total;
+            }
+
+            pageHandler.accept(page);
+            total += page.size();
+            if (page.size() < pageSize) {
+                return total;
+            }
+
+            InventoryReservation last = page.get(page.size() - 1);
+            afterExpiresAt = last.getExpiresAt();
+            afterId = last.getId();
+        }
+    }
+
+    private List<List<String>> chunk(List<String> reservationIds) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < reservationIds.size(); i += batchSize) {
+            chunks.add(reservationIds.subList(i, Math.min(i + batchSize, reservationIds.size())));
+        }
+        return chunks;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.ecommerce.inventoryservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hierarchical timing wheel that tracks when active reservations expire.
+ *
+ * Level 0 has one slot per tick; each higher level covers a full revolution of the level below
+ * it per slot. Scheduling and advancing are O(1) per entry regardless of how many reservations
+ * are pending, and entries in higher levels are cascaded down as their slot comes due. An entry
+ * only fires from level 0, so it is never reported before its deadline tick.
+ *
+ * The wheel is a hint, not the source of truth: a fired entry may already have been confirmed or
+ * released, so callers must re-check the reservation status before acting on it.
+ */
+@Component
+public class ReservationExpiryWheel {
+
+    static final int LEVELS = 3;
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final ArrayDeque<Entry>[][] slots;
+    private final List<Entry> overdue = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+
+    @Autowired
+    public ReservationExpiryWheel(@Value("${app.inventory.reservation.expiry.tick-ms:1000}") long tickMillis,
+                                  @Value("${app.inventory.reservation.expiry.wheel-size:512}") int wheelSize) {
+        this(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @SuppressWarnings("unchecked")
+    ReservationExpiryWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Timing wheel needs a positive tick and at least two slots");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.slots = new ArrayDeque[LEVELS][wheelSize];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots[level][slot] = new ArrayDeque<>();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule a reservation to fire at its expiry time. Reservations that have already expired
+     * are returned by the next call to {@link #advance}.
+     */
+    public void schedule(String tenantId, String reservationId, LocalDateTime expiresAt) {
+        long deadlineMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        schedule(new Entry(tenantId, reservationId, deadlineMillis));
+    }
+
+    synchronized void schedule(Entry entry) {
+        place(entry);
+        size++;
+    }
+
+    /**
+     * Move the wheel forward to the given time and return every entry whose deadline has passed
+     */
+    public synchronized List<Entry> advance(long nowMillis) {
+        List<Entry> due = new ArrayList<>(overdue);
+        overdue.clear();
+
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(currentTick);
+            // Cascading can land entries due exactly on this tick in the overdue list
+            due.addAll(overdue);
+            overdue.clear();
+            ArrayDeque<Entry> bucket = slots[0][(int) (currentTick % wheelSize)];
+            due.addAll(bucket);
+            bucket.clear();
+        }
+
+        size -= due.size();
+        return due;
+    }
+
+    /**
+     * Number of entries currently scheduled
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    // Pull the slots that start at this tick down a level, highest level first so entries can
+    // fall more than one level in the same tick.
+    private void cascade(long tick) {
+        long span = 1;
+        int levelsToCascade = 0;
+        for (int level = 1; level < LEVELS; level++) {
+            span *= wheelSize;
+            if (tick % span != 0) {
+                break;
+            }
+            levelsToCascade = level;
+        }
+
+        long levelSpan = 1;
+        for (int level = 1; level <= levelsToCascade; level++) {
+            levelSpan *= wheelSize;
+        }
+        for (int level = levelsToCascade; level >= 1; level--) {
+            ArrayDeque<Entry> bucket = slots[level][(int) ((tick / levelSpan) % wheelSize)];
+            List<Entry> entries = new ArrayList<>(bucket);
+            bucket.clear();
+            entries.forEach(this::place);
+            levelSpan /= wheelSize;
+        }
+    }
+
+    private void place(Entry entry) {
+        // Round up so an entry never fires before its deadline
+        long deadlineTick = (entry.deadlineMillis + tickMillis - 1) / tickMillis;
+        long delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            overdue.add(entry);
+            return;
+        }
+
+        long span = 1;
+        for (int level = 0; level < LEVELS; level++) {
+            long levelCapacity = span * wheelSize;
+            if (delta < levelCapacity || level == LEVELS - 1) {
+                // Beyond the top level the entry wraps and is re-placed when its slot cascades
+                slots[level][(int) ((deadlineTick / span) % wheelSize)].add(entry);
+                return;
+            }
+            span = levelCapacity;
+        }
+    }
+
+    /**
+     * A scheduled reservation expiry
+     */
+    public static final class Entry {
+        private final String tenantId;
+        private final String reservationId;
+        private final long deadlineMillis;
+
+        Entry(String tenantId, String reservationId, long deadlineMillis) {
+            this.tenantId = tenantId;
+            this.reservationId = reservationId;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public String getTenantId() {
+            return tenantId;
+        }
+
+        public String getReservationId() {
+            return reservationId;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry)) return false;
+            Entry entry = (Entry) o;
+            return tenantId.equals(entry.tenantId) && reservationId.equals(entry.reservationId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenantId, reservationId);
+        }
+    }
+}
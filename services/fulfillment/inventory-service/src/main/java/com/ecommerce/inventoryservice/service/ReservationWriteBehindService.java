@@ -0,0 +1,425 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.entity.InventoryReservation;
+import com.ecommerce.inventoryservice.entity.StockTransaction;
+import com.ecommerce.inventoryservice.repository.InventoryBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persists hot-item reservations admitted by {@link HotItemReservationLedger}.
+ *
+ * Each order is journaled in Redis, next to the ledger, before the caller is acknowledged. It is
+ * then queued on the replica that admitted it and written by a single flusher in JDBC batches:
+ * one insert batch for reservations, one for stock transactions, and one relative update per
+ * inventory item carrying the summed quantity for the whole batch. Once a batch commits, the
+ * ledger drops its journal entries and pending quantities.
+ *
+ * Because the journal is shared, no order depends on the replica that admitted it. A confirm or
+ * release routed to another replica writes the journaled order itself, and every replica
+ * periodically writes orders journaled longer than {@code orphan-after-ms} ago, which covers a
+ * replica that stopped with orders in its queue. Writes lock the affected item rows and skip
+ * reservations that already have rows, so an order written by two replicas is applied once.
+ */
+@Service
+public class ReservationWriteBehindService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationWriteBehindService.class);
+    private static final String FIELD_SEPARATOR = "\u001f";
+    private static final int HEADER_FIELDS = 6;
+    private static final int ADMISSION_FIELDS = 8;
+
+    private final HotItemReservationLedger ledger;
+    private final InventoryBatchRepository batchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentLinkedDeque<PendingReservation> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Counter flushedCounter;
+    private final Counter flushFailureCounter;
+    private final Counter recoveredCounter;
+
+    // Unjournaled admissions seen by the previous orphan check, reverted if still there on the next
+    private Set<String> suspectedOrphans = new HashSet<>();
+
+    @Value("${app.inventory.hot-items.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.inventory.hot-items.orphan-after-ms:30000}")
+    private long orphanAfterMillis;
+
+    private volatile boolean flushing;
+
+    @Autowired
+    public ReservationWriteBehindService(HotItemReservationLedger ledger,
+                                         InventoryBatchRepository batchRepository,
+                                         PlatformTransactionManager transactionManager,
+                                         MeterRegistry meterRegistry) {
+        this.ledger = ledger;
+        this.batchRepository = batchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.flushedCounter = Counter.builder("inventory.hot_items.flushed")
+            .description("Hot-item reservations written to the database")
+            .register(meterRegistry);
+        this.flushFailureCounter = Counter.builder("inventory.hot_items.flush_failures")
+            .description("Failed hot-item write-behind flushes")
+            .register(meterRegistry);
+        this.recoveredCounter = Counter.builder("inventory.hot_items.recovered")
+            .description("Journaled hot-item reservations written by a replica other than the admitting one")
+            .register(meterRegistry);
+        Gauge.builder("inventory.hot_items.pending", pendingCount, AtomicInteger::get)
+            .description("Hot-item reservations admitted on this replica but not yet written to the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Journal an order's ledger admissions in Redis and queue them for the database once the
+     * caller's transaction commits. If the transaction rolls back instead, for example because
+     * publishing the reservation failed, the entry is dropped from the journal and the
+     * admissions are returned to the ledger. Fails if another reservation of the order is
+     * already journaled.
+     */
+    public void submit(String tenantId, String reservationId, String orderId, LocalDateTime expiresAt,
+                       List<HotItemReservationLedger.Admission> admissions) {
+        PendingReservation reservation = new PendingReservation(tenantId, reservationId, orderId,
+            expiresAt, MDC.get("userId"), System.currentTimeMillis(), admissions);
+        ledger.journal(tenantId, reservationId, orderId, encode(reservation), admissions);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(reservation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    enqueue(reservation);
+                } else {
+                    discard(reservation);
+                }
+            }
+        });
+    }
+
+    /**
+     * Block until a journaled reservation has been written, whichever replica admitted it.
+     * Must be called before the caller's transaction first reads reservation rows, otherwise
+     * its snapshot will not include the written rows.
+     */
+    public void awaitPersisted(String tenantId, String reservationId) {
+        if (!ledger.isEnabled()) {
+            return;
+        }
+        if (containsReservation(queue, tenantId, reservationId) || flushing) {
+            flush();
+        }
+
+        // Still journaled: admitted on another replica, or this flush failed
+        String payload = ledger.journaled(tenantId, reservationId);
+        PendingReservation reservation = payload != null ? decode(payload) : null;
+        if (reservation != null) {
+            persist(List.of(reservation));
+            recoveredCounter.increment();
+        }
+    }
+
+    /**
+     * Block until the journaled reservation of an order, if there is one, has been written
+     */
+    public void awaitPersistedForOrder(String tenantId, String orderId) {
+        if (!ledger.isEnabled()) {
+            return;
+        }
+        String reservationId = ledger.journaledReservationId(tenantId, orderId);
+        if (reservationId != null) {
+            awaitPersisted(tenantId, reservationId);
+        }
+    }
+
+    /**
+     * Drain the queue in batches. Orders are never split across batches.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.hot-items.flush-interval-ms:50}")
+    public synchronized void flush() {
+        flushing = true;
+        try {
+            drain();
+        } finally {
+            flushing = false;
+        }
+    }
+
+    /**
+     * Write journaled orders that no replica has written within {@code orphan-after-ms}, and
+     * return admissions to the ledger whose request died before journaling them. An unjournaled
+     * admission is only reverted once two checks in a row have seen it.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.hot-items.orphan-after-ms:30000}")
+    public void recoverOrphans() {
+        if (!ledger.isEnabled()) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - orphanAfterMillis;
+        List<PendingReservation> orphans = new ArrayList<>();
+        for (String payload : ledger.journaledPayloads()) {
+            PendingReservation reservation = decode(payload);
+            if (reservation != null && reservation.journaledAt < cutoff
+                    && !containsReservation(queue, reservation.tenantId, reservation.reservationId)) {
+                orphans.add(reservation);
+            }
+        }
+        for (List<PendingReservation> batch : batches(orphans)) {
+            try {
+                persist(batch);
+                recoveredCounter.increment(batch.size());
+            } catch (Exception e) {
+                flushFailureCounter.increment();
+                logger.error("Failed to write {} orphaned hot-item reservations, will retry", batch.size(), e);
+            }
+        }
+        if (!orphans.isEmpty()) {
+            logger.warn("Wrote {} hot-item reservations left journaled by another replica", orphans.size());
+        }
+
+        Set<String> unjournaled = new HashSet<>();
+        for (HotItemReservationLedger.Admission admission : ledger.unjournaledAdmissions()) {
+            String key = admission.getTenantId() + ":" + admission.getProductId() + ":" + admission.getReservationId();
+            if (!suspectedOrphans.contains(key)) {
+                unjournaled.add(key);
+            } else if (ledger.revertUnjournaled(admission)) {
+                logger.warn("Returned {} units of {} admitted for reservation {} that was never journaled",
+                    admission.getQuantity(), admission.getProductId(), admission.getReservationId());
+            }
+        }
+        suspectedOrphans = unjournaled;
+    }
+
+    private void drain() {
+        while (!queue.isEmpty()) {
+            List<PendingReservation> batch = new ArrayList<>();
+            int rows = 0;
+            PendingReservation next;
+            while (rows < batchSize && (next = queue.pollFirst()) != null) {
+                batch.add(next);
+                rows += next.admissions.size();
+            }
+
+            try {
+                persist(batch);
+                pendingCount.addAndGet(-batch.size());
+                flushedCounter.increment(batch.size());
+            } catch (Exception e) {
+                flushFailureCounter.increment();
+                logger.error("Failed to flush {} hot-item reservations, will retry", batch.size(), e);
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    queue.addFirst(batch.get(i));
+                }
+                return;
+            }
+        }
+    }
+
+    private void persist(List<PendingReservation> batch) {
+        transactionTemplate.executeWithoutResult(status -> write(batch));
+        List<HotItemReservationLedger.Admission> admissions = new ArrayList<>();
+        for (PendingReservation reservation : batch) {
+            admissions.addAll(reservation.admissions);
+        }
+        ledger.complete(admissions);
+    }
+
+    private void enqueue(PendingReservation reservation) {
+        queue.addLast(reservation);
+        pendingCount.incrementAndGet();
+    }
+
+    // The journal entry goes first: admissions left pending without one are reverted by the
+    // orphan check, whereas a journal entry without its admissions would be written.
+    private void discard(PendingReservation reservation) {
+        ledger.dropJournal(reservation.tenantId, reservation.reservationId, reservation.orderId);
+        reservation.admissions.forEach(ledger::revert);
+        logger.info("Returned rolled-back hot-item reservation {} to the ledger", reservation.reservationId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private List<List<PendingReservation>> batches(List<PendingReservation> reservations) {
+        List<List<PendingReservation>> batches = new ArrayList<>();
+        List<PendingReservation> batch = new ArrayList<>();
+        int rows = 0;
+        for (PendingReservation reservation : reservations) {
+            if (rows >= batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                rows = 0;
+            }
+            batch.add(reservation);
+            rows += reservation.admissions.size();
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private static boolean containsReservation(Iterable<PendingReservation> reservations,
+                                               String tenantId, String reservationId) {
+        for (PendingReservation reservation : reservations) {
+            if (reservation.tenantId.equals(tenantId) && reservation.reservationId.equals(reservationId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Another replica may be writing the same orders: the item locks serialize the writers, and
+    // whoever comes second finds the rows and skips them
+    private void write(List<PendingReservation> batch) {
+        Set<Long> itemIds = new TreeSet<>();
+        List<String> reservationIds = new ArrayList<>(batch.size());
+        for (PendingReservation pending : batch) {
+            reservationIds.add(pending.reservationId);
+            for (HotItemReservationLedger.Admission admission : pending.admissions) {
+                itemIds.add(admission.getInventoryItemId());
+            }
+        }
+        batchRepository.lockItems(itemIds);
+        Set<String> written = batchRepository.findWrittenReservationIds(reservationIds);
+
+        List<InventoryReservation> reservations = new ArrayList<>();
+        List<StockTransaction> transactions = new ArrayList<>();
+        Map<Long, Integer> quantityByItemId = new LinkedHashMap<>();
+
+        for (PendingReservation pending : batch) {
+            if (written.contains(pending.reservationId)) {
+                continue;
+            }
+            for (HotItemReservationLedger.Admission admission : pending.admissions) {
+                reservations.add(new InventoryReservation(
+                    pending.tenantId, pending.reservationId, pending.orderId, admission.getInventoryItemId(),
+                    admission.getProductId(), admission.getSku(), admission.getQuantity(), pending.expiresAt));
+
+                StockTransaction transaction = new StockTransaction(
+                    pending.tenantId, admission.getInventoryItemId(), StockTransaction.TransactionType.RESERVATION,
+                    admission.getQuantity(), pending.orderId, "ORDER", "Inventory reservation for order");
+                transaction.setPreviousAvailableQuantity(admission.getPreviousAvailable());
+                transaction.setNewAvailableQuantity(admission.getNewAvailable());
+                transaction.setPreviousReservedQuantity(admission.getPreviousReserved());
+                transaction.setNewReservedQuantity(admission.getNewReserved());
+                transaction.setPerformedBy(pending.performedBy);
+                transactions.add(transaction);
+
+                quantityByItemId.merge(admission.getInventoryItemId(), admission.getQuantity(), Integer::sum);
+            }
+        }
+
+        batchRepository.applyReservationDeltas(quantityByItemId);
+        batchRepository.insertReservations(reservations);
+        batchRepository.insertTransactions(transactions);
+    }
+
+    // Journal payload: order header fields followed by eight fields per admitted item
+    static String encode(PendingReservation reservation) {
+        StringBuilder builder = new StringBuilder()
+            .append(reservation.tenantId).append(FIELD_SEPARATOR)
+            .append(reservation.reservationId).append(FIELD_SEPARATOR)
+            .append(reservation.orderId).append(FIELD_SEPARATOR)
+            .append(reservation.expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+            .append(FIELD_SEPARATOR)
+            .append(reservation.performedBy != null ? reservation.performedBy : "")
+            .append(FIELD_SEPARATOR)
+            .append(reservation.journaledAt);
+        for (HotItemReservationLedger.Admission admission : reservation.admissions) {
+            builder.append(FIELD_SEPARATOR).append(admission.getProductId())
+                .append(FIELD_SEPARATOR).append(admission.getInventoryItemId())
+                .append(FIELD_SEPARATOR).append(admission.getSku())
+                .append(FIELD_SEPARATOR).append(admission.getQuantity())
+                .append(FIELD_SEPARATOR).append(admission.getPreviousAvailable())
+                .append(FIELD_SEPARATOR).append(admission.getNewAvailable())
+                .append(FIELD_SEPARATOR).append(admission.getPreviousReserved())
+                .append(FIELD_SEPARATOR).append(admission.getNewReserved());
+        }
+        return builder.toString();
+    }
+
+    static PendingReservation decode(String payload) {
+        try {
+            String[] fields = payload.split(FIELD_SEPARATOR, -1);
+            if (fields.length <= HEADER_FIELDS || (fields.length - HEADER_FIELDS) % ADMISSION_FIELDS != 0) {
+                logger.warn("Skipping incomplete hot-item journal record");
+                return null;
+            }
+            String tenantId = fields[0];
+            String reservationId = fields[1];
+            String orderId = fields[2];
+            LocalDateTime expiresAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(Long.parseLong(fields[3])), ZoneId.systemDefault());
+            List<HotItemReservationLedger.Admission> admissions = new ArrayList<>();
+            for (int i = HEADER_FIELDS; i < fields.length; i += ADMISSION_FIELDS) {
+                admissions.add(new HotItemReservationLedger.Admission(
+                    tenantId, reservationId, orderId, fields[i], Long.parseLong(fields[i + 1]), fields[i + 2],
+                    Integer.parseInt(fields[i + 3]), Integer.parseInt(fields[i + 4]),
+                    Integer.parseInt(fields[i + 5]), Integer.parseInt(fields[i + 6]),
+                    Integer.parseInt(fields[i + 7])));
+            }
+            return new PendingReservation(tenantId, reservationId, orderId, expiresAt,
+                fields[4].isEmpty() ? null : fields[4], Long.parseLong(fields[5]), admissions);
+        } catch (RuntimeException e) {
+            logger.warn("Skipping unreadable hot-item journal record: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    static final class PendingReservation {
+        private final String tenantId;
+        private final String reservationId;
+        private final String orderId;
+        private final LocalDateTime expiresAt;
+        private final String performedBy;
+        private final long journaledAt;
+        private final List<HotItemReservationLedger.Admission> admissions;
+
+        PendingReservation(String tenantId, String reservationId, String orderId, LocalDateTime expiresAt,
+                           String performedBy, long journaledAt,
+                           List<HotItemReservationLedger.Admission> admissions) {
+            this.tenantId = tenantId;
+            this.reservationId = reservationId;
+            this.orderId = orderId;
+            this.expiresAt = expiresAt;
+            this.performedBy = performedBy;
+            this.journaledAt = journaledAt;
+            this.admissions = admissions;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.ecommerce.inventoryservice.integration;
+
+import com.ecommerce.inventoryservice.dto.ReservationRequest;
+import com.ecommerce.inventoryservice.dto.ReservationResponse;
+import com.ecommerce.inventoryservice.entity.InventoryItem;
+import com.ecommerce.inventoryservice.repository.InventoryItemRepository;
+import com.ecommerce.inventoryservice.repository.InventoryReservationRepository;
+import com.ecommerce.inventoryservice.service.InventoryReservationService;
+import com.ecommerce.inventoryservice.service.ReservationWriteBehindService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Single-SKU reservation throughput: the regular optimistic-lock path versus hot-item mode.
+ * Run with {@code -Dperformance.tests.enabled=true}. Throughput is printed; the test only checks
+ * that the hot item's row matches the successful reservations once the write-behind has flushed.
+ */
+@SpringBootTest(properties = {
+    "app.inventory.hot-items.enabled=true",
+    "app.inventory.hot-items.keys=bench-tenant:hot-product"
+})
+@Testcontainers
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class HotItemReservationBenchmarkTest {
+
+    private static final String TENANT_ID = "bench-tenant";
+    private static final int THREADS = 64;
+    private static final int ORDERS_PER_THREAD = 200;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("inventory_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.redis.host", redis::getHost);
+        registry.add("spring.redis.port", redis::getFirstMappedPort);
+    }
+
+    @Autowired
+    private InventoryReservationService reservationService;
+
+    @Autowired
+    private ReservationWriteBehindService reservationWriteBehind;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @MockBean
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+        inventoryItemRepository.save(new InventoryItem(TENANT_ID, "cold-product", "SKU-COLD", 1_000_000));
+        inventoryItemRepository.save(new InventoryItem(TENANT_ID, "hot-product", "SKU-HOT", 1_000_000));
+    }
+
+    @Test
+    void singleSkuReservationThroughput() throws Exception {
+        Result cold = run("cold-product", "SKU-COLD");
+        Result hot = run("hot-product", "SKU-HOT");
+        reservationWriteBehind.flush();
+
+        System.out.printf("Optimistic-lock path: %,.0f reservations/s (%d ok, %d failed)%n",
+            cold.perSecond(), cold.succeeded, cold.failed);
+        System.out.printf("Hot-item ledger path: %,.0f reservations/s (%d ok, %d failed)%n",
+            hot.perSecond(), hot.succeeded, hot.failed);
+
+        InventoryItem hotItem = inventoryItemRepository.findByTenantIdAndProductId(TENANT_ID, "hot-product")
+            .orElseThrow();
+        assertEquals(hot.succeeded, hotItem.getReservedQuantity());
+        assertEquals(1_000_000 - hot.succeeded, hotItem.getAvailableQuantity());
+    }
+
+    private Result run(String productId, String sku) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    ReservationRequest request = new ReservationRequest();
+                    request.setOrderId(UUID.randomUUID().toString());
+                    request.setItems(List.of(new ReservationRequest.ReservationItemRequest(productId, sku, 1)));
+                    try {
+                        ReservationResponse response = reservationService.reserveInventory(TENANT_ID, request);
+                        if (response.getFailedItems() == null || response.getFailedItems().isEmpty()) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.MINUTES));
+        return new Result(succeeded.get(), failed.get(), System.nanoTime() - startNanos);
+    }
+
+    private record Result(int succeeded, int failed, long elapsedNanos) {
+        double perSecond() {
+            return succeeded / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+}
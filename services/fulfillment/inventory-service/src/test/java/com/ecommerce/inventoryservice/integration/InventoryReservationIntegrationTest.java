@@ -29,7 +29,6 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -202,10 +201,10 @@ class InventoryReservationIntegrationTest {
             .findActiveReservationsByOrder(tenantId, orderId);
         assertEquals(0, reservations.size()); // No active reservations
 
-        Optional<InventoryReservation> confirmedReservation = reservationRepository
+        List<InventoryReservation> confirmedReservations = reservationRepository
             .findByTenantIdAndReservationId(tenantId, reservationId);
-        assertTrue(confirmedReservation.isPresent());
-        assertEquals(InventoryReservation.ReservationStatus.CONFIRMED, confirmedReservation.get().getStatus());
+        assertEquals(1, confirmedReservations.size());
+        assertEquals(InventoryReservation.ReservationStatus.CONFIRMED, confirmedReservations.get(0).getStatus());
     }
 
     @Test
@@ -231,10 +230,10 @@ class InventoryReservationIntegrationTest {
             .findActiveReservationsByOrder(tenantId, orderId);
         assertEquals(0, activeReservations.size()); // No active reservations
 
-        Optional<InventoryReservation> releasedReservation = reservationRepository
+        List<InventoryReservation> releasedReservations = reservationRepository
             .findByTenantIdAndReservationId(tenantId, reservationId);
-        assertTrue(releasedReservation.isPresent());
-        assertEquals(InventoryReservation.ReservationStatus.RELEASED, releasedReservation.get().getStatus());
+        assertEquals(1, releasedReservations.size());
+        assertEquals(InventoryReservation.ReservationStatus.RELEASED, releasedReservations.get(0).getStatus());
     }
 
     @Test
@@ -287,17 +286,23 @@ class InventoryReservationIntegrationTest {
     }
 
     @Test
-    void reserveInventory_WithDuplicateOrder_ShouldThrowException() {
+    void reserveInventory_WithDuplicateOrder_ShouldReturnExistingReservation() {
         // Given - First create a reservation
         ReservationRequest request = createReservationRequest(
             Arrays.asList(new ReservationRequest.ReservationItemRequest(productId1, sku1, 10))
         );
-        reservationService.reserveInventory(tenantId, request);
+        ReservationResponse first = reservationService.reserveInventory(tenantId, request);
 
-        // When & Then - Try to create another reservation for same order
-        assertThrows(IllegalArgumentException.class, () -> {
-            reservationService.reserveInventory(tenantId, request);
-        });
+        // When - Retry the reservation for the same order
+        ReservationResponse retried = reservationService.reserveInventory(tenantId, request);
+
+        // Then - The existing reservation is returned and stock is only reserved once
+        assertEquals(ReservationResponse.ReservationStatus.SUCCESS, retried.getStatus());
+        assertEquals(first.getReservationId(), retried.getReservationId());
+
+        InventoryItem updatedItem = inventoryItemRepository.findById(inventoryItem1.getId()).orElseThrow();
+        assertEquals(90, updatedItem.getAvailableQuantity());
+        assertEquals(10, updatedItem.getReservedQuantity());
     }
 
     @Test
@@ -0,0 +1,456 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.entity.InventoryItem;
+import com.ecommerce.inventoryservice.repository.InventoryItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotItemReservationLedgerTest {
+
+    @Mock
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Stands in for Redis: scripts run one at a time, as they do on the server
+    private final Map<String, Map<String, String>> redis = new HashMap<>();
+
+    private HotItemReservationLedger ledger;
+
+    private final String tenantId = "tenant123";
+    private final String productId = "product123";
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+            .thenAnswer(invocation -> runScript(invocation.getArgument(0),
+                invocation.getArgument(1), (Object[]) invocation.getRawArguments()[2]));
+        lenient().when(redisTemplate.hasKey(anyString())).thenAnswer(invocation -> {
+            synchronized (redis) {
+                return redis.containsKey(invocation.<String>getArgument(0));
+            }
+        });
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        lenient().when(hashOperations.get(anyString(), any())).thenAnswer(invocation -> {
+            synchronized (redis) {
+                return hash(invocation.getArgument(0)).get(invocation.<String>getArgument(1));
+            }
+        });
+        lenient().when(hashOperations.hasKey(anyString(), any())).thenAnswer(invocation -> {
+            synchronized (redis) {
+                return hash(invocation.getArgument(0)).containsKey(invocation.<String>getArgument(1));
+            }
+        });
+        lenient().when(hashOperations.entries(anyString())).thenAnswer(invocation -> {
+            synchronized (redis) {
+                return new HashMap<Object, Object>(hash(invocation.getArgument(0)));
+            }
+        });
+        ledger = newLedger();
+    }
+
+    @Test
+    void isHot_ShouldOnlyMatchConfiguredKeys() {
+        HotItemReservationLedger disabled = new HotItemReservationLedger(inventoryItemRepository,
+            redisTemplate, transactionManager, false, List.of(tenantId + ":" + productId));
+
+        assertFalse(disabled.isHot(tenantId, productId));
+        assertTrue(ledger.isHot(tenantId, productId));
+        assertFalse(ledger.isHot(tenantId, "other-product"));
+        assertFalse(ledger.isHot("other-tenant", productId));
+    }
+
+    @Test
+    void tryReserve_WithSufficientStock_ShouldMoveQuantityToReserved() {
+        // Given
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(100, 10)));
+
+        // When
+        HotItemReservationLedger.Admission admission =
+            ledger.tryReserve(tenantId, "reservation1", "order1", productId, 30);
+
+        // Then
+        assertEquals(100, admission.getPreviousAvailable());
+        assertEquals(70, admission.getNewAvailable());
+        assertEquals(10, admission.getPreviousReserved());
+        assertEquals(40, admission.getNewReserved());
+        assertEquals(1L, admission.getInventoryItemId());
+        assertEquals("SKU123", admission.getSku());
+        assertEquals(70, ledger.getAvailableQuantity(tenantId, productId));
+    }
+
+    @Test
+    void tryReserve_WithInsufficientStock_ShouldThrowWithoutChangingLedger() {
+        // Given
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(5, 0)));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> ledger.tryReserve(tenantId, "reservation1", "order1", productId, 10));
+        assertEquals("Insufficient stock for product product123. Requested: 10, Available: 5", exception.getMessage());
+        assertEquals(5, ledger.getAvailableQuantity(tenantId, productId));
+    }
+
+    @Test
+    void tryReserve_WithInactiveItem_ShouldThrow() {
+        // Given
+        InventoryItem item = createItem(100, 0);
+        item.setStatus(InventoryItem.InventoryStatus.INACTIVE);
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId)).thenReturn(Optional.of(item));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+            () -> ledger.tryReserve(tenantId, "reservation1", "order1", productId, 1));
+    }
+
+    @Test
+    void tryReserve_OnSeveralReplicas_ShouldSeedTheSharedLedgerOnlyOnce() {
+        // Given
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(100, 0)));
+        HotItemReservationLedger otherReplica = newLedger();
+
+        // When
+        ledger.tryReserve(tenantId, "reservation1", "order1", productId, 1);
+        HotItemReservationLedger.Admission admission =
+            otherReplica.tryReserve(tenantId, "reservation1", "order1", productId, 1);
+
+        // Then
+        assertEquals(99, admission.getPreviousAvailable());
+        verify(inventoryItemRepository, times(1)).findByTenantIdAndProductId(tenantId, productId);
+    }
+
+    @Test
+    void revert_ShouldRestoreAvailableQuantity() {
+        // Given
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(20, 0)));
+        HotItemReservationLedger.Admission admission =
+            ledger.tryReserve(tenantId, "reservation1", "order1", productId, 15);
+
+        // When
+        ledger.revert(admission);
+
+        // Then
+        assertEquals(20, ledger.getAvailableQuantity(tenantId, productId));
+        assertEquals(20, ledger.tryReserve(tenantId, "reservation1", "order1", productId, 1).getPreviousAvailable());
+    }
+
+    @Test
+    void complete_ShouldDropJournalAndPendingQuantity() {
+        // Given
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(20, 0)));
+        HotItemReservationLedger.Admission admission =
+            ledger.tryReserve(tenantId, "reservation1", "order1", productId, 5);
+        ledger.journal(tenantId, "reservation1", "order1", "payload", List.of(admission));
+        assertEquals("reservation1", ledger.journaledReservationId(tenantId, "order1"));
+
+        // When
+        ledger.complete(List.of(admission));
+
+        // Then
+        assertNull(ledger.journaled(tenantId, "reservation1"));
+        assertNull(ledger.journaledReservationId(tenantId, "order1"));
+        assertFalse(redis.containsKey(HotItemReservationLedger.pendingKey(tenantId, productId)));
+        assertEquals(15, ledger.getAvailableQuantity(tenantId, productId));
+    }
+
+    @Test
+    void journal_AfterRevert_ShouldRefuse() {
+        // Given
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(20, 0)));
+        HotItemReservationLedger.Admission admission =
+            ledger.tryReserve(tenantId, "reservation1", "order1", productId, 5);
+        ledger.revert(admission);
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+            () -> ledger.journal(tenantId, "reservation1", "order1", "payload", List.of(admission)));
+        assertNull(ledger.journaled(tenantId, "reservation1"));
+    }
+
+    @Test
+    void journal_WhenAnotherReservationOfTheOrderIsPending_ShouldRefuse() {
+        // Given
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(20, 0)));
+        HotItemReservationLedger.Admission first = ledger.tryReserve(tenantId, "reservation1", "order1", productId, 5);
+        ledger.journal(tenantId, "reservation1", "order1", "payload", List.of(first));
+        HotItemReservationLedger.Admission second =
+            ledger.tryReserve(tenantId, "reservation2", "order1", productId, 5);
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+            () -> ledger.journal(tenantId, "reservation2", "order1", "payload", List.of(second)));
+        assertEquals("reservation1", ledger.journaledReservationId(tenantId, "order1"));
+    }
+
+    @Test
+    void tryReserve_AfterLedgerLossWithPendingReservations_ShouldNotReseedFromRow() {
+        // Given - the row does not include the pending admission yet
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(20, 0)));
+        HotItemReservationLedger.Admission admission =
+            ledger.tryReserve(tenantId, "reservation1", "order1", productId, 5);
+        redis.remove(HotItemReservationLedger.ledgerKey(tenantId, productId));
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+            () -> ledger.tryReserve(tenantId, "reservation2", "order2", productId, 1));
+        verify(inventoryItemRepository, times(1)).findByTenantIdAndProductId(tenantId, productId);
+
+        // Once written, the item is seeded from the row that now includes it
+        ledger.complete(List.of(admission));
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(15, 5)));
+        assertEquals(15, ledger.tryReserve(tenantId, "reservation2", "order2", productId, 1).getPreviousAvailable());
+    }
+
+    @Test
+    void revertUnjournaled_ShouldOnlyRevertAdmissionsWithoutJournalEntry() {
+        // Given
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(20, 0)));
+        HotItemReservationLedger.Admission journaled =
+            ledger.tryReserve(tenantId, "reservation1", "order1", productId, 5);
+        ledger.journal(tenantId, "reservation1", "order1", "payload", List.of(journaled));
+        ledger.tryReserve(tenantId, "reservation2", "order2", productId, 3);
+
+        // When
+        List<HotItemReservationLedger.Admission> orphans = ledger.unjournaledAdmissions();
+
+        // Then
+        assertEquals(1, orphans.size());
+        assertEquals("reservation2", orphans.get(0).getReservationId());
+        assertTrue(ledger.revertUnjournaled(orphans.get(0)));
+        assertFalse(ledger.revertUnjournaled(journaled));
+        assertEquals(15, ledger.getAvailableQuantity(tenantId, productId));
+    }
+
+    @Test
+    void onItemChanged_ShouldApplyExternalDeltas() {
+        // Given
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(10, 5)));
+        ledger.tryReserve(tenantId, "reservation1", "order1", productId, 10);
+
+        // When - release 5 of the original reservation, then restock 50
+        ledger.onItemChanged(tenantId, productId, 5, -5);
+        ledger.onItemChanged(tenantId, productId, 50, 0);
+
+        // Then
+        HotItemReservationLedger.Admission admission =
+            ledger.tryReserve(tenantId, "reservation1", "order1", productId, 1);
+        assertEquals(55, admission.getPreviousAvailable());
+        assertEquals(10, admission.getPreviousReserved());
+    }
+
+    @Test
+    void onItemStatusChanged_Deactivated_ShouldStopAdmissionsOnEveryReplica() {
+        // Given
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(10, 0)));
+        HotItemReservationLedger otherReplica = newLedger();
+        otherReplica.tryReserve(tenantId, "reservation1", "order1", productId, 1);
+
+        // When
+        ledger.onItemStatusChanged(tenantId, productId, InventoryItem.InventoryStatus.INACTIVE);
+
+        // Then
+        assertThrows(IllegalArgumentException.class,
+            () -> otherReplica.tryReserve(tenantId, "reservation1", "order1", productId, 1));
+    }
+
+    @Test
+    void tryReserve_UnderContentionAcrossReplicas_ShouldNeverOversell() throws Exception {
+        // Given
+        int stock = 1000;
+        int threads = 16;
+        int attemptsPerThread = 200;
+        when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
+            .thenReturn(Optional.of(createItem(stock, 0)));
+        List<HotItemReservationLedger> replicas = List.of(ledger, newLedger(), newLedger());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            HotItemReservationLedger replica = replicas.get(t % replicas.size());
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    try {
+                        replica.tryReserve(tenantId, "reservation1", "order1", productId, 1);
+                        admitted.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(stock, admitted.get());
+        assertEquals(threads * attemptsPerThread - stock, rejected.get());
+        assertEquals(0, ledger.getAvailableQuantity(tenantId, productId));
+    }
+
+    private HotItemReservationLedger newLedger() {
+        return new HotItemReservationLedger(inventoryItemRepository, redisTemplate, transactionManager,
+            true, List.of(tenantId + ":" + productId));
+    }
+
+    private Map<String, String> hash(String key) {
+        return redis.getOrDefault(key, Map.of());
+    }
+
+    private Object runScript(RedisScript<?> script, List<String> keys, Object[] args) {
+        synchronized (redis) {
+            if (script == HotItemReservationLedger.JOURNAL_SCRIPT) {
+                String existing = hash(keys.get(1)).get((String) args[3]);
+                if (existing != null && !existing.equals(args[0]) && hash(keys.get(0)).containsKey(existing)) {
+                    return 2L;
+                }
+                for (String pendingKey : keys.subList(2, keys.size())) {
+                    if (!hash(pendingKey).containsKey((String) args[2])) {
+                        return 0L;
+                    }
+                }
+                redis.computeIfAbsent(keys.get(0), key -> new HashMap<>()).put((String) args[0], (String) args[1]);
+                redis.computeIfAbsent(keys.get(1), key -> new HashMap<>()).put((String) args[3], (String) args[0]);
+                return 1L;
+            }
+            if (script == HotItemReservationLedger.COMPLETE_SCRIPT) {
+                int count = Integer.parseInt((String) args[0]);
+                for (int i = 1; i <= count; i++) {
+                    hdel(keys.get(0), (String) args[i]);
+                    if (args[i].equals(hash(keys.get(1)).get((String) args[count + i]))) {
+                        hdel(keys.get(1), (String) args[count + i]);
+                    }
+                }
+                for (int i = 2; i < keys.size(); i++) {
+                    hdel(keys.get(i), (String) args[2 * count + i - 1]);
+                }
+                return (long) count;
+            }
+
+            String key = keys.get(0);
+            Map<String, String> hash = redis.get(key);
+            if (script == HotItemReservationLedger.SEED_SCRIPT) {
+                if (hash != null) {
+                    return 0L;
+                }
+                if (redis.containsKey(keys.get(1))) {
+                    return 2L;
+                }
+                redis.put(key, new HashMap<>(Map.of("status", (String) args[0], "available", (String) args[1],
+                    "reserved", (String) args[2], "itemId", (String) args[3], "sku", (String) args[4])));
+                return 1L;
+            }
+            if (script == HotItemReservationLedger.REVERT_SCRIPT) {
+                if (keys.size() > 2 && hash(keys.get(2)).containsKey((String) args[2])) {
+                    return 0L;
+                }
+                String pending = hash(keys.get(1)).get((String) args[1]);
+                if (pending == null) {
+                    return 0L;
+                }
+                long quantity = Math.min(Long.parseLong((String) args[0]), Long.parseLong(pending));
+                if (quantity >= Long.parseLong(pending)) {
+                    hdel(keys.get(1), (String) args[1]);
+                } else {
+                    redis.get(keys.get(1)).put((String) args[1], String.valueOf(Long.parseLong(pending) - quantity));
+                }
+                if (hash != null) {
+                    hash.put("available", String.valueOf(Long.parseLong(hash.get("available")) + quantity));
+                    hash.put("reserved", String.valueOf(Long.parseLong(hash.get("reserved")) - quantity));
+                }
+                return 1L;
+            }
+            if (hash == null) {
+                return script == HotItemReservationLedger.RESERVE_SCRIPT ? List.of(0L) : 0L;
+            }
+            long available = Long.parseLong(hash.get("available"));
+            long reserved = Long.parseLong(hash.get("reserved"));
+            if (script == HotItemReservationLedger.ADJUST_SCRIPT) {
+                hash.put("available", String.valueOf(available + Long.parseLong((String) args[0])));
+                hash.put("reserved", String.valueOf(reserved + Long.parseLong((String) args[1])));
+                return 1L;
+            }
+            if (script == HotItemReservationLedger.STATUS_SCRIPT) {
+                hash.put("status", (String) args[0]);
+                return 1L;
+            }
+            long quantity = Long.parseLong((String) args[0]);
+            if (!"ACTIVE".equals(hash.get("status"))) {
+                return List.of(2L, available, reserved);
+            }
+            if (available < quantity) {
+                return List.of(3L, available, reserved);
+            }
+            hash.put("available", String.valueOf(available - quantity));
+            hash.put("reserved", String.valueOf(reserved + quantity));
+            redis.computeIfAbsent(keys.get(1), pendingKey -> new HashMap<>())
+                .merge((String) args[1], String.valueOf(quantity),
+                    (existing, added) -> String.valueOf(Long.parseLong(existing) + Long.parseLong(added)));
+            return List.of(1L, available, reserved, hash.get("itemId"), hash.get("sku"));
+        }
+    }
+
+    private void hdel(String key, String field) {
+        Map<String, String> hash = redis.get(key);
+        if (hash != null) {
+            hash.remove(field);
+            if (hash.isEmpty()) {
+                redis.remove(key);
+            }
+        }
+    }
+
+    private InventoryItem createItem(int available, int reserved) {
+        InventoryItem item = new InventoryItem(tenantId, productId, "SKU123", available);
+        item.setId(1L);
+        item.setReservedQuantity(reserved);
+        return item;
+    }
+}
@@ -4,12 +4,14 @@ import com.ecommerce.inventoryservice.dto.ReservationRequest;
 import com.ecommerce.inventoryservice.dto.ReservationResponse;
 import com.ecommerce.inventoryservice.entity.InventoryItem;
 import com.ecommerce.inventoryservice.entity.InventoryReservation;
+import com.ecommerce.inventoryservice.repository.InventoryBatchRepository;
 import com.ecommerce.inventoryservice.repository.InventoryItemRepository;
 import com.ecommerce.inventoryservice.repository.InventoryReservationRepository;
 import com.ecommerce.shared.utils.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,7 +22,9 @@ import org.springframework.kafka.core.KafkaTemplate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -36,6 +40,9 @@ class InventoryReservationServiceTest {
     @Mock
     private InventoryItemRepository inventoryItemRepository;
 
+    @Mock
+    private InventoryBatchRepository inventoryBatchRepository;
+
     @Mock
     private StockTransactionService stockTransactionService;
 
@@ -48,6 +55,15 @@ class InventoryReservationServiceTest {
     @Mock
     private KafkaTemplate<String, Object> kafkaTemplate;
 
+    @Mock
+    private HotItemReservationLedger hotItemLedger;
+
+    @Mock
+    private ReservationWriteBehindService reservationWriteBehind;
+
+    @Mock
+    private ReservationExpiryWheel expiryWheel;
+
     @InjectMocks
     private InventoryReservationService reservationService;
 
@@ -78,7 +94,7 @@ class InventoryReservationServiceTest {
     @Test
     void reserveInventory_WithSufficientStock_ShouldSucceed() {
         // Given
-        when(reservationRepository.existsByTenantIdAndOrderId(tenantId, orderId)).thenReturn(false);
+        when(reservationRepository.findAllByTenantIdAndOrderId(tenantId, orderId)).thenReturn(List.of());
         when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
             .thenReturn(Optional.of(testInventoryItem));
         when(inventoryItemRepository.save(any(InventoryItem.class))).thenReturn(testInventoryItem);
@@ -105,7 +121,7 @@ class InventoryReservationServiceTest {
     void reserveInventory_WithInsufficientStock_ShouldFail() {
         // Given
         testInventoryItem.setAvailableQuantity(5); // Less than requested 10
-        when(reservationRepository.existsByTenantIdAndOrderId(tenantId, orderId)).thenReturn(false);
+        when(reservationRepository.findAllByTenantIdAndOrderId(tenantId, orderId)).thenReturn(List.of());
         when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
             .thenReturn(Optional.of(testInventoryItem));
 
@@ -127,7 +143,7 @@ class InventoryReservationServiceTest {
     @Test
     void reserveInventory_WhenProductNotFound_ShouldFail() {
         // Given
-        when(reservationRepository.existsByTenantIdAndOrderId(tenantId, orderId)).thenReturn(false);
+        when(reservationRepository.findAllByTenantIdAndOrderId(tenantId, orderId)).thenReturn(List.of());
         when(inventoryItemRepository.findByTenantIdAndProductId(tenantId, productId))
             .thenReturn(Optional.empty());
 
@@ -144,15 +160,191 @@ class InventoryReservationServiceTest {
     }
 
     @Test
-    void reserveInventory_WhenReservationAlreadyExists_ShouldThrowException() {
+    void reserveInventory_WhenReservationAlreadyExists_ShouldReturnExistingReservation() {
         // Given
-        when(reservationRepository.existsByTenantIdAndOrderId(tenantId, orderId)).thenReturn(true);
+        when(reservationRepository.findAllByTenantIdAndOrderId(tenantId, orderId))
+            .thenReturn(List.of(createTestReservation()));
 
-        // When & Then
-        assertThrows(IllegalArgumentException.class, 
-            () -> reservationService.reserveInventory(tenantId, testReservationRequest));
-        
+        // When
+        ReservationResponse result = reservationService.reserveInventory(tenantId, testReservationRequest);
+
+        // Then
+        assertEquals(ReservationResponse.ReservationStatus.SUCCESS, result.getStatus());
+        assertEquals("reservation123", result.getReservationId());
+        assertEquals(10, result.getReservedItems().get(0).getQuantity());
         verify(inventoryItemRepository, never()).findByTenantIdAndProductId(anyString(), anyString());
+        verify(kafkaTemplate, never()).send(anyString(), any());
+    }
+
+    @Test
+    void reserveInventoryBatch_WhenRetriedAfterLostResponse_ShouldReturnExistingReservation() {
+        // Given - the first call's hot-item reservation may still be in the write-behind journal
+        when(reservationRepository.findAllByTenantIdAndOrderId(tenantId, orderId))
+            .thenReturn(List.of(createTestReservation()));
+
+        // When
+        ReservationResponse result = reservationService.reserveInventoryBatch(
+            tenantId, "reservation123", testReservationRequest, 600);
+
+        // Then
+        assertEquals(ReservationResponse.ReservationStatus.SUCCESS, result.getStatus());
+        assertEquals("reservation123", result.getReservationId());
+        InOrder inOrder = inOrder(reservationWriteBehind, reservationRepository);
+        inOrder.verify(reservationWriteBehind).awaitPersisted(tenantId, "reservation123");
+        inOrder.verify(reservationWriteBehind).awaitPersistedForOrder(tenantId, orderId);
+        inOrder.verify(reservationRepository).findAllByTenantIdAndOrderId(tenantId, orderId);
+        verifyNoInteractions(inventoryBatchRepository, hotItemLedger);
+    }
+
+    @Test
+    void reserveInventoryBatch_WhenReservationWasReleased_ShouldFailWithoutReservingAgain() {
+        // Given
+        InventoryReservation released = createTestReservation();
+        released.setStatus(InventoryReservation.ReservationStatus.RELEASED);
+        when(reservationRepository.findAllByTenantIdAndOrderId(tenantId, orderId)).thenReturn(List.of(released));
+
+        // When
+        ReservationResponse result = reservationService.reserveInventoryBatch(
+            tenantId, "reservation123", testReservationRequest, 600);
+
+        // Then
+        assertEquals(ReservationResponse.ReservationStatus.FAILED, result.getStatus());
+        verifyNoInteractions(inventoryBatchRepository);
+    }
+
+    @Test
+    void reserveInventoryBatch_WhenReservationIdBelongsToAnotherOrder_ShouldThrow() {
+        // Given
+        when(reservationRepository.findAllByTenantIdAndOrderId(tenantId, orderId)).thenReturn(List.of());
+        when(reservationRepository.existsByTenantIdAndReservationId(tenantId, "reservation123")).thenReturn(true);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> reservationService.reserveInventoryBatch(
+            tenantId, "reservation123", testReservationRequest, 600));
+        verifyNoInteractions(inventoryBatchRepository);
+    }
+
+    @Test
+    void reserveInventoryBatch_WithSufficientStock_ShouldReserveAllLinesInOneBatch() {
+        // Given
+        when(reservationRepository.findAllByTenantIdAndOrderId(tenantId, orderId)).thenReturn(List.of());
+        when(inventoryItemRepository.findByTenantIdAndProductIdIn(tenantId, List.of(productId)))
+            .thenReturn(List.of(testInventoryItem));
+        when(inventoryBatchRepository.reserveIfAvailable(any())).thenReturn(List.of());
+
+        // When
+        ReservationResponse result = reservationService.reserveInventoryBatch(
+            tenantId, "reservation123", testReservationRequest, 600);
+
+        // Then
+        assertEquals(ReservationResponse.ReservationStatus.SUCCESS, result.getStatus());
+        assertEquals("reservation123", result.getReservationId());
+        assertEquals(orderId, result.getOrderId());
+        assertEquals(1, result.getReservedItems().size());
+
+        verify(valueOperations).set(eq("reservation:tenant123:reservation123"),
+            argThat(cached -> orderId.equals(((ReservationResponse) cached).getOrderId())), anyLong(), any());
+        verify(inventoryBatchRepository).reserveIfAvailable(Map.of(1L, 10));
+        verify(inventoryBatchRepository).insertReservations(argThat(reservations -> reservations.size() == 1));
+        verify(inventoryBatchRepository).insertTransactions(argThat(transactions -> transactions.size() == 1));
+        verify(inventoryItemRepository, never()).save(any(InventoryItem.class));
+        verify(kafkaTemplate).send(eq("inventory-events"), any());
+    }
+
+    @Test
+    void reserveInventoryBatch_WithInsufficientStock_ShouldFailWithoutWriting() {
+        // Given
+        testInventoryItem.setAvailableQuantity(5);
+        when(reservationRepository.findAllByTenantIdAndOrderId(tenantId, orderId)).thenReturn(List.of());
+        when(inventoryItemRepository.findByTenantIdAndProductIdIn(tenantId, List.of(productId)))
+            .thenReturn(List.of(testInventoryItem));
+
+        // When
+        ReservationResponse result = reservationService.reserveInventoryBatch(
+            tenantId, "reservation123", testReservationRequest, 600);
+
+        // Then
+        assertEquals(ReservationResponse.ReservationStatus.FAILED, result.getStatus());
+        assertEquals(1, result.getFailedItems().size());
+        assertEquals(5, result.getFailedItems().get(0).getAvailableQuantity());
+
+        verifyNoInteractions(inventoryBatchRepository);
+        verify(kafkaTemplate).send(eq("inventory-events"), any());
+    }
+
+    @Test
+    void reserveInventoryBatch_WhenInsertFailsAfterHotItemAdmission_ShouldRevertLedger() {
+        // Given
+        String hotProductId = "hot-product";
+        ReservationRequest request = new ReservationRequest(orderId, Arrays.asList(
+            new ReservationRequest.ReservationItemRequest(hotProductId, "HOT-SKU", 2),
+            new ReservationRequest.ReservationItemRequest(productId, sku, 10)));
+        HotItemReservationLedger.Admission admission = new HotItemReservationLedger.Admission(
+            tenantId, "reservation123", orderId, hotProductId, 2L, "HOT-SKU", 2, 50, 48, 0, 2);
+        when(reservationRepository.findAllByTenantIdAndOrderId(tenantId, orderId)).thenReturn(List.of());
+        when(hotItemLedger.isHot(tenantId, hotProductId)).thenReturn(true);
+        when(hotItemLedger.tryReserve(tenantId, "reservation123", orderId, hotProductId, 2)).thenReturn(admission);
+        when(inventoryItemRepository.findByTenantIdAndProductIdIn(tenantId, List.of(productId)))
+            .thenReturn(List.of(testInventoryItem));
+        when(inventoryBatchRepository.reserveIfAvailable(any())).thenReturn(List.of());
+        doThrow(new IllegalStateException("insert failed"))
+            .when(inventoryBatchRepository).insertReservations(any());
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () ->
+            reservationService.reserveInventoryBatch(tenantId, "reservation123", request, 600));
+
+        verify(hotItemLedger).revert(admission);
+        verifyNoInteractions(reservationWriteBehind);
+        verify(kafkaTemplate, never()).send(anyString(), any());
+    }
+
+    @Test
+    void expireReservations_ShouldReleaseStockWithOneUpdatePerItem() {
+        // Given
+        InventoryReservation first = createTestReservation();
+        first.setId(11L);
+        InventoryReservation second = new InventoryReservation(
+            tenantId, "reservation456", "order456", 1L, productId, sku, 5, LocalDateTime.now());
+        second.setId(12L);
+        InventoryReservation alreadyConfirmed = new InventoryReservation(
+            tenantId, "reservation789", "order789", 1L, productId, sku, 7, LocalDateTime.now());
+        alreadyConfirmed.setId(13L);
+        List<String> reservationIds = List.of("reservation123", "reservation456", "reservation789");
+
+        when(reservationRepository.findActiveByTenantIdAndReservationIdIn(tenantId, reservationIds))
+            .thenReturn(List.of(first, second, alreadyConfirmed));
+        when(inventoryBatchRepository.releaseActiveReservations(eq(List.of(11L, 12L, 13L)), any(LocalDateTime.class)))
+            .thenReturn(List.of(11L, 12L));
+        when(inventoryItemRepository.findByTenantIdAndIdIn(tenantId, Set.of(1L)))
+            .thenReturn(List.of(testInventoryItem));
+
+        // When
+        int released = reservationService.expireReservations(tenantId, reservationIds, "Expired");
+
+        // Then
+        assertEquals(2, released);
+        verify(inventoryBatchRepository).applyReservationDeltas(Map.of(1L, -15));
+        verify(inventoryBatchRepository).insertTransactions(argThat(transactions -> transactions.size() == 2
+            && transactions.get(1).getPreviousAvailableQuantity() == 110
+            && transactions.get(1).getNewAvailableQuantity() == 115));
+        verify(inventoryItemRepository, never()).save(any(InventoryItem.class));
+        verify(kafkaTemplate, times(2)).send(eq("inventory-events"), any());
+    }
+
+    @Test
+    void expireReservations_WhenNothingIsActive_ShouldDoNothing() {
+        // Given
+        when(reservationRepository.findActiveByTenantIdAndReservationIdIn(eq(tenantId), any()))
+            .thenReturn(List.of());
+
+        // When
+        int released = reservationService.expireReservations(tenantId, List.of("reservation123"), "Expired");
+
+        // Then
+        assertEquals(0, released);
+        verifyNoInteractions(inventoryBatchRepository);
+        verifyNoInteractions(kafkaTemplate);
     }
 
     @Test
@@ -172,7 +364,7 @@ class InventoryReservationServiceTest {
         // Mock cache lookup to return null, then mock database lookup
         when(valueOperations.get(anyString())).thenReturn(null);
         when(reservationRepository.findByTenantIdAndReservationId(tenantId, reservationId))
-            .thenReturn(Optional.of(reservation));
+            .thenReturn(List.of(reservation));
 
         // When
         reservationService.confirmReservation(tenantId, reservationId);
@@ -214,7 +406,7 @@ class InventoryReservationServiceTest {
         // Mock cache lookup to return null, then mock database lookup
         when(valueOperations.get(anyString())).thenReturn(null);
         when(reservationRepository.findByTenantIdAndReservationId(tenantId, reservationId))
-            .thenReturn(Optional.of(reservation));
+            .thenReturn(List.of(reservation));
 
         // When
         reservationService.releaseReservation(tenantId, reservationId, reason);
@@ -227,6 +419,31 @@ class InventoryReservationServiceTest {
         verify(kafkaTemplate).send(anyString(), any());
     }
 
+    @Test
+    void releaseReservation_MultiLineReservationNotCached_ShouldReleaseEveryLine() {
+        // Given
+        String reservationId = "reservation123";
+        InventoryReservation first = createTestReservation();
+        InventoryReservation second = new InventoryReservation(
+            tenantId, reservationId, orderId, 1L, productId, sku, 5, LocalDateTime.now().plusMinutes(30));
+        testInventoryItem.setReservedQuantity(15);
+
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(reservationRepository.findByTenantIdAndReservationId(tenantId, reservationId))
+            .thenReturn(List.of(first, second));
+        when(reservationRepository.findActiveReservationsByOrder(tenantId, orderId))
+            .thenReturn(List.of(first, second));
+        when(inventoryItemRepository.findByTenantIdAndId(tenantId, 1L)).thenReturn(Optional.of(testInventoryItem));
+
+        // When
+        reservationService.releaseReservation(tenantId, reservationId, "Saga compensation");
+
+        // Then
+        assertEquals(InventoryReservation.ReservationStatus.RELEASED, first.getStatus());
+        assertEquals(InventoryReservation.ReservationStatus.RELEASED, second.getStatus());
+        verify(reservationRepository, times(2)).save(any(InventoryReservation.class));
+    }
+
     @Test
     void getReservation_FromCache_ShouldReturnCachedData() {
         // Given
@@ -261,7 +478,7 @@ class InventoryReservationServiceTest {
         // Mock cache and database lookup for reservation ID
         when(valueOperations.get(anyString())).thenReturn(null);
         when(reservationRepository.findByTenantIdAndReservationId(tenantId, expiredReservation.getReservationId()))
-            .thenReturn(Optional.of(expiredReservation));
+            .thenReturn(List.of(expiredReservation));
 
         // When
         reservationService.cleanupExpiredReservations(tenantId);
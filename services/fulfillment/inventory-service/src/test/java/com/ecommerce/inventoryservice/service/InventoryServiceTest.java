@@ -35,6 +35,9 @@ class InventoryServiceTest {
     @Mock
     private StockTransactionService stockTransactionService;
 
+    @Mock
+    private HotItemReservationLedger hotItemLedger;
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -8,6 +8,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -26,6 +28,9 @@ class ReservationCleanupServiceTest {
     @Mock
     private InventoryReservationService reservationService;
 
+    @Mock
+    private ReservationExpiryWheel expiryWheel;
+
     @InjectMocks
     private ReservationCleanupService cleanupService;
 
@@ -37,60 +42,126 @@ class ReservationCleanupServiceTest {
     }
 
     @Test
-    void cleanupExpiredReservations_WithExpiredReservations_ShouldCleanupAll() {
+    void cleanupExpiredReservations_WithExpiredReservations_ShouldExpireInBulk() {
         // Given
-        InventoryReservation expiredReservation1 = createExpiredReservation("reservation1", "order1");
-        InventoryReservation expiredReservation2 = createExpiredReservation("reservation2", "order2");
-        List<InventoryReservation> expiredReservations = Arrays.asList(expiredReservation1, expiredReservation2);
+        InventoryReservation expiredReservation1 = createExpiredReservation(1L, "reservation1", "order1");
+        InventoryReservation expiredReservation2 = createExpiredReservation(2L, "reservation2", "order2");
 
-        when(reservationRepository.findAllExpiredReservations(any(LocalDateTime.class)))
-            .thenReturn(expiredReservations);
+        when(reservationRepository.findReservationsExpiringBetween(
+            any(LocalDateTime.class), anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(Arrays.asList(expiredReservation1, expiredReservation2));
 
         // When
         cleanupService.cleanupExpiredReservations();
 
         // Then
-        verify(reservationRepository).findAllExpiredReservations(any(LocalDateTime.class));
-        verify(reservationService).releaseReservation(eq(tenantId), eq("reservation1"), eq("Expired - automatic cleanup"));
-        verify(reservationService).releaseReservation(eq(tenantId), eq("reservation2"), eq("Expired - automatic cleanup"));
+        verify(reservationService).expireReservations(eq(tenantId),
+            argThat(ids -> ids.size() == 2 && ids.containsAll(List.of("reservation1", "reservation2"))),
+            eq("Expired - automatic cleanup"));
+        verify(reservationService, never()).releaseReservation(anyString(), anyString(), anyString());
     }
 
     @Test
     void cleanupExpiredReservations_WithNoExpiredReservations_ShouldDoNothing() {
         // Given
-        when(reservationRepository.findAllExpiredReservations(any(LocalDateTime.class)))
+        when(reservationRepository.findReservationsExpiringBetween(
+            any(LocalDateTime.class), anyLong(), any(LocalDateTime.class), any(Pageable.class)))
             .thenReturn(Collections.emptyList());
 
         // When
         cleanupService.cleanupExpiredReservations();
 
         // Then
-        verify(reservationRepository).findAllExpiredReservations(any(LocalDateTime.class));
-        verify(reservationService, never()).releaseReservation(anyString(), anyString(), anyString());
+        verify(reservationService, never()).expireReservations(anyString(), any(), anyString());
     }
 
     @Test
-    void cleanupExpiredReservations_WithReleaseFailure_ShouldContinueWithOthers() {
+    void cleanupExpiredReservations_WithReleaseFailure_ShouldContinueWithOtherTenants() {
         // Given
-        InventoryReservation expiredReservation1 = createExpiredReservation("reservation1", "order1");
-        InventoryReservation expiredReservation2 = createExpiredReservation("reservation2", "order2");
-        List<InventoryReservation> expiredReservations = Arrays.asList(expiredReservation1, expiredReservation2);
-
-        when(reservationRepository.findAllExpiredReservations(any(LocalDateTime.class)))
-            .thenReturn(expiredReservations);
+        InventoryReservation expiredReservation1 = createExpiredReservation(1L, "reservation1", "order1");
+        InventoryReservation expiredReservation2 = createExpiredReservation(2L, "reservation2", "order2");
+        expiredReservation2.setTenantId("tenant456");
 
-        // First release fails, second should still be attempted
-        doThrow(new RuntimeException("Release failed"))
-            .when(reservationService).releaseReservation(eq(tenantId), eq("reservation1"), anyString());
-        doNothing()
-            .when(reservationService).releaseReservation(eq(tenantId), eq("reservation2"), anyString());
+        when(reservationRepository.findReservationsExpiringBetween(
+            any(LocalDateTime.class), anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(Arrays.asList(expiredReservation1, expiredReservation2));
+        when(reservationService.expireReservations(eq(tenantId), any(), anyString()))
+            .thenThrow(new RuntimeException("Release failed"));
 
         // When
         cleanupService.cleanupExpiredReservations();
 
         // Then
-        verify(reservationService).releaseReservation(eq(tenantId), eq("reservation1"), anyString());
-        verify(reservationService).releaseReservation(eq(tenantId), eq("reservation2"), anyString());
+        verify(reservationService).expireReservations(eq(tenantId), any(), anyString());
+        verify(reservationService).expireReservations(eq("tenant456"), any(), anyString());
+    }
+
+    @Test
+    void seedExpiryWheel_ShouldPageThroughActiveReservationsWithKeysetCursor() {
+        // Given
+        ReflectionTestUtils.setField(cleanupService, "pageSize", 2);
+        InventoryReservation first = createExpiredReservation(1L, "reservation1", "order1");
+        InventoryReservation second = createExpiredReservation(2L, "reservation2", "order2");
+        InventoryReservation third = createExpiredReservation(3L, "reservation3", "order3");
+
+        when(reservationRepository.findReservationsExpiringBetween(
+            any(LocalDateTime.class), anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(Arrays.asList(first, second))
+            .thenReturn(List.of(third));
+
+        // When
+        cleanupService.seedExpiryWheel();
+
+        // Then
+        verify(reservationRepository).findReservationsExpiringBetween(
+            eq(second.getExpiresAt()), eq(2L), any(LocalDateTime.class), any(Pageable.class));
+        verify(expiryWheel).schedule(tenantId, "reservation1", first.getExpiresAt());
+        verify(expiryWheel).schedule(tenantId, "reservation2", second.getExpiresAt());
+        verify(expiryWheel).schedule(tenantId, "reservation3", third.getExpiresAt());
+    }
+
+    @Test
+    void expireDueReservations_ShouldReleaseDueEntriesOncePerReservation() {
+        // Given
+        when(expiryWheel.advance(anyLong())).thenReturn(List.of(
+            new ReservationExpiryWheel.Entry(tenantId, "reservation1", 0L),
+            new ReservationExpiryWheel.Entry(tenantId, "reservation1", 0L),
+            new ReservationExpiryWheel.Entry(tenantId, "reservation2", 0L)));
+
+        // When
+        cleanupService.expireDueReservations();
+
+        // Then
+        verify(reservationService).expireReservations(eq(tenantId),
+            eq(List.of("reservation1", "reservation2")), eq("Expired - automatic cleanup"));
+    }
+
+    @Test
+    void expireDueReservations_WhenReleaseFails_ShouldRescheduleEntries() {
+        // Given
+        when(expiryWheel.advance(anyLong())).thenReturn(List.of(
+            new ReservationExpiryWheel.Entry(tenantId, "reservation1", 0L)));
+        when(reservationService.expireReservations(eq(tenantId), any(), anyString()))
+            .thenThrow(new RuntimeException("Database error"));
+
+        // When
+        cleanupService.expireDueReservations();
+
+        // Then
+        verify(expiryWheel).schedule(eq(tenantId), eq("reservation1"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void expireDueReservations_WithNothingDue_ShouldNotTouchDatabase() {
+        // Given
+        when(expiryWheel.advance(anyLong())).thenReturn(List.of());
+
+        // When
+        cleanupService.expireDueReservations();
+
+        // Then
+        verifyNoInteractions(reservationService);
+        verifyNoInteractions(reservationRepository);
     }
 
     @Test
@@ -165,8 +236,9 @@ class ReservationCleanupServiceTest {
     }
 
     // Helper methods
-    private InventoryReservation createExpiredReservation(String reservationId, String orderId) {
+    private InventoryReservation createExpiredReservation(Long id, String reservationId, String orderId) {
         InventoryReservation reservation = new InventoryReservation();
+        reservation.setId(id);
         reservation.setTenantId(tenantId);
         reservation.setReservationId(reservationId);
         reservation.setOrderId(orderId);
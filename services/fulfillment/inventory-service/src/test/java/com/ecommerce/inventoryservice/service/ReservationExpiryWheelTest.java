@@ -0,0 +1,105 @@
+package com.ecommerce.inventoryservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationExpiryWheelTest {
+
+    private static final long TICK = 1000;
+    private static final int SLOTS = 8;
+    private static final long START = 1_000_000L;
+
+    private final String tenantId = "tenant123";
+    private ReservationExpiryWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new ReservationExpiryWheel(TICK, SLOTS, START);
+    }
+
+    @Test
+    void advance_ShouldFireEntryOnlyOnceItsDeadlineHasPassed() {
+        // Given
+        wheel.schedule(entry("reservation1", START + 2500));
+
+        // When & Then
+        assertTrue(wheel.advance(START + 2000).isEmpty());
+        assertTrue(wheel.advance(START + 2999).isEmpty());
+        assertEquals(List.of("reservation1"), ids(wheel.advance(START + 3000)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_WithAlreadyExpiredEntry_ShouldFireOnNextAdvance() {
+        // Given
+        wheel.schedule(entry("reservation1", START - 60_000));
+
+        // When
+        List<ReservationExpiryWheel.Entry> due = wheel.advance(START);
+
+        // Then
+        assertEquals(List.of("reservation1"), ids(due));
+    }
+
+    @Test
+    void advance_ShouldCascadeEntriesFromHigherLevels() {
+        // Given - beyond level 0 (8 ticks) and level 1 (64 ticks)
+        wheel.schedule(entry("level1", START + 20 * TICK));
+        wheel.schedule(entry("level2", START + 100 * TICK));
+
+        // When & Then
+        assertTrue(wheel.advance(START + 19 * TICK).isEmpty());
+        assertEquals(List.of("level1"), ids(wheel.advance(START + 20 * TICK)));
+        assertTrue(wheel.advance(START + 99 * TICK).isEmpty());
+        assertEquals(List.of("level2"), ids(wheel.advance(START + 100 * TICK)));
+    }
+
+    @Test
+    void advance_BeyondWheelCapacity_ShouldStillFireAtDeadline() {
+        // Given - three levels of eight slots cover 512 ticks
+        wheel.schedule(entry("far", START + 1500 * TICK));
+
+        // When & Then
+        assertTrue(wheel.advance(START + 1499 * TICK).isEmpty());
+        assertEquals(List.of("far"), ids(wheel.advance(START + 1500 * TICK)));
+    }
+
+    @Test
+    void advance_ShouldFireEveryEntryExactlyOnceInDeadlineOrder() {
+        // Given
+        for (int i = 1; i <= 300; i++) {
+            wheel.schedule(entry("reservation" + i, START + i * 700L));
+        }
+        assertEquals(300, wheel.size());
+
+        // When
+        int fired = 0;
+        long lastDeadline = 0;
+        for (long now = START; now <= START + 300 * 700L + TICK; now += TICK) {
+            for (ReservationExpiryWheel.Entry entry : wheel.advance(now)) {
+                assertTrue(entry.getDeadlineMillis() <= now);
+                assertTrue(now - entry.getDeadlineMillis() < TICK);
+                assertTrue(entry.getDeadlineMillis() >= lastDeadline);
+                lastDeadline = entry.getDeadlineMillis();
+                fired++;
+            }
+        }
+
+        // Then
+        assertEquals(300, fired);
+        assertEquals(0, wheel.size());
+    }
+
+    private ReservationExpiryWheel.Entry entry(String reservationId, long deadlineMillis) {
+        return new ReservationExpiryWheel.Entry(tenantId, reservationId, deadlineMillis);
+    }
+
+    private List<String> ids(List<ReservationExpiryWheel.Entry> entries) {
+        return entries.stream().map(ReservationExpiryWheel.Entry::getReservationId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.notificationservice.config;
+
+import com.ecommerce.notificationservice.service.TenantBrandingCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis subscriptions of the notification service
+ */
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Drops tenants from this instance's branding cache when any instance changes their branding
+     */
+    @Bean
+    public RedisMessageListenerContainer tenantBrandingListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                         TenantBrandingCache tenantBrandingCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(tenantBrandingCache, new ChannelTopic(TenantBrandingCache.CHANNEL));
+        return container;
+    }
+}
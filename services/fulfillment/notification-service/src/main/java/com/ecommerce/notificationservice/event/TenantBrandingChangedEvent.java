@@ -0,0 +1,23 @@
+package com.ecommerce.notificationservice.event;
+
+/**
+ * Published when a tenant's branding is created, updated or deactivated, so caches of its
+ * branding variables can drop the tenant
+ */
+public class TenantBrandingChangedEvent {
+
+    private final String tenantId;
+
+    public TenantBrandingChangedEvent(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    @Override
+    public String toString() {
+        return "TenantBrandingChangedEvent{tenantId=" + tenantId + '}';
+    }
+}
@@ -93,10 +93,12 @@ public class NotificationService {
                 
                 if (templateOpt.isPresent()) {
                     NotificationTemplate template = templateOpt.get();
-                    subject = templateEngine.processSubject(template.getSubject(), 
-                                                          request.getTemplateVariables());
-                    content = templateEngine.processContent(template.getContent(), 
-                                                          request.getTemplateVariables());
+                    subject = templateEngine.processTemplate(
+                        NotificationTemplateEngine.templateKey(template.getId(), template.getUpdatedAt(), "subject"),
+                        template.getSubject(), request.getTemplateVariables(), null);
+                    content = templateEngine.processTemplate(
+                        NotificationTemplateEngine.templateKey(template.getId(), template.getUpdatedAt(), "content"),
+                        template.getContent(), request.getTemplateVariables(), null);
                 } else {
                     logger.warn("Template not found: tenantId={}, templateKey={}, channel={}", 
                                tenantId, request.getTemplateKey(), request.getChannel());
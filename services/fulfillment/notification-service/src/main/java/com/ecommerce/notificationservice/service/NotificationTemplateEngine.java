@@ -1,72 +1,112 @@
 package com.ecommerce.notificationservice.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.TemplateSpec;
+import org.thymeleaf.cache.AlwaysValidCacheEntryValidity;
+import org.thymeleaf.cache.ICacheEntryValidity;
+import org.thymeleaf.cache.StandardCacheManager;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.templatemode.TemplateMode;
-import org.thymeleaf.templateresolver.StringTemplateResolver;
+import org.thymeleaf.templateresolver.AbstractTemplateResolver;
+import org.thymeleaf.templateresource.ITemplateResource;
+import org.thymeleaf.templateresource.StringTemplateResource;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Renders notification templates with Thymeleaf, keeping parsed templates in a bounded cache.
+ *
+ * A template is cached under its name together with its content, so a stored template keyed by
+ * ID and version is parsed once per version, and inline templates without a key share entries by
+ * content. The content is part of the cache key, so a changed template can never be served from
+ * the entry of its previous content.
+ */
 @Service
 public class NotificationTemplateEngine {
 
+    static final String INLINE_TEMPLATE = "inline";
+    private static final String CONTENT_ATTRIBUTE = "content";
+    private static final int DEFAULT_CACHE_MAX_SIZE = 1000;
+
     private final org.thymeleaf.TemplateEngine thymeleafEngine;
     private final TenantBrandingService tenantBrandingService;
+    private final AtomicLong parsedTemplates = new AtomicLong();
 
-    @Autowired
     public NotificationTemplateEngine(TenantBrandingService tenantBrandingService) {
+        this(tenantBrandingService, DEFAULT_CACHE_MAX_SIZE);
+    }
+
+    @Autowired
+    public NotificationTemplateEngine(TenantBrandingService tenantBrandingService,
+                                      @Value("${notification.template-cache.max-size:1000}") int cacheMaxSize) {
         this.tenantBrandingService = tenantBrandingService;
         this.thymeleafEngine = new org.thymeleaf.TemplateEngine();
-        
-        StringTemplateResolver templateResolver = new StringTemplateResolver();
-        templateResolver.setTemplateMode(TemplateMode.TEXT);
-        templateResolver.setCacheable(false);
-        
-        this.thymeleafEngine.setTemplateResolver(templateResolver);
+
+        StandardCacheManager cacheManager = new StandardCacheManager();
+        cacheManager.setTemplateCacheMaxSize(cacheMaxSize);
+        cacheManager.setExpressionCacheMaxSize(cacheMaxSize * 10);
+
+        this.thymeleafEngine.setTemplateResolver(new ContentTemplateResolver(parsedTemplates));
+        this.thymeleafEngine.setCacheManager(cacheManager);
     }
 
     /**
      * Process a template string with the given variables and tenant branding
-     * 
+     *
      * @param template The template string with Thymeleaf syntax
      * @param variables Map of variables to substitute in the template
      * @param tenantId The tenant ID for branding variables
      * @return Processed template string
      */
     public String processTemplate(String template, Map<String, Object> variables, String tenantId) {
+        return processTemplate(INLINE_TEMPLATE, template, variables, tenantId);
+    }
+
+    /**
+     * Process a stored template, caching its parsed form under the given key
+     *
+     * @param templateKey Key of the template version, e.g. its ID and last update time
+     * @param template The template string with Thymeleaf syntax
+     * @param variables Map of variables to substitute in the template
+     * @param tenantId The tenant ID for branding variables
+     * @return Processed template string
+     */
+    public String processTemplate(String templateKey, String template, Map<String, Object> variables, String tenantId) {
         if (template == null) {
             return null;
         }
-        
-        Map<String, Object> allVariables = new HashMap<>();
-        
-        // Add tenant branding variables
-        if (tenantId != null) {
-            Map<String, Object> brandingVariables = tenantBrandingService.getBrandingVariables(tenantId);
-            allVariables.putAll(brandingVariables);
-        }
-        
-        // Add provided variables (these can override branding variables if needed)
-        if (variables != null) {
-            allVariables.putAll(variables);
-        }
-        
-        if (allVariables.isEmpty()) {
+
+        // Tenant branding variables first, so provided variables can override them
+        Map<String, Object> brandingVariables = tenantId != null
+            ? tenantBrandingService.getBrandingVariables(tenantId)
+            : null;
+        boolean hasBranding = brandingVariables != null && !brandingVariables.isEmpty();
+        boolean hasVariables = variables != null && !variables.isEmpty();
+
+        if (!hasBranding && !hasVariables) {
             return template;
         }
-        
+
         Context context = new Context();
-        context.setVariables(allVariables);
-        
-        return thymeleafEngine.process(template, context);
+        if (hasBranding) {
+            context.setVariables(brandingVariables);
+        }
+        if (hasVariables) {
+            context.setVariables(variables);
+        }
+
+        TemplateSpec spec = new TemplateSpec(templateKey != null ? templateKey : INLINE_TEMPLATE, null,
+            TemplateMode.TEXT, Map.of(CONTENT_ATTRIBUTE, template));
+        return thymeleafEngine.process(spec, context);
     }
 
     /**
      * Process a template string with the given variables (backward compatibility)
-     * 
+     *
      * @param template The template string with Thymeleaf syntax
      * @param variables Map of variables to substitute in the template
      * @return Processed template string
@@ -77,7 +117,7 @@ public class NotificationTemplateEngine {
 
     /**
      * Process a subject template with variables and tenant branding
-     * 
+     *
      * @param subjectTemplate The subject template string
      * @param variables Map of variables to substitute
      * @param tenantId The tenant ID for branding variables
@@ -89,7 +129,7 @@ public class NotificationTemplateEngine {
 
     /**
      * Process a content template with variables and tenant branding
-     * 
+     *
      * @param contentTemplate The content template string
      * @param variables Map of variables to substitute
      * @param tenantId The tenant ID for branding variables
@@ -101,7 +141,7 @@ public class NotificationTemplateEngine {
 
     /**
      * Process a subject template with variables (backward compatibility)
-     * 
+     *
      * @param subjectTemplate The subject template string
      * @param variables Map of variables to substitute
      * @return Processed subject string
@@ -112,7 +152,7 @@ public class NotificationTemplateEngine {
 
     /**
      * Process a content template with variables (backward compatibility)
-     * 
+     *
      * @param contentTemplate The content template string
      * @param variables Map of variables to substitute
      * @return Processed content string
@@ -120,4 +160,62 @@ public class NotificationTemplateEngine {
     public String processContent(String contentTemplate, Map<String, Object> variables) {
         return processTemplate(contentTemplate, variables, null);
     }
-}
\ No newline at end of file
+
+    /**
+     * Drop every parsed template and expression
+     */
+    public void clearCache() {
+        thymeleafEngine.clearTemplateCache();
+    }
+
+    /**
+     * Templates parsed since startup. Thymeleaf only resolves a template it has no cached parse
+     * for, so a render served from the cache does not count.
+     */
+    long parsedTemplateCount() {
+        return parsedTemplates.get();
+    }
+
+    /**
+     * Cache key of a stored template version: its ID and last update time
+     */
+    public static String templateKey(Object templateId, Object version, String part) {
+        return templateId + "@" + version + ":" + part;
+    }
+
+    /**
+     * Resolves a template from the content passed in its resolution attributes. Resolution
+     * attributes are part of Thymeleaf's template cache key, so entries are per name and content.
+     */
+    private static final class ContentTemplateResolver extends AbstractTemplateResolver {
+
+        private final AtomicLong resolved;
+
+        private ContentTemplateResolver(AtomicLong resolved) {
+            this.resolved = resolved;
+        }
+
+        @Override
+        protected ITemplateResource computeTemplateResource(IEngineConfiguration configuration, String ownerTemplate,
+                                                            String template,
+                                                            Map<String, Object> templateResolutionAttributes) {
+            resolved.incrementAndGet();
+            Object content = templateResolutionAttributes != null
+                ? templateResolutionAttributes.get(CONTENT_ATTRIBUTE)
+                : null;
+            return new StringTemplateResource(content != null ? content.toString() : template);
+        }
+
+        @Override
+        protected TemplateMode computeTemplateMode(IEngineConfiguration configuration, String ownerTemplate,
+                                                   String template, Map<String, Object> templateResolutionAttributes) {
+            return TemplateMode.TEXT;
+        }
+
+        @Override
+        protected ICacheEntryValidity computeValidity(IEngineConfiguration configuration, String ownerTemplate,
+                                                      String template, Map<String, Object> templateResolutionAttributes) {
+            return AlwaysValidCacheEntryValidity.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.notificationservice.service;
+
+import com.ecommerce.notificationservice.event.TenantBrandingChangedEvent;
+import com.ecommerce.shared.utils.cache.BoundedTtlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process cache of branding variables, keyed by tenant ID.
+ *
+ * Every message rendered for a tenant reads its branding, so it is held here rather than loaded
+ * from the database or a remote cache per message. Once a {@link TenantBrandingChangedEvent}
+ * commits, the tenant is dropped here and published on a Redis channel every instance subscribes
+ * to; an instance that misses the message serves the old branding for at most the TTL. Every
+ * invalidation bumps a generation counter, and a load that started before an invalidation does
+ * not store its result, so a read racing an update cannot put the old branding back.
+ */
+@Component
+public class TenantBrandingCache implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantBrandingCache.class);
+
+    /** Redis channel carrying the IDs of tenants whose branding changed */
+    public static final String CHANNEL = "notification-service:tenant-branding-changed";
+
+    private final BoundedTtlCache<String, Map<String, Object>> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final StringRedisTemplate redisTemplate;
+
+    @Autowired
+    public TenantBrandingCache(@Value("${notification.branding-cache.ttl-ms:600000}") long ttlMillis,
+                               @Value("${notification.branding-cache.max-size:10000}") int maxSize,
+                               StringRedisTemplate redisTemplate) {
+        this(ttlMillis, maxSize, redisTemplate, System::nanoTime);
+    }
+
+    TenantBrandingCache(long ttlMillis, int maxSize, StringRedisTemplate redisTemplate, LongSupplier nanoClock) {
+        this.entries = new BoundedTtlCache<>(maxSize, ttlMillis * 1_000_000L, nanoClock, null);
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Current generation; pass it back to {@link #put} after loading a missing tenant
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Cached branding variables of a tenant, or {@code null} if they are missing or expired
+     */
+    public Map<String, Object> get(String tenantId) {
+        return entries.get(tenantId);
+    }
+
+    /**
+     * Cache variables loaded from the database. Skipped if any tenant's branding changed while they
+     * were loading, since the load may have read the old values
+     */
+    public void put(String tenantId, Map<String, Object> variables, long loadGeneration) {
+        if (generation.get() != loadGeneration) {
+            return;
+        }
+        entries.put(tenantId, variables);
+    }
+
+    /**
+     * Drop a tenant's variables
+     */
+    public void invalidate(String tenantId) {
+        generation.incrementAndGet();
+        entries.remove(tenantId);
+    }
+
+    /**
+     * Runs once the change is committed, or straight away outside a transaction
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBrandingChanged(TenantBrandingChangedEvent event) {
+        logger.debug("Invalidating cached branding: {}", event);
+        invalidate(event.getTenantId());
+        try {
+            redisTemplate.convertAndSend(CHANNEL, event.getTenantId());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to broadcast {}, other instances drop the tenant within the cache TTL", event, e);
+        }
+    }
+
+    /**
+     * A tenant ID published on {@link #CHANNEL} by any instance, this one included
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -3,14 +3,17 @@ package com.ecommerce.notificationservice.service;
 import com.ecommerce.notificationservice.dto.TenantBrandingConfigRequest;
 import com.ecommerce.notificationservice.dto.TenantBrandingConfigResponse;
 import com.ecommerce.notificationservice.entity.TenantBrandingConfig;
+import com.ecommerce.notificationservice.event.TenantBrandingChangedEvent;
 import com.ecommerce.notificationservice.repository.TenantBrandingConfigRepository;
 import com.ecommerce.shared.utils.exception.ResourceNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -22,10 +25,16 @@ public class TenantBrandingService {
     private static final Logger logger = LoggerFactory.getLogger(TenantBrandingService.class);
 
     private final TenantBrandingConfigRepository brandingConfigRepository;
+    private final TenantBrandingCache brandingCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public TenantBrandingService(TenantBrandingConfigRepository brandingConfigRepository) {
+    public TenantBrandingService(TenantBrandingConfigRepository brandingConfigRepository,
+                                 TenantBrandingCache brandingCache,
+                                 ApplicationEventPublisher eventPublisher) {
         this.brandingConfigRepository = brandingConfigRepository;
+        this.brandingCache = brandingCache;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -65,15 +74,28 @@ public class TenantBrandingService {
         }
 
         TenantBrandingConfig savedConfig = brandingConfigRepository.save(config);
+        eventPublisher.publishEvent(new TenantBrandingChangedEvent(tenantId));
         return mapToResponse(savedConfig);
     }
 
     /**
-     * Get branding variables for template processing
+     * Get branding variables for template processing, cached per tenant in this instance
      */
     @Transactional(readOnly = true)
     public Map<String, Object> getBrandingVariables(String tenantId) {
-        logger.debug("Getting branding variables for tenant: {}", tenantId);
+        Map<String, Object> cached = brandingCache.get(tenantId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = brandingCache.generation();
+        Map<String, Object> variables = loadBrandingVariables(tenantId);
+        brandingCache.put(tenantId, variables, generation);
+        return variables;
+    }
+
+    private Map<String, Object> loadBrandingVariables(String tenantId) {
+        logger.debug("Loading branding variables for tenant: {}", tenantId);
 
         Optional<TenantBrandingConfig> config = brandingConfigRepository.findActiveBrandingByTenantId(tenantId);
         
@@ -109,7 +131,8 @@ public class TenantBrandingService {
             variables.put("companyAddress", "");
         }
 
-        return variables;
+        // Shared by every message of the tenant
+        return Collections.unmodifiableMap(variables);
     }
 
     /**
@@ -122,6 +145,7 @@ public class TenantBrandingService {
         if (config.isPresent()) {
             config.get().setIsActive(false);
             brandingConfigRepository.save(config.get());
+            eventPublisher.publishEvent(new TenantBrandingChangedEvent(tenantId));
             logger.debug("Deactivated branding configuration for tenant: {}", tenantId);
         } else {
             throw new ResourceNotFoundException("Branding configuration not found for tenant: " + tenantId);
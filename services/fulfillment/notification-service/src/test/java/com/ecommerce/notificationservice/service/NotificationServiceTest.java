@@ -95,8 +95,10 @@ class NotificationServiceTest {
             anyString(), anyLong(), any(), any())).thenReturn(Optional.empty());
         when(templateRepository.findByTenantIdAndTemplateKeyAndChannel(
             anyString(), anyString(), any())).thenReturn(Optional.of(template));
-        when(templateEngine.processSubject(anyString(), any())).thenReturn("Order #12345 Created");
-        when(templateEngine.processContent(anyString(), any())).thenReturn("Your order #12345 has been created successfully.");
+        when(templateEngine.processTemplate(endsWith(":subject"), anyString(), any(), isNull()))
+            .thenReturn("Order #12345 Created");
+        when(templateEngine.processTemplate(endsWith(":content"), anyString(), any(), isNull()))
+            .thenReturn("Your order #12345 has been created successfully.");
         when(emailProvider.isAvailable()).thenReturn(true);
         when(emailProvider.sendNotification(anyString(), anyString(), anyString())).thenReturn(true);
         when(logRepository.save(any(NotificationLog.class))).thenReturn(savedLog);
@@ -107,8 +109,10 @@ class NotificationServiceTest {
         // Assert
         assertNotNull(response);
         assertEquals(NotificationStatus.SENT, response.getStatus());
-        verify(templateEngine).processSubject("Order #{orderNumber} Created", variables);
-        verify(templateEngine).processContent("Your order #{orderNumber} has been created successfully.", variables);
+        verify(templateEngine).processTemplate(endsWith(":subject"), eq("Order #{orderNumber} Created"),
+            eq(variables), isNull());
+        verify(templateEngine).processTemplate(endsWith(":content"),
+            eq("Your order #{orderNumber} has been created successfully."), eq(variables), isNull());
         verify(emailProvider).sendNotification("test@example.com", "Order #12345 Created", 
                                               "Your order #12345 has been created successfully.");
         verify(logRepository).save(any(NotificationLog.class));
@@ -155,4 +155,82 @@ class NotificationTemplateEngineTest {
         // Assert
         assertEquals("Welcome to Test Store! Contact us at support@teststore.com.", result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void processTemplate_WithSameKey_ShouldRenderEachMessagesVariables() {
+        // Arrange
+        String key = NotificationTemplateEngine.templateKey(1L, "v1", "content");
+        String template = "Order [[${orderNumber}]] confirmed";
+
+        // Act
+        String first = templateEngine.processTemplate(key, template, Map.of("orderNumber", "1"), null);
+        String second = templateEngine.processTemplate(key, template, Map.of("orderNumber", "2"), null);
+
+        // Assert
+        assertEquals("Order 1 confirmed", first);
+        assertEquals("Order 2 confirmed", second);
+    }
+
+    @Test
+    void processTemplate_RenderedAgain_ShouldNotParseTheTemplateAgain() {
+        // Arrange
+        String key = NotificationTemplateEngine.templateKey(1L, "v1", "content");
+        String template = "Order [[${orderNumber}]] confirmed";
+        templateEngine.processTemplate(key, template, Map.of("orderNumber", "1"), null);
+        long parsed = templateEngine.parsedTemplateCount();
+
+        // Act
+        String second = templateEngine.processTemplate(key, template, Map.of("orderNumber", "2"), null);
+
+        // Assert
+        assertEquals("Order 2 confirmed", second);
+        assertEquals(1, parsed);
+        assertEquals(parsed, templateEngine.parsedTemplateCount());
+    }
+
+    @Test
+    void processTemplate_WithChangedContentUnderSameKey_ShouldNotServeCachedContent() {
+        // Arrange
+        String key = NotificationTemplateEngine.templateKey(1L, "v1", "content");
+        Map<String, Object> variables = Map.of("orderNumber", "12345");
+        templateEngine.processTemplate(key, "Order [[${orderNumber}]] confirmed", variables, null);
+
+        // Act
+        String result = templateEngine.processTemplate(key, "Order [[${orderNumber}]] shipped", variables, null);
+
+        // Assert
+        assertEquals("Order 12345 shipped", result);
+        assertEquals(2, templateEngine.parsedTemplateCount());
+    }
+
+    @Test
+    void processTemplate_WithSmallCache_ShouldKeepRenderingEvictedTemplates() {
+        // Arrange
+        NotificationTemplateEngine smallCacheEngine = new NotificationTemplateEngine(tenantBrandingService, 2);
+        Map<String, Object> variables = Map.of("name", "John");
+
+        // Act & Assert
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 5; i++) {
+                String key = NotificationTemplateEngine.templateKey((long) i, "v1", "content");
+                assertEquals("Hello John from " + i,
+                    smallCacheEngine.processTemplate(key, "Hello [[${name}]] from " + i, variables, null));
+            }
+        }
+    }
+
+    @Test
+    void processTemplate_WithTenantBranding_ProvidedVariablesShouldOverrideBranding() {
+        // Arrange
+        String tenantId = "test-tenant";
+        when(tenantBrandingService.getBrandingVariables(tenantId))
+            .thenReturn(Map.of("brandName", "Test Store", "supportEmail", "support@teststore.com"));
+
+        // Act
+        String result = templateEngine.processTemplate("[[${brandName}]] - [[${supportEmail}]]",
+            Map.of("brandName", "Campaign Store"), tenantId);
+
+        // Assert
+        assertEquals("Campaign Store - support@teststore.com", result);
+    }
+}
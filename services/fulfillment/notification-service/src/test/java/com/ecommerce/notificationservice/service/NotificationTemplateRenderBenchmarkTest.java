@@ -0,0 +1,94 @@
+package com.ecommerce.notificationservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Renders per second of an order confirmation email, re-parsing the template on every render as
+ * the engine used to against rendering from the parsed template cache. Branding variables come from
+ * a mock in both cases, so the saved branding lookup is not part of the numbers. Both rates are
+ * printed when run with {@code -Dperformance.tests.enabled=true}; there is no pass mark.
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class NotificationTemplateRenderBenchmarkTest {
+
+    private static final String TENANT = "bench-tenant";
+    private static final int WARMUP_RENDERS = 20_000;
+    private static final int MEASURED_RENDERS = 100_000;
+
+    private static volatile String sink;
+
+    @Test
+    void compareCachedWithUncachedRenders() {
+        String template = orderEmailTemplate();
+        Map<String, Object> branding = Map.of(
+            "brandName", "Bench Store", "supportEmail", "support@bench.example", "websiteUrl", "https://bench.example");
+        TenantBrandingService brandingService = mock(TenantBrandingService.class);
+        when(brandingService.getBrandingVariables(TENANT)).thenReturn(branding);
+
+        org.thymeleaf.TemplateEngine uncached = new org.thymeleaf.TemplateEngine();
+        StringTemplateResolver resolver = new StringTemplateResolver();
+        resolver.setTemplateMode(TemplateMode.TEXT);
+        resolver.setCacheable(false);
+        uncached.setTemplateResolver(resolver);
+
+        NotificationTemplateEngine cached = new NotificationTemplateEngine(brandingService);
+        String key = NotificationTemplateEngine.templateKey(42L, "2026-01-01T00:00", "content");
+
+        System.out.printf("Order email template of %,d characters%n", template.length());
+        report("re-parsed", i -> {
+            Map<String, Object> variables = new HashMap<>(brandingService.getBrandingVariables(TENANT));
+            variables.putAll(orderVariables(i));
+            Context context = new Context();
+            context.setVariables(variables);
+            return uncached.process(template, context);
+        });
+        report("cached", i -> cached.processTemplate(key, template, orderVariables(i), TENANT));
+    }
+
+    private static void report(String label, IntFunction<String> render) {
+        for (int i = 0; i < WARMUP_RENDERS; i++) {
+            sink = render.apply(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RENDERS; i++) {
+            sink = render.apply(i);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  %-10s %,10.0f renders/s   %6.2f us/render%n", label,
+            MEASURED_RENDERS / seconds, seconds * 1e6 / MEASURED_RENDERS);
+    }
+
+    private static Map<String, Object> orderVariables(int i) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("customerName", "Customer " + i);
+        variables.put("orderNumber", "ORD-" + (100_000 + i));
+        variables.put("totalAmount", String.valueOf(10 + i % 500) + ".99");
+        variables.put("itemCount", i % 7 + 1);
+        return variables;
+    }
+
+    private static String orderEmailTemplate() {
+        StringBuilder template = new StringBuilder()
+            .append("Dear [[${customerName}]],\n\n")
+            .append("Thank you for shopping with [[${brandName}]]. Your order [[${orderNumber}]] ")
+            .append("with [[${itemCount}]] item(s) totalling $[[${totalAmount}]] has been confirmed.\n\n");
+        for (int i = 0; i < 20; i++) {
+            template.append("[# th:if=\"${itemCount > ").append(i % 7).append("}\"]")
+                .append("Line ").append(i).append(" of your receipt for [[${orderNumber}]].[/]\n");
+        }
+        return template
+            .append("\nQuestions? Contact [[${supportEmail}]] or visit [[${websiteUrl}]].\n")
+            .toString();
+    }
+}
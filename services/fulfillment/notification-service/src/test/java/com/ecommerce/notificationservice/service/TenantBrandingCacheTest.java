@@ -0,0 +1,98 @@
+package com.ecommerce.notificationservice.service;
+
+import com.ecommerce.notificationservice.event.TenantBrandingChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TenantBrandingCacheTest {
+
+    private static final long TTL_MS = 600000;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final AtomicLong clock = new AtomicLong();
+    private TenantBrandingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TenantBrandingCache(TTL_MS, 3, redisTemplate, clock::get);
+    }
+
+    @Test
+    void get_ShouldReturnFreshEntriesOnly() {
+        // Given
+        cache.put("tenant1", Map.of("brandName", "Store"), cache.generation());
+
+        // When & Then
+        assertEquals("Store", cache.get("tenant1").get("brandName"));
+        clock.addAndGet(TTL_MS * 1_000_000L);
+        assertNull(cache.get("tenant1"));
+    }
+
+    @Test
+    void onBrandingChanged_ShouldDropTenantAndBroadcast() {
+        // Given
+        cache.put("tenant1", Map.of("brandName", "Store"), cache.generation());
+        cache.put("tenant2", Map.of("brandName", "Other"), cache.generation());
+
+        // When
+        cache.onBrandingChanged(new TenantBrandingChangedEvent("tenant1"));
+
+        // Then
+        assertNull(cache.get("tenant1"));
+        assertNotNull(cache.get("tenant2"));
+        verify(redisTemplate).convertAndSend(TenantBrandingCache.CHANNEL, "tenant1");
+    }
+
+    @Test
+    void onBrandingChanged_WhenBroadcastFails_ShouldStillDropTenantLocally() {
+        // Given
+        cache.put("tenant1", Map.of("brandName", "Store"), cache.generation());
+        doThrow(new IllegalStateException("Redis unavailable")).when(redisTemplate).convertAndSend(anyString(), anyString());
+
+        // When
+        cache.onBrandingChanged(new TenantBrandingChangedEvent("tenant1"));
+
+        // Then
+        assertNull(cache.get("tenant1"));
+    }
+
+    @Test
+    void onMessage_FromAnotherInstance_ShouldDropTenant() {
+        // Given
+        cache.put("tenant1", Map.of("brandName", "Store"), cache.generation());
+
+        // When
+        cache.onMessage(new DefaultMessage(TenantBrandingCache.CHANNEL.getBytes(StandardCharsets.UTF_8),
+            "tenant1".getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        assertNull(cache.get("tenant1"));
+    }
+
+    @Test
+    void put_ShouldStayWithinMaxSize() {
+        // When
+        for (int i = 1; i <= 5; i++) {
+            cache.put("tenant" + i, Map.of(), cache.generation());
+        }
+
+        // Then
+        assertEquals(3, cache.size());
+    }
+}
@@ -3,14 +3,16 @@ package com.ecommerce.notificationservice.service;
 import com.ecommerce.notificationservice.dto.TenantBrandingConfigRequest;
 import com.ecommerce.notificationservice.dto.TenantBrandingConfigResponse;
 import com.ecommerce.notificationservice.entity.TenantBrandingConfig;
+import com.ecommerce.notificationservice.event.TenantBrandingChangedEvent;
 import com.ecommerce.notificationservice.repository.TenantBrandingConfigRepository;
 import com.ecommerce.shared.utils.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -28,7 +30,10 @@ class TenantBrandingServiceTest {
     @Mock
     private TenantBrandingConfigRepository brandingConfigRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TenantBrandingCache brandingCache;
     private TenantBrandingService tenantBrandingService;
 
     private String tenantId;
@@ -38,6 +43,8 @@ class TenantBrandingServiceTest {
     @BeforeEach
     void setUp() {
         tenantId = "test-tenant";
+        brandingCache = new TenantBrandingCache(600000, 100, null, System::nanoTime);
+        tenantBrandingService = new TenantBrandingService(brandingConfigRepository, brandingCache, eventPublisher);
         
         testConfig = new TenantBrandingConfig(tenantId, "Test Brand");
         testConfig.setId(1L);
@@ -187,6 +194,69 @@ class TenantBrandingServiceTest {
         verify(brandingConfigRepository).findActiveBrandingByTenantId(tenantId);
     }
 
+    @Test
+    void getBrandingVariables_CalledAgain_ShouldNotReloadFromDatabase() {
+        // Given
+        when(brandingConfigRepository.findActiveBrandingByTenantId(tenantId))
+            .thenReturn(Optional.of(testConfig));
+        tenantBrandingService.getBrandingVariables(tenantId);
+
+        // When
+        Map<String, Object> variables = tenantBrandingService.getBrandingVariables(tenantId);
+
+        // Then
+        assertThat(variables.get("brandName")).isEqualTo("Test Brand");
+        verify(brandingConfigRepository, times(1)).findActiveBrandingByTenantId(tenantId);
+    }
+
+    @Test
+    void getBrandingVariables_AfterBrandingChanged_ShouldReload() {
+        // Given
+        TenantBrandingConfig renamed = new TenantBrandingConfig(tenantId, "Renamed Brand");
+        when(brandingConfigRepository.findActiveBrandingByTenantId(tenantId))
+            .thenReturn(Optional.of(testConfig), Optional.of(renamed));
+        tenantBrandingService.getBrandingVariables(tenantId);
+
+        // When
+        brandingCache.invalidate(tenantId);
+        Map<String, Object> variables = tenantBrandingService.getBrandingVariables(tenantId);
+
+        // Then
+        assertThat(variables.get("brandName")).isEqualTo("Renamed Brand");
+        verify(brandingConfigRepository, times(2)).findActiveBrandingByTenantId(tenantId);
+    }
+
+    @Test
+    void getBrandingVariables_WhenChangedDuringLoad_ShouldNotCacheOldBranding() {
+        // Given - the branding is updated while the old row is being read
+        when(brandingConfigRepository.findActiveBrandingByTenantId(tenantId)).thenAnswer(invocation -> {
+            brandingCache.invalidate(tenantId);
+            return Optional.of(testConfig);
+        });
+
+        // When
+        tenantBrandingService.getBrandingVariables(tenantId);
+        tenantBrandingService.getBrandingVariables(tenantId);
+
+        // Then
+        verify(brandingConfigRepository, times(2)).findActiveBrandingByTenantId(tenantId);
+    }
+
+    @Test
+    void createOrUpdateTenantBranding_ShouldPublishBrandingChanged() {
+        // Given
+        when(brandingConfigRepository.findByTenantIdOptional(tenantId)).thenReturn(Optional.of(testConfig));
+        when(brandingConfigRepository.save(any(TenantBrandingConfig.class))).thenReturn(testConfig);
+
+        // When
+        tenantBrandingService.createOrUpdateTenantBranding(tenantId, testRequest);
+
+        // Then
+        ArgumentCaptor<TenantBrandingChangedEvent> event = ArgumentCaptor.forClass(TenantBrandingChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getTenantId()).isEqualTo(tenantId);
+    }
+
     @Test
     void deactivateTenantBranding_WhenConfigExists_ShouldDeactivate() {
         // Given
@@ -201,6 +271,7 @@ class TenantBrandingServiceTest {
         // Then
         verify(brandingConfigRepository).findByTenantIdOptional(tenantId);
         verify(brandingConfigRepository).save(testConfig);
+        verify(eventPublisher).publishEvent(any(TenantBrandingChangedEvent.class));
         assertThat(testConfig.getIsActive()).isFalse();
     }
 
@@ -217,5 +288,6 @@ class TenantBrandingServiceTest {
         
         verify(brandingConfigRepository).findByTenantIdOptional(tenantId);
         verify(brandingConfigRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 }
\ No newline at end of file
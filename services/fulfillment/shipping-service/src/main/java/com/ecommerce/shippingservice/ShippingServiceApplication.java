@@ -1,8 +1,11 @@
 package com.ecommerce.shippingservice;
 
+import com.ecommerce.shippingservice.config.RateQuoteProperties;
+import com.ecommerce.shippingservice.config.TrackingPollerProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -23,6 +26,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableKafka
 @EnableAsync
 @EnableScheduling
+@EnableConfigurationProperties({TrackingPollerProperties.class, RateQuoteProperties.class})
 public class ShippingServiceApplication {
 
     public static void main(String[] args) {
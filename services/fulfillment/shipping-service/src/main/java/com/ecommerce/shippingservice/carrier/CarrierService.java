@@ -7,7 +7,9 @@ import com.ecommerce.shippingservice.dto.TrackingResponse;
 import com.ecommerce.shippingservice.dto.CreateShipmentRequest;
 import com.ecommerce.shippingservice.dto.CreateShipmentResponse;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for carrier-specific shipping operations.
@@ -40,6 +42,25 @@ public interface CarrierService {
      */
     TrackingResponse trackShipment(String tenantId, TrackingRequest request);
 
+    /**
+     * Most tracking numbers accepted by one {@link #trackShipments} call
+     */
+    default int getMaxTrackingBatchSize() {
+        return 1;
+    }
+
+    /**
+     * Track several shipments of one tenant, keyed by tracking number.
+     * Carriers with a batch tracking API override this; the default tracks them one at a time.
+     */
+    default Map<String, TrackingResponse> trackShipments(String tenantId, List<TrackingRequest> requests) {
+        Map<String, TrackingResponse> responses = new LinkedHashMap<>();
+        for (TrackingRequest request : requests) {
+            responses.put(request.getTrackingNumber(), trackShipment(tenantId, request));
+        }
+        return responses;
+    }
+
     /**
      * Cancel a shipment with the carrier
      */
@@ -0,0 +1,48 @@
+package com.ecommerce.shippingservice.carrier;
+
+/**
+ * Token bucket that keeps calls to a carrier API within its request quota.
+ * Holds up to {@code burst} tokens and refills at {@code requestsPerSecond}.
+ */
+public class CarrierTokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public CarrierTokenBucket(double requestsPerSecond, int burst) {
+        this(requestsPerSecond, burst, System.nanoTime());
+    }
+
+    CarrierTokenBucket(double requestsPerSecond, int burst, long nowNanos) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Carrier quota needs a positive rate and a burst of at least 1");
+        }
+        this.capacity = burst;
+        this.tokensPerNano = requestsPerSecond / NANOS_PER_SECOND;
+        this.tokens = burst;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Take one token if available
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    synchronized boolean tryAcquire(long nowNanos) {
+        if (nowNanos > lastRefillNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
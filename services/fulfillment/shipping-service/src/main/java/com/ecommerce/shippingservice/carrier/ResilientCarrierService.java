@@ -12,6 +12,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 /**
@@ -40,16 +41,9 @@ public class ResilientCarrierService {
      */
     public List<ShippingRateResponse> getShippingRatesWithResilience(
             CarrierService carrierService, String tenantId, ShippingRateRequest request) {
-        
-        Supplier<List<ShippingRateResponse>> supplier = 
-            () -> carrierService.getShippingRates(tenantId, request);
-
-        supplier = Bulkhead.decorateSupplier(bulkhead, supplier);
-        supplier = CircuitBreaker.decorateSupplier(circuitBreaker, supplier);
-        supplier = Retry.decorateSupplier(retry, supplier);
 
         try {
-            return supplier.get();
+            return fetchShippingRates(carrierService, tenantId, request);
         } catch (Exception e) {
             logger.error("Failed to get shipping rates from {}, using fallback", 
                 carrierService.getCarrierName(), e);
@@ -57,6 +51,23 @@ public class ResilientCarrierService {
         }
     }
 
+    /**
+     * Get shipping rates with resilience patterns, letting the failure through instead of
+     * falling back, for callers that must tell real quotes from estimates
+     */
+    public List<ShippingRateResponse> fetchShippingRates(
+            CarrierService carrierService, String tenantId, ShippingRateRequest request) {
+
+        Supplier<List<ShippingRateResponse>> supplier =
+            () -> carrierService.getShippingRates(tenantId, request);
+
+        supplier = Bulkhead.decorateSupplier(bulkhead, supplier);
+        supplier = CircuitBreaker.decorateSupplier(circuitBreaker, supplier);
+        supplier = Retry.decorateSupplier(retry, supplier);
+
+        return supplier.get();
+    }
+
     /**
      * Create shipment with resilience patterns and fallback
      */
@@ -101,6 +112,29 @@ public class ResilientCarrierService {
         }
     }
 
+    /**
+     * Track several shipments of one tenant with resilience patterns.
+     * Falls back to no responses, so callers keep their current status and try again later.
+     */
+    public Map<String, TrackingResponse> trackShipmentsWithResilience(
+            CarrierService carrierService, String tenantId, List<TrackingRequest> requests) {
+
+        Supplier<Map<String, TrackingResponse>> supplier =
+            () -> carrierService.trackShipments(tenantId, requests);
+
+        supplier = Bulkhead.decorateSupplier(bulkhead, supplier);
+        supplier = CircuitBreaker.decorateSupplier(circuitBreaker, supplier);
+        supplier = Retry.decorateSupplier(retry, supplier);
+
+        try {
+            return supplier.get();
+        } catch (Exception e) {
+            logger.error("Failed to track {} shipments with {}, leaving them for the next attempt",
+                requests.size(), carrierService.getCarrierName(), e);
+            return Collections.emptyMap();
+        }
+    }
+
     /**
      * Cancel shipment with resilience patterns and fallback
      */
@@ -148,7 +182,7 @@ public class ResilientCarrierService {
     /**
      * Fallback method for shipping rates when carrier API is unavailable
      */
-    private List<ShippingRateResponse> getFallbackShippingRates(String carrierName, ShippingRateRequest request) {
+    public List<ShippingRateResponse> getFallbackShippingRates(String carrierName, ShippingRateRequest request) {
         logger.info("Using fallback shipping rates for carrier: {}", carrierName);
         
         // Return basic fallback rates
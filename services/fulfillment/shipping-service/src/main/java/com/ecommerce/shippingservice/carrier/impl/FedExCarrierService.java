@@ -13,7 +13,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -26,6 +28,7 @@ public class FedExCarrierService implements CarrierService {
 
     private static final Logger logger = LoggerFactory.getLogger(FedExCarrierService.class);
     private static final String CARRIER_NAME = "FedEx";
+    private static final int MAX_TRACKING_BATCH_SIZE = 30;
 
     private final CarrierConfigRepository carrierConfigRepository;
 
@@ -124,9 +127,37 @@ public class FedExCarrierService implements CarrierService {
             throw new IllegalStateException("FedEx carrier not configured for tenant: " + tenantId);
         }
 
-        // Mock implementation - in real scenario, call FedEx Track API
+        return mockTrackingResponse(request.getTrackingNumber());
+    }
+
+    @Override
+    public int getMaxTrackingBatchSize() {
+        // FedEx Track API accepts up to 30 tracking numbers per request
+        return MAX_TRACKING_BATCH_SIZE;
+    }
+
+    @Override
+    public Map<String, TrackingResponse> trackShipments(String tenantId, List<TrackingRequest> requests) {
+        logger.info("Tracking {} FedEx shipments for tenant: {}", requests.size(), tenantId);
+
+        if (requests.size() > MAX_TRACKING_BATCH_SIZE) {
+            throw new IllegalArgumentException("FedEx tracks at most " + MAX_TRACKING_BATCH_SIZE + " shipments per request");
+        }
+        if (!isAvailable(tenantId)) {
+            throw new IllegalStateException("FedEx carrier not configured for tenant: " + tenantId);
+        }
+
+        // Mock implementation - in real scenario, one FedEx Track API call for all tracking numbers
+        Map<String, TrackingResponse> responses = new LinkedHashMap<>();
+        for (TrackingRequest request : requests) {
+            responses.put(request.getTrackingNumber(), mockTrackingResponse(request.getTrackingNumber()));
+        }
+        return responses;
+    }
+
+    private TrackingResponse mockTrackingResponse(String trackingNumber) {
         return new TrackingResponse(
-            request.getTrackingNumber(),
+            trackingNumber,
             "IN_TRANSIT",
             "Package is in transit",
             "Memphis, TN",
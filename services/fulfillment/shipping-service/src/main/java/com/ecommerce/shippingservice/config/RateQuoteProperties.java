@@ -0,0 +1,70 @@
+package com.ecommerce.shippingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Configuration properties for shipping rate quotes and the rate quote cache
+ */
+@ConfigurationProperties(prefix = "shipping.rate-quotes")
+public class RateQuoteProperties {
+
+    /**
+     * Time each carrier has to answer a multi-carrier quote; slower carriers are left out of the result
+     * Default: 3 seconds
+     */
+    private Duration carrierTimeout = Duration.ofSeconds(3);
+
+    /**
+     * How long a carrier's quote for a lane, weight bucket and service level is reused
+     * Default: 10 minutes
+     */
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * Most quotes held in the cache
+     * Default: 10000
+     */
+    private int cacheMaxSize = 10_000;
+
+    /**
+     * Width of a weight bucket in kilograms; weights are rounded up to the bucket boundary
+     * before carriers are asked, so one quote holds for every weight in the bucket
+     * Default: 0.5
+     */
+    private BigDecimal weightBucketKg = new BigDecimal("0.5");
+
+    public Duration getCarrierTimeout() {
+        return carrierTimeout;
+    }
+
+    public void setCarrierTimeout(Duration carrierTimeout) {
+        this.carrierTimeout = carrierTimeout;
+    }
+
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public void setCacheTtl(Duration cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    public int getCacheMaxSize() {
+        return cacheMaxSize;
+    }
+
+    public void setCacheMaxSize(int cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
+    }
+
+    public BigDecimal getWeightBucketKg() {
+        return weightBucketKg;
+    }
+
+    public void setWeightBucketKg(BigDecimal weightBucketKg) {
+        this.weightBucketKg = weightBucketKg;
+    }
+}
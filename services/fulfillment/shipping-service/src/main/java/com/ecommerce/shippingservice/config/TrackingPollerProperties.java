@@ -0,0 +1,169 @@
+package com.ecommerce.shippingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the carrier tracking poller
+ */
+@ConfigurationProperties(prefix = "shipping.tracking-poller")
+public class TrackingPollerProperties {
+
+    /**
+     * Time until the next expected carrier update for a shipment that was picked up
+     * Default: 2 hours
+     */
+    private Duration pickedUpInterval = Duration.ofHours(2);
+
+    /**
+     * Time until the next expected carrier update for a shipment in transit
+     * Default: 4 hours
+     */
+    private Duration inTransitInterval = Duration.ofHours(4);
+
+    /**
+     * Time until the next expected carrier update for a shipment out for delivery,
+     * or in transit on or after its estimated delivery date
+     * Default: 30 minutes
+     */
+    private Duration outForDeliveryInterval = Duration.ofMinutes(30);
+
+    /**
+     * Delay before retrying a shipment whose carrier call failed
+     * Default: 10 minutes
+     */
+    private Duration failureRetryDelay = Duration.ofMinutes(10);
+
+    /**
+     * How long the instance polling carriers keeps that role without renewing it; another
+     * instance takes over at most this long after the poller stops
+     * Default: 1 minute
+     */
+    private Duration leaseDuration = Duration.ofMinutes(1);
+
+    /**
+     * Quota applied to carriers without an entry in {@code carriers}
+     * Default: 5 requests per second, burst of 10, 4 concurrent requests
+     */
+    private CarrierQuota defaultQuota = new CarrierQuota();
+
+    /**
+     * Quota per carrier, keyed by lower-case carrier name
+     * Default: none
+     */
+    private Map<String, CarrierQuota> carriers = new HashMap<>();
+
+    /**
+     * Quota for the tracking poller's calls to one carrier
+     */
+    public static class CarrierQuota {
+
+        /**
+         * Sustained tracking requests per second; a batch call counts as one request
+         * Default: 5
+         */
+        private double requestsPerSecond = 5;
+
+        /**
+         * Requests that may be sent back to back after an idle period
+         * Default: 10
+         */
+        private int burst = 10;
+
+        /**
+         * Tracking requests in flight at the same time
+         * Default: 4
+         */
+        private int maxConcurrentRequests = 4;
+
+        public double getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public void setRequestsPerSecond(double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+    }
+
+    public Duration getPickedUpInterval() {
+        return pickedUpInterval;
+    }
+
+    public void setPickedUpInterval(Duration pickedUpInterval) {
+        this.pickedUpInterval = pickedUpInterval;
+    }
+
+    public Duration getInTransitInterval() {
+        return inTransitInterval;
+    }
+
+    public void setInTransitInterval(Duration inTransitInterval) {
+        this.inTransitInterval = inTransitInterval;
+    }
+
+    public Duration getOutForDeliveryInterval() {
+        return outForDeliveryInterval;
+    }
+
+    public void setOutForDeliveryInterval(Duration outForDeliveryInterval) {
+        this.outForDeliveryInterval = outForDeliveryInterval;
+    }
+
+    public Duration getFailureRetryDelay() {
+        return failureRetryDelay;
+    }
+
+    public void setFailureRetryDelay(Duration failureRetryDelay) {
+        this.failureRetryDelay = failureRetryDelay;
+    }
+
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    public void setLeaseDuration(Duration leaseDuration) {
+        this.leaseDuration = leaseDuration;
+    }
+
+    public CarrierQuota getDefaultQuota() {
+        return defaultQuota;
+    }
+
+    public void setDefaultQuota(CarrierQuota defaultQuota) {
+        this.defaultQuota = defaultQuota;
+    }
+
+    public Map<String, CarrierQuota> getCarriers() {
+        return carriers;
+    }
+
+    public void setCarriers(Map<String, CarrierQuota> carriers) {
+        this.carriers = carriers;
+    }
+
+    /**
+     * Quota for a carrier, falling back to the default quota
+     */
+    public CarrierQuota quotaFor(String carrierName) {
+        return carriers.getOrDefault(carrierName.toLowerCase(), defaultQuota);
+    }
+}
@@ -49,6 +49,25 @@ public class ShipmentController {
         }
     }
 
+    /**
+     * Get shipping rates from all available carriers, cheapest first
+     */
+    @PostMapping("/rates")
+    public ResponseEntity<ApiResponse<MultiCarrierRateResponse>> getShippingRates(
+            @Valid @RequestBody ShippingRateRequest request) {
+
+        logger.info("Quoting shipping rates from all carriers");
+
+        try {
+            MultiCarrierRateResponse rates = shipmentService.getShippingRatesFromAllCarriers(request);
+            return ResponseEntity.ok(ApiResponse.success(rates));
+        } catch (Exception e) {
+            logger.error("Error quoting shipping rates", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error("Failed to get shipping rates: " + e.getMessage()));
+        }
+    }
+
     /**
      * Get shipment by ID
      */
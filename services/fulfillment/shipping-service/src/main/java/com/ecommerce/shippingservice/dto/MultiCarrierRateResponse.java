@@ -0,0 +1,70 @@
+package com.ecommerce.shippingservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MultiCarrierRateResponse {
+
+    private List<ShippingRateResponse> rates = new ArrayList<>(); // cheapest first
+    private List<String> quotedCarriers = new ArrayList<>();
+    private List<String> timedOutCarriers = new ArrayList<>();
+    private List<String> failedCarriers = new ArrayList<>();
+
+    // Constructors
+    public MultiCarrierRateResponse() {}
+
+    public MultiCarrierRateResponse(List<ShippingRateResponse> rates, List<String> quotedCarriers,
+                                    List<String> timedOutCarriers, List<String> failedCarriers) {
+        this.rates = rates;
+        this.quotedCarriers = quotedCarriers;
+        this.timedOutCarriers = timedOutCarriers;
+        this.failedCarriers = failedCarriers;
+    }
+
+    /**
+     * Cheapest rate across all carriers that answered, or {@code null} if none did
+     */
+    public ShippingRateResponse getCheapestRate() {
+        return rates == null || rates.isEmpty() ? null : rates.get(0);
+    }
+
+    /**
+     * Whether some carriers timed out or failed and are missing from the rates
+     */
+    public boolean isPartial() {
+        return !timedOutCarriers.isEmpty() || !failedCarriers.isEmpty();
+    }
+
+    // Getters and Setters
+    public List<ShippingRateResponse> getRates() {
+        return rates;
+    }
+
+    public void setRates(List<ShippingRateResponse> rates) {
+        this.rates = rates;
+    }
+
+    public List<String> getQuotedCarriers() {
+        return quotedCarriers;
+    }
+
+    public void setQuotedCarriers(List<String> quotedCarriers) {
+        this.quotedCarriers = quotedCarriers;
+    }
+
+    public List<String> getTimedOutCarriers() {
+        return timedOutCarriers;
+    }
+
+    public void setTimedOutCarriers(List<String> timedOutCarriers) {
+        this.timedOutCarriers = timedOutCarriers;
+    }
+
+    public List<String> getFailedCarriers() {
+        return failedCarriers;
+    }
+
+    public void setFailedCarriers(List<String> failedCarriers) {
+        this.failedCarriers = failedCarriers;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.shippingservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+
+/**
+ * Time-limited leases that let one instance at a time run a scheduled job.
+ *
+ * A lease is held by its owner until it expires, and the owner extends it by acquiring it again.
+ * Expiry is checked against the database clock, so instances with skewed clocks still agree on
+ * when a lease lapses.
+ */
+@Repository
+public class SchedulerLeaseRepository {
+
+    // Assignments run left to right, so expires_at is only extended once owner is the caller
+    private static final String ACQUIRE_SQL =
+        "INSERT INTO scheduler_leases (name, owner, expires_at) VALUES (?, ?, TIMESTAMPADD(MICROSECOND, ?, NOW(3))) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "owner = IF(owner = VALUES(owner) OR expires_at < NOW(3), VALUES(owner), owner), "
+            + "expires_at = IF(owner = VALUES(owner), VALUES(expires_at), expires_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SchedulerLeaseRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Take a lease that is free or expired, or extend one the owner already holds
+     *
+     * @return whether the owner holds the lease for the given duration from now
+     */
+    public boolean tryAcquire(String name, String owner, Duration duration) {
+        jdbcTemplate.update(ACQUIRE_SQL, name, owner, duration.toNanos() / 1_000);
+        Integer held = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM scheduler_leases WHERE name = ? AND owner = ?", Integer.class, name, owner);
+        return held != null && held > 0;
+    }
+
+    /**
+     * Give up a lease so another instance can take it straight away
+     */
+    public void release(String name, String owner) {
+        jdbcTemplate.update("DELETE FROM scheduler_leases WHERE name = ? AND owner = ?", name, owner);
+    }
+}
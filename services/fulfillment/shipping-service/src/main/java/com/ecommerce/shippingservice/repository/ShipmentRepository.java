@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,5 +50,28 @@ public interface ShipmentRepository extends TenantAwareRepository<Shipment, Long
     @Query("SELECT s FROM Shipment s WHERE s.tenantId = :tenantId AND s.status IN ('IN_TRANSIT', 'OUT_FOR_DELIVERY') AND s.estimatedDeliveryDate < :date")
     List<Shipment> findOverdueShipments(@Param("tenantId") String tenantId, @Param("date") LocalDate date);
 
-    Page<Shipment> findByStatusInAndTrackingNumberIsNotNull(List<ShipmentStatus> statuses, Pageable pageable);
+    /**
+     * Keyset page of trackable shipments across tenants, for the tracking poller
+     */
+    @Query("SELECT s.id AS id, s.tenantId AS tenantId, s.carrierName AS carrierName, s.trackingNumber AS trackingNumber, " +
+           "s.status AS status, s.estimatedDeliveryDate AS estimatedDeliveryDate, s.updatedAt AS updatedAt " +
+           "FROM Shipment s WHERE s.id > :afterId AND s.status IN :statuses AND s.trackingNumber IS NOT NULL ORDER BY s.id")
+    List<TrackableShipment> findTrackableAfter(
+        @Param("afterId") Long afterId,
+        @Param("statuses") List<ShipmentStatus> statuses,
+        Pageable pageable
+    );
+
+    /**
+     * Fields the tracking poller needs to schedule a shipment
+     */
+    interface TrackableShipment {
+        Long getId();
+        String getTenantId();
+        String getCarrierName();
+        String getTrackingNumber();
+        ShipmentStatus getStatus();
+        LocalDate getEstimatedDeliveryDate();
+        LocalDateTime getUpdatedAt();
+    }
 }
\ No newline at end of file
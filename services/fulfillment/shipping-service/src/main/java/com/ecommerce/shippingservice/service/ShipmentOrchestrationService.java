@@ -5,6 +5,7 @@ import com.ecommerce.shared.utils.TenantContext;
 import com.ecommerce.shippingservice.dto.CreateShipmentRequest;
 import com.ecommerce.shippingservice.dto.ShipmentItemRequest;
 import com.ecommerce.shippingservice.dto.ShipmentResponse;
+import com.ecommerce.shippingservice.dto.TrackingResponse;
 import com.ecommerce.shippingservice.entity.ShipmentStatus;
 import com.ecommerce.shippingservice.kafka.ShipmentEventPublisher;
 import org.slf4j.Logger;
@@ -170,6 +171,19 @@ public class ShipmentOrchestrationService {
         }
     }
 
+    /**
+     * Apply a tracking response fetched by the tracking poller and publish events if status changed
+     */
+    public ShipmentStatus processTrackingResponse(Long shipmentId, TrackingResponse trackingResponse) {
+        ShipmentStatus oldStatus = shipmentService.applyTrackingResponse(shipmentId, trackingResponse);
+        ShipmentStatus newStatus = shipmentService.getShipment(shipmentId).getStatus();
+
+        if (oldStatus != newStatus) {
+            processShipmentStatusUpdate(shipmentId, oldStatus, newStatus);
+        }
+        return newStatus;
+    }
+
     /**
      * Build CreateShipmentRequest from OrderConfirmedEvent
      */
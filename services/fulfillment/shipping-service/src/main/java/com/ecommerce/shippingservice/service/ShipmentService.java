@@ -20,6 +20,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -37,16 +38,19 @@ public class ShipmentService {
     private final CarrierServiceFactory carrierServiceFactory;
     private final ShipmentTrackingService trackingService;
     private final ResilientCarrierService resilientCarrierService;
+    private final ShippingRateQuoteService rateQuoteService;
 
     @Autowired
     public ShipmentService(ShipmentRepository shipmentRepository,
                           CarrierServiceFactory carrierServiceFactory,
                           ShipmentTrackingService trackingService,
-                          ResilientCarrierService resilientCarrierService) {
+                          ResilientCarrierService resilientCarrierService,
+                          ShippingRateQuoteService rateQuoteService) {
         this.shipmentRepository = shipmentRepository;
         this.carrierServiceFactory = carrierServiceFactory;
         this.trackingService = trackingService;
         this.resilientCarrierService = resilientCarrierService;
+        this.rateQuoteService = rateQuoteService;
     }
 
     /**
@@ -240,6 +244,18 @@ public class ShipmentService {
         }
     }
 
+    /**
+     * Apply a tracking response already fetched from the carrier, returning the status it replaced
+     */
+    public ShipmentStatus applyTrackingResponse(Long shipmentId, TrackingResponse trackingResponse) {
+        Shipment shipment = shipmentRepository.findById(shipmentId)
+            .orElseThrow(() -> new ShipmentNotFoundException("Shipment not found: " + shipmentId));
+
+        ShipmentStatus previousStatus = shipment.getStatus();
+        trackingService.updateTrackingFromCarrierResponse(shipment, trackingResponse);
+        return previousStatus;
+    }
+
     /**
      * Cancel shipment
      */
@@ -347,7 +363,7 @@ public class ShipmentService {
     }
 
     /**
-     * Get shipping rates with resilience patterns
+     * Get shipping rates with resilience patterns, reusing cached quotes
      */
     public List<ShippingRateResponse> getShippingRatesWithResilience(String carrierName, ShippingRateRequest request) {
         String tenantId = TenantContext.getTenantId();
@@ -355,7 +371,16 @@ public class ShipmentService {
         CarrierService carrierService = carrierServiceFactory.getCarrierService(carrierName)
             .orElseThrow(() -> new CarrierNotAvailableException("Carrier not supported: " + carrierName));
 
-        return resilientCarrierService.getShippingRatesWithResilience(carrierService, tenantId, request);
+        return rateQuoteService.getShippingRates(carrierService, tenantId, request);
+    }
+
+    /**
+     * Get shipping rates from all available carriers in parallel, cheapest first.
+     * Runs outside a transaction so no connection is held while carriers answer.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MultiCarrierRateResponse getShippingRatesFromAllCarriers(ShippingRateRequest request) {
+        return rateQuoteService.getShippingRatesFromAllCarriers(TenantContext.getTenantId(), request);
     }
 
     /**
@@ -0,0 +1,550 @@
+package com.ecommerce.shippingservice.service;
+
+import com.ecommerce.shared.utils.TenantContext;
+import com.ecommerce.shippingservice.carrier.CarrierService;
+import com.ecommerce.shippingservice.carrier.CarrierServiceFactory;
+import com.ecommerce.shippingservice.carrier.CarrierTokenBucket;
+import com.ecommerce.shippingservice.carrier.ResilientCarrierService;
+import com.ecommerce.shippingservice.config.TrackingPollerProperties;
+import com.ecommerce.shippingservice.dto.TrackingRequest;
+import com.ecommerce.shippingservice.dto.TrackingResponse;
+import com.ecommerce.shippingservice.entity.ShipmentStatus;
+import com.ecommerce.shippingservice.repository.SchedulerLeaseRepository;
+import com.ecommerce.shippingservice.repository.ShipmentRepository;
+import com.ecommerce.shippingservice.repository.ShipmentRepository.TrackableShipment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls carriers for tracking updates of active shipments.
+ *
+ * Each shipment waits in its carrier's priority queue until the time its next carrier update is
+ * expected, which depends on its status. Due shipments of one tenant are tracked together, in
+ * batches as large as the carrier's batch tracking call allows, while a token bucket and a
+ * concurrency limit per carrier keep the calls within that carrier's quota. Active shipments are
+ * loaded with keyset paging and re-synced periodically to pick up new ones and drop those
+ * finished elsewhere.
+ *
+ * Only the instance holding the polling lease tracks shipments, so each carrier's quota is spent
+ * once however many instances run. The holder renews the lease well before it expires and stops
+ * polling as soon as it can no longer be sure it holds it; another instance takes the lease once
+ * it lapses and loads the active shipments afresh.
+ */
+@Component
+public class ShipmentTrackingPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShipmentTrackingPoller.class);
+
+    static final String LEASE_NAME = "shipment-tracking-poller";
+
+    static final List<ShipmentStatus> ACTIVE_STATUSES = List.of(
+        ShipmentStatus.PICKED_UP,
+        ShipmentStatus.IN_TRANSIT,
+        ShipmentStatus.OUT_FOR_DELIVERY
+    );
+
+    private static final long REPORT_INTERVAL_MILLIS = Duration.ofMinutes(1).toMillis();
+    // Due shipments examined per batch while looking for more of the same tenant
+    private static final int BATCH_SCAN_FACTOR = 4;
+    private static final Comparator<TrackedShipment> DUE_ORDER = Comparator
+        .comparingLong((TrackedShipment shipment) -> shipment.nextUpdateAtMillis)
+        .thenComparingLong(shipment -> shipment.id);
+
+    private final ShipmentRepository shipmentRepository;
+    private final SchedulerLeaseRepository leaseRepository;
+    private final CarrierServiceFactory carrierServiceFactory;
+    private final ResilientCarrierService resilientCarrierService;
+    private final ShipmentOrchestrationService orchestrationService;
+    private final TrackingPollerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Executor executor;
+    private final boolean enabled;
+    private final int syncPageSize;
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    private final Map<String, CarrierLane> lanes = new ConcurrentHashMap<>();
+    private final Map<Long, TrackedShipment> tracked = new ConcurrentHashMap<>();
+    private final Timer stalenessTimer;
+    private final AtomicLong refreshedSinceReport = new AtomicLong();
+    private volatile long refreshedPerMinute;
+    private volatile long lastReportMillis = System.currentTimeMillis();
+    private volatile boolean leaseHeld;
+    private volatile long leaseValidUntilNanos;
+    private long syncGeneration;
+
+    @Autowired
+    public ShipmentTrackingPoller(ShipmentRepository shipmentRepository,
+                                  SchedulerLeaseRepository leaseRepository,
+                                  CarrierServiceFactory carrierServiceFactory,
+                                  ResilientCarrierService resilientCarrierService,
+                                  ShipmentOrchestrationService orchestrationService,
+                                  TrackingPollerProperties properties,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shipping.tracking-update-enabled:true}") boolean enabled,
+                                  @Value("${shipping.tracking-update-batch-size:1000}") int syncPageSize) {
+        this(shipmentRepository, leaseRepository, carrierServiceFactory, resilientCarrierService, orchestrationService,
+            properties, meterRegistry, enabled, syncPageSize, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    ShipmentTrackingPoller(ShipmentRepository shipmentRepository,
+                           SchedulerLeaseRepository leaseRepository,
+                           CarrierServiceFactory carrierServiceFactory,
+                           ResilientCarrierService resilientCarrierService,
+                           ShipmentOrchestrationService orchestrationService,
+                           TrackingPollerProperties properties,
+                           MeterRegistry meterRegistry,
+                           boolean enabled,
+                           int syncPageSize,
+                           Executor executor) {
+        this.shipmentRepository = shipmentRepository;
+        this.leaseRepository = leaseRepository;
+        this.carrierServiceFactory = carrierServiceFactory;
+        this.resilientCarrierService = resilientCarrierService;
+        this.orchestrationService = orchestrationService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.syncPageSize = Math.max(1, syncPageSize);
+        this.executor = executor;
+        this.stalenessTimer = Timer.builder("shipping.tracking.staleness")
+            .description("Age of a shipment's tracking data when it is refreshed from the carrier")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("shipping.tracking.scheduled", tracked, Map::size)
+            .description("Active shipments scheduled for tracking updates")
+            .register(meterRegistry);
+        Gauge.builder("shipping.tracking.refreshed_per_minute", this, poller -> poller.refreshedPerMinute)
+            .description("Shipments refreshed from carriers per minute, over the last report interval")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Take the polling lease if it is free, or extend it if this instance holds it
+     */
+    @Scheduled(fixedDelayString = "${shipping.tracking-lease-renew-interval:15000}")
+    public void renewLease() {
+        if (!enabled) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = leaseRepository.tryAcquire(LEASE_NAME, leaseOwner, properties.getLeaseDuration());
+        } catch (Exception e) {
+            // Keep polling until the lease held so far runs out
+            logger.warn("Failed to renew the tracking lease: {}", e.getMessage());
+            return;
+        }
+
+        if (acquired) {
+            leaseValidUntilNanos = startNanos + properties.getLeaseDuration().toNanos();
+            if (!leaseHeld) {
+                leaseHeld = true;
+                logger.info("Took the tracking lease as {}; loading active shipments", leaseOwner);
+                try {
+                    executor.execute(this::syncActiveShipments);
+                } catch (RejectedExecutionException e) {
+                    logger.warn("Could not load active shipments now, the next sync will");
+                }
+            }
+        } else if (leaseHeld) {
+            logger.info("Tracking lease taken by another instance; no longer polling carriers");
+            stopTracking();
+        }
+    }
+
+    /**
+     * Load active shipments with keyset paging, scheduling new ones and dropping those no longer active
+     */
+    @Scheduled(fixedDelayString = "${shipping.tracking-update-interval:3600000}")
+    public synchronized void syncActiveShipments() {
+        if (!enabled) {
+            logger.debug("Tracking update is disabled");
+            return;
+        }
+        if (!holdsLease()) {
+            return;
+        }
+
+        long generation = ++syncGeneration;
+        long afterId = 0L;
+        int added = 0;
+        Set<String> unsupportedCarriers = new HashSet<>();
+        List<TrackableShipment> page;
+
+        do {
+            page = shipmentRepository.findTrackableAfter(afterId, ACTIVE_STATUSES, PageRequest.of(0, syncPageSize));
+            for (TrackableShipment shipment : page) {
+                TrackedShipment existing = tracked.get(shipment.getId());
+                if (existing != null) {
+                    existing.syncGeneration = generation;
+                    continue;
+                }
+
+                CarrierLane lane = laneFor(shipment.getCarrierName());
+                if (lane == null) {
+                    unsupportedCarriers.add(shipment.getCarrierName());
+                    continue;
+                }
+
+                TrackedShipment entry = new TrackedShipment(shipment, lastUpdatedMillis(shipment), generation);
+                entry.nextUpdateAtMillis = entry.lastRefreshedAtMillis
+                    + nextUpdateDelay(shipment.getStatus(), shipment.getEstimatedDeliveryDate()).toMillis();
+                tracked.put(entry.id, entry);
+                lane.schedule(entry);
+                added++;
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == syncPageSize);
+
+        // Shipments delivered, cancelled or updated elsewhere since the last sync
+        int dropped = 0;
+        for (Iterator<TrackedShipment> iterator = tracked.values().iterator(); iterator.hasNext(); ) {
+            TrackedShipment entry = iterator.next();
+            if (entry.syncGeneration != generation) {
+                entry.dropped = true;
+                iterator.remove();
+                dropped++;
+            }
+        }
+
+        if (!unsupportedCarriers.isEmpty()) {
+            logger.warn("Not tracking shipments of unsupported carriers {}", unsupportedCarriers);
+        }
+        logger.info("Synced active shipments: {} added, {} dropped, {} scheduled", added, dropped, tracked.size());
+    }
+
+    /**
+     * Send tracking requests for due shipments, as far as each carrier's quota allows
+     */
+    @Scheduled(fixedDelayString = "${shipping.tracking-dispatch-interval:1000}")
+    public void dispatchDueShipments() {
+        dispatchDueShipments(System.currentTimeMillis());
+    }
+
+    void dispatchDueShipments(long nowMillis) {
+        if (!enabled || !holdsLease()) {
+            return;
+        }
+
+        for (CarrierLane lane : lanes.values()) {
+            lane.dispatch(nowMillis);
+        }
+        reportThroughput(nowMillis);
+    }
+
+    /**
+     * Shipments refreshed from carriers per minute, over the last report interval
+     */
+    public long getRefreshedPerMinute() {
+        return refreshedPerMinute;
+    }
+
+    /**
+     * Active shipments scheduled for tracking updates
+     */
+    public int getScheduledShipmentCount() {
+        return tracked.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        if (leaseHeld) {
+            leaseHeld = false;
+            try {
+                leaseRepository.release(LEASE_NAME, leaseOwner);
+            } catch (Exception e) {
+                logger.warn("Failed to release the tracking lease, another instance takes it once it expires: {}",
+                    e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Time until a shipment's next carrier update is expected
+     */
+    Duration nextUpdateDelay(ShipmentStatus status, LocalDate estimatedDeliveryDate) {
+        boolean deliveryDue = estimatedDeliveryDate != null && !estimatedDeliveryDate.isAfter(LocalDate.now());
+        if (status == ShipmentStatus.OUT_FOR_DELIVERY || deliveryDue) {
+            return properties.getOutForDeliveryInterval();
+        }
+        return status == ShipmentStatus.PICKED_UP ? properties.getPickedUpInterval() : properties.getInTransitInterval();
+    }
+
+    // Whether this instance may poll, giving up once the lease could have lapsed unrenewed
+    private boolean holdsLease() {
+        if (leaseHeld && System.nanoTime() - leaseValidUntilNanos >= 0) {
+            logger.warn("Tracking lease expired before it could be renewed; no longer polling carriers");
+            stopTracking();
+        }
+        return leaseHeld;
+    }
+
+    private synchronized void stopTracking() {
+        leaseHeld = false;
+        for (TrackedShipment entry : tracked.values()) {
+            entry.dropped = true;
+        }
+        tracked.clear();
+        lanes.values().forEach(CarrierLane::clear);
+    }
+
+    private CarrierLane laneFor(String carrierName) {
+        return lanes.computeIfAbsent(carrierName.toLowerCase(), key -> carrierServiceFactory.getCarrierService(carrierName)
+            .map(carrierService -> new CarrierLane(carrierService, properties.quotaFor(key)))
+            .orElse(null));
+    }
+
+    private void refresh(CarrierLane lane, List<TrackedShipment> batch) {
+        String tenantId = batch.get(0).tenantId;
+        String carrierName = lane.carrierService.getCarrierName();
+        int handled = 0;
+
+        TenantContext.setTenantId(tenantId);
+        try {
+            List<TrackingRequest> requests = batch.stream()
+                .map(shipment -> new TrackingRequest(shipment.trackingNumber, carrierName))
+                .toList();
+            Map<String, TrackingResponse> responses = resilientCarrierService.trackShipmentsWithResilience(
+                lane.carrierService, tenantId, requests);
+
+            long nowMillis = System.currentTimeMillis();
+            for (TrackedShipment shipment : batch) {
+                apply(lane, shipment, responses.get(shipment.trackingNumber), nowMillis);
+                handled++;
+            }
+        } catch (Exception e) {
+            logger.error("Failed to refresh {} {} shipments for tenant {}", batch.size() - handled, carrierName, tenantId, e);
+            long retryAtMillis = System.currentTimeMillis() + properties.getFailureRetryDelay().toMillis();
+            for (TrackedShipment shipment : batch.subList(handled, batch.size())) {
+                lane.failures.increment();
+                lane.reschedule(shipment, retryAtMillis);
+            }
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private void apply(CarrierLane lane, TrackedShipment shipment, TrackingResponse response, long nowMillis) {
+        if (response == null) {
+            lane.failures.increment();
+            lane.reschedule(shipment, nowMillis + properties.getFailureRetryDelay().toMillis());
+            return;
+        }
+
+        ShipmentStatus status;
+        try {
+            status = orchestrationService.processTrackingResponse(shipment.id, response);
+        } catch (Exception e) {
+            logger.warn("Failed to apply tracking update for shipment {}: {}", shipment.id, e.getMessage());
+            lane.failures.increment();
+            lane.reschedule(shipment, nowMillis + properties.getFailureRetryDelay().toMillis());
+            return;
+        }
+
+        stalenessTimer.record(Math.max(0, nowMillis - shipment.lastRefreshedAtMillis), TimeUnit.MILLISECONDS);
+        shipment.lastRefreshedAtMillis = nowMillis;
+        lane.refreshed.increment();
+        refreshedSinceReport.incrementAndGet();
+
+        if (ACTIVE_STATUSES.contains(status)) {
+            lane.reschedule(shipment, nowMillis + nextUpdateDelay(status, shipment.estimatedDeliveryDate).toMillis());
+        } else {
+            shipment.dropped = true;
+            tracked.remove(shipment.id, shipment);
+        }
+    }
+
+    private void reportThroughput(long nowMillis) {
+        long elapsedMillis = nowMillis - lastReportMillis;
+        if (elapsedMillis < REPORT_INTERVAL_MILLIS) {
+            return;
+        }
+
+        long refreshed = refreshedSinceReport.getAndSet(0);
+        refreshedPerMinute = Math.round(refreshed * (double) REPORT_INTERVAL_MILLIS / elapsedMillis);
+        lastReportMillis = nowMillis;
+
+        if (refreshed > 0) {
+            StringBuilder percentiles = new StringBuilder();
+            for (ValueAtPercentile percentile : stalenessTimer.takeSnapshot().percentileValues()) {
+                percentiles.append(String.format(" p%.0f=%.1fmin", percentile.percentile() * 100,
+                    percentile.value(TimeUnit.MINUTES)));
+            }
+            logger.info("Refreshed {} shipments/min, {} scheduled; staleness{}",
+                refreshedPerMinute, tracked.size(), percentiles);
+        }
+    }
+
+    private static long lastUpdatedMillis(TrackableShipment shipment) {
+        if (shipment.getUpdatedAt() == null) {
+            return System.currentTimeMillis();
+        }
+        return shipment.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Due shipments, request quota and meters of one carrier
+     */
+    private final class CarrierLane {
+        private final CarrierService carrierService;
+        private final PriorityQueue<TrackedShipment> queue = new PriorityQueue<>(DUE_ORDER);
+        private final CarrierTokenBucket tokenBucket;
+        private final Semaphore inFlight;
+        private final int batchSize;
+        private final Counter refreshed;
+        private final Counter failures;
+
+        CarrierLane(CarrierService carrierService, TrackingPollerProperties.CarrierQuota quota) {
+            this.carrierService = carrierService;
+            this.tokenBucket = new CarrierTokenBucket(quota.getRequestsPerSecond(), quota.getBurst());
+            this.inFlight = new Semaphore(Math.max(1, quota.getMaxConcurrentRequests()));
+            this.batchSize = Math.max(1, carrierService.getMaxTrackingBatchSize());
+            this.refreshed = Counter.builder("shipping.tracking.refreshed")
+                .description("Shipments refreshed from carrier tracking")
+                .tag("carrier", carrierService.getCarrierName())
+                .register(meterRegistry);
+            this.failures = Counter.builder("shipping.tracking.failures")
+                .description("Shipment tracking refreshes that failed and were rescheduled")
+                .tag("carrier", carrierService.getCarrierName())
+                .register(meterRegistry);
+        }
+
+        synchronized void schedule(TrackedShipment shipment) {
+            queue.add(shipment);
+        }
+
+        synchronized void clear() {
+            queue.clear();
+        }
+
+        void reschedule(TrackedShipment shipment, long nextUpdateAtMillis) {
+            if (!shipment.dropped) {
+                shipment.nextUpdateAtMillis = nextUpdateAtMillis;
+                schedule(shipment);
+            }
+        }
+
+        void dispatch(long nowMillis) {
+            List<TrackedShipment> batch;
+            while ((batch = nextBatch(nowMillis)) != null) {
+                List<TrackedShipment> toRefresh = batch;
+                try {
+                    executor.execute(() -> {
+                        try {
+                            refresh(this, toRefresh);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    toRefresh.forEach(this::schedule);
+                    return;
+                }
+            }
+        }
+
+        // Head of the queue plus further due shipments of its tenant, once quota allows another request
+        private synchronized List<TrackedShipment> nextBatch(long nowMillis) {
+            while (!queue.isEmpty() && queue.peek().dropped) {
+                queue.poll();
+            }
+            TrackedShipment head = queue.peek();
+            if (head == null || head.nextUpdateAtMillis > nowMillis) {
+                return null;
+            }
+            if (!inFlight.tryAcquire()) {
+                return null;
+            }
+            if (!tokenBucket.tryAcquire()) {
+                inFlight.release();
+                return null;
+            }
+
+            List<TrackedShipment> batch = new ArrayList<>(batchSize);
+            List<TrackedShipment> otherTenants = new ArrayList<>();
+            batch.add(queue.poll());
+            int scanned = 0;
+            while (batch.size() < batchSize && scanned < batchSize * BATCH_SCAN_FACTOR) {
+                TrackedShipment next = queue.peek();
+                if (next == null || next.nextUpdateAtMillis > nowMillis) {
+                    break;
+                }
+                queue.poll();
+                scanned++;
+                if (next.dropped) {
+                    continue;
+                }
+                if (next.tenantId.equals(head.tenantId)) {
+                    batch.add(next);
+                } else {
+                    otherTenants.add(next);
+                }
+            }
+            queue.addAll(otherTenants);
+            return batch;
+        }
+    }
+
+    /**
+     * Scheduling state of one active shipment
+     */
+    private static final class TrackedShipment {
+        private final Long id;
+        private final String tenantId;
+        private final String trackingNumber;
+        private final LocalDate estimatedDeliveryDate;
+        private volatile long lastRefreshedAtMillis;
+        private volatile long nextUpdateAtMillis;
+        private volatile long syncGeneration;
+        private volatile boolean dropped;
+
+        TrackedShipment(TrackableShipment shipment, long lastRefreshedAtMillis, long syncGeneration) {
+            this.id = shipment.getId();
+            this.tenantId = shipment.getTenantId();
+            this.trackingNumber = shipment.getTrackingNumber();
+            this.estimatedDeliveryDate = shipment.getEstimatedDeliveryDate();
+            this.lastRefreshedAtMillis = lastRefreshedAtMillis;
+            this.syncGeneration = syncGeneration;
+        }
+    }
+}
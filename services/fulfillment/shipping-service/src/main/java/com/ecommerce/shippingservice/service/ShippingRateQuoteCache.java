@@ -0,0 +1,158 @@
+package com.ecommerce.shippingservice.service;
+
+import com.ecommerce.shared.utils.cache.BoundedTtlCache;
+import com.ecommerce.shippingservice.config.RateQuoteProperties;
+import com.ecommerce.shippingservice.dto.ShippingRateRequest;
+import com.ecommerce.shippingservice.dto.ShippingRateResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Size-bounded local cache of carrier rate quotes.
+ *
+ * A quote is keyed by tenant, carrier, normalized origin and destination, weight bucket, service
+ * level and dimensions. Addresses are compared case-insensitively with punctuation and repeated
+ * whitespace ignored, so "12 Main St., Springfield" and "12 main st springfield" share a quote.
+ * Only real carrier quotes are cached; fallback estimates never are. Quotes are held in a
+ * {@link BoundedTtlCache}, so a full cache drops the oldest quote nobody has read since it was
+ * stored.
+ */
+@Component
+public class ShippingRateQuoteCache {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String ALL_SERVICES = "*";
+
+    private final BoundedTtlCache<String, List<ShippingRateResponse>> quotes;
+    private final BigDecimal weightBucketKg;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    @Autowired
+    public ShippingRateQuoteCache(RateQuoteProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    ShippingRateQuoteCache(RateQuoteProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.quotes = new BoundedTtlCache<>(Math.max(1, properties.getCacheMaxSize()),
+            properties.getCacheTtl().toNanos(), nanoClock, null);
+        this.weightBucketKg = properties.getWeightBucketKg();
+        this.hitCounter = Counter.builder("shipping.rate_quote_cache.hits")
+            .description("Carrier rate quotes served from the quote cache")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("shipping.rate_quote_cache.misses")
+            .description("Carrier rate quotes that had to call the carrier")
+            .register(meterRegistry);
+        Gauge.builder("shipping.rate_quote_cache.size", quotes, BoundedTtlCache::size)
+            .description("Carrier rate quotes held in the quote cache")
+            .register(meterRegistry);
+        Gauge.builder("shipping.rate_quote_cache.hit_ratio", this, ShippingRateQuoteCache::hitRatio)
+            .description("Share of carrier rate quotes served from the quote cache since startup")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Copy of a rate request with its weight rounded up to the weight bucket boundary. Carriers
+     * bill by rounded-up weight, so the quote for the boundary holds for every weight in the bucket.
+     */
+    public ShippingRateRequest bucketed(ShippingRateRequest request) {
+        ShippingRateRequest bucketed = new ShippingRateRequest(
+            request.getOriginAddress(), request.getDestinationAddress(), weightBucket(request.getWeightKg()));
+        bucketed.setDimensions(request.getDimensions());
+        bucketed.setServiceType(request.getServiceType());
+        return bucketed;
+    }
+
+    /**
+     * Cached quote of a carrier for a request, or {@code null} if there is none or it expired
+     */
+    public List<ShippingRateResponse> get(String tenantId, String carrierName, ShippingRateRequest request) {
+        List<ShippingRateResponse> cached = quotes.get(key(tenantId, carrierName, request));
+        if (cached == null) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return copy(cached, LocalDate.now());
+    }
+
+    /**
+     * Cache a quote returned by a carrier
+     */
+    public void put(String tenantId, String carrierName, ShippingRateRequest request, List<ShippingRateResponse> rates) {
+        quotes.put(key(tenantId, carrierName, request), copy(rates, null));
+    }
+
+    /**
+     * Drop every quote, e.g. after carrier rate tables changed
+     */
+    public void invalidateAll() {
+        quotes.clear();
+    }
+
+    public int size() {
+        return quotes.size();
+    }
+
+    /**
+     * Share of lookups served from the cache since startup
+     */
+    public double hitRatio() {
+        double hits = hitCounter.count();
+        double lookups = hits + missCounter.count();
+        return lookups == 0 ? 0.0 : hits / lookups;
+    }
+
+    BigDecimal weightBucket(BigDecimal weightKg) {
+        if (weightKg == null || weightBucketKg == null || weightBucketKg.signum() <= 0) {
+            return weightKg;
+        }
+        return weightKg.divide(weightBucketKg, 0, RoundingMode.CEILING).multiply(weightBucketKg).stripTrailingZeros();
+    }
+
+    String key(String tenantId, String carrierName, ShippingRateRequest request) {
+        BigDecimal bucket = weightBucket(request.getWeightKg());
+        return tenantId
+            + '|' + carrierName.toLowerCase(Locale.ROOT)
+            + '|' + normalize(request.getOriginAddress())
+            + '|' + normalize(request.getDestinationAddress())
+            + '|' + (bucket == null ? "" : bucket.toPlainString())
+            + '|' + (request.getServiceType() == null || request.getServiceType().isBlank()
+                ? ALL_SERVICES : request.getServiceType().trim().toUpperCase(Locale.ROOT))
+            + '|' + (request.getDimensions() == null ? "" : request.getDimensions().replaceAll("\\s+", ""));
+    }
+
+    static String normalize(String address) {
+        if (address == null) {
+            return "";
+        }
+        return NON_ALPHANUMERIC.matcher(address.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Callers get their own copies; on a hit the delivery date is moved to today plus transit days
+    private static List<ShippingRateResponse> copy(List<ShippingRateResponse> rates, LocalDate today) {
+        return rates.stream()
+            .map(rate -> new ShippingRateResponse(
+                rate.getCarrierName(),
+                rate.getServiceCode(),
+                rate.getServiceName(),
+                rate.getRate(),
+                rate.getCurrency(),
+                rate.getTransitDays(),
+                today != null && rate.getTransitDays() != null
+                    ? today.plusDays(rate.getTransitDays())
+                    : rate.getEstimatedDeliveryDate()))
+            .toList();
+    }
+}
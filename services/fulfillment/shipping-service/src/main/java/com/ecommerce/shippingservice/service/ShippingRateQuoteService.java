@@ -0,0 +1,194 @@
+package com.ecommerce.shippingservice.service;
+
+import com.ecommerce.shared.utils.TenantContext;
+import com.ecommerce.shippingservice.carrier.CarrierService;
+import com.ecommerce.shippingservice.carrier.CarrierServiceFactory;
+import com.ecommerce.shippingservice.carrier.ResilientCarrierService;
+import com.ecommerce.shippingservice.config.RateQuoteProperties;
+import com.ecommerce.shippingservice.dto.MultiCarrierRateResponse;
+import com.ecommerce.shippingservice.dto.ShippingRateRequest;
+import com.ecommerce.shippingservice.dto.ShippingRateResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Quotes shipping rates through the rate quote cache.
+ *
+ * A multi-carrier quote asks every carrier available to the tenant at the same time, each call
+ * going through the shared carrier bulkhead, circuit breaker and retry. Carriers that have not
+ * answered within the carrier timeout are reported as timed out and left out of the result; their
+ * calls keep running and still fill the cache for the next quote.
+ */
+@Service
+public class ShippingRateQuoteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShippingRateQuoteService.class);
+
+    private static final Comparator<ShippingRateResponse> CHEAPEST_FIRST = Comparator.comparing(
+        ShippingRateResponse::getRate, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final CarrierServiceFactory carrierServiceFactory;
+    private final ResilientCarrierService resilientCarrierService;
+    private final ShippingRateQuoteCache quoteCache;
+    private final RateQuoteProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Executor executor;
+    private final Timer quoteTimer;
+
+    @Autowired
+    public ShippingRateQuoteService(CarrierServiceFactory carrierServiceFactory,
+                                    ResilientCarrierService resilientCarrierService,
+                                    ShippingRateQuoteCache quoteCache,
+                                    RateQuoteProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this(carrierServiceFactory, resilientCarrierService, quoteCache, properties, meterRegistry,
+            Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    ShippingRateQuoteService(CarrierServiceFactory carrierServiceFactory,
+                             ResilientCarrierService resilientCarrierService,
+                             ShippingRateQuoteCache quoteCache,
+                             RateQuoteProperties properties,
+                             MeterRegistry meterRegistry,
+                             Executor executor) {
+        this.carrierServiceFactory = carrierServiceFactory;
+        this.resilientCarrierService = resilientCarrierService;
+        this.quoteCache = quoteCache;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        this.quoteTimer = Timer.builder("shipping.rate_quotes.latency")
+            .description("Time to quote shipping rates across all available carriers")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Rates of one carrier, from the cache when possible. Falls back to estimated rates, which are not cached.
+     */
+    public List<ShippingRateResponse> getShippingRates(CarrierService carrierService, String tenantId,
+                                                       ShippingRateRequest request) {
+        ShippingRateRequest bucketed = quoteCache.bucketed(request);
+        String carrierName = carrierService.getCarrierName();
+
+        List<ShippingRateResponse> cached = quoteCache.get(tenantId, carrierName, bucketed);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            List<ShippingRateResponse> rates = resilientCarrierService.fetchShippingRates(carrierService, tenantId, bucketed);
+            quoteCache.put(tenantId, carrierName, bucketed, rates);
+            return rates;
+        } catch (Exception e) {
+            logger.error("Failed to get shipping rates from {}, using fallback", carrierName, e);
+            return resilientCarrierService.getFallbackShippingRates(carrierName, request);
+        }
+    }
+
+    /**
+     * Rates of every carrier available to the tenant, cheapest first. Carriers that time out or
+     * fail are listed in the response instead of holding up the others.
+     */
+    public MultiCarrierRateResponse getShippingRatesFromAllCarriers(String tenantId, ShippingRateRequest request) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + properties.getCarrierTimeout().toNanos();
+        ShippingRateRequest bucketed = quoteCache.bucketed(request);
+
+        List<ShippingRateResponse> rates = new ArrayList<>();
+        List<String> quoted = new ArrayList<>();
+        List<String> timedOut = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        Map<String, CompletableFuture<List<ShippingRateResponse>>> pending = new LinkedHashMap<>();
+
+        for (CarrierService carrierService : carrierServiceFactory.getAvailableCarrierServices(tenantId)) {
+            String carrierName = carrierService.getCarrierName();
+            List<ShippingRateResponse> cached = quoteCache.get(tenantId, carrierName, bucketed);
+            if (cached != null) {
+                rates.addAll(cached);
+                quoted.add(carrierName);
+            } else {
+                pending.put(carrierName, fetchAsync(carrierService, tenantId, bucketed));
+            }
+        }
+
+        for (Map.Entry<String, CompletableFuture<List<ShippingRateResponse>>> entry : pending.entrySet()) {
+            String carrierName = entry.getKey();
+            try {
+                long remainingNanos = Math.max(0, deadlineNanos - System.nanoTime());
+                rates.addAll(entry.getValue().get(remainingNanos, TimeUnit.NANOSECONDS));
+                quoted.add(carrierName);
+            } catch (TimeoutException e) {
+                logger.warn("{} did not quote within {}, leaving it out", carrierName, properties.getCarrierTimeout());
+                timedOut.add(carrierName);
+                carrierCounter("shipping.rate_quotes.timeouts", "Carrier quotes that missed the carrier timeout",
+                    carrierName).increment();
+            } catch (ExecutionException e) {
+                logger.error("Failed to get shipping rates from {}, leaving it out", carrierName, e.getCause());
+                failed.add(carrierName);
+                carrierCounter("shipping.rate_quotes.failures", "Carrier quotes that failed", carrierName).increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                timedOut.add(carrierName);
+            }
+        }
+
+        rates.sort(CHEAPEST_FIRST);
+        quoteTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return new MultiCarrierRateResponse(rates, quoted, timedOut, failed);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    // Fills the cache on success, even if the quote arrives after the caller stopped waiting
+    private CompletableFuture<List<ShippingRateResponse>> fetchAsync(CarrierService carrierService, String tenantId,
+                                                                     ShippingRateRequest request) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                TenantContext.setTenantId(tenantId);
+                try {
+                    List<ShippingRateResponse> rates =
+                        resilientCarrierService.fetchShippingRates(carrierService, tenantId, request);
+                    quoteCache.put(tenantId, carrierService.getCarrierName(), request, rates);
+                    return rates;
+                } finally {
+                    TenantContext.clear();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Counter carrierCounter(String name, String description, String carrierName) {
+        return Counter.builder(name)
+            .description(description)
+            .tag("carrier", carrierName)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.shippingservice.carrier;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarrierTokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenRefillAtRate() {
+        // Given
+        CarrierTokenBucket bucket = new CarrierTokenBucket(2, 3, 0);
+
+        // When & Then - full burst, then empty
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(0));
+
+        // Half a second at 2 per second refills one token
+        assertTrue(bucket.tryAcquire(SECOND / 2));
+        assertFalse(bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    void tryAcquire_ShouldNotRefillBeyondBurst() {
+        // Given
+        CarrierTokenBucket bucket = new CarrierTokenBucket(10, 2, 0);
+
+        // When - idle for a minute
+        int acquired = 0;
+        while (bucket.tryAcquire(60 * SECOND)) {
+            acquired++;
+        }
+
+        // Then
+        assertEquals(2, acquired);
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidQuota() {
+        assertThrows(IllegalArgumentException.class, () -> new CarrierTokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CarrierTokenBucket(1, 0));
+    }
+}
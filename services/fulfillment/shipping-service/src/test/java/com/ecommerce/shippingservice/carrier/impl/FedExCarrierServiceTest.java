@@ -13,7 +13,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -184,6 +186,42 @@ class FedExCarrierServiceTest {
         verify(carrierConfigRepository).findActiveCarrierConfig(TENANT_ID, CARRIER_NAME);
     }
 
+    @Test
+    void trackShipments_WhenAvailable_ReturnsTrackingPerNumberWithOneConfigLookup() {
+        // Arrange
+        when(carrierConfigRepository.findActiveCarrierConfig(TENANT_ID, CARRIER_NAME))
+            .thenReturn(Optional.of(carrierConfig));
+
+        List<TrackingRequest> requests = List.of(
+            new TrackingRequest("1234567890", CARRIER_NAME),
+            new TrackingRequest("1234567891", CARRIER_NAME)
+        );
+
+        // Act
+        Map<String, TrackingResponse> responses = fedExCarrierService.trackShipments(TENANT_ID, requests);
+
+        // Assert
+        assertEquals(List.of("1234567890", "1234567891"), List.copyOf(responses.keySet()));
+        assertEquals("1234567891", responses.get("1234567891").getTrackingNumber());
+        assertEquals("IN_TRANSIT", responses.get("1234567891").getStatus());
+        assertEquals(30, fedExCarrierService.getMaxTrackingBatchSize());
+
+        verify(carrierConfigRepository, times(1)).findActiveCarrierConfig(TENANT_ID, CARRIER_NAME);
+    }
+
+    @Test
+    void trackShipments_WhenOverBatchLimit_ThrowsException() {
+        // Arrange
+        List<TrackingRequest> requests = IntStream.range(0, 31)
+            .mapToObj(i -> new TrackingRequest("TRACK" + i, CARRIER_NAME))
+            .toList();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> fedExCarrierService.trackShipments(TENANT_ID, requests));
+        verifyNoInteractions(carrierConfigRepository);
+    }
+
     @Test
     void cancelShipment_WhenAvailable_ReturnsTrue() {
         // Arrange
@@ -73,6 +73,30 @@ class ShipmentControllerTest {
         verify(shipmentService, never()).createShipment(any(CreateShipmentRequest.class));
     }
 
+    @Test
+    void getShippingRates_Success() throws Exception {
+        // Arrange
+        ShippingRateRequest request = new ShippingRateRequest("1 Warehouse Way", "123 Test St", new BigDecimal("1.5"));
+        MultiCarrierRateResponse response = new MultiCarrierRateResponse(
+            List.of(new ShippingRateResponse("UPS", "UPS_GROUND", "UPS Ground",
+                new BigDecimal("11.75"), "USD", 5, LocalDate.now().plusDays(5))),
+            List.of("UPS"), List.of("FedEx"), List.of());
+
+        when(shipmentService.getShippingRatesFromAllCarriers(any(ShippingRateRequest.class))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/shipments/rates")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.cheapestRate.serviceCode").value("UPS_GROUND"))
+                .andExpect(jsonPath("$.data.timedOutCarriers[0]").value("FedEx"))
+                .andExpect(jsonPath("$.data.partial").value(true));
+
+        verify(shipmentService).getShippingRatesFromAllCarriers(any(ShippingRateRequest.class));
+    }
+
     @Test
     void getShipment_Success() throws Exception {
         // Arrange
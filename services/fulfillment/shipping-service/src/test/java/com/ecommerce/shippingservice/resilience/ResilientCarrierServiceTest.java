@@ -16,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -178,6 +179,27 @@ class ResilientCarrierServiceTest {
         assertThat(result.getStatusDescription()).contains("temporarily unavailable");
     }
 
+    @Test
+    void testTrackShipmentsWithResilience_FallbackOnFailure() {
+        // Given
+        String tenantId = "tenant1";
+        List<TrackingRequest> requests = List.of(
+            new TrackingRequest("TRACK123", "TestCarrier"),
+            new TrackingRequest("TRACK456", "TestCarrier")
+        );
+
+        when(mockCarrierService.trackShipments(tenantId, requests))
+            .thenThrow(new RuntimeException("API timeout"));
+        when(mockCarrierService.getCarrierName()).thenReturn("TestCarrier");
+
+        // When
+        Map<String, TrackingResponse> result = resilientCarrierService
+            .trackShipmentsWithResilience(mockCarrierService, tenantId, requests);
+
+        // Then - no guessed statuses, the shipments are retried later
+        assertThat(result).isEmpty();
+    }
+
     @Test
     void testCancelShipmentWithResilience_Success() {
         // Given
@@ -4,6 +4,7 @@ import com.ecommerce.shared.models.events.OrderConfirmedEvent;
 import com.ecommerce.shared.utils.TenantContext;
 import com.ecommerce.shippingservice.dto.CreateShipmentRequest;
 import com.ecommerce.shippingservice.dto.ShipmentResponse;
+import com.ecommerce.shippingservice.dto.TrackingResponse;
 import com.ecommerce.shippingservice.entity.ShipmentStatus;
 import com.ecommerce.shippingservice.kafka.ShipmentEventPublisher;
 import org.junit.jupiter.api.AfterEach;
@@ -263,4 +264,39 @@ class ShipmentOrchestrationServiceTest {
         verify(shipmentService).updateTrackingFromCarrier(1L);
         verify(eventPublisher, never()).publishShipmentStatusUpdateEvent(any(), anyString(), anyString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void processTrackingResponse_StatusChanged_ShouldPublishEventsAndReturnNewStatus() {
+        // Given
+        TrackingResponse trackingResponse = new TrackingResponse(
+            "1234567890", "DELIVERED", "Delivered", "Front door", null, null, List.of());
+        ShipmentResponse afterUpdate = new ShipmentResponse();
+        afterUpdate.setId(1L);
+        afterUpdate.setStatus(ShipmentStatus.DELIVERED);
+
+        when(shipmentService.applyTrackingResponse(1L, trackingResponse)).thenReturn(ShipmentStatus.OUT_FOR_DELIVERY);
+        when(shipmentService.getShipment(1L)).thenReturn(afterUpdate);
+
+        // When
+        ShipmentStatus status = orchestrationService.processTrackingResponse(1L, trackingResponse);
+
+        // Then
+        assertEquals(ShipmentStatus.DELIVERED, status);
+        verify(shipmentService, never()).updateTrackingFromCarrier(anyLong());
+        verify(eventPublisher).publishShipmentStatusUpdateEvent(any(), eq("OUT_FOR_DELIVERY"), eq("DELIVERED"));
+        verify(eventPublisher).publishOrderDeliveredEvent(any());
+    }
+
+    @Test
+    void processTrackingResponse_ApplyFails_ShouldThrowForRetry() {
+        // Given
+        TrackingResponse trackingResponse = new TrackingResponse(
+            "1234567890", "IN_TRANSIT", "In transit", "Memphis, TN", null, null, List.of());
+        when(shipmentService.applyTrackingResponse(1L, trackingResponse))
+            .thenThrow(new RuntimeException("Database unavailable"));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> orchestrationService.processTrackingResponse(1L, trackingResponse));
+        verify(eventPublisher, never()).publishShipmentStatusUpdateEvent(any(), anyString(), anyString());
+    }
+}
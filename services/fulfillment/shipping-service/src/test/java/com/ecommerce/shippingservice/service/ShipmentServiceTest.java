@@ -253,6 +253,26 @@ class ShipmentServiceTest {
         verify(carrierService).trackShipment(eq(TENANT_ID), any(TrackingRequest.class));
     }
 
+    @Test
+    void applyTrackingResponse_ShouldUpdateTrackingAndReturnPreviousStatus() {
+        // Arrange
+        Long shipmentId = 1L;
+        Shipment shipment = createShipment();
+        shipment.setStatus(ShipmentStatus.IN_TRANSIT);
+        TrackingResponse trackingResponse = new TrackingResponse(
+            "1234567890", "OUT_FOR_DELIVERY", "Out for delivery", "Anytown", null, null, List.of());
+
+        when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.of(shipment));
+
+        // Act
+        ShipmentStatus previousStatus = shipmentService.applyTrackingResponse(shipmentId, trackingResponse);
+
+        // Assert
+        assertEquals(ShipmentStatus.IN_TRANSIT, previousStatus);
+        verify(trackingService).updateTrackingFromCarrierResponse(shipment, trackingResponse);
+        verifyNoInteractions(carrierServiceFactory);
+    }
+
     @Test
     void cancelShipment_Success() {
         // Arrange
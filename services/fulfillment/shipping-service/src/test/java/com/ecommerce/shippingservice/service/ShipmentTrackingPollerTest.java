@@ -0,0 +1,428 @@
+package com.ecommerce.shippingservice.service;
+
+import com.ecommerce.shared.utils.TenantContext;
+import com.ecommerce.shippingservice.carrier.CarrierService;
+import com.ecommerce.shippingservice.carrier.CarrierServiceFactory;
+import com.ecommerce.shippingservice.carrier.ResilientCarrierService;
+import com.ecommerce.shippingservice.config.TrackingPollerProperties;
+import com.ecommerce.shippingservice.dto.TrackingRequest;
+import com.ecommerce.shippingservice.dto.TrackingResponse;
+import com.ecommerce.shippingservice.entity.ShipmentStatus;
+import com.ecommerce.shippingservice.repository.SchedulerLeaseRepository;
+import com.ecommerce.shippingservice.repository.ShipmentRepository;
+import com.ecommerce.shippingservice.repository.ShipmentRepository.TrackableShipment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShipmentTrackingPollerTest {
+
+    private static final String TENANT = "tenant-123";
+    private static final String CARRIER = "FedEx";
+
+    @Mock
+    private ShipmentRepository shipmentRepository;
+
+    @Mock
+    private SchedulerLeaseRepository leaseRepository;
+
+    @Mock
+    private CarrierServiceFactory carrierServiceFactory;
+
+    @Mock
+    private ResilientCarrierService resilientCarrierService;
+
+    @Mock
+    private ShipmentOrchestrationService orchestrationService;
+
+    @Mock
+    private CarrierService carrierService;
+
+    private TrackingPollerProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ShipmentTrackingPoller poller;
+    private long now;
+
+    // Tenant and shipment count of each carrier call
+    private final List<String> callTenants = new ArrayList<>();
+    private final List<Integer> callSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new TrackingPollerProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        now = System.currentTimeMillis();
+
+        lenient().when(leaseRepository.tryAcquire(eq(ShipmentTrackingPoller.LEASE_NAME), anyString(), any(Duration.class)))
+            .thenReturn(true);
+        lenient().when(carrierServiceFactory.getCarrierService(CARRIER)).thenReturn(Optional.of(carrierService));
+        lenient().when(carrierService.getCarrierName()).thenReturn(CARRIER);
+        lenient().when(carrierService.getMaxTrackingBatchSize()).thenReturn(30);
+        lenient().when(resilientCarrierService.trackShipmentsWithResilience(eq(carrierService), anyString(), anyList()))
+            .thenAnswer(invocation -> {
+                List<TrackingRequest> requests = invocation.getArgument(2);
+                callTenants.add(TenantContext.getTenantId());
+                callSizes.add(requests.size());
+                Map<String, TrackingResponse> responses = new LinkedHashMap<>();
+                for (TrackingRequest request : requests) {
+                    responses.put(request.getTrackingNumber(), new TrackingResponse(
+                        request.getTrackingNumber(), "IN_TRANSIT", "In transit", "Memphis, TN", null, null, List.of()));
+                }
+                return responses;
+            });
+        lenient().when(orchestrationService.processTrackingResponse(anyLong(), any(TrackingResponse.class)))
+            .thenReturn(ShipmentStatus.IN_TRANSIT);
+
+        poller = newPoller(true, 1000);
+    }
+
+    @Test
+    void syncActiveShipments_ShouldPageByLastSeenId() {
+        // Given
+        poller = newPoller(true, 2);
+        when(shipmentRepository.findTrackableAfter(eq(0L), anyList(), any(Pageable.class)))
+            .thenReturn(List.of(shipment(1L, TENANT, hoursAgo(1)), shipment(2L, TENANT, hoursAgo(1))));
+        when(shipmentRepository.findTrackableAfter(eq(2L), anyList(), any(Pageable.class)))
+            .thenReturn(List.of(shipment(3L, TENANT, hoursAgo(1))));
+
+        // When
+        poller.syncActiveShipments();
+
+        // Then
+        verify(shipmentRepository).findTrackableAfter(eq(0L), eq(ShipmentTrackingPoller.ACTIVE_STATUSES), any(Pageable.class));
+        verify(shipmentRepository).findTrackableAfter(eq(2L), eq(ShipmentTrackingPoller.ACTIVE_STATUSES), any(Pageable.class));
+        verifyNoMoreInteractions(shipmentRepository);
+        assertEquals(3, poller.getScheduledShipmentCount());
+    }
+
+    @Test
+    void dispatchDueShipments_ShouldOnlyRefreshShipmentsPastTheirExpectedUpdate() {
+        // Given - in transit updates are expected every 4 hours
+        givenActiveShipments(shipment(1L, TENANT, hoursAgo(5)), shipment(2L, TENANT, hoursAgo(1)));
+
+        // When
+        poller.dispatchDueShipments(now);
+
+        // Then
+        verify(orchestrationService).processTrackingResponse(eq(1L), any(TrackingResponse.class));
+        verify(orchestrationService, never()).processTrackingResponse(eq(2L), any(TrackingResponse.class));
+        assertEquals(List.of(TENANT), callTenants);
+        assertNull(TenantContext.getTenantId());
+    }
+
+    @Test
+    void dispatchDueShipments_ShouldBatchPerTenantUpToCarrierLimit() {
+        // Given
+        when(carrierService.getMaxTrackingBatchSize()).thenReturn(2);
+        givenActiveShipments(
+            shipment(1L, TENANT, hoursAgo(9)),
+            shipment(2L, "tenant-456", hoursAgo(8)),
+            shipment(3L, TENANT, hoursAgo(7)),
+            shipment(4L, TENANT, hoursAgo(6)));
+
+        // When
+        poller.dispatchDueShipments(now);
+
+        // Then
+        assertEquals(List.of(TENANT, "tenant-456", TENANT), callTenants);
+        assertEquals(List.of(2, 1, 1), callSizes);
+        verify(orchestrationService, times(4)).processTrackingResponse(anyLong(), any(TrackingResponse.class));
+    }
+
+    @Test
+    void dispatchDueShipments_ShouldStayWithinCarrierRequestQuota() {
+        // Given - one request allowed, then one every 1000 seconds
+        TrackingPollerProperties.CarrierQuota quota = new TrackingPollerProperties.CarrierQuota();
+        quota.setRequestsPerSecond(0.001);
+        quota.setBurst(1);
+        properties.getCarriers().put("fedex", quota);
+        givenActiveShipments(
+            shipment(1L, TENANT, hoursAgo(6)),
+            shipment(2L, "tenant-456", hoursAgo(5)));
+
+        // When
+        poller.dispatchDueShipments(now);
+        poller.dispatchDueShipments(now);
+
+        // Then
+        assertEquals(List.of(TENANT), callTenants);
+    }
+
+    @Test
+    void dispatchDueShipments_CarrierFailure_ShouldRetryAfterDelay() {
+        // Given
+        when(resilientCarrierService.trackShipmentsWithResilience(eq(carrierService), anyString(), anyList()))
+            .thenReturn(Map.of());
+        givenActiveShipments(shipment(1L, TENANT, hoursAgo(5)));
+
+        // When
+        poller.dispatchDueShipments(now);
+        poller.dispatchDueShipments(now + Duration.ofMinutes(5).toMillis());
+        poller.dispatchDueShipments(now + Duration.ofMinutes(11).toMillis());
+
+        // Then
+        verify(resilientCarrierService, times(2)).trackShipmentsWithResilience(eq(carrierService), eq(TENANT), anyList());
+        verify(orchestrationService, never()).processTrackingResponse(anyLong(), any(TrackingResponse.class));
+        assertEquals(2.0, meterRegistry.get("shipping.tracking.failures").tag("carrier", CARRIER).counter().count());
+        assertEquals(1, poller.getScheduledShipmentCount());
+    }
+
+    @Test
+    void dispatchDueShipments_ShouldRescheduleByNewStatusAndDropDelivered() {
+        // Given
+        when(orchestrationService.processTrackingResponse(eq(1L), any(TrackingResponse.class)))
+            .thenReturn(ShipmentStatus.OUT_FOR_DELIVERY);
+        when(orchestrationService.processTrackingResponse(eq(2L), any(TrackingResponse.class)))
+            .thenReturn(ShipmentStatus.DELIVERED);
+        givenActiveShipments(shipment(1L, TENANT, hoursAgo(5)), shipment(2L, TENANT, hoursAgo(5)));
+
+        // When - out for delivery is expected to change again within 30 minutes
+        poller.dispatchDueShipments(now);
+        poller.dispatchDueShipments(now + Duration.ofMinutes(31).toMillis());
+
+        // Then
+        verify(orchestrationService, times(2)).processTrackingResponse(eq(1L), any(TrackingResponse.class));
+        verify(orchestrationService, times(1)).processTrackingResponse(eq(2L), any(TrackingResponse.class));
+        assertEquals(1, poller.getScheduledShipmentCount());
+    }
+
+    @Test
+    void dispatchDueShipments_ShouldReportThroughputAndStaleness() {
+        // Given
+        givenActiveShipments(shipment(1L, TENANT, hoursAgo(5)), shipment(2L, TENANT, hoursAgo(6)));
+
+        // When
+        poller.dispatchDueShipments(now);
+        poller.dispatchDueShipments(now + Duration.ofSeconds(61).toMillis());
+
+        // Then
+        assertEquals(2.0, meterRegistry.get("shipping.tracking.refreshed").tag("carrier", CARRIER).counter().count());
+        assertEquals(2, meterRegistry.get("shipping.tracking.staleness").timer().count());
+        assertTrue(meterRegistry.get("shipping.tracking.staleness").timer().max(TimeUnit.HOURS) >= 5.9);
+        assertEquals(2, poller.getRefreshedPerMinute());
+    }
+
+    @Test
+    void syncActiveShipments_ShouldDropShipmentsNoLongerActive() {
+        // Given
+        givenActiveShipments(shipment(1L, TENANT, hoursAgo(5)));
+        when(shipmentRepository.findTrackableAfter(eq(0L), anyList(), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        poller.syncActiveShipments();
+        poller.dispatchDueShipments(now);
+
+        // Then
+        assertEquals(0, poller.getScheduledShipmentCount());
+        verifyNoInteractions(resilientCarrierService);
+    }
+
+    @Test
+    void syncActiveShipments_UnsupportedCarrier_ShouldSkip() {
+        // Given
+        TestShipment shipment = shipment(1L, TENANT, hoursAgo(5));
+        shipment.carrierName = "DHL";
+        when(carrierServiceFactory.getCarrierService("DHL")).thenReturn(Optional.empty());
+
+        // When
+        givenActiveShipments(shipment);
+
+        // Then
+        assertEquals(0, poller.getScheduledShipmentCount());
+    }
+
+    @Test
+    void trackingDisabled_ShouldSkip() {
+        // Given
+        poller = newPoller(false, 1000);
+
+        // When
+        poller.syncActiveShipments();
+        poller.dispatchDueShipments(now);
+
+        // Then
+        verifyNoInteractions(shipmentRepository, resilientCarrierService);
+    }
+
+    @Test
+    void renewLease_WhenAnotherInstanceHoldsIt_ShouldNotPoll() {
+        // Given
+        when(leaseRepository.tryAcquire(eq(ShipmentTrackingPoller.LEASE_NAME), anyString(), any(Duration.class)))
+            .thenReturn(false);
+        poller = newPoller(true, 1000);
+
+        // When
+        poller.syncActiveShipments();
+        poller.dispatchDueShipments(now);
+
+        // Then
+        verifyNoInteractions(shipmentRepository, resilientCarrierService);
+    }
+
+    @Test
+    void renewLease_WhenTaken_ShouldLoadActiveShipments() {
+        // Given
+        when(leaseRepository.tryAcquire(eq(ShipmentTrackingPoller.LEASE_NAME), anyString(), any(Duration.class)))
+            .thenReturn(false, true);
+        poller = newPoller(true, 1000);
+        when(shipmentRepository.findTrackableAfter(eq(0L), anyList(), any(Pageable.class)))
+            .thenReturn(List.of(shipment(1L, TENANT, hoursAgo(5))));
+
+        // When
+        poller.renewLease();
+        poller.dispatchDueShipments(now);
+
+        // Then
+        assertEquals(1, poller.getScheduledShipmentCount());
+        assertEquals(List.of(TENANT), callTenants);
+    }
+
+    @Test
+    void renewLease_WhenLost_ShouldStopPolling() {
+        // Given
+        givenActiveShipments(shipment(1L, TENANT, hoursAgo(5)));
+        when(leaseRepository.tryAcquire(eq(ShipmentTrackingPoller.LEASE_NAME), anyString(), any(Duration.class)))
+            .thenReturn(false);
+
+        // When
+        poller.renewLease();
+        poller.dispatchDueShipments(now);
+
+        // Then
+        assertEquals(0, poller.getScheduledShipmentCount());
+        verifyNoInteractions(resilientCarrierService);
+    }
+
+    @Test
+    void renewLease_WhenLeaseCannotBeRenewedInTime_ShouldStopPolling() {
+        // Given - the last renewal is good for 1 ms, then the database becomes unreachable
+        givenActiveShipments(shipment(1L, TENANT, hoursAgo(5)));
+        properties.setLeaseDuration(Duration.ofMillis(1));
+        poller.renewLease();
+        when(leaseRepository.tryAcquire(eq(ShipmentTrackingPoller.LEASE_NAME), anyString(), any(Duration.class)))
+            .thenThrow(new IllegalStateException("connection refused"));
+
+        // When
+        poller.renewLease();
+        sleepPast(Duration.ofMillis(1));
+        poller.dispatchDueShipments(now);
+
+        // Then
+        assertEquals(0, poller.getScheduledShipmentCount());
+        verifyNoInteractions(resilientCarrierService);
+    }
+
+    @Test
+    void shutdown_ShouldReleaseTheLease() {
+        // When
+        poller.shutdown();
+
+        // Then
+        verify(leaseRepository).release(eq(ShipmentTrackingPoller.LEASE_NAME), anyString());
+    }
+
+    private ShipmentTrackingPoller newPoller(boolean enabled, int syncPageSize) {
+        ShipmentTrackingPoller created = new ShipmentTrackingPoller(shipmentRepository, leaseRepository,
+            carrierServiceFactory, resilientCarrierService, orchestrationService, properties, meterRegistry, enabled,
+            syncPageSize, Runnable::run);
+        // Taking the lease loads whatever is active, which is nothing until a test says otherwise
+        created.renewLease();
+        clearInvocations(shipmentRepository);
+        return created;
+    }
+
+    private static void sleepPast(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis() + 5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void givenActiveShipments(TrackableShipment... shipments) {
+        when(shipmentRepository.findTrackableAfter(eq(0L), anyList(), any(Pageable.class))).thenReturn(List.of(shipments));
+        poller.syncActiveShipments();
+    }
+
+    private LocalDateTime hoursAgo(int hours) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()).minusHours(hours);
+    }
+
+    private static TestShipment shipment(Long id, String tenantId, LocalDateTime updatedAt) {
+        TestShipment shipment = new TestShipment();
+        shipment.id = id;
+        shipment.tenantId = tenantId;
+        shipment.carrierName = CARRIER;
+        shipment.trackingNumber = "TRACK" + id;
+        shipment.status = ShipmentStatus.IN_TRANSIT;
+        shipment.estimatedDeliveryDate = LocalDate.now().plusDays(3);
+        shipment.updatedAt = updatedAt;
+        return shipment;
+    }
+
+    private static class TestShipment implements TrackableShipment {
+        private Long id;
+        private String tenantId;
+        private String carrierName;
+        private String trackingNumber;
+        private ShipmentStatus status;
+        private LocalDate estimatedDeliveryDate;
+        private LocalDateTime updatedAt;
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getTenantId() {
+            return tenantId;
+        }
+
+        @Override
+        public String getCarrierName() {
+            return carrierName;
+        }
+
+        @Override
+        public String getTrackingNumber() {
+            return trackingNumber;
+        }
+
+        @Override
+        public ShipmentStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public LocalDate getEstimatedDeliveryDate() {
+            return estimatedDeliveryDate;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
@@ -9,14 +9,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,10 +32,6 @@ class ShipmentTrackingUpdateServiceTest {
 
     @BeforeEach
     void setUp() {
-        // Set configuration properties
-        ReflectionTestUtils.setField(trackingUpdateService, "batchSize", 2);
-        ReflectionTestUtils.setField(trackingUpdateService, "trackingUpdateEnabled", true);
-
         // Create test shipments
         Shipment shipment1 = new Shipment();
         shipment1.setId(1L);
@@ -60,103 +50,6 @@ class ShipmentTrackingUpdateServiceTest {
         testShipments = List.of(shipment1, shipment2);
     }
 
-    @Test
-    void updateActiveShipmentTracking_Success() {
-        // Given - create a page that has no next page (hasNext() returns false)
-        Page<Shipment> shipmentsPage = new PageImpl<>(testShipments, PageRequest.of(0, 2), 2);
-        when(shipmentRepository.findByStatusInAndTrackingNumberIsNotNull(anyList(), any(Pageable.class)))
-            .thenReturn(shipmentsPage);
-
-        // When
-        trackingUpdateService.updateActiveShipmentTracking();
-
-        // Then
-        verify(shipmentRepository, times(1)).findByStatusInAndTrackingNumberIsNotNull(anyList(), any(Pageable.class));
-        verify(orchestrationService, times(2)).processTrackingUpdate(anyLong());
-    }
-
-    @Test
-    void updateActiveShipmentTracking_TrackingDisabled_ShouldSkip() {
-        // Given
-        ReflectionTestUtils.setField(trackingUpdateService, "trackingUpdateEnabled", false);
-
-        // When
-        trackingUpdateService.updateActiveShipmentTracking();
-
-        // Then
-        verify(shipmentRepository, never()).findByStatusInAndTrackingNumberIsNotNull(anyList(), any(Pageable.class));
-        verify(orchestrationService, never()).processTrackingUpdate(anyLong());
-    }
-
-    @Test
-    void updateActiveShipmentTracking_NoActiveShipments_ShouldComplete() {
-        // Given
-        when(shipmentRepository.findByStatusInAndTrackingNumberIsNotNull(anyList(), any(Pageable.class)))
-            .thenReturn(Page.empty());
-
-        // When
-        trackingUpdateService.updateActiveShipmentTracking();
-
-        // Then
-        verify(shipmentRepository).findByStatusInAndTrackingNumberIsNotNull(anyList(), any(Pageable.class));
-        verify(orchestrationService, never()).processTrackingUpdate(anyLong());
-    }
-
-    @Test
-    void updateActiveShipmentTracking_ProcessingError_ShouldContinue() {
-        // Given
-        Page<Shipment> shipmentsPage = new PageImpl<>(testShipments, PageRequest.of(0, 2), 2);
-        when(shipmentRepository.findByStatusInAndTrackingNumberIsNotNull(anyList(), any(Pageable.class)))
-            .thenReturn(shipmentsPage)
-            .thenReturn(Page.empty());
-
-        doThrow(new RuntimeException("Processing failed"))
-            .when(orchestrationService).processTrackingUpdate(1L);
-
-        // When
-        trackingUpdateService.updateActiveShipmentTracking();
-
-        // Then
-        verify(orchestrationService).processTrackingUpdate(1L);
-        verify(orchestrationService).processTrackingUpdate(2L); // Should continue processing
-    }
-
-    @Test
-    void processTrackingUpdateBatch_Success() throws Exception {
-        // When
-        CompletableFuture<Integer> result = trackingUpdateService.processTrackingUpdateBatch(testShipments);
-
-        // Then
-        assertEquals(2, result.get());
-        verify(orchestrationService).processTrackingUpdate(1L);
-        verify(orchestrationService).processTrackingUpdate(2L);
-    }
-
-    @Test
-    void processTrackingUpdateBatch_PartialFailure() throws Exception {
-        // Given
-        doThrow(new RuntimeException("Processing failed"))
-            .when(orchestrationService).processTrackingUpdate(1L);
-
-        // When
-        CompletableFuture<Integer> result = trackingUpdateService.processTrackingUpdateBatch(testShipments);
-
-        // Then
-        assertEquals(1, result.get()); // Only one successful
-        verify(orchestrationService).processTrackingUpdate(1L);
-        verify(orchestrationService).processTrackingUpdate(2L);
-    }
-
-    @Test
-    void processTrackingUpdateBatch_EmptyList() throws Exception {
-        // When
-        CompletableFuture<Integer> result = trackingUpdateService.processTrackingUpdateBatch(List.of());
-
-        // Then
-        assertEquals(0, result.get());
-        verify(orchestrationService, never()).processTrackingUpdate(anyLong());
-    }
-
     @Test
     void updateShipmentTracking_Success() {
         // When
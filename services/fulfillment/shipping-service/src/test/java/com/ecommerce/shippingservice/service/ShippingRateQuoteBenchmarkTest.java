@@ -0,0 +1,119 @@
+package com.ecommerce.shippingservice.service;
+
+import com.ecommerce.shippingservice.carrier.CarrierService;
+import com.ecommerce.shippingservice.carrier.CarrierServiceFactory;
+import com.ecommerce.shippingservice.carrier.ResilientCarrierService;
+import com.ecommerce.shippingservice.config.RateQuoteProperties;
+import com.ecommerce.shippingservice.dto.ShippingRateRequest;
+import com.ecommerce.shippingservice.dto.ShippingRateResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checkout quotes across three carriers that answer in 80-150 ms, comparing the serial path (one
+ * {@code getShippingRatesWithResilience} call per carrier, as checkout pages did before) with the
+ * parallel, cached multi-carrier quote. Requests are drawn from a fixed set of lanes with random
+ * weights, so repeat lanes land in the same weight bucket some of the time. With
+ * {@code -Dperformance.tests.enabled=true} it prints the quote latency of both paths and the hit
+ * ratio of the quote cache.
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class ShippingRateQuoteBenchmarkTest {
+
+    private static final String TENANT = "bench-tenant";
+    private static final int REQUESTS = 300;
+    private static final int LANES = 60;
+    private static final long[] CARRIER_LATENCY_MILLIS = {80, 120, 150};
+
+    @Test
+    void compareParallelCachedQuotesWithSerialQuotes() {
+        List<CarrierService> carriers = new ArrayList<>();
+        for (int i = 0; i < CARRIER_LATENCY_MILLIS.length; i++) {
+            carriers.add(carrier("Carrier" + i, CARRIER_LATENCY_MILLIS[i]));
+        }
+        CarrierServiceFactory factory = mock(CarrierServiceFactory.class);
+        when(factory.getAvailableCarrierServices(TENANT)).thenReturn(carriers);
+
+        ResilientCarrierService resilientCarrierService = new ResilientCarrierService(
+            CircuitBreaker.ofDefaults("carrier-api"),
+            Retry.of("carrier-api", RetryConfig.custom().maxAttempts(1).build()),
+            Bulkhead.ofDefaults("carrier-api"));
+        RateQuoteProperties properties = new RateQuoteProperties();
+        properties.setCarrierTimeout(Duration.ofSeconds(1));
+        ShippingRateQuoteCache cache = new ShippingRateQuoteCache(properties, new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        ShippingRateQuoteService quoteService = new ShippingRateQuoteService(factory, resilientCarrierService, cache,
+            properties, new SimpleMeterRegistry(), executor);
+
+        List<ShippingRateRequest> workload = workload();
+        try {
+            report("serial, uncached", workload, request -> {
+                for (CarrierService carrier : factory.getAvailableCarrierServices(TENANT)) {
+                    resilientCarrierService.getShippingRatesWithResilience(carrier, TENANT, request);
+                }
+            });
+            report("parallel, cached", workload,
+                request -> quoteService.getShippingRatesFromAllCarriers(TENANT, request));
+            System.out.printf("  cache hit ratio %.1f%%, %d quotes cached%n", cache.hitRatio() * 100, cache.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void report(String label, List<ShippingRateRequest> workload, Consumer<ShippingRateRequest> quote) {
+        long[] nanos = new long[workload.size()];
+        long start = System.nanoTime();
+        for (int i = 0; i < workload.size(); i++) {
+            long requestStart = System.nanoTime();
+            quote.accept(workload.get(i));
+            nanos[i] = System.nanoTime() - requestStart;
+        }
+        long totalMillis = (System.nanoTime() - start) / 1_000_000;
+        Arrays.sort(nanos);
+        System.out.printf("  %-17s total %,7d ms   p50 %7.1f ms   p95 %7.1f ms   p99 %7.1f ms%n", label, totalMillis,
+            nanos[nanos.length / 2] / 1e6, nanos[nanos.length * 95 / 100] / 1e6, nanos[nanos.length * 99 / 100] / 1e6);
+    }
+
+    private static List<ShippingRateRequest> workload() {
+        Random random = new Random(42);
+        List<ShippingRateRequest> workload = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int lane = random.nextInt(LANES);
+            BigDecimal weightKg = BigDecimal.valueOf(1 + random.nextInt(30), 1);
+            workload.add(new ShippingRateRequest("Warehouse " + lane % 5, "Destination " + lane, weightKg));
+        }
+        return workload;
+    }
+
+    private static CarrierService carrier(String name, long latencyMillis) {
+        CarrierService carrier = mock(CarrierService.class);
+        when(carrier.getCarrierName()).thenReturn(name);
+        when(carrier.getShippingRates(anyString(), any(ShippingRateRequest.class))).thenAnswer(invocation -> {
+            Thread.sleep(latencyMillis);
+            return List.of(new ShippingRateResponse(name, "GROUND", name + " Ground",
+                new BigDecimal("10.00").add(BigDecimal.valueOf(latencyMillis, 2)), "USD", 5, LocalDate.now().plusDays(5)));
+        });
+        return carrier;
+    }
+}
@@ -0,0 +1,162 @@
+package com.ecommerce.shippingservice.service;
+
+import com.ecommerce.shippingservice.config.RateQuoteProperties;
+import com.ecommerce.shippingservice.dto.ShippingRateRequest;
+import com.ecommerce.shippingservice.dto.ShippingRateResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShippingRateQuoteCacheTest {
+
+    private static final String TENANT = "tenant-123";
+    private static final String CARRIER = "FedEx";
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private ShippingRateQuoteCache cache;
+
+    @BeforeEach
+    void setUp() {
+        RateQuoteProperties properties = new RateQuoteProperties();
+        properties.setCacheTtl(TTL);
+        properties.setCacheMaxSize(10);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ShippingRateQuoteCache(properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    void get_ShouldShareQuoteAcrossAddressFormattingAndWeightBucket() {
+        // Given
+        cache.put(TENANT, CARRIER, cache.bucketed(request("12 Main St., Springfield", "500 Oak Ave", "1.1")), rates());
+
+        // When
+        List<ShippingRateResponse> cached = cache.get(TENANT, "fedex",
+            cache.bucketed(request("12  main st springfield", "500 OAK AVE.", "1.4")));
+
+        // Then
+        assertNotNull(cached);
+        assertEquals(new BigDecimal("12.50"), cached.get(0).getRate());
+    }
+
+    @Test
+    void get_ShouldMissForOtherWeightBucketServiceLevelTenantOrCarrier() {
+        // Given
+        cache.put(TENANT, CARRIER, cache.bucketed(request("Origin St", "Destination Rd", "1.1")), rates());
+        ShippingRateRequest express = request("Origin St", "Destination Rd", "1.1");
+        express.setServiceType("express");
+
+        // When & Then
+        assertNull(cache.get(TENANT, CARRIER, cache.bucketed(request("Origin St", "Destination Rd", "1.6"))));
+        assertNull(cache.get(TENANT, CARRIER, cache.bucketed(express)));
+        assertNull(cache.get("other-tenant", CARRIER, cache.bucketed(request("Origin St", "Destination Rd", "1.1"))));
+        assertNull(cache.get(TENANT, "UPS", cache.bucketed(request("Origin St", "Destination Rd", "1.1"))));
+    }
+
+    @Test
+    void bucketed_ShouldRoundWeightUpToBucketBoundary() {
+        assertEquals(0, new BigDecimal("1.5").compareTo(cache.bucketed(request("a", "b", "1.01")).getWeightKg()));
+        assertEquals(0, new BigDecimal("1.5").compareTo(cache.bucketed(request("a", "b", "1.5")).getWeightKg()));
+        assertEquals(0, new BigDecimal("0.5").compareTo(cache.bucketed(request("a", "b", "0.2")).getWeightKg()));
+    }
+
+    @Test
+    void get_AfterTtl_ShouldMiss() {
+        // Given
+        ShippingRateRequest request = cache.bucketed(request("Origin St", "Destination Rd", "2"));
+        cache.put(TENANT, CARRIER, request, rates());
+
+        // When
+        clock.addAndGet(TTL.toNanos());
+
+        // Then
+        assertNull(cache.get(TENANT, CARRIER, request));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_ShouldReturnCopiesWithDeliveryDateFromToday() {
+        // Given
+        ShippingRateRequest request = cache.bucketed(request("Origin St", "Destination Rd", "2"));
+        List<ShippingRateResponse> quoted = rates();
+        quoted.get(0).setEstimatedDeliveryDate(LocalDate.now().minusDays(3));
+        cache.put(TENANT, CARRIER, request, quoted);
+
+        // When
+        List<ShippingRateResponse> cached = cache.get(TENANT, CARRIER, request);
+        cached.get(0).setRate(BigDecimal.ONE);
+
+        // Then
+        assertEquals(LocalDate.now().plusDays(5), cached.get(0).getEstimatedDeliveryDate());
+        assertEquals(new BigDecimal("12.50"), cache.get(TENANT, CARRIER, request).get(0).getRate());
+    }
+
+    @Test
+    void put_OverCapacity_ShouldStayBounded() {
+        // When
+        for (int i = 0; i < 25; i++) {
+            cache.put(TENANT, CARRIER, cache.bucketed(request("Origin " + i, "Destination", "1")), rates());
+        }
+
+        // Then
+        assertEquals(10, cache.size());
+        assertNotNull(cache.get(TENANT, CARRIER, cache.bucketed(request("Origin 24", "Destination", "1"))));
+    }
+
+    @Test
+    void put_OverCapacity_ShouldKeepQuotesThatAreRead() {
+        // Given
+        ShippingRateRequest popular = cache.bucketed(request("Origin St", "Destination Rd", "2"));
+        cache.put(TENANT, CARRIER, popular, rates());
+
+        // When
+        for (int i = 0; i < 25; i++) {
+            cache.get(TENANT, CARRIER, popular);
+            cache.put(TENANT, CARRIER, cache.bucketed(request("Origin " + i, "Destination", "1")), rates());
+        }
+
+        // Then
+        assertNotNull(cache.get(TENANT, CARRIER, popular));
+        assertNull(cache.get(TENANT, CARRIER, cache.bucketed(request("Origin 0", "Destination", "1"))));
+    }
+
+    @Test
+    void hitRatio_ShouldCountHitsAndMisses() {
+        // Given
+        ShippingRateRequest request = cache.bucketed(request("Origin St", "Destination Rd", "2"));
+        cache.get(TENANT, CARRIER, request);
+        cache.put(TENANT, CARRIER, request, rates());
+
+        // When
+        cache.get(TENANT, CARRIER, request);
+        cache.get(TENANT, CARRIER, request);
+        cache.get(TENANT, CARRIER, request);
+
+        // Then
+        assertEquals(0.75, cache.hitRatio(), 1e-9);
+        assertEquals(3.0, meterRegistry.get("shipping.rate_quote_cache.hits").counter().count());
+        assertEquals(1.0, meterRegistry.get("shipping.rate_quote_cache.misses").counter().count());
+        assertEquals(0.75, meterRegistry.get("shipping.rate_quote_cache.hit_ratio").gauge().value(), 1e-9);
+    }
+
+    private static ShippingRateRequest request(String origin, String destination, String weightKg) {
+        return new ShippingRateRequest(origin, destination, new BigDecimal(weightKg));
+    }
+
+    private static List<ShippingRateResponse> rates() {
+        return new ArrayList<>(List.of(
+            new ShippingRateResponse(CARRIER, "FEDEX_GROUND", "FedEx Ground",
+                new BigDecimal("12.50"), "USD", 5, LocalDate.now().plusDays(5))
+        ));
+    }
+}
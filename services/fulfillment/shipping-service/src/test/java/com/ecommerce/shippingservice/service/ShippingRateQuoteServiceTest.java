@@ -0,0 +1,214 @@
+package com.ecommerce.shippingservice.service;
+
+import com.ecommerce.shippingservice.carrier.CarrierService;
+import com.ecommerce.shippingservice.carrier.CarrierServiceFactory;
+import com.ecommerce.shippingservice.carrier.ResilientCarrierService;
+import com.ecommerce.shippingservice.config.RateQuoteProperties;
+import com.ecommerce.shippingservice.dto.MultiCarrierRateResponse;
+import com.ecommerce.shippingservice.dto.ShippingRateRequest;
+import com.ecommerce.shippingservice.dto.ShippingRateResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShippingRateQuoteServiceTest {
+
+    private static final String TENANT = "tenant-123";
+
+    @Mock
+    private CarrierServiceFactory carrierServiceFactory;
+
+    @Mock
+    private CarrierService fedEx;
+
+    @Mock
+    private CarrierService ups;
+
+    private final CountDownLatch releaseSlowCarrier = new CountDownLatch(1);
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private ShippingRateQuoteCache quoteCache;
+    private ShippingRateQuoteService quoteService;
+
+    @BeforeEach
+    void setUp() {
+        RateQuoteProperties properties = new RateQuoteProperties();
+        properties.setCarrierTimeout(Duration.ofMillis(300));
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        quoteCache = new ShippingRateQuoteCache(properties, meterRegistry);
+        ResilientCarrierService resilientCarrierService = new ResilientCarrierService(
+            CircuitBreaker.ofDefaults("carrier-api"),
+            Retry.of("carrier-api", RetryConfig.custom().maxAttempts(1).build()),
+            Bulkhead.ofDefaults("carrier-api"));
+        quoteService = new ShippingRateQuoteService(carrierServiceFactory, resilientCarrierService, quoteCache,
+            properties, meterRegistry, executor);
+
+        lenient().when(fedEx.getCarrierName()).thenReturn("FedEx");
+        lenient().when(ups.getCarrierName()).thenReturn("UPS");
+        lenient().when(fedEx.getShippingRates(eq(TENANT), any(ShippingRateRequest.class)))
+            .thenReturn(List.of(rate("FedEx", "FEDEX_GROUND", "12.50"), rate("FedEx", "FEDEX_2_DAY", "35.00")));
+        lenient().when(ups.getShippingRates(eq(TENANT), any(ShippingRateRequest.class)))
+            .thenReturn(List.of(rate("UPS", "UPS_GROUND", "11.75")));
+        lenient().when(carrierServiceFactory.getAvailableCarrierServices(TENANT)).thenReturn(List.of(fedEx, ups));
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlowCarrier.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getShippingRatesFromAllCarriers_ShouldMergeRatesCheapestFirst() {
+        // When
+        MultiCarrierRateResponse response = quoteService.getShippingRatesFromAllCarriers(TENANT, request("1.2"));
+
+        // Then
+        assertEquals(List.of("FedEx", "UPS"), response.getQuotedCarriers());
+        assertFalse(response.isPartial());
+        assertEquals(3, response.getRates().size());
+        assertEquals("UPS_GROUND", response.getCheapestRate().getServiceCode());
+        assertEquals("FEDEX_2_DAY", response.getRates().get(2).getServiceCode());
+    }
+
+    @Test
+    void getShippingRatesFromAllCarriers_ShouldQueryCarriersInParallel() throws Exception {
+        // Given - each carrier only answers once the other one has been called
+        CountDownLatch bothCalled = new CountDownLatch(2);
+        when(fedEx.getShippingRates(eq(TENANT), any(ShippingRateRequest.class))).thenAnswer(invocation -> {
+            bothCalled.countDown();
+            bothCalled.await(1, TimeUnit.SECONDS);
+            return List.of(rate("FedEx", "FEDEX_GROUND", "12.50"));
+        });
+        when(ups.getShippingRates(eq(TENANT), any(ShippingRateRequest.class))).thenAnswer(invocation -> {
+            bothCalled.countDown();
+            bothCalled.await(1, TimeUnit.SECONDS);
+            return List.of(rate("UPS", "UPS_GROUND", "11.75"));
+        });
+
+        // When
+        MultiCarrierRateResponse response = quoteService.getShippingRatesFromAllCarriers(TENANT, request("1.2"));
+
+        // Then
+        assertEquals(List.of("FedEx", "UPS"), response.getQuotedCarriers());
+    }
+
+    @Test
+    void getShippingRatesFromAllCarriers_WithSlowCarrier_ShouldReturnPartialResultWithinTimeout() {
+        // Given
+        when(ups.getShippingRates(eq(TENANT), any(ShippingRateRequest.class))).thenAnswer(invocation -> {
+            releaseSlowCarrier.await();
+            return List.of(rate("UPS", "UPS_GROUND", "11.75"));
+        });
+
+        // When
+        long start = System.nanoTime();
+        MultiCarrierRateResponse response = quoteService.getShippingRatesFromAllCarriers(TENANT, request("1.2"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertTrue(elapsedMillis < 2000, "waited " + elapsedMillis + " ms");
+        assertEquals(List.of("FedEx"), response.getQuotedCarriers());
+        assertEquals(List.of("UPS"), response.getTimedOutCarriers());
+        assertTrue(response.isPartial());
+        assertEquals("FEDEX_GROUND", response.getCheapestRate().getServiceCode());
+        assertEquals(1.0, meterRegistry.get("shipping.rate_quotes.timeouts").tag("carrier", "UPS").counter().count());
+    }
+
+    @Test
+    void getShippingRatesFromAllCarriers_WithFailingCarrier_ShouldReportItAndNotCacheFallback() {
+        // Given
+        when(ups.getShippingRates(eq(TENANT), any(ShippingRateRequest.class)))
+            .thenThrow(new IllegalStateException("UPS carrier not configured"));
+
+        // When
+        MultiCarrierRateResponse response = quoteService.getShippingRatesFromAllCarriers(TENANT, request("1.2"));
+
+        // Then
+        assertEquals(List.of("FedEx"), response.getQuotedCarriers());
+        assertEquals(List.of("UPS"), response.getFailedCarriers());
+        assertNull(quoteCache.get(TENANT, "UPS", quoteCache.bucketed(request("1.2"))));
+    }
+
+    @Test
+    void getShippingRatesFromAllCarriers_SameLaneAndWeightBucket_ShouldServeFromCache() {
+        // Given
+        quoteService.getShippingRatesFromAllCarriers(TENANT, request("1.2"));
+
+        // When
+        MultiCarrierRateResponse response = quoteService.getShippingRatesFromAllCarriers(TENANT, request("1.4"));
+
+        // Then
+        assertEquals(3, response.getRates().size());
+        verify(fedEx, times(1)).getShippingRates(eq(TENANT), any(ShippingRateRequest.class));
+        verify(ups, times(1)).getShippingRates(eq(TENANT), any(ShippingRateRequest.class));
+    }
+
+    @Test
+    void getShippingRatesFromAllCarriers_ShouldAskCarriersForBucketWeight() {
+        // When
+        quoteService.getShippingRatesFromAllCarriers(TENANT, request("1.2"));
+
+        // Then
+        verify(fedEx).getShippingRates(eq(TENANT),
+            argThat(request -> request.getWeightKg().compareTo(new BigDecimal("1.5")) == 0));
+    }
+
+    @Test
+    void getShippingRates_WhenCarrierFails_ShouldFallBackWithoutCaching() {
+        // Given
+        when(fedEx.getShippingRates(eq(TENANT), any(ShippingRateRequest.class)))
+            .thenThrow(new IllegalStateException("FedEx carrier not configured"));
+
+        // When
+        List<ShippingRateResponse> rates = quoteService.getShippingRates(fedEx, TENANT, request("1.2"));
+
+        // Then
+        assertEquals(2, rates.size());
+        assertEquals("STANDARD", rates.get(0).getServiceCode());
+        assertEquals(0, quoteCache.size());
+    }
+
+    @Test
+    void getShippingRates_SecondCall_ShouldServeFromCache() {
+        // When
+        quoteService.getShippingRates(fedEx, TENANT, request("1.2"));
+        List<ShippingRateResponse> rates = quoteService.getShippingRates(fedEx, TENANT, request("1.3"));
+
+        // Then
+        assertEquals(2, rates.size());
+        verify(fedEx, times(1)).getShippingRates(eq(TENANT), any(ShippingRateRequest.class));
+    }
+
+    private static ShippingRateRequest request(String weightKg) {
+        return new ShippingRateRequest("1 Warehouse Way, Memphis TN", "12 Main St, Springfield IL", new BigDecimal(weightKg));
+    }
+
+    private static ShippingRateResponse rate(String carrier, String serviceCode, String amount) {
+        return new ShippingRateResponse(carrier, serviceCode, serviceCode, new BigDecimal(amount), "USD", 5,
+            LocalDate.now().plusDays(5));
+    }
+}
@@ -8,7 +8,9 @@ import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -20,11 +22,19 @@ public class BusinessMetricsCollector {
 
     private final MeterRegistry meterRegistry;
     private final ConcurrentHashMap<String, AtomicLong> gaugeValues = new ConcurrentHashMap<>();
+    private final List<ProductSearchListener> productSearchListeners = new CopyOnWriteArrayList<>();
 
     public BusinessMetricsCollector(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
     }
 
+    /**
+     * Register a listener to be called with every product search recorded from now on
+     */
+    public void addProductSearchListener(ProductSearchListener listener) {
+        productSearchListeners.add(listener);
+    }
+
     // Order Service Metrics
     public void recordOrderCreated(String tenantId, BigDecimal orderValue) {
         Counter.builder("business.orders.created")
@@ -132,6 +142,10 @@ public class BusinessMetricsCollector {
                 .tag("tenant", tenantId)
                 .register(meterRegistry)
                 .record(resultCount);
+
+        for (ProductSearchListener listener : productSearchListeners) {
+            listener.onProductSearch(tenantId, searchTerm, resultCount);
+        }
     }
 
     // Inventory Service Metrics
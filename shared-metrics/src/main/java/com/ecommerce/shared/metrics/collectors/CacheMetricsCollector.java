@@ -2,11 +2,13 @@ package com.ecommerce.shared.metrics.collectors;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Collector for Redis cache metrics including hit/miss ratios and operation timing
@@ -70,6 +72,48 @@ public class CacheMetricsCollector {
                 .increment();
     }
 
+    /**
+     * Record a cache miss served by joining a concurrent load of the same key
+     */
+    public void recordCoalescedLoad(String cacheName) {
+        Counter.builder("cache.loads.coalesced")
+                .description("Cache misses that joined an in-flight load")
+                .tag("cache", cacheName)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Record a lookup in one tier of a multi-level cache
+     */
+    public void recordTierLookup(String cacheName, String tier, boolean hit, long durationNanos) {
+        Counter.builder("cache.tier.operations")
+                .description("Lookups per cache tier")
+                .tag("cache", cacheName)
+                .tag("tier", tier) // l1, l2
+                .tag("result", hit ? "hit" : "miss")
+                .register(meterRegistry)
+                .increment();
+
+        Timer.builder("cache.tier.duration")
+                .description("Lookup duration per cache tier")
+                .tag("cache", cacheName)
+                .tag("tier", tier)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Track the number of entries held in one tier of a multi-level cache
+     */
+    public <T> void registerTierSize(String cacheName, String tier, T cache, ToDoubleFunction<T> size) {
+        Gauge.builder("cache.tier.size", cache, size)
+                .description("Entries held per cache tier")
+                .tag("cache", cacheName)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
     /**
      * Record cache size
      */
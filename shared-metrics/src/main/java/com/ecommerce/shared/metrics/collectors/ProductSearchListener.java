@@ -0,0 +1,11 @@
+package com.ecommerce.shared.metrics.collectors;
+
+/**
+ * Receives every product search recorded by {@link BusinessMetricsCollector}, e.g. to rank
+ * search suggestions by what shoppers search for
+ */
+@FunctionalInterface
+public interface ProductSearchListener {
+
+    void onProductSearch(String tenantId, String searchTerm, int resultCount);
+}
@@ -10,6 +10,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -205,6 +207,20 @@ class BusinessMetricsCollectorTest {
         assertEquals(resultCount, summary.totalAmount());
     }
 
+    @Test
+    void shouldNotifyProductSearchListeners() {
+        // Given
+        List<String> searches = new ArrayList<>();
+        businessMetricsCollector.addProductSearchListener(
+                (tenantId, searchTerm, resultCount) -> searches.add(tenantId + ":" + searchTerm + ":" + resultCount));
+
+        // When
+        businessMetricsCollector.recordProductSearch("tenant1", "laptop", 25);
+
+        // Then
+        assertEquals(List.of("tenant1:laptop:25"), searches);
+    }
+
     @Test
     void shouldRecordStockLevel() {
         // Given
@@ -9,6 +9,9 @@ import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class CacheMetricsCollectorTest {
@@ -97,6 +100,64 @@ class CacheMetricsCollectorTest {
         assertEquals(1, counter.count());
     }
 
+    @Test
+    void shouldRecordCoalescedLoad() {
+        // Given
+        String cacheName = "products";
+
+        // When
+        cacheMetricsCollector.recordCoalescedLoad(cacheName);
+        cacheMetricsCollector.recordCoalescedLoad(cacheName);
+
+        // Then
+        Counter counter = meterRegistry.find("cache.loads.coalesced")
+                .tag("cache", cacheName)
+                .counter();
+        assertNotNull(counter);
+        assertEquals(2, counter.count());
+    }
+
+    @Test
+    void shouldRecordTierLookups() {
+        // Given
+        String cacheName = "products";
+
+        // When
+        cacheMetricsCollector.recordTierLookup(cacheName, "l1", true, 800);
+        cacheMetricsCollector.recordTierLookup(cacheName, "l1", false, 600);
+        cacheMetricsCollector.recordTierLookup(cacheName, "l2", true, 450_000);
+
+        // Then
+        Counter l1Hits = meterRegistry.find("cache.tier.operations")
+                .tags("cache", cacheName, "tier", "l1", "result", "hit")
+                .counter();
+        Counter l1Misses = meterRegistry.find("cache.tier.operations")
+                .tags("cache", cacheName, "tier", "l1", "result", "miss")
+                .counter();
+        Timer l2Timer = meterRegistry.find("cache.tier.duration")
+                .tags("cache", cacheName, "tier", "l2")
+                .timer();
+        assertEquals(1, l1Hits.count());
+        assertEquals(1, l1Misses.count());
+        assertNotNull(l2Timer);
+        assertEquals(1, l2Timer.count());
+    }
+
+    @Test
+    void shouldRegisterTierSize() {
+        // Given
+        List<String> entries = new ArrayList<>(List.of("a", "b"));
+
+        // When
+        cacheMetricsCollector.registerTierSize("products", "l1", entries, List::size);
+        entries.add("c");
+
+        // Then
+        Gauge gauge = meterRegistry.find("cache.tier.size").tags("cache", "products", "tier", "l1").gauge();
+        assertNotNull(gauge);
+        assertEquals(3, gauge.value());
+    }
+
     @Test
     void shouldRecordCacheSize() {
         // Given
@@ -1,7 +1,6 @@
 package com.ecommerce.shared.security;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
-import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -29,23 +28,19 @@ public class JwtAuthenticationProvider implements AuthenticationProvider {
         String token = jwtToken.getToken();
 
         try {
-            DecodedJWT decodedJWT = jwtTokenProvider.validateToken(token);
-            
-            String userId = decodedJWT.getSubject();
-            String tenantId = decodedJWT.getClaim("tenant_id").asString();
-            List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
-            String tokenType = decodedJWT.getClaim("token_type").asString();
+            JwtPrincipal principal = jwtTokenProvider.verify(token);
 
             // Only allow access tokens for authentication
-            if (!"access".equals(tokenType)) {
+            if (!principal.isAccessToken()) {
                 throw new BadCredentialsException("Invalid token type");
             }
 
+            List<String> roles = principal.getRoles() != null ? principal.getRoles() : List.of();
             List<GrantedAuthority> authorities = roles.stream()
                     .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                     .collect(Collectors.toList());
 
-            return new JwtAuthenticationToken(token, userId, tenantId, authorities);
+            return new JwtAuthenticationToken(token, principal.getUserId(), principal.getTenantId(), authorities);
 
         } catch (JWTVerificationException e) {
             throw new BadCredentialsException("Invalid JWT token", e);
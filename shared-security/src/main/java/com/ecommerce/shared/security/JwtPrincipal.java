@@ -0,0 +1,67 @@
+package com.ecommerce.shared.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable claims of a verified JWT
+ */
+public final class JwtPrincipal {
+
+    private final String userId;
+    private final String tenantId;
+    private final List<String> roles;
+    private final String tokenType;
+    private final Instant expiresAt;
+
+    public JwtPrincipal(String userId, String tenantId, List<String> roles, String tokenType, Instant expiresAt) {
+        this.userId = userId;
+        this.tenantId = tenantId;
+        this.roles = roles != null ? Collections.unmodifiableList(new ArrayList<>(roles)) : null;
+        this.tokenType = tokenType;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Read the claims of a token that has already been verified
+     */
+    public static JwtPrincipal from(DecodedJWT decodedJWT) {
+        return new JwtPrincipal(
+                decodedJWT.getSubject(),
+                decodedJWT.getClaim("tenant_id").asString(),
+                decodedJWT.getClaim("roles").asList(String.class),
+                decodedJWT.getClaim("token_type").asString(),
+                decodedJWT.getExpiresAt() != null ? decodedJWT.getExpiresAt().toInstant() : null);
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Roles claim, or {@code null} if the token has none
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isAccessToken() {
+        return "access".equals(tokenType);
+    }
+}
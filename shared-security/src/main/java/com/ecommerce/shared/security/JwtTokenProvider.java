@@ -8,13 +8,18 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.List;
 
 /**
- * JWT token provider for creating and validating tokens
+ * JWT token provider for creating and validating tokens.
+ *
+ * The signing algorithm and verifier are built once and shared. {@link #verify} additionally
+ * remembers tokens it has verified until they expire, so a client reusing its access token pays
+ * for the HMAC check only once.
  */
 @Component
 public class JwtTokenProvider {
@@ -31,6 +36,13 @@ public class JwtTokenProvider {
     @Value("${jwt.issuer:ecommerce-backend}")
     private String issuer;
 
+    @Value("${jwt.verification-cache.max-size:10000}")
+    private int verificationCacheMaxSize = 10000;
+
+    private Clock clock = Clock.systemUTC();
+
+    private volatile VerificationContext verification;
+
     public String createAccessToken(String userId, String tenantId, List<String> roles) {
         Instant now = Instant.now();
         Instant expiry = now.plus(accessTokenExpiration, ChronoUnit.SECONDS);
@@ -43,7 +55,7 @@ public class JwtTokenProvider {
                 .withClaim("token_type", "access")
                 .withIssuedAt(Date.from(now))
                 .withExpiresAt(Date.from(expiry))
-                .sign(Algorithm.HMAC256(secretKey));
+                .sign(verification().algorithm);
     }
 
     public String createRefreshToken(String userId, String tenantId) {
@@ -57,44 +69,80 @@ public class JwtTokenProvider {
                 .withClaim("token_type", "refresh")
                 .withIssuedAt(Date.from(now))
                 .withExpiresAt(Date.from(expiry))
-                .sign(Algorithm.HMAC256(secretKey));
+                .sign(verification().algorithm);
     }
 
+    /**
+     * Verify a token's signature, issuer and expiry. Always checks the signature; use
+     * {@link #verify} for tokens presented on every request.
+     */
     public DecodedJWT validateToken(String token) throws JWTVerificationException {
-        Algorithm algorithm = Algorithm.HMAC256(secretKey);
-        JWTVerifier verifier = JWT.require(algorithm)
-                .withIssuer(issuer)
-                .build();
+        return verification().verifier.verify(token);
+    }
 
-        return verifier.verify(token);
+    /**
+     * Verify a token once and return its claims. Tokens verified before are served from the
+     * cache until they expire.
+     */
+    public JwtPrincipal verify(String token) throws JWTVerificationException {
+        VerificationContext current = verification();
+        JwtPrincipal cached = current.cache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        JwtPrincipal principal = JwtPrincipal.from(current.verifier.verify(token));
+        current.cache.put(token, principal);
+        return principal;
     }
 
     public String getUserIdFromToken(String token) {
-        DecodedJWT decodedJWT = validateToken(token);
-        return decodedJWT.getSubject();
+        return verify(token).getUserId();
     }
 
     public String getTenantIdFromToken(String token) {
-        DecodedJWT decodedJWT = validateToken(token);
-        return decodedJWT.getClaim("tenant_id").asString();
+        return verify(token).getTenantId();
     }
 
     public List<String> getRolesFromToken(String token) {
-        DecodedJWT decodedJWT = validateToken(token);
-        return decodedJWT.getClaim("roles").asList(String.class);
+        return verify(token).getRoles();
     }
 
     public String getTokenTypeFromToken(String token) {
-        DecodedJWT decodedJWT = validateToken(token);
-        return decodedJWT.getClaim("token_type").asString();
+        return verify(token).getTokenType();
     }
 
     public boolean isTokenExpired(String token) {
         try {
-            DecodedJWT decodedJWT = validateToken(token);
-            return decodedJWT.getExpiresAt().before(new Date());
+            return !verify(token).getExpiresAt().isAfter(clock.instant());
         } catch (JWTVerificationException e) {
             return true;
         }
     }
+
+    // Built on first use rather than in a constructor so the @Value fields are already set
+    private VerificationContext verification() {
+        VerificationContext current = verification;
+        if (current == null) {
+            synchronized (this) {
+                current = verification;
+                if (current == null) {
+                    current = new VerificationContext(secretKey, issuer, verificationCacheMaxSize, clock);
+                    verification = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class VerificationContext {
+        private final Algorithm algorithm;
+        private final JWTVerifier verifier;
+        private final VerifiedTokenCache cache;
+
+        private VerificationContext(String secretKey, String issuer, int cacheMaxSize, Clock clock) {
+            this.algorithm = Algorithm.HMAC256(secretKey);
+            this.verifier = ((JWTVerifier.BaseVerification) JWT.require(algorithm).withIssuer(issuer)).build(clock);
+            this.cache = new VerifiedTokenCache(cacheMaxSize, clock);
+        }
+    }
 }
\ No newline at end of file
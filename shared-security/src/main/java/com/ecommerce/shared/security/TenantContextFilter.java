@@ -58,8 +58,9 @@ public class TenantContextFilter extends OncePerRequestFilter {
         if (StringUtils.hasText(authHeader) && authHeader.startsWith(BEARER_PREFIX)) {
             String token = authHeader.substring(BEARER_PREFIX.length());
             try {
-                String tenantId = jwtTokenProvider.getTenantIdFromToken(token);
-                String userId = jwtTokenProvider.getUserIdFromToken(token);
+                JwtPrincipal principal = jwtTokenProvider.verify(token);
+                String tenantId = principal.getTenantId();
+                String userId = principal.getUserId();
                 
                 if (StringUtils.hasText(tenantId)) {
                     TenantContext.setTenantId(tenantId);
@@ -0,0 +1,67 @@
+package com.ecommerce.shared.security;
+
+import com.ecommerce.shared.utils.cache.BoundedTtlCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Size-bounded cache of tokens whose signature has already been checked.
+ *
+ * Keys are SHA-256 digests of the raw token, so the cache never holds a usable credential, and
+ * each entry is only served until the token's own expiry.
+ */
+final class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final BoundedTtlCache<String, JwtPrincipal> entries;
+    private final Clock clock;
+
+    VerifiedTokenCache(int maxSize, Clock clock) {
+        this.entries = new BoundedTtlCache<>(maxSize, BoundedTtlCache.NO_EXPIRY, () -> epochNanos(clock.instant()), null);
+        this.clock = clock;
+    }
+
+    /**
+     * Principal of a previously verified token, or {@code null} if unknown or expired
+     */
+    JwtPrincipal get(String token) {
+        return entries.get(digest(token));
+    }
+
+    /**
+     * Cache a verified token until its own expiry; a token evicted before then is simply verified
+     * again on its next use
+     */
+    void put(String token, JwtPrincipal principal) {
+        if (principal.getExpiresAt() == null) {
+            return;
+        }
+        long ttlNanos = epochNanos(principal.getExpiresAt()) - epochNanos(clock.instant());
+        entries.put(digest(token), principal, ttlNanos);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+}
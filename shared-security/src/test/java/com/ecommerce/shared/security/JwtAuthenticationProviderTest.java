@@ -1,7 +1,6 @@
 package com.ecommerce.shared.security;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
-import com.auth0.jwt.interfaces.DecodedJWT;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +11,7 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -25,9 +25,6 @@ class JwtAuthenticationProviderTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
-    @Mock
-    private DecodedJWT decodedJWT;
-
     @InjectMocks
     private JwtAuthenticationProvider authenticationProvider;
 
@@ -49,14 +46,7 @@ class JwtAuthenticationProviderTest {
         // Given
         JwtAuthenticationToken authToken = new JwtAuthenticationToken(testToken);
         
-        when(jwtTokenProvider.validateToken(testToken)).thenReturn(decodedJWT);
-        when(decodedJWT.getSubject()).thenReturn(userId);
-        when(decodedJWT.getClaim("tenant_id")).thenReturn(mock(com.auth0.jwt.interfaces.Claim.class));
-        when(decodedJWT.getClaim("tenant_id").asString()).thenReturn(tenantId);
-        when(decodedJWT.getClaim("roles")).thenReturn(mock(com.auth0.jwt.interfaces.Claim.class));
-        when(decodedJWT.getClaim("roles").asList(String.class)).thenReturn(roles);
-        when(decodedJWT.getClaim("token_type")).thenReturn(mock(com.auth0.jwt.interfaces.Claim.class));
-        when(decodedJWT.getClaim("token_type").asString()).thenReturn("access");
+        when(jwtTokenProvider.verify(testToken)).thenReturn(principal("access"));
 
         // When
         Authentication result = authenticationProvider.authenticate(authToken);
@@ -82,14 +72,7 @@ class JwtAuthenticationProviderTest {
         // Given
         JwtAuthenticationToken authToken = new JwtAuthenticationToken(testToken);
         
-        when(jwtTokenProvider.validateToken(testToken)).thenReturn(decodedJWT);
-        when(decodedJWT.getSubject()).thenReturn(userId);
-        when(decodedJWT.getClaim("tenant_id")).thenReturn(mock(com.auth0.jwt.interfaces.Claim.class));
-        when(decodedJWT.getClaim("tenant_id").asString()).thenReturn(tenantId);
-        when(decodedJWT.getClaim("roles")).thenReturn(mock(com.auth0.jwt.interfaces.Claim.class));
-        when(decodedJWT.getClaim("roles").asList(String.class)).thenReturn(roles);
-        when(decodedJWT.getClaim("token_type")).thenReturn(mock(com.auth0.jwt.interfaces.Claim.class));
-        when(decodedJWT.getClaim("token_type").asString()).thenReturn("refresh");
+        when(jwtTokenProvider.verify(testToken)).thenReturn(principal("refresh"));
 
         // When & Then
         assertThrows(BadCredentialsException.class, () -> {
@@ -102,7 +85,7 @@ class JwtAuthenticationProviderTest {
         // Given
         JwtAuthenticationToken authToken = new JwtAuthenticationToken(testToken);
         
-        when(jwtTokenProvider.validateToken(testToken)).thenThrow(new JWTVerificationException("Invalid token"));
+        when(jwtTokenProvider.verify(testToken)).thenThrow(new JWTVerificationException("Invalid token"));
 
         // When & Then
         assertThrows(BadCredentialsException.class, () -> {
@@ -127,4 +110,8 @@ class JwtAuthenticationProviderTest {
         // Then
         assertFalse(supports);
     }
-}
\ No newline at end of file
+
+    private JwtPrincipal principal(String tokenType) {
+        return new JwtPrincipal(userId, tenantId, roles, tokenType, Instant.now().plusSeconds(3600));
+    }
+}
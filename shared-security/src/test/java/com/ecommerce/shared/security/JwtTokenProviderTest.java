@@ -1,11 +1,17 @@
 package com.ecommerce.shared.security;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.List;
 
@@ -176,4 +182,89 @@ class JwtTokenProviderTest {
         // Then
         assertFalse(isExpired);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldVerifyTokenIntoPrincipal() {
+        // Given
+        List<String> roles = Arrays.asList("CUSTOMER", "ADMIN");
+        String token = jwtTokenProvider.createAccessToken("user123", "tenant456", roles);
+
+        // When
+        JwtPrincipal principal = jwtTokenProvider.verify(token);
+
+        // Then
+        assertEquals("user123", principal.getUserId());
+        assertEquals("tenant456", principal.getTenantId());
+        assertEquals(roles, principal.getRoles());
+        assertTrue(principal.isAccessToken());
+        assertNotNull(principal.getExpiresAt());
+        assertThrows(UnsupportedOperationException.class, () -> principal.getRoles().add("SYSTEM"));
+    }
+
+    @Test
+    void shouldServeRepeatedVerificationFromCache() {
+        // Given
+        String token = jwtTokenProvider.createAccessToken("user123", "tenant456", Arrays.asList("CUSTOMER"));
+        JwtPrincipal first = jwtTokenProvider.verify(token);
+
+        // When
+        JwtPrincipal second = jwtTokenProvider.verify(token);
+
+        // Then
+        assertSame(first, second);
+    }
+
+    @Test
+    void shouldNotCacheRejectedToken() {
+        // Given
+        String token = jwtTokenProvider.createAccessToken("user123", "tenant456", Arrays.asList("CUSTOMER"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // When & Then
+        assertThrows(JWTVerificationException.class, () -> jwtTokenProvider.verify(tampered));
+        assertThrows(JWTVerificationException.class, () -> jwtTokenProvider.verify(tampered));
+    }
+
+    @Test
+    void shouldRejectCachedTokenOnceExpired() {
+        // Given
+        MutableClock clock = new MutableClock(Instant.now());
+        ReflectionTestUtils.setField(jwtTokenProvider, "clock", clock);
+        String token = jwtTokenProvider.createAccessToken("user123", "tenant456", Arrays.asList("CUSTOMER"));
+        jwtTokenProvider.verify(token);
+
+        // When
+        clock.advance(Duration.ofSeconds(3601));
+
+        // Then
+        assertThrows(TokenExpiredException.class, () -> jwtTokenProvider.verify(token));
+        assertTrue(jwtTokenProvider.isTokenExpired(token));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.shared.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Single-threaded throughput of JWT verification, i.e. tokens verified per second per core.
+ *
+ * Compares the previous per-request pattern (three getters, each building a new algorithm and
+ * verifier and checking the signature again) with one check through the shared verifier and with
+ * {@link JwtTokenProvider#verify} serving a working set of repeat tokens from its cache. Run with
+ * {@code -Dperformance.tests.enabled=true}; results are printed rather than asserted.
+ */
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class JwtVerificationBenchmarkTest {
+
+    private static final String SECRET = "benchmark-secret-key";
+    private static final String ISSUER = "benchmark-issuer";
+    private static final int DISTINCT_TOKENS = 1_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+    private static final int VERIFICATIONS_PER_ITERATION = 200_000;
+
+    private static volatile Object sink;
+
+    @Test
+    void compareVerificationPaths() {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(provider, "accessTokenExpiration", 3600L);
+        ReflectionTestUtils.setField(provider, "issuer", ISSUER);
+
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            tokens.add(provider.createAccessToken("user-" + i, "tenant-" + (i % 10), List.of("CUSTOMER")));
+        }
+
+        double previous = measure("previous (3 verifier builds)", tokens, JwtVerificationBenchmarkTest::previousClaims);
+        double shared = measure("shared verifier", tokens, provider::validateToken);
+        double cached = measure("verify() with cache", tokens, provider::verify);
+
+        System.out.printf("Speedup over previous: shared %.1fx, cached %.1fx%n", previous / shared, previous / cached);
+        assertNotNull(sink);
+    }
+
+    private static double measure(String name, List<String> tokens, Function<String, Object> verification) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            run(tokens, verification);
+        }
+        long totalNanos = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            totalNanos += run(tokens, verification);
+        }
+        double nanosPerToken = (double) totalNanos / ((long) MEASURED_ITERATIONS * VERIFICATIONS_PER_ITERATION);
+        System.out.printf("%-30s %10.1f ns/token  %,12.0f tokens/s/core%n",
+            name, nanosPerToken, 1_000_000_000.0 / nanosPerToken);
+        return nanosPerToken;
+    }
+
+    private static long run(List<String> tokens, Function<String, Object> verification) {
+        long start = System.nanoTime();
+        for (int i = 0; i < VERIFICATIONS_PER_ITERATION; i++) {
+            sink = verification.apply(tokens.get(i % tokens.size()));
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * What the gateway filter did before: one full verification per claim read
+     */
+    private static Object previousClaims(String token) {
+        String userId = previousValidate(token).getSubject();
+        String tenantId = previousValidate(token).getClaim("tenant_id").asString();
+        List<String> roles = previousValidate(token).getClaim("roles").asList(String.class);
+        return userId + tenantId + roles.size();
+    }
+
+    private static DecodedJWT previousValidate(String token) {
+        JWTVerifier verifier = JWT.require(Algorithm.HMAC256(SECRET))
+                .withIssuer(ISSUER)
+                .build();
+        return verifier.verify(token);
+    }
+}
@@ -14,6 +14,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.MDC;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -51,8 +53,8 @@ class TenantContextFilterTest {
 
         when(request.getHeader("Authorization")).thenReturn(token);
         when(request.getHeader("X-Correlation-ID")).thenReturn(null);
-        when(jwtTokenProvider.getTenantIdFromToken("valid.jwt.token")).thenReturn(tenantId);
-        when(jwtTokenProvider.getUserIdFromToken("valid.jwt.token")).thenReturn(userId);
+        when(jwtTokenProvider.verify("valid.jwt.token"))
+            .thenReturn(new JwtPrincipal(userId, tenantId, List.of("CUSTOMER"), "access", Instant.now().plusSeconds(3600)));
 
         // When
         tenantContextFilter.doFilterInternal(request, response, filterChain);
@@ -108,7 +110,7 @@ class TenantContextFilterTest {
 
         when(request.getHeader("Authorization")).thenReturn(token);
         when(request.getHeader("X-Correlation-ID")).thenReturn(null);
-        when(jwtTokenProvider.getTenantIdFromToken("invalid.jwt.token")).thenThrow(new RuntimeException("Invalid token"));
+        when(jwtTokenProvider.verify("invalid.jwt.token")).thenThrow(new RuntimeException("Invalid token"));
 
         // When
         tenantContextFilter.doFilterInternal(request, response, filterChain);
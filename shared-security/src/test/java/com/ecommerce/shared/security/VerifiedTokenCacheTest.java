@@ -0,0 +1,132 @@
+package com.ecommerce.shared.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @Test
+    void shouldReturnPrincipalOfCachedToken() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, clock);
+        JwtPrincipal principal = principal(NOW.plusSeconds(60));
+        cache.put("token-a", principal);
+
+        // When & Then
+        assertSame(principal, cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+    }
+
+    @Test
+    void shouldDropExpiredEntryOnLookup() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, clock);
+        cache.put("token-a", principal(NOW));
+
+        // When
+        JwtPrincipal result = cache.get("token-a");
+
+        // Then
+        assertNull(result);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldNotCacheExpiredToken() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(2, clock);
+        cache.put("expired", principal(NOW.minusSeconds(1)));
+        cache.put("token-a", principal(NOW.plusSeconds(60)));
+
+        // When
+        cache.put("token-b", principal(NOW.plusSeconds(60)));
+
+        // Then
+        assertEquals(2, cache.size());
+        assertNull(cache.get("expired"));
+        assertNotNull(cache.get("token-a"));
+        assertNotNull(cache.get("token-b"));
+    }
+
+    @Test
+    void shouldExpireEntryAtTokenExpiry() {
+        // Given
+        MutableClock mutableClock = new MutableClock(NOW);
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, mutableClock);
+        cache.put("token-a", principal(NOW.plusSeconds(60)));
+
+        // When
+        mutableClock.now = NOW.plusSeconds(60);
+
+        // Then
+        assertNull(cache.get("token-a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldStayWithinMaxSize() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(3, clock);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            cache.put("token-" + i, principal(NOW.plusSeconds(60)));
+        }
+
+        // Then
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void shouldNotCacheWhenDisabledOrWithoutExpiry() {
+        // Given
+        VerifiedTokenCache disabled = new VerifiedTokenCache(0, clock);
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, clock);
+
+        // When
+        disabled.put("token-a", principal(NOW.plusSeconds(60)));
+        cache.put("token-b", principal(null));
+
+        // Then
+        assertEquals(0, disabled.size());
+        assertEquals(0, cache.size());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static JwtPrincipal principal(Instant expiresAt) {
+        return new JwtPrincipal("user123", "tenant456", List.of("CUSTOMER"), "access", expiresAt);
+    }
+}
@@ -0,0 +1,234 @@
+package com.ecommerce.shared.utils.cache;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded in-process cache whose entries expire a fixed time after they are stored.
+ *
+ * Lookups are plain {@link ConcurrentHashMap} reads. Entries are also queued in the order they
+ * were stored, and a full cache evicts from the head of that queue (the CLOCK algorithm): an
+ * entry read since it was queued, and not yet expired, gets a second chance at the tail, any
+ * other entry is dropped. With one TTL for every entry the head is the first to expire, so a put
+ * on a full cache costs a few queue operations, never a scan of the map. Queue nodes of entries
+ * that were replaced or removed are skipped when they reach the head, and purged in one pass
+ * whenever they outnumber the bound.
+ *
+ * Values are shared between callers and must not be mutated.
+ */
+public final class BoundedTtlCache<K, V> {
+
+    /** TTL of entries that only leave the cache when evicted */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final ConcurrentHashMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Node<K, V>> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final BiConsumer<K, V> removalListener;
+
+    public BoundedTtlCache(int maxSize, long ttlNanos) {
+        this(maxSize, ttlNanos, System::nanoTime, null);
+    }
+
+    /**
+     * @param nanoClock       Source of {@link System#nanoTime()}-like readings
+     * @param removalListener Told about every entry the cache drops by itself, because it expired
+     *                        or was evicted; not about entries replaced or removed by callers.
+     *                        May be null.
+     */
+    public BoundedTtlCache(int maxSize, long ttlNanos, LongSupplier nanoClock, BiConsumer<K, V> removalListener) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.nanoClock = nanoClock;
+        this.removalListener = removalListener;
+    }
+
+    /**
+     * The value of a fresh entry, or null if it is missing or expired
+     */
+    public V get(K key) {
+        Node<K, V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (node.isExpired(nanoClock.getAsLong())) {
+            drop(node);
+            return null;
+        }
+        node.touch();
+        return node.value;
+    }
+
+    /**
+     * Store an entry with the cache's TTL
+     */
+    public void put(K key, V value) {
+        put(key, value, ttlNanos);
+    }
+
+    /**
+     * Store an entry that expires after its own TTL, e.g. a token that must not outlive its expiry
+     */
+    public void put(K key, V value, long ttlNanos) {
+        if (maxSize <= 0 || ttlNanos <= 0) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        Node<K, V> node = new Node<>(key, value, now, ttlNanos);
+        entries.put(key, node);
+        enqueue(node);
+        evictIfOverCapacity(node, now);
+    }
+
+    /**
+     * The value of a fresh entry, stored from the loader first if there is none. Concurrent
+     * callers for the same key share one loaded value.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        long now = nanoClock.getAsLong();
+        Object[] created = new Object[1];
+        Node<K, V> node = entries.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isExpired(now)) {
+                return existing;
+            }
+            Node<K, V> loaded = new Node<>(k, loader.apply(k), now, ttlNanos);
+            created[0] = loaded;
+            return loaded;
+        });
+        if (created[0] != null) {
+            enqueue(node);
+            evictIfOverCapacity(node, now);
+        } else {
+            node.touch();
+        }
+        return node.value;
+    }
+
+    /**
+     * Remove an entry
+     *
+     * @return The value removed, or null if there was none
+     */
+    public V remove(K key) {
+        Node<K, V> node = entries.remove(key);
+        return node != null ? node.value : null;
+    }
+
+    /**
+     * Remove an entry only if it still holds this very value
+     */
+    public boolean remove(K key, V value) {
+        Node<K, V> node = entries.get(key);
+        return node != null && node.value == value && entries.remove(key, node);
+    }
+
+    /**
+     * Remove every entry
+     */
+    public void clear() {
+        entries.clear();
+        order.clear();
+        queued.set(0);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /** Queue nodes, including those of entries replaced or removed since */
+    int queuedNodes() {
+        return queued.get();
+    }
+
+    private void enqueue(Node<K, V> node) {
+        order.add(node);
+        if (queued.incrementAndGet() > 2 * maxSize + 16) {
+            purgeStaleNodes();
+        }
+    }
+
+    private void evictIfOverCapacity(Node<K, V> stored, long now) {
+        // The entry just stored is never the one to go, and the others are spared at most once
+        // per call between them, so the loop ends even if every entry was read
+        int spared = 0;
+        while (entries.size() > maxSize) {
+            Node<K, V> node = order.poll();
+            if (node == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (entries.get(node.key) != node) {
+                continue;
+            }
+            if (node == stored || node.referenced && !node.isExpired(now) && spared++ < maxSize) {
+                node.referenced = false;
+                order.add(node);
+                queued.incrementAndGet();
+                continue;
+            }
+            drop(node);
+        }
+    }
+
+    private void purgeStaleNodes() {
+        synchronized (order) {
+            if (queued.get() <= 2 * maxSize + 16) {
+                return;
+            }
+            order.removeIf(node -> {
+                boolean stale = entries.get(node.key) != node;
+                if (stale) {
+                    queued.decrementAndGet();
+                }
+                return stale;
+            });
+        }
+    }
+
+    private void drop(Node<K, V> node) {
+        if (entries.remove(node.key, node) && removalListener != null) {
+            removalListener.accept(node.key, node.value);
+        }
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final long storedAtNanos;
+        private final long ttlNanos;
+        private volatile boolean referenced;
+
+        private Node(K key, V value, long storedAtNanos, long ttlNanos) {
+            this.key = key;
+            this.value = value;
+            this.storedAtNanos = storedAtNanos;
+            this.ttlNanos = ttlNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - storedAtNanos >= ttlNanos;
+        }
+
+        private void touch() {
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.shared.utils.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheTest {
+
+    private static final long TTL_NANOS = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> removed = new ArrayList<>();
+    private BoundedTtlCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BoundedTtlCache<>(3, TTL_NANOS, clock::get, (key, value) -> removed.add(key));
+    }
+
+    @Test
+    void get_ShouldReturnFreshEntriesOnly() {
+        // Given
+        cache.put("a", "1");
+
+        // When & Then
+        assertEquals("1", cache.get("a"));
+        clock.addAndGet(TTL_NANOS);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(List.of("a"), removed);
+    }
+
+    @Test
+    void put_WithOwnTtl_ShouldExpireAfterIt() {
+        // Given
+        cache.put("a", "1", 10);
+        cache.put("b", "2");
+
+        // When
+        clock.addAndGet(10);
+
+        // Then
+        assertNull(cache.get("a"));
+        assertEquals("2", cache.get("b"));
+    }
+
+    @Test
+    void put_WhenFull_ShouldEvictTheOldestUnreadEntry() {
+        // Given
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.get("a");
+
+        // When
+        cache.put("d", "4");
+
+        // Then - a was read, so b goes instead
+        assertEquals(3, cache.size());
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(List.of("b"), removed);
+    }
+
+    @Test
+    void put_WhenFullOfReadEntries_ShouldStillStayWithinMaxSize() {
+        // Given
+        for (String key : List.of("a", "b", "c")) {
+            cache.put(key, key);
+            cache.get(key);
+        }
+
+        // When
+        cache.put("d", "d");
+
+        // Then
+        assertEquals(3, cache.size());
+        assertEquals("d", cache.get("d"));
+    }
+
+    @Test
+    void put_SameKeyRepeatedly_ShouldKeepTheQueueBounded() {
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("a", String.valueOf(i));
+        }
+
+        // Then
+        assertEquals("9999", cache.get("a"));
+        assertTrue(cache.queuedNodes() <= 2 * cache.maxSize() + 16);
+        assertTrue(removed.isEmpty());
+    }
+
+    @Test
+    void put_ManyKeys_ShouldNeverExceedMaxSize() {
+        // Given
+        BoundedTtlCache<Integer, Integer> large = new BoundedTtlCache<>(1_000, TTL_NANOS, clock::get, null);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            large.put(i, i);
+            if (i % 3 == 0) {
+                large.get(i - 1);
+            }
+        }
+
+        // Then
+        assertEquals(1_000, large.size());
+        assertEquals(99_999, large.get(99_999));
+    }
+
+    @Test
+    void remove_ShouldNotNotifyTheListener() {
+        // Given
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        // When
+        String value = cache.remove("a");
+        boolean stale = cache.remove("b", new String("2"));
+
+        // Then
+        assertEquals("1", value);
+        assertFalse(stale);
+        assertEquals("2", cache.get("b"));
+        assertTrue(removed.isEmpty());
+    }
+
+    @Test
+    void computeIfAbsent_ShouldLoadOnceUntilExpired() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        cache.computeIfAbsent("a", key -> key + loads.incrementAndGet());
+        String cached = cache.computeIfAbsent("a", key -> key + loads.incrementAndGet());
+        clock.addAndGet(TTL_NANOS);
+        String reloaded = cache.computeIfAbsent("a", key -> key + loads.incrementAndGet());
+
+        // Then
+        assertEquals("a1", cached);
+        assertEquals("a2", reloaded);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void put_WithZeroMaxSize_ShouldHoldNothing() {
+        // Given
+        BoundedTtlCache<String, String> disabled = new BoundedTtlCache<>(0, TTL_NANOS, clock::get, null);
+
+        // When
+        disabled.put("a", "1");
+
+        // Then
+        assertNull(disabled.get("a"));
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    void put_WithNoExpiry_ShouldNeverExpire() {
+        // Given
+        cache.put("a", "1", BoundedTtlCache.NO_EXPIRY);
+
+        // When
+        clock.addAndGet(Long.MAX_VALUE / 2);
+
+        // Then
+        assertEquals("1", cache.get("a"));
+    }
+}